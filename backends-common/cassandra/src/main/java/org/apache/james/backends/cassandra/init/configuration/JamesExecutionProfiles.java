@@ -80,6 +80,9 @@ public interface JamesExecutionProfiles {
      * This optional behaviour is based on the fact that data is generally well replicated.
      *
      * Can be used to set either ONE or LOCAL_ONE consistency level.
+     *
+     * Reads done with this profile being idempotent, a speculative execution policy can also be set in order to hedge
+     * slow reads against another replica.
      */
     static DriverExecutionProfile getOptimisticConsistencyLevelProfile(CqlSession session) {
         DriverExecutionProfile executionProfile = session.getContext().getConfig().getProfiles().get("OPTIMISTIC_CONSISTENCY_LEVEL");
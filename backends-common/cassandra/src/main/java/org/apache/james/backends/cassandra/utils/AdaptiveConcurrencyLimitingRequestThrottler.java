@@ -0,0 +1,223 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+
+package org.apache.james.backends.cassandra.utils;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.james.util.concurrency.AdaptiveConcurrencyLimiter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.DriverTimeoutException;
+import com.datastax.oss.driver.api.core.RequestThrottlingException;
+import com.datastax.oss.driver.api.core.config.DefaultDriverOption;
+import com.datastax.oss.driver.api.core.config.DriverExecutionProfile;
+import com.datastax.oss.driver.api.core.config.DriverOption;
+import com.datastax.oss.driver.api.core.context.DriverContext;
+import com.datastax.oss.driver.api.core.servererrors.OverloadedException;
+import com.datastax.oss.driver.api.core.servererrors.QueryConsistencyException;
+import com.datastax.oss.driver.api.core.session.throttling.RequestThrottler;
+import com.datastax.oss.driver.api.core.session.throttling.Throttled;
+
+/**
+ * {@link RequestThrottler} adapting the number of concurrent requests to the latency and to the timeouts of Cassandra,
+ * see {@link AdaptiveConcurrencyLimiter}.
+ *
+ * Compactions or a struggling node quickly increase latencies: the number of concurrent requests is then decreased
+ * in order not to turn them into a timeout storm, and increased again once Cassandra recovers.
+ *
+ * The number of concurrent requests stays between `advanced.throttler.adaptive.min-concurrent-requests` and
+ * `advanced.throttler.max-concurrent-requests`. Requests exceeding it are queued up to `advanced.throttler.max-queue-size`.
+ */
+public class AdaptiveConcurrencyLimitingRequestThrottler implements RequestThrottler {
+    public enum AdaptiveThrottlerOption implements DriverOption {
+        MIN_CONCURRENT_REQUESTS("advanced.throttler.adaptive.min-concurrent-requests"),
+        INITIAL_CONCURRENT_REQUESTS("advanced.throttler.adaptive.initial-concurrent-requests"),
+        BACKOFF_RATIO("advanced.throttler.adaptive.backoff-ratio"),
+        LATENCY_THRESHOLD("advanced.throttler.adaptive.latency-threshold");
+
+        private final String path;
+
+        AdaptiveThrottlerOption(String path) {
+            this.path = path;
+        }
+
+        @Override
+        public String getPath() {
+            return path;
+        }
+    }
+
+    private static final Logger LOG = LoggerFactory.getLogger(AdaptiveConcurrencyLimitingRequestThrottler.class);
+
+    public static Optional<AdaptiveConcurrencyLimitingRequestThrottler> of(CqlSession session) {
+        return Optional.of(session.getContext().getRequestThrottler())
+            .filter(AdaptiveConcurrencyLimitingRequestThrottler.class::isInstance)
+            .map(AdaptiveConcurrencyLimitingRequestThrottler.class::cast);
+    }
+
+    private static boolean isOverloadError(Throwable error) {
+        return error instanceof DriverTimeoutException
+            || error instanceof OverloadedException
+            || error instanceof QueryConsistencyException;
+    }
+
+    private final String logPrefix;
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final int maxQueueSize;
+    private final Queue<Throttled> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queueSize = new AtomicInteger(0);
+    private final Map<Throttled, Long> startTimes = new ConcurrentHashMap<>();
+    private volatile boolean closed;
+
+    public AdaptiveConcurrencyLimitingRequestThrottler(DriverContext context) {
+        this.logPrefix = context.getSessionName();
+        DriverExecutionProfile config = context.getConfig().getDefaultProfile();
+        int maxConcurrentRequests = config.getInt(DefaultDriverOption.REQUEST_THROTTLER_MAX_CONCURRENT_REQUESTS);
+        int minConcurrentRequests = config.getInt(AdaptiveThrottlerOption.MIN_CONCURRENT_REQUESTS,
+            Math.min(AdaptiveConcurrencyLimiter.Configuration.DEFAULT_MIN_LIMIT, maxConcurrentRequests));
+        this.maxQueueSize = config.getInt(DefaultDriverOption.REQUEST_THROTTLER_MAX_QUEUE_SIZE);
+        AdaptiveConcurrencyLimiter.Configuration configuration = AdaptiveConcurrencyLimiter.Configuration.builder()
+            .minLimit(minConcurrentRequests)
+            .maxLimit(maxConcurrentRequests)
+            .initialLimit(config.getInt(AdaptiveThrottlerOption.INITIAL_CONCURRENT_REQUESTS, maxConcurrentRequests))
+            .backoffRatio(config.getDouble(AdaptiveThrottlerOption.BACKOFF_RATIO, AdaptiveConcurrencyLimiter.Configuration.DEFAULT_BACKOFF_RATIO))
+            .latencyThreshold(config.getDuration(AdaptiveThrottlerOption.LATENCY_THRESHOLD, Duration.ofMillis(500)))
+            .maxQueueSize(maxQueueSize)
+            .build();
+        this.limiter = new AdaptiveConcurrencyLimiter(configuration);
+        LOG.debug("[{}] Initializing with {}", logPrefix, configuration);
+    }
+
+    @Override
+    public void register(Throttled request) {
+        if (closed) {
+            fail(request, "The session is shutting down");
+        } else if (limiter.tryAcquire()) {
+            start(request, false);
+        } else if (queueSize.incrementAndGet() <= maxQueueSize) {
+            queue.add(request);
+            // A request might have completed before this one was queued
+            drain();
+        } else {
+            queueSize.decrementAndGet();
+            fail(request, String.format("The session has reached its maximum capacity (concurrent requests: %d, queue size: %d)",
+                limiter.getLimit(), maxQueueSize));
+        }
+    }
+
+    @Override
+    public void signalSuccess(Throttled request) {
+        Long startNanos = startTimes.remove(request);
+        if (startNanos != null) {
+            limiter.onSuccess(startNanos);
+            drain();
+        }
+    }
+
+    @Override
+    public void signalError(Throttled request, Throwable error) {
+        Long startNanos = startTimes.remove(request);
+        if (startNanos != null) {
+            if (isOverloadError(error)) {
+                limiter.onDropped();
+            } else {
+                limiter.onSuccess(startNanos);
+            }
+            drain();
+        }
+    }
+
+    @Override
+    public void signalTimeout(Throttled request) {
+        if (queue.remove(request)) {
+            // The request timed out before it was active
+            queueSize.decrementAndGet();
+            return;
+        }
+        if (startTimes.remove(request) != null) {
+            limiter.onDropped();
+            drain();
+        }
+    }
+
+    @Override
+    public void signalCancel(Throttled request) {
+        if (queue.remove(request)) {
+            queueSize.decrementAndGet();
+            return;
+        }
+        if (startTimes.remove(request) != null) {
+            limiter.onIgnored();
+            drain();
+        }
+    }
+
+    private void start(Throttled request, boolean wasDelayed) {
+        startTimes.put(request, System.nanoTime());
+        request.onThrottleReady(wasDelayed);
+    }
+
+    private void drain() {
+        while (!closed && !queue.isEmpty() && limiter.tryAcquire()) {
+            Throttled next = queue.poll();
+            if (next == null) {
+                limiter.onIgnored();
+                return;
+            }
+            queueSize.decrementAndGet();
+            start(next, true);
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        LOG.debug("[{}] Rejecting {} queued requests after shutdown", logPrefix, queue.size());
+        Throttled request;
+        while ((request = queue.poll()) != null) {
+            fail(request, "The session is shutting down");
+        }
+    }
+
+    public int getLimit() {
+        return limiter.getLimit();
+    }
+
+    public int getInFlight() {
+        return limiter.getInFlight();
+    }
+
+    public int getQueueSize() {
+        return queueSize.get();
+    }
+
+    private static void fail(Throttled request, String message) {
+        request.onThrottleFailure(new RequestThrottlingException(message));
+    }
+}
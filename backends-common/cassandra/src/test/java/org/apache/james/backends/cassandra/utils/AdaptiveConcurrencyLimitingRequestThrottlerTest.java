@@ -0,0 +1,160 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+
+package org.apache.james.backends.cassandra.utils;
+
+import static org.apache.james.backends.cassandra.utils.AdaptiveConcurrencyLimitingRequestThrottler.AdaptiveThrottlerOption.BACKOFF_RATIO;
+import static org.apache.james.backends.cassandra.utils.AdaptiveConcurrencyLimitingRequestThrottler.AdaptiveThrottlerOption.INITIAL_CONCURRENT_REQUESTS;
+import static org.apache.james.backends.cassandra.utils.AdaptiveConcurrencyLimitingRequestThrottler.AdaptiveThrottlerOption.LATENCY_THRESHOLD;
+import static org.apache.james.backends.cassandra.utils.AdaptiveConcurrencyLimitingRequestThrottler.AdaptiveThrottlerOption.MIN_CONCURRENT_REQUESTS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.datastax.oss.driver.api.core.RequestThrottlingException;
+import com.datastax.oss.driver.api.core.config.DefaultDriverOption;
+import com.datastax.oss.driver.api.core.config.DriverConfig;
+import com.datastax.oss.driver.api.core.config.DriverExecutionProfile;
+import com.datastax.oss.driver.api.core.context.DriverContext;
+import com.datastax.oss.driver.api.core.session.throttling.Throttled;
+
+class AdaptiveConcurrencyLimitingRequestThrottlerTest {
+    private AdaptiveConcurrencyLimitingRequestThrottler testee;
+
+    @BeforeEach
+    void setUp() {
+        DriverExecutionProfile profile = mock(DriverExecutionProfile.class);
+        when(profile.getInt(DefaultDriverOption.REQUEST_THROTTLER_MAX_CONCURRENT_REQUESTS)).thenReturn(2);
+        when(profile.getInt(DefaultDriverOption.REQUEST_THROTTLER_MAX_QUEUE_SIZE)).thenReturn(1);
+        when(profile.getInt(eq(MIN_CONCURRENT_REQUESTS), anyInt())).thenReturn(1);
+        when(profile.getInt(eq(INITIAL_CONCURRENT_REQUESTS), anyInt())).thenReturn(2);
+        when(profile.getDouble(eq(BACKOFF_RATIO), anyDouble())).thenReturn(0.5);
+        when(profile.getDuration(eq(LATENCY_THRESHOLD), any())).thenReturn(Duration.ofSeconds(10));
+        DriverConfig config = mock(DriverConfig.class);
+        when(config.getDefaultProfile()).thenReturn(profile);
+        DriverContext context = mock(DriverContext.class);
+        when(context.getSessionName()).thenReturn("test");
+        when(context.getConfig()).thenReturn(config);
+
+        testee = new AdaptiveConcurrencyLimitingRequestThrottler(context);
+    }
+
+    @Test
+    void registerShouldStartRequestsUpToTheLimit() {
+        Throttled request1 = mock(Throttled.class);
+        Throttled request2 = mock(Throttled.class);
+        Throttled request3 = mock(Throttled.class);
+
+        testee.register(request1);
+        testee.register(request2);
+        testee.register(request3);
+
+        verify(request1).onThrottleReady(false);
+        verify(request2).onThrottleReady(false);
+        verify(request3, never()).onThrottleReady(anyBoolean());
+        assertThat(testee.getQueueSize()).isEqualTo(1);
+    }
+
+    @Test
+    void completedRequestsShouldStartQueuedOnes() {
+        Throttled request1 = mock(Throttled.class);
+        Throttled request2 = mock(Throttled.class);
+        Throttled request3 = mock(Throttled.class);
+        testee.register(request1);
+        testee.register(request2);
+        testee.register(request3);
+
+        testee.signalSuccess(request1);
+
+        verify(request3).onThrottleReady(true);
+        assertThat(testee.getQueueSize()).isZero();
+    }
+
+    @Test
+    void registerShouldFailWhenTheQueueIsFull() {
+        testee.register(mock(Throttled.class));
+        testee.register(mock(Throttled.class));
+        testee.register(mock(Throttled.class));
+        Throttled request = mock(Throttled.class);
+
+        testee.register(request);
+
+        verify(request).onThrottleFailure(any(RequestThrottlingException.class));
+    }
+
+    @Test
+    void timeoutsShouldDecreaseTheLimit() {
+        Throttled request = mock(Throttled.class);
+        testee.register(request);
+
+        testee.signalTimeout(request);
+
+        assertThat(testee.getLimit()).isEqualTo(1);
+        assertThat(testee.getInFlight()).isZero();
+    }
+
+    @Test
+    void nonOverloadErrorsShouldNotDecreaseTheLimit() {
+        Throttled request = mock(Throttled.class);
+        testee.register(request);
+
+        testee.signalError(request, new IllegalStateException());
+
+        assertThat(testee.getLimit()).isEqualTo(2);
+        assertThat(testee.getInFlight()).isZero();
+    }
+
+    @Test
+    void timeoutOfAQueuedRequestShouldRemoveItFromTheQueue() {
+        testee.register(mock(Throttled.class));
+        testee.register(mock(Throttled.class));
+        Throttled request = mock(Throttled.class);
+        testee.register(request);
+
+        testee.signalTimeout(request);
+
+        assertThat(testee.getQueueSize()).isZero();
+        assertThat(testee.getInFlight()).isEqualTo(2);
+    }
+
+    @Test
+    void closeShouldFailQueuedRequests() {
+        testee.register(mock(Throttled.class));
+        testee.register(mock(Throttled.class));
+        Throttled request = mock(Throttled.class);
+        testee.register(request);
+
+        testee.close();
+
+        verify(request).onThrottleFailure(any(RequestThrottlingException.class));
+    }
+}
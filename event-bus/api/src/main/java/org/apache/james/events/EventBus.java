@@ -26,6 +26,7 @@ import java.util.Set;
 
 import org.reactivestreams.Publisher;
 
+import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 
@@ -33,11 +34,20 @@ import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 public interface EventBus {
-    record Configuration(int maxConcurrency, Optional<Duration> executionTimeout) {
+    record Configuration(int maxConcurrency, Optional<Duration> executionTimeout, int batchSize) {
         public static Configuration DEFAULT = new Configuration(DEFAULT_MAX_CONCURRENCY, Optional.empty());
+
+        public Configuration {
+            Preconditions.checkArgument(batchSize > 0, "'batchSize' needs to be strictly positive");
+        }
+
+        public Configuration(int maxConcurrency, Optional<Duration> executionTimeout) {
+            this(maxConcurrency, executionTimeout, DEFAULT_BATCH_SIZE);
+        }
     }
 
     int DEFAULT_MAX_CONCURRENCY = 10;
+    int DEFAULT_BATCH_SIZE = 1;
 
     interface StructuredLoggingFields {
         String EVENT_ID = "eventId";
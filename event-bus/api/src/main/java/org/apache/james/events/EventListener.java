@@ -49,6 +49,17 @@ public interface EventListener {
             Mono.from(reactiveEvent(event))
                 .block();
         }
+
+        /**
+         * Listeners returning <code>true</code> accept, within {@link #reactiveEvent(List)}, events originating
+         * from several unrelated dispatches. Event buses can then hand them batches of events, for instance to
+         * group their writes.
+         *
+         * Listeners relying on the events of a single dispatch being delivered together should not opt in.
+         */
+        default boolean isBatchable() {
+            return false;
+        }
     }
 
     interface GroupEventListener extends EventListener {
@@ -27,19 +27,25 @@ import static org.apache.james.backends.rabbitmq.Constants.evaluateAutoDelete;
 import static org.apache.james.backends.rabbitmq.Constants.evaluateDurable;
 import static org.apache.james.backends.rabbitmq.Constants.evaluateExclusive;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.function.Predicate;
+import java.util.stream.Collectors;
 
+import org.apache.commons.lang3.tuple.Pair;
 import org.apache.james.backends.rabbitmq.ReactorRabbitMQChannelPool;
 import org.apache.james.backends.rabbitmq.ReceiverProvider;
+import org.apache.james.util.DurationParser;
 import org.apache.james.util.MDCBuilder;
 import org.apache.james.util.ReactorUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
 
 import reactor.core.Disposable;
 import reactor.core.publisher.Flux;
@@ -72,6 +78,10 @@ class GroupRegistration implements Registration {
     private static final Logger LOGGER = LoggerFactory.getLogger(GroupRegistration.class);
     static final String RETRY_COUNT = "retry-count";
     static final int DEFAULT_RETRY_COUNT = 0;
+    // Maximum time spent waiting for a batch of deliveries to fill up
+    static final Duration BATCH_WINDOW = Optional.ofNullable(System.getProperty("james.eventbus.batch.window"))
+        .map(DurationParser::parse)
+        .orElse(Duration.ofMillis(50));
 
     private final NamingStrategy namingStrategy;
     private final ReactorRabbitMQChannelPool channelPool;
@@ -139,15 +149,66 @@ class GroupRegistration implements Registration {
     private Disposable consumeWorkQueue() {
         return Flux.using(
                 receiverProvider::createReceiver,
-                receiver -> receiver.consumeManualAck(queueName.asString(), new ConsumeOptions().qos(configurations.eventBusConfiguration().maxConcurrency())),
+                receiver -> receiver.consumeManualAck(queueName.asString(), new ConsumeOptions().qos(prefetchCount(configurations.eventBusConfiguration()))),
                 Receiver::close)
             .publishOn(Schedulers.parallel())
             .filter(delivery -> Objects.nonNull(delivery.getBody()))
-            .flatMap(this::deliver, configurations.eventBusConfiguration().maxConcurrency())
+            .transform(this::deliver)
             .subscribeOn(scheduler)
             .subscribe();
     }
 
+    static int prefetchCount(EventBus.Configuration configuration) {
+        // Let each of the concurrent executions fill up a whole batch
+        return configuration.maxConcurrency() * configuration.batchSize();
+    }
+
+    private Flux<Void> deliver(Flux<AcknowledgableDelivery> deliveries) {
+        int maxConcurrency = configurations.eventBusConfiguration().maxConcurrency();
+        int batchSize = configurations.eventBusConfiguration().batchSize();
+        if (!listener.isBatchable() || batchSize == 1) {
+            return deliveries.flatMap(this::deliver, maxConcurrency);
+        }
+        return deliveries.bufferTimeout(batchSize, BATCH_WINDOW, true)
+            .flatMap(this::deliver, maxConcurrency);
+    }
+
+    private Mono<Void> deliver(List<AcknowledgableDelivery> deliveries) {
+        Map<Boolean, List<AcknowledgableDelivery>> isRetried = deliveries.stream()
+            .collect(Collectors.partitioningBy(delivery -> getRetryCount(delivery) != DEFAULT_RETRY_COUNT));
+
+        // Retried deliveries are delayed according to their retry count thus can not be part of a batch
+        return Flux.merge(
+                deliverBatch(isRetried.get(false)),
+                Flux.fromIterable(isRetried.get(true)).flatMap(this::deliver))
+            .then();
+    }
+
+    private Mono<Void> deliverBatch(List<AcknowledgableDelivery> deliveries) {
+        if (deliveries.isEmpty()) {
+            return Mono.empty();
+        }
+        return Flux.fromIterable(deliveries)
+            .concatMap(delivery -> deserializeEvent(delivery.getBody())
+                .map(event -> Pair.of(delivery, event))
+                .onErrorResume(e -> {
+                    LOGGER.error("Unable to process delivery for group {}", group, e);
+                    return nack(delivery).then(Mono.empty());
+                }))
+            .collectList()
+            .filter(deserialized -> !deserialized.isEmpty())
+            .flatMap(deserialized -> runListenerReliably(DEFAULT_RETRY_COUNT, deserialized.stream()
+                    .map(Pair::getRight)
+                    .collect(ImmutableList.toImmutableList()))
+                .then(Mono.<Void>fromRunnable(() -> deserialized.forEach(pair -> pair.getLeft().ack())).subscribeOn(Schedulers.boundedElastic()))
+                .onErrorResume(e -> {
+                    LOGGER.error("Unable to process deliveries for group {}", group, e);
+                    return Flux.fromIterable(deserialized)
+                        .concatMap(pair -> nack(pair.getLeft()))
+                        .then();
+                }));
+    }
+
     private Mono<Void> deliver(AcknowledgableDelivery acknowledgableDelivery) {
         byte[] eventAsBytes = acknowledgableDelivery.getBody();
         int currentRetryCount = getRetryCount(acknowledgableDelivery);
@@ -158,17 +219,35 @@ class GroupRegistration implements Registration {
                 .then(Mono.<Void>fromRunnable(acknowledgableDelivery::ack).subscribeOn(Schedulers.boundedElastic())))
             .onErrorResume(e -> {
                 LOGGER.error("Unable to process delivery for group {}", group, e);
-                return Mono.fromRunnable(() -> acknowledgableDelivery.nack(!REQUEUE))
-                    .subscribeOn(Schedulers.boundedElastic())
-                    .then();
+                return nack(acknowledgableDelivery);
             });
     }
 
+    private Mono<Void> nack(AcknowledgableDelivery acknowledgableDelivery) {
+        return Mono.fromRunnable(() -> acknowledgableDelivery.nack(!REQUEUE))
+            .subscribeOn(Schedulers.boundedElastic())
+            .then();
+    }
+
     public Mono<Void> runListenerReliably(int currentRetryCount, Event event) {
         return runListener(event)
             .onErrorResume(throwable -> retryHandler.handleRetry(event, currentRetryCount, throwable));
     }
 
+    /**
+     * Runs the listener against events of several dispatches, as a single batch if the listener accepts it.
+     */
+    Mono<Void> runListenerReliably(List<List<Event>> eventsPerDispatch) {
+        if (listener.isBatchable()) {
+            return runListenerReliably(DEFAULT_RETRY_COUNT, eventsPerDispatch.stream()
+                .flatMap(List::stream)
+                .collect(ImmutableList.toImmutableList()));
+        }
+        return Flux.fromIterable(eventsPerDispatch)
+            .concatMap(events -> runListenerReliably(DEFAULT_RETRY_COUNT, events))
+            .then();
+    }
+
     public Mono<Void> runListenerReliably(int currentRetryCount, List<Event> events) {
         return runListener(events)
             .onErrorResume(throwable -> Flux.fromIterable(events)
@@ -124,14 +124,28 @@ public class GroupRegistrationHandler {
     private Disposable consumeWorkQueue() {
         return Flux.using(
                 receiverProvider::createReceiver,
-            receiver -> receiver.consumeManualAck(queueName.asString(), new ConsumeOptions().qos(configurations.eventBusConfiguration().maxConcurrency())),
+            receiver -> receiver.consumeManualAck(queueName.asString(), new ConsumeOptions().qos(GroupRegistration.prefetchCount(configurations.eventBusConfiguration()))),
             Receiver::close)
             .filter(delivery -> Objects.nonNull(delivery.getBody()))
-            .flatMap(this::deliver, configurations.eventBusConfiguration().maxConcurrency())
+            .transform(this::deliver)
             .subscribeOn(scheduler)
             .subscribe();
     }
 
+    /**
+     * All groups share this work queue, thus when batching is enabled every listener, batchable or not, waits for the
+     * batch to fill up or for {@link GroupRegistration#BATCH_WINDOW} to elapse before handling its events.
+     */
+    private Flux<Void> deliver(Flux<AcknowledgableDelivery> deliveries) {
+        int maxConcurrency = configurations.eventBusConfiguration().maxConcurrency();
+        int batchSize = configurations.eventBusConfiguration().batchSize();
+        if (batchSize == 1) {
+            return deliveries.flatMap(this::deliver, maxConcurrency);
+        }
+        return deliveries.bufferTimeout(batchSize, GroupRegistration.BATCH_WINDOW, true)
+            .flatMap(this::deliver, maxConcurrency);
+    }
+
     private Mono<Void> deliver(AcknowledgableDelivery acknowledgableDelivery) {
         byte[] eventAsBytes = acknowledgableDelivery.getBody();
 
@@ -145,12 +159,43 @@ public class GroupRegistrationHandler {
             .then()
             .onErrorResume(e -> {
                 LOGGER.error("Unable to process delivery for group {}", GROUP, e);
-                return Mono.fromRunnable(() -> acknowledgableDelivery.nack(!REQUEUE))
-                    .subscribeOn(Schedulers.boundedElastic())
-                    .then();
+                return nack(acknowledgableDelivery);
+            });
+    }
+
+    private Mono<Void> deliver(List<AcknowledgableDelivery> deliveries) {
+        return Flux.fromIterable(deliveries)
+            .concatMap(delivery -> deserializeEvents(delivery.getBody())
+                .map(events -> Pair.of(delivery, events))
+                .onErrorResume(e -> {
+                    LOGGER.error("Unable to process delivery for group {}", GROUP, e);
+                    return nack(delivery).then(Mono.empty());
+                }))
+            .collectList()
+            .filter(deserialized -> !deserialized.isEmpty())
+            .flatMap(deserialized -> {
+                List<List<Event>> eventsPerDispatch = deserialized.stream()
+                    .map(Pair::getRight)
+                    .collect(ImmutableList.toImmutableList());
+
+                return Flux.fromIterable(groupRegistrations.values())
+                    .flatMap(group -> group.runListenerReliably(eventsPerDispatch))
+                    .then(Mono.<Void>fromRunnable(() -> deserialized.forEach(pair -> pair.getLeft().ack())).subscribeOn(Schedulers.boundedElastic()))
+                    .onErrorResume(e -> {
+                        LOGGER.error("Unable to process deliveries for group {}", GROUP, e);
+                        return Flux.fromIterable(deserialized)
+                            .concatMap(pair -> nack(pair.getLeft()))
+                            .then();
+                    });
             });
     }
 
+    private Mono<Void> nack(AcknowledgableDelivery acknowledgableDelivery) {
+        return Mono.fromRunnable(() -> acknowledgableDelivery.nack(!REQUEUE))
+            .subscribeOn(Schedulers.boundedElastic())
+            .then();
+    }
+
     private Mono<List<Event>> deserializeEvents(byte[] eventAsBytes) {
         return Mono.fromCallable(() -> eventSerializer.asEventsFromBytes(eventAsBytes)
             .events());
@@ -52,7 +52,10 @@ import static org.mockito.Mockito.when;
 import java.io.Closeable;
 import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.IntStream;
@@ -80,9 +83,12 @@ import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
 import org.mockito.stubbing.Answer;
+import org.reactivestreams.Publisher;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
 import reactor.rabbitmq.BindingSpecification;
@@ -831,6 +837,108 @@ class RabbitMQEventBusTest implements GroupContract.SingleEventBusGroupContract,
 
     }
 
+    @Nested
+    class BatchingTest {
+        private static final int BATCH_SIZE = 10;
+
+        private RabbitMQEventBus batchingEventBus;
+
+        class BatchCollector implements EventListener.ReactiveGroupEventListener {
+            private final ConcurrentLinkedQueue<List<Event>> batches = new ConcurrentLinkedQueue<>();
+
+            @Override
+            public Group getDefaultGroup() {
+                return GROUP_A;
+            }
+
+            @Override
+            public boolean isBatchable() {
+                return true;
+            }
+
+            @Override
+            public Publisher<Void> reactiveEvent(Event event) {
+                return reactiveEvent(ImmutableList.of(event));
+            }
+
+            @Override
+            public Publisher<Void> reactiveEvent(List<Event> events) {
+                return Mono.fromRunnable(() -> batches.add(events));
+            }
+
+            int eventCount() {
+                return batches.stream().mapToInt(List::size).sum();
+            }
+        }
+
+        @BeforeEach
+        void beforeEach() throws Exception {
+            batchingEventBus = new RabbitMQEventBus(TEST_NAMING_STRATEGY, rabbitMQExtension.getSender(), rabbitMQExtension.getReceiverProvider(),
+                eventSerializer, routingKeyConverter, memoryEventDeadLetters, new RecordingMetricFactory(), rabbitMQExtension.getRabbitChannelPool(),
+                EventBusId.random(), new RabbitMQEventBus.Configurations(rabbitMQExtension.getRabbitMQ().getConfiguration(), EventBusTestFixture.RETRY_BACKOFF_CONFIGURATION,
+                    new EventBus.Configuration(EventBus.DEFAULT_MAX_CONCURRENCY, Optional.empty(), BATCH_SIZE)));
+            batchingEventBus.start();
+        }
+
+        @AfterEach
+        void tearDown() {
+            batchingEventBus.stop();
+        }
+
+        @Test
+        void batchableListenerShouldReceiveEventsOfSeveralDispatchesAtOnce() {
+            BatchCollector listener = new BatchCollector();
+            batchingEventBus.register(listener);
+
+            Flux.range(0, 50)
+                .flatMap(i -> batchingEventBus.dispatch(EVENT, NO_KEYS))
+                .blockLast();
+
+            getSpeedProfile().shortWaitCondition()
+                .untilAsserted(() -> assertThat(listener.eventCount()).isEqualTo(50));
+            assertThat(listener.batches)
+                .anySatisfy(batch -> assertThat(batch).hasSizeGreaterThan(1))
+                .allSatisfy(batch -> assertThat(batch).hasSizeLessThanOrEqualTo(BATCH_SIZE));
+        }
+
+        @Test
+        void nonBatchableListenerShouldReceiveEventsDispatchPerDispatch() {
+            EventCollector listener = new EventCollector();
+            batchingEventBus.register(listener, GROUP_A);
+
+            Flux.range(0, 50)
+                .flatMap(i -> batchingEventBus.dispatch(EVENT, NO_KEYS))
+                .blockLast();
+
+            getSpeedProfile().shortWaitCondition()
+                .untilAsserted(() -> assertThat(listener.getEvents()).hasSize(50));
+        }
+
+        @Test
+        void failingBatchShouldBeRetriedEventPerEvent() {
+            AtomicInteger batchFailures = new AtomicInteger(0);
+            BatchCollector listener = new BatchCollector() {
+                @Override
+                public Publisher<Void> reactiveEvent(List<Event> events) {
+                    if (events.size() > 1) {
+                        batchFailures.incrementAndGet();
+                        return Mono.error(new RuntimeException("batch failure"));
+                    }
+                    return super.reactiveEvent(events);
+                }
+            };
+            batchingEventBus.register(listener);
+
+            Flux.range(0, 50)
+                .flatMap(i -> batchingEventBus.dispatch(EVENT, NO_KEYS))
+                .blockLast();
+
+            getSpeedProfile().longWaitCondition()
+                .untilAsserted(() -> assertThat(listener.eventCount()).isEqualTo(50));
+            assertThat(batchFailures.get()).isPositive();
+        }
+    }
+
     @Nested
     class IsolationTest {
         private RabbitMQEventBus otherEventBus;
@@ -42,7 +42,6 @@ import org.apache.james.mailbox.model.MessageRange;
 import org.apache.james.mailbox.model.MessageResult;
 import org.apache.james.mailbox.model.search.MailboxQuery;
 import org.apache.james.util.ReactorUtils;
-import org.apache.james.util.streams.Iterators;
 import org.reactivestreams.Publisher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -51,18 +50,20 @@ import com.github.fge.lambdas.Throwing;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableList;
 
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 public class DefaultMailboxBackup implements MailboxBackup {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(DefaultMailboxBackup.class);
+    private static final int MESSAGE_PREFETCH = 16;
 
     @VisibleForTesting
     static class MailAccountContent {
         private final MailboxWithAnnotations mailboxWithAnnotations;
-        private final Stream<MessageResult> messages;
+        private final Flux<MessageResult> messages;
 
-        MailAccountContent(MailboxWithAnnotations mailboxWithAnnotations, Stream<MessageResult> messages) {
+        MailAccountContent(MailboxWithAnnotations mailboxWithAnnotations, Flux<MessageResult> messages) {
             this.mailboxWithAnnotations = mailboxWithAnnotations;
             this.messages = messages;
         }
@@ -71,7 +72,7 @@ public class DefaultMailboxBackup implements MailboxBackup {
             return mailboxWithAnnotations;
         }
 
-        public Stream<MessageResult> getMessages() {
+        public Flux<MessageResult> getMessages() {
             return messages;
         }
     }
@@ -156,7 +157,7 @@ public class DefaultMailboxBackup implements MailboxBackup {
             Mailbox mailbox = messageManager.getMailboxEntity();
             List<MailboxAnnotation> annotations = mailboxManager.getAllAnnotations(path, session);
             MailboxWithAnnotations mailboxWithAnnotations = new MailboxWithAnnotations(mailbox, annotations);
-            Stream<MessageResult> messages = Iterators.toStream(messageManager.getMessages(MessageRange.all(), FetchGroup.FULL_CONTENT, session));
+            Flux<MessageResult> messages = Flux.from(messageManager.getMessagesReactive(MessageRange.all(), FetchGroup.FULL_CONTENT, session));
             return Stream.of(new MailAccountContent(mailboxWithAnnotations, messages));
         } catch (MailboxException e) {
             LOGGER.error("Error while fetching Mailbox during backup", e);
@@ -184,8 +185,14 @@ public class DefaultMailboxBackup implements MailboxBackup {
         archiveService.archive(mailboxes, messages, destination);
     }
 
+    /**
+     * Contents of the messages are fetched concurrently, ahead of the archive writer, while the archive entries are
+     * written in the mailbox and message order. The prefetch bounds the number of messages held in memory.
+     */
     private Stream<MessageResult> allMessagesForUser(List<MailAccountContent> mailboxes) {
-        return mailboxes.stream().flatMap(MailAccountContent::getMessages);
+        return Flux.fromIterable(mailboxes)
+            .concatMap(MailAccountContent::getMessages, MESSAGE_PREFETCH)
+            .toStream(MESSAGE_PREFETCH);
     }
 
 }
@@ -20,9 +20,13 @@ package org.apache.james.mailbox.backup;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import jakarta.inject.Inject;
 
@@ -31,7 +35,6 @@ import org.apache.james.core.Username;
 import org.apache.james.mailbox.MailboxManager;
 import org.apache.james.mailbox.MailboxSession;
 import org.apache.james.mailbox.MessageManager;
-import org.apache.james.mailbox.MessageManager.AppendResult;
 import org.apache.james.mailbox.exception.MailboxException;
 import org.apache.james.mailbox.model.ByteSourceContent;
 import org.apache.james.mailbox.model.MailboxId;
@@ -40,10 +43,26 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.github.fge.lambdas.Throwing;
+import com.google.common.collect.ImmutableList;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 public class ZipMailArchiveRestorer implements MailArchiveRestorer {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(ZipMailArchiveRestorer.class);
+    private static final int APPEND_BATCH_SIZE = 32;
+    private static final int APPEND_CONCURRENCY = 8;
+
+    private record PendingAppend(MessageArchiveEntry messageEntry, MessageManager messageManager, ByteSourceContent content) {
+        void release() {
+            try {
+                content.close();
+            } catch (IOException e) {
+                LOGGER.warn("Error releasing the content of message {}", messageEntry.messageId(), e);
+            }
+        }
+    }
 
     private final MailboxManager mailboxManager;
     private final MailArchivesLoader archiveLoader;
@@ -63,17 +82,22 @@ public class ZipMailArchiveRestorer implements MailArchiveRestorer {
     private void restoreEntries(InputStream source, MailboxSession session) throws IOException, MailboxException {
         try (MailArchiveIterator archiveIterator = archiveLoader.load(source)) {
             Map<SerializedMailboxId, MessageManager> restoredMailboxes = new HashMap<>();
+            List<PendingAppend> pendingAppends = new ArrayList<>();
             while (archiveIterator.hasNext()) {
                 MailArchiveEntry entry = archiveIterator.next();
                 switch (entry.getType()) {
                     case MAILBOX:
+                        appendMessages(session, pendingAppends);
                         MailboxWithAnnotationsArchiveEntry mailboxEntry = (MailboxWithAnnotationsArchiveEntry) entry;
                         restoreMailboxEntry(session, mailboxEntry)
                             .ifPresent(pair -> restoredMailboxes.put(pair.getKey(), pair.getValue()));
                         break;
                     case MESSAGE:
                         MessageArchiveEntry messageEntry = (MessageArchiveEntry) entry;
-                        restoreMessage(session, messageEntry, restoredMailboxes);
+                        readMessage(messageEntry, restoredMailboxes).ifPresent(pendingAppends::add);
+                        if (pendingAppends.size() >= APPEND_BATCH_SIZE) {
+                            appendMessages(session, pendingAppends);
+                        }
                         break;
                     case UNKNOWN:
                         String entryName = ((UnknownArchiveEntry) entry).entryName();
@@ -81,30 +105,63 @@ public class ZipMailArchiveRestorer implements MailArchiveRestorer {
                         break;
                 }
             }
+            appendMessages(session, pendingAppends);
         }
     }
 
-    private void restoreMessage(MailboxSession session, MessageArchiveEntry messageEntry, Map<SerializedMailboxId, MessageManager> mailboxes) {
+    /**
+     * The archive entries can only be read sequentially, hence the message contents are buffered so that a batch of
+     * messages can then be appended concurrently. Appends to distinct mailboxes run concurrently while the appends to a
+     * given mailbox are sequential, so that restored UIDs follow the archive order.
+     */
+    private Optional<PendingAppend> readMessage(MessageArchiveEntry messageEntry, Map<SerializedMailboxId, MessageManager> mailboxes) {
+        MessageManager messageManager = mailboxes.get(messageEntry.mailboxId());
+        if (messageManager == null) {
+            LOGGER.warn("Mailbox {} not found for message {}", messageEntry.mailboxId(), messageEntry.messageId());
+            return Optional.empty();
+        }
         try {
-            MessageManager messageManager = mailboxes.get(messageEntry.mailboxId());
-            if (messageManager == null) {
-                LOGGER.warn("Mailbox {} not found for message {}", messageEntry.mailboxId(), messageEntry.messageId());
-                return;
-            }
-            ByteSourceContent content = ByteSourceContent.of(messageEntry.content());
-            MessageManager.AppendCommand command = MessageManager.AppendCommand.builder()
-                .withInternalDate(messageEntry.internalDate())
-                .withFlags(messageEntry.flags())
-                .build(content);
-            AppendResult result = messageManager.appendMessage(command, session);
-            if (!result.getSize().equals(messageEntry.size())) {
-                LOGGER.warn("Size {} for message {} different from zip entry one {}", result.getSize(), messageEntry.messageId(), messageEntry.size());
-            }
+            return Optional.of(new PendingAppend(messageEntry, messageManager, ByteSourceContent.of(messageEntry.content())));
         } catch (Exception e) {
             LOGGER.error("Error restoring message {} to mailbox {}", messageEntry.messageId(), messageEntry.mailboxId(), e);
+            return Optional.empty();
         }
     }
 
+    private void appendMessages(MailboxSession session, List<PendingAppend> pendingAppends) {
+        Map<SerializedMailboxId, ImmutableList<PendingAppend>> appendsByMailbox = pendingAppends.stream()
+            .collect(Collectors.groupingBy(pendingAppend -> pendingAppend.messageEntry().mailboxId(),
+                LinkedHashMap::new, ImmutableList.toImmutableList()));
+
+        Flux.fromIterable(appendsByMailbox.values())
+            .flatMap(mailboxAppends -> Flux.fromIterable(mailboxAppends)
+                .concatMap(pendingAppend -> appendMessage(session, pendingAppend)), APPEND_CONCURRENCY)
+            .then()
+            .block();
+        pendingAppends.clear();
+    }
+
+    private Mono<Void> appendMessage(MailboxSession session, PendingAppend pendingAppend) {
+        MessageArchiveEntry messageEntry = pendingAppend.messageEntry();
+        MessageManager.AppendCommand command = MessageManager.AppendCommand.builder()
+            .withInternalDate(messageEntry.internalDate())
+            .withFlags(messageEntry.flags())
+            .build(pendingAppend.content());
+
+        return Mono.from(pendingAppend.messageManager().appendMessageReactive(command, session))
+            .doOnNext(result -> {
+                if (!result.getSize().equals(messageEntry.size())) {
+                    LOGGER.warn("Size {} for message {} different from zip entry one {}", result.getSize(), messageEntry.messageId(), messageEntry.size());
+                }
+            })
+            .onErrorResume(e -> {
+                LOGGER.error("Error restoring message {} to mailbox {}", messageEntry.messageId(), messageEntry.mailboxId(), e);
+                return Mono.empty();
+            })
+            .doFinally(any -> pendingAppend.release())
+            .then();
+    }
+
     private Optional<ImmutablePair<SerializedMailboxId, MessageManager>> restoreMailboxEntry(MailboxSession session,
                                                                                              MailboxWithAnnotationsArchiveEntry mailboxWithAnnotationsArchiveEntry) throws MailboxException {
         MailboxPath mailboxPath = MailboxPath.forUser(session.getUser(), mailboxWithAnnotationsArchiveEntry.getMailboxName());
@@ -24,7 +24,11 @@ import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Date;
 import java.util.List;
 
 import org.apache.james.mailbox.MailboxManager;
@@ -38,6 +42,7 @@ import org.apache.james.mailbox.model.ByteSourceContent;
 import org.apache.james.mailbox.model.Mailbox;
 import org.apache.james.mailbox.model.MailboxId;
 import org.apache.james.mailbox.model.MailboxPath;
+import org.apache.james.mailbox.model.MessageResult;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -194,7 +199,7 @@ class DefaultMailboxBackupTest implements MailboxMessageFixture {
         DefaultMailboxBackup.MailAccountContent mailAccountContent = content.get(0);
         Mailbox mailbox = mailAccountContent.getMailboxWithAnnotations().mailbox;
         assertThat(mailbox.getName()).isEqualTo(MAILBOX_1_NAME);
-        assertThat(mailAccountContent.getMessages().count()).isEqualTo(0);
+        assertThat(mailAccountContent.getMessages().count().block()).isEqualTo(0);
     }
 
     @Test
@@ -230,7 +235,7 @@ class DefaultMailboxBackupTest implements MailboxMessageFixture {
         DefaultMailboxBackup.MailAccountContent mailAccountContent = content.get(0);
         Mailbox mailbox = mailAccountContent.getMailboxWithAnnotations().mailbox;
         assertThat(mailbox.getName()).isEqualTo(MAILBOX_1_NAME);
-        assertThat(mailAccountContent.getMessages().count()).isEqualTo(0);
+        assertThat(mailAccountContent.getMessages().count().block()).isEqualTo(0);
     }
 
     @Test
@@ -252,12 +257,12 @@ class DefaultMailboxBackupTest implements MailboxMessageFixture {
         DefaultMailboxBackup.MailAccountContent contentMailbox1 = content.get(0);
         Mailbox mailbox1 = contentMailbox1.getMailboxWithAnnotations().mailbox;
         assertThat(mailbox1.getName()).isEqualTo(MAILBOX_1_NAME);
-        assertThat(contentMailbox1.getMessages().count()).isEqualTo(0);
+        assertThat(contentMailbox1.getMessages().count().block()).isEqualTo(0);
 
         DefaultMailboxBackup.MailAccountContent contentMailbox2 = content.get(1);
         Mailbox mailbox2 = contentMailbox2.getMailboxWithAnnotations().mailbox;
         assertThat(mailbox2.getName()).isEqualTo(MAILBOX_2_NAME);
-        assertThat(contentMailbox2.getMessages().count()).isEqualTo(0);
+        assertThat(contentMailbox2.getMessages().count().block()).isEqualTo(0);
     }
 
     @Test
@@ -279,12 +284,63 @@ class DefaultMailboxBackupTest implements MailboxMessageFixture {
         DefaultMailboxBackup.MailAccountContent contentMailbox1 = content.get(0);
         Mailbox mailbox1 = contentMailbox1.getMailboxWithAnnotations().mailbox;
         assertThat(mailbox1.getName()).isEqualTo(MAILBOX_1_NAME);
-        assertThat(contentMailbox1.getMessages().count()).isEqualTo(1);
+        assertThat(contentMailbox1.getMessages().count().block()).isEqualTo(1);
 
         DefaultMailboxBackup.MailAccountContent contentMailbox2 = content.get(1);
         Mailbox mailbox2 = contentMailbox2.getMailboxWithAnnotations().mailbox;
         assertThat(mailbox2.getName()).isEqualTo(MAILBOX_2_NAME);
-        assertThat(contentMailbox2.getMessages().count()).isEqualTo(1);
+        assertThat(contentMailbox2.getMessages().count().block()).isEqualTo(1);
+    }
+
+    @Test
+    void doRestoreShouldRestoreMessagesSpanningSeveralAppendBatches() throws Exception {
+        ByteArrayOutputStream destination = new ByteArrayOutputStream(BUFFER_SIZE);
+        MessageManager.AppendCommand[] messages = new MessageManager.AppendCommand[100];
+        for (int i = 0; i < messages.length; i++) {
+            messages[i] = getMessage1AppendCommand();
+        }
+        createMailboxWithMessages(sessionUser, MAILBOX_PATH_USER1_MAILBOX1, messages);
+        createMailboxWithMessages(sessionUser, MAILBOX_PATH_USER1_MAILBOX2, getMessage1AppendCommand());
+
+        backup.backupAccount(USERNAME_1, destination);
+
+        InputStream source = new ByteArrayInputStream(destination.toByteArray());
+        MailboxBackup.BackupStatus backupStatus = Mono.from(backup.restore(USERNAME_2, source, !FORCE_RESTORE)).block();
+
+        assertThat(backupStatus).isEqualTo(MailboxBackup.BackupStatus.DONE);
+
+        List<DefaultMailboxBackup.MailAccountContent> content = backup.getAccountContentForUser(sessionOtherUser);
+        assertThat(content).hasSize(2);
+        assertThat(content.get(0).getMessages().count().block()).isEqualTo(100);
+        assertThat(content.get(1).getMessages().count().block()).isEqualTo(1);
+    }
+
+    @Test
+    void doRestoreShouldPreserveTheMessageOrderWithinAMailbox() throws Exception {
+        ByteArrayOutputStream destination = new ByteArrayOutputStream(BUFFER_SIZE);
+        Instant firstInternalDate = Instant.parse("2024-01-01T00:00:00Z");
+        MessageManager.AppendCommand[] messages = new MessageManager.AppendCommand[40];
+        for (int i = 0; i < messages.length; i++) {
+            messages[i] = MessageManager.AppendCommand.builder()
+                .withInternalDate(Date.from(firstInternalDate.plus(Duration.ofMinutes(i))))
+                .build(ByteSourceContent.of(MESSAGE_1.getFullContent()));
+        }
+        createMailboxWithMessages(sessionUser, MAILBOX_PATH_USER1_MAILBOX1, messages);
+
+        backup.backupAccount(USERNAME_1, destination);
+
+        InputStream source = new ByteArrayInputStream(destination.toByteArray());
+        Mono.from(backup.restore(USERNAME_2, source, !FORCE_RESTORE)).block();
+
+        List<Date> internalDatesByUid = backup.getAccountContentForUser(sessionOtherUser).get(0)
+            .getMessages()
+            .sort(Comparator.comparing(MessageResult::getUid))
+            .map(MessageResult::getInternalDate)
+            .collectList()
+            .block();
+        assertThat(internalDatesByUid)
+            .hasSize(40)
+            .isSorted();
     }
 
     private MessageManager.AppendCommand getMessage1AppendCommand() throws IOException {
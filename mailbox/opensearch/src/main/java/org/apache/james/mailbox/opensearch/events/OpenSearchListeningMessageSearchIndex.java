@@ -30,6 +30,7 @@ import static org.apache.james.mailbox.opensearch.json.JsonMessageConstants.MESS
 import static org.apache.james.mailbox.opensearch.json.JsonMessageConstants.UID;
 import static org.apache.james.mailbox.opensearch.search.OpenSearchSearcher.SEARCH_HIGHLIGHT;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.EnumSet;
 import java.util.List;
@@ -316,6 +317,61 @@ public class OpenSearchListeningMessageSearchIndex extends ListeningMessageSearc
             .then(Mono.fromRunnable(() -> factory.endProcessingRequest(systemSession)));
     }
 
+    /**
+     * Consecutive flags updates of a mailbox, possibly coming from several dispatches, are indexed together so that
+     * they share bulk requests. Other events are handled one by one, in order.
+     */
+    @Override
+    public Mono<Void> reactiveEvent(List<Event> events) {
+        return Flux.fromIterable(mergeableRuns(events))
+            .concatMap(run -> {
+                if (run.size() == 1) {
+                    return reactiveEvent(run.get(0));
+                }
+                return updateFlags(run);
+            })
+            .then();
+    }
+
+    @Override
+    public boolean isBatchable() {
+        return true;
+    }
+
+    private List<List<Event>> mergeableRuns(List<Event> events) {
+        List<List<Event>> runs = new ArrayList<>();
+        for (Event event : events) {
+            if (!isHandling(event)) {
+                continue;
+            }
+            List<Event> lastRun = runs.isEmpty() ? ImmutableList.of() : runs.get(runs.size() - 1);
+            if (!lastRun.isEmpty() && canBeMerged(lastRun.get(0), event)) {
+                lastRun.add(event);
+            } else {
+                runs.add(new ArrayList<>(List.of(event)));
+            }
+        }
+        return runs;
+    }
+
+    private boolean canBeMerged(Event runStart, Event event) {
+        return runStart instanceof MailboxEvents.FlagsUpdated first
+            && event instanceof MailboxEvents.FlagsUpdated next
+            && first.getUsername().equals(next.getUsername())
+            && first.getMailboxId().equals(next.getMailboxId());
+    }
+
+    private Mono<Void> updateFlags(List<Event> flagsUpdates) {
+        MailboxEvents.FlagsUpdated first = (MailboxEvents.FlagsUpdated) flagsUpdates.get(0);
+        MailboxSession systemSession = sessionProvider.createSystemSession(first.getUsername());
+        List<UpdatedFlags> updatedFlags = flagsUpdates.stream()
+            .flatMap(event -> ((MailboxEvents.FlagsUpdated) event).getUpdatedFlags().stream())
+            .collect(toImmutableList());
+
+        return update(systemSession, first.getMailboxId(), updatedFlags)
+            .then(Mono.fromRunnable(() -> factory.endProcessingRequest(systemSession)));
+    }
+
     private Mono<Void> handleMailboxEvent(Event event, MailboxSession session, MailboxEvents.MailboxEvent mailboxEvent) {
         MailboxId mailboxId = mailboxEvent.getMailboxId();
 
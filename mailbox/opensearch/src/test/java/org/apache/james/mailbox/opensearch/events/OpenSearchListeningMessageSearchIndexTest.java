@@ -84,6 +84,7 @@ import org.apache.james.mailbox.store.FakeAuthenticator;
 import org.apache.james.mailbox.store.FakeAuthorizator;
 import org.apache.james.mailbox.store.MailboxSessionMapperFactory;
 import org.apache.james.mailbox.store.SessionProviderImpl;
+import org.apache.james.mailbox.store.event.EventFactory;
 import org.apache.james.mailbox.store.extractor.DefaultTextExtractor;
 import org.apache.james.mailbox.store.mail.model.MailboxMessage;
 import org.apache.james.mailbox.store.mail.model.impl.SimpleMailboxMessage;
@@ -491,6 +492,41 @@ class OpenSearchListeningMessageSearchIndexTest {
             .containsExactly(MESSAGE_1.getUid());
     }
 
+    @Test
+    void batchedFlagsUpdatesShouldBeIndexedInOrder() throws Exception {
+        testee.add(session, mailbox, MESSAGE_1).block();
+        awaitForOpenSearch(QueryBuilders.matchAll().build().toQuery(), 1L);
+
+        Event answered = EventFactory.flagsUpdated()
+            .randomEventId()
+            .mailboxSession(session)
+            .mailbox(mailbox)
+            .updatedFlag(UpdatedFlags.builder()
+                .uid(MESSAGE_UID_1)
+                .modSeq(MOD_SEQ)
+                .oldFlags(new Flags())
+                .newFlags(new Flags(Flags.Flag.ANSWERED))
+                .build())
+            .build();
+        Event flagged = EventFactory.flagsUpdated()
+            .randomEventId()
+            .mailboxSession(session)
+            .mailbox(mailbox)
+            .updatedFlag(UpdatedFlags.builder()
+                .uid(MESSAGE_UID_1)
+                .modSeq(MOD_SEQ.next())
+                .oldFlags(new Flags(Flags.Flag.ANSWERED))
+                .newFlags(new Flags(Flags.Flag.FLAGGED))
+                .build())
+            .build();
+
+        testee.reactiveEvent(ImmutableList.of(answered, flagged)).block();
+        awaitForOpenSearch(QueryBuilders.term().field("isFlagged").value(FieldValue.of(true)).build().toQuery(), 1L);
+
+        assertThat(testee.search(session, mailbox, SearchQuery.of(SearchQuery.flagIsSet(Flags.Flag.ANSWERED))).toStream())
+            .isEmpty();
+    }
+
     @Test
     void updateShouldThrowOnUnknownMessageUid() throws Exception {
         testee.add(session, mailbox, MESSAGE_1).block();
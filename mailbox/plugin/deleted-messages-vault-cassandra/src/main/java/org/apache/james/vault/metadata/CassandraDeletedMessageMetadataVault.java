@@ -76,6 +76,13 @@ public class CassandraDeletedMessageMetadataVault implements DeletedMessageMetad
         return metadataDAO.retrieveMetadata(bucketName, username);
     }
 
+    @Override
+    public Publisher<StorageInformation> listStorageInformation(BucketName bucketName) {
+        return userPerBucketDAO.retrieveUsers(bucketName)
+            .concatMap(user -> metadataDAO.retrieveMetadata(bucketName, user))
+            .map(DeletedMessageWithStorageInformation::getStorageInformation);
+    }
+
     @Override
     public Publisher<BucketName> listRelatedBuckets() {
         return userPerBucketDAO.retrieveBuckets();
@@ -33,6 +33,7 @@ public interface DeletedMessageMetadataDataDefinition {
         String MESSAGE_ID = "messageId";
         String BUCKET_NAME = "bucketName";
         String BLOB_ID = "blobId";
+        String BODY_BLOB_ID = "bodyBlobId";
     }
 
     interface UserPerBucketTable {
@@ -63,7 +64,8 @@ public interface DeletedMessageMetadataDataDefinition {
             .withPartitionKey(StorageInformationTable.OWNER, DataTypes.TEXT)
             .withPartitionKey(StorageInformationTable.MESSAGE_ID, DataTypes.TEXT)
             .withColumn(StorageInformationTable.BUCKET_NAME, DataTypes.TEXT)
-            .withColumn(StorageInformationTable.BLOB_ID, DataTypes.TEXT))
+            .withColumn(StorageInformationTable.BLOB_ID, DataTypes.TEXT)
+            .withColumn(StorageInformationTable.BODY_BLOB_ID, DataTypes.TEXT))
 
         .table(UserPerBucketTable.TABLE)
         .comment("Holds user list having deletedMessages stored in a given bucket in the BlobStore based DeletedMessages vault")
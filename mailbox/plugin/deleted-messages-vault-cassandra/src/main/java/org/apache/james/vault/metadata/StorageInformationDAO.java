@@ -24,11 +24,14 @@ import static com.datastax.oss.driver.api.querybuilder.QueryBuilder.deleteFrom;
 import static com.datastax.oss.driver.api.querybuilder.QueryBuilder.insertInto;
 import static com.datastax.oss.driver.api.querybuilder.QueryBuilder.selectFrom;
 import static org.apache.james.vault.metadata.DeletedMessageMetadataDataDefinition.StorageInformationTable.BLOB_ID;
+import static org.apache.james.vault.metadata.DeletedMessageMetadataDataDefinition.StorageInformationTable.BODY_BLOB_ID;
 import static org.apache.james.vault.metadata.DeletedMessageMetadataDataDefinition.StorageInformationTable.BUCKET_NAME;
 import static org.apache.james.vault.metadata.DeletedMessageMetadataDataDefinition.StorageInformationTable.MESSAGE_ID;
 import static org.apache.james.vault.metadata.DeletedMessageMetadataDataDefinition.StorageInformationTable.OWNER;
 import static org.apache.james.vault.metadata.DeletedMessageMetadataDataDefinition.StorageInformationTable.TABLE;
 
+import java.util.Optional;
+
 import jakarta.inject.Inject;
 
 import org.apache.james.backends.cassandra.utils.CassandraAsyncExecutor;
@@ -38,7 +41,9 @@ import org.apache.james.core.Username;
 import org.apache.james.mailbox.model.MessageId;
 
 import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.cql.BoundStatement;
 import com.datastax.oss.driver.api.core.cql.PreparedStatement;
+import com.datastax.oss.driver.api.core.cql.Row;
 
 import reactor.core.publisher.Mono;
 
@@ -60,7 +65,7 @@ public class StorageInformationDAO {
 
     private PreparedStatement prepareRead(CqlSession session) {
         return session.prepare(selectFrom(TABLE)
-            .columns(BUCKET_NAME, BLOB_ID)
+            .columns(BUCKET_NAME, BLOB_ID, BODY_BLOB_ID)
             .whereColumn(OWNER).isEqualTo(bindMarker(OWNER))
             .whereColumn(MESSAGE_ID).isEqualTo(bindMarker(MESSAGE_ID))
             .build());
@@ -79,15 +84,21 @@ public class StorageInformationDAO {
             .value(MESSAGE_ID, bindMarker(MESSAGE_ID))
             .value(BUCKET_NAME, bindMarker(BUCKET_NAME))
             .value(BLOB_ID, bindMarker(BLOB_ID))
+            .value(BODY_BLOB_ID, bindMarker(BODY_BLOB_ID))
             .build());
     }
 
     Mono<Void> referenceStorageInformation(Username username, MessageId messageId, StorageInformation storageInformation) {
-        return cassandraAsyncExecutor.executeVoid(addStatement.bind()
+        BoundStatement statement = addStatement.bind()
             .setString(OWNER, username.asString())
             .setString(MESSAGE_ID, messageId.serialize())
             .setString(BUCKET_NAME, storageInformation.getBucketName().asString())
-            .setString(BLOB_ID, storageInformation.getBlobId().asString()));
+            .setString(BLOB_ID, storageInformation.getBlobId().asString());
+
+        // Left unset rather than null for copied content, so that no tombstone is written
+        return cassandraAsyncExecutor.executeVoid(storageInformation.getBodyBlobId()
+            .map(bodyBlobId -> statement.setString(BODY_BLOB_ID, bodyBlobId.asString()))
+            .orElse(statement));
     }
 
     Mono<Void> deleteStorageInformation(Username username, MessageId messageId) {
@@ -100,8 +111,17 @@ public class StorageInformationDAO {
         return cassandraAsyncExecutor.executeSingleRow(readStatement.bind()
             .setString(OWNER, username.asString())
             .setString(MESSAGE_ID, messageId.serialize()))
-            .map(row -> StorageInformation.builder()
-                    .bucketName(BucketName.of(row.getString(BUCKET_NAME)))
-                    .blobId(blobIdFactory.parse(row.getString(BLOB_ID))));
+            .map(this::asStorageInformation);
+    }
+
+    private StorageInformation asStorageInformation(Row row) {
+        BucketName bucketName = BucketName.of(row.getString(BUCKET_NAME));
+        BlobId blobId = blobIdFactory.parse(row.getString(BLOB_ID));
+
+        return Optional.ofNullable(row.getString(BODY_BLOB_ID))
+            .map(bodyBlobId -> StorageInformation.reference(bucketName, blobId, blobIdFactory.parse(bodyBlobId)))
+            .orElseGet(() -> StorageInformation.builder()
+                .bucketName(bucketName)
+                .blobId(blobId));
     }
 }
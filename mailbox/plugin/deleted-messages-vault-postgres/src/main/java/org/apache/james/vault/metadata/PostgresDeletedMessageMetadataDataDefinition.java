@@ -40,6 +40,7 @@ public interface PostgresDeletedMessageMetadataDataDefinition {
         Field<String> OWNER = DSL.field("owner", SQLDataType.VARCHAR.notNull());
         Field<String> MESSAGE_ID = DSL.field("messageId", SQLDataType.VARCHAR.notNull());
         Field<String> BLOB_ID = DSL.field("blob_id", SQLDataType.VARCHAR.notNull());
+        Field<String> BODY_BLOB_ID = DSL.field("body_blob_id", SQLDataType.VARCHAR);
         Field<JSONB> METADATA = DSL.field("metadata", SQLDataType.JSONB.notNull());
 
         PostgresTable TABLE = PostgresTable.name(TABLE_NAME.getName())
@@ -48,6 +49,7 @@ public interface PostgresDeletedMessageMetadataDataDefinition {
                 .column(OWNER)
                 .column(MESSAGE_ID)
                 .column(BLOB_ID)
+                .column(BODY_BLOB_ID)
                 .column(METADATA)
                 .primaryKey(BUCKET_NAME, OWNER, MESSAGE_ID)))
             .disableRowLevelSecurity()
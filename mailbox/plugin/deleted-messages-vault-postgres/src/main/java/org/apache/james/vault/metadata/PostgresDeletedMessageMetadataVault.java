@@ -21,6 +21,7 @@ package org.apache.james.vault.metadata;
 
 import static org.apache.james.util.ReactorUtils.publishIfPresent;
 import static org.apache.james.vault.metadata.PostgresDeletedMessageMetadataDataDefinition.DeletedMessageMetadataTable.BLOB_ID;
+import static org.apache.james.vault.metadata.PostgresDeletedMessageMetadataDataDefinition.DeletedMessageMetadataTable.BODY_BLOB_ID;
 import static org.apache.james.vault.metadata.PostgresDeletedMessageMetadataDataDefinition.DeletedMessageMetadataTable.BUCKET_NAME;
 import static org.apache.james.vault.metadata.PostgresDeletedMessageMetadataDataDefinition.DeletedMessageMetadataTable.MESSAGE_ID;
 import static org.apache.james.vault.metadata.PostgresDeletedMessageMetadataDataDefinition.DeletedMessageMetadataTable.METADATA;
@@ -28,6 +29,7 @@ import static org.apache.james.vault.metadata.PostgresDeletedMessageMetadataData
 import static org.apache.james.vault.metadata.PostgresDeletedMessageMetadataDataDefinition.DeletedMessageMetadataTable.TABLE_NAME;
 import static org.jooq.JSONB.jsonb;
 
+import java.util.Optional;
 import java.util.function.Function;
 
 import jakarta.inject.Inject;
@@ -64,6 +66,7 @@ public class PostgresDeletedMessageMetadataVault implements DeletedMessageMetada
             .set(MESSAGE_ID, deletedMessage.getDeletedMessage().getMessageId().serialize())
             .set(BUCKET_NAME, deletedMessage.getStorageInformation().getBucketName().asString())
             .set(BLOB_ID, deletedMessage.getStorageInformation().getBlobId().asString())
+            .set(BODY_BLOB_ID, deletedMessage.getStorageInformation().getBodyBlobId().map(BlobId::asString).orElse(null))
             .set(METADATA, jsonb(metadataSerializer.serialize(deletedMessage)))));
     }
 
@@ -83,7 +86,7 @@ public class PostgresDeletedMessageMetadataVault implements DeletedMessageMetada
 
     @Override
     public Publisher<StorageInformation> retrieveStorageInformation(Username username, MessageId messageId) {
-        return postgresExecutor.executeRow(context -> Mono.from(context.select(BUCKET_NAME, BLOB_ID)
+        return postgresExecutor.executeRow(context -> Mono.from(context.select(BUCKET_NAME, BLOB_ID, BODY_BLOB_ID)
             .from(TABLE_NAME)
             .where(OWNER.eq(username.asString()),
                 MESSAGE_ID.eq(messageId.serialize()))))
@@ -91,9 +94,16 @@ public class PostgresDeletedMessageMetadataVault implements DeletedMessageMetada
     }
 
     private Function<Record, StorageInformation> toStorageInformation() {
-        return record -> StorageInformation.builder()
-            .bucketName(BucketName.of(record.get(BUCKET_NAME)))
-            .blobId(blobIdFactory.parse(record.get(BLOB_ID)));
+        return record -> {
+            BucketName bucketName = BucketName.of(record.get(BUCKET_NAME));
+            BlobId blobId = blobIdFactory.parse(record.get(BLOB_ID));
+
+            return Optional.ofNullable(record.get(BODY_BLOB_ID))
+                .map(bodyBlobId -> StorageInformation.reference(bucketName, blobId, blobIdFactory.parse(bodyBlobId)))
+                .orElseGet(() -> StorageInformation.builder()
+                    .bucketName(bucketName)
+                    .blobId(blobId));
+        };
     }
 
     @Override
@@ -106,6 +116,14 @@ public class PostgresDeletedMessageMetadataVault implements DeletedMessageMetada
             .handle(publishIfPresent());
     }
 
+    @Override
+    public Publisher<StorageInformation> listStorageInformation(BucketName bucketName) {
+        return postgresExecutor.executeRows(context -> Flux.from(context.select(BUCKET_NAME, BLOB_ID, BODY_BLOB_ID)
+            .from(TABLE_NAME)
+            .where(BUCKET_NAME.eq(bucketName.asString()))))
+            .map(toStorageInformation());
+    }
+
     @Override
     public Publisher<BucketName> listRelatedBuckets() {
         return postgresExecutor.executeRows(context -> Flux.from(context.selectDistinct(BUCKET_NAME)
@@ -21,6 +21,7 @@ package org.apache.james.vault;
 
 import java.io.InputStream;
 
+import org.apache.james.blob.api.BlobId;
 import org.apache.james.core.Username;
 import org.apache.james.mailbox.model.MessageId;
 import org.apache.james.task.Task;
@@ -30,6 +31,12 @@ import org.reactivestreams.Publisher;
 public interface DeletedMessageVault {
     Publisher<Void> append(DeletedMessage deletedMessage, InputStream mimeMessage);
 
+    /**
+     * Retains a deleted message by referencing its header and body blobs, stored in the default bucket, instead
+     * of copying its content.
+     */
+    Publisher<Void> appendReference(DeletedMessage deletedMessage, BlobId headerBlobId, BlobId bodyBlobId);
+
     Publisher<InputStream> loadMimeMessage(Username username, MessageId messageId);
 
     Publisher<Void> delete(Username username, MessageId messageId);
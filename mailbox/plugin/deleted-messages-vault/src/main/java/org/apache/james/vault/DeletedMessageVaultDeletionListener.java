@@ -73,17 +73,19 @@ public class DeletedMessageVaultDeletionListener implements EventListener.Reacti
     private final Clock clock;
     private final MessageIdManager messageIdManager;
     private final SessionProvider sessionProvider;
+    private final VaultConfiguration vaultConfiguration;
 
     @Inject
     public DeletedMessageVaultDeletionListener(BlobId.Factory blobIdFactory, DeletedMessageVault deletedMessageVault,
                                                BlobStore blobStore, Clock clock, MessageIdManager messageIdManager,
-                                               SessionProvider sessionProvider) {
+                                               SessionProvider sessionProvider, VaultConfiguration vaultConfiguration) {
         this.blobIdFactory = blobIdFactory;
         this.deletedMessageVault = deletedMessageVault;
         this.blobStore = blobStore;
         this.clock = clock;
         this.messageIdManager = messageIdManager;
         this.sessionProvider = sessionProvider;
+        this.vaultConfiguration = vaultConfiguration;
     }
 
     @Override
@@ -124,13 +126,24 @@ public class DeletedMessageVaultDeletionListener implements EventListener.Reacti
                     .subject(mimeMessage.map(Message::getSubject))
                     .build();
 
-                return Mono.from(blobStore.readReactive(blobStore.getDefaultBucketName(), blobIdFactory.parse(messageContentDeletionEvent.bodyBlobId()), BlobStore.StoragePolicy.LOW_COST))
-                    .map(bodyStream -> new SequenceInputStream(new ByteArrayInputStream(bytes), bodyStream))
-                    .flatMap(bodyStream -> Mono.from(deletedMessageVault.append(deletedMessage, bodyStream)));
+                return appendToTheVault(messageContentDeletionEvent, deletedMessage, bytes);
             })
             .then();
     }
 
+    private Mono<Void> appendToTheVault(MessageContentDeletionEvent messageContentDeletionEvent, DeletedMessage deletedMessage, byte[] headerBytes) {
+        BlobId bodyBlobId = blobIdFactory.parse(messageContentDeletionEvent.bodyBlobId());
+        Optional<BlobId> headerBlobId = messageContentDeletionEvent.headerBlobId().map(blobIdFactory::parse);
+
+        // Headers stored alongside the metadata have no blob to reference
+        if (vaultConfiguration.shouldStoreBlobReferences() && headerBlobId.isPresent()) {
+            return Mono.from(deletedMessageVault.appendReference(deletedMessage, headerBlobId.get(), bodyBlobId));
+        }
+        return Mono.from(blobStore.readReactive(blobStore.getDefaultBucketName(), bodyBlobId, BlobStore.StoragePolicy.LOW_COST))
+            .map(bodyStream -> new SequenceInputStream(new ByteArrayInputStream(headerBytes), bodyStream))
+            .flatMap(bodyStream -> Mono.from(deletedMessageVault.append(deletedMessage, bodyStream)));
+    }
+
     private Mono<Boolean> hasLostAccess(MessageContentDeletionEvent messageContentDeletionEvent) {
         MailboxSession session = sessionProvider.createSystemSession(messageContentDeletionEvent.getUsername());
 
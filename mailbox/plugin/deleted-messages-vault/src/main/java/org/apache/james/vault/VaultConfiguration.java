@@ -43,20 +43,27 @@ public class VaultConfiguration {
         String restoreLocation = Optional.ofNullable(propertiesConfiguration.getString("restoreLocation"))
             .orElse(DEFAULT.getRestoreLocation());
         boolean enabled = propertiesConfiguration.getBoolean("enabled", false);
-        return new VaultConfiguration(enabled, retentionPeriod, restoreLocation);
+        boolean storeBlobReferences = propertiesConfiguration.getBoolean("storeBlobReferences", false);
+        return new VaultConfiguration(enabled, retentionPeriod, restoreLocation, storeBlobReferences);
     }
 
     private final boolean enabled;
     private final Duration retentionPeriod;
     private final String restoreLocation;
+    private final boolean storeBlobReferences;
 
     VaultConfiguration(boolean enabled, Duration retentionPeriod, String restoreLocation) {
+        this(enabled, retentionPeriod, restoreLocation, false);
+    }
+
+    VaultConfiguration(boolean enabled, Duration retentionPeriod, String restoreLocation, boolean storeBlobReferences) {
         this.enabled = enabled;
         Preconditions.checkNotNull(retentionPeriod);
         Preconditions.checkNotNull(restoreLocation);
 
         this.retentionPeriod = retentionPeriod;
         this.restoreLocation = restoreLocation;
+        this.storeBlobReferences = storeBlobReferences;
     }
 
     public boolean isEnabled() {
@@ -71,6 +78,15 @@ public class VaultConfiguration {
         return restoreLocation;
     }
 
+    /**
+     * When enabled, the vault references the blobs of the deleted messages instead of copying their content.
+     * This relies on the deduplication of the BlobStore, where the mailbox does not delete blobs but leaves them to
+     * the garbage collection.
+     */
+    public boolean shouldStoreBlobReferences() {
+        return storeBlobReferences;
+    }
+
     @Override
     public final boolean equals(Object o) {
         if (o instanceof VaultConfiguration) {
@@ -78,13 +94,14 @@ public class VaultConfiguration {
 
             return Objects.equals(this.retentionPeriod, that.retentionPeriod)
                 && Objects.equals(this.restoreLocation, that.restoreLocation)
-                && Objects.equals(this.enabled, that.enabled);
+                && Objects.equals(this.enabled, that.enabled)
+                && Objects.equals(this.storeBlobReferences, that.storeBlobReferences);
         }
         return false;
     }
 
     @Override
     public final int hashCode() {
-        return Objects.hash(retentionPeriod, restoreLocation, enabled);
+        return Objects.hash(retentionPeriod, restoreLocation, enabled, storeBlobReferences);
     }
 }
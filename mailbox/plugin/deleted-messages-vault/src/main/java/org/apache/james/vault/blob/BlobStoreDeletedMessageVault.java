@@ -23,12 +23,14 @@ import static org.apache.james.blob.api.BlobStore.StoragePolicy.LOW_COST;
 import static org.apache.james.util.ReactorUtils.DEFAULT_CONCURRENCY;
 
 import java.io.InputStream;
+import java.io.SequenceInputStream;
 import java.time.Clock;
 import java.time.ZonedDateTime;
 import java.util.Optional;
 
 import jakarta.inject.Inject;
 
+import org.apache.james.blob.api.BlobId;
 import org.apache.james.blob.api.BlobStore;
 import org.apache.james.blob.api.BlobStoreDAO;
 import org.apache.james.blob.api.BucketName;
@@ -60,6 +62,7 @@ public class BlobStoreDeletedMessageVault implements DeletedMessageVault {
 
     private static final String BLOBSTORE_DELETED_MESSAGE_VAULT_METRIC = "deletedMessageVault:blobStore:";
     static final String APPEND_METRIC_NAME = BLOBSTORE_DELETED_MESSAGE_VAULT_METRIC + "append";
+    static final String APPEND_REFERENCE_METRIC_NAME = BLOBSTORE_DELETED_MESSAGE_VAULT_METRIC + "appendReference";
     static final String LOAD_MIME_MESSAGE_METRIC_NAME = BLOBSTORE_DELETED_MESSAGE_VAULT_METRIC + "loadMimeMessage";
     static final String SEARCH_METRIC_NAME = BLOBSTORE_DELETED_MESSAGE_VAULT_METRIC + "search";
     static final String DELETE_METRIC_NAME = BLOBSTORE_DELETED_MESSAGE_VAULT_METRIC + "delete";
@@ -110,6 +113,18 @@ public class BlobStoreDeletedMessageVault implements DeletedMessageVault {
             .then();
     }
 
+    @Override
+    public Publisher<Void> appendReference(DeletedMessage deletedMessage, BlobId headerBlobId, BlobId bodyBlobId) {
+        Preconditions.checkNotNull(deletedMessage);
+        Preconditions.checkNotNull(headerBlobId);
+        Preconditions.checkNotNull(bodyBlobId);
+        StorageInformation storageInformation = StorageInformation.reference(nameGenerator.currentBucket(), headerBlobId, bodyBlobId);
+
+        return metricFactory.decoratePublisherWithTimerMetric(
+            APPEND_REFERENCE_METRIC_NAME,
+            messageMetadataVault.store(new DeletedMessageWithStorageInformation(deletedMessage, storageInformation)));
+    }
+
     @Override
     public Publisher<InputStream> loadMimeMessage(Username username, MessageId messageId) {
         Preconditions.checkNotNull(username);
@@ -122,12 +137,23 @@ public class BlobStoreDeletedMessageVault implements DeletedMessageVault {
     }
 
     private Mono<InputStream> loadMimeMessage(StorageInformation storageInformation, Username username, MessageId messageId) {
-        return Mono.from(blobStore.readReactive(storageInformation.getBucketName(), storageInformation.getBlobId(), LOW_COST))
+        return readContent(storageInformation)
             .onErrorResume(
                 ObjectNotFoundException.class,
                 ex -> Mono.error(new DeletedMessageContentNotFoundException(username, messageId)));
     }
 
+    private Mono<InputStream> readContent(StorageInformation storageInformation) {
+        if (storageInformation.isReference()) {
+            BucketName defaultBucketName = blobStore.getDefaultBucketName();
+            return Mono.zip(
+                    Mono.from(blobStore.readReactive(defaultBucketName, storageInformation.getBlobId(), LOW_COST)),
+                    Mono.from(blobStore.readReactive(defaultBucketName, storageInformation.getBodyBlobId().get(), LOW_COST)))
+                .map(headerAndBody -> new SequenceInputStream(headerAndBody.getT1(), headerAndBody.getT2()));
+        }
+        return Mono.from(blobStore.readReactive(storageInformation.getBucketName(), storageInformation.getBlobId(), LOW_COST));
+    }
+
     @Override
     public Publisher<DeletedMessage> search(Username username, Query query) {
         Preconditions.checkNotNull(username);
@@ -162,6 +188,8 @@ public class BlobStoreDeletedMessageVault implements DeletedMessageVault {
         return Mono.from(messageMetadataVault.retrieveStorageInformation(username, messageId))
             .flatMap(storageInformation -> Mono.from(messageMetadataVault.remove(storageInformation.getBucketName(), username, messageId))
                 .thenReturn(storageInformation))
+            // Referenced blobs belong to the mailbox, they are reclaimed by the garbage collection once no longer referenced
+            .filter(storageInformation -> !storageInformation.isReference())
             .flatMap(storageInformation -> Mono.from(blobStoreDAO.delete(storageInformation.getBucketName(), storageInformation.getBlobId())));
     }
 
@@ -0,0 +1,51 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.vault.blob;
+
+import jakarta.inject.Inject;
+
+import org.apache.james.blob.api.BlobId;
+import org.apache.james.blob.api.BlobReferenceSource;
+import org.apache.james.vault.metadata.DeletedMessageMetadataVault;
+import org.apache.james.vault.metadata.StorageInformation;
+
+import com.google.common.collect.ImmutableList;
+
+import reactor.core.publisher.Flux;
+
+/**
+ * Pins the mailbox blobs referenced by the vault, until the vault entries referencing them are deleted or expire.
+ */
+public class DeletedMessageVaultBlobReferenceSource implements BlobReferenceSource {
+    private final DeletedMessageMetadataVault messageMetadataVault;
+
+    @Inject
+    public DeletedMessageVaultBlobReferenceSource(DeletedMessageMetadataVault messageMetadataVault) {
+        this.messageMetadataVault = messageMetadataVault;
+    }
+
+    @Override
+    public Flux<BlobId> listReferencedBlobs() {
+        return Flux.from(messageMetadataVault.listRelatedBuckets())
+            .concatMap(messageMetadataVault::listStorageInformation)
+            .filter(StorageInformation::isReference)
+            .flatMapIterable(storageInformation -> ImmutableList.of(storageInformation.getBlobId(), storageInformation.getBodyBlobId().get()));
+    }
+}
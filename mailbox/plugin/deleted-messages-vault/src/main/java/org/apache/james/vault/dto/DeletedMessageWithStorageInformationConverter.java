@@ -54,9 +54,14 @@ public class DeletedMessageWithStorageInformationConverter {
     }
 
     public StorageInformation toDomainObject(DeletedMessageWithStorageInformationDTO.StorageInformationDTO storageInformationDTO) {
-        return StorageInformation.builder()
-            .bucketName(BucketName.of(storageInformationDTO.getBucketName()))
-            .blobId(blobFactory.parse(storageInformationDTO.getBlobId()));
+        BucketName bucketName = BucketName.of(storageInformationDTO.getBucketName());
+        BlobId blobId = blobFactory.parse(storageInformationDTO.getBlobId());
+
+        return storageInformationDTO.getBodyBlobId()
+            .map(bodyBlobId -> StorageInformation.reference(bucketName, blobId, blobFactory.parse(bodyBlobId)))
+            .orElseGet(() -> StorageInformation.builder()
+                .bucketName(bucketName)
+                .blobId(blobId));
     }
 
     public DeletedMessage toDomainObject(DeletedMessageWithStorageInformationDTO.DeletedMessageDTO deletedMessageDTO) throws AddressException {
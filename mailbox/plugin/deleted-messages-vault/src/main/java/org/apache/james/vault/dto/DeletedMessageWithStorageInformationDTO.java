@@ -24,6 +24,7 @@ import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.Optional;
 
+import org.apache.james.blob.api.BlobId;
 import org.apache.james.core.MailAddress;
 import org.apache.james.mailbox.model.MailboxId;
 import org.apache.james.vault.DeletedMessage;
@@ -42,20 +43,24 @@ public class DeletedMessageWithStorageInformationDTO {
 
         public static StorageInformationDTO toDTO(StorageInformation storageInformation) {
             return new StorageInformationDTO(storageInformation.getBucketName().asString(),
-                storageInformation.getBlobId().asString());
+                storageInformation.getBlobId().asString(),
+                storageInformation.getBodyBlobId().map(BlobId::asString));
         }
 
         private final String bucketName;
         private final String blobId;
+        private final Optional<String> bodyBlobId;
 
         @JsonCreator
         public StorageInformationDTO(@JsonProperty("bucketName") String bucketName,
-                                     @JsonProperty("blobId") String blobId) {
+                                     @JsonProperty("blobId") String blobId,
+                                     @JsonProperty("bodyBlobId") Optional<String> bodyBlobId) {
             Preconditions.checkNotNull(bucketName);
             Preconditions.checkNotNull(blobId);
 
             this.bucketName = bucketName;
             this.blobId = blobId;
+            this.bodyBlobId = bodyBlobId;
         }
 
         public String getBucketName() {
@@ -65,6 +70,10 @@ public class DeletedMessageWithStorageInformationDTO {
         public String getBlobId() {
             return blobId;
         }
+
+        public Optional<String> getBodyBlobId() {
+            return bodyBlobId;
+        }
     }
 
     public static class DeletedMessageDTO {
@@ -101,6 +101,17 @@ public class MemoryDeletedMessageMetadataVault implements DeletedMessageMetadata
         }
     }
 
+    @Override
+    public Publisher<StorageInformation> listStorageInformation(BucketName bucketName) {
+        synchronized (table) {
+            return Flux.fromIterable(table.row(bucketName).values()
+                .stream()
+                .flatMap(userVault -> userVault.values().stream())
+                .map(DeletedMessageWithStorageInformation::getStorageInformation)
+                .collect(ImmutableList.toImmutableList()));
+        }
+    }
+
     @Override
     public Publisher<BucketName> listRelatedBuckets() {
         synchronized (table) {
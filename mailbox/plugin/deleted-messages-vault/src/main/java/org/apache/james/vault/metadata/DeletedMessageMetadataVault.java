@@ -35,5 +35,7 @@ public interface DeletedMessageMetadataVault {
 
     Publisher<DeletedMessageWithStorageInformation> listMessages(BucketName bucketName, Username username);
 
+    Publisher<StorageInformation> listStorageInformation(BucketName bucketName);
+
     Publisher<BucketName> listRelatedBuckets();
 }
@@ -20,6 +20,7 @@
 package org.apache.james.vault.metadata;
 
 import java.util.Objects;
+import java.util.Optional;
 
 import org.apache.james.blob.api.BlobId;
 import org.apache.james.blob.api.BucketName;
@@ -41,18 +42,30 @@ public class StorageInformation {
     }
 
     public static Builder.RequireBucketName builder() {
-        return bucketName -> blobId -> new StorageInformation(bucketName, blobId);
+        return bucketName -> blobId -> new StorageInformation(bucketName, blobId, Optional.empty());
+    }
+
+    /**
+     * The message content is not copied into the vault: the header and body blobs of the mailbox, held in the default
+     * bucket, are referenced instead. The bucket name then only partitions the vault content by deletion period.
+     */
+    public static StorageInformation reference(BucketName bucketName, BlobId headerBlobId, BlobId bodyBlobId) {
+        Preconditions.checkNotNull(bodyBlobId);
+
+        return new StorageInformation(bucketName, headerBlobId, Optional.of(bodyBlobId));
     }
 
     private final BucketName bucketName;
     private final BlobId blobId;
+    private final Optional<BlobId> bodyBlobId;
 
-    private StorageInformation(BucketName bucketName, BlobId blobId) {
+    private StorageInformation(BucketName bucketName, BlobId blobId, Optional<BlobId> bodyBlobId) {
         Preconditions.checkNotNull(bucketName);
         Preconditions.checkNotNull(blobId);
 
         this.bucketName = bucketName;
         this.blobId = blobId;
+        this.bodyBlobId = bodyBlobId;
     }
 
     public BucketName getBucketName() {
@@ -63,19 +76,28 @@ public class StorageInformation {
         return blobId;
     }
 
+    public Optional<BlobId> getBodyBlobId() {
+        return bodyBlobId;
+    }
+
+    public boolean isReference() {
+        return bodyBlobId.isPresent();
+    }
+
     @Override
     public final boolean equals(Object o) {
         if (o instanceof StorageInformation) {
             StorageInformation that = (StorageInformation) o;
 
             return Objects.equals(this.bucketName, that.bucketName)
-                && Objects.equals(this.blobId, that.blobId);
+                && Objects.equals(this.blobId, that.blobId)
+                && Objects.equals(this.bodyBlobId, that.bodyBlobId);
         }
         return false;
     }
 
     @Override
     public final int hashCode() {
-        return Objects.hash(bucketName, blobId);
+        return Objects.hash(bucketName, blobId, bodyBlobId);
     }
 }
@@ -74,6 +74,15 @@ class VaultConfigurationTest {
             new VaultConfiguration(false, Duration.ofDays(15), DefaultMailboxes.RESTORED_MESSAGES));
     }
 
+    @Test
+    void fromShouldReturnConfiguredStoreBlobReferences() {
+        PropertiesConfiguration configuration = new PropertiesConfiguration();
+        configuration.addProperty("storeBlobReferences", "true");
+
+        assertThat(VaultConfiguration.from(configuration)).isEqualTo(
+            new VaultConfiguration(false, ChronoUnit.YEARS.getDuration(), DefaultMailboxes.RESTORED_MESSAGES, true));
+    }
+
     @Test
     void fromShouldHandleHours() {
         PropertiesConfiguration configuration = new PropertiesConfiguration();
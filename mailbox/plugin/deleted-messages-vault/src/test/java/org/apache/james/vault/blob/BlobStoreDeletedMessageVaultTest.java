@@ -27,6 +27,7 @@ import static org.apache.james.vault.DeletedMessageFixture.NOW;
 import static org.apache.james.vault.DeletedMessageFixture.OLD_DELETED_MESSAGE;
 import static org.apache.james.vault.DeletedMessageFixture.USERNAME;
 import static org.apache.james.vault.blob.BlobStoreDeletedMessageVault.APPEND_METRIC_NAME;
+import static org.apache.james.vault.blob.BlobStoreDeletedMessageVault.APPEND_REFERENCE_METRIC_NAME;
 import static org.apache.james.vault.blob.BlobStoreDeletedMessageVault.DELETE_EXPIRED_MESSAGES_METRIC_NAME;
 import static org.apache.james.vault.blob.BlobStoreDeletedMessageVault.DELETE_METRIC_NAME;
 import static org.apache.james.vault.blob.BlobStoreDeletedMessageVault.LOAD_MIME_MESSAGE_METRIC_NAME;
@@ -35,9 +36,12 @@ import static org.apache.james.vault.search.Query.ALL;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.time.ZonedDateTime;
 
+import org.apache.james.blob.api.BlobId;
+import org.apache.james.blob.api.BlobStore;
 import org.apache.james.blob.api.BucketName;
 import org.apache.james.blob.api.PlainBlobId;
 import org.apache.james.blob.memory.MemoryBlobStoreDAO;
@@ -52,26 +56,31 @@ import org.apache.james.vault.memory.metadata.MemoryDeletedMessageMetadataVault;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 
 class BlobStoreDeletedMessageVaultTest implements DeletedMessageVaultContract, DeletedMessageVaultSearchContract.AllContracts {
+    private static final byte[] HEADER = "header: value\r\n\r\n".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] BODY = "content".getBytes(StandardCharsets.UTF_8);
+
     private BlobStoreDeletedMessageVault messageVault;
     private UpdatableTickingClock clock;
     private RecordingMetricFactory metricFactory;
+    private BlobStore blobStore;
 
     @BeforeEach
     void setUp() {
         clock = new UpdatableTickingClock(NOW.toInstant());
         metricFactory = new RecordingMetricFactory();
         MemoryBlobStoreDAO blobStoreDAO = new MemoryBlobStoreDAO();
+        blobStore = BlobStoreFactory.builder()
+            .blobStoreDAO(blobStoreDAO)
+            .blobIdFactory(new PlainBlobId.Factory())
+            .defaultBucketName()
+            .passthrough();
         messageVault = new BlobStoreDeletedMessageVault(metricFactory, new MemoryDeletedMessageMetadataVault(),
-            BlobStoreFactory.builder()
-                .blobStoreDAO(blobStoreDAO)
-                .blobIdFactory(new PlainBlobId.Factory())
-                .defaultBucketName()
-                .passthrough(),
-            blobStoreDAO, new BucketNameGenerator(clock), clock, VaultConfiguration.ENABLED_DEFAULT);
+            blobStore, blobStoreDAO, new BucketNameGenerator(clock), clock, VaultConfiguration.ENABLED_DEFAULT);
     }
 
     @Override
@@ -163,4 +172,43 @@ class BlobStoreDeletedMessageVaultTest implements DeletedMessageVaultContract, D
         assertThat(metricFactory.executionTimesFor(DELETE_EXPIRED_MESSAGES_METRIC_NAME))
             .hasSize(1);
     }
-}
\ No newline at end of file
+
+    @Test
+    void loadMimeMessageShouldReturnTheReferencedHeaderAndBody() throws Exception {
+        BlobId headerBlobId = Mono.from(blobStore.save(blobStore.getDefaultBucketName(), HEADER, BlobStore.StoragePolicy.SIZE_BASED)).block();
+        BlobId bodyBlobId = Mono.from(blobStore.save(blobStore.getDefaultBucketName(), BODY, BlobStore.StoragePolicy.LOW_COST)).block();
+
+        Mono.from(messageVault.appendReference(DELETED_MESSAGE, headerBlobId, bodyBlobId)).block();
+
+        assertThat(Mono.from(messageVault.loadMimeMessage(USERNAME, MESSAGE_ID)).block())
+            .hasSameContentAs(new ByteArrayInputStream(CONTENT));
+    }
+
+    @Test
+    void searchShouldReturnReferencedMessages() {
+        Mono.from(messageVault.appendReference(DELETED_MESSAGE, new PlainBlobId("header"), new PlainBlobId("body"))).block();
+
+        assertThat(Flux.from(messageVault.search(USERNAME, ALL)).collectList().block())
+            .containsOnly(DELETED_MESSAGE);
+    }
+
+    @Test
+    void deleteShouldNotDeleteReferencedBlobs() {
+        BlobId headerBlobId = Mono.from(blobStore.save(blobStore.getDefaultBucketName(), HEADER, BlobStore.StoragePolicy.SIZE_BASED)).block();
+        BlobId bodyBlobId = Mono.from(blobStore.save(blobStore.getDefaultBucketName(), BODY, BlobStore.StoragePolicy.LOW_COST)).block();
+        Mono.from(messageVault.appendReference(DELETED_MESSAGE, headerBlobId, bodyBlobId)).block();
+
+        Mono.from(messageVault.delete(USERNAME, MESSAGE_ID)).block();
+
+        assertThat(Mono.from(blobStore.readBytes(blobStore.getDefaultBucketName(), bodyBlobId)).block())
+            .isEqualTo(BODY);
+    }
+
+    @Test
+    void appendReferenceShouldPublishAppendReferenceTimerMetrics() {
+        Mono.from(messageVault.appendReference(DELETED_MESSAGE, new PlainBlobId("header"), new PlainBlobId("body"))).block();
+
+        assertThat(metricFactory.executionTimesFor(APPEND_REFERENCE_METRIC_NAME))
+            .hasSize(1);
+    }
+}
@@ -0,0 +1,65 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.vault.blob;
+
+import static org.apache.james.vault.metadata.DeletedMessageVaultMetadataFixture.BLOB_ID;
+import static org.apache.james.vault.metadata.DeletedMessageVaultMetadataFixture.BLOB_ID_2;
+import static org.apache.james.vault.metadata.DeletedMessageVaultMetadataFixture.DELETED_MESSAGE_2_OTHER_BUCKET;
+import static org.apache.james.vault.metadata.DeletedMessageVaultMetadataFixture.DELETED_MESSAGE_REFERENCE;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.apache.james.vault.memory.metadata.MemoryDeletedMessageMetadataVault;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import reactor.core.publisher.Mono;
+
+class DeletedMessageVaultBlobReferenceSourceTest {
+    private MemoryDeletedMessageMetadataVault metadataVault;
+    private DeletedMessageVaultBlobReferenceSource testee;
+
+    @BeforeEach
+    void setUp() {
+        metadataVault = new MemoryDeletedMessageMetadataVault();
+        testee = new DeletedMessageVaultBlobReferenceSource(metadataVault);
+    }
+
+    @Test
+    void listReferencedBlobsShouldBeEmptyByDefault() {
+        assertThat(testee.listReferencedBlobs().collectList().block())
+            .isEmpty();
+    }
+
+    @Test
+    void listReferencedBlobsShouldReturnHeaderAndBodyOfReferences() {
+        Mono.from(metadataVault.store(DELETED_MESSAGE_REFERENCE)).block();
+
+        assertThat(testee.listReferencedBlobs().collectList().block())
+            .containsOnly(BLOB_ID, BLOB_ID_2);
+    }
+
+    @Test
+    void listReferencedBlobsShouldNotReturnCopies() {
+        Mono.from(metadataVault.store(DELETED_MESSAGE_2_OTHER_BUCKET)).block();
+
+        assertThat(testee.listReferencedBlobs().collectList().block())
+            .isEmpty();
+    }
+}
@@ -25,6 +25,7 @@ import static org.apache.james.vault.DeletedMessageFixture.DELETED_MESSAGE;
 import static org.apache.james.vault.DeletedMessageFixture.DELETED_MESSAGE_WITH_SUBJECT;
 import static org.apache.james.vault.dto.DeletedMessageWithStorageInformationDTO.DeletedMessageDTO;
 import static org.apache.james.vault.dto.DeletedMessageWithStorageInformationDTO.StorageInformationDTO;
+import static org.apache.james.vault.metadata.DeletedMessageVaultMetadataFixture.REFERENCE_STORAGE_INFORMATION;
 import static org.apache.james.vault.metadata.DeletedMessageVaultMetadataFixture.STORAGE_INFORMATION;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -44,6 +45,7 @@ import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
 
 class DeletedMessageWithStorageInformationDTOTest {
     private static final StorageInformationDTO STORAGE_INFORMATION_DTO = StorageInformationDTO.toDTO(STORAGE_INFORMATION);
+    private static final StorageInformationDTO REFERENCE_STORAGE_INFORMATION_DTO = StorageInformationDTO.toDTO(REFERENCE_STORAGE_INFORMATION);
 
     private static final DeletedMessageDTO DELETED_MESSAGE_DTO = DeletedMessageDTO.toDTO(DELETED_MESSAGE);
 
@@ -56,6 +58,7 @@ class DeletedMessageWithStorageInformationDTOTest {
         DeletedMessageWithStorageInformationDTO.toDTO(DELETED_MESSAGE_WITH_STORAGE_INFO);
 
     private static final String STORAGE_INFORMATION_JSON = getSystemResourceAsString("json/storage_information.json");
+    private static final String REFERENCE_STORAGE_INFORMATION_JSON = getSystemResourceAsString("json/storage_information_reference.json");
 
     private static final String DELETED_MESSAGE_JSON = getSystemResourceAsString("json/deleted_message.json");
     private static final String DELETED_MESSAGE_WITH_SUBJECT_JSON = getSystemResourceAsString("json/deleted_message_with_subject.json");
@@ -90,6 +93,18 @@ class DeletedMessageWithStorageInformationDTOTest {
             .isEqualTo(STORAGE_INFORMATION);
     }
 
+    @Test
+    void shouldSerializeReferenceStorageInformation() throws Exception {
+        assertThatJson(objectMapper.writeValueAsString(REFERENCE_STORAGE_INFORMATION_DTO))
+            .isEqualTo(REFERENCE_STORAGE_INFORMATION_JSON);
+    }
+
+    @Test
+    void shouldDeserializeReferenceStorageInformation() throws Exception {
+        assertThat(converter.toDomainObject(objectMapper.readValue(REFERENCE_STORAGE_INFORMATION_JSON, StorageInformationDTO.class)))
+            .isEqualTo(REFERENCE_STORAGE_INFORMATION);
+    }
+
     @Test
     void shouldSerializeDeletedMessage() throws Exception {
         assertThatJson(objectMapper.writeValueAsString(DELETED_MESSAGE_DTO))
@@ -24,7 +24,10 @@ import static org.apache.james.vault.metadata.DeletedMessageVaultMetadataFixture
 import static org.apache.james.vault.metadata.DeletedMessageVaultMetadataFixture.DELETED_MESSAGE;
 import static org.apache.james.vault.metadata.DeletedMessageVaultMetadataFixture.DELETED_MESSAGE_2;
 import static org.apache.james.vault.metadata.DeletedMessageVaultMetadataFixture.DELETED_MESSAGE_2_OTHER_BUCKET;
+import static org.apache.james.vault.metadata.DeletedMessageVaultMetadataFixture.DELETED_MESSAGE_REFERENCE;
 import static org.apache.james.vault.metadata.DeletedMessageVaultMetadataFixture.OTHER_BUCKET_NAME;
+import static org.apache.james.vault.metadata.DeletedMessageVaultMetadataFixture.REFERENCE_STORAGE_INFORMATION;
+import static org.apache.james.vault.metadata.DeletedMessageVaultMetadataFixture.STORAGE_INFORMATION;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatCode;
 
@@ -192,4 +195,36 @@ public interface DeletedMessageMetadataVaultContract {
 
         assertThat(storageInformation).isEmpty();
     }
+
+    @Test
+    default void listMessagesShouldReturnReferences() {
+        Mono.from(metadataVault().store(DELETED_MESSAGE_REFERENCE)).block();
+
+        Stream<DeletedMessageWithStorageInformation> messages = Flux.from(metadataVault().listMessages(BUCKET_NAME, USERNAME)).toStream();
+        assertThat(messages).containsExactly(DELETED_MESSAGE_REFERENCE);
+    }
+
+    @Test
+    default void retrieveStorageInformationShouldReturnReferences() {
+        Mono.from(metadataVault().store(DELETED_MESSAGE_REFERENCE)).block();
+
+        StorageInformation storageInformation = Mono.from(metadataVault().retrieveStorageInformation(USERNAME, DELETED_MESSAGE_REFERENCE.getDeletedMessage().getMessageId())).block();
+        assertThat(storageInformation).isEqualTo(REFERENCE_STORAGE_INFORMATION);
+    }
+
+    @Test
+    default void listStorageInformationShouldBeEmptyWhenNoMessageInserted() {
+        Stream<StorageInformation> storageInformation = Flux.from(metadataVault().listStorageInformation(BUCKET_NAME)).toStream();
+        assertThat(storageInformation).isEmpty();
+    }
+
+    @Test
+    default void listStorageInformationShouldReturnTheStorageInformationOfTheBucket() {
+        Mono.from(metadataVault().store(DELETED_MESSAGE_REFERENCE)).block();
+        Mono.from(metadataVault().store(DELETED_MESSAGE_2)).block();
+        Mono.from(metadataVault().store(DELETED_MESSAGE_2_OTHER_BUCKET)).block();
+
+        Stream<StorageInformation> storageInformation = Flux.from(metadataVault().listStorageInformation(BUCKET_NAME)).toStream();
+        assertThat(storageInformation).containsOnly(REFERENCE_STORAGE_INFORMATION, STORAGE_INFORMATION);
+    }
 }
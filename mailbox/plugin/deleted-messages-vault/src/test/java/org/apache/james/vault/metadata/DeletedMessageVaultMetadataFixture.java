@@ -36,9 +36,11 @@ public interface DeletedMessageVaultMetadataFixture {
     StorageInformation OTHER_STORAGE_INFORMATION = StorageInformation.builder()
         .bucketName(OTHER_BUCKET_NAME)
         .blobId(BLOB_ID_2);
+    StorageInformation REFERENCE_STORAGE_INFORMATION = StorageInformation.reference(BUCKET_NAME, BLOB_ID, BLOB_ID_2);
 
     DeletedMessageWithStorageInformation DELETED_MESSAGE_2_OTHER_BUCKET = new DeletedMessageWithStorageInformation(DeletedMessageFixture.DELETED_MESSAGE_2,
         OTHER_STORAGE_INFORMATION);
     DeletedMessageWithStorageInformation DELETED_MESSAGE = new DeletedMessageWithStorageInformation(DeletedMessageFixture.DELETED_MESSAGE, STORAGE_INFORMATION);
     DeletedMessageWithStorageInformation DELETED_MESSAGE_2 = new DeletedMessageWithStorageInformation(DeletedMessageFixture.DELETED_MESSAGE_2, STORAGE_INFORMATION);
+    DeletedMessageWithStorageInformation DELETED_MESSAGE_REFERENCE = new DeletedMessageWithStorageInformation(DeletedMessageFixture.DELETED_MESSAGE, REFERENCE_STORAGE_INFORMATION);
 }
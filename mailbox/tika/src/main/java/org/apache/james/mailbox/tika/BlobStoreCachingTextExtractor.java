@@ -0,0 +1,187 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.mailbox.tika;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.james.blob.api.BlobId;
+import org.apache.james.blob.api.BlobStore;
+import org.apache.james.blob.api.BucketName;
+import org.apache.james.blob.api.ObjectNotFoundException;
+import org.apache.james.blob.api.PlainBlobId;
+import org.apache.james.mailbox.extractor.ParsedContent;
+import org.apache.james.mailbox.extractor.TextExtractor;
+import org.apache.james.mailbox.model.ContentType;
+import org.apache.james.metrics.api.Metric;
+import org.apache.james.metrics.api.MetricFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.fge.lambdas.Throwing;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.hash.Hashing;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.function.Tuples;
+
+/**
+ * Persists the extracted text in the {@link BlobStore}, so that a given attachment is extracted once for the
+ * whole cluster, and not once per node and per reindexing.
+ *
+ * Entries are keyed by the hash of the content and of its content type, prefixed by a version: bumping the version
+ * upon extractor changes (Tika upgrade, configuration) makes the previous entries unreachable, and
+ * {@link #purgeOtherVersions(BlobStore, String)} deletes them. Extracted texts larger than the configured size are not
+ * persisted.
+ *
+ * Textual content is cheap to extract and is not persisted.
+ */
+public class BlobStoreCachingTextExtractor implements TextExtractor {
+    public static final BucketName BUCKET_NAME = BucketName.of("text-extraction-cache");
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BlobStoreCachingTextExtractor.class);
+    private static final BlobId.Factory BLOB_ID_FACTORY = new PlainBlobId.Factory();
+    private static final int DELETION_BATCH_SIZE = 1000;
+
+    record CachedContent(@JsonProperty("textualContent") String textualContent,
+                         @JsonProperty("metadata") Map<String, List<String>> metadata) {
+        static CachedContent from(ParsedContent parsedContent) {
+            return new CachedContent(parsedContent.getTextualContent().orElse(null), parsedContent.getMetadata());
+        }
+
+        ParsedContent asParsedContent() {
+            return ParsedContent.of(Optional.ofNullable(textualContent), Optional.ofNullable(metadata).orElse(ImmutableMap.of()));
+        }
+    }
+
+    /**
+     * Deletes the entries persisted with another version than the given one, which are never read again.
+     *
+     * @return the count of deleted entries
+     */
+    public static Mono<Long> purgeOtherVersions(BlobStore blobStore, String version) {
+        String prefix = prefix(version);
+        return Flux.from(blobStore.listBlobs(BUCKET_NAME))
+            .filter(blobId -> !blobId.asString().startsWith(prefix))
+            .buffer(DELETION_BATCH_SIZE)
+            .concatMap(blobIds -> Mono.from(blobStore.delete(BUCKET_NAME, blobIds))
+                .thenReturn((long) blobIds.size()))
+            .reduce(0L, Long::sum);
+    }
+
+    private static String prefix(String version) {
+        return version + "-";
+    }
+
+    private final TextExtractor underlying;
+    private final BlobStore blobStore;
+    private final String version;
+    private final long maxSizeInBytes;
+    private final ObjectMapper objectMapper;
+    private final Metric hitMetric;
+    private final Metric missMetric;
+
+    public BlobStoreCachingTextExtractor(TextExtractor underlying, BlobStore blobStore, String version, long maxSizeInBytes,
+                                         MetricFactory metricFactory) {
+        Preconditions.checkArgument(!version.isBlank(), "'version' must not be blank");
+        Preconditions.checkArgument(maxSizeInBytes > 0, "'maxSizeInBytes' must be strictly positive");
+
+        this.underlying = underlying;
+        this.blobStore = blobStore;
+        this.version = version;
+        this.maxSizeInBytes = maxSizeInBytes;
+        this.objectMapper = new ObjectMapper();
+        this.hitMetric = metricFactory.generate("textExtractor.sharedCache.hit");
+        this.missMetric = metricFactory.generate("textExtractor.sharedCache.miss");
+    }
+
+    @Override
+    public boolean applicable(ContentType contentType) {
+        return underlying.applicable(contentType);
+    }
+
+    @Override
+    public Mono<ParsedContent> extractContentReactive(InputStream inputStream, ContentType contentType) {
+        if (contentType.mediaType().equals(ContentType.MediaType.TEXT)) {
+            return underlying.extractContentReactive(inputStream, contentType);
+        }
+        return Mono.using(() -> inputStream,
+                stream -> Mono.fromCallable(() -> IOUtils.toByteArray(stream))
+                    .subscribeOn(Schedulers.boundedElastic()),
+                Throwing.consumer(InputStream::close).orDoNothing())
+            .flatMap(bytes -> {
+                BlobId blobId = blobId(bytes, contentType);
+                return readCached(blobId)
+                    .doOnNext(any -> hitMetric.increment())
+                    .switchIfEmpty(Mono.defer(() -> {
+                        missMetric.increment();
+                        return underlying.extractContentReactive(new ByteArrayInputStream(bytes), contentType)
+                            .flatMap(parsedContent -> persist(blobId, parsedContent)
+                                .thenReturn(parsedContent));
+                    }));
+            });
+    }
+
+    @Override
+    public ParsedContent extractContent(InputStream inputStream, ContentType contentType) {
+        return extractContentReactive(inputStream, contentType).block();
+    }
+
+    private BlobId blobId(byte[] bytes, ContentType contentType) {
+        String hash = Hashing.sha256().newHasher()
+            .putString(contentType.mimeType().asString(), StandardCharsets.UTF_8)
+            .putBytes(bytes)
+            .hash()
+            .toString();
+        return BLOB_ID_FACTORY.of(prefix(version) + hash);
+    }
+
+    private Mono<ParsedContent> readCached(BlobId blobId) {
+        return Mono.from(blobStore.readBytes(BUCKET_NAME, blobId))
+            .map(Throwing.function(bytes -> objectMapper.readValue(bytes, CachedContent.class).asParsedContent()))
+            .onErrorResume(ObjectNotFoundException.class, e -> Mono.empty())
+            .onErrorResume(e -> {
+                LOGGER.warn("Failed reading cached extracted text {}, extracting it again", blobId.asString(), e);
+                return Mono.empty();
+            });
+    }
+
+    private Mono<Void> persist(BlobId blobId, ParsedContent parsedContent) {
+        return Mono.fromCallable(() -> objectMapper.writeValueAsBytes(CachedContent.from(parsedContent)))
+            .filter(bytes -> bytes.length <= maxSizeInBytes)
+            .flatMap(bytes -> Mono.from(blobStore.save(BUCKET_NAME, bytes,
+                data -> Mono.just(Tuples.of(blobId, data)), BlobStore.StoragePolicy.LOW_COST)))
+            .onErrorResume(e -> {
+                LOGGER.warn("Failed persisting extracted text {}", blobId.asString(), e);
+                return Mono.empty();
+            })
+            .then();
+    }
+}
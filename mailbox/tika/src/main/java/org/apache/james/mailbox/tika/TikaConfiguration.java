@@ -42,6 +42,9 @@ public class TikaConfiguration {
         private Optional<Integer> timeoutInMillis;
         private Optional<Duration> cacheEvictionPeriod;
         private Optional<Long> cacheWeightInBytes;
+        private Optional<Boolean> isSharedCacheEnabled;
+        private Optional<String> sharedCacheVersion;
+        private Optional<Long> sharedCacheMaxEntrySizeInBytes;
         private ImmutableSet.Builder<MimeType> contentTypeBlacklist;
 
         private Builder() {
@@ -52,6 +55,9 @@ public class TikaConfiguration {
             timeoutInMillis = Optional.empty();
             cacheEvictionPeriod = Optional.empty();
             cacheWeightInBytes = Optional.empty();
+            isSharedCacheEnabled = Optional.empty();
+            sharedCacheVersion = Optional.empty();
+            sharedCacheMaxEntrySizeInBytes = Optional.empty();
             contentTypeBlacklist = ImmutableSet.builder();
         }
 
@@ -141,6 +147,40 @@ public class TikaConfiguration {
             return this;
         }
 
+        public Builder sharedCacheEnable(Optional<Boolean> isEnabled) {
+            Preconditions.checkNotNull(isEnabled);
+            this.isSharedCacheEnabled = isEnabled;
+            return this;
+        }
+
+        public Builder sharedCacheEnabled() {
+            this.isSharedCacheEnabled = Optional.of(true);
+            return this;
+        }
+
+        public Builder sharedCacheVersion(String version) {
+            Preconditions.checkNotNull(version);
+            this.sharedCacheVersion = Optional.of(version);
+            return this;
+        }
+
+        public Builder sharedCacheVersion(Optional<String> version) {
+            Preconditions.checkNotNull(version);
+            this.sharedCacheVersion = version;
+            return this;
+        }
+
+        public Builder sharedCacheMaxEntrySizeInBytes(long size) {
+            this.sharedCacheMaxEntrySizeInBytes = Optional.of(size);
+            return this;
+        }
+
+        public Builder sharedCacheMaxEntrySizeInBytes(Optional<Long> size) {
+            Preconditions.checkNotNull(size);
+            this.sharedCacheMaxEntrySizeInBytes = size;
+            return this;
+        }
+
         public Builder contentTypeBlacklist(Set<MimeType> contentTypeBlacklist) {
             Preconditions.checkNotNull(contentTypeBlacklist);
             this.contentTypeBlacklist.addAll(contentTypeBlacklist);
@@ -149,6 +189,8 @@ public class TikaConfiguration {
 
         public TikaConfiguration build() {
             port.ifPresent(Port::assertValid);
+            sharedCacheVersion.ifPresent(version -> Preconditions.checkArgument(!version.isBlank(), "'sharedCacheVersion' must not be blank"));
+            sharedCacheMaxEntrySizeInBytes.ifPresent(size -> Preconditions.checkArgument(size > 0, "'sharedCacheMaxEntrySizeInBytes' must be strictly positive"));
 
             return new TikaConfiguration(
                 isEnabled.orElse(DEFAULT_DISABLED),
@@ -158,12 +200,17 @@ public class TikaConfiguration {
                 timeoutInMillis.orElse(DEFAULT_TIMEOUT_IN_MS),
                 cacheEvictionPeriod.orElse(DEFAULT_CACHE_EVICTION_PERIOD),
                 cacheWeightInBytes.orElse(DEFAULT_CACHE_LIMIT_100_MB),
+                isSharedCacheEnabled.orElse(DEFAULT_DISABLED),
+                sharedCacheVersion.orElse(DEFAULT_SHARED_CACHE_VERSION),
+                sharedCacheMaxEntrySizeInBytes.orElse(DEFAULT_SHARED_CACHE_MAX_ENTRY_SIZE_1_MB),
                 contentTypeBlacklist.build());
         }
     }
 
     public static final long DEFAULT_CACHE_LIMIT_100_MB = 1024L * 1024L * 100L;
     public static final Duration DEFAULT_CACHE_EVICTION_PERIOD = Duration.ofDays(1);
+    public static final String DEFAULT_SHARED_CACHE_VERSION = "1";
+    public static final long DEFAULT_SHARED_CACHE_MAX_ENTRY_SIZE_1_MB = 1024L * 1024L;
     public static final boolean DEFAULT_DISABLED = false;
     public static final String DEFAULT_HOST = "127.0.0.1";
     public static final int DEFAULT_PORT = 9998;
@@ -180,9 +227,13 @@ public class TikaConfiguration {
     private final int timeoutInMillis;
     private final Duration cacheEvictionPeriod;
     private final long cacheWeightInBytes;
+    private final boolean sharedCacheEnabled;
+    private final String sharedCacheVersion;
+    private final long sharedCacheMaxEntrySizeInBytes;
     private final ImmutableSet<MimeType> contentTypeBlacklist;
 
-    private TikaConfiguration(boolean enabled, boolean cacheEnabled, String host, int port, int timeoutInMillis, Duration cacheEvictionPeriod, long cacheWeightInBytes,  ImmutableSet<MimeType> contentTypeBlacklist) {
+    private TikaConfiguration(boolean enabled, boolean cacheEnabled, String host, int port, int timeoutInMillis, Duration cacheEvictionPeriod, long cacheWeightInBytes,
+                              boolean sharedCacheEnabled, String sharedCacheVersion, long sharedCacheMaxEntrySizeInBytes, ImmutableSet<MimeType> contentTypeBlacklist) {
         this.enabled = enabled;
         this.cacheEnabled = cacheEnabled;
         this.host = host;
@@ -190,6 +241,9 @@ public class TikaConfiguration {
         this.timeoutInMillis = timeoutInMillis;
         this.cacheEvictionPeriod = cacheEvictionPeriod;
         this.cacheWeightInBytes = cacheWeightInBytes;
+        this.sharedCacheEnabled = sharedCacheEnabled;
+        this.sharedCacheVersion = sharedCacheVersion;
+        this.sharedCacheMaxEntrySizeInBytes = sharedCacheMaxEntrySizeInBytes;
         this.contentTypeBlacklist = contentTypeBlacklist;
     }
 
@@ -221,6 +275,18 @@ public class TikaConfiguration {
         return cacheWeightInBytes;
     }
 
+    public boolean isSharedCacheEnabled() {
+        return sharedCacheEnabled;
+    }
+
+    public String getSharedCacheVersion() {
+        return sharedCacheVersion;
+    }
+
+    public long getSharedCacheMaxEntrySizeInBytes() {
+        return sharedCacheMaxEntrySizeInBytes;
+    }
+
     public ImmutableSet<MimeType> getContentTypeBlacklist() {
         return contentTypeBlacklist;
     }
@@ -237,6 +303,9 @@ public class TikaConfiguration {
                 && Objects.equals(this.cacheWeightInBytes, that.cacheWeightInBytes)
                 && Objects.equals(this.host, that.host)
                 && Objects.equals(this.cacheEvictionPeriod, that.cacheEvictionPeriod)
+                && Objects.equals(this.sharedCacheEnabled, that.sharedCacheEnabled)
+                && Objects.equals(this.sharedCacheVersion, that.sharedCacheVersion)
+                && Objects.equals(this.sharedCacheMaxEntrySizeInBytes, that.sharedCacheMaxEntrySizeInBytes)
                 && Objects.equals(this.contentTypeBlacklist, that.contentTypeBlacklist);
         }
         return false;
@@ -244,7 +313,8 @@ public class TikaConfiguration {
 
     @Override
     public final int hashCode() {
-        return Objects.hash(enabled, cacheEnabled, host, port, timeoutInMillis, cacheEvictionPeriod, cacheWeightInBytes, contentTypeBlacklist);
+        return Objects.hash(enabled, cacheEnabled, host, port, timeoutInMillis, cacheEvictionPeriod, cacheWeightInBytes,
+            sharedCacheEnabled, sharedCacheVersion, sharedCacheMaxEntrySizeInBytes, contentTypeBlacklist);
     }
 
 }
@@ -0,0 +1,186 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.mailbox.tika;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import org.apache.james.blob.api.BlobStore;
+import org.apache.james.blob.api.PlainBlobId;
+import org.apache.james.blob.memory.MemoryBlobStoreFactory;
+import org.apache.james.mailbox.extractor.ParsedContent;
+import org.apache.james.mailbox.extractor.TextExtractor;
+import org.apache.james.mailbox.model.ContentType;
+import org.apache.james.metrics.tests.RecordingMetricFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+class BlobStoreCachingTextExtractorTest {
+    private static final ParsedContent RESULT = ParsedContent.of(Optional.of("content"),
+        ImmutableMap.of("Content-Type", ImmutableList.of("application/pdf")));
+    private static final Supplier<InputStream> INPUT_STREAM = () -> new ByteArrayInputStream("attachment".getBytes(StandardCharsets.UTF_8));
+    private static final ContentType CONTENT_TYPE = ContentType.of("application/pdf");
+    private static final long MAX_SIZE = 1024;
+
+    private BlobStore blobStore;
+    private TextExtractor wrappedTextExtractor;
+    private BlobStoreCachingTextExtractor testee;
+
+    @BeforeEach
+    void setUp() {
+        blobStore = MemoryBlobStoreFactory.builder()
+            .blobIdFactory(new PlainBlobId.Factory())
+            .defaultBucketName()
+            .passthrough();
+        wrappedTextExtractor = mock(TextExtractor.class);
+        when(wrappedTextExtractor.extractContentReactive(any(), any()))
+            .thenReturn(Mono.just(RESULT));
+
+        testee = new BlobStoreCachingTextExtractor(wrappedTextExtractor, blobStore, "1", MAX_SIZE, new RecordingMetricFactory());
+    }
+
+    @Test
+    void extractContentShouldReturnUnderlyingResult() {
+        assertThat(testee.extractContent(INPUT_STREAM.get(), CONTENT_TYPE))
+            .isEqualTo(RESULT);
+    }
+
+    @Test
+    void extractContentShouldPersistTheExtractedText() {
+        testee.extractContent(INPUT_STREAM.get(), CONTENT_TYPE);
+
+        assertThat(Flux.from(blobStore.listBlobs(BlobStoreCachingTextExtractor.BUCKET_NAME)).collectList().block())
+            .hasSize(1);
+    }
+
+    @Test
+    void extractContentShouldNotCallUnderlyingExtractorTwiceForTheSameContent() {
+        testee.extractContent(INPUT_STREAM.get(), CONTENT_TYPE);
+        testee.extractContent(INPUT_STREAM.get(), CONTENT_TYPE);
+
+        verify(wrappedTextExtractor, times(1)).extractContentReactive(any(), any());
+    }
+
+    @Test
+    void cachedEntriesShouldBeSharedAcrossInstances() {
+        testee.extractContent(INPUT_STREAM.get(), CONTENT_TYPE);
+
+        TextExtractor otherNodeTextExtractor = mock(TextExtractor.class);
+        BlobStoreCachingTextExtractor otherNode = new BlobStoreCachingTextExtractor(otherNodeTextExtractor, blobStore, "1", MAX_SIZE, new RecordingMetricFactory());
+
+        assertThat(otherNode.extractContent(INPUT_STREAM.get(), CONTENT_TYPE))
+            .isEqualTo(RESULT);
+        verifyNoMoreInteractions(otherNodeTextExtractor);
+    }
+
+    @Test
+    void changingTheVersionShouldIgnorePreviousEntries() {
+        testee.extractContent(INPUT_STREAM.get(), CONTENT_TYPE);
+
+        BlobStoreCachingTextExtractor newVersion = new BlobStoreCachingTextExtractor(wrappedTextExtractor, blobStore, "2", MAX_SIZE, new RecordingMetricFactory());
+        newVersion.extractContent(INPUT_STREAM.get(), CONTENT_TYPE);
+
+        verify(wrappedTextExtractor, times(2)).extractContentReactive(any(), any());
+    }
+
+    @Test
+    void purgeOtherVersionsShouldDeleteTheEntriesOfOtherVersions() {
+        BlobStoreCachingTextExtractor oldVersion = new BlobStoreCachingTextExtractor(wrappedTextExtractor, blobStore, "10", MAX_SIZE, new RecordingMetricFactory());
+        oldVersion.extractContent(INPUT_STREAM.get(), CONTENT_TYPE);
+        testee.extractContent(INPUT_STREAM.get(), CONTENT_TYPE);
+
+        assertThat(BlobStoreCachingTextExtractor.purgeOtherVersions(blobStore, "1").block())
+            .isEqualTo(1);
+
+        assertThat(Flux.from(blobStore.listBlobs(BlobStoreCachingTextExtractor.BUCKET_NAME)).collectList().block())
+            .hasSize(1)
+            .allSatisfy(blobId -> assertThat(blobId.asString()).startsWith("1-"));
+    }
+
+    @Test
+    void purgeOtherVersionsShouldKeepTheCurrentEntries() {
+        testee.extractContent(INPUT_STREAM.get(), CONTENT_TYPE);
+
+        assertThat(BlobStoreCachingTextExtractor.purgeOtherVersions(blobStore, "1").block())
+            .isZero();
+
+        testee.extractContent(INPUT_STREAM.get(), CONTENT_TYPE);
+        verify(wrappedTextExtractor, times(1)).extractContentReactive(any(), any());
+    }
+
+    @Test
+    void differentContentTypesShouldNotShareEntries() {
+        testee.extractContent(INPUT_STREAM.get(), CONTENT_TYPE);
+        testee.extractContent(INPUT_STREAM.get(), ContentType.of("application/msword"));
+
+        verify(wrappedTextExtractor, times(2)).extractContentReactive(any(), any());
+    }
+
+    @Test
+    void extractedTextsLargerThanTheLimitShouldNotBePersisted() {
+        when(wrappedTextExtractor.extractContentReactive(any(), any()))
+            .thenReturn(Mono.just(ParsedContent.of(Strings.repeat("0123456789", 200))));
+
+        testee.extractContent(INPUT_STREAM.get(), CONTENT_TYPE);
+
+        assertThat(Flux.from(blobStore.listBlobs(BlobStoreCachingTextExtractor.BUCKET_NAME)).collectList().block())
+            .isEmpty();
+    }
+
+    @Test
+    void textualContentShouldNotBePersisted() {
+        testee.extractContent(INPUT_STREAM.get(), ContentType.of("text/plain"));
+
+        assertThat(Flux.from(blobStore.listBlobs(BlobStoreCachingTextExtractor.BUCKET_NAME)).collectList().block())
+            .isEmpty();
+    }
+
+    @Test
+    void failedExtractionsShouldNotBePersisted() {
+        IOException ioException = new IOException("Any");
+        when(wrappedTextExtractor.extractContentReactive(any(), any()))
+            .thenReturn(Mono.error(ioException));
+
+        assertThatThrownBy(() -> testee.extractContent(INPUT_STREAM.get(), CONTENT_TYPE))
+            .hasCause(ioException);
+        assertThat(Flux.from(blobStore.listBlobs(BlobStoreCachingTextExtractor.BUCKET_NAME)).collectList().block())
+            .isEmpty();
+    }
+}
@@ -69,6 +69,16 @@ public abstract class AuthenticatedState extends BasicImapCommands {
         simpleScriptedTestProtocol.run("Capability");
     }
 
+    @Test
+    public void testNotifyUS() throws Exception {
+        simpleScriptedTestProtocol.run("Notify");
+    }
+
+    @Test
+    public void testUidOnlyUS() throws Exception {
+        simpleScriptedTestProtocol.run("UidOnly");
+    }
+
     @Test
     public void testAppendExamineInboxUS() throws Exception {
         simpleScriptedTestProtocol.run("AppendExamineInbox");
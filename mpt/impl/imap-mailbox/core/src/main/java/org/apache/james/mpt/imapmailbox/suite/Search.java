@@ -71,6 +71,13 @@ public abstract class Search implements ImapTestConstants {
             .run("SearchOptionAggregations");
     }
 
+    @Test
+    public void testSortAndThreadUS() throws Exception {
+        simpleScriptedTestProtocol
+            .withLocale(Locale.US)
+            .run("SortAndThread");
+    }
+
     @Test
     public void testSearchAtomsITALY() throws Exception {
         Assume.assumeTrue(system.supports(ImapFeatures.Feature.MOD_SEQ_SEARCH));
@@ -20,9 +20,13 @@
 package org.apache.james.protocols.api;
 
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.util.List;
 
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -48,7 +52,10 @@ public abstract class AbstractProtocolTransport implements ProtocolTransport {
                 }
             }
 
-            if (response instanceof StreamResponse) {
+            if (response instanceof ReactiveStreamResponse) {
+                writeToClient(toBytes(response), session, false);
+                writeToClient(((ReactiveStreamResponse) response).getContent(), session, startTLS);
+            } else if (response instanceof StreamResponse) {
                 writeToClient(toBytes(response), session, false);
                 writeToClient(((StreamResponse) response).getStream(), session, startTLS);
             } else {
@@ -105,6 +112,49 @@ public abstract class AbstractProtocolTransport implements ProtocolTransport {
      * @param startTLS true if startTLS should be started after the {@link InputStream} was written to the client
      */
     protected abstract void writeToClient(InputStream in, ProtocolSession session, boolean startTLS);
+
+    /**
+     * Write the given chunks to the remote peer, requesting them as the previous ones are written
+     *
+     * The default implementation hands each chunk to {@link #writeToClient(byte[], ProtocolSession, boolean)} as soon
+     * as it is published. Transports able to tell when a write completes should override it to apply back-pressure.
+     *
+     * @param content  the chunks which should be written back to the client
+     * @param session  the {@link ProtocolSession} for the write request
+     * @param startTLS true if startTLS should be started after the content was written to the client
+     */
+    protected void writeToClient(Publisher<ByteBuffer> content, ProtocolSession session, boolean startTLS) {
+        content.subscribe(new Subscriber<>() {
+            private Subscription subscription;
+
+            @Override
+            public void onSubscribe(Subscription subscription) {
+                this.subscription = subscription;
+                subscription.request(1);
+            }
+
+            @Override
+            public void onNext(ByteBuffer chunk) {
+                byte[] bytes = new byte[chunk.remaining()];
+                chunk.get(bytes);
+                writeToClient(bytes, session, false);
+                subscription.request(1);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                LOGGER.error("Failed to write content to the client, closing the connection", throwable);
+                close();
+            }
+
+            @Override
+            public void onComplete() {
+                if (startTLS) {
+                    writeToClient(new byte[0], session, true);
+                }
+            }
+        });
+    }
     
     /**
      * Close the Transport
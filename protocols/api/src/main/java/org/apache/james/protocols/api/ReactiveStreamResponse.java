@@ -0,0 +1,40 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.protocols.api;
+
+import java.nio.ByteBuffer;
+
+import org.reactivestreams.Publisher;
+
+/**
+ * Special {@link Response} sub-type which allows to write content published in chunks to the remote peer.
+ *
+ * Unlike {@link StreamResponse} the content is not read by the transport: chunks are requested as the remote
+ * peer consumes the previous ones, so that writing large content neither blocks a thread nor buffers it in memory.
+ */
+public interface ReactiveStreamResponse extends Response {
+
+    /**
+     * Return the content which needs to get written to the remote peer. It is subscribed once, when the data is
+     * written to the client.
+     */
+    Publisher<ByteBuffer> getContent();
+
+}
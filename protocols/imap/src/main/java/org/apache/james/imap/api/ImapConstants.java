@@ -104,6 +104,10 @@ public interface ImapConstants {
     Capability SUPPORTS_UIDPLUS = Capability.of("UIDPLUS");
 
     Capability SUPPORTS_ANNOTATION = Capability.of("METADATA");
+
+    Capability SUPPORTS_NOTIFY = Capability.of("NOTIFY");
+
+    Capability SUPPORTS_UIDONLY = Capability.of("UIDONLY");
     
     String INBOX_NAME = "INBOX";
 
@@ -190,6 +194,7 @@ public interface ImapConstants {
     ImapCommand LIST_COMMAND = ImapCommand.authenticatedStateCommand("LIST");
     ImapCommand LSUB_COMMAND = ImapCommand.authenticatedStateCommand("LSUB");
     ImapCommand NAMESPACE_COMMAND = ImapCommand.authenticatedStateCommand("NAMESPACE");
+    ImapCommand NOTIFY_COMMAND = ImapCommand.authenticatedStateCommand("NOTIFY");
     ImapCommand RENAME_COMMAND = ImapCommand.authenticatedStateCommand("RENAME");
     ImapCommand SELECT_COMMAND = ImapCommand.authenticatedStateCommand("SELECT");
     ImapCommand STATUS_COMMAND = ImapCommand.authenticatedStateCommand("STATUS");
@@ -218,7 +223,9 @@ public interface ImapConstants {
     ImapCommand FETCH_COMMAND = ImapCommand.selectedStateCommand("FETCH");
     ImapCommand MOVE_COMMAND = ImapCommand.selectedStateCommand("MOVE");
     ImapCommand SEARCH_COMMAND = ImapCommand.selectedStateCommand("SEARCH");
+    ImapCommand SORT_COMMAND = ImapCommand.selectedStateCommand("SORT");
     ImapCommand STORE_COMMAND = ImapCommand.selectedStateCommand("STORE");
+    ImapCommand THREAD_COMMAND = ImapCommand.selectedStateCommand("THREAD");
     ImapCommand UID_COMMAND = ImapCommand.selectedStateCommand("UID");
     ImapCommand REPLACE_COMMAND = ImapCommand.selectedStateCommand("REPLACE");
 
@@ -250,6 +257,8 @@ public interface ImapConstants {
 
     byte[] FETCH_MODSEQ = "MODSEQ".getBytes(US_ASCII);
 
+    byte[] UID_FETCH_RESPONSE = "UIDFETCH".getBytes(US_ASCII);
+
     String LINE_END = "\r\n";
     byte[] LINE_END_BYTES = LINE_END.getBytes();
     long MAX_NZ_NUMBER = 4294967295L;
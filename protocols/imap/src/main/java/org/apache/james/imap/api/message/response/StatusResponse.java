@@ -160,6 +160,9 @@ public interface StatusResponse extends ImapResponseMessage {
         /** RFC5162 <code>CLOSED</code> response code */
         private static final ResponseCode CLOSED = new ResponseCode("CLOSED");
 
+        /** RFC9586 <code>UIDREQUIRED</code> response code */
+        private static final ResponseCode UIDREQUIRED = new ResponseCode("UIDREQUIRED");
+
         
         /** RFC4315 <code>APPENDUID</code> response code */
         public static ResponseCode appendUid(UidValidity uidValidity, UidRange[] uids) {
@@ -230,6 +233,15 @@ public interface StatusResponse extends ImapResponseMessage {
         public static ResponseCode closed() {
             return CLOSED;
         }
+
+        /**
+         * Create a RFC9586 (UIDONLY) <code>UIDREQUIRED</code> response code
+         *
+         * @return code
+         */
+        public static ResponseCode uidRequired() {
+            return UIDREQUIRED;
+        }
         
         /**
          * Creates a RFC2060 <code>ALERT</code> response code.
@@ -249,6 +261,16 @@ public interface StatusResponse extends ImapResponseMessage {
             return new ResponseCode("BADCHARSET", AVAILABLE_CHARSET_NAMES);
         }
 
+        /**
+         * Creates a RFC5465 <code>BADEVENT</code> response code.
+         *
+         * @param supportedEvents events the server supports
+         * @return <code>ResponseCode</code>, not null
+         */
+        public static ResponseCode badEvent(Collection<String> supportedEvents) {
+            return new ResponseCode("BADEVENT", supportedEvents);
+        }
+
         /**
          * Creates a RFC2060 <code>PARSE</code> response code.
          * 
@@ -163,6 +163,23 @@ public interface ImapSession extends CommandDetectionSession {
      */
     SelectedMailbox getSelected();
 
+    /**
+     * Replaces the mailbox notifications requested with NOTIFY. The previous notifications, if any, are
+     * unregistered.
+     *
+     * @param notifications
+     *            the new notifications, or <code>null</code> to stop notifying
+     */
+    Mono<Void> notifications(MailboxNotifications notifications);
+
+    /**
+     * Provides the mailbox notifications requested with NOTIFY, or <code>null</code> if the client did not
+     * ask for any.
+     *
+     * @return the current notifications.
+     */
+    MailboxNotifications getNotifications();
+
     /**
      * Gets an attribute of this session by name. Implementations should ensure
      * that access is thread safe.
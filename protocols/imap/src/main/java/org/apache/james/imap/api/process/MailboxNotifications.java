@@ -0,0 +1,55 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.imap.api.process;
+
+import org.apache.james.events.EventListener;
+import org.apache.james.imap.api.message.response.ImapResponseMessage;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Changes of non selected mailboxes the client asked to be notified about with NOTIFY (RFC-5465).
+ *
+ * Changes are accumulated as events are received and sent as unsolicited responses, so that the client
+ * no longer needs to poll these mailboxes with STATUS.
+ */
+public interface MailboxNotifications {
+
+    /**
+     * Stops listening to the watched mailboxes
+     */
+    Mono<Void> unregister();
+
+    void registerIdle(EventListener.ReactiveEventListener idle);
+
+    void unregisterIdle();
+
+    /**
+     * Signals that mailboxes were created or renamed, so that the mailboxes watched by path are resolved again.
+     */
+    void mailboxesChanged();
+
+    /**
+     * Responses describing the watched mailboxes changed since the last call. Changes of the selected
+     * mailbox are left to the {@link SelectedMailbox}.
+     */
+    Flux<ImapResponseMessage> pendingResponses(ImapSession session);
+}
@@ -52,6 +52,16 @@ public interface SelectedMailbox {
 
     boolean isIdling();
 
+    /**
+     * Was this mailbox selected once UIDONLY was enabled?
+     *
+     * https://www.rfc-editor.org/rfc/rfc9586.html
+     *
+     * Message sequence numbers are then not tracked: {@link #msn(MessageUid)}, {@link #uid(int)} and
+     * {@link #allUids()} must not be used.
+     */
+    boolean isUidOnly();
+
     /**
      * Return the msg index of the given uid or {@link NullableMessageSequenceNumber#noMessage()} instance if no
      * message with the given uid was found
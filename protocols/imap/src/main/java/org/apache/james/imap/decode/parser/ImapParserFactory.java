@@ -71,6 +71,7 @@ public class ImapParserFactory implements ImapCommandParserFactory {
 
             // RFC2342 NAMESPACE
             new NamespaceCommandParser(statusResponseFactory),
+            new NotifyCommandParser(statusResponseFactory),
 
             // RFC4314 GETACL, SETACL, DELETEACL, LISTRIGHTS, MYRIGHTS
             new GetACLCommandParser(statusResponseFactory),
@@ -87,6 +88,8 @@ public class ImapParserFactory implements ImapCommandParserFactory {
             new CopyCommandParser(statusResponseFactory),
             new MoveCommandParser(statusResponseFactory),
             new SearchCommandParser(statusResponseFactory),
+            new SortCommandParser(statusResponseFactory),
+            new ThreadCommandParser(statusResponseFactory),
             new FetchCommandParser(statusResponseFactory),
             new StoreCommandParser(statusResponseFactory),
             new UidCommandParser(this, statusResponseFactory),
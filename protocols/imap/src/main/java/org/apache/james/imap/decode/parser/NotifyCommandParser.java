@@ -0,0 +1,148 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.imap.decode.parser;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import jakarta.inject.Inject;
+
+import org.apache.james.imap.api.ImapConstants;
+import org.apache.james.imap.api.ImapMessage;
+import org.apache.james.imap.api.Tag;
+import org.apache.james.imap.api.display.HumanReadableText;
+import org.apache.james.imap.api.message.response.StatusResponseFactory;
+import org.apache.james.imap.api.process.ImapSession;
+import org.apache.james.imap.decode.DecodingException;
+import org.apache.james.imap.decode.ImapRequestLineReader;
+import org.apache.james.imap.decode.base.AbstractImapCommandParser;
+import org.apache.james.imap.message.request.NotifyRequest;
+import org.apache.james.imap.message.request.NotifyRequest.Event;
+import org.apache.james.imap.message.request.NotifyRequest.EventGroup;
+import org.apache.james.imap.message.request.NotifyRequest.Filter;
+
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Parse NOTIFY commands, see RFC-5465
+ */
+public class NotifyCommandParser extends AbstractImapCommandParser {
+    private static final String NONE = "NONE";
+    private static final String SET = "SET";
+    private static final String STATUS = "STATUS";
+
+    @Inject
+    public NotifyCommandParser(StatusResponseFactory statusResponseFactory) {
+        super(ImapConstants.NOTIFY_COMMAND, statusResponseFactory);
+    }
+
+    @Override
+    protected ImapMessage decode(ImapRequestLineReader request, Tag tag, ImapSession session) throws DecodingException {
+        String operation = request.atom();
+        if (operation.equalsIgnoreCase(NONE)) {
+            request.eol();
+            return NotifyRequest.none(tag);
+        }
+        if (!operation.equalsIgnoreCase(SET)) {
+            throw new DecodingException(HumanReadableText.ILLEGAL_ARGUMENTS, "Expecting NONE or SET, got " + operation);
+        }
+
+        boolean sendStatus = false;
+        if (request.nextWordChar() != '(') {
+            String indicator = request.atom();
+            if (!indicator.equalsIgnoreCase(STATUS)) {
+                throw new DecodingException(HumanReadableText.ILLEGAL_ARGUMENTS, "Expecting STATUS, got " + indicator);
+            }
+            sendStatus = true;
+        }
+
+        ImmutableList.Builder<EventGroup> eventGroups = ImmutableList.builder();
+        do {
+            eventGroups.add(eventGroup(request));
+        } while (request.nextWordCharLenient().isPresent());
+        request.eol();
+
+        return NotifyRequest.set(tag, sendStatus, eventGroups.build());
+    }
+
+    private EventGroup eventGroup(ImapRequestLineReader request) throws DecodingException {
+        request.nextWordChar();
+        request.consumeChar('(');
+
+        String filterName = request.atom();
+        Filter filter = Filter.parse(filterName)
+            .orElseThrow(() -> new DecodingException(HumanReadableText.ILLEGAL_ARGUMENTS, "Unknown mailbox filter " + filterName));
+        List<String> mailboxNames = mailboxNames(request, filter);
+        Set<Event> events = events(request);
+
+        request.nextWordChar();
+        request.consumeChar(')');
+        return new EventGroup(filter, mailboxNames, events);
+    }
+
+    private List<String> mailboxNames(ImapRequestLineReader request, Filter filter) throws DecodingException {
+        if (!filter.hasMailboxNames()) {
+            return ImmutableList.of();
+        }
+        if (request.nextWordChar() != '(') {
+            return ImmutableList.of(request.mailbox());
+        }
+        request.consumeChar('(');
+        ImmutableList.Builder<String> mailboxNames = ImmutableList.builder();
+        while (request.nextWordChar() != ')') {
+            mailboxNames.add(request.mailbox());
+        }
+        request.consumeChar(')');
+        return mailboxNames.build();
+    }
+
+    private Set<Event> events(ImapRequestLineReader request) throws DecodingException {
+        if (request.nextWordChar() != '(') {
+            String none = request.atom();
+            if (!none.equalsIgnoreCase(NONE)) {
+                throw new DecodingException(HumanReadableText.ILLEGAL_ARGUMENTS, "Expecting an event list or NONE, got " + none);
+            }
+            return EnumSet.noneOf(Event.class);
+        }
+
+        request.consumeChar('(');
+        EnumSet<Event> events = EnumSet.noneOf(Event.class);
+        while (request.nextWordChar() != ')') {
+            String eventName = request.atom();
+            events.add(Event.parse(eventName)
+                .orElseThrow(() -> new DecodingException(HumanReadableText.ILLEGAL_ARGUMENTS, "Unknown event " + eventName)));
+            if (request.nextWordChar() == '(') {
+                throw new DecodingException(HumanReadableText.ILLEGAL_ARGUMENTS, "Fetch attributes are not supported for " + eventName);
+            }
+        }
+        request.consumeChar(')');
+
+        if (events.isEmpty()) {
+            throw new DecodingException(HumanReadableText.ILLEGAL_ARGUMENTS, "Event list can not be empty");
+        }
+        // MessageNew, MessageExpunge and FlagChange only make sense together, see RFC-5465 section 5
+        if (events.contains(Event.MESSAGE_NEW) != events.contains(Event.MESSAGE_EXPUNGE)
+            || (events.contains(Event.FLAG_CHANGE) && !events.contains(Event.MESSAGE_NEW))) {
+            throw new DecodingException(HumanReadableText.ILLEGAL_ARGUMENTS, "MessageNew and MessageExpunge must be requested together, FlagChange requires both");
+        }
+        return events;
+    }
+}
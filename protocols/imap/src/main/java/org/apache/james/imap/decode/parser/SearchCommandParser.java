@@ -29,6 +29,7 @@ import java.util.Optional;
 import jakarta.inject.Inject;
 
 import org.apache.commons.lang3.tuple.Pair;
+import org.apache.james.imap.api.ImapCommand;
 import org.apache.james.imap.api.ImapConstants;
 import org.apache.james.imap.api.ImapMessage;
 import org.apache.james.imap.api.Tag;
@@ -71,7 +72,11 @@ public class SearchCommandParser extends AbstractUidCommandParser {
 
     @Inject
     public SearchCommandParser(StatusResponseFactory statusResponseFactory) {
-        super(ImapConstants.SEARCH_COMMAND, statusResponseFactory);
+        this(ImapConstants.SEARCH_COMMAND, statusResponseFactory);
+    }
+
+    protected SearchCommandParser(ImapCommand command, StatusResponseFactory statusResponseFactory) {
+        super(command, statusResponseFactory);
     }
 
     /**
@@ -1001,8 +1006,14 @@ public class SearchCommandParser extends AbstractUidCommandParser {
     }
 
     public SearchKey decode(ImapSession session, ImapRequestLineReader request) throws DecodingException, IllegalCharsetNameException, UnsupportedCharsetException {
+        return decode(session, request, new Context());
+    }
+
+    /**
+     * Parses the search keys up to the end of the line, using the given {@link Context}.
+     */
+    protected SearchKey decode(ImapSession session, ImapRequestLineReader request, Context context) throws DecodingException, IllegalCharsetNameException, UnsupportedCharsetException {
         request.nextWordChar();
-        final Context context = new Context();
         final SearchKey firstKey = searchKey(session, request, context, true);
         final SearchKey result;
         if (request.nextChar() == ' ') {
@@ -1021,9 +1032,9 @@ public class SearchCommandParser extends AbstractUidCommandParser {
         return result;
     }
 
-    private ImapMessage unsupportedCharset(Tag tag) {
+    protected ImapMessage unsupportedCharset(Tag tag) {
         final ResponseCode badCharset = StatusResponse.ResponseCode.badCharset();
-        return taggedNo(tag, ImapConstants.SEARCH_COMMAND, HumanReadableText.BAD_CHARSET, badCharset);
+        return taggedNo(tag, getCommand(), HumanReadableText.BAD_CHARSET, badCharset);
     }
 
     /**
@@ -0,0 +1,126 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.imap.decode.parser;
+
+import java.nio.charset.Charset;
+import java.nio.charset.IllegalCharsetNameException;
+import java.nio.charset.UnsupportedCharsetException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+
+import jakarta.inject.Inject;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.james.imap.api.ImapConstants;
+import org.apache.james.imap.api.ImapMessage;
+import org.apache.james.imap.api.Tag;
+import org.apache.james.imap.api.display.HumanReadableText;
+import org.apache.james.imap.api.message.PartialRange;
+import org.apache.james.imap.api.message.request.SearchKey;
+import org.apache.james.imap.api.message.request.SearchOperation;
+import org.apache.james.imap.api.message.request.SearchResultOption;
+import org.apache.james.imap.api.message.response.StatusResponseFactory;
+import org.apache.james.imap.api.process.ImapSession;
+import org.apache.james.imap.decode.DecodingException;
+import org.apache.james.imap.decode.ImapRequestLineReader;
+import org.apache.james.imap.message.request.SortRequest;
+import org.apache.james.mailbox.model.SearchQuery;
+import org.apache.james.mailbox.model.SearchQuery.Sort.Order;
+import org.apache.james.mailbox.model.SearchQuery.Sort.SortClause;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * Parse SORT commands, see RFC-5256 and RFC-5267 (ESORT)
+ */
+public class SortCommandParser extends SearchCommandParser {
+    private static final Logger LOGGER = LoggerFactory.getLogger(SortCommandParser.class);
+    private static final String RETURN = "RETURN";
+    private static final String REVERSE = "REVERSE";
+    private static final ImmutableMap<String, SortClause> SORT_KEYS = ImmutableMap.<String, SortClause>builder()
+        .put("ARRIVAL", SortClause.Arrival)
+        .put("CC", SortClause.MailboxCc)
+        .put("DATE", SortClause.SentDate)
+        .put("FROM", SortClause.MailboxFrom)
+        .put("SIZE", SortClause.Size)
+        .put("SUBJECT", SortClause.BaseSubject)
+        .put("TO", SortClause.MailboxTo)
+        .build();
+
+    @Inject
+    public SortCommandParser(StatusResponseFactory statusResponseFactory) {
+        super(ImapConstants.SORT_COMMAND, statusResponseFactory);
+    }
+
+    @Override
+    protected ImapMessage decode(ImapRequestLineReader request, Tag tag, boolean useUids, ImapSession session) throws DecodingException {
+        try {
+            Pair<List<SearchResultOption>, Optional<PartialRange>> options = Pair.of(new ArrayList<>(), Optional.empty());
+            int c = ImapRequestLineReader.cap(request.nextWordChar());
+            if (c == 'R') {
+                if (!request.atom().equalsIgnoreCase(RETURN)) {
+                    throw new DecodingException(HumanReadableText.ILLEGAL_ARGUMENTS, "Expecting RETURN options or sort criteria");
+                }
+                request.nextWordChar();
+                options = parseOptions(request);
+            }
+            List<SearchQuery.Sort> sorts = sortCriteria(request);
+
+            Context context = new Context();
+            context.setCharset(Charset.forName(request.atom()));
+            SearchKey searchKey = decode(session, request, context);
+
+            return new SortRequest(new SearchOperation(searchKey, options.getLeft(), options.getRight()), sorts, useUids, tag);
+        } catch (IllegalCharsetNameException | UnsupportedCharsetException e) {
+            LOGGER.debug("Unable to decode request", e);
+            return unsupportedCharset(tag);
+        }
+    }
+
+    private List<SearchQuery.Sort> sortCriteria(ImapRequestLineReader request) throws DecodingException {
+        request.nextWordChar();
+        request.consumeChar('(');
+        ImmutableList.Builder<SearchQuery.Sort> sorts = ImmutableList.builder();
+        Order order = Order.NATURAL;
+        while (request.nextWordChar() != ')') {
+            String key = request.atom().toUpperCase(Locale.US);
+            if (key.equals(REVERSE)) {
+                order = Order.REVERSE;
+                continue;
+            }
+            SortClause sortClause = Optional.ofNullable(SORT_KEYS.get(key))
+                .orElseThrow(() -> new DecodingException(HumanReadableText.ILLEGAL_ARGUMENTS, "Unknown sort key " + key));
+            sorts.add(new SearchQuery.Sort(sortClause, order));
+            order = Order.NATURAL;
+        }
+        request.consumeChar(')');
+
+        ImmutableList<SearchQuery.Sort> result = sorts.build();
+        if (result.isEmpty() || order == Order.REVERSE) {
+            throw new DecodingException(HumanReadableText.ILLEGAL_ARGUMENTS, "Invalid sort criteria");
+        }
+        return result;
+    }
+}
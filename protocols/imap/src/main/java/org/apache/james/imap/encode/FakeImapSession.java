@@ -27,12 +27,14 @@ import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 import javax.net.ssl.SSLSession;
 
 import org.apache.james.imap.api.ImapSessionState;
 import org.apache.james.imap.api.process.ImapLineHandler;
 import org.apache.james.imap.api.process.ImapSession;
+import org.apache.james.imap.api.process.MailboxNotifications;
 import org.apache.james.imap.api.process.SelectedMailbox;
 import org.apache.james.util.concurrent.NamedThreadFactory;
 
@@ -46,6 +48,7 @@ public class FakeImapSession implements ImapSession {
     private ImapSessionState state = ImapSessionState.NON_AUTHENTICATED;
 
     private SelectedMailbox selectedMailbox = null;
+    private final AtomicReference<MailboxNotifications> notifications = new AtomicReference<>();
 
     private final Map<String, Object> attributesByKey;
     private final SessionId sessionId;
@@ -78,6 +81,7 @@ public class FakeImapSession implements ImapSession {
     @Override
     public Mono<Void> logout() {
         return closeMailbox()
+            .then(Mono.defer(() -> notifications(null)))
             .then(Mono.fromRunnable(() -> state = ImapSessionState.LOGOUT));
     }
 
@@ -104,6 +108,18 @@ public class FakeImapSession implements ImapSession {
         return this.selectedMailbox;
     }
 
+    @Override
+    public Mono<Void> notifications(MailboxNotifications notifications) {
+        return Optional.ofNullable(this.notifications.getAndSet(notifications))
+            .map(MailboxNotifications::unregister)
+            .orElse(Mono.empty());
+    }
+
+    @Override
+    public MailboxNotifications getNotifications() {
+        return notifications.get();
+    }
+
     @Override
     public ImapSessionState getState() {
         return this.state;
@@ -83,7 +83,12 @@ public class FetchResponseEncoder implements ImapResponseEncoder<FetchResponse>
     public void encode(FetchResponse fetchResponse, ImapResponseComposer composer) throws IOException {
         MessageSequenceNumber messageNumber = fetchResponse.getMessageNumber();
 
-        composer.untagged().message(messageNumber.asInt()).message(ImapConstants.FETCH_COMMAND.getNameAsBytes()).openParen();
+        if (messageNumber == null) {
+            // UIDFETCH response, see RFC-9586
+            composer.untagged().message(fetchResponse.getUid().asLong()).message(ImapConstants.UID_FETCH_RESPONSE).openParen();
+        } else {
+            composer.untagged().message(messageNumber.asInt()).message(ImapConstants.FETCH_COMMAND.getNameAsBytes()).openParen();
+        }
 
         encodeModSeq(composer, fetchResponse);
         encodeFlags(composer, fetchResponse);
@@ -92,7 +97,9 @@ public class FetchResponseEncoder implements ImapResponseEncoder<FetchResponse>
         encodeEnvelope(composer, fetchResponse);
         encodeBody(composer, fetchResponse.getBody());
         encodeBodyStructure(composer, fetchResponse.getBodyStructure());
-        encodeUid(composer, fetchResponse);
+        if (messageNumber != null) {
+            encodeUid(composer, fetchResponse);
+        }
         encodeBodyElements(composer, fetchResponse.getElements());
         encodeEmailId(composer, fetchResponse);
         encodeThreadId(composer, fetchResponse);
@@ -0,0 +1,74 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.imap.encode;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.apache.james.imap.api.ImapConstants;
+import org.apache.james.imap.message.response.ThreadResponse;
+
+/**
+ * Encodes RFC-5256 <code>THREAD</code> responses.
+ *
+ * A message with a single reply is followed by that reply, while several replies are each enclosed in parenthesis:
+ * <code>(3 6 (4 23)(44 7 96))</code>. Threads sharing a missing message only list their replies: <code>((3)(5))</code>.
+ */
+public class ThreadResponseEncoder implements ImapResponseEncoder<ThreadResponse> {
+    @Override
+    public Class<ThreadResponse> acceptableMessages() {
+        return ThreadResponse.class;
+    }
+
+    @Override
+    public void encode(ThreadResponse response, ImapResponseComposer composer) throws IOException {
+        composer.untagged();
+        composer.commandName(ImapConstants.THREAD_COMMAND);
+        threadList(response.getThreads(), composer);
+        composer.end();
+    }
+
+    private void threadList(List<ThreadResponse.Node> nodes, ImapResponseComposer composer) throws IOException {
+        boolean first = true;
+        for (ThreadResponse.Node node : nodes) {
+            if (!first) {
+                composer.skipNextSpace();
+            }
+            composer.openParen();
+            threadMembers(node, composer);
+            composer.closeParen();
+            first = false;
+        }
+    }
+
+    private void threadMembers(ThreadResponse.Node node, ImapResponseComposer composer) throws IOException {
+        if (node.id().isEmpty()) {
+            threadList(node.children(), composer);
+            return;
+        }
+        composer.message(node.id().get());
+        List<ThreadResponse.Node> children = node.children();
+        if (children.size() == 1) {
+            threadMembers(children.get(0), composer);
+        } else {
+            threadList(children, composer);
+        }
+    }
+}
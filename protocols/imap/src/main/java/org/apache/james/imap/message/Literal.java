@@ -21,10 +21,12 @@ package org.apache.james.imap.message;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.util.Optional;
 
 import org.apache.james.mailbox.exception.MailboxException;
 import org.apache.james.mailbox.model.Content;
+import org.reactivestreams.Publisher;
 
 public interface Literal {
     /**
@@ -47,6 +49,16 @@ public interface Literal {
         return Optional.empty();
     }
 
+    /**
+     * Return the Literal as a stream of {@link ByteBuffer}s, when it can be read without being loaded in memory nor
+     * blocking the caller.
+     *
+     * The resulting publisher is only subscribed to once.
+     */
+    default Optional<Publisher<ByteBuffer>> asReactiveBytes() {
+        return Optional.empty();
+    }
+
     default Content asMailboxContent() {
         Literal literal = this;
         return new Content() {
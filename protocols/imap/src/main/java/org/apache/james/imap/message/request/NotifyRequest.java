@@ -0,0 +1,139 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.imap.message.request;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import org.apache.james.imap.api.ImapConstants;
+import org.apache.james.imap.api.Tag;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * RFC-5465 <code>NOTIFY</code> request
+ */
+public class NotifyRequest extends AbstractImapRequest {
+    public enum Event {
+        MESSAGE_NEW("MessageNew"),
+        MESSAGE_EXPUNGE("MessageExpunge"),
+        FLAG_CHANGE("FlagChange"),
+        ANNOTATION_CHANGE("AnnotationChange"),
+        MAILBOX_NAME("MailboxName"),
+        SUBSCRIPTION_CHANGE("SubscriptionChange"),
+        MAILBOX_METADATA_CHANGE("MailboxMetadataChange"),
+        SERVER_METADATA_CHANGE("ServerMetadataChange");
+
+        public static Optional<Event> parse(String value) {
+            return Arrays.stream(values())
+                .filter(event -> event.asString().equalsIgnoreCase(value))
+                .findFirst();
+        }
+
+        private final String value;
+
+        Event(String value) {
+            this.value = value;
+        }
+
+        public String asString() {
+            return value;
+        }
+    }
+
+    public enum Filter {
+        SELECTED,
+        SELECTED_DELAYED,
+        INBOXES,
+        PERSONAL,
+        SUBSCRIBED,
+        SUBTREE,
+        MAILBOXES;
+
+        public static Optional<Filter> parse(String value) {
+            return Arrays.stream(values())
+                .filter(filter -> filter.name().replace('_', '-').equalsIgnoreCase(value))
+                .findFirst();
+        }
+
+        public boolean isSelected() {
+            return this == SELECTED || this == SELECTED_DELAYED;
+        }
+
+        public boolean hasMailboxNames() {
+            return this == SUBTREE || this == MAILBOXES;
+        }
+    }
+
+    /**
+     * @param filter which mailboxes this group applies to
+     * @param mailboxNames mailbox names for {@link Filter#SUBTREE} and {@link Filter#MAILBOXES}, empty otherwise
+     * @param events events to notify, empty for <code>NONE</code>
+     */
+    public record EventGroup(Filter filter, List<String> mailboxNames, Set<Event> events) {
+
+    }
+
+    public static NotifyRequest none(Tag tag) {
+        return new NotifyRequest(tag, false, ImmutableList.of());
+    }
+
+    public static NotifyRequest set(Tag tag, boolean sendStatus, List<EventGroup> eventGroups) {
+        return new NotifyRequest(tag, sendStatus, eventGroups);
+    }
+
+    private final boolean sendStatus;
+    private final List<EventGroup> eventGroups;
+
+    private NotifyRequest(Tag tag, boolean sendStatus, List<EventGroup> eventGroups) {
+        super(tag, ImapConstants.NOTIFY_COMMAND);
+        this.sendStatus = sendStatus;
+        this.eventGroups = eventGroups;
+    }
+
+    /**
+     * @return true if the client asked for the initial STATUS of the non selected mailboxes
+     */
+    public boolean isSendStatus() {
+        return sendStatus;
+    }
+
+    /**
+     * @return the event groups, empty for <code>NOTIFY NONE</code>
+     */
+    public List<EventGroup> getEventGroups() {
+        return eventGroups;
+    }
+
+    public boolean isNone() {
+        return eventGroups.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+            .add("sendStatus", sendStatus)
+            .add("eventGroups", eventGroups)
+            .toString();
+    }
+}
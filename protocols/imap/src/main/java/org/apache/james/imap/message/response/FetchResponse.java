@@ -88,7 +88,7 @@ public final class FetchResponse implements ImapResponseMessage {
     /**
      * Gets the number of the message whose details have been fetched.
      * 
-     * @return message number
+     * @return message number, or null for a RFC-9586 <code>UIDFETCH</code> response identified by its UID
      */
     public MessageSequenceNumber getMessageNumber() {
         return messageNumber;
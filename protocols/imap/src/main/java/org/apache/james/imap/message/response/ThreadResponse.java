@@ -0,0 +1,87 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.imap.message.response;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+import org.apache.james.imap.api.message.response.ImapResponseMessage;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * A <code>THREAD</code> response, see RFC-5256.
+ */
+public class ThreadResponse implements ImapResponseMessage {
+    /**
+     * A message of a thread, along with its replies. Messages missing from the mailbox but shared by several threads
+     * are represented by a node without id.
+     */
+    public record Node(Optional<Long> id, List<Node> children) {
+        public static Node leaf(long id) {
+            return new Node(id, ImmutableList.of());
+        }
+
+        public static Node missing(List<Node> children) {
+            return new Node(Optional.empty(), children);
+        }
+
+        public Node(long id, List<Node> children) {
+            this(Optional.of(id), children);
+        }
+    }
+
+    private final List<Node> threads;
+
+    public ThreadResponse(List<Node> threads) {
+        this.threads = threads;
+    }
+
+    /**
+     * Gets the root message of each thread.
+     */
+    public final List<Node> getThreads() {
+        return threads;
+    }
+
+    @Override
+    public final boolean equals(Object o) {
+        if (o instanceof ThreadResponse) {
+            ThreadResponse that = (ThreadResponse) o;
+
+            return Objects.equals(this.threads, that.threads);
+        }
+        return false;
+    }
+
+    @Override
+    public final int hashCode() {
+        return Objects.hash(threads);
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+            .add("threads", threads)
+            .toString();
+    }
+}
@@ -26,6 +26,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Predicate;
 
 import jakarta.mail.Flags;
 
@@ -41,6 +42,7 @@ import org.apache.james.imap.api.message.response.StatusResponse.ResponseCode;
 import org.apache.james.imap.api.message.response.StatusResponseFactory;
 import org.apache.james.imap.api.process.ImapProcessor;
 import org.apache.james.imap.api.process.ImapSession;
+import org.apache.james.imap.api.process.MailboxNotifications;
 import org.apache.james.imap.api.process.SelectedMailbox;
 import org.apache.james.imap.main.DeniedAccessOnSharedMailboxException;
 import org.apache.james.imap.message.response.ExistsResponse;
@@ -54,6 +56,7 @@ import org.apache.james.mailbox.MailboxManager;
 import org.apache.james.mailbox.MailboxSession;
 import org.apache.james.mailbox.MessageManager;
 import org.apache.james.mailbox.MessageManager.MailboxMetaData;
+import org.apache.james.mailbox.MessageSequenceNumber;
 import org.apache.james.mailbox.MessageUid;
 import org.apache.james.mailbox.ModSeq;
 import org.apache.james.mailbox.NullableMessageSequenceNumber;
@@ -61,6 +64,7 @@ import org.apache.james.mailbox.exception.InsufficientRightsException;
 import org.apache.james.mailbox.exception.MailboxException;
 import org.apache.james.mailbox.exception.MessageRangeException;
 import org.apache.james.mailbox.exception.OverQuotaException;
+import org.apache.james.mailbox.model.ComposedMessageIdWithMetaData;
 import org.apache.james.mailbox.model.MailboxId;
 import org.apache.james.mailbox.model.MessageRange;
 import org.apache.james.mailbox.model.MessageRange.Type;
@@ -70,6 +74,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.github.fge.lambdas.Throwing;
+import com.google.common.collect.ImmutableSet;
 
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -139,18 +144,36 @@ public abstract class AbstractMailboxProcessor<R extends ImapRequest> extends Ab
 
     /**
      * Sends any unsolicited responses to the client, such as EXISTS and FLAGS
-     * responses when the selected mailbox is modified by another user.
+     * responses when the selected mailbox is modified by another user, and STATUS
+     * responses for the other mailboxes watched with NOTIFY.
      */
     protected Mono<Void> unsolicitedResponses(ImapSession session, ImapProcessor.Responder responder, boolean omitExpunged, boolean useUid) {
         final SelectedMailbox selected = session.getSelected();
         if (selected == null) {
             LOGGER.debug("No mailbox selected");
-            return Mono.empty();
+            return notificationResponses(session, responder);
         } else {
-            return unsolicitedResponses(session, responder, selected, omitExpunged, useUid);
+            return unsolicitedResponses(session, responder, selected, omitExpunged, useUid)
+                .then(notificationResponses(session, responder));
         }
     }
 
+    /**
+     * Tells the NOTIFY watched mailboxes, if any, that mailboxes were created or renamed by this session.
+     */
+    protected void mailboxesChanged(ImapSession session) {
+        Optional.ofNullable(session.getNotifications())
+            .ifPresent(MailboxNotifications::mailboxesChanged);
+    }
+
+    private Mono<Void> notificationResponses(ImapSession session, ImapProcessor.Responder responder) {
+        return Mono.defer(() -> Optional.ofNullable(session.getNotifications())
+            .map(notifications -> notifications.pendingResponses(session)
+                .doOnNext(responder::respond)
+                .then())
+            .orElse(Mono.empty()));
+    }
+
     private Mono<Void> unsolicitedResponses(ImapSession session, ImapProcessor.Responder responder, SelectedMailbox selected, boolean omitExpunged, boolean useUid) {
         return Mono.fromRunnable(() -> {
             boolean sizeChanged = selected.isSizeChanged();
@@ -162,8 +185,8 @@ public abstract class AbstractMailboxProcessor<R extends ImapRequest> extends Ab
             if (!omitExpunged) {
                 final Collection<MessageUid> expungedUids = selected.expungedUids();
                 if (!expungedUids.isEmpty()) {
-                    // Check if QRESYNC was enabled. If so we MUST use VANISHED responses
-                    if (EnableProcessor.getEnabledCapabilities(session).contains(ImapConstants.SUPPORTS_QRESYNC)) {
+                    // Check if QRESYNC or UIDONLY were enabled. If so we MUST use VANISHED responses
+                    if (selected.isUidOnly() || EnableProcessor.getEnabledCapabilities(session).contains(ImapConstants.SUPPORTS_QRESYNC)) {
                         addVanishedResponse(selected, expungedUids, responder);
                     } else {
                         addExpungedResponses(selected, expungedUids, responder);
@@ -250,6 +273,11 @@ public abstract class AbstractMailboxProcessor<R extends ImapRequest> extends Ab
             mailbox.listMessagesMetadata(messageSet, mailboxSession))
             .doOnNext(Throwing.consumer(mr -> {
                 MessageUid uid = mr.getComposedMessageId().getUid();
+                if (selected.isUidOnly()) {
+                    // UIDFETCH response, see RFC-9586
+                    respondFlags(selected, responder, true, qresyncEnabled, condstoreEnabled, mr, null);
+                    return;
+                }
                 selected.msn(uid).fold(() -> {
                     LOGGER.debug("No message found with uid {} in the uid<->msn mapping for mailbox {}. This may be because it was deleted by a concurrent session. So skip it..", uid, selected.getMailboxId().serialize());
                     // skip this as it was not found in the mapping
@@ -257,34 +285,39 @@ public abstract class AbstractMailboxProcessor<R extends ImapRequest> extends Ab
                     // See IMAP-346
                     return null;
                 }, msn -> {
-
-                    final Flags flags = mr.getFlags();
-                    final MessageUid uidOut;
-                    if (useUid || qresyncEnabled) {
-                        uidOut = uid;
-                    } else {
-                        uidOut = null;
-                    }
-                    if (selected.isRecent(uid)) {
-                        flags.add(Flags.Flag.RECENT);
-                    } else {
-                        flags.remove(Flags.Flag.RECENT);
-                    }
-                    final FetchResponse response;
-
-                    // Check if we also need to return the MODSEQ in the response. This is true if CONDSTORE or
-                    // if QRESYNC was enabled, and the mailbox supports the permant storage of mod-sequences
-                    if (condstoreEnabled || qresyncEnabled) {
-                        response = new FetchResponse(msn, flags, uidOut, null, mr.getModSeq(), null, null, null, null, null, null, null, null);
-                    } else {
-                        response = new FetchResponse(msn, flags, uidOut, null, null, null, null, null, null, null, null, null, null);
-                    }
-                    responder.respond(response);
+                    respondFlags(selected, responder, useUid, qresyncEnabled, condstoreEnabled, mr, msn);
                     return null;
                 });
             })).then();
     }
 
+    private void respondFlags(SelectedMailbox selected, ImapProcessor.Responder responder, boolean useUid, boolean qresyncEnabled, boolean condstoreEnabled,
+                              ComposedMessageIdWithMetaData mr, MessageSequenceNumber msn) {
+        MessageUid uid = mr.getComposedMessageId().getUid();
+        final Flags flags = mr.getFlags();
+        final MessageUid uidOut;
+        if (useUid || qresyncEnabled) {
+            uidOut = uid;
+        } else {
+            uidOut = null;
+        }
+        if (selected.isRecent(uid)) {
+            flags.add(Flags.Flag.RECENT);
+        } else {
+            flags.remove(Flags.Flag.RECENT);
+        }
+        final FetchResponse response;
+
+        // Check if we also need to return the MODSEQ in the response. This is true if CONDSTORE or
+        // if QRESYNC was enabled, and the mailbox supports the permant storage of mod-sequences
+        if (condstoreEnabled || qresyncEnabled) {
+            response = new FetchResponse(msn, flags, uidOut, null, mr.getModSeq(), null, null, null, null, null, null, null, null);
+        } else {
+            response = new FetchResponse(msn, flags, uidOut, null, null, null, null, null, null, null, null, null, null);
+        }
+        responder.respond(response);
+    }
+
     protected void condstoreEnablingCommand(ImapSession session, Responder responder, MailboxMetaData metaData, boolean sendHighestModSeq) {
         Set<Capability> enabled = EnableProcessor.getEnabledCapabilities(session);
         if (!enabled.contains(ImapConstants.SUPPORTS_CONDSTORE)) {
@@ -520,27 +553,57 @@ public abstract class AbstractMailboxProcessor<R extends ImapRequest> extends Ab
     /**
      * Send VANISHED responses if needed. 
      */
-    protected void respondVanished(SelectedMailbox selectedMailbox, List<MessageRange> ranges, Responder responder) {
-        Set<MessageUid> vanishedUids = new HashSet<>();
-        for (MessageRange range : ranges) {
-            MessageUid from = range.getUidFrom();
-            MessageUid to = range.getUidTo();
-            while (from.compareTo(to) <= 0) {
-                MessageUid copy = from;
-                selectedMailbox.msn(from).foldSilent(
-                    () -> vanishedUids.add(copy),
-                    msn -> {
-                        // ignore still there
-                        return true;
-                    });
-                from = from.next();
-            }
+    protected Mono<Void> respondVanished(SelectedMailbox selectedMailbox, MailboxSession mailboxSession, List<MessageRange> ranges, Responder responder) {
+        return knownUids(selectedMailbox, mailboxSession, ranges)
+            .doOnNext(knownUids -> {
+                Set<MessageUid> vanishedUids = new HashSet<>();
+                for (MessageRange range : ranges) {
+                    MessageUid from = range.getUidFrom();
+                    MessageUid to = range.getUidTo();
+                    while (from.compareTo(to) <= 0) {
+                        if (!knownUids.test(from)) {
+                            vanishedUids.add(from);
+                        }
+                        from = from.next();
+                    }
 
+                }
+                UidRange[] vanishedIdRanges = uidRanges(MessageRange.toRanges(vanishedUids));
+                if (vanishedIdRanges.length > 0) {
+                    responder.respond(new VanishedResponse(vanishedIdRanges, true));
+                }
+            })
+            .then();
+    }
+
+    /**
+     * UIDs of the messages still there: the ones of the uid&lt;-&gt;msn mapping, or the stored ones when
+     * message sequence numbers are not tracked.
+     */
+    private Mono<Predicate<MessageUid>> knownUids(SelectedMailbox selectedMailbox, MailboxSession mailboxSession, List<MessageRange> ranges) {
+        if (!selectedMailbox.isUidOnly()) {
+            return Mono.just(uid -> selectedMailbox.msn(uid).foldSilent(() -> false, msn -> true));
         }
-        UidRange[] vanishedIdRanges = uidRanges(MessageRange.toRanges(vanishedUids));
-        if (vanishedIdRanges.length > 0) {
-            responder.respond(new VanishedResponse(vanishedIdRanges, true));
+        return Flux.fromIterable(ranges)
+            .concatMap(range -> Flux.from(selectedMailbox.getMessageManager().listMessagesMetadata(range, mailboxSession)))
+            .map(metaData -> metaData.getComposedMessageId().getUid())
+            .collect(ImmutableSet.toImmutableSet())
+            .map(uids -> uids::contains);
+    }
+
+    /**
+     * Message sequence numbers are not tracked once UIDONLY is enabled: commands relying on them get a tagged
+     * BAD response with the UIDREQUIRED response code, see RFC-9586.
+     *
+     * @return true if the command was rejected
+     */
+    protected boolean rejectMessageSequenceNumbers(ImapRequest request, ImapSession session, boolean useUids, Responder responder) {
+        SelectedMailbox selected = session.getSelected();
+        if (!useUids && selected != null && selected.isUidOnly()) {
+            responder.respond(factory.taggedBad(request.getTag(), request.getCommand(), HumanReadableText.UID_REQUIRED, ResponseCode.uidRequired()));
+            return true;
         }
+        return false;
     }
 
     protected UidRange[] uidRanges(Collection<MessageRange> mRanges) {
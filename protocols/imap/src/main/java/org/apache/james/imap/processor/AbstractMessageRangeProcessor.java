@@ -81,6 +81,9 @@ public abstract class AbstractMessageRangeProcessor<R extends AbstractMessageRan
 
     @Override
     protected Mono<Void> processRequestReactive(R request, ImapSession session, Responder responder) {
+        if (rejectMessageSequenceNumbers(request, session, request.isUseUids(), responder)) {
+            return Mono.empty();
+        }
         MailboxPath targetMailbox = pathConverterFactory.forSession(session).buildFullPath(request.getMailboxName());
         MailboxSession mailboxSession = session.getMailboxSession();
 
@@ -83,7 +83,7 @@ import reactor.core.scheduler.Schedulers;
 
 abstract class AbstractSelectionProcessor<R extends AbstractMailboxSelectionRequest> extends AbstractMailboxProcessor<R> implements PermitEnableCapabilityProcessor {
     private static final Logger LOGGER = LoggerFactory.getLogger(AbstractSelectionProcessor.class);
-    private static final List<Capability> CAPS = ImmutableList.of(ImapConstants.SUPPORTS_QRESYNC, ImapConstants.SUPPORTS_CONDSTORE);
+    private static final List<Capability> CAPS = ImmutableList.of(ImapConstants.SUPPORTS_QRESYNC, ImapConstants.SUPPORTS_CONDSTORE, ImapConstants.SUPPORTS_UIDONLY);
 
     private final StatusResponseFactory statusResponseFactory;
 
@@ -160,6 +160,9 @@ abstract class AbstractSelectionProcessor<R extends AbstractMailboxSelectionRequ
                 if (request.getCondstore()) {
                     condstoreEnablingCommand(session, responder, metaData, false);
                 }
+            })
+            .<Void>flatMap(metaData -> {
+                SelectedMailbox selected = session.getSelected();
 
                 // Now do the QRESYNC processing if necessary
                 //
@@ -175,12 +178,10 @@ abstract class AbstractSelectionProcessor<R extends AbstractMailboxSelectionRequ
                         //  responses that MUST contain UIDs) and expunges those that have
                         //  occurred in this mailbox since the provided modification sequence.
 
-                        uidSet(request, metaData)
-                            .ifPresent(Throwing.<UidRange[]>consumer(
-                                uidSet -> respondVanished(session, responder, knownSequences, knownUids, selected, uidSet))
-                                .sneakyThrow());
-
-                        taggedOk(responder, request, metaData, HumanReadableText.SELECT);
+                        return uidSet(request, metaData)
+                            .map(uidSet -> respondVanished(session, responder, knownSequences, knownUids, selected, uidSet))
+                            .orElse(Mono.empty())
+                            .then(Mono.fromRunnable(() -> taggedOk(responder, request, metaData, HumanReadableText.SELECT)));
                     } else {
 
                         taggedOk(responder, request, metaData, HumanReadableText.QRESYNC_UIDVALIDITY_MISMATCH);
@@ -188,19 +189,19 @@ abstract class AbstractSelectionProcessor<R extends AbstractMailboxSelectionRequ
                 } else {
                     taggedOk(responder, request, metaData, HumanReadableText.SELECT);
                 }
-
-                // Reset the saved sequence-set after successful SELECT / EXAMINE
-                // See RFC 5812 2.1. Normative Description of the SEARCHRES Extension
-                SearchResUtil.resetSavedSequenceSet(session);
+                return Mono.empty();
             })
-            .then();
+            // Reset the saved sequence-set after successful SELECT / EXAMINE
+            // See RFC 5812 2.1. Normative Description of the SEARCHRES Extension
+            .then(Mono.fromRunnable(() -> SearchResUtil.resetSavedSequenceSet(session)));
     }
 
     private Mono<MessageUid> firstUnseen(ImapSession session, MailboxPath fullMailboxPath, Responder responder, MessageUid firstUnseen, SelectedMailbox selected) {
         // try to write the UNSEEN message to the client and retry if we fail because of concurrent sessions.
         // See IMAP-345
 
-        if (firstUnseen == null) {
+        // The UNSEEN response code holds a message sequence number, that must not be sent once UIDONLY is enabled
+        if (firstUnseen == null || selected.isUidOnly()) {
             return Mono.empty();
         }
 
@@ -235,7 +236,7 @@ abstract class AbstractSelectionProcessor<R extends AbstractMailboxSelectionRequ
             });
     }
 
-    private void respondVanished(ImapSession session, Responder responder, IdRange[] knownSequences, UidRange[] knownUids, SelectedMailbox selected, UidRange[] uidSet) {
+    private Mono<Void> respondVanished(ImapSession session, Responder responder, IdRange[] knownSequences, UidRange[] knownUids, SelectedMailbox selected, UidRange[] uidSet) {
         // RFC5162 3.1. QRESYNC Parameter to SELECT/EXAMINE
         //
         // Message sequence match data:
@@ -262,7 +263,8 @@ abstract class AbstractSelectionProcessor<R extends AbstractMailboxSelectionRequ
         //      12, and the (N+1)th UID is 24, and the (N+1)th message in the mailbox
         //      has UID 25, then the lowest UID included in the VANISHED response
         //      would be 9.
-        if (knownSequences != null && knownUids != null) {
+        // Message sequence numbers are not tracked once UIDONLY is enabled: the message sequence match data is then ignored
+        if (knownSequences != null && knownUids != null && !selected.isUidOnly()) {
 
             uidSet = recomputeUidSet(knownSequences, knownUids, selected, uidSet);
 
@@ -296,7 +298,7 @@ abstract class AbstractSelectionProcessor<R extends AbstractMailboxSelectionRequ
         //          expunges have not happened, or happen only toward the end of the
         //          mailbox.
         //
-        respondVanished(selected, ranges, responder);
+        return respondVanished(selected, session.getMailboxSession(), ranges, responder);
     }
 
     @VisibleForTesting
@@ -459,7 +461,8 @@ abstract class AbstractSelectionProcessor<R extends AbstractMailboxSelectionRequ
                 responder.respond(getStatusResponseFactory()
                     .untaggedOk(HumanReadableText.QRESYNC_CLOSED, ResponseCode.closed()));
             }
-            SelectedMailboxImpl selectedMailbox = new SelectedMailboxImpl(getMailboxManager(), eventBus, session.getMailboxSession(), mailbox);
+            boolean uidOnly = EnableProcessor.getEnabledCapabilities(session).contains(ImapConstants.SUPPORTS_UIDONLY);
+            SelectedMailboxImpl selectedMailbox = new SelectedMailboxImpl(getMailboxManager(), eventBus, session.getMailboxSession(), mailbox, uidOnly);
 
             return session.selected(selectedMailbox)
                 .then(selectedMailbox.finishInit())
@@ -57,6 +57,7 @@ public class CreateProcessor extends AbstractMailboxProcessor<CreateRequest> {
 
         return Mono.fromCallable(() -> pathConverterFactory.forSession(session).buildFullPath(request.getMailboxName()))
             .flatMap(mailboxPath -> Mono.from(mailboxManager.createMailboxReactive(mailboxPath, session.getMailboxSession())))
+            .doOnNext(mailboxId -> mailboxesChanged(session))
             .flatMap(mailboxId -> unsolicitedResponses(session, responder, false)
                 .then(Mono.fromRunnable(() -> okComplete(request, StatusResponse.ResponseCode.mailboxId(mailboxId), responder))))
             .onErrorResume(MailboxExistsException.class, e -> {
@@ -35,6 +35,7 @@ import org.apache.james.imap.api.process.MailboxTyper;
 import org.apache.james.imap.main.PathConverter;
 import org.apache.james.imap.processor.base.AbstractProcessor;
 import org.apache.james.imap.processor.base.ImapResponseMessageProcessor;
+import org.apache.james.imap.processor.base.MailboxFlagsIndex;
 import org.apache.james.imap.processor.fetch.FetchProcessor;
 import org.apache.james.mailbox.MailboxCounterCorrector;
 import org.apache.james.mailbox.MailboxManager;
@@ -42,6 +43,7 @@ import org.apache.james.mailbox.SubscriptionManager;
 import org.apache.james.mailbox.quota.QuotaManager;
 import org.apache.james.mailbox.quota.QuotaRootResolver;
 import org.apache.james.metrics.api.MetricFactory;
+import org.apache.james.metrics.api.NoopGaugeRegistry;
 import org.apache.james.protocols.api.sasl.SaslMechanism;
 import org.apache.james.protocols.sasl.JamesSaslAuthenticator;
 import org.apache.james.protocols.sasl.plain.PlainSaslMechanism;
@@ -134,9 +136,13 @@ public class DefaultProcessor implements ImapProcessor {
         builder.add(new LSubProcessor(mailboxManager, subscriptionManager, statusResponseFactory, metricFactory, pathConverterFactory));
         builder.add(new XListProcessor(mailboxManager, statusResponseFactory, mailboxTyper, metricFactory, subscriptionManager, pathConverterFactory));
         builder.add(new ListProcessor<>(mailboxManager, statusResponseFactory, metricFactory, subscriptionManager, statusProcessor, mailboxTyper, pathConverterFactory));
-        builder.add(new SearchProcessor(mailboxManager, statusResponseFactory, metricFactory));
+        builder.add(new SearchProcessor(mailboxManager, statusResponseFactory, metricFactory,
+            new MailboxFlagsIndex(MailboxFlagsIndex.Configuration.DEFAULT, eventBus, metricFactory, new NoopGaugeRegistry())));
+        builder.add(new SortProcessor(mailboxManager, statusResponseFactory, metricFactory));
+        builder.add(new ThreadProcessor(mailboxManager, statusResponseFactory, metricFactory));
         builder.add(new SelectProcessor(mailboxManager, eventBus, statusResponseFactory, metricFactory, pathConverterFactory, mailboxCounterCorrector));
         builder.add(new NamespaceProcessor(mailboxManager, statusResponseFactory, metricFactory, new NamespaceSupplier.Default()));
+        builder.add(new NotifyProcessor(mailboxManager, eventBus, subscriptionManager, statusResponseFactory, metricFactory, pathConverterFactory));
         builder.add(new FetchProcessor(mailboxManager, statusResponseFactory, metricFactory, localCacheConfiguration));
         builder.add(new StartTLSProcessor(statusResponseFactory));
         builder.add(new UnselectProcessor(mailboxManager, statusResponseFactory, metricFactory));
@@ -39,6 +39,7 @@ import org.apache.james.imap.api.message.Capability;
 import org.apache.james.imap.api.message.response.StatusResponse;
 import org.apache.james.imap.api.message.response.StatusResponseFactory;
 import org.apache.james.imap.api.process.ImapSession;
+import org.apache.james.imap.api.process.MailboxNotifications;
 import org.apache.james.imap.api.process.SelectedMailbox;
 import org.apache.james.imap.message.request.IdleRequest;
 import org.apache.james.imap.message.response.ContinuationResponse;
@@ -94,8 +95,13 @@ public class IdleProcessor extends AbstractMailboxProcessor<IdleRequest> impleme
 
     private void idle(IdleRequest request, ImapSession session, Responder responder, CountDownLatch countDownLatch) {
         SelectedMailbox sm = session.getSelected();
+        MailboxNotifications notifications = session.getNotifications();
+        IdleMailboxListener idleMailboxListener = new IdleMailboxListener(session, responder, countDownLatch);
         if (sm != null) {
-            sm.registerIdle(new IdleMailboxListener(session, responder, countDownLatch));
+            sm.registerIdle(idleMailboxListener);
+        }
+        if (notifications != null) {
+            notifications.registerIdle(idleMailboxListener);
         }
 
         final AtomicBoolean idleActive = new AtomicBoolean(true);
@@ -111,6 +117,9 @@ public class IdleProcessor extends AbstractMailboxProcessor<IdleRequest> impleme
             if (sm != null) {
                 sm.unregisterIdle();
             }
+            if (notifications != null) {
+                notifications.unregisterIdle();
+            }
             if (!DONE.equals(line.toUpperCase(Locale.US))) {
                 String message = String.format("Continuation for IMAP IDLE was not understood. Expected 'DONE', got '%s'.", line);
                 StatusResponse response = getStatusResponseFactory()
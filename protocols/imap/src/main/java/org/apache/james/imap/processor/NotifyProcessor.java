@@ -0,0 +1,215 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.imap.processor;
+
+import static org.apache.james.imap.api.ImapConstants.SUPPORTS_NOTIFY;
+
+import java.util.List;
+
+import jakarta.inject.Inject;
+
+import org.apache.james.events.EventBus;
+import org.apache.james.imap.api.display.HumanReadableText;
+import org.apache.james.imap.api.message.Capability;
+import org.apache.james.imap.api.message.response.StatusResponse;
+import org.apache.james.imap.api.message.response.StatusResponseFactory;
+import org.apache.james.imap.api.process.ImapSession;
+import org.apache.james.imap.main.PathConverter;
+import org.apache.james.imap.message.request.NotifyRequest;
+import org.apache.james.imap.processor.base.MailboxNotificationsImpl;
+import org.apache.james.imap.processor.base.MailboxNotificationsImpl.MailboxSelector;
+import org.apache.james.imap.processor.base.MailboxNotificationsImpl.WatchedGroup;
+import org.apache.james.mailbox.MailboxManager;
+import org.apache.james.mailbox.MailboxSession;
+import org.apache.james.mailbox.MessageManager;
+import org.apache.james.mailbox.SubscriptionManager;
+import org.apache.james.mailbox.exception.MailboxException;
+import org.apache.james.mailbox.exception.MailboxNotFoundException;
+import org.apache.james.mailbox.exception.SubscriptionException;
+import org.apache.james.mailbox.model.MailboxConstants;
+import org.apache.james.mailbox.model.MailboxId;
+import org.apache.james.mailbox.model.MailboxMetaData;
+import org.apache.james.mailbox.model.MailboxPath;
+import org.apache.james.mailbox.model.search.MailboxQuery;
+import org.apache.james.mailbox.model.search.PrefixedWildcard;
+import org.apache.james.metrics.api.MetricFactory;
+import org.apache.james.util.MDCBuilder;
+import org.apache.james.util.ReactorUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * NOTIFY command, see RFC-5465.
+ *
+ * The MessageNew, MessageExpunge and FlagChange events of the watched mailboxes are reported with STATUS responses,
+ * sent along with the other unsolicited responses: once a command completes, or while the client is IDLE.
+ */
+public class NotifyProcessor extends AbstractMailboxProcessor<NotifyRequest> implements CapabilityImplementingProcessor {
+    private static final Logger LOGGER = LoggerFactory.getLogger(NotifyProcessor.class);
+
+    private final EventBus eventBus;
+    private final SubscriptionManager subscriptionManager;
+    private final PathConverter.Factory pathConverterFactory;
+
+    @Inject
+    public NotifyProcessor(MailboxManager mailboxManager, EventBus eventBus, SubscriptionManager subscriptionManager,
+                           StatusResponseFactory factory, MetricFactory metricFactory, PathConverter.Factory pathConverterFactory) {
+        super(NotifyRequest.class, mailboxManager, factory, metricFactory);
+        this.eventBus = eventBus;
+        this.subscriptionManager = subscriptionManager;
+        this.pathConverterFactory = pathConverterFactory;
+    }
+
+    @Override
+    public List<Capability> getImplementedCapabilities(ImapSession session) {
+        return ImmutableList.of(SUPPORTS_NOTIFY);
+    }
+
+    @Override
+    protected Mono<Void> processRequestReactive(NotifyRequest request, ImapSession session, Responder responder) {
+        if (request.isNone()) {
+            return session.notifications(null)
+                .then(Mono.fromRunnable(() -> okComplete(request, responder)));
+        }
+        if (hasUnsupportedEvents(request)) {
+            no(request, responder, HumanReadableText.BAD_EVENT, StatusResponse.ResponseCode.badEvent(
+                MailboxNotificationsImpl.SUPPORTED_EVENTS.stream()
+                    .map(NotifyRequest.Event::asString)
+                    .collect(ImmutableList.toImmutableList())));
+            return Mono.empty();
+        }
+
+        return watchedGroups(request, session)
+            .flatMap(watchedGroups -> {
+                MailboxNotificationsImpl notifications = new MailboxNotificationsImpl(getMailboxManager(), eventBus,
+                    session.getMailboxSession(), pathConverterFactory.forSession(session), watchedGroups);
+                return notifications.register()
+                    .then(Mono.defer(() -> session.notifications(notifications)))
+                    .then(Mono.fromRunnable(() -> {
+                        if (request.isSendStatus()) {
+                            notifications.markAllChanged();
+                        }
+                    }));
+            })
+            .then(unsolicitedResponses(session, responder, false))
+            .then(Mono.fromRunnable(() -> okComplete(request, responder)))
+            .onErrorResume(MailboxException.class, e -> {
+                no(request, responder, HumanReadableText.GENERIC_FAILURE_DURING_PROCESSING);
+                return ReactorUtils.logAsMono(() -> LOGGER.error("Notify failed for user {}", session.getUserName(), e));
+            })
+            .then();
+    }
+
+    private boolean hasUnsupportedEvents(NotifyRequest request) {
+        return request.getEventGroups()
+            .stream()
+            .flatMap(eventGroup -> eventGroup.events().stream())
+            .anyMatch(event -> !MailboxNotificationsImpl.SUPPORTED_EVENTS.contains(event));
+    }
+
+    private Mono<List<WatchedGroup>> watchedGroups(NotifyRequest request, ImapSession session) {
+        return Flux.fromIterable(request.getEventGroups())
+            .concatMap(eventGroup -> selector(eventGroup, session)
+                .map(selector -> new WatchedGroup(selector, eventGroup.events())))
+            .collectList();
+    }
+
+    /**
+     * The <code>personal</code> and <code>subtree</code> event groups are matched by path when events are received,
+     * as their mailboxes might be created or renamed later on. Other event groups are resolved once.
+     */
+    private Mono<MailboxSelector> selector(NotifyRequest.EventGroup eventGroup, ImapSession session) {
+        MailboxSession mailboxSession = session.getMailboxSession();
+        PathConverter pathConverter = pathConverterFactory.forSession(session);
+
+        return switch (eventGroup.filter()) {
+            // Changes of the selected mailbox are already reported by the SelectedMailbox
+            case SELECTED, SELECTED_DELAYED -> Mono.just(new MailboxSelector.Resolved(ImmutableSet.of()));
+            case INBOXES -> resolved(mailboxId(MailboxPath.inbox(mailboxSession), mailboxSession).flux());
+            case PERSONAL -> Mono.just(new MailboxSelector.Dynamic(
+                path -> path.getNamespace().equals(MailboxConstants.USER_NAMESPACE) && path.belongsTo(mailboxSession),
+                () -> getMailboxManager().search(MailboxQuery.privateMailboxesBuilder(mailboxSession).build(),
+                        MailboxManager.MailboxSearchFetchType.Minimal, mailboxSession)
+                    .map(MailboxMetaData::getId)));
+            case SUBSCRIBED -> resolved(subscriptions(mailboxSession)
+                .concatMap(path -> mailboxId(path, mailboxSession)));
+            case SUBTREE -> {
+                ImmutableList<MailboxPath> roots = eventGroup.mailboxNames()
+                    .stream()
+                    .map(pathConverter::buildFullPath)
+                    .collect(ImmutableList.toImmutableList());
+                yield Mono.just(new MailboxSelector.Dynamic(
+                    path -> roots.stream().anyMatch(root -> isInSubtree(path, root, mailboxSession)),
+                    () -> Flux.fromIterable(roots)
+                        .concatMap(root -> subtree(root, mailboxSession))));
+            }
+            case MAILBOXES -> resolved(Flux.fromIterable(eventGroup.mailboxNames())
+                .map(pathConverter::buildFullPath)
+                .concatMap(path -> mailboxId(path, mailboxSession)));
+        };
+    }
+
+    private Mono<MailboxSelector> resolved(Flux<MailboxId> mailboxIds) {
+        return mailboxIds.collect(ImmutableSet.toImmutableSet())
+            .map(MailboxSelector.Resolved::new);
+    }
+
+    private Flux<MailboxPath> subscriptions(MailboxSession mailboxSession) {
+        try {
+            return Flux.from(subscriptionManager.subscriptionsReactive(mailboxSession));
+        } catch (SubscriptionException e) {
+            return Flux.error(e);
+        }
+    }
+
+    private Flux<MailboxId> subtree(MailboxPath root, MailboxSession mailboxSession) {
+        MailboxQuery query = MailboxQuery.builder()
+            .userAndNamespaceFrom(root)
+            .expression(new PrefixedWildcard(root.getName()))
+            .build();
+
+        return getMailboxManager().search(query, MailboxManager.MailboxSearchFetchType.Minimal, mailboxSession)
+            .filter(metaData -> isInSubtree(metaData.getPath(), root, mailboxSession))
+            .map(MailboxMetaData::getId);
+    }
+
+    private boolean isInSubtree(MailboxPath path, MailboxPath root, MailboxSession mailboxSession) {
+        return path.equals(root) || path.getParents(mailboxSession.getPathDelimiter()).contains(root);
+    }
+
+    private Mono<MailboxId> mailboxId(MailboxPath path, MailboxSession mailboxSession) {
+        return Mono.from(getMailboxManager().getMailboxReactive(path, mailboxSession))
+            .map(MessageManager::getId)
+            .onErrorResume(MailboxNotFoundException.class, e -> Mono.empty());
+    }
+
+    @Override
+    protected MDCBuilder mdc(NotifyRequest request) {
+        return MDCBuilder.create()
+            .addToContext(MDCBuilder.ACTION, "NOTIFY")
+            .addToContext("eventGroups", request.getEventGroups().toString());
+    }
+}
@@ -65,7 +65,10 @@ public class RenameProcessor extends AbstractMailboxProcessor<RenameRequest> {
 
             return Mono.from(mailboxManager.renameMailboxReactive(existingPath, newPath, MailboxManager.RenameOption.NONE, mailboxsession))
                 .then(createInboxIfNeeded(existingPath, mailboxsession))
-                .then(Mono.fromRunnable(() -> okComplete(request, responder)))
+                .then(Mono.fromRunnable(() -> {
+                    mailboxesChanged(session);
+                    okComplete(request, responder);
+                }))
                 .onErrorResume(MailboxExistsException.class, e -> {
                     no(request, responder, HumanReadableText.MAILBOX_EXISTS);
                     return logAsMono(() -> LOGGER.debug("Rename from {} to {} failed because the target mailbox exists", existingPath, newPath, e));
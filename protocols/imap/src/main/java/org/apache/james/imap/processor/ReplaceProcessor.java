@@ -82,6 +82,9 @@ public class ReplaceProcessor extends AbstractMailboxProcessor<ReplaceRequest> i
 
     @Override
     protected Mono<Void> processRequestReactive(ReplaceRequest request, ImapSession session, Responder responder) {
+        if (rejectMessageSequenceNumbers(request, session, request.isUseUid(), responder)) {
+            return Mono.empty();
+        }
         final String mailboxName = request.getMailboxName();
         final Content messageIn = request.getMessage().asMailboxContent();
         final Date datetime = request.getDatetime();
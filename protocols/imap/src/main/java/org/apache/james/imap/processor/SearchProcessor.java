@@ -49,6 +49,7 @@ import org.apache.james.imap.api.process.SelectedMailbox;
 import org.apache.james.imap.message.request.SearchRequest;
 import org.apache.james.imap.message.response.ESearchResponse;
 import org.apache.james.imap.message.response.SearchResponse;
+import org.apache.james.imap.processor.base.MailboxFlagsIndex;
 import org.apache.james.mailbox.MailboxManager;
 import org.apache.james.mailbox.MailboxSession;
 import org.apache.james.mailbox.MessageManager;
@@ -89,10 +90,18 @@ public class SearchProcessor extends AbstractMailboxProcessor<SearchRequest> imp
         Capability.of("PARTIAL"));
     public static final SearchQuery.Sort DEFAULT_IMAP_SORT = new SearchQuery.Sort(SearchQuery.Sort.SortClause.Uid, SearchQuery.Sort.Order.NATURAL);
 
-    @Inject
+    private final MailboxFlagsIndex flagsIndex;
+
     public SearchProcessor(MailboxManager mailboxManager, StatusResponseFactory factory,
                            MetricFactory metricFactory) {
+        this(mailboxManager, factory, metricFactory, MailboxFlagsIndex.DISABLED);
+    }
+
+    @Inject
+    public SearchProcessor(MailboxManager mailboxManager, StatusResponseFactory factory,
+                           MetricFactory metricFactory, MailboxFlagsIndex flagsIndex) {
         super(SearchRequest.class, mailboxManager, factory, metricFactory);
+        this.flagsIndex = flagsIndex;
     }
 
     @Override
@@ -100,18 +109,21 @@ public class SearchProcessor extends AbstractMailboxProcessor<SearchRequest> imp
         SearchOperation operation = request.getSearchOperation();
         SearchKey searchKey = operation.getSearchKey();
 
+        // Sequence-set search keys are message sequence numbers, even within UID SEARCH (RFC-9586 section 3)
+        if (rejectMessageSequenceNumbers(request, session, request.isUseUids() && !containsSequenceSet(searchKey), responder)) {
+            return Mono.empty();
+        }
+
         try {
             MailboxSession msession = session.getMailboxSession();
-            SearchQuery query = toQuery(searchKey, session);
+            SearchQuery query = toQuery(searchKey, sorts(request), session);
             boolean useUids = request.isUseUids();
             boolean omitExpunged = (!useUids);
             return getSelectedMailboxReactive(session)
                 .flatMap(Throwing.function(mailbox -> performUidSearch(mailbox, query, msession)
                     .flatMap(uids -> computeHighestModSeqIfNeeded(session, responder, mailbox, msession, uids)
-                        .doOnNext(highestModSeq -> {
-                            ImapResponseMessage response = toResponse(request, session, uids, highestModSeq);
-                            responder.respond(response);
-                        }))
+                        .flatMap(highestModSeq -> toResponse(request, session, mailbox, uids, highestModSeq))
+                        .doOnNext(responder::respond))
                     .then(unsolicitedResponses(session, responder, omitExpunged, useUids))))
                 .then(Mono.fromRunnable(() -> {
                     okComplete(request, responder);
@@ -135,6 +147,15 @@ public class SearchProcessor extends AbstractMailboxProcessor<SearchRequest> imp
         }
     }
 
+    private static boolean containsSequenceSet(SearchKey key) {
+        if (key.getType() == SearchKey.Type.TYPE_SEQUENCE_SET) {
+            return true;
+        }
+        return Optional.ofNullable(key.getKeys())
+            .map(keys -> keys.stream().anyMatch(SearchProcessor::containsSequenceSet))
+            .orElse(false);
+    }
+
     private Mono<Optional<ModSeq>> computeHighestModSeqIfNeeded(ImapSession session, Responder responder, MessageManager mailbox, MailboxSession msession, Collection<MessageUid> uids) {
         // Check if the search did contain the MODSEQ searchkey. If so we need to include the highest mod in the response.
         //
@@ -156,17 +177,31 @@ public class SearchProcessor extends AbstractMailboxProcessor<SearchRequest> imp
         }
     }
 
-    private ImapResponseMessage toResponse(SearchRequest request, ImapSession session, Collection<MessageUid> uids, Optional<ModSeq> highestModSeq) {
+    /**
+     * Order in which the mailbox returns the matching messages.
+     */
+    protected List<SearchQuery.Sort> sorts(SearchRequest request) {
+        return ImmutableList.of(DEFAULT_IMAP_SORT);
+    }
+
+    /**
+     * Builds the response for the matching messages, ordered as specified by {@link #sorts(SearchRequest)}.
+     */
+    protected Mono<ImapResponseMessage> toResponse(SearchRequest request, ImapSession session, MessageManager mailbox, Collection<MessageUid> uids, Optional<ModSeq> highestModSeq) {
         LongList ids = asResults(session, request.isUseUids(), uids);
 
         List<SearchResultOption> resultOptions = request.getSearchOperation().getResultOptions();
         if (resultOptions == null || resultOptions.isEmpty()) {
-            return new SearchResponse(ids, highestModSeq.orElse(null));
+            return Mono.just(toResponse(ids, highestModSeq.orElse(null)));
         } else {
-            return handleResultOptions(request, session, highestModSeq.orElse(null), ids);
+            return Mono.just(handleResultOptions(request, session, highestModSeq.orElse(null), ids));
         }
     }
 
+    protected ImapResponseMessage toResponse(LongList ids, ModSeq highestModSeq) {
+        return new SearchResponse(ids, highestModSeq);
+    }
+
     private ImapResponseMessage handleResultOptions(SearchRequest request, ImapSession session, ModSeq highestModSeq, LongList ids) {
         List<SearchResultOption> resultOptions = request.getSearchOperation().getResultOptions();
 
@@ -218,7 +253,7 @@ public class SearchProcessor extends AbstractMailboxProcessor<SearchRequest> imp
         } else {
             // Just save the returned sequence-set as this is not SEARCHRES + ESEARCH
             SearchResUtil.saveSequenceSet(session, idRanges);
-            return new SearchResponse(ids, highestModSeq);
+            return toResponse(ids, highestModSeq);
         }
     }
 
@@ -239,7 +274,7 @@ public class SearchProcessor extends AbstractMailboxProcessor<SearchRequest> imp
     /**
      * Optimization of IdRange.mergeRanges(idsAsRanges) for list of long
      */
-    private IdRange[] asRanges(LongList ids) {
+    protected IdRange[] asRanges(LongList ids) {
         ids.sort(LongComparators.NATURAL_COMPARATOR);
         List<IdRange> idsAsRanges = new ArrayList<>();
         long lowBound = -1;
@@ -267,7 +302,7 @@ public class SearchProcessor extends AbstractMailboxProcessor<SearchRequest> imp
         return idsAsRanges.toArray(result);
     }
 
-    private LongList asResults(ImapSession session, boolean useUids, Collection<MessageUid> uids) {
+    protected LongList asResults(ImapSession session, boolean useUids, Collection<MessageUid> uids) {
         LongList result = new LongArrayList(uids.size());
         // Avoid using streams here as the overhead for large search responses is massive.
         if (useUids) {
@@ -284,8 +319,18 @@ public class SearchProcessor extends AbstractMailboxProcessor<SearchRequest> imp
     }
 
     private Mono<Collection<MessageUid>> performUidSearch(MessageManager mailbox, SearchQuery query, MailboxSession msession) throws MailboxException {
-        return Flux.from(mailbox.search(query, msession))
-            .collect(ImmutableList.toImmutableList());
+        return flagsIndex.search(mailbox, query, msession)
+            .flatMap(indexed -> indexed.map(Mono::just)
+                .orElseGet(() -> searchMessages(mailbox, query, msession)));
+    }
+
+    private Mono<Collection<MessageUid>> searchMessages(MessageManager mailbox, SearchQuery query, MailboxSession msession) {
+        try {
+            return Flux.from(mailbox.search(query, msession))
+                .collect(ImmutableList.toImmutableList());
+        } catch (MailboxException e) {
+            return Mono.error(e);
+        }
     }
 
     /**
@@ -308,7 +353,7 @@ public class SearchProcessor extends AbstractMailboxProcessor<SearchRequest> imp
             .switchIfEmpty(Mono.fromCallable(Optional::empty));
     }
 
-    private SearchQuery toQuery(SearchKey key, ImapSession session) throws MessageRangeException {
+    private SearchQuery toQuery(SearchKey key, List<SearchQuery.Sort> sorts, ImapSession session) throws MessageRangeException {
         SearchQuery.Criterion criterion = toCriterion(key, session);
         SearchQuery.Builder builder = SearchQuery.builder();
         SelectedMailbox selected = session.getSelected();
@@ -316,7 +361,7 @@ public class SearchProcessor extends AbstractMailboxProcessor<SearchRequest> imp
             builder.addRecentMessageUids(selected.getRecent());
         }
         return builder.andCriterion(criterion)
-            .sorts(DEFAULT_IMAP_SORT)
+            .sorts(sorts)
             .build();
     }
 
@@ -567,7 +612,7 @@ public class SearchProcessor extends AbstractMailboxProcessor<SearchRequest> imp
     @Override
     protected MDCBuilder mdc(SearchRequest request) {
         return MDCBuilder.create()
-            .addToContext(MDCBuilder.ACTION, "SEARCH")
+            .addToContext(MDCBuilder.ACTION, request.getCommand().getName())
             .addToContext("useUid", Boolean.toString(request.isUseUids()))
             .addToContext("searchOperation", request.getSearchOperation().toString());
     }
@@ -0,0 +1,109 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.imap.processor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import jakarta.inject.Inject;
+
+import org.apache.james.imap.api.message.Capability;
+import org.apache.james.imap.api.message.IdRange;
+import org.apache.james.imap.api.message.response.ImapResponseMessage;
+import org.apache.james.imap.api.message.response.StatusResponseFactory;
+import org.apache.james.imap.api.process.ImapSession;
+import org.apache.james.imap.message.request.SearchRequest;
+import org.apache.james.imap.message.request.SortRequest;
+import org.apache.james.imap.message.response.SortResponse;
+import org.apache.james.mailbox.MailboxManager;
+import org.apache.james.mailbox.ModSeq;
+import org.apache.james.mailbox.model.SearchQuery;
+import org.apache.james.metrics.api.MetricFactory;
+
+import com.google.common.collect.ImmutableList;
+
+import it.unimi.dsi.fastutil.longs.LongList;
+
+/**
+ * Implements RFC-5256 SORT and RFC-5267 ESORT.
+ *
+ * Sorting is performed by the {@link org.apache.james.mailbox.MessageManager#search} implementation, hence by the
+ * search index when one is configured.
+ */
+public class SortProcessor extends SearchProcessor {
+    private static final List<Capability> CAPS = ImmutableList.of(Capability.of("SORT"),
+        Capability.of("ESORT"));
+
+    @Inject
+    public SortProcessor(MailboxManager mailboxManager, StatusResponseFactory factory,
+                         MetricFactory metricFactory) {
+        super(mailboxManager, factory, metricFactory);
+    }
+
+    @Override
+    public List<Class<? extends SearchRequest>> acceptableClasses() {
+        return ImmutableList.of(SortRequest.class);
+    }
+
+    @Override
+    protected List<SearchQuery.Sort> sorts(SearchRequest request) {
+        // Messages that exactly match the sort criteria are sorted by sequence number, see RFC-5256 BASE.6.4.SORT
+        return ImmutableList.<SearchQuery.Sort>builder()
+            .addAll(((SortRequest) request).getSorts())
+            .add(DEFAULT_IMAP_SORT)
+            .build();
+    }
+
+    @Override
+    protected ImapResponseMessage toResponse(LongList ids, ModSeq highestModSeq) {
+        return new SortResponse(ids, highestModSeq);
+    }
+
+    /**
+     * ESORT returns the results in the sorted order: only consecutive increasing ids are merged into ranges.
+     */
+    @Override
+    protected IdRange[] asRanges(LongList ids) {
+        List<IdRange> idsAsRanges = new ArrayList<>();
+        long lowBound = -1;
+        long highBound = -1;
+        for (int i = 0; i < ids.size(); i++) {
+            long id = ids.getLong(i);
+            if (lowBound != -1 && id == highBound + 1) {
+                highBound = id;
+                continue;
+            }
+            if (lowBound != -1) {
+                idsAsRanges.add(new IdRange(lowBound, highBound));
+            }
+            lowBound = id;
+            highBound = id;
+        }
+        if (lowBound != -1) {
+            idsAsRanges.add(new IdRange(lowBound, highBound));
+        }
+        return idsAsRanges.toArray(IdRange[]::new);
+    }
+
+    @Override
+    public List<Capability> getImplementedCapabilities(ImapSession session) {
+        return CAPS;
+    }
+}
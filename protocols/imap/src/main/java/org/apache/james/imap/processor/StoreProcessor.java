@@ -86,6 +86,10 @@ public class StoreProcessor extends AbstractMailboxProcessor<StoreRequest> {
         List<String> userFlags = Arrays.asList(flags.getUserFlags());
         boolean omitExpunged = (!request.isUseUids());
 
+        if (rejectMessageSequenceNumbers(request, session, request.isUseUids(), responder)) {
+            return Mono.empty();
+        }
+
         if (rejectUnchangedSinceZeroWithSystemFlagUpdate(request, responder, idSet, flags)) {
             return Mono.empty();
         }
@@ -304,6 +308,11 @@ public class StoreProcessor extends AbstractMailboxProcessor<StoreRequest> {
         for (Map.Entry<MessageUid, Flags> entry : flagsByUid.entrySet()) {
             final MessageUid uid = entry.getKey();
 
+            if (selected.isUidOnly()) {
+                // UIDFETCH response, see RFC-9586
+                sendFetchResponse(responder, useUids, silent, unchangedSince, selected, qresyncEnabled, condstoreEnabled, modSeqs, uid, entry.getValue(), null);
+                continue;
+            }
             selected.msn(uid).foldSilent(() -> {
                 LOGGER.debug("No message found with uid {} in the uid<->msn mapping for mailbox {}. This may be because it was deleted by a concurrent session. So skip it..", uid, selected.getMailboxId());
                 // skip this as it was not found in the mapping
@@ -311,30 +320,33 @@ public class StoreProcessor extends AbstractMailboxProcessor<StoreRequest> {
                 // See IMAP-346
                 return null;
             }, msn -> {
+                sendFetchResponse(responder, useUids, silent, unchangedSince, selected, qresyncEnabled, condstoreEnabled, modSeqs, uid, entry.getValue(), msn);
+                return null;
+            });
+        }
+    }
 
-                final Flags resultFlags = entry.getValue();
-                final MessageUid resultUid;
-
-                // Check if we need to include the uid. T
-                //
-                // This is the case if one of these is true:
-                //      - FETCH (UID...)  was used
-                //      - QRESYNC was enabled via ENABLE QRESYNC
-                if (useUids || qresyncEnabled) {
-                    resultUid = uid;
-                } else {
-                    resultUid = null;
-                }
+    private void sendFetchResponse(Responder responder, boolean useUids, boolean silent, long unchangedSince, SelectedMailbox selected, boolean qresyncEnabled, boolean condstoreEnabled,
+                                   Map<MessageUid, ModSeq> modSeqs, MessageUid uid, Flags resultFlags, org.apache.james.mailbox.MessageSequenceNumber msn) {
+        final MessageUid resultUid;
 
-                if (selected.isRecent(uid)) {
-                    resultFlags.add(Flags.Flag.RECENT);
-                }
+        // Check if we need to include the uid. T
+        //
+        // This is the case if one of these is true:
+        //      - FETCH (UID...)  was used
+        //      - QRESYNC was enabled via ENABLE QRESYNC
+        if (useUids || qresyncEnabled) {
+            resultUid = uid;
+        } else {
+            resultUid = null;
+        }
 
-                FetchResponse response = computeFetchResponse(silent, unchangedSince, qresyncEnabled, condstoreEnabled, modSeqs, uid, msn, resultFlags, resultUid);
-                responder.respond(response);
-                return null;
-            });
+        if (selected.isRecent(uid)) {
+            resultFlags.add(Flags.Flag.RECENT);
         }
+
+        FetchResponse response = computeFetchResponse(silent, unchangedSince, qresyncEnabled, condstoreEnabled, modSeqs, uid, msn, resultFlags, resultUid);
+        responder.respond(response);
     }
 
     private Mono<Map<MessageUid, ModSeq>> computeModSeqs(MailboxSession mailboxSession, MessageManager mailbox, MessageRange messageSet, long unchangedSince, boolean qresyncEnabled, boolean condstoreEnabled) {
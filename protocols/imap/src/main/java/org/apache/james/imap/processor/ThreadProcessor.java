@@ -0,0 +1,221 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.imap.processor;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import jakarta.inject.Inject;
+
+import org.apache.james.imap.api.message.Capability;
+import org.apache.james.imap.api.message.response.ImapResponseMessage;
+import org.apache.james.imap.api.message.response.StatusResponseFactory;
+import org.apache.james.imap.api.process.ImapSession;
+import org.apache.james.imap.message.request.SearchRequest;
+import org.apache.james.imap.message.request.ThreadRequest;
+import org.apache.james.imap.message.response.ThreadResponse;
+import org.apache.james.imap.processor.base.ReferencesThreader;
+import org.apache.james.mailbox.MailboxManager;
+import org.apache.james.mailbox.MailboxSession;
+import org.apache.james.mailbox.MessageManager;
+import org.apache.james.mailbox.MessageUid;
+import org.apache.james.mailbox.ModSeq;
+import org.apache.james.mailbox.exception.MailboxException;
+import org.apache.james.mailbox.model.BaseSubject;
+import org.apache.james.mailbox.model.FetchGroup;
+import org.apache.james.mailbox.model.MessageRange;
+import org.apache.james.mailbox.model.MessageResult;
+import org.apache.james.mailbox.model.SearchQuery;
+import org.apache.james.metrics.api.MetricFactory;
+import org.apache.james.mime4j.MimeException;
+import org.apache.james.mime4j.parser.AbstractContentHandler;
+import org.apache.james.mime4j.parser.MimeStreamParser;
+import org.apache.james.mime4j.stream.Field;
+import org.apache.james.mime4j.stream.MimeConfig;
+
+import com.github.fge.lambdas.Throwing;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Implements RFC-5256 THREAD=ORDEREDSUBJECT and THREAD=REFERENCES.
+ *
+ * Matching messages are retrieved from the search index in sent date order. Only the header section of these messages
+ * is then read, and only the header fields needed by the algorithm are decoded. REFERENCES threads are built with the
+ * {@link ReferencesThreader}. ORDEREDSUBJECT threads group the messages sharing the same base subject under the
+ * oldest one.
+ */
+public class ThreadProcessor extends SearchProcessor {
+    private static final List<Capability> CAPS = ImmutableList.of(Capability.of("THREAD=ORDEREDSUBJECT"),
+        Capability.of("THREAD=REFERENCES"));
+    private static final List<SearchQuery.Sort> SENT_DATE_ORDER = ImmutableList.of(
+        new SearchQuery.Sort(SearchQuery.Sort.SortClause.SentDate),
+        DEFAULT_IMAP_SORT);
+    private static final String SUBJECT = "subject";
+    private static final String MESSAGE_ID = "message-id";
+    private static final String REFERENCES = "references";
+    private static final String IN_REPLY_TO = "in-reply-to";
+    private static final Set<String> ORDERED_SUBJECT_FIELDS = ImmutableSet.of(SUBJECT);
+    private static final Set<String> REFERENCES_FIELDS = ImmutableSet.of(SUBJECT, MESSAGE_ID, REFERENCES, IN_REPLY_TO);
+
+    @Inject
+    public ThreadProcessor(MailboxManager mailboxManager, StatusResponseFactory factory,
+                           MetricFactory metricFactory) {
+        super(mailboxManager, factory, metricFactory);
+    }
+
+    @Override
+    public List<Class<? extends SearchRequest>> acceptableClasses() {
+        return ImmutableList.of(ThreadRequest.class);
+    }
+
+    @Override
+    protected List<SearchQuery.Sort> sorts(SearchRequest request) {
+        return SENT_DATE_ORDER;
+    }
+
+    @Override
+    protected Mono<ImapResponseMessage> toResponse(SearchRequest request, ImapSession session, MessageManager mailbox, Collection<MessageUid> uids, Optional<ModSeq> highestModSeq) {
+        ThreadRequest threadRequest = (ThreadRequest) request;
+        MailboxSession mailboxSession = session.getMailboxSession();
+        List<MessageRange> ranges = MessageRange.toRanges(uids);
+
+        Mono<List<ThreadResponse.Node>> threads = switch (threadRequest.getAlgorithm()) {
+            case REFERENCES -> headerFields(mailbox, ranges, REFERENCES_FIELDS, mailboxSession)
+                .map(headerFields -> ReferencesThreader.thread(messages(session, request.isUseUids(), uids, headerFields)));
+            case ORDEREDSUBJECT -> headerFields(mailbox, ranges, ORDERED_SUBJECT_FIELDS, mailboxSession)
+                .map(headerFields -> threads(session, request.isUseUids(), uids, baseSubjects(headerFields)));
+        };
+        return threads.map(ThreadResponse::new);
+    }
+
+    private Mono<Map<MessageUid, Map<String, String>>> headerFields(MessageManager mailbox, List<MessageRange> ranges,
+                                                                  Set<String> fieldNames, MailboxSession session) {
+        return Flux.fromIterable(ranges)
+            .concatMap(range -> mailbox.getMessagesReactive(range, FetchGroup.HEADERS, session))
+            .collectMap(MessageResult::getUid, Throwing.function(message -> headerFields(message, fieldNames)));
+    }
+
+    /**
+     * Decodes only the first occurrence of the given header fields, stopping at the end of the header section.
+     */
+    private static Map<String, String> headerFields(MessageResult message, Set<String> fieldNames) throws IOException, MimeException, MailboxException {
+        Map<String, String> result = new HashMap<>();
+        MimeStreamParser parser = new MimeStreamParser(MimeConfig.PERMISSIVE);
+        parser.setContentHandler(new AbstractContentHandler() {
+            @Override
+            public void endHeader() {
+                parser.stop();
+            }
+
+            @Override
+            public void field(Field field) {
+                String name = field.getName().toLowerCase(Locale.US);
+                if (fieldNames.contains(name)) {
+                    result.putIfAbsent(name, field.getBody());
+                }
+            }
+        });
+        try (InputStream headers = message.getHeaders().getInputStream()) {
+            parser.parse(headers);
+        }
+        return result;
+    }
+
+    private List<ReferencesThreader.Message> messages(ImapSession session, boolean useUids, Collection<MessageUid> uids,
+                                                      Map<MessageUid, Map<String, String>> headerFields) {
+        ImmutableList.Builder<ReferencesThreader.Message> messages = ImmutableList.builder();
+        for (MessageUid uid : uids) {
+            Map<String, String> fields = headerFields.get(uid);
+            Optional<Long> id = asId(session, useUids, uid);
+            if (fields != null && id.isPresent()) {
+                messages.add(new ReferencesThreader.Message(id.get(),
+                    Optional.ofNullable(fields.get(MESSAGE_ID)),
+                    Optional.ofNullable(fields.get(REFERENCES)),
+                    Optional.ofNullable(fields.get(IN_REPLY_TO)),
+                    Optional.ofNullable(fields.get(SUBJECT))));
+            }
+        }
+        return messages.build();
+    }
+
+    private static Map<MessageUid, String> baseSubjects(Map<MessageUid, Map<String, String>> headerFields) {
+        return headerFields.entrySet()
+            .stream()
+            .collect(ImmutableMap.toImmutableMap(Map.Entry::getKey,
+                entry -> Optional.ofNullable(entry.getValue().get(SUBJECT))
+                    .map(BaseSubject::extract)
+                    .orElse("")));
+    }
+
+    /**
+     * Groups the messages, ordered by sent date, sharing the same base subject. Threads are ordered by the sent date
+     * of their first message.
+     */
+    private List<ThreadResponse.Node> threads(ImapSession session, boolean useUids, Collection<MessageUid> uids,
+                                              Map<MessageUid, String> baseSubjects) {
+        Map<String, List<Long>> threads = new LinkedHashMap<>();
+        for (MessageUid uid : uids) {
+            String key = baseSubjects.get(uid);
+            Optional<Long> id = asId(session, useUids, uid);
+            if (key != null && id.isPresent()) {
+                threads.computeIfAbsent(key, any -> new ArrayList<>()).add(id.get());
+            }
+        }
+        return threads.values()
+            .stream()
+            .map(ThreadProcessor::oldestAsParent)
+            .collect(ImmutableList.toImmutableList());
+    }
+
+    private Optional<Long> asId(ImapSession session, boolean useUids, MessageUid uid) {
+        if (useUids) {
+            return Optional.of(uid.asLong());
+        }
+        return session.getSelected().msn(uid)
+            .asInt()
+            .map(Integer::longValue);
+    }
+
+    private static ThreadResponse.Node oldestAsParent(List<Long> ids) {
+        return new ThreadResponse.Node(ids.get(0), ids.subList(1, ids.size())
+            .stream()
+            .map(ThreadResponse.Node::leaf)
+            .collect(ImmutableList.toImmutableList()));
+    }
+
+    @Override
+    public List<Capability> getImplementedCapabilities(ImapSession session) {
+        return CAPS;
+    }
+}
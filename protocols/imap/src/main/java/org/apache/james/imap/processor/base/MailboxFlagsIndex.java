@@ -0,0 +1,438 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.imap.processor.base;
+
+import static org.apache.james.mailbox.MessageManager.MailboxMetaData.RecentMode.IGNORE;
+
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.IntPredicate;
+
+import jakarta.inject.Inject;
+import jakarta.mail.Flags;
+
+import org.apache.james.events.Event;
+import org.apache.james.events.EventBus;
+import org.apache.james.events.EventListener;
+import org.apache.james.events.Registration;
+import org.apache.james.mailbox.MailboxSession;
+import org.apache.james.mailbox.MessageManager;
+import org.apache.james.mailbox.MessageUid;
+import org.apache.james.mailbox.ModSeq;
+import org.apache.james.mailbox.events.MailboxEvents.Added;
+import org.apache.james.mailbox.events.MailboxEvents.Expunged;
+import org.apache.james.mailbox.events.MailboxEvents.FlagsUpdated;
+import org.apache.james.mailbox.events.MailboxEvents.MailboxDeletion;
+import org.apache.james.mailbox.events.MailboxEvents.MailboxEvent;
+import org.apache.james.mailbox.events.MailboxIdRegistrationKey;
+import org.apache.james.mailbox.exception.MailboxException;
+import org.apache.james.mailbox.model.ComposedMessageIdWithMetaData;
+import org.apache.james.mailbox.model.MailboxId;
+import org.apache.james.mailbox.model.MessageMetaData;
+import org.apache.james.mailbox.model.MessageRange;
+import org.apache.james.mailbox.model.SearchQuery;
+import org.apache.james.mailbox.model.UpdatedFlags;
+import org.apache.james.metrics.api.GaugeRegistry;
+import org.apache.james.metrics.api.Metric;
+import org.apache.james.metrics.api.MetricFactory;
+import org.apache.james.util.DurationParser;
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalListener;
+import com.google.common.collect.ImmutableList;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntIterator;
+import it.unimi.dsi.fastutil.ints.IntList;
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
+import it.unimi.dsi.fastutil.ints.IntRBTreeSet;
+import it.unimi.dsi.fastutil.ints.IntSet;
+import it.unimi.dsi.fastutil.ints.IntSets;
+import it.unimi.dsi.fastutil.ints.IntSortedSet;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * In memory index of the UIDs of a mailbox, and of the UIDs carrying each system flag and keyword.
+ *
+ * It answers the searches only relying on flags and UIDs (UNSEEN, FLAGGED, DELETED, KEYWORD, UID x:y, and their
+ * combinations) without querying the search index nor the message metadata, which IMAP clients issue constantly.
+ *
+ * The index of a mailbox is loaded upon its first search, then kept current by listening to its events. It is shared
+ * by all the IMAP sessions of the node, and dropped once not used for a while. As events might be delivered
+ * asynchronously, the index is only used when it saw all the modifications of the mailbox, as told by its highest
+ * mod-sequence. Otherwise the search falls back to {@link MessageManager#search}.
+ */
+public class MailboxFlagsIndex {
+    private static final Logger LOGGER = LoggerFactory.getLogger(MailboxFlagsIndex.class);
+
+    public record Configuration(boolean enabled, int maximumMailboxes, Duration idleTimeout) {
+        public static final Configuration DEFAULT = new Configuration(true, 1000, Duration.ofMinutes(10));
+        public static final Configuration DISABLED = new Configuration(false, 0, Duration.ZERO);
+
+        public static Configuration from(org.apache.commons.configuration2.Configuration configuration) {
+            return new Configuration(
+                configuration.getBoolean("flagsIndexEnabled", DEFAULT.enabled()),
+                configuration.getInt("flagsIndexMaximumMailboxes", DEFAULT.maximumMailboxes()),
+                DurationParser.parse(configuration.getString("flagsIndexIdleTimeout", "10m"), ChronoUnit.MINUTES));
+        }
+    }
+
+    public static final MailboxFlagsIndex DISABLED = new MailboxFlagsIndex(Configuration.DISABLED, null, null, null);
+
+    private static final List<Flags.Flag> SYSTEM_FLAGS = ImmutableList.of(Flags.Flag.ANSWERED, Flags.Flag.DELETED,
+        Flags.Flag.DRAFT, Flags.Flag.FLAGGED, Flags.Flag.SEEN);
+
+    private final Configuration configuration;
+    private final EventBus eventBus;
+    private final Cache<MailboxId, MailboxEntry> entries;
+    private final Optional<Metric> hitMetric;
+    private final Optional<Metric> missMetric;
+
+    @Inject
+    public MailboxFlagsIndex(Configuration configuration, EventBus eventBus, MetricFactory metricFactory, GaugeRegistry gaugeRegistry) {
+        this.configuration = configuration;
+        this.eventBus = eventBus;
+        this.entries = CacheBuilder.newBuilder()
+            .maximumSize(configuration.maximumMailboxes())
+            .expireAfterAccess(configuration.idleTimeout())
+            .removalListener((RemovalListener<MailboxId, MailboxEntry>) notification -> notification.getValue().unregister())
+            .build();
+        if (configuration.enabled()) {
+            this.hitMetric = Optional.of(metricFactory.generate("imap-flags-index-hit"));
+            this.missMetric = Optional.of(metricFactory.generate("imap-flags-index-miss"));
+            gaugeRegistry.register("imap-flags-index-mailbox-count", entries::size);
+        } else {
+            this.hitMetric = Optional.empty();
+            this.missMetric = Optional.empty();
+        }
+    }
+
+    /**
+     * @return the UIDs matching the query, in ascending order, or an empty {@link Optional} when the query can not
+     * be answered by the index.
+     */
+    public Mono<Optional<Collection<MessageUid>>> search(MessageManager mailbox, SearchQuery query, MailboxSession session) {
+        if (!configuration.enabled() || !isSupported(query)) {
+            return Mono.just(Optional.empty());
+        }
+        return entry(mailbox.getId())
+            .flatMap(entry -> entry.initialization(mailbox, session)
+                .then(highestModSeq(mailbox, session))
+                .map(highestModSeq -> entry.search(query, highestModSeq)))
+            .doOnNext(result -> {
+                if (result.isPresent()) {
+                    hitMetric.ifPresent(Metric::increment);
+                } else {
+                    missMetric.ifPresent(Metric::increment);
+                }
+            })
+            .onErrorResume(e -> {
+                LOGGER.warn("Failed using the flags index of mailbox {}", mailbox.getId().serialize(), e);
+                entries.invalidate(mailbox.getId());
+                return Mono.just(Optional.empty());
+            });
+    }
+
+    private Mono<MailboxEntry> entry(MailboxId mailboxId) {
+        try {
+            return Mono.just(entries.get(mailboxId, () -> new MailboxEntry(mailboxId)));
+        } catch (ExecutionException e) {
+            return Mono.error(e.getCause());
+        }
+    }
+
+    private Mono<ModSeq> highestModSeq(MessageManager mailbox, MailboxSession session) {
+        try {
+            return mailbox.getMetaDataReactive(IGNORE, session, EnumSet.of(MessageManager.MailboxMetaData.Item.HighestModSeq))
+                .map(MessageManager.MailboxMetaData::getHighestModSeq);
+        } catch (MailboxException e) {
+            return Mono.error(e);
+        }
+    }
+
+    static boolean isSupported(SearchQuery query) {
+        return !query.shouldCollapseThreads()
+            && query.getSorts().stream()
+                .allMatch(sort -> sort.getSortClause() == SearchQuery.Sort.SortClause.Uid && !sort.isReverse())
+            && query.getCriteria().stream().allMatch(MailboxFlagsIndex::isSupported);
+    }
+
+    private static boolean isSupported(SearchQuery.Criterion criterion) {
+        if (criterion instanceof SearchQuery.ConjunctionCriterion conjunction) {
+            return conjunction.getCriteria().stream().allMatch(MailboxFlagsIndex::isSupported);
+        }
+        if (criterion instanceof SearchQuery.FlagCriterion flagCriterion) {
+            // \Recent is tracked by the IMAP session
+            return SYSTEM_FLAGS.contains(flagCriterion.getFlag());
+        }
+        return criterion instanceof SearchQuery.AllCriterion
+            || criterion instanceof SearchQuery.CustomFlagCriterion
+            || criterion instanceof SearchQuery.UidCriterion;
+    }
+
+    /**
+     * Flags of the messages of a mailbox, as sparse sets of UIDs: their size only depends on the count of messages
+     * carrying each flag, and not on the value of the UIDs.
+     */
+    static class FlagsSets {
+        private final IntSortedSet uids = new IntRBTreeSet();
+        private final Map<Flags.Flag, IntSet> systemFlags = new HashMap<>();
+        private final Map<String, IntSet> userFlags = new HashMap<>();
+
+        FlagsSets() {
+            SYSTEM_FLAGS.forEach(flag -> systemFlags.put(flag, new IntOpenHashSet()));
+        }
+
+        static boolean isIndexable(MessageUid uid) {
+            return uid.asLong() <= Integer.MAX_VALUE;
+        }
+
+        void set(MessageUid uid, Flags flags) {
+            int index = (int) uid.asLong();
+            uids.add(index);
+            systemFlags.forEach((flag, uidSet) -> {
+                if (flags.contains(flag)) {
+                    uidSet.add(index);
+                } else {
+                    uidSet.remove(index);
+                }
+            });
+            removeUserFlags(index);
+            for (String userFlag : flags.getUserFlags()) {
+                userFlags.computeIfAbsent(userFlag, any -> new IntOpenHashSet()).add(index);
+            }
+        }
+
+        void remove(MessageUid uid) {
+            int index = (int) uid.asLong();
+            uids.remove(index);
+            systemFlags.values().forEach(uidSet -> uidSet.remove(index));
+            removeUserFlags(index);
+        }
+
+        private void removeUserFlags(int index) {
+            userFlags.values().removeIf(uidSet -> uidSet.remove(index) && uidSet.isEmpty());
+        }
+
+        /**
+         * Each criterion is turned into a predicate on the UIDs, which are then browsed once: no intermediate set
+         * is allocated.
+         */
+        IntList evaluate(List<SearchQuery.Criterion> criteria) {
+            IntPredicate predicate = criteria.stream()
+                .map(this::predicate)
+                .reduce(any -> true, IntPredicate::and);
+            IntList result = new IntArrayList();
+            IntIterator iterator = uids.iterator();
+            while (iterator.hasNext()) {
+                int uid = iterator.nextInt();
+                if (predicate.test(uid)) {
+                    result.add(uid);
+                }
+            }
+            return result;
+        }
+
+        private IntPredicate predicate(SearchQuery.Criterion criterion) {
+            if (criterion instanceof SearchQuery.AllCriterion) {
+                return any -> true;
+            }
+            if (criterion instanceof SearchQuery.FlagCriterion flagCriterion) {
+                return withOperator(systemFlags.get(flagCriterion.getFlag()), flagCriterion.getOperator().isSet());
+            }
+            if (criterion instanceof SearchQuery.CustomFlagCriterion customFlagCriterion) {
+                return withOperator(userFlags.getOrDefault(customFlagCriterion.getFlag(), IntSets.emptySet()),
+                    customFlagCriterion.getOperator().isSet());
+            }
+            if (criterion instanceof SearchQuery.UidCriterion uidCriterion) {
+                return predicate(uidCriterion.getOperator().getRange());
+            }
+            if (criterion instanceof SearchQuery.ConjunctionCriterion conjunction) {
+                return predicate(conjunction);
+            }
+            throw new IllegalArgumentException("Unsupported criterion " + criterion);
+        }
+
+        private IntPredicate withOperator(IntSet uidSet, boolean set) {
+            if (set) {
+                return uid -> uidSet.contains(uid);
+            }
+            return uid -> !uidSet.contains(uid);
+        }
+
+        private IntPredicate predicate(SearchQuery.UidRange[] ranges) {
+            return uid -> Arrays.stream(ranges)
+                .anyMatch(range -> range.getLowValue().asLong() <= uid && uid <= range.getHighValue().asLong());
+        }
+
+        private IntPredicate predicate(SearchQuery.ConjunctionCriterion conjunction) {
+            List<IntPredicate> predicates = conjunction.getCriteria().stream()
+                .map(this::predicate)
+                .collect(ImmutableList.toImmutableList());
+            switch (conjunction.getType()) {
+                case AND:
+                    return uid -> predicates.stream().allMatch(predicate -> predicate.test(uid));
+                case OR:
+                    return uid -> predicates.stream().anyMatch(predicate -> predicate.test(uid));
+                case NOR:
+                    return uid -> predicates.stream().noneMatch(predicate -> predicate.test(uid));
+                default:
+                    throw new IllegalArgumentException("Unsupported conjunction " + conjunction.getType());
+            }
+        }
+    }
+
+    /**
+     * Index of a given mailbox. Events received while the mailbox is being loaded are applied once it is loaded.
+     */
+    private class MailboxEntry implements EventListener.ReactiveEventListener {
+        private final MailboxId mailboxId;
+        private final FlagsSets flagsSets = new FlagsSets();
+        private final List<Event> pendingEvents = new ArrayList<>();
+        private final AtomicReference<Registration> registration = new AtomicReference<>();
+        private Mono<Void> initialization;
+        private boolean loaded = false;
+        private boolean overflow = false;
+        private ModSeq highestModSeq = ModSeq.first();
+
+        private MailboxEntry(MailboxId mailboxId) {
+            this.mailboxId = mailboxId;
+        }
+
+        synchronized Mono<Void> initialization(MessageManager mailbox, MailboxSession session) {
+            if (initialization == null) {
+                initialization = Mono.from(eventBus.register(this, new MailboxIdRegistrationKey(mailboxId)))
+                    .doOnNext(registration::set)
+                    .then(highestModSeq(mailbox, session))
+                    .flatMap(initialHighestModSeq -> Flux.from(mailbox.listMessagesMetadata(MessageRange.all(), session))
+                        .collectList()
+                        .doOnNext(messages -> load(initialHighestModSeq, messages)))
+                    .then()
+                    .cache();
+            }
+            return initialization;
+        }
+
+        private synchronized void load(ModSeq initialHighestModSeq, List<ComposedMessageIdWithMetaData> messages) {
+            messages.forEach(message -> set(message.getComposedMessageId().getUid(), message.getFlags()));
+            highestModSeq = max(highestModSeq, initialHighestModSeq);
+            pendingEvents.forEach(this::apply);
+            pendingEvents.clear();
+            loaded = true;
+        }
+
+        synchronized Optional<Collection<MessageUid>> search(SearchQuery query, ModSeq mailboxHighestModSeq) {
+            if (!loaded || overflow || highestModSeq.compareTo(mailboxHighestModSeq) < 0) {
+                return Optional.empty();
+            }
+            IntList matched = flagsSets.evaluate(query.getCriteria());
+            ImmutableList.Builder<MessageUid> result = ImmutableList.builderWithExpectedSize(matched.size());
+            for (int i = 0; i < matched.size(); i++) {
+                result.add(MessageUid.of(matched.getInt(i)));
+            }
+            return Optional.of(result.build());
+        }
+
+        @Override
+        public Publisher<Void> reactiveEvent(Event event) {
+            if (event instanceof MailboxDeletion) {
+                entries.invalidate(mailboxId);
+                return Mono.empty();
+            }
+            synchronized (this) {
+                if (loaded) {
+                    apply(event);
+                } else {
+                    pendingEvents.add(event);
+                }
+            }
+            return Mono.empty();
+        }
+
+        private void apply(Event event) {
+            if (event instanceof Added added) {
+                added.getAdded().values().forEach(this::set);
+            } else if (event instanceof FlagsUpdated flagsUpdated) {
+                flagsUpdated.getUpdatedFlags().forEach(this::set);
+            } else if (event instanceof Expunged expunged) {
+                expunged.getExpunged().values().forEach(this::remove);
+            }
+        }
+
+        private void set(MessageMetaData metaData) {
+            set(metaData.getUid(), metaData.getFlags());
+            highestModSeq = max(highestModSeq, metaData.getModSeq());
+        }
+
+        private void set(UpdatedFlags updatedFlags) {
+            set(updatedFlags.getUid(), updatedFlags.getNewFlags());
+            highestModSeq = max(highestModSeq, updatedFlags.getModSeq());
+        }
+
+        private void set(MessageUid uid, Flags flags) {
+            if (!FlagsSets.isIndexable(uid)) {
+                overflow = true;
+                return;
+            }
+            flagsSets.set(uid, flags);
+        }
+
+        private void remove(MessageMetaData metaData) {
+            if (FlagsSets.isIndexable(metaData.getUid())) {
+                flagsSets.remove(metaData.getUid());
+            }
+            highestModSeq = max(highestModSeq, metaData.getModSeq());
+        }
+
+        private ModSeq max(ModSeq modSeq1, ModSeq modSeq2) {
+            if (modSeq1.compareTo(modSeq2) >= 0) {
+                return modSeq1;
+            }
+            return modSeq2;
+        }
+
+        void unregister() {
+            Optional.ofNullable(registration.getAndSet(null))
+                .map(Registration::unregister)
+                .map(Mono::from)
+                .ifPresent(Mono::subscribe);
+        }
+
+        @Override
+        public boolean isHandling(Event event) {
+            return event instanceof MailboxEvent mailboxEvent && mailboxEvent.getMailboxId().equals(mailboxId);
+        }
+    }
+}
@@ -0,0 +1,327 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.imap.processor.base;
+
+import static org.apache.james.mailbox.MessageManager.MailboxMetaData.RecentMode.IGNORE;
+
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import org.apache.james.events.Event;
+import org.apache.james.events.EventBus;
+import org.apache.james.events.EventListener;
+import org.apache.james.events.Registration;
+import org.apache.james.events.RegistrationKey;
+import org.apache.james.imap.api.ImapConstants;
+import org.apache.james.imap.api.message.response.ImapResponseMessage;
+import org.apache.james.imap.api.process.ImapSession;
+import org.apache.james.imap.api.process.MailboxNotifications;
+import org.apache.james.imap.api.process.SelectedMailbox;
+import org.apache.james.imap.main.PathConverter;
+import org.apache.james.imap.message.request.NotifyRequest;
+import org.apache.james.imap.message.response.MailboxStatusResponse;
+import org.apache.james.imap.processor.EnableProcessor;
+import org.apache.james.mailbox.MailboxManager;
+import org.apache.james.mailbox.MailboxSession;
+import org.apache.james.mailbox.MessageManager;
+import org.apache.james.mailbox.ModSeq;
+import org.apache.james.mailbox.events.MailboxEvents.Added;
+import org.apache.james.mailbox.events.MailboxEvents.Expunged;
+import org.apache.james.mailbox.events.MailboxEvents.FlagsUpdated;
+import org.apache.james.mailbox.events.MailboxEvents.MailboxEvent;
+import org.apache.james.mailbox.events.MailboxEvents.MailboxRenamed;
+import org.apache.james.mailbox.events.MailboxIdRegistrationKey;
+import org.apache.james.mailbox.exception.MailboxException;
+import org.apache.james.mailbox.exception.MailboxNotFoundException;
+import org.apache.james.mailbox.model.MailboxId;
+import org.apache.james.mailbox.model.MailboxPath;
+import org.reactivestreams.Publisher;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * {@link MailboxNotifications} listening to the {@link EventBus} for the watched mailboxes, and reporting the
+ * changed ones with STATUS responses (RFC-5465 section 5.1).
+ *
+ * Events are matched against the event groups when they are received: a mailbox matching several event groups is
+ * notified according to the first one. Mailboxes of the <code>personal</code> and <code>subtree</code> event groups
+ * are matched by path. The mailboxes to listen to are resolved again before sending unsolicited responses once
+ * mailboxes were created or renamed by the session, a watched mailbox was renamed, or the last resolution is older
+ * than {@link #DYNAMIC_RESOLUTION_TTL}, so that mailboxes created or renamed after NOTIFY was issued are watched too.
+ *
+ * Several events for a given mailbox only result in one STATUS response, computed from the mailbox counters
+ * when the responses are sent.
+ */
+public class MailboxNotificationsImpl implements MailboxNotifications, EventListener.ReactiveEventListener {
+    public static final ImmutableSet<NotifyRequest.Event> SUPPORTED_EVENTS = ImmutableSet.of(
+        NotifyRequest.Event.MESSAGE_NEW,
+        NotifyRequest.Event.MESSAGE_EXPUNGE,
+        NotifyRequest.Event.FLAG_CHANGE);
+
+    /**
+     * Mailboxes of an event group.
+     */
+    public sealed interface MailboxSelector {
+        /**
+         * Mailboxes resolved when NOTIFY is issued.
+         */
+        record Resolved(Set<MailboxId> mailboxIds) implements MailboxSelector {
+
+        }
+
+        /**
+         * Mailboxes matched by path when events are received.
+         *
+         * @param paths matches the paths of the selected mailboxes
+         * @param mailboxIds lists the mailboxes currently matching, to be listened to
+         */
+        record Dynamic(Predicate<MailboxPath> paths, Supplier<Flux<MailboxId>> mailboxIds) implements MailboxSelector {
+
+        }
+    }
+
+    public record WatchedGroup(MailboxSelector selector, Set<NotifyRequest.Event> events) {
+
+    }
+
+    public static final Duration DYNAMIC_RESOLUTION_TTL = Duration.ofMinutes(1);
+    private static final boolean RELATIVE = true;
+
+    private final MailboxManager mailboxManager;
+    private final EventBus eventBus;
+    private final MailboxSession mailboxSession;
+    private final PathConverter pathConverter;
+    private final List<WatchedGroup> watchedGroups;
+    private final Set<MailboxId> listenedMailboxes = ConcurrentHashMap.newKeySet();
+    private final Queue<Registration> registrations = new ConcurrentLinkedQueue<>();
+    private final Set<MailboxId> changedMailboxes = new LinkedHashSet<>();
+    private final AtomicReference<ReactiveEventListener> idleEventListener = new AtomicReference<>();
+    private final AtomicBoolean structureChanged = new AtomicBoolean(false);
+    private final AtomicLong lastResolution = new AtomicLong(System.nanoTime());
+
+    public MailboxNotificationsImpl(MailboxManager mailboxManager, EventBus eventBus, MailboxSession mailboxSession,
+                                    PathConverter pathConverter, List<WatchedGroup> watchedGroups) {
+        this.mailboxManager = mailboxManager;
+        this.eventBus = eventBus;
+        this.mailboxSession = mailboxSession;
+        this.pathConverter = pathConverter;
+        this.watchedGroups = ImmutableList.copyOf(watchedGroups);
+    }
+
+    public Mono<Void> register() {
+        return listen(watchedGroups);
+    }
+
+    @Override
+    public void mailboxesChanged() {
+        structureChanged.set(true);
+    }
+
+    /**
+     * Listens to the mailboxes of the dynamic event groups that are not listened to yet, when they might have changed.
+     */
+    private Mono<Void> refresh() {
+        long now = System.nanoTime();
+        boolean expired = now - lastResolution.get() >= DYNAMIC_RESOLUTION_TTL.toNanos();
+        if (!structureChanged.getAndSet(false) && !expired) {
+            return Mono.empty();
+        }
+        lastResolution.set(now);
+        return listen(watchedGroups.stream()
+            .filter(watchedGroup -> watchedGroup.selector() instanceof MailboxSelector.Dynamic)
+            .collect(ImmutableList.toImmutableList()));
+    }
+
+    private Mono<Void> listen(List<WatchedGroup> groups) {
+        return Flux.fromIterable(groups)
+            .filter(watchedGroup -> !watchedGroup.events().isEmpty())
+            .concatMap(watchedGroup -> mailboxIds(watchedGroup.selector()))
+            .filter(listenedMailboxes::add)
+            .map(MailboxIdRegistrationKey::new)
+            .collect(ImmutableList.<RegistrationKey>toImmutableList())
+            .filter(keys -> !keys.isEmpty())
+            .flatMap(keys -> Mono.from(eventBus.register(this, keys)))
+            .doOnNext(registrations::add)
+            .then();
+    }
+
+    private Flux<MailboxId> mailboxIds(MailboxSelector selector) {
+        return switch (selector) {
+            case MailboxSelector.Resolved resolved -> Flux.fromIterable(resolved.mailboxIds());
+            case MailboxSelector.Dynamic dynamic -> dynamic.mailboxIds().get();
+        };
+    }
+
+    /**
+     * Marks all the watched mailboxes as changed, so that their STATUS is sent with the next unsolicited responses.
+     */
+    public void markAllChanged() {
+        synchronized (changedMailboxes) {
+            changedMailboxes.addAll(listenedMailboxes);
+        }
+    }
+
+    @Override
+    public Mono<Void> unregister() {
+        ImmutableList<Registration> currentRegistrations = ImmutableList.copyOf(registrations);
+        registrations.removeAll(currentRegistrations);
+        return Flux.fromIterable(currentRegistrations)
+            .concatMap(Registration::unregister)
+            .then();
+    }
+
+    @Override
+    public void registerIdle(ReactiveEventListener idle) {
+        idleEventListener.set(idle);
+    }
+
+    @Override
+    public void unregisterIdle() {
+        idleEventListener.set(null);
+    }
+
+    @Override
+    public boolean isHandling(Event event) {
+        return event instanceof MailboxRenamed || isNotified(event);
+    }
+
+    private boolean isNotified(Event event) {
+        return asNotifyEvent(event)
+            .map(notifyEvent -> {
+                MailboxEvent mailboxEvent = (MailboxEvent) event;
+                return watchedEvents(mailboxEvent.getMailboxId(), mailboxEvent.getMailboxPath()).contains(notifyEvent);
+            })
+            .orElse(false);
+    }
+
+    private Set<NotifyRequest.Event> watchedEvents(MailboxId mailboxId, MailboxPath path) {
+        return watchedGroups.stream()
+            .filter(watchedGroup -> matches(watchedGroup.selector(), mailboxId, path))
+            .findFirst()
+            .map(WatchedGroup::events)
+            .orElse(ImmutableSet.of());
+    }
+
+    private boolean matches(MailboxSelector selector, MailboxId mailboxId, MailboxPath path) {
+        return switch (selector) {
+            case MailboxSelector.Resolved resolved -> resolved.mailboxIds().contains(mailboxId);
+            case MailboxSelector.Dynamic dynamic -> dynamic.paths().test(path);
+        };
+    }
+
+    @Override
+    public Publisher<Void> reactiveEvent(Event event) {
+        if (event instanceof MailboxRenamed) {
+            mailboxesChanged();
+            return Mono.empty();
+        }
+        if (!isNotified(event)) {
+            return Mono.empty();
+        }
+        synchronized (changedMailboxes) {
+            changedMailboxes.add(((MailboxEvent) event).getMailboxId());
+        }
+        return Optional.ofNullable(idleEventListener.get())
+            .map(idle -> Mono.from(idle.reactiveEvent(event)))
+            .orElse(Mono.empty());
+    }
+
+    private Optional<NotifyRequest.Event> asNotifyEvent(Event event) {
+        if (event instanceof Added) {
+            return Optional.of(NotifyRequest.Event.MESSAGE_NEW);
+        }
+        if (event instanceof Expunged) {
+            return Optional.of(NotifyRequest.Event.MESSAGE_EXPUNGE);
+        }
+        if (event instanceof FlagsUpdated) {
+            return Optional.of(NotifyRequest.Event.FLAG_CHANGE);
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public Flux<ImapResponseMessage> pendingResponses(ImapSession session) {
+        Optional<MailboxId> selectedMailboxId = Optional.ofNullable(session.getSelected())
+            .map(SelectedMailbox::getMailboxId);
+        boolean condstore = EnableProcessor.getEnabledCapabilities(session).contains(ImapConstants.SUPPORTS_CONDSTORE);
+
+        return refresh()
+            .thenMany(Flux.defer(() -> Flux.fromIterable(pollChangedMailboxes())))
+            .filter(mailboxId -> selectedMailboxId.filter(mailboxId::equals).isEmpty())
+            .concatMap(mailboxId -> statusResponse(mailboxId, condstore));
+    }
+
+    private ImmutableList<MailboxId> pollChangedMailboxes() {
+        synchronized (changedMailboxes) {
+            ImmutableList<MailboxId> result = ImmutableList.copyOf(changedMailboxes);
+            changedMailboxes.clear();
+            return result;
+        }
+    }
+
+    private Mono<ImapResponseMessage> statusResponse(MailboxId mailboxId, boolean condstore) {
+        return Mono.from(mailboxManager.getMailboxReactive(mailboxId, mailboxSession))
+            // The mailbox might have been renamed out of the watched ones
+            .filter(mailbox -> !watchedEvents(mailboxId, mailbox.getMailboxPath()).isEmpty())
+            .flatMap(mailbox -> Mono.justOrEmpty(pathConverter.mailboxName(RELATIVE, mailbox.getMailboxPath(), mailboxSession))
+                // Mailboxes the session can not name are not notified
+                .flatMap(mailboxName -> retrieveMetadata(mailbox, condstore)
+                    .map(metaData -> statusResponse(mailboxName, metaData, condstore))))
+            // The mailbox might have been deleted meanwhile
+            .onErrorResume(MailboxNotFoundException.class, e -> Mono.empty());
+    }
+
+    private Mono<MessageManager.MailboxMetaData> retrieveMetadata(MessageManager mailbox, boolean condstore) {
+        EnumSet<MessageManager.MailboxMetaData.Item> items = EnumSet.of(MessageManager.MailboxMetaData.Item.MailboxCounters,
+            MessageManager.MailboxMetaData.Item.NextUid);
+        if (condstore) {
+            items.add(MessageManager.MailboxMetaData.Item.HighestModSeq);
+        }
+        try {
+            return mailbox.getMetaDataReactive(IGNORE, mailboxSession, items);
+        } catch (MailboxException e) {
+            return Mono.error(e);
+        }
+    }
+
+    private ImapResponseMessage statusResponse(String mailboxName, MessageManager.MailboxMetaData metaData, boolean condstore) {
+        ModSeq highestModSeq = condstore ? metaData.getHighestModSeq() : null;
+
+        return new MailboxStatusResponse(null, null, null, null,
+            metaData.getMessageCount(), null, metaData.getUidNext(), highestModSeq,
+            metaData.getUidValidity(), metaData.getUnseenCount(), mailboxName, null);
+    }
+}
@@ -0,0 +1,283 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.imap.processor.base;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.james.imap.message.response.ThreadResponse;
+import org.apache.james.mailbox.model.BaseSubject;
+
+import com.google.common.collect.ImmutableList;
+
+/**
+ * RFC-5256 REFERENCES threading algorithm: messages are linked to their parents using their Message-ID,
+ * References and In-Reply-To headers, then root messages sharing the same base subject are gathered together.
+ */
+public class ReferencesThreader {
+    private static final Pattern MESSAGE_ID = Pattern.compile("<([^<>]+)>");
+
+    /**
+     * @param id the number or the UID of the message
+     * @param messageId the value of the Message-ID header
+     * @param references the value of the References header
+     * @param inReplyTo the value of the In-Reply-To header
+     * @param subject the value of the Subject header
+     */
+    public record Message(long id, Optional<String> messageId, Optional<String> references, Optional<String> inReplyTo,
+                          Optional<String> subject) {
+
+    }
+
+    private static class Container {
+        private Message message;
+        private int order;
+        private Container parent;
+        private final List<Container> children = new ArrayList<>();
+
+        boolean isDummy() {
+            return message == null;
+        }
+
+        /**
+         * The message whose subject is the one of this container: the first child of a dummy.
+         */
+        Optional<Message> subjectMessage() {
+            if (isDummy()) {
+                return children.stream()
+                    .findFirst()
+                    .flatMap(Container::subjectMessage);
+            }
+            return Optional.of(message);
+        }
+
+        boolean isAncestorOf(Container container) {
+            for (Container current = container; current != null; current = current.parent) {
+                if (current == this) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        void addChild(Container child) {
+            if (child.parent != null) {
+                child.parent.children.remove(child);
+            }
+            child.parent = this;
+            children.add(child);
+        }
+
+        void unlink() {
+            if (parent != null) {
+                parent.children.remove(this);
+                parent = null;
+            }
+        }
+    }
+
+    /**
+     * @param messages the messages to thread, ordered by sent date
+     * @return the threads, ordered by the sent date of their first message
+     */
+    public static List<ThreadResponse.Node> thread(List<Message> messages) {
+        List<Container> roots = prune(link(messages), true);
+        List<Container> gathered = gatherBySubject(roots);
+        sort(gathered);
+        return gathered.stream()
+            .map(ReferencesThreader::asNode)
+            .collect(ImmutableList.toImmutableList());
+    }
+
+    /**
+     * Step 1 and 2: links the messages to their parents, and returns the containers without parents.
+     */
+    private static List<Container> link(List<Message> messages) {
+        Map<String, Container> idTable = new HashMap<>();
+        Set<Container> containers = new LinkedHashSet<>();
+        for (int order = 0; order < messages.size(); order++) {
+            Message message = messages.get(order);
+            Container container = message.messageId()
+                .flatMap(ReferencesThreader::firstMessageId)
+                .map(messageId -> idTable.computeIfAbsent(messageId, any -> new Container()))
+                // Missing or duplicated Message-ID: the message gets a unique container
+                .filter(Container::isDummy)
+                .orElseGet(Container::new);
+            container.message = message;
+            container.order = order;
+            containers.add(container);
+
+            Container previous = null;
+            for (String reference : references(message)) {
+                Container referenced = idTable.computeIfAbsent(reference, any -> new Container());
+                containers.add(referenced);
+                if (previous != null && referenced.parent == null && !referenced.isAncestorOf(previous)) {
+                    previous.addChild(referenced);
+                }
+                previous = referenced;
+            }
+
+            // The references might have been truncated: the last one is the actual parent
+            container.unlink();
+            if (previous != null && !container.isAncestorOf(previous)) {
+                previous.addChild(container);
+            }
+        }
+        return containers.stream()
+            .filter(container -> container.parent == null)
+            .collect(ImmutableList.toImmutableList());
+    }
+
+    private static List<String> references(Message message) {
+        List<String> references = message.references()
+            .map(ReferencesThreader::messageIds)
+            .orElse(ImmutableList.of());
+        if (!references.isEmpty()) {
+            return references;
+        }
+        return message.inReplyTo()
+            .flatMap(ReferencesThreader::firstMessageId)
+            .map(ImmutableList::of)
+            .orElse(ImmutableList.of());
+    }
+
+    private static List<String> messageIds(String value) {
+        ImmutableList.Builder<String> result = ImmutableList.builder();
+        Matcher matcher = MESSAGE_ID.matcher(value);
+        while (matcher.find()) {
+            result.add(matcher.group(1).trim());
+        }
+        return result.build();
+    }
+
+    private static Optional<String> firstMessageId(String value) {
+        return messageIds(value).stream().findFirst();
+    }
+
+    /**
+     * Step 4: removes the dummies without children, and replaces the other ones by their children, unless that
+     * would turn several children into roots.
+     */
+    private static List<Container> prune(List<Container> containers, boolean rootLevel) {
+        List<Container> result = new ArrayList<>();
+        for (Container container : containers) {
+            List<Container> children = prune(ImmutableList.copyOf(container.children), false);
+            container.children.clear();
+            children.forEach(child -> child.parent = container);
+            container.children.addAll(children);
+
+            if (container.isDummy() && (!rootLevel || children.size() <= 1)) {
+                children.forEach(child -> child.parent = container.parent);
+                result.addAll(children);
+            } else {
+                result.add(container);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Step 5: gathers the roots sharing the same base subject.
+     */
+    private static List<Container> gatherBySubject(List<Container> roots) {
+        Map<String, Container> subjectTable = new HashMap<>();
+        for (Container root : roots) {
+            baseSubject(root).ifPresent(subject -> {
+                Container current = subjectTable.get(subject);
+                if (current == null
+                    || (!current.isDummy() && root.isDummy())
+                    || (isReplyOrForward(current) && !isReplyOrForward(root))) {
+                    subjectTable.put(subject, root);
+                }
+            });
+        }
+
+        List<Container> result = new ArrayList<>(roots);
+        for (Container root : roots) {
+            Optional<String> subject = baseSubject(root);
+            Container current = subject.map(subjectTable::get).orElse(root);
+            if (current == root) {
+                continue;
+            }
+            result.remove(root);
+            if (current.isDummy() && root.isDummy()) {
+                ImmutableList.copyOf(root.children).forEach(current::addChild);
+            } else if (current.isDummy() || (isReplyOrForward(root) && !isReplyOrForward(current))) {
+                current.addChild(root);
+            } else {
+                Container dummy = new Container();
+                result.set(result.indexOf(current), dummy);
+                dummy.addChild(current);
+                dummy.addChild(root);
+                subjectTable.put(subject.get(), dummy);
+            }
+        }
+        return result;
+    }
+
+    private static Optional<String> baseSubject(Container container) {
+        return container.subjectMessage()
+            .flatMap(Message::subject)
+            .map(BaseSubject::extract)
+            .filter(subject -> !subject.isEmpty())
+            .map(subject -> subject.toLowerCase(Locale.US));
+    }
+
+    private static boolean isReplyOrForward(Container container) {
+        return container.subjectMessage()
+            .flatMap(Message::subject)
+            .map(BaseSubject::isReplyOrForward)
+            .orElse(false);
+    }
+
+    /**
+     * Step 6: sorts the siblings by sent date. A dummy is sorted according to its first child.
+     */
+    private static void sort(List<Container> containers) {
+        containers.forEach(container -> sort(container.children));
+        containers.sort(Comparator.comparingInt(ReferencesThreader::order));
+    }
+
+    private static int order(Container container) {
+        if (container.isDummy()) {
+            return order(container.children.get(0));
+        }
+        return container.order;
+    }
+
+    private static ThreadResponse.Node asNode(Container container) {
+        List<ThreadResponse.Node> children = container.children.stream()
+            .map(ReferencesThreader::asNode)
+            .collect(ImmutableList.toImmutableList());
+        if (container.isDummy()) {
+            return ThreadResponse.Node.missing(children);
+        }
+        return new ThreadResponse.Node(container.message.id(), children);
+    }
+}
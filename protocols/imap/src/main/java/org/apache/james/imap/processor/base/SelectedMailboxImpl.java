@@ -23,15 +23,18 @@ import static io.vavr.API.$;
 import static io.vavr.API.Case;
 import static io.vavr.API.Match;
 import static io.vavr.Predicates.instanceOf;
+import static org.apache.james.mailbox.MessageManager.MailboxMetaData.RecentMode.IGNORE;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.EnumSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.TreeSet;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.StampedLock;
 
@@ -60,6 +63,7 @@ import org.apache.james.mailbox.exception.MailboxException;
 import org.apache.james.mailbox.model.MailboxId;
 import org.apache.james.mailbox.model.MailboxPath;
 import org.apache.james.mailbox.model.MessageMetaData;
+import org.apache.james.mailbox.model.MessageRange;
 import org.apache.james.mailbox.model.SearchQuery;
 import org.apache.james.mailbox.model.UpdatedFlags;
 import org.reactivestreams.Publisher;
@@ -79,6 +83,9 @@ import reactor.core.scheduler.Schedulers;
 public class SelectedMailboxImpl implements SelectedMailbox, EventListener.ReactiveEventListener {
     private static final Void VOID = null;
     private static final Flag UNINTERESTING_FLAGS = Flag.RECENT;
+    private static final int UID_LOADING_PAGE_SIZE = 1024;
+    private static final long LAST_UID_LOOKUP_WINDOW = 64;
+    private static final long LAST_UID_LOOKUP_WINDOW_GROWTH = 16;
 
     @VisibleForTesting
     static class ApplicableFlags {
@@ -128,6 +135,9 @@ public class SelectedMailboxImpl implements SelectedMailbox, EventListener.React
     private final EventBus eventBus;
     private final MailboxSession mailboxSession;
     private final UidMsnConverter uidMsnConverter;
+    private final boolean uidOnly;
+    private final AtomicLong uidOnlyMessageCount = new AtomicLong();
+    private final AtomicReference<Optional<MessageUid>> uidOnlyLastUid = new AtomicReference<>(Optional.empty());
     private final Set<MessageUid> recentUids = new TreeSet<>();
     private final Set<MessageUid> flagUpdateUids = new TreeSet<>();
     private final Set<MessageUid> expungedUids = new TreeSet<>();
@@ -141,12 +151,21 @@ public class SelectedMailboxImpl implements SelectedMailbox, EventListener.React
     private ApplicableFlags applicableFlags = ApplicableFlags.from(new Flags());
 
     public SelectedMailboxImpl(MailboxManager mailboxManager, EventBus eventBus, MailboxSession session, MessageManager messageManager) {
+        this(mailboxManager, eventBus, session, messageManager, false);
+    }
+
+    /**
+     * @param uidOnly when true, as UIDONLY was enabled (RFC-9586), the UIDs of the mailbox are not loaded: only the
+     *                message count and the last UID are tracked.
+     */
+    public SelectedMailboxImpl(MailboxManager mailboxManager, EventBus eventBus, MailboxSession session, MessageManager messageManager, boolean uidOnly) {
         this.eventBus = eventBus;
         this.mailboxManager = mailboxManager;
         this.messageManager = messageManager;
         this.mailboxSession = session;
         this.uidMsnConverter = new UidMsnConverter();
         this.mailboxId = messageManager.getId();
+        this.uidOnly = uidOnly;
     }
 
     public Mono<Void> finishInit() throws MailboxException {
@@ -161,12 +180,51 @@ public class SelectedMailboxImpl implements SelectedMailbox, EventListener.React
                     applicableFlags = applicableFlags.updateWithNewFlags(flags);
                     applicableFlagsLock.unlockWrite(stamp);
                 }))
-            .then(Flux.from(messageManager.search(SearchQuery.of(SearchQuery.all()), mailboxSession))
-                .collect(ImmutableList.toImmutableList())
-                .doOnNext(uidMsnConverter::addAll))
+            .then(Mono.defer(Throwing.supplier(() -> {
+                if (uidOnly) {
+                    return loadUidOnlyState();
+                }
+                return loadUids();
+            }).sneakyThrow()))
             .then();
     }
 
+    private Mono<Void> loadUids() throws MailboxException {
+        // Loading by pages avoids materializing all the UIDs of large mailboxes twice
+        return Flux.from(messageManager.search(SearchQuery.of(SearchQuery.all()), mailboxSession))
+            .buffer(UID_LOADING_PAGE_SIZE)
+            .doOnNext(uidMsnConverter::addAll)
+            .then(Mono.fromRunnable(uidMsnConverter::trim));
+    }
+
+    private Mono<Void> loadUidOnlyState() throws MailboxException {
+        return messageManager.getMetaDataReactive(IGNORE, mailboxSession, EnumSet.of(MessageManager.MailboxMetaData.Item.MailboxCounters, MessageManager.MailboxMetaData.Item.NextUid))
+            .flatMap(metaData -> retrieveLastUid(metaData.getUidNext(), LAST_UID_LOOKUP_WINDOW)
+                .doOnNext(lastUid -> {
+                    synchronized (this) {
+                        uidOnlyMessageCount.set(metaData.getMessageCount());
+                        uidOnlyLastUid.set(lastUid);
+                    }
+                }))
+            .then();
+    }
+
+    /**
+     * Looks for the greatest UID below the given one, by listing windows of growing size.
+     */
+    private Mono<Optional<MessageUid>> retrieveLastUid(MessageUid upperBound, long window) {
+        if (upperBound.isFirst()) {
+            return Mono.just(Optional.empty());
+        }
+        MessageUid to = upperBound.previous();
+        MessageUid from = MessageUid.of(Math.max(MessageUid.MIN_VALUE.asLong(), to.asLong() - window + 1));
+        return Flux.from(messageManager.listMessagesMetadata(MessageRange.range(from, to), mailboxSession))
+            .map(metaData -> metaData.getComposedMessageId().getUid())
+            .reduce((uid1, uid2) -> uid1.compareTo(uid2) > 0 ? uid1 : uid2)
+            .map(Optional::of)
+            .switchIfEmpty(Mono.defer(() -> retrieveLastUid(from, window * LAST_UID_LOOKUP_WINDOW_GROWTH)));
+    }
+
     @Override
     public void registerIdle(ReactiveEventListener idle) {
         idleEventListener.set(idle);
@@ -189,6 +247,9 @@ public class SelectedMailboxImpl implements SelectedMailbox, EventListener.React
 
     @Override
     public Optional<MessageUid> getLastUid() {
+        if (uidOnly) {
+            return uidOnlyLastUid.get();
+        }
         return uidMsnConverter.getLastUid();
     }
 
@@ -301,6 +362,10 @@ public class SelectedMailboxImpl implements SelectedMailbox, EventListener.React
 
     @Override
     public NullableMessageSequenceNumber remove(MessageUid uid) {
+        if (uidOnly) {
+            uidOnlyMessageCount.updateAndGet(count -> Math.max(0, count - 1));
+            return NullableMessageSequenceNumber.noMessage();
+        }
         return uidMsnConverter.getAndRemove(uid);
     }
 
@@ -402,10 +467,23 @@ public class SelectedMailboxImpl implements SelectedMailbox, EventListener.React
     public Publisher<Void> reactiveEvent(Event event) {
         return Mono.fromRunnable(() -> synchronizedEvent(event))
             .subscribeOn(Schedulers.boundedElastic())
+            .then(refreshLastUidIfExpunged(event))
             .then(Mono.fromCallable(idleEventListener::get)
                 .flatMap(listener -> Mono.from(listener.reactiveEvent(event))));
     }
 
+    private Mono<Void> refreshLastUidIfExpunged(Event event) {
+        if (!uidOnly || !(event instanceof Expunged expunged)) {
+            return Mono.empty();
+        }
+        return Mono.justOrEmpty(uidOnlyLastUid.get())
+            .filter(lastUid -> expunged.getUids().contains(lastUid))
+            .flatMap(lastUid -> retrieveLastUid(lastUid, LAST_UID_LOOKUP_WINDOW)
+                // Only replace the expunged UID, a greater one might have been added meanwhile
+                .doOnNext(newLastUid -> uidOnlyLastUid.updateAndGet(current -> current.equals(Optional.of(lastUid)) ? newLastUid : current)))
+            .then();
+    }
+
     private synchronized void synchronizedEvent(Event event) {
         if (event instanceof MailboxEvent) {
             MailboxEvent mailboxEvent = (MailboxEvent) event;
@@ -475,7 +553,11 @@ public class SelectedMailboxImpl implements SelectedMailbox, EventListener.React
 
     private Void handleAddition(Added added) {
         sizeChanged.set(true);
-        uidMsnConverter.addAll(added.getUids());
+        if (uidOnly) {
+            handleUidOnlyAddition(added.getUids());
+        } else {
+            uidMsnConverter.addAll(added.getUids());
+        }
         recentUids.addAll(added.getUids());
         long stamp = applicableFlagsLock.writeLock();
         applicableFlags = updateApplicableFlags(applicableFlags, added);
@@ -483,6 +565,20 @@ public class SelectedMailboxImpl implements SelectedMailbox, EventListener.React
         return VOID;
     }
 
+    private void handleUidOnlyAddition(Collection<MessageUid> addedUids) {
+        // UIDs below the last known one are already accounted for
+        Optional<MessageUid> lastUid = uidOnlyLastUid.get();
+        List<MessageUid> newUids = addedUids.stream()
+            .filter(uid -> lastUid.map(last -> uid.compareTo(last) > 0).orElse(true))
+            .collect(ImmutableList.toImmutableList());
+        uidOnlyMessageCount.addAndGet(newUids.size());
+        newUids.stream()
+            .max(MessageUid::compareTo)
+            .ifPresent(newLastUid -> uidOnlyLastUid.updateAndGet(current -> current
+                .filter(currentUid -> currentUid.compareTo(newLastUid) > 0)
+                .or(() -> Optional.of(newLastUid))));
+    }
+
     @VisibleForTesting
     static ApplicableFlags updateApplicableFlags(ApplicableFlags applicableFlags, FlagsUpdated flagsUpdated) {
         Flags updatedFlags = mergeAllNewFlags(flagsUpdated);
@@ -527,6 +623,14 @@ public class SelectedMailboxImpl implements SelectedMailbox, EventListener.React
     
     @Override
     public long existsCount() {
+        if (uidOnly) {
+            return uidOnlyMessageCount.get();
+        }
         return uidMsnConverter.getNumMessage();
     }
+
+    @Override
+    public boolean isUidOnly() {
+        return uidOnly;
+    }
 }
@@ -55,6 +55,10 @@ public class UidMsnConverter {
     }
 
     private void addAllUnSynchronized(Collection<MessageUid> addedUids) {
+        if (canAppend(addedUids)) {
+            appendAll(addedUids);
+            return;
+        }
         if (usesInts) {
             if (uidsAsInts.isEmpty()) {
                 // Avoids intermediary tree structure
@@ -72,6 +76,41 @@ public class UidMsnConverter {
         }
     }
 
+    /**
+     * UIDs are most of the time added in ascending order, after the known ones, for instance when loading a mailbox
+     * by pages or upon new messages: they can then be appended without sorting.
+     */
+    private boolean canAppend(Collection<MessageUid> addedUids) {
+        long previous = lastUidAsLong();
+        for (MessageUid uid : addedUids) {
+            if (uid.asLong() <= previous) {
+                return false;
+            }
+            previous = uid.asLong();
+        }
+        return true;
+    }
+
+    private long lastUidAsLong() {
+        if (usesInts) {
+            return uidsAsInts.isEmpty() ? 0 : uidsAsInts.getInt(uidsAsInts.size() - 1);
+        }
+        return uids.isEmpty() ? 0 : uids.getLong(uids.size() - 1);
+    }
+
+    private void appendAll(Collection<MessageUid> addedUids) {
+        for (MessageUid uid : addedUids) {
+            if (usesInts && uid.asLong() > INTEGER_MAX_VALUE) {
+                switchToLongs();
+            }
+            if (usesInts) {
+                uidsAsInts.add((int) uid.asLong());
+            } else {
+                uids.add(uid.asLong());
+            }
+        }
+    }
+
     private void addAllToNonEmptyLongStructure(Collection<MessageUid> addedUids) {
         LongAVLTreeSet tmp = new LongAVLTreeSet(uids);
         for (MessageUid uid : addedUids) {
@@ -230,6 +269,14 @@ public class UidMsnConverter {
         uidsAsInts.clear();
     }
 
+    /**
+     * Releases the memory reserved ahead by the underlying arrays, once the UIDs of the mailbox are loaded.
+     */
+    public synchronized void trim() {
+        uids.trim();
+        uidsAsInts.trim();
+    }
+
     public synchronized void addUid(MessageUid uid) {
         addUidUnSynchronized(uid);
     }
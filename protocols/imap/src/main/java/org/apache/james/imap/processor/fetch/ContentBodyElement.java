@@ -24,11 +24,13 @@ package org.apache.james.imap.processor.fetch;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.util.Optional;
 
 import org.apache.james.imap.message.response.FetchResponse.BodyElement;
 import org.apache.james.mailbox.exception.MailboxException;
 import org.apache.james.mailbox.model.Content;
+import org.reactivestreams.Publisher;
 
 class ContentBodyElement implements BodyElement {
     private final String name;
@@ -58,6 +60,11 @@ class ContentBodyElement implements BodyElement {
         return content.asBytesSequence();
     }
 
+    @Override
+    public Optional<Publisher<ByteBuffer>> asReactiveBytes() {
+        return Optional.of(content.reactiveBytes());
+    }
+
     @Override
     public InputStream getInputStream() throws IOException {
         return content.getInputStream();
@@ -31,6 +31,7 @@ import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -40,6 +41,7 @@ import java.util.concurrent.atomic.AtomicReference;
 import jakarta.inject.Inject;
 
 import org.apache.commons.configuration2.Configuration;
+import org.apache.commons.lang3.tuple.Pair;
 import org.apache.james.core.Username;
 import org.apache.james.imap.api.ImapConstants;
 import org.apache.james.imap.api.display.HumanReadableText;
@@ -67,6 +69,7 @@ import org.apache.james.mailbox.model.MessageRange;
 import org.apache.james.mailbox.model.MessageResult;
 import org.apache.james.metrics.api.Metric;
 import org.apache.james.metrics.api.MetricFactory;
+import org.apache.james.metrics.api.NoopGaugeRegistry;
 import org.apache.james.util.AuditTrail;
 import org.apache.james.util.DurationParser;
 import org.apache.james.util.MDCBuilder;
@@ -237,16 +240,26 @@ public class FetchProcessor extends AbstractMailboxProcessor<FetchRequest> {
     }
 
     private static final Logger LOGGER = LoggerFactory.getLogger(FetchProcessor.class);
+    private static final int FETCH_RESPONSE_CACHE_BATCH_SIZE = 256;
 
     private final LocalCacheConfiguration localCacheConfiguration;
+    private final FetchResponseCache fetchResponseCache;
     private final Metric localCacheHitMetric;
     private final Metric localCacheMissMetric;
 
-    @Inject
     public FetchProcessor(MailboxManager mailboxManager, StatusResponseFactory factory,
                           MetricFactory metricFactory, LocalCacheConfiguration localCacheConfiguration) {
+        this(mailboxManager, factory, metricFactory, localCacheConfiguration,
+            new FetchResponseCache(FetchResponseCache.Configuration.DEFAULT, metricFactory, new NoopGaugeRegistry()));
+    }
+
+    @Inject
+    public FetchProcessor(MailboxManager mailboxManager, StatusResponseFactory factory,
+                          MetricFactory metricFactory, LocalCacheConfiguration localCacheConfiguration,
+                          FetchResponseCache fetchResponseCache) {
         super(FetchRequest.class, mailboxManager, factory, metricFactory);
         this.localCacheConfiguration = localCacheConfiguration;
+        this.fetchResponseCache = fetchResponseCache;
 
         this.localCacheHitMetric = metricFactory.generate("imap-fetch-local-cache-hit");
         this.localCacheMissMetric = metricFactory.generate("imap-fetch-local-cache-miss");
@@ -260,6 +273,10 @@ public class FetchProcessor extends AbstractMailboxProcessor<FetchRequest> {
         FetchData fetch = computeFetchData(request, session);
         long changedSince = fetch.getChangedSince();
 
+        if (rejectMessageSequenceNumbers(request, session, request.isUseUids(), responder)) {
+            return Mono.empty();
+        }
+
         return Mono.fromCallable(() -> Optional.ofNullable(session.getSelected()))
             .<SelectedMailbox>handle((a, sink) -> a.ifPresentOrElse(sink::next, () -> sink.error(new MailboxException("Session not in SELECTED state"))))
             .flatMap(selected -> processFetch(request, session, responder, selected, fetch, changedSince))
@@ -320,13 +337,15 @@ public class FetchProcessor extends AbstractMailboxProcessor<FetchRequest> {
             }
         }
 
+        Mono<Void> vanishedResponses = Mono.empty();
         if (fetch.getVanished()) {
             // TODO: From the QRESYNC RFC it seems ok to send the VANISHED responses after the FETCH Responses.
             //       If we do so we could prolly save one mailbox access which should give use some more speed up
-            respondVanished(selected, ranges, responder);
+            vanishedResponses = respondVanished(selected, mailboxSession, ranges, responder);
         }
         boolean omitExpunged = (!request.isUseUids());
-        return processMessageRanges(selected, mailbox, ranges, fetch, mailboxSession, responder, session)
+        return vanishedResponses
+            .then(Mono.defer(() -> processMessageRanges(selected, mailbox, ranges, fetch, mailboxSession, responder, session)))
             // Don't send expunge responses if FETCH is used to trigger this
             // processor. See IMAP-284
             .then(unsolicitedResponses(session, responder, omitExpunged, request.isUseUids()))
@@ -351,7 +370,7 @@ public class FetchProcessor extends AbstractMailboxProcessor<FetchRequest> {
         FetchGroup resultToFetch = FetchDataConverter.getFetchGroup(fetch);
 
         if (fetch.isOnlyFlags()) {
-            return Flux.fromIterable(consolidate(selected, ranges, fetch))
+            return consolidate(selected, ranges, fetch, mailboxSession)
                 .concatMap(range -> Flux.from(mailbox.listMessagesMetadata(range, mailboxSession)))
                 .filter(ids -> !fetch.contains(Item.MODSEQ) || ids.getModSeq().asLong() > fetch.getChangedSince())
                 .concatMap(result -> toResponse(mailbox, fetch, mailboxSession, selected, result))
@@ -364,6 +383,8 @@ public class FetchProcessor extends AbstractMailboxProcessor<FetchRequest> {
             boolean shouldCache = fetch.getBodyElements().stream().anyMatch(bodyFetchElement -> bodyFetchElement.getNumberOfOctets() != null);
             if (singleMessage && shouldCache) {
                 publishMessagesWithCache(selected, mailbox, ranges, fetch, mailboxSession, imapSession, resultToFetch, fetchSubscriber);
+            } else if (fetchResponseCache.isCacheable(fetch)) {
+                publishMessagesWithFetchResponseCache(selected, mailbox, ranges, fetch, mailboxSession, resultToFetch, fetchSubscriber);
             } else {
                 publishMessagesWithoutCache(selected, mailbox, ranges, fetch, mailboxSession, resultToFetch, fetchSubscriber);
             }
@@ -393,7 +414,7 @@ public class FetchProcessor extends AbstractMailboxProcessor<FetchRequest> {
     }
 
     private void publishMessagesWithoutCache(SelectedMailbox selected, MessageManager mailbox, List<MessageRange> ranges, FetchData fetch, MailboxSession mailboxSession, FetchGroup resultToFetch, FetchSubscriber fetchSubscriber) {
-        Flux.fromIterable(consolidate(selected, ranges, fetch))
+        consolidate(selected, ranges, fetch, mailboxSession)
             .flatMap(range -> ReactorUtils.logAsMono(() -> auditTrail(mailbox, mailboxSession, resultToFetch, range)).thenReturn(range))
             .concatMap(range -> Flux.from(mailbox.getMessagesReactive(range, resultToFetch, mailboxSession)))
             .filter(ids -> !fetch.contains(Item.MODSEQ) || ids.getModSeq().asLong() > fetch.getChangedSince())
@@ -401,17 +422,74 @@ public class FetchProcessor extends AbstractMailboxProcessor<FetchRequest> {
             .subscribe(fetchSubscriber);
     }
 
-    List<MessageRange> consolidate(SelectedMailbox selected, List<MessageRange> ranges, FetchData fetchData) {
+    /**
+     * Lists the messages metadata, then only reads the content of the messages whose requested items are not all
+     * in the {@link FetchResponseCache}.
+     */
+    private void publishMessagesWithFetchResponseCache(SelectedMailbox selected, MessageManager mailbox, List<MessageRange> ranges, FetchData fetch, MailboxSession mailboxSession, FetchGroup resultToFetch, FetchSubscriber fetchSubscriber) {
+        consolidate(selected, ranges, fetch, mailboxSession)
+            .concatMap(range -> Flux.from(mailbox.getMessagesReactive(range, FetchGroup.MINIMAL, mailboxSession)))
+            .filter(ids -> !fetch.contains(Item.MODSEQ) || ids.getModSeq().asLong() > fetch.getChangedSince())
+            .buffer(FETCH_RESPONSE_CACHE_BATCH_SIZE)
+            .concatMap(batch -> {
+                Map<MessageUid, FetchResponseCache.Items> hits = batch.stream()
+                    .flatMap(result -> Optional.ofNullable(result.getMessageId())
+                        .flatMap(messageId -> fetchResponseCache.lookup(messageId, fetch))
+                        .map(items -> Pair.of(result.getUid(), items))
+                        .stream())
+                    .collect(ImmutableMap.toImmutableMap(Pair::getKey, Pair::getValue));
+                List<MessageUid> misses = batch.stream()
+                    .map(MessageResult::getUid)
+                    .filter(uid -> !hits.containsKey(uid))
+                    .collect(ImmutableList.toImmutableList());
+
+                return readMisses(mailbox, misses, mailboxSession, resultToFetch)
+                    .flatMapMany(missResults -> Flux.fromIterable(batch)
+                        .concatMap(result -> Optional.ofNullable(hits.get(result.getUid()))
+                            .map(items -> toResponse(mailbox, fetch, mailboxSession, selected, result, items))
+                            .or(() -> Optional.ofNullable(missResults.get(result.getUid()))
+                                .map(missResult -> toResponse(mailbox, fetch, mailboxSession, selected, missResult,
+                                    Optional.ofNullable(missResult.getMessageId())
+                                        .map(fetchResponseCache::loading)
+                                        .orElse(FetchResponseCache.Items.NONE))))
+                            .orElse(Mono.empty())));
+            })
+            .subscribe(fetchSubscriber);
+    }
+
+    private Mono<Map<MessageUid, MessageResult>> readMisses(MessageManager mailbox, List<MessageUid> misses, MailboxSession mailboxSession, FetchGroup resultToFetch) {
+        if (misses.isEmpty()) {
+            return Mono.just(ImmutableMap.of());
+        }
+        return Flux.fromIterable(MessageRange.toRanges(misses))
+            .flatMap(range -> ReactorUtils.logAsMono(() -> auditTrail(mailbox, mailboxSession, resultToFetch, range)).thenReturn(range))
+            .concatMap(range -> Flux.from(mailbox.getMessagesReactive(range, resultToFetch, mailboxSession)))
+            .collectMap(MessageResult::getUid);
+    }
+
+    Flux<MessageRange> consolidate(SelectedMailbox selected, List<MessageRange> ranges, FetchData fetchData, MailboxSession mailboxSession) {
         if (fetchData.getPartialRange().isEmpty()) {
-            return ranges;
+            return Flux.fromIterable(ranges);
         }
-        LongList longs = new LongArrayList();
-        selected.allUids()
-            .stream()
-            .filter(uid -> ranges.stream().anyMatch(range -> range.includes(uid)))
-            .forEach(uid -> longs.add(uid.asLong()));
-        LongList filter = fetchData.getPartialRange().get().filter(longs);
-        return MessageRange.toRanges(filter.longStream().mapToObj(MessageUid::of).collect(ImmutableList.toImmutableList()));
+        return uids(selected, ranges, mailboxSession)
+            .collect(LongArrayList::new, (longs, uid) -> longs.add(uid.asLong()))
+            .flatMapIterable(longs -> {
+                LongList filter = fetchData.getPartialRange().get().filter(longs);
+                return MessageRange.toRanges(filter.longStream().mapToObj(MessageUid::of).collect(ImmutableList.toImmutableList()));
+            });
+    }
+
+    private Flux<MessageUid> uids(SelectedMailbox selected, List<MessageRange> ranges, MailboxSession mailboxSession) {
+        if (selected.isUidOnly()) {
+            // The UIDs of the selected mailbox are not loaded, list the stored ones instead
+            return Flux.fromIterable(ranges)
+                .concatMap(range -> Flux.from(selected.getMessageManager().listMessagesMetadata(range, mailboxSession)))
+                .map(metaData -> metaData.getComposedMessageId().getUid())
+                .distinct()
+                .sort();
+        }
+        return Flux.fromIterable(selected.allUids())
+            .filter(uid -> ranges.stream().anyMatch(range -> range.includes(uid)));
     }
 
     private Mono<FetchResponse> toResponse(MessageManager mailbox, FetchData fetch, MailboxSession mailboxSession, SelectedMailbox selected, org.apache.james.mailbox.model.ComposedMessageIdWithMetaData result) {
@@ -434,8 +512,13 @@ public class FetchProcessor extends AbstractMailboxProcessor<FetchRequest> {
     }
 
     private Mono<FetchResponse> toResponse(MessageManager mailbox, FetchData fetch, MailboxSession mailboxSession, SelectedMailbox selected, MessageResult result) {
+        return toResponse(mailbox, fetch, mailboxSession, selected, result, FetchResponseCache.Items.NONE);
+    }
+
+    private Mono<FetchResponse> toResponse(MessageManager mailbox, FetchData fetch, MailboxSession mailboxSession, SelectedMailbox selected, MessageResult result,
+                                           FetchResponseCache.Items items) {
         try {
-            return new FetchResponseBuilder(new EnvelopeBuilder()).build(fetch, result, mailbox, selected, mailboxSession);
+            return new FetchResponseBuilder(new EnvelopeBuilder()).build(fetch, result, mailbox, selected, mailboxSession, items);
         } catch (MessageRangeException e) {
             // we can't for whatever reason find the message so
             // just skip it and log it to debug
@@ -121,74 +121,90 @@ public final class FetchResponseBuilder {
     }
 
     public Mono<FetchResponse> build(FetchData fetch, MessageResult result, MessageManager mailbox, SelectedMailbox selectedMailbox, MailboxSession mailboxSession) throws MessageRangeException, MailboxException {
+        return build(fetch, result, mailbox, selectedMailbox, mailboxSession, FetchResponseCache.Items.NONE);
+    }
+
+    /**
+     * @param items immutable items of this message, served from or stored into the {@link FetchResponseCache}
+     */
+    public Mono<FetchResponse> build(FetchData fetch, MessageResult result, MessageManager mailbox, SelectedMailbox selectedMailbox, MailboxSession mailboxSession,
+                                     FetchResponseCache.Items items) throws MessageRangeException, MailboxException {
         final MessageUid resultUid = result.getUid();
+        if (selectedMailbox.isUidOnly()) {
+            // UIDFETCH response, see RFC-9586
+            return build(fetch, result, mailbox, selectedMailbox, mailboxSession, items, null);
+        }
         return selectedMailbox.msn(resultUid).fold(() -> {
             throw new MessageRangeException("No such message found with uid " + resultUid);
-        }, msn -> {
-            reset(msn);
+        }, msn -> build(fetch, result, mailbox, selectedMailbox, mailboxSession, items, msn));
+    }
 
-            // INTERNALDATE response
-            if (fetch.contains(Item.INTERNAL_DATE)) {
-                setInternalDate(result.getInternalDate());
-            }
+    private Mono<FetchResponse> build(FetchData fetch, MessageResult result, MessageManager mailbox, SelectedMailbox selectedMailbox, MailboxSession mailboxSession,
+                                      FetchResponseCache.Items items, MessageSequenceNumber msn) throws MailboxException {
+        final MessageUid resultUid = result.getUid();
+        reset(msn);
 
-            // RFC822.SIZE response
-            if (fetch.contains(Item.SIZE)) {
-                setSize(result.getSize());
-            }
+        // INTERNALDATE response
+        if (fetch.contains(Item.INTERNAL_DATE)) {
+            setInternalDate(result.getInternalDate());
+        }
 
-            if (fetch.contains(Item.ENVELOPE)) {
-                this.envelope = buildEnvelope(result);
-            }
+        // RFC822.SIZE response
+        if (fetch.contains(Item.SIZE)) {
+            setSize(result.getSize());
+        }
 
-            // BODY part responses.
-            Collection<BodyFetchElement> elements = fetch.getBodyElements();
-            this.elements = new ArrayList<>();
-            for (BodyFetchElement fetchElement : elements) {
-                final FetchResponse.BodyElement element = bodyFetch(result, fetchElement);
-                if (element != null) {
-                    this.elements.add(element);
-                }
+        if (fetch.contains(Item.ENVELOPE)) {
+            this.envelope = items.envelope(() -> buildEnvelope(result));
+        }
+
+        // BODY part responses.
+        Collection<BodyFetchElement> elements = fetch.getBodyElements();
+        this.elements = new ArrayList<>();
+        for (BodyFetchElement fetchElement : elements) {
+            final FetchResponse.BodyElement element = items.bodyElement(fetchElement, () -> bodyFetch(result, fetchElement));
+            if (element != null) {
+                this.elements.add(element);
             }
+        }
 
-            // Only create when needed
-            if (fetch.contains(Item.BODY) || fetch.contains(Item.BODY_STRUCTURE)) {
-                // BODY response
-                //
-                // the STRUCTURE is only needed when no specific element is requested otherwise we don't need
-                // to access it and may be able to not parse the message
-                //
-                // See IMAP-333
-                if (fetch.contains(Item.BODY) && this.elements.isEmpty()) {
-                    body = new MimeDescriptorStructure(false, result.getMimeDescriptor(), envelopeBuilder);
-                }
+        // Only create when needed
+        if (fetch.contains(Item.BODY) || fetch.contains(Item.BODY_STRUCTURE)) {
+            // BODY response
+            //
+            // the STRUCTURE is only needed when no specific element is requested otherwise we don't need
+            // to access it and may be able to not parse the message
+            //
+            // See IMAP-333
+            if (fetch.contains(Item.BODY) && this.elements.isEmpty()) {
+                body = items.structure(false, () -> new MimeDescriptorStructure(false, result.getMimeDescriptor(), envelopeBuilder));
+            }
 
-                // BODYSTRUCTURE response
-                if (fetch.contains(Item.BODY_STRUCTURE)) {
-                    bodystructure = new MimeDescriptorStructure(true, result.getMimeDescriptor(), envelopeBuilder);
-                }
+            // BODYSTRUCTURE response
+            if (fetch.contains(Item.BODY_STRUCTURE)) {
+                bodystructure = items.structure(true, () -> new MimeDescriptorStructure(true, result.getMimeDescriptor(), envelopeBuilder));
             }
+        }
 
-            addUid(fetch, resultUid);
+        addUid(fetch, resultUid);
 
-            addThreadId(fetch, result.getThreadId());
-            addMessageId(fetch, result.getMessageId());
-            addSaveDate(fetch, result.getSaveDate());
+        addThreadId(fetch, result.getThreadId());
+        addMessageId(fetch, result.getMessageId());
+        addSaveDate(fetch, result.getSaveDate());
 
-            addModSeq(fetch, result.getModSeq());
+        addModSeq(fetch, result.getModSeq());
 
-            // FLAGS response
-            // Check if this fetch will cause the "SEEN" flag to be set on this
-            // message. If so, update the flags, and ensure that a flags response is
-            // included in the response.
-            return addFlags(fetch, mailbox, selectedMailbox, resultUid, mailboxSession, result.getFlags())
-                .then(Mono.fromCallable(this::build));
-        });
+        // FLAGS response
+        // Check if this fetch will cause the "SEEN" flag to be set on this
+        // message. If so, update the flags, and ensure that a flags response is
+        // included in the response.
+        return addFlags(fetch, mailbox, selectedMailbox, resultUid, mailboxSession, result.getFlags())
+            .then(Mono.fromCallable(this::build));
     }
 
     private void addUid(FetchData fetch, MessageUid resultUid) {
-        // UID response
-        if (fetch.contains(Item.UID)) {
+        // UID response, UIDFETCH responses are always identified by their UID
+        if (fetch.contains(Item.UID) || msn == null) {
             setUid(resultUid);
         }
     }
@@ -259,24 +275,31 @@ public final class FetchResponseBuilder {
 
     public Mono<FetchResponse> build(FetchData fetch, ComposedMessageIdWithMetaData result, MessageManager mailbox, SelectedMailbox selectedMailbox, MailboxSession mailboxSession) throws MailboxException {
         final MessageUid resultUid = result.getComposedMessageId().getUid();
+        if (selectedMailbox.isUidOnly()) {
+            // UIDFETCH response, see RFC-9586
+            return build(fetch, result, mailbox, selectedMailbox, mailboxSession, null);
+        }
         return selectedMailbox.msn(resultUid).fold(() -> {
             throw new MessageRangeException("No such message found with uid " + resultUid);
-        }, msn -> {
+        }, msn -> build(fetch, result, mailbox, selectedMailbox, mailboxSession, msn));
+    }
 
-            reset(msn);
+    private Mono<FetchResponse> build(FetchData fetch, ComposedMessageIdWithMetaData result, MessageManager mailbox, SelectedMailbox selectedMailbox, MailboxSession mailboxSession,
+                                      MessageSequenceNumber msn) throws MailboxException {
+        final MessageUid resultUid = result.getComposedMessageId().getUid();
+        reset(msn);
 
-            // UID response
-            addUid(fetch, resultUid);
+        // UID response
+        addUid(fetch, resultUid);
 
-            addModSeq(fetch, result.getModSeq());
+        addModSeq(fetch, result.getModSeq());
 
-            // FLAGS response
-            // Check if this fetch will cause the "SEEN" flag to be set on this
-            // message. If so, update the flags, and ensure that a flags response is
-            // included in the response.
-            return addFlags(fetch, mailbox, selectedMailbox, resultUid, mailboxSession, result.getFlags())
-                .then(Mono.fromCallable(this::build));
-        });
+        // FLAGS response
+        // Check if this fetch will cause the "SEEN" flag to be set on this
+        // message. If so, update the flags, and ensure that a flags response is
+        // included in the response.
+        return addFlags(fetch, mailbox, selectedMailbox, resultUid, mailboxSession, result.getFlags())
+            .then(Mono.fromCallable(this::build));
     }
 
     private FetchResponse.Envelope buildEnvelope(MessageResult result) throws MailboxException {
@@ -0,0 +1,443 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.imap.processor.fetch;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+import java.util.stream.Stream;
+
+import jakarta.inject.Inject;
+
+import org.apache.james.imap.api.message.BodyFetchElement;
+import org.apache.james.imap.api.message.FetchData;
+import org.apache.james.imap.api.message.FetchData.Item;
+import org.apache.james.imap.api.message.SectionType;
+import org.apache.james.imap.message.response.FetchResponse.BodyElement;
+import org.apache.james.imap.message.response.FetchResponse.Envelope;
+import org.apache.james.imap.message.response.FetchResponse.Structure;
+import org.apache.james.mailbox.exception.MailboxException;
+import org.apache.james.mailbox.model.MessageId;
+import org.apache.james.metrics.api.GaugeRegistry;
+import org.apache.james.metrics.api.Metric;
+import org.apache.james.metrics.api.MetricFactory;
+import org.apache.james.util.SizeFormat;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalListener;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.primitives.Ints;
+
+/**
+ * Caches the FETCH items that never change for a given message: ENVELOPE, BODY, BODYSTRUCTURE and the
+ * BODY[HEADER.FIELDS (...)] / BODY[HEADER.FIELDS.NOT (...)] of the message headers.
+ *
+ * Entries are keyed by serialized {@link MessageId} and item, and bounded by their estimated size in memory. The cache
+ * is shared by all the IMAP sessions, so that several clients of a user synchronizing the same mailbox only parse the
+ * message headers once. Messages whose id is not serializable (JPA) are never cached.
+ */
+public class FetchResponseCache {
+    public record Configuration(long sizeInBytes, boolean enabled) {
+        public static final Configuration DEFAULT = new Configuration(100 * 1024 * 1024, true);
+        public static final Configuration DISABLED = new Configuration(0, false);
+
+        public static Configuration from(org.apache.commons.configuration2.Configuration configuration) {
+            return new Configuration(
+                SizeFormat.parseAsByteCount(configuration.getString("immutableFetchItemsCacheSize", "100 MiB")),
+                configuration.getBoolean("immutableFetchItemsCacheEnabled", true));
+        }
+    }
+
+    @FunctionalInterface
+    interface Loader<T> {
+        T load() throws MailboxException;
+    }
+
+    private record Key(String messageId, String item) {
+
+    }
+
+    private record Entry(Object value, int weight) {
+
+    }
+
+    /**
+     * Items of a message, either read from the cache or computed then stored in the cache.
+     */
+    public static class Items {
+        static final Items NONE = new Items(Optional.empty(), null, ImmutableMap.of());
+
+        private final Optional<FetchResponseCache> cache;
+        private final MessageId messageId;
+        private final Map<String, Object> cached;
+
+        private Items(Optional<FetchResponseCache> cache, MessageId messageId, Map<String, Object> cached) {
+            this.cache = cache;
+            this.messageId = messageId;
+            this.cached = cached;
+        }
+
+        Envelope envelope(Loader<Envelope> loader) throws MailboxException {
+            return retrieve(ENVELOPE, loader, envelope -> envelope, FetchResponseCache::weigh);
+        }
+
+        Structure structure(boolean allowExtensions, Loader<Structure> loader) throws MailboxException {
+            return retrieve(structureItem(allowExtensions), loader, StructureSnapshot::of, FetchResponseCache::weigh);
+        }
+
+        BodyElement bodyElement(BodyFetchElement fetchElement, Loader<BodyElement> loader) throws MailboxException {
+            if (!isCacheable(fetchElement)) {
+                return loader.load();
+            }
+            byte[] content = retrieve(bodyElementItem(fetchElement), () -> read(loader.load()), bytes -> bytes, bytes -> bytes.length);
+            return new BytesBodyElement(fetchElement.getResponseName(), content);
+        }
+
+        @SuppressWarnings("unchecked")
+        private <T> T retrieve(String item, Loader<T> loader, Function<T, T> snapshot, ToLongFunction<T> weigher) throws MailboxException {
+            Object cachedValue = cached.get(item);
+            if (cachedValue != null) {
+                return (T) cachedValue;
+            }
+            T value = loader.load();
+            if (value == null || cache.isEmpty()) {
+                return value;
+            }
+            T snapshotValue = snapshot.apply(value);
+            cache.get().store(new Key(messageId.serialize(), item), snapshotValue, weigher.applyAsLong(snapshotValue));
+            return snapshotValue;
+        }
+
+        private static byte[] read(BodyElement element) throws MailboxException {
+            try (InputStream inputStream = element.getInputStream()) {
+                return inputStream.readNBytes(Ints.checkedCast(element.size()));
+            } catch (IOException e) {
+                throw new MailboxException("Unable to read body element " + element.getName(), e);
+            }
+        }
+    }
+
+    private static class BytesBodyElement implements BodyElement {
+        private final String name;
+        private final byte[] content;
+
+        BytesBodyElement(String name, byte[] content) {
+            this.name = name;
+            this.content = content;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public long size() {
+            return content.length;
+        }
+
+        @Override
+        public InputStream getInputStream() {
+            return new ByteArrayInputStream(content);
+        }
+
+        @Override
+        public Optional<byte[][]> asBytesSequence() {
+            return Optional.of(new byte[][] {content});
+        }
+    }
+
+    /**
+     * {@link Structure} holding its values, without reference to the underlying parsed message.
+     */
+    private record StructureSnapshot(String mediaType, String subType, List<String> parameters, String id,
+                                     String description, String encoding, long octets, long lines, String md5,
+                                     Map<String, String> dispositionParams, String disposition, List<String> languages,
+                                     String location, List<Structure> partList, Envelope envelope,
+                                     Structure body) implements Structure {
+        static Structure of(Structure structure) {
+            if (structure == null) {
+                return null;
+            }
+            ImmutableList.Builder<Structure> parts = ImmutableList.builder();
+            structure.parts().forEachRemaining(part -> parts.add(of(part)));
+            return new StructureSnapshot(structure.getMediaType(), structure.getSubType(), structure.getParameters(),
+                structure.getId(), structure.getDescription(), structure.getEncoding(), structure.getOctets(),
+                structure.getLines(), structure.getMD5(), structure.getDispositionParams(), structure.getDisposition(),
+                structure.getLanguages(), structure.getLocation(), parts.build(), structure.getEnvelope(),
+                of(structure.getBody()));
+        }
+
+        @Override
+        public String getMediaType() {
+            return mediaType;
+        }
+
+        @Override
+        public String getSubType() {
+            return subType;
+        }
+
+        @Override
+        public List<String> getParameters() {
+            return parameters;
+        }
+
+        @Override
+        public String getId() {
+            return id;
+        }
+
+        @Override
+        public String getDescription() {
+            return description;
+        }
+
+        @Override
+        public String getEncoding() {
+            return encoding;
+        }
+
+        @Override
+        public long getOctets() {
+            return octets;
+        }
+
+        @Override
+        public long getLines() {
+            return lines;
+        }
+
+        @Override
+        public String getMD5() {
+            return md5;
+        }
+
+        @Override
+        public Map<String, String> getDispositionParams() {
+            return dispositionParams;
+        }
+
+        @Override
+        public String getDisposition() {
+            return disposition;
+        }
+
+        @Override
+        public List<String> getLanguages() {
+            return languages;
+        }
+
+        @Override
+        public String getLocation() {
+            return location;
+        }
+
+        @Override
+        public Iterator<Structure> parts() {
+            return partList.iterator();
+        }
+
+        @Override
+        public Envelope getEnvelope() {
+            return envelope;
+        }
+
+        @Override
+        public Structure getBody() {
+            return body;
+        }
+    }
+
+    private static final String ENVELOPE = "ENVELOPE";
+    private static final String BODY = "BODY";
+    private static final String BODYSTRUCTURE = "BODYSTRUCTURE";
+    private static final int ENTRY_OVERHEAD = 128;
+    private static final int OBJECT_OVERHEAD = 16;
+
+    private static String structureItem(boolean allowExtensions) {
+        if (allowExtensions) {
+            return BODYSTRUCTURE;
+        }
+        return BODY;
+    }
+
+    private static String bodyElementItem(BodyFetchElement fetchElement) {
+        return fetchElement.getSectionType().name() + " " + fetchElement.getFieldNames().stream()
+            .map(name -> name.toUpperCase(Locale.US))
+            .sorted()
+            .distinct()
+            .toList();
+    }
+
+    private static boolean isCacheable(BodyFetchElement fetchElement) {
+        boolean isBase = fetchElement.getPath() == null || fetchElement.getPath().length == 0;
+        boolean isHeaderFields = fetchElement.getSectionType() == SectionType.HEADER_FIELDS
+            || fetchElement.getSectionType() == SectionType.HEADER_NOT_FIELDS;
+        return isBase && isHeaderFields && fetchElement.getFirstOctet() == null;
+    }
+
+    private static long weigh(String value) {
+        return Optional.ofNullable(value)
+            .map(string -> OBJECT_OVERHEAD + 2L * string.length())
+            .orElse(0L);
+    }
+
+    private static long weigh(Envelope envelope) {
+        if (envelope == null) {
+            return 0;
+        }
+        return OBJECT_OVERHEAD
+            + weigh(envelope.getDate()) + weigh(envelope.getSubject()) + weigh(envelope.getInReplyTo()) + weigh(envelope.getMessageId())
+            + Stream.of(envelope.getFrom(), envelope.getSender(), envelope.getReplyTo(), envelope.getTo(), envelope.getCc(), envelope.getBcc())
+                .filter(Objects::nonNull)
+                .flatMap(Arrays::stream)
+                .mapToLong(address -> OBJECT_OVERHEAD + weigh(address.getPersonalName()) + weigh(address.getAtDomainList())
+                    + weigh(address.getMailboxName()) + weigh(address.getHostName()))
+                .sum();
+    }
+
+    private static long weigh(Structure structure) {
+        if (structure == null) {
+            return 0;
+        }
+        long partsWeight = 0;
+        for (Iterator<Structure> parts = structure.parts(); parts.hasNext();) {
+            partsWeight += weigh(parts.next());
+        }
+        return OBJECT_OVERHEAD + partsWeight
+            + weigh(structure.getMediaType()) + weigh(structure.getSubType()) + weigh(structure.getId())
+            + weigh(structure.getDescription()) + weigh(structure.getEncoding()) + weigh(structure.getMD5())
+            + weigh(structure.getDisposition()) + weigh(structure.getLocation())
+            + weigh(structure.getParameters()) + weigh(structure.getLanguages())
+            + Optional.ofNullable(structure.getDispositionParams())
+                .map(params -> params.entrySet().stream().mapToLong(entry -> weigh(entry.getKey()) + weigh(entry.getValue())).sum())
+                .orElse(0L)
+            + weigh(structure.getEnvelope()) + weigh(structure.getBody());
+    }
+
+    private static long weigh(Collection<String> values) {
+        return Optional.ofNullable(values)
+            .map(strings -> strings.stream().mapToLong(FetchResponseCache::weigh).sum())
+            .orElse(0L);
+    }
+
+    private final Configuration configuration;
+    private final Cache<Key, Entry> cache;
+    private final AtomicLong weight;
+    private final Metric hitMetric;
+    private final Metric missMetric;
+
+    @Inject
+    public FetchResponseCache(Configuration configuration, MetricFactory metricFactory, GaugeRegistry gaugeRegistry) {
+        this.configuration = configuration;
+        this.weight = new AtomicLong(0);
+        this.cache = CacheBuilder.newBuilder()
+            .maximumWeight(configuration.sizeInBytes())
+            .<Key, Entry>weigher((key, entry) -> entry.weight())
+            .removalListener((RemovalListener<Key, Entry>) notification -> weight.addAndGet(-notification.getValue().weight()))
+            .build();
+        this.hitMetric = metricFactory.generate("imap-fetch-response-cache-hit");
+        this.missMetric = metricFactory.generate("imap-fetch-response-cache-miss");
+        gaugeRegistry.register("imap-fetch-response-cache-size-in-bytes", weight::get);
+        gaugeRegistry.register("imap-fetch-response-cache-entry-count", cache::size);
+    }
+
+    /**
+     * @return true when all the items of this fetch that need the message content can be served by the cache.
+     */
+    public boolean isCacheable(FetchData fetch) {
+        if (!configuration.enabled()) {
+            return false;
+        }
+        boolean requestsCacheableItems = fetch.contains(Item.ENVELOPE) || fetch.contains(Item.BODY)
+            || fetch.contains(Item.BODY_STRUCTURE) || !fetch.getBodyElements().isEmpty();
+        return requestsCacheableItems && fetch.getBodyElements().stream().allMatch(FetchResponseCache::isCacheable);
+    }
+
+    /**
+     * @return the cached items of the given message for this fetch, if all of them are in the cache.
+     */
+    public Optional<Items> lookup(MessageId messageId, FetchData fetch) {
+        if (!messageId.isSerializable()) {
+            return Optional.empty();
+        }
+        String serializedMessageId = messageId.serialize();
+        ImmutableMap.Builder<String, Object> cached = ImmutableMap.builder();
+        for (String item : items(fetch)) {
+            Entry entry = cache.getIfPresent(new Key(serializedMessageId, item));
+            if (entry == null) {
+                missMetric.increment();
+                return Optional.empty();
+            }
+            cached.put(item, entry.value());
+        }
+        hitMetric.increment();
+        return Optional.of(new Items(Optional.empty(), messageId, cached.buildKeepingLast()));
+    }
+
+    /**
+     * @return items of the given message, stored in the cache as they get computed.
+     */
+    public Items loading(MessageId messageId) {
+        if (!configuration.enabled() || !messageId.isSerializable()) {
+            return Items.NONE;
+        }
+        return new Items(Optional.of(this), messageId, ImmutableMap.of());
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    private List<String> items(FetchData fetch) {
+        ImmutableList.Builder<String> items = ImmutableList.builder();
+        if (fetch.contains(Item.ENVELOPE)) {
+            items.add(ENVELOPE);
+        }
+        if (fetch.contains(Item.BODY) && fetch.getBodyElements().isEmpty()) {
+            items.add(BODY);
+        }
+        if (fetch.contains(Item.BODY_STRUCTURE)) {
+            items.add(BODYSTRUCTURE);
+        }
+        fetch.getBodyElements().forEach(element -> items.add(bodyElementItem(element)));
+        return items.build();
+    }
+
+    private void store(Key key, Object value, long valueWeight) {
+        int entryWeight = Ints.saturatedCast(ENTRY_OVERHEAD + valueWeight);
+        cache.put(key, new Entry(value, entryWeight));
+        weight.addAndGet(entryWeight);
+    }
+}
@@ -22,9 +22,15 @@ package org.apache.james.imap.processor.fetch;
 import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.james.imap.message.response.FetchResponse.BodyElement;
+import org.reactivestreams.Publisher;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 /**
  * Wraps full content to implement a partial fetch.
@@ -65,6 +71,33 @@ final class PartialFetchBodyElement implements BodyElement {
         return new LimitingInputStream(delegate.getInputStream(), firstOctet, size());
     }
 
+    @Override
+    public Optional<Publisher<ByteBuffer>> asReactiveBytes() {
+        return delegate.asReactiveBytes()
+            .map(content -> Mono.fromCallable(this::size)
+                .flatMapMany(length -> slice(content, firstOctet + length)));
+    }
+
+    private Flux<ByteBuffer> slice(Publisher<ByteBuffer> content, long lastOctet) {
+        if (firstOctet >= lastOctet) {
+            return Flux.empty();
+        }
+        AtomicLong position = new AtomicLong(0);
+        return Flux.from(content)
+            .<ByteBuffer>handle((buffer, sink) -> {
+                long start = position.getAndAdd(buffer.remaining());
+                long from = Math.max(firstOctet, start);
+                long to = Math.min(lastOctet, start + buffer.remaining());
+                if (from < to) {
+                    ByteBuffer slice = buffer.duplicate();
+                    slice.limit(buffer.position() + (int) (to - start));
+                    slice.position(buffer.position() + (int) (from - start));
+                    sink.next(slice);
+                }
+            })
+            .takeUntil(any -> position.get() >= lastOctet);
+    }
+
     private static final class LimitingInputStream extends FilterInputStream {
         private long pos = 0;
         private final long length;
@@ -0,0 +1,115 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.imap.decode.parser;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.apache.james.imap.ImapFixture.TAG;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+
+import org.apache.james.imap.decode.DecodingException;
+import org.apache.james.imap.decode.ImapRequestLineReader;
+import org.apache.james.imap.decode.ImapRequestStreamLineReader;
+import org.apache.james.imap.encode.FakeImapSession;
+import org.apache.james.imap.message.request.NotifyRequest;
+import org.apache.james.imap.message.request.NotifyRequest.Event;
+import org.apache.james.imap.message.request.NotifyRequest.EventGroup;
+import org.apache.james.imap.message.request.NotifyRequest.Filter;
+import org.apache.james.imap.message.response.UnpooledStatusResponseFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
+class NotifyCommandParserTest {
+    private NotifyCommandParser parser;
+
+    @BeforeEach
+    void setUp() {
+        parser = new NotifyCommandParser(new UnpooledStatusResponseFactory());
+    }
+
+    private NotifyRequest decode(String command) throws DecodingException {
+        ImapRequestLineReader reader = new ImapRequestStreamLineReader(
+            new ByteArrayInputStream(command.getBytes(US_ASCII)),
+            new ByteArrayOutputStream());
+        return (NotifyRequest) parser.decode(reader, TAG, new FakeImapSession());
+    }
+
+    @Test
+    void decodeShouldParseNone() throws Exception {
+        assertThat(decode("NONE\r\n").isNone()).isTrue();
+    }
+
+    @Test
+    void decodeShouldParseEventGroups() throws Exception {
+        NotifyRequest request = decode("SET STATUS (selected (MessageNew MessageExpunge FlagChange)) (subtree (Lists \"Other folder\") NONE) (mailboxes INBOX (messagenew messageexpunge))\r\n");
+
+        assertThat(request.isSendStatus()).isTrue();
+        assertThat(request.getEventGroups()).containsExactly(
+            new EventGroup(Filter.SELECTED, ImmutableList.of(), ImmutableSet.of(Event.MESSAGE_NEW, Event.MESSAGE_EXPUNGE, Event.FLAG_CHANGE)),
+            new EventGroup(Filter.SUBTREE, ImmutableList.of("Lists", "Other folder"), ImmutableSet.of()),
+            new EventGroup(Filter.MAILBOXES, ImmutableList.of("INBOX"), ImmutableSet.of(Event.MESSAGE_NEW, Event.MESSAGE_EXPUNGE)));
+    }
+
+    @Test
+    void decodeShouldParseSelectedDelayed() throws Exception {
+        NotifyRequest request = decode("SET (selected-delayed (MessageNew MessageExpunge))\r\n");
+
+        assertThat(request.isSendStatus()).isFalse();
+        assertThat(request.getEventGroups())
+            .extracting(EventGroup::filter)
+            .containsExactly(Filter.SELECTED_DELAYED);
+    }
+
+    @Test
+    void decodeShouldRejectMessageNewWithoutMessageExpunge() {
+        assertThatThrownBy(() -> decode("SET (personal (MessageNew))\r\n"))
+            .isInstanceOf(DecodingException.class);
+    }
+
+    @Test
+    void decodeShouldRejectFlagChangeAlone() {
+        assertThatThrownBy(() -> decode("SET (personal (FlagChange))\r\n"))
+            .isInstanceOf(DecodingException.class);
+    }
+
+    @Test
+    void decodeShouldRejectUnknownFilters() {
+        assertThatThrownBy(() -> decode("SET (everything (MessageNew MessageExpunge))\r\n"))
+            .isInstanceOf(DecodingException.class);
+    }
+
+    @Test
+    void decodeShouldRejectFetchAttributes() {
+        assertThatThrownBy(() -> decode("SET (selected (MessageNew (UID) MessageExpunge))\r\n"))
+            .isInstanceOf(DecodingException.class);
+    }
+
+    @Test
+    void decodeShouldRejectMissingEventGroups() {
+        assertThatThrownBy(() -> decode("SET STATUS\r\n"))
+            .isInstanceOf(DecodingException.class);
+    }
+}
@@ -0,0 +1,114 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.imap.decode.parser;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.apache.james.imap.ImapFixture.TAG;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+
+import org.apache.james.imap.api.message.request.SearchKey;
+import org.apache.james.imap.api.message.request.SearchResultOption;
+import org.apache.james.imap.api.message.response.StatusResponse;
+import org.apache.james.imap.decode.DecodingException;
+import org.apache.james.imap.decode.ImapRequestLineReader;
+import org.apache.james.imap.decode.ImapRequestStreamLineReader;
+import org.apache.james.imap.encode.FakeImapSession;
+import org.apache.james.imap.message.request.SortRequest;
+import org.apache.james.imap.message.response.UnpooledStatusResponseFactory;
+import org.apache.james.mailbox.model.SearchQuery.Sort;
+import org.apache.james.mailbox.model.SearchQuery.Sort.Order;
+import org.apache.james.mailbox.model.SearchQuery.Sort.SortClause;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class SortCommandParserTest {
+    private SortCommandParser parser;
+
+    @BeforeEach
+    void setUp() {
+        parser = new SortCommandParser(new UnpooledStatusResponseFactory());
+    }
+
+    private Object decode(String command) throws DecodingException {
+        ImapRequestLineReader reader = new ImapRequestStreamLineReader(
+            new ByteArrayInputStream(command.getBytes(US_ASCII)),
+            new ByteArrayOutputStream());
+        return parser.decode(reader, TAG, false, new FakeImapSession());
+    }
+
+    @Test
+    void decodeShouldParseSortCriteria() throws Exception {
+        SortRequest request = (SortRequest) decode("(REVERSE DATE subject) UTF-8 ALL\r\n");
+
+        assertThat(request.getSorts()).containsExactly(
+            new Sort(SortClause.SentDate, Order.REVERSE),
+            new Sort(SortClause.BaseSubject, Order.NATURAL));
+        assertThat(request.getSearchOperation().getSearchKey()).isEqualTo(SearchKey.buildAll());
+        assertThat(request.getSearchOperation().getResultOptions()).isEmpty();
+    }
+
+    @Test
+    void decodeShouldParseSearchCriteria() throws Exception {
+        SortRequest request = (SortRequest) decode("(ARRIVAL) US-ASCII FLAGGED SUBJECT hello\r\n");
+
+        assertThat(request.getSorts()).containsExactly(new Sort(SortClause.Arrival, Order.NATURAL));
+        assertThat(request.getSearchOperation().getSearchKey()).isEqualTo(SearchKey.buildAnd(
+            List.of(SearchKey.buildFlagged(), SearchKey.buildSubject("hello"))));
+    }
+
+    @Test
+    void decodeShouldParseReturnOptions() throws Exception {
+        SortRequest request = (SortRequest) decode("RETURN (MIN COUNT) (SIZE) UTF-8 ALL\r\n");
+
+        assertThat(request.getSorts()).containsExactly(new Sort(SortClause.Size, Order.NATURAL));
+        assertThat(request.getSearchOperation().getResultOptions())
+            .containsExactly(SearchResultOption.MIN, SearchResultOption.COUNT);
+    }
+
+    @Test
+    void decodeShouldRejectUnknownSortKeys() {
+        assertThatThrownBy(() -> decode("(UNKNOWN) UTF-8 ALL\r\n"))
+            .isInstanceOf(DecodingException.class);
+    }
+
+    @Test
+    void decodeShouldRejectEmptySortCriteria() {
+        assertThatThrownBy(() -> decode("() UTF-8 ALL\r\n"))
+            .isInstanceOf(DecodingException.class);
+    }
+
+    @Test
+    void decodeShouldRejectDanglingReverse() {
+        assertThatThrownBy(() -> decode("(DATE REVERSE) UTF-8 ALL\r\n"))
+            .isInstanceOf(DecodingException.class);
+    }
+
+    @Test
+    void decodeShouldRejectUnsupportedCharset() throws Exception {
+        assertThat(decode("(DATE) BOGUS ALL\r\n"))
+            .isInstanceOfSatisfying(StatusResponse.class, response ->
+                assertThat(response.getResponseCode()).isEqualTo(StatusResponse.ResponseCode.badCharset()));
+    }
+}
@@ -0,0 +1,78 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.imap.decode.parser;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.apache.james.imap.ImapFixture.TAG;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+
+import org.apache.james.imap.api.message.request.SearchKey;
+import org.apache.james.imap.decode.DecodingException;
+import org.apache.james.imap.decode.ImapRequestLineReader;
+import org.apache.james.imap.decode.ImapRequestStreamLineReader;
+import org.apache.james.imap.encode.FakeImapSession;
+import org.apache.james.imap.message.request.ThreadRequest;
+import org.apache.james.imap.message.response.UnpooledStatusResponseFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ThreadCommandParserTest {
+    private ThreadCommandParser parser;
+
+    @BeforeEach
+    void setUp() {
+        parser = new ThreadCommandParser(new UnpooledStatusResponseFactory());
+    }
+
+    private Object decode(String command, boolean useUids) throws DecodingException {
+        ImapRequestLineReader reader = new ImapRequestStreamLineReader(
+            new ByteArrayInputStream(command.getBytes(US_ASCII)),
+            new ByteArrayOutputStream());
+        return parser.decode(reader, TAG, useUids, new FakeImapSession());
+    }
+
+    @Test
+    void decodeShouldParseReferences() throws Exception {
+        ThreadRequest request = (ThreadRequest) decode("REFERENCES UTF-8 ALL\r\n", false);
+
+        assertThat(request.getAlgorithm()).isEqualTo(ThreadRequest.Algorithm.REFERENCES);
+        assertThat(request.getSearchOperation().getSearchKey()).isEqualTo(SearchKey.buildAll());
+        assertThat(request.isUseUids()).isFalse();
+    }
+
+    @Test
+    void decodeShouldParseOrderedSubjectCaseInsensitively() throws Exception {
+        ThreadRequest request = (ThreadRequest) decode("orderedsubject US-ASCII UNSEEN\r\n", true);
+
+        assertThat(request.getAlgorithm()).isEqualTo(ThreadRequest.Algorithm.ORDEREDSUBJECT);
+        assertThat(request.getSearchOperation().getSearchKey()).isEqualTo(SearchKey.buildUnseen());
+        assertThat(request.isUseUids()).isTrue();
+    }
+
+    @Test
+    void decodeShouldRejectUnknownAlgorithms() {
+        assertThatThrownBy(() -> decode("REFS UTF-8 ALL\r\n", false))
+            .isInstanceOf(DecodingException.class);
+    }
+}
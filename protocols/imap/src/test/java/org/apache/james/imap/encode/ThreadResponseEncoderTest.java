@@ -0,0 +1,82 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.imap.encode;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.apache.james.imap.encode.base.ByteImapResponseWriter;
+import org.apache.james.imap.encode.base.ImapResponseComposerImpl;
+import org.apache.james.imap.message.response.ThreadResponse;
+import org.apache.james.imap.message.response.ThreadResponse.Node;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ThreadResponseEncoderTest {
+    private ThreadResponseEncoder encoder;
+    private ByteImapResponseWriter writer;
+    private ImapResponseComposer composer;
+
+    @BeforeEach
+    void setUp() {
+        encoder = new ThreadResponseEncoder();
+        writer = new ByteImapResponseWriter();
+        composer = new ImapResponseComposerImpl(writer);
+    }
+
+    @Test
+    void encodeShouldWriteEmptyResponse() throws Exception {
+        encoder.encode(new ThreadResponse(List.of()), composer);
+        composer.flush();
+
+        assertThat(writer.getString()).isEqualTo("* THREAD\r\n");
+    }
+
+    @Test
+    void encodeShouldFollowRfc5256Example() throws Exception {
+        // (3 6 (4 23)(44 7 96)): 6 has two replies, 4 and 44
+        Node thread = new Node(3, List.of(
+            new Node(6, List.of(
+                new Node(4, List.of(Node.leaf(23))),
+                new Node(44, List.of(new Node(7, List.of(Node.leaf(96)))))))));
+
+        encoder.encode(new ThreadResponse(List.of(Node.leaf(2), thread)), composer);
+        composer.flush();
+
+        assertThat(writer.getString()).isEqualTo("* THREAD (2)(3 6 (4 23)(44 7 96))\r\n");
+    }
+
+    @Test
+    void encodeShouldWriteSiblingReplies() throws Exception {
+        encoder.encode(new ThreadResponse(List.of(new Node(1, List.of(Node.leaf(2), Node.leaf(3), Node.leaf(4))))), composer);
+        composer.flush();
+
+        assertThat(writer.getString()).isEqualTo("* THREAD (1 (2)(3)(4))\r\n");
+    }
+
+    @Test
+    void encodeShouldWriteMissingMessagesWithoutId() throws Exception {
+        encoder.encode(new ThreadResponse(List.of(Node.missing(List.of(Node.leaf(3), Node.leaf(5))))), composer);
+        composer.flush();
+
+        assertThat(writer.getString()).isEqualTo("* THREAD ((3)(5))\r\n");
+    }
+}
@@ -0,0 +1,227 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.imap.processor.base;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.Optional;
+
+import jakarta.mail.Flags;
+import jakarta.mail.util.SharedByteArrayInputStream;
+
+import org.apache.james.core.Username;
+import org.apache.james.events.EventBus;
+import org.apache.james.mailbox.MailboxSession;
+import org.apache.james.mailbox.MessageManager;
+import org.apache.james.mailbox.MessageUid;
+import org.apache.james.mailbox.ModSeq;
+import org.apache.james.mailbox.events.MailboxIdRegistrationKey;
+import org.apache.james.mailbox.inmemory.InMemoryMailboxManager;
+import org.apache.james.mailbox.inmemory.manager.InMemoryIntegrationResources;
+import org.apache.james.mailbox.model.Mailbox;
+import org.apache.james.mailbox.model.MailboxPath;
+import org.apache.james.mailbox.model.MessageMetaData;
+import org.apache.james.mailbox.model.MessageRange;
+import org.apache.james.mailbox.model.SearchQuery;
+import org.apache.james.mailbox.model.ThreadId;
+import org.apache.james.mailbox.store.event.EventFactory;
+import org.apache.james.mailbox.store.mail.model.DefaultMessageId;
+import org.apache.james.metrics.api.NoopGaugeRegistry;
+import org.apache.james.metrics.tests.RecordingMetricFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.google.common.collect.ImmutableList;
+
+class MailboxFlagsIndexTest {
+    private static final Username BOB = Username.of("bob");
+
+    private InMemoryMailboxManager mailboxManager;
+    private EventBus eventBus;
+    private MailboxFlagsIndex testee;
+    private MailboxSession mailboxSession;
+    private MessageManager mailbox;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        InMemoryIntegrationResources integrationResources = InMemoryIntegrationResources.defaultResources();
+        mailboxManager = integrationResources.getMailboxManager();
+        eventBus = integrationResources.getEventBus();
+        testee = new MailboxFlagsIndex(MailboxFlagsIndex.Configuration.DEFAULT, eventBus,
+            new RecordingMetricFactory(), new NoopGaugeRegistry());
+
+        mailboxSession = mailboxManager.createSystemSession(BOB);
+        mailboxManager.createMailbox(MailboxPath.inbox(BOB), mailboxSession);
+        mailbox = mailboxManager.getMailbox(MailboxPath.inbox(BOB), mailboxSession);
+    }
+
+    private MessageUid append(Flags flags) throws Exception {
+        return mailbox.appendMessage(MessageManager.AppendCommand.builder()
+                .withFlags(flags)
+                .build(new SharedByteArrayInputStream("header: value\r\n\r\nbody".getBytes())), mailboxSession)
+            .getId().getUid();
+    }
+
+    private Optional<Collection<MessageUid>> search(SearchQuery.Criterion... criteria) {
+        return testee.search(mailbox, SearchQuery.of(criteria), mailboxSession).block();
+    }
+
+    @Test
+    void searchShouldReturnMessagesHavingSystemFlags() throws Exception {
+        MessageUid uid1 = append(new Flags(Flags.Flag.SEEN));
+        MessageUid uid2 = append(new Flags());
+        MessageUid uid3 = append(new Flags(Flags.Flag.SEEN));
+
+        assertThat(search(SearchQuery.flagIsSet(Flags.Flag.SEEN)))
+            .contains(ImmutableList.of(uid1, uid3));
+        assertThat(search(SearchQuery.flagIsUnSet(Flags.Flag.SEEN)))
+            .contains(ImmutableList.of(uid2));
+    }
+
+    @Test
+    void searchShouldReturnMessagesHavingKeywords() throws Exception {
+        append(new Flags());
+        MessageUid uid2 = append(new Flags("custom"));
+
+        assertThat(search(SearchQuery.flagIsSet("custom")))
+            .contains(ImmutableList.of(uid2));
+        assertThat(search(SearchQuery.flagIsSet("unknown")))
+            .contains(ImmutableList.of());
+    }
+
+    @Test
+    void searchShouldSupportUidRangesAndConjunctions() throws Exception {
+        MessageUid uid1 = append(new Flags(Flags.Flag.FLAGGED));
+        MessageUid uid2 = append(new Flags(Flags.Flag.SEEN));
+        MessageUid uid3 = append(new Flags());
+        append(new Flags(Flags.Flag.FLAGGED));
+
+        assertThat(search(
+                SearchQuery.uid(new SearchQuery.UidRange(uid1, uid3)),
+                SearchQuery.or(SearchQuery.flagIsSet(Flags.Flag.FLAGGED), SearchQuery.flagIsSet(Flags.Flag.SEEN))))
+            .contains(ImmutableList.of(uid1, uid2));
+        assertThat(search(SearchQuery.not(SearchQuery.flagIsSet(Flags.Flag.FLAGGED))))
+            .contains(ImmutableList.of(uid2, uid3));
+    }
+
+    @Test
+    void searchShouldReflectFlagUpdatesAndExpunges() throws Exception {
+        MessageUid uid1 = append(new Flags());
+        MessageUid uid2 = append(new Flags());
+        search(SearchQuery.all());
+
+        mailbox.setFlags(new Flags(Flags.Flag.DELETED), MessageManager.FlagsUpdateMode.ADD, MessageRange.one(uid1), mailboxSession);
+        assertThat(search(SearchQuery.flagIsSet(Flags.Flag.DELETED)))
+            .contains(ImmutableList.of(uid1));
+
+        mailbox.expunge(MessageRange.all(), mailboxSession);
+        MessageUid uid3 = append(new Flags());
+        assertThat(search(SearchQuery.all()))
+            .contains(ImmutableList.of(uid2, uid3));
+    }
+
+    @Test
+    void searchShouldAnswerAfterAnExpunge() throws Exception {
+        append(new Flags(Flags.Flag.DELETED));
+        MessageUid uid2 = append(new Flags());
+        search(SearchQuery.all());
+
+        mailbox.expunge(MessageRange.all(), mailboxSession);
+
+        assertThat(search(SearchQuery.all()))
+            .contains(ImmutableList.of(uid2));
+        assertThat(search(SearchQuery.flagIsSet(Flags.Flag.DELETED)))
+            .contains(ImmutableList.of());
+    }
+
+    @Test
+    void searchShouldAnswerAfterAnExpungeAllocatingAModSeq() throws Exception {
+        MessageUid uid1 = append(new Flags());
+        MessageUid uid2 = append(new Flags());
+        search(SearchQuery.all());
+
+        // Some mailbox implementations allocate a new mod-sequence when expunging messages
+        Mailbox mailboxEntity = mailbox.getMailboxEntity();
+        ModSeq expungeModSeq = mailboxManager.getMapperFactory().getModSeqProvider(mailboxSession).nextModSeq(mailboxEntity);
+        eventBus.dispatch(EventFactory.expunged()
+                    .randomEventId()
+                    .mailboxSession(mailboxSession)
+                    .mailbox(mailboxEntity)
+                    .addMetaData(new MessageMetaData(uid1, expungeModSeq, new Flags(), 0, new Date(), Optional.empty(),
+                        new DefaultMessageId(), ThreadId.fromBaseMessageId(new DefaultMessageId())))
+                    .build(),
+                new MailboxIdRegistrationKey(mailbox.getId()))
+            .block();
+
+        assertThat(search(SearchQuery.all()))
+            .contains(ImmutableList.of(uid2));
+    }
+
+    @Test
+    void flagsSetsShouldHandleSparseHighUids() {
+        MailboxFlagsIndex.FlagsSets flagsSets = new MailboxFlagsIndex.FlagsSets();
+        MessageUid low = MessageUid.of(1);
+        MessageUid high = MessageUid.of(Integer.MAX_VALUE - 1);
+
+        flagsSets.set(low, new Flags(Flags.Flag.SEEN));
+        flagsSets.set(high, new Flags("custom"));
+
+        assertThat(flagsSets.evaluate(ImmutableList.of(SearchQuery.all())).toIntArray())
+            .containsExactly(1, Integer.MAX_VALUE - 1);
+        assertThat(flagsSets.evaluate(ImmutableList.of(SearchQuery.flagIsUnSet(Flags.Flag.SEEN))).toIntArray())
+            .containsExactly(Integer.MAX_VALUE - 1);
+        assertThat(flagsSets.evaluate(ImmutableList.of(SearchQuery.flagIsSet("custom"),
+                SearchQuery.uid(new SearchQuery.UidRange(MessageUid.of(2), MessageUid.MAX_VALUE)))).toIntArray())
+            .containsExactly(Integer.MAX_VALUE - 1);
+
+        flagsSets.remove(high);
+
+        assertThat(flagsSets.evaluate(ImmutableList.of(SearchQuery.all())).toIntArray())
+            .containsExactly(1);
+        assertThat(flagsSets.evaluate(ImmutableList.of(SearchQuery.flagIsSet("custom"))).toIntArray())
+            .isEmpty();
+    }
+
+    @Test
+    void searchShouldNotAnswerUnsupportedCriteria() throws Exception {
+        append(new Flags());
+
+        assertThat(search(SearchQuery.bodyContains("body")))
+            .isEmpty();
+    }
+
+    @Test
+    void searchShouldNotAnswerRecentCriterion() throws Exception {
+        append(new Flags());
+
+        assertThat(search(SearchQuery.flagIsSet(Flags.Flag.RECENT)))
+            .isEmpty();
+    }
+
+    @Test
+    void searchShouldNotAnswerWhenDisabled() throws Exception {
+        append(new Flags());
+
+        assertThat(MailboxFlagsIndex.DISABLED.search(mailbox, SearchQuery.matchAll(), mailboxSession).block())
+            .isEmpty();
+    }
+}
@@ -0,0 +1,138 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.imap.processor.base;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.apache.james.imap.message.response.ThreadResponse.Node;
+import org.apache.james.imap.processor.base.ReferencesThreader.Message;
+import org.junit.jupiter.api.Test;
+
+class ReferencesThreaderTest {
+    private static Message message(long id, String messageId, String subject) {
+        return new Message(id, Optional.of(messageId), Optional.empty(), Optional.empty(), Optional.of(subject));
+    }
+
+    private static Message reply(long id, String messageId, String references, String subject) {
+        return new Message(id, Optional.of(messageId), Optional.of(references), Optional.empty(), Optional.of(subject));
+    }
+
+    private static Message inReplyTo(long id, String messageId, String inReplyTo, String subject) {
+        return new Message(id, Optional.of(messageId), Optional.empty(), Optional.of(inReplyTo), Optional.of(subject));
+    }
+
+    @Test
+    void threadShouldReturnEmptyWhenNoMessages() {
+        assertThat(ReferencesThreader.thread(List.of())).isEmpty();
+    }
+
+    @Test
+    void threadShouldChainReplies() {
+        assertThat(ReferencesThreader.thread(List.of(
+                message(1, "<a@example.com>", "Hello"),
+                reply(2, "<b@example.com>", "<a@example.com>", "Re: Hello"),
+                reply(3, "<c@example.com>", "<a@example.com> <b@example.com>", "Re: Hello"))))
+            .containsExactly(new Node(1, List.of(new Node(2, List.of(Node.leaf(3))))));
+    }
+
+    @Test
+    void threadShouldBranchSeveralRepliesToTheSameMessage() {
+        assertThat(ReferencesThreader.thread(List.of(
+                message(1, "<a@example.com>", "Hello"),
+                inReplyTo(2, "<b@example.com>", "<a@example.com>", "Re: Hello"),
+                inReplyTo(3, "<c@example.com>", "<a@example.com>", "Re: Hello"),
+                message(4, "<d@example.com>", "Other"))))
+            .containsExactly(
+                new Node(1, List.of(Node.leaf(2), Node.leaf(3))),
+                Node.leaf(4));
+    }
+
+    @Test
+    void threadShouldPreferReferencesOverInReplyTo() {
+        assertThat(ReferencesThreader.thread(List.of(
+                message(1, "<a@example.com>", "Hello"),
+                message(2, "<b@example.com>", "Other"),
+                new Message(3, Optional.of("<c@example.com>"), Optional.of("<a@example.com>"), Optional.of("<b@example.com>"), Optional.of("Re: Hello")))))
+            .containsExactly(
+                new Node(1, List.of(Node.leaf(3))),
+                Node.leaf(2));
+    }
+
+    @Test
+    void threadShouldKeepMissingParentsSharedByRootMessages() {
+        assertThat(ReferencesThreader.thread(List.of(
+                reply(1, "<b@example.com>", "<missing@example.com>", "First"),
+                reply(2, "<c@example.com>", "<missing@example.com>", "Second"))))
+            .containsExactly(Node.missing(List.of(Node.leaf(1), Node.leaf(2))));
+    }
+
+    @Test
+    void threadShouldPruneMissingParentsWithASingleChild() {
+        assertThat(ReferencesThreader.thread(List.of(
+                message(1, "<a@example.com>", "Hello"),
+                reply(2, "<c@example.com>", "<a@example.com> <missing@example.com>", "Re: Hello"))))
+            .containsExactly(new Node(1, List.of(Node.leaf(2))));
+    }
+
+    @Test
+    void threadShouldGatherRepliesWithoutReferencesBySubject() {
+        assertThat(ReferencesThreader.thread(List.of(
+                message(1, "<a@example.com>", "Hello"),
+                message(2, "<b@example.com>", "[list] Re: Hello"))))
+            .containsExactly(new Node(1, List.of(Node.leaf(2))));
+    }
+
+    @Test
+    void threadShouldGatherMessagesSharingTheSameSubjectUnderAMissingParent() {
+        assertThat(ReferencesThreader.thread(List.of(
+                message(1, "<a@example.com>", "Hello"),
+                message(2, "<b@example.com>", "hello"))))
+            .containsExactly(Node.missing(List.of(Node.leaf(1), Node.leaf(2))));
+    }
+
+    @Test
+    void threadShouldSortSiblingsBySentDate() {
+        assertThat(ReferencesThreader.thread(List.of(
+                reply(3, "<c@example.com>", "<a@example.com>", "Re: Hello"),
+                message(1, "<a@example.com>", "Hello"),
+                reply(2, "<b@example.com>", "<a@example.com>", "Re: Hello"))))
+            .containsExactly(new Node(1, List.of(Node.leaf(3), Node.leaf(2))));
+    }
+
+    @Test
+    void threadShouldNotLoopOnCircularReferences() {
+        assertThat(ReferencesThreader.thread(List.of(
+                reply(1, "<a@example.com>", "<b@example.com>", "First"),
+                reply(2, "<b@example.com>", "<a@example.com>", "Second"))))
+            .containsExactly(new Node(2, List.of(Node.leaf(1))));
+    }
+
+    @Test
+    void threadShouldHandleMessagesWithoutOrWithDuplicatedMessageId() {
+        assertThat(ReferencesThreader.thread(List.of(
+                message(1, "<a@example.com>", "First"),
+                message(2, "<a@example.com>", "Second"),
+                new Message(3, Optional.empty(), Optional.empty(), Optional.empty(), Optional.of("Third")))))
+            .containsExactly(Node.leaf(1), Node.leaf(2), Node.leaf(3));
+    }
+}
@@ -439,6 +439,53 @@ class UidMsnConverterTest {
                 5, MessageUid.of(Integer.MAX_VALUE + 2L)));
     }
 
+    @Test
+    void addAllShouldAppendAscendingPages() {
+        testee.addAll(ImmutableList.of(MessageUid.of(1), MessageUid.of(3)));
+        testee.addAll(ImmutableList.of(MessageUid.of(4), MessageUid.of(7)));
+
+        assertThat(mapTesteeInternalDataToMsnByUid())
+            .isEqualTo(ImmutableMap.of(1, MessageUid.of(1),
+                2, MessageUid.of(3),
+                3, MessageUid.of(4),
+                4, MessageUid.of(7)));
+    }
+
+    @Test
+    void addAllShouldAppendAscendingPagesAcrossIntOverflow() {
+        testee.addAll(ImmutableList.of(MessageUid.of(1), MessageUid.of(3)));
+        testee.addAll(ImmutableList.of(MessageUid.of(Integer.MAX_VALUE + 1L), MessageUid.of(Integer.MAX_VALUE + 2L)));
+
+        assertThat(mapTesteeInternalDataToMsnByUid())
+            .isEqualTo(ImmutableMap.of(1, MessageUid.of(1),
+                2, MessageUid.of(3),
+                3, MessageUid.of(Integer.MAX_VALUE + 1L),
+                4, MessageUid.of(Integer.MAX_VALUE + 2L)));
+    }
+
+    @Test
+    void addAllShouldSortPagesOverlappingKnownUids() {
+        testee.addAll(ImmutableList.of(MessageUid.of(1), MessageUid.of(5)));
+        testee.addAll(ImmutableList.of(MessageUid.of(3), MessageUid.of(7)));
+
+        assertThat(mapTesteeInternalDataToMsnByUid())
+            .isEqualTo(ImmutableMap.of(1, MessageUid.of(1),
+                2, MessageUid.of(3),
+                3, MessageUid.of(5),
+                4, MessageUid.of(7)));
+    }
+
+    @Test
+    void trimShouldNotAlterContent() {
+        testee.addAll(ImmutableList.of(MessageUid.of(1), MessageUid.of(3)));
+
+        testee.trim();
+
+        assertThat(mapTesteeInternalDataToMsnByUid())
+            .isEqualTo(ImmutableMap.of(1, MessageUid.of(1),
+                2, MessageUid.of(3)));
+    }
+
     @Test
     void addUidShouldNotCreateDuplicatesInLongMode() {
         testee.addUid(MessageUid.of(17));
@@ -0,0 +1,186 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.imap.processor.fetch;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.james.imap.api.message.BodyFetchElement;
+import org.apache.james.imap.api.message.FetchData;
+import org.apache.james.imap.api.message.FetchData.Item;
+import org.apache.james.imap.api.message.SectionType;
+import org.apache.james.imap.message.response.FetchResponse;
+import org.apache.james.mailbox.model.Header;
+import org.apache.james.mailbox.model.MessageId;
+import org.apache.james.mailbox.model.TestMessageId;
+import org.apache.james.metrics.api.NoopGaugeRegistry;
+import org.apache.james.metrics.tests.RecordingMetricFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class FetchResponseCacheTest {
+    private static class NonSerializableMessageId implements MessageId {
+        @Override
+        public String serialize() {
+            throw new IllegalStateException("Non serializable message id");
+        }
+
+        @Override
+        public boolean isSerializable() {
+            return false;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            throw new IllegalStateException("Non comparable message id");
+        }
+
+        @Override
+        public int hashCode() {
+            throw new IllegalStateException("Non comparable message id");
+        }
+    }
+
+    private static final MessageId MESSAGE_ID = TestMessageId.of(42);
+    private static final FetchResponse.Envelope ENVELOPE = new EnvelopeImpl("date", "subject", null, null, null, null,
+        null, null, null, "<id@example.com>");
+    private static final BodyFetchElement HEADER_FIELDS = new BodyFetchElement("BODY[HEADER.FIELDS (FROM SUBJECT)]",
+        SectionType.HEADER_FIELDS, null, List.of("From", "Subject"), null, null);
+
+    private RecordingMetricFactory metricFactory;
+    private FetchResponseCache testee;
+
+    @BeforeEach
+    void setUp() {
+        metricFactory = new RecordingMetricFactory();
+        testee = new FetchResponseCache(FetchResponseCache.Configuration.DEFAULT, metricFactory, new NoopGaugeRegistry());
+    }
+
+    private FetchData envelopeAndHeaders() {
+        return FetchData.builder()
+            .fetch(Item.ENVELOPE)
+            .add(HEADER_FIELDS, true)
+            .build();
+    }
+
+    @Test
+    void lookupShouldMissWhenNothingWasLoaded() {
+        assertThat(testee.lookup(MESSAGE_ID, envelopeAndHeaders())).isEmpty();
+        assertThat(metricFactory.countFor("imap-fetch-response-cache-miss")).isEqualTo(1);
+    }
+
+    @Test
+    void lookupShouldReturnLoadedItems() throws Exception {
+        FetchResponseCache.Items loading = testee.loading(MESSAGE_ID);
+        loading.envelope(() -> ENVELOPE);
+        loading.bodyElement(HEADER_FIELDS, () -> new HeaderBodyElement(HEADER_FIELDS.getResponseName(),
+            List.of(new Header("From", "bob@example.com"))));
+
+        FetchResponseCache.Items cached = testee.lookup(MESSAGE_ID, envelopeAndHeaders()).get();
+        AtomicInteger loads = new AtomicInteger();
+
+        assertThat(cached.envelope(() -> {
+            loads.incrementAndGet();
+            return null;
+        })).isEqualTo(ENVELOPE);
+        FetchResponse.BodyElement element = cached.bodyElement(HEADER_FIELDS, () -> {
+            loads.incrementAndGet();
+            return null;
+        });
+        assertThat(new String(element.getInputStream().readAllBytes(), US_ASCII)).isEqualTo("From: bob@example.com\r\n\r\n");
+        assertThat(element.getName()).isEqualTo(HEADER_FIELDS.getResponseName());
+        assertThat(loads.get()).isZero();
+        assertThat(metricFactory.countFor("imap-fetch-response-cache-hit")).isEqualTo(1);
+    }
+
+    @Test
+    void lookupShouldMissWhenSomeItemsAreNotCached() throws Exception {
+        testee.loading(MESSAGE_ID).envelope(() -> ENVELOPE);
+
+        assertThat(testee.lookup(MESSAGE_ID, envelopeAndHeaders())).isEmpty();
+    }
+
+    @Test
+    void headerFieldsShouldBeCachedRegardlessOfNamesOrderAndCase() throws Exception {
+        testee.loading(MESSAGE_ID).bodyElement(HEADER_FIELDS, () -> new HeaderBodyElement(HEADER_FIELDS.getResponseName(), List.of()));
+
+        BodyFetchElement reordered = new BodyFetchElement("BODY[HEADER.FIELDS (subject from)]",
+            SectionType.HEADER_FIELDS, null, List.of("subject", "from"), null, null);
+
+        assertThat(testee.lookup(MESSAGE_ID, FetchData.builder().add(reordered, true).build())).isPresent();
+    }
+
+    @Test
+    void isCacheableShouldRejectContentFetches() {
+        FetchData fetch = FetchData.builder()
+            .fetch(Item.ENVELOPE)
+            .add(BodyFetchElement.createRFC822(), true)
+            .build();
+
+        assertThat(testee.isCacheable(fetch)).isFalse();
+    }
+
+    @Test
+    void isCacheableShouldRejectPartialHeaderFieldsFetches() {
+        BodyFetchElement partial = new BodyFetchElement("BODY[HEADER.FIELDS (FROM)]<0>",
+            SectionType.HEADER_FIELDS, null, List.of("From"), 0L, 10L);
+
+        assertThat(testee.isCacheable(FetchData.builder().add(partial, true).build())).isFalse();
+    }
+
+    @Test
+    void isCacheableShouldRejectFlagsOnlyFetches() {
+        assertThat(testee.isCacheable(FetchData.builder().fetch(Item.FLAGS, Item.UID).build())).isFalse();
+    }
+
+    @Test
+    void isCacheableShouldBeFalseWhenDisabled() {
+        FetchResponseCache disabled = new FetchResponseCache(FetchResponseCache.Configuration.DISABLED, metricFactory, new NoopGaugeRegistry());
+
+        assertThat(disabled.isCacheable(envelopeAndHeaders())).isFalse();
+    }
+
+    @Test
+    void loadingShouldNotStoreWhenDisabled() throws Exception {
+        FetchResponseCache disabled = new FetchResponseCache(FetchResponseCache.Configuration.DISABLED, metricFactory, new NoopGaugeRegistry());
+
+        disabled.loading(MESSAGE_ID).envelope(() -> ENVELOPE);
+
+        assertThat(disabled.lookup(MESSAGE_ID, FetchData.builder().fetch(Item.ENVELOPE).build())).isEmpty();
+    }
+
+    @Test
+    void nonSerializableMessageIdsShouldNotBeCached() throws Exception {
+        MessageId nonSerializable = new NonSerializableMessageId();
+        FetchResponseCache.Items loading = testee.loading(nonSerializable);
+        AtomicInteger loads = new AtomicInteger();
+
+        loading.envelope(() -> {
+            loads.incrementAndGet();
+            return ENVELOPE;
+        });
+
+        assertThat(loads).hasValue(1);
+        assertThat(testee.lookup(nonSerializable, envelopeAndHeaders())).isEmpty();
+    }
+}
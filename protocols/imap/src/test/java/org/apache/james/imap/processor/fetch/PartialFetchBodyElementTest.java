@@ -23,12 +23,17 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import org.apache.james.imap.message.response.FetchResponse.BodyElement;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import reactor.core.publisher.Flux;
+
 class PartialFetchBodyElementTest {
     private static final long NUMBER_OF_OCTETS = 100;
 
@@ -112,4 +117,41 @@ class PartialFetchBodyElementTest {
 
         assertThat(element.size()).describedAs("Size is less than number of octets so should be size").isEqualTo(50);
     }
+
+    @Test
+    void asReactiveBytesShouldReturnTheRequestedRangeAcrossBuffers() throws Exception {
+        PartialFetchBodyElement element = new PartialFetchBodyElement(mockBodyElement, 3, Optional.of(6L));
+        when(mockBodyElement.size()).thenReturn(12L);
+        when(mockBodyElement.asReactiveBytes()).thenReturn(Optional.of(Flux.just("0123", "4567", "89ab")
+            .map(chunk -> ByteBuffer.wrap(chunk.getBytes(StandardCharsets.US_ASCII)))));
+
+        assertThat(asString(element)).isEqualTo("345678");
+    }
+
+    @Test
+    void asReactiveBytesShouldReturnTheEndOfTheContentWhenNoLimitSpecified() throws Exception {
+        PartialFetchBodyElement element = new PartialFetchBodyElement(mockBodyElement, 5, Optional.empty());
+        when(mockBodyElement.size()).thenReturn(12L);
+        when(mockBodyElement.asReactiveBytes()).thenReturn(Optional.of(Flux.just("0123", "4567", "89ab")
+            .map(chunk -> ByteBuffer.wrap(chunk.getBytes(StandardCharsets.US_ASCII)))));
+
+        assertThat(asString(element)).isEqualTo("56789ab");
+    }
+
+    @Test
+    void asReactiveBytesShouldBeEmptyWhenStartIsAfterTheContent() throws Exception {
+        PartialFetchBodyElement element = new PartialFetchBodyElement(mockBodyElement, 20, Optional.of(6L));
+        when(mockBodyElement.size()).thenReturn(12L);
+        when(mockBodyElement.asReactiveBytes()).thenReturn(Optional.of(Flux.just("0123", "4567", "89ab")
+            .map(chunk -> ByteBuffer.wrap(chunk.getBytes(StandardCharsets.US_ASCII)))));
+
+        assertThat(asString(element)).isEmpty();
+    }
+
+    private String asString(PartialFetchBodyElement element) {
+        return Flux.from(element.asReactiveBytes().get())
+            .map(buffer -> StandardCharsets.US_ASCII.decode(buffer).toString())
+            .collect(Collectors.joining())
+            .block();
+    }
 }
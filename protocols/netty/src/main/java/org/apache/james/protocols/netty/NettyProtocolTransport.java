@@ -23,6 +23,7 @@ import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
 import java.time.Duration;
 import java.util.Optional;
@@ -34,6 +35,7 @@ import javax.net.ssl.SSLSession;
 import org.apache.james.protocols.api.AbstractProtocolTransport;
 import org.apache.james.protocols.api.ProtocolSession;
 import org.apache.james.protocols.api.handler.LineHandler;
+import org.reactivestreams.Publisher;
 
 import io.netty.buffer.Unpooled;
 import io.netty.channel.Channel;
@@ -41,6 +43,7 @@ import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.DefaultFileRegion;
 import io.netty.handler.ssl.SslHandler;
 import io.netty.handler.stream.ChunkedStream;
+import io.netty.handler.stream.ChunkedWriteHandler;
 
 
 /**
@@ -143,6 +146,17 @@ public class NettyProtocolTransport extends AbstractProtocolTransport {
         channel.writeAndFlush(new ChunkedStream(in));
     }
 
+    @Override
+    protected void writeToClient(Publisher<ByteBuffer> content, ProtocolSession session, boolean startTLS) {
+        if (startTLS) {
+            prepareStartTLS();
+        }
+        ChunkedWriteHandler chunkedWriteHandler = (ChunkedWriteHandler) channel.pipeline().get(HandlerConstants.CHUNK_HANDLER);
+        // A failure in the middle of the content can not be reported to the client
+        channel.writeAndFlush(new PublisherChunkedInput(content, chunkedWriteHandler))
+            .addListener(ChannelFutureListener.CLOSE_ON_FAILURE);
+    }
+
     @Override
     public void setReadable(boolean readable) {
         channel.config().setAutoRead(readable);
@@ -0,0 +1,141 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.protocols.netty;
+
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscription;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.stream.ChunkedInput;
+import io.netty.handler.stream.ChunkedWriteHandler;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Flux;
+
+/**
+ * {@link ChunkedInput} reading its chunks from a {@link Publisher}.
+ *
+ * The {@link ChunkedWriteHandler} reads chunks as long as the channel is writable. Only a few chunks are requested
+ * in advance, the following ones being requested as the previous ones are read, which propagates the back-pressure
+ * of the remote peer to the publisher. When no chunk is available yet, the transfer is resumed upon the next one.
+ */
+public class PublisherChunkedInput implements ChunkedInput<ByteBuf> {
+    private static final int PREFETCH = 4;
+
+    private final Queue<ByteBuffer> chunks = new ConcurrentLinkedQueue<>();
+    private final long length;
+    private final ChunkedWriteHandler chunkedWriteHandler;
+    private final ChunkSubscriber subscriber = new ChunkSubscriber();
+    private volatile boolean completed = false;
+    private volatile Throwable error;
+    private long progress = 0;
+
+    public PublisherChunkedInput(Publisher<ByteBuffer> content, ChunkedWriteHandler chunkedWriteHandler) {
+        this(content, -1, chunkedWriteHandler);
+    }
+
+    /**
+     * @param length the total size of the content, in bytes, or -1 when unknown
+     */
+    public PublisherChunkedInput(Publisher<ByteBuffer> content, long length, ChunkedWriteHandler chunkedWriteHandler) {
+        this.length = length;
+        this.chunkedWriteHandler = chunkedWriteHandler;
+        Flux.from(content).subscribe(subscriber);
+    }
+
+    @Override
+    public boolean isEndOfInput() throws Exception {
+        if (error != null) {
+            throw new Exception(error);
+        }
+        return completed && chunks.isEmpty();
+    }
+
+    @Override
+    public void close() {
+        subscriber.dispose();
+        chunks.clear();
+    }
+
+    @Deprecated
+    @Override
+    public ByteBuf readChunk(ChannelHandlerContext ctx) throws Exception {
+        return readChunk(ctx.alloc());
+    }
+
+    @Override
+    public ByteBuf readChunk(ByteBufAllocator allocator) throws Exception {
+        if (error != null) {
+            throw new Exception(error);
+        }
+        ByteBuffer chunk = chunks.poll();
+        if (chunk == null) {
+            return null;
+        }
+        subscriber.requestOne();
+        progress += chunk.remaining();
+        return Unpooled.wrappedBuffer(chunk);
+    }
+
+    @Override
+    public long length() {
+        return length;
+    }
+
+    @Override
+    public long progress() {
+        return progress;
+    }
+
+    private class ChunkSubscriber extends BaseSubscriber<ByteBuffer> {
+        @Override
+        protected void hookOnSubscribe(Subscription subscription) {
+            subscription.request(PREFETCH);
+        }
+
+        @Override
+        protected void hookOnNext(ByteBuffer chunk) {
+            chunks.add(chunk);
+            chunkedWriteHandler.resumeTransfer();
+        }
+
+        @Override
+        protected void hookOnComplete() {
+            completed = true;
+            chunkedWriteHandler.resumeTransfer();
+        }
+
+        @Override
+        protected void hookOnError(Throwable throwable) {
+            error = throwable;
+            chunkedWriteHandler.resumeTransfer();
+        }
+
+        void requestOne() {
+            request(1);
+        }
+    }
+}
@@ -0,0 +1,149 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.protocols.netty;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.stream.ChunkedWriteHandler;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+class PublisherChunkedInputTest {
+    private ChunkedWriteHandler chunkedWriteHandler;
+    private EmbeddedChannel channel;
+    private Sinks.Many<ByteBuffer> sink;
+
+    @BeforeEach
+    void setUp() {
+        chunkedWriteHandler = new ChunkedWriteHandler();
+        channel = new EmbeddedChannel(chunkedWriteHandler);
+        sink = Sinks.many().unicast().onBackpressureBuffer();
+    }
+
+    private static ByteBuffer chunk(String value) {
+        return ByteBuffer.wrap(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String readOutbound() {
+        StringBuilder result = new StringBuilder();
+        ByteBuf buffer;
+        while ((buffer = channel.readOutbound()) != null) {
+            result.append(buffer.toString(StandardCharsets.UTF_8));
+            buffer.release();
+        }
+        return result.toString();
+    }
+
+    @Test
+    void chunksShouldBeWrittenInOrder() {
+        ChannelFuture future = channel.writeAndFlush(new PublisherChunkedInput(
+            Flux.just(chunk("abc"), chunk("def"), chunk("ghi")), chunkedWriteHandler));
+
+        assertThat(readOutbound()).isEqualTo("abcdefghi");
+        assertThat(future.isSuccess()).isTrue();
+    }
+
+    @Test
+    void onlyAFewChunksShouldBeRequestedInAdvance() throws Exception {
+        AtomicLong requested = new AtomicLong();
+        PublisherChunkedInput testee = new PublisherChunkedInput(Flux.range(0, 100)
+            .map(i -> chunk(String.valueOf(i)))
+            .doOnRequest(requested::addAndGet), chunkedWriteHandler);
+
+        assertThat(requested.get()).isEqualTo(4);
+
+        testee.readChunk(ByteBufAllocator.DEFAULT).release();
+
+        assertThat(requested.get()).isEqualTo(5);
+    }
+
+    @Test
+    void transferShouldResumeWhenChunksArePublishedLater() {
+        ChannelFuture future = channel.writeAndFlush(new PublisherChunkedInput(sink.asFlux(), chunkedWriteHandler));
+
+        assertThat(readOutbound()).isEmpty();
+        assertThat(future.isDone()).isFalse();
+
+        sink.tryEmitNext(chunk("abc"));
+        assertThat(readOutbound()).isEqualTo("abc");
+
+        sink.tryEmitNext(chunk("def"));
+        sink.tryEmitComplete();
+        assertThat(readOutbound()).isEqualTo("def");
+        assertThat(future.isSuccess()).isTrue();
+    }
+
+    @Test
+    void endOfInputShouldBeReachedOnceAllChunksAreRead() throws Exception {
+        PublisherChunkedInput testee = new PublisherChunkedInput(Flux.just(chunk("abc")), chunkedWriteHandler);
+
+        assertThat(testee.isEndOfInput()).isFalse();
+
+        testee.readChunk(ByteBufAllocator.DEFAULT).release();
+
+        assertThat(testee.isEndOfInput()).isTrue();
+        assertThat(testee.progress()).isEqualTo(3);
+    }
+
+    @Test
+    void lengthShouldBeUnknownByDefault() {
+        assertThat(new PublisherChunkedInput(Flux.empty(), chunkedWriteHandler).length()).isEqualTo(-1);
+        assertThat(new PublisherChunkedInput(Flux.empty(), 12, chunkedWriteHandler).length()).isEqualTo(12);
+    }
+
+    @Test
+    void publisherErrorsShouldFailTheWrite() {
+        ChannelFuture future = channel.writeAndFlush(new PublisherChunkedInput(sink.asFlux(), chunkedWriteHandler));
+
+        sink.tryEmitNext(chunk("abc"));
+        IOException error = new IOException("boom");
+        sink.tryEmitError(error);
+
+        assertThat(readOutbound()).isEqualTo("abc");
+        assertThat(future.isSuccess()).isFalse();
+        assertThat(future.cause()).hasCause(error);
+    }
+
+    @Test
+    void closingTheChannelBeforeCompletionShouldCancelThePublisher() {
+        AtomicBoolean cancelled = new AtomicBoolean(false);
+        ChannelFuture future = channel.writeAndFlush(new PublisherChunkedInput(sink.asFlux()
+            .doOnCancel(() -> cancelled.set(true)), chunkedWriteHandler));
+        sink.tryEmitNext(chunk("abc"));
+
+        channel.close();
+
+        assertThat(cancelled.get()).isTrue();
+        assertThat(future.isSuccess()).isFalse();
+    }
+}
@@ -0,0 +1,57 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.protocols.pop3;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.james.protocols.api.ReactiveStreamResponse;
+import org.apache.james.protocols.api.Response;
+import org.reactivestreams.Publisher;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * {@link ReactiveStreamResponse} implementation which allows to write back big-data to the client for POP3, without
+ * blocking while it is read
+ */
+public class POP3ReactiveStreamResponse extends POP3Response implements ReactiveStreamResponse {
+    private static final byte[] TERMINATION = ".\r\n".getBytes(StandardCharsets.US_ASCII);
+
+    private final Publisher<ByteBuffer> content;
+
+    public POP3ReactiveStreamResponse(String code, CharSequence description, Publisher<ByteBuffer> content) {
+        super(code, description);
+        this.content = content;
+    }
+
+    @Override
+    public Publisher<ByteBuffer> getContent() {
+        return Flux.from(content)
+            .concatWith(Mono.fromSupplier(() -> ByteBuffer.wrap(TERMINATION)));
+    }
+
+    @Override
+    public Response immutable() {
+        throw new UnsupportedOperationException("POP3ReactiveStreamResponse can only be used once, so its not supported to reuse it");
+    }
+
+}
@@ -21,7 +21,8 @@ package org.apache.james.protocols.pop3.core;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.List;
+import java.util.List;
+import java.util.Set;
 
 import jakarta.inject.Inject;
 
@@ -88,13 +89,13 @@ public class ListCmdHandler extends AbstractPOP3CommandHandler {
         if (session.getHandlerState() == POP3Session.TRANSACTION) {
 
             List<MessageMetaData> uidList = session.getAttachment(POP3Session.UID_LIST, State.Transaction).orElse(ImmutableList.of());
-            List<String> deletedUidList = session.getAttachment(POP3Session.DELETED_UID_LIST, State.Transaction).orElse(ImmutableList.of());
+            Set<String> deletedUids = ImmutableSet.copyOf(session.getAttachment(POP3Session.DELETED_UID_LIST, State.Transaction).orElse(ImmutableList.of()));
 
             long totalSize = 0;
             List<String> validResults = new ArrayList<>();
             for (int i = 0; i < uidList.size(); i++) {
                 MessageMetaData data = uidList.get(i);
-                if (!deletedUidList.contains(data.getUid())) {
+                if (!deletedUids.contains(data.getUid())) {
                     totalSize += data.getSize();
                     validResults.add((i + 1) + " " + data.getSize());
                 }
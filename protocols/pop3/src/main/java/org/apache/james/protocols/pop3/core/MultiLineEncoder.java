@@ -0,0 +1,139 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.protocols.pop3.core;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.reactivestreams.Publisher;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Encodes message content as a POP3 multi-line response (RFC-1939 section 3), chunk by chunk: lines starting with a
+ * dot get an extra dot, and the content is terminated by a CRLF. This is the reactive counterpart of
+ * {@link ExtraDotInputStream} and {@link CRLFTerminatedInputStream}.
+ *
+ * It can also limit the content to the headers and the first lines of the body (TOP command). Once this limit is
+ * reached the remaining content is no longer requested.
+ *
+ * Chunks needing no change are passed through without being copied.
+ */
+public class MultiLineEncoder {
+    private static final byte DOT = '.';
+    private static final byte CR = '\r';
+    private static final byte LF = '\n';
+
+    public static Flux<ByteBuffer> encode(Publisher<ByteBuffer> content) {
+        return encode(content, Optional.empty());
+    }
+
+    public static Flux<ByteBuffer> encodeTop(Publisher<ByteBuffer> content, int bodyLineCount) {
+        return encode(content, Optional.of(bodyLineCount));
+    }
+
+    private static Flux<ByteBuffer> encode(Publisher<ByteBuffer> content, Optional<Integer> bodyLineLimit) {
+        return Flux.defer(() -> {
+            MultiLineEncoder encoder = new MultiLineEncoder(bodyLineLimit);
+            return Flux.from(content)
+                .map(encoder::encode)
+                .takeUntil(any -> encoder.limitReached)
+                .filter(ByteBuffer::hasRemaining)
+                .concatWith(Mono.fromCallable(encoder::termination).flatMap(Mono::justOrEmpty));
+        });
+    }
+
+    private final Optional<Integer> bodyLineLimit;
+    private boolean startLine = true;
+    private byte last = 0;
+    private byte previousLast = 0;
+    private int lineLength = 0;
+    private boolean isBody = false;
+    private int bodyLines = 0;
+    private boolean limitReached = false;
+
+    private MultiLineEncoder(Optional<Integer> bodyLineLimit) {
+        this.bodyLineLimit = bodyLineLimit;
+    }
+
+    private ByteBuffer encode(ByteBuffer chunk) {
+        List<Integer> dotsToStuff = new ArrayList<>();
+        int start = chunk.position();
+        int position = start;
+        while (position < chunk.limit() && !limitReached) {
+            byte b = chunk.get(position);
+            if (startLine && b == DOT) {
+                dotsToStuff.add(position);
+            }
+            update(b);
+            position++;
+        }
+        if (dotsToStuff.isEmpty() && position == chunk.limit()) {
+            return chunk;
+        }
+
+        ByteBuffer result = ByteBuffer.allocate(position - start + dotsToStuff.size());
+        int copied = start;
+        for (int dot : dotsToStuff) {
+            result.put(chunk.slice(copied, dot - copied));
+            result.put(DOT);
+            copied = dot;
+        }
+        result.put(chunk.slice(copied, position - copied));
+        return result.flip();
+    }
+
+    private void update(byte b) {
+        startLine = false;
+        if (b == LF && last == CR) {
+            startLine = true;
+            endLine();
+        } else {
+            lineLength++;
+        }
+        previousLast = last;
+        last = b;
+    }
+
+    private void endLine() {
+        boolean emptyLine = lineLength == 1;
+        lineLength = 0;
+        if (isBody) {
+            bodyLines++;
+        } else {
+            // The first empty line separates the headers from the body
+            isBody = emptyLine;
+        }
+        limitReached = isBody && bodyLineLimit.map(limit -> bodyLines >= limit).orElse(false);
+    }
+
+    private Optional<ByteBuffer> termination() {
+        if (limitReached || (last == LF && previousLast == CR)) {
+            return Optional.empty();
+        }
+        if (last == CR) {
+            return Optional.of(ByteBuffer.wrap(new byte[] {LF}));
+        }
+        return Optional.of(ByteBuffer.wrap(new byte[] {CR, LF}));
+    }
+}
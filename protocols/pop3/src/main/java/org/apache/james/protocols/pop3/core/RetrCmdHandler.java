@@ -20,7 +20,7 @@
 package org.apache.james.protocols.pop3.core;
 
 import java.io.IOException;
-import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.util.Collection;
 
 import jakarta.inject.Inject;
@@ -28,11 +28,12 @@ import jakarta.inject.Inject;
 import org.apache.james.metrics.api.MetricFactory;
 import org.apache.james.protocols.api.Request;
 import org.apache.james.protocols.api.Response;
+import org.apache.james.protocols.pop3.POP3ReactiveStreamResponse;
 import org.apache.james.protocols.pop3.POP3Response;
 import org.apache.james.protocols.pop3.POP3Session;
-import org.apache.james.protocols.pop3.POP3StreamResponse;
 import org.apache.james.protocols.pop3.mailbox.MessageMetaData;
 import org.apache.james.util.MDCBuilder;
+import org.reactivestreams.Publisher;
 
 import com.google.common.collect.ImmutableSet;
 
@@ -51,9 +52,8 @@ public class RetrCmdHandler extends AbstractPOP3CommandHandler {
         this.commandDelegate = new POP3MessageCommandDelegate(COMMANDS) {
             @Override
             protected Response handleMessageExists(POP3Session session, MessageMetaData data, POP3MessageCommandArguments args) throws IOException {
-                InputStream content = getMessageContent(session, data);
-                InputStream in = new CRLFTerminatedInputStream(new ExtraDotInputStream(content));
-                return new POP3StreamResponse(POP3Response.OK_RESPONSE, "Message follows", in);
+                Publisher<ByteBuffer> content = readMessage(session, data);
+                return new POP3ReactiveStreamResponse(POP3Response.OK_RESPONSE, "Message follows", MultiLineEncoder.encode(content));
             }
         };
     }
@@ -74,8 +74,8 @@ public class RetrCmdHandler extends AbstractPOP3CommandHandler {
                 () -> commandDelegate.handleMessageRequest(session, request)));
     }
     
-    protected InputStream getMessageContent(POP3Session session, MessageMetaData data) throws IOException {
-        return session.getUserMailbox().getMessage(data.getUid());
+    protected Publisher<ByteBuffer> readMessage(POP3Session session, MessageMetaData data) throws IOException {
+        return session.getUserMailbox().readMessage(data.getUid());
     }
 
     @Override
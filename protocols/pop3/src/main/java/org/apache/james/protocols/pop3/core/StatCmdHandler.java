@@ -20,7 +20,8 @@
 package org.apache.james.protocols.pop3.core;
 
 import java.util.Collection;
-import java.util.List;
+import java.util.List;
+import java.util.Set;
 
 import jakarta.inject.Inject;
 
@@ -71,12 +72,12 @@ public class StatCmdHandler extends AbstractPOP3CommandHandler {
         if (session.getHandlerState() == POP3Session.TRANSACTION) {
 
             List<MessageMetaData> uidList = session.getAttachment(POP3Session.UID_LIST, State.Transaction).orElse(ImmutableList.of());
-            List<String> deletedUidList = session.getAttachment(POP3Session.DELETED_UID_LIST, State.Transaction).orElse(ImmutableList.of());
+            Set<String> deletedUids = ImmutableSet.copyOf(session.getAttachment(POP3Session.DELETED_UID_LIST, State.Transaction).orElse(ImmutableList.of()));
             long size = 0;
             int count = 0;
             if (!uidList.isEmpty()) {
                 for (MessageMetaData data : uidList) {
-                    if (!deletedUidList.contains(data.getUid())) {
+                    if (!deletedUids.contains(data.getUid())) {
                         size += data.getSize();
                         count++;
                     }
@@ -20,7 +20,7 @@
 package org.apache.james.protocols.pop3.core;
 
 import java.io.IOException;
-import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Set;
@@ -30,11 +30,12 @@ import jakarta.inject.Inject;
 import org.apache.james.metrics.api.MetricFactory;
 import org.apache.james.protocols.api.Request;
 import org.apache.james.protocols.api.Response;
+import org.apache.james.protocols.pop3.POP3ReactiveStreamResponse;
 import org.apache.james.protocols.pop3.POP3Response;
 import org.apache.james.protocols.pop3.POP3Session;
-import org.apache.james.protocols.pop3.POP3StreamResponse;
 import org.apache.james.protocols.pop3.mailbox.MessageMetaData;
 import org.apache.james.util.MDCBuilder;
+import org.reactivestreams.Publisher;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
@@ -61,9 +62,9 @@ public class TopCmdHandler extends AbstractPOP3CommandHandler implements CapaCap
                     return handleSyntaxError();
                 }
                 int lineCount = args.getLineCount().get();
-                InputStream content = lineCount == 0 ? getMessageHeaders(session, data) : getMessageContent(session, data);
-                InputStream in = new CountingBodyInputStream(new CRLFTerminatedInputStream(new ExtraDotInputStream(content)), lineCount);
-                return new POP3StreamResponse(POP3Response.OK_RESPONSE, "Message follows", in);
+                // Only the headers need to be read when no body line is requested
+                Publisher<ByteBuffer> content = lineCount == 0 ? readMessageHeaders(session, data) : readMessage(session, data);
+                return new POP3ReactiveStreamResponse(POP3Response.OK_RESPONSE, "Message follows", MultiLineEncoder.encodeTop(content, lineCount));
             }
 
             @Override
@@ -92,12 +93,12 @@ public class TopCmdHandler extends AbstractPOP3CommandHandler implements CapaCap
                 () -> commandDelegate.handleMessageRequest(session, request)));
     }
 
-    protected InputStream getMessageContent(POP3Session session, MessageMetaData data) throws IOException {
-        return session.getUserMailbox().getMessage(data.getUid());
+    protected Publisher<ByteBuffer> readMessage(POP3Session session, MessageMetaData data) throws IOException {
+        return session.getUserMailbox().readMessage(data.getUid());
     }
 
-    protected InputStream getMessageHeaders(POP3Session session, MessageMetaData data) throws IOException {
-        return session.getUserMailbox().getMessageHeaders(data.getUid());
+    protected Publisher<ByteBuffer> readMessageHeaders(POP3Session session, MessageMetaData data) throws IOException {
+        return session.getUserMailbox().readMessageHeaders(data.getUid());
     }
 
     @Override
@@ -113,96 +114,4 @@ public class TopCmdHandler extends AbstractPOP3CommandHandler implements CapaCap
     public Collection<String> getImplCommands() {
         return COMMANDS;
     }
-
-    /**
-     * This {@link InputStream} implementation can be used to return all message headers 
-     * and limit the body lines which will be read from the wrapped {@link InputStream}.
-     */   
-    private static final class CountingBodyInputStream extends InputStream {
-
-        private int count = 0;
-        private int limit = -1;
-        private int lastChar;
-        private final InputStream in;
-        private boolean isBody = false; // starting from header
-        private boolean isEmptyLine = false;
-
-        /**
-         * 
-         * @param in
-         *            InputStream to read from
-         * @param limit
-         *            the lines to read. -1 is used for no limits
-         */
-        public CountingBodyInputStream(InputStream in, int limit) {
-            this.in = in;
-            this.limit = limit;
-        }
-
-        @Override
-        public int read() throws IOException {
-            if (limit != -1) {
-                if (count <= limit) {
-                    int a = in.read();
-
-                    // check for empty line
-                    if (!isBody && isEmptyLine && lastChar == '\r' && a == '\n') {
-                        // reached body
-                        isBody = true;
-                    }
-
-                    if (lastChar == '\r' && a == '\n') {
-                        // reset empty line flag
-                        isEmptyLine = true;
-
-                        if (isBody) {
-                            count++;
-                        }
-                    } else if (lastChar == '\n' && a != '\r') {
-                        isEmptyLine = false;
-                    }
-
-                    lastChar = a;
-
-                    return a;
-                } else {
-                    return -1;
-                }
-            } else {
-                return in.read();
-            }
-
-        }
-
-        @Override
-        public long skip(long n) throws IOException {
-            return in.skip(n);
-        }
-
-        @Override
-        public int available() throws IOException {
-            return in.available();
-        }
-
-        @Override
-        public void close() throws IOException {
-            in.close();
-        }
-
-        @Override
-        public void mark(int readlimit) {
-            // not supported
-        }
-
-        @Override
-        public void reset() throws IOException {
-            // do nothing as mark is not supported
-        }
-
-        @Override
-        public boolean markSupported() {
-            return false;
-        }
-
-    }
 }
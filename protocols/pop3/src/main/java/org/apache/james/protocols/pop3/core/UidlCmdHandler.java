@@ -87,14 +87,14 @@ public class UidlCmdHandler extends AbstractPOP3CommandHandler implements CapaCa
         
         if (session.getHandlerState() == POP3Session.TRANSACTION) {
             List<MessageMetaData> uidList = session.getAttachment(POP3Session.UID_LIST, State.Transaction).orElse(ImmutableList.of());
-            List<String> deletedUidList = session.getAttachment(POP3Session.DELETED_UID_LIST, State.Transaction).orElse(ImmutableList.of());
+            Set<String> deletedUids = ImmutableSet.copyOf(session.getAttachment(POP3Session.DELETED_UID_LIST, State.Transaction).orElse(ImmutableList.of()));
             try {
                 String identifier = session.getUserMailbox().getIdentifier();
                 POP3Response response = new POP3Response(POP3Response.OK_RESPONSE, "unique-id listing follows");
 
                 for (int i = 0; i < uidList.size(); i++) {
                     MessageMetaData metadata = uidList.get(i);
-                    if (!deletedUidList.contains(metadata.getUid())) {
+                    if (!deletedUids.contains(metadata.getUid())) {
                         response.appendLine((i + 1) + " " + metadata.getUid(identifier));
                     }
                 }
@@ -20,12 +20,23 @@ package org.apache.james.protocols.pop3.mailbox;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.util.List;
 
+import org.apache.james.util.ReactorUtils;
+import org.reactivestreams.Publisher;
+
+import com.github.fge.lambdas.Throwing;
+
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
 /**
  * A Mailbox which is used in POP3 to retrieve messages
  */
 public interface Mailbox {
+    int BUFFER_SIZE = 16384;
+
     /**
      * Return the full message (headers + body) as {@link InputStream}
      * for the given <code>uid</code>.
@@ -42,6 +53,30 @@ public interface Mailbox {
         return getMessage(uid);
     }
 
+    /**
+     * Return the full message (headers + body) for the given <code>uid</code>, as chunks read when requested.
+     * Implementations may override this in order to stream the content from their storage.
+     * @exception IOException If message can not be found or is inaccessible
+     */
+    default Publisher<ByteBuffer> readMessage(String uid) throws IOException {
+        return asChunks(getMessage(uid));
+    }
+
+    /**
+     * Return only the headers for the given <code>uid</code>, as chunks read when requested.
+     * @exception IOException If message can not be found or is inaccessible
+     */
+    default Publisher<ByteBuffer> readMessageHeaders(String uid) throws IOException {
+        return asChunks(getMessageHeaders(uid));
+    }
+
+    private static Publisher<ByteBuffer> asChunks(InputStream content) {
+        return Flux.using(() -> content,
+                stream -> ReactorUtils.toChunks(stream, BUFFER_SIZE),
+                Throwing.consumer(InputStream::close))
+            .subscribeOn(Schedulers.boundedElastic());
+    }
+
     /**
      * Return a immutable {@link List} which holds the {@link MessageMetaData}
      * for all messages in the {@link Mailbox}
@@ -0,0 +1,111 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.protocols.pop3.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import reactor.core.publisher.Flux;
+
+class MultiLineEncoderTest {
+    private static Flux<ByteBuffer> chunks(String... chunks) {
+        return Flux.fromArray(chunks)
+            .map(chunk -> ByteBuffer.wrap(chunk.getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    private static String asString(Flux<ByteBuffer> content) {
+        return content.map(bytes -> StandardCharsets.US_ASCII.decode(bytes).toString())
+            .collect(Collectors.joining())
+            .block();
+    }
+
+    @Test
+    void encodeShouldStuffDotsStartingLines() {
+        assertThat(asString(MultiLineEncoder.encode(chunks("This\r\n.\r\n..\r\n.Text\r\nThis.\r\n"))))
+            .isEqualTo("This\r\n..\r\n...\r\n..Text\r\nThis.\r\n");
+    }
+
+    @Test
+    void encodeShouldStuffDotsAcrossChunks() {
+        assertThat(asString(MultiLineEncoder.encode(chunks("This\r", "\n", ".Text\r\n", "Other\r\n"))))
+            .isEqualTo("This\r\n..Text\r\nOther\r\n");
+    }
+
+    @Test
+    void encodeShouldStuffDotStartingContent() {
+        assertThat(asString(MultiLineEncoder.encode(chunks(".Text\r\n"))))
+            .isEqualTo("..Text\r\n");
+    }
+
+    @Test
+    void encodeShouldReturnUnchangedChunksAsIs() {
+        ByteBuffer chunk = ByteBuffer.wrap("Subject: test\r\n\r\nABCD\r\n".getBytes(StandardCharsets.US_ASCII));
+
+        assertThat(MultiLineEncoder.encode(Flux.just(chunk)).blockFirst())
+            .isSameAs(chunk);
+    }
+
+    @Test
+    void encodeShouldTerminateContentWithCRLF() {
+        assertThat(asString(MultiLineEncoder.encode(chunks("ABCD"))))
+            .isEqualTo("ABCD\r\n");
+        assertThat(asString(MultiLineEncoder.encode(chunks("ABCD\r"))))
+            .isEqualTo("ABCD\r\n");
+        assertThat(asString(MultiLineEncoder.encode(chunks("ABCD\n"))))
+            .isEqualTo("ABCD\n\r\n");
+        assertThat(asString(MultiLineEncoder.encode(chunks())))
+            .isEqualTo("\r\n");
+    }
+
+    @Test
+    void encodeTopShouldLimitBodyLines() {
+        assertThat(asString(MultiLineEncoder.encodeTop(chunks("Subject: test\r\n\r\nline1\r\n", "line2\r\nline3\r\n"), 2)))
+            .isEqualTo("Subject: test\r\n\r\nline1\r\nline2\r\n");
+    }
+
+    @Test
+    void encodeTopShouldReturnHeadersWhenNoBodyLine() {
+        assertThat(asString(MultiLineEncoder.encodeTop(chunks("Subject: test\r\n\r\nline1\r\n"), 0)))
+            .isEqualTo("Subject: test\r\n\r\n");
+    }
+
+    @Test
+    void encodeTopShouldReturnWholeContentWhenShorterThanTheLimit() {
+        assertThat(asString(MultiLineEncoder.encodeTop(chunks("Subject: test\r\n\r\nline1"), 10)))
+            .isEqualTo("Subject: test\r\n\r\nline1\r\n");
+    }
+
+    @Test
+    void encodeTopShouldNotRequestContentOnceTheLimitIsReached() {
+        AtomicInteger emittedChunks = new AtomicInteger();
+        Flux<ByteBuffer> content = chunks("Subject: test\r\n\r\n", "line1\r\n", "line2\r\n", "line3\r\n")
+            .doOnNext(any -> emittedChunks.incrementAndGet());
+
+        asString(MultiLineEncoder.encodeTop(content, 1));
+
+        assertThat(emittedChunks.get()).isEqualTo(2);
+    }
+}
@@ -32,12 +32,13 @@ import org.apache.james.metrics.tests.RecordingMetricFactory;
 import org.apache.james.protocols.api.ProtocolSession;
 import org.apache.james.protocols.api.Request;
 import org.apache.james.protocols.api.Response;
+import org.apache.james.protocols.pop3.POP3ReactiveStreamResponse;
 import org.apache.james.protocols.pop3.POP3Response;
 import org.apache.james.protocols.pop3.POP3Session;
-import org.apache.james.protocols.pop3.POP3StreamResponse;
 import org.apache.james.protocols.pop3.mailbox.Mailbox;
 import org.apache.james.protocols.pop3.mailbox.MessageMetaData;
 import org.junit.jupiter.api.Test;
+import org.mockito.Answers;
 
 class RetrCmdHandlerTest {
 
@@ -52,7 +53,7 @@ class RetrCmdHandlerTest {
         MessageMetaData data = new MessageMetaData("1234", 567);
         when(session.getAttachment(POP3Session.UID_LIST, ProtocolSession.State.Transaction)).thenReturn(Optional.of(List.of(data)));
 
-        Mailbox mailbox = mock(Mailbox.class);
+        Mailbox mailbox = mock(Mailbox.class, Answers.CALLS_REAL_METHODS);
         when(session.getUserMailbox()).thenReturn(mailbox);
         when(mailbox.getMessage(data.getUid())).thenThrow(new IOException("cannot retrieve message content"));
 
@@ -72,12 +73,12 @@ class RetrCmdHandlerTest {
         MessageMetaData data = new MessageMetaData("1234", 567);
         when(session.getAttachment(POP3Session.UID_LIST, ProtocolSession.State.Transaction)).thenReturn(Optional.of(List.of(data)));
 
-        Mailbox mailbox = mock(Mailbox.class);
+        Mailbox mailbox = mock(Mailbox.class, Answers.CALLS_REAL_METHODS);
         when(session.getUserMailbox()).thenReturn(mailbox);
         when(mailbox.getMessage(data.getUid())).thenReturn(InputStream.nullInputStream());
 
         Response response = new RetrCmdHandler(new RecordingMetricFactory()).onCommand(session, request);
         assertThat(response.getRetCode()).isEqualTo(POP3Response.OK_RESPONSE);
-        assertThat(response).isInstanceOf(POP3StreamResponse.class);
+        assertThat(response).isInstanceOf(POP3ReactiveStreamResponse.class);
     }
 }
@@ -28,18 +28,21 @@ import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
-import org.apache.commons.io.IOUtils;
 import org.apache.james.metrics.tests.RecordingMetricFactory;
 import org.apache.james.protocols.api.ProtocolSession;
 import org.apache.james.protocols.api.Request;
 import org.apache.james.protocols.api.Response;
+import org.apache.james.protocols.pop3.POP3ReactiveStreamResponse;
 import org.apache.james.protocols.pop3.POP3Response;
 import org.apache.james.protocols.pop3.POP3Session;
-import org.apache.james.protocols.pop3.POP3StreamResponse;
 import org.apache.james.protocols.pop3.mailbox.Mailbox;
 import org.apache.james.protocols.pop3.mailbox.MessageMetaData;
 import org.junit.jupiter.api.Test;
+import org.mockito.Answers;
+
+import reactor.core.publisher.Flux;
 
 public class TopCmdHandlerTest {
 
@@ -83,7 +86,7 @@ public class TopCmdHandlerTest {
         MessageMetaData data = new MessageMetaData("1234", 567);
         when(session.getAttachment(POP3Session.UID_LIST, ProtocolSession.State.Transaction)).thenReturn(Optional.of(List.of(data)));
 
-        Mailbox mailbox = mock(Mailbox.class);
+        Mailbox mailbox = mock(Mailbox.class, Answers.CALLS_REAL_METHODS);
         when(session.getUserMailbox()).thenReturn(mailbox);
         when(mailbox.getMessage(data.getUid())).thenThrow(new IOException("cannot retrieve message content"));
 
@@ -103,7 +106,7 @@ public class TopCmdHandlerTest {
         MessageMetaData data = new MessageMetaData("1234", 567);
         when(session.getAttachment(POP3Session.UID_LIST, ProtocolSession.State.Transaction)).thenReturn(Optional.of(List.of(data)));
 
-        Mailbox mailbox = mock(Mailbox.class);
+        Mailbox mailbox = mock(Mailbox.class, Answers.CALLS_REAL_METHODS);
         when(session.getUserMailbox()).thenReturn(mailbox);
         String message = 
             "Subject: test\r\n" +
@@ -115,9 +118,12 @@ public class TopCmdHandlerTest {
 
         Response response = new TopCmdHandler(new RecordingMetricFactory()).onCommand(session, request);
         assertThat(response.getRetCode()).isEqualTo(POP3Response.OK_RESPONSE);
-        assertThat(response).isInstanceOf(POP3StreamResponse.class);
+        assertThat(response).isInstanceOf(POP3ReactiveStreamResponse.class);
         
-        String result = IOUtils.toString(((POP3StreamResponse) response).getStream(), StandardCharsets.UTF_8);
+        String result = Flux.from(((POP3ReactiveStreamResponse) response).getContent())
+            .map(bytes -> StandardCharsets.UTF_8.decode(bytes).toString())
+            .collect(Collectors.joining())
+            .block();
         assertThat(result).contains("line1");
         assertThat(result).contains("line2");
         assertThat(result).doesNotContain("line3");
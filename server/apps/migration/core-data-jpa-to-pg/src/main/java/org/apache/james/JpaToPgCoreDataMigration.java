@@ -22,6 +22,8 @@ package org.apache.james;
 import static org.apache.james.modules.blobstore.BlobStoreModulesChooser.chooseBlobStoreDAOModule;
 import static org.apache.james.modules.blobstore.BlobStoreModulesChooser.chooseCompressionModule;
 import static org.apache.james.modules.blobstore.BlobStoreModulesChooser.chooseEncryptionModule;
+import static org.apache.james.modules.blobstore.BlobStoreModulesChooser.chooseHedgedReadsModule;
+import static org.apache.james.modules.blobstore.BlobStoreModulesChooser.chooseLocalCacheModule;
 import static org.apache.james.modules.blobstore.BlobStoreModulesChooser.chooseStoragePolicyModule;
 
 import java.util.List;
@@ -162,9 +164,11 @@ public class JpaToPgCoreDataMigration {
     public static List<Module> chooseModules(BlobStoreConfiguration choosingConfiguration) {
         return ImmutableList.<Module>builder()
                 .add(chooseBlobStoreDAOModule(choosingConfiguration.getImplementation()))
+                .add(chooseHedgedReadsModule(choosingConfiguration.getHedgedReadsConfiguration()))
+                .add(chooseLocalCacheModule(choosingConfiguration.getLocalCacheConfiguration()))
                 .add(chooseEncryptionModule(choosingConfiguration.getCryptoConfig()))
                 .add(chooseCompressionModule(choosingConfiguration.getCompressionConfiguration()))
-                .addAll(chooseStoragePolicyModule(choosingConfiguration.storageStrategy()))
+                .addAll(chooseStoragePolicyModule(choosingConfiguration.storageStrategy(), choosingConfiguration.getChunkingConfiguration()))
                 .add(binder -> binder.bind(BlobStoreConfiguration.class).toInstance(choosingConfiguration))
                 .build();
     }
@@ -32,6 +32,7 @@ import org.apache.james.jmap.JMAPModule;
 import org.apache.james.jmap.oidc.JMAPOidcModule;
 import org.apache.james.json.DTO;
 import org.apache.james.json.DTOModule;
+import org.apache.james.lifecycle.api.StartUpCheck;
 import org.apache.james.modules.BlobExportMechanismModule;
 import org.apache.james.modules.DistributedTaskSerializationModule;
 import org.apache.james.modules.LegacyEncryptionModule;
@@ -55,6 +56,7 @@ import org.apache.james.modules.event.JMAPEventBusModule;
 import org.apache.james.modules.event.MailboxEventBusModule;
 import org.apache.james.modules.events.PostgresDeadLetterModule;
 import org.apache.james.modules.mailbox.DefaultEventModule;
+import org.apache.james.modules.mailbox.DeletedMessageVaultStorageStrategyStartUpCheck;
 import org.apache.james.modules.mailbox.PostgresDeletedMessageVaultModule;
 import org.apache.james.modules.mailbox.PostgresMailboxModule;
 import org.apache.james.modules.mailbox.PostgresMemoryContentDeletionEventBusModule;
@@ -103,6 +105,7 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.google.inject.Module;
 import com.google.inject.TypeLiteral;
+import com.google.inject.multibindings.Multibinder;
 import com.google.inject.name.Names;
 import com.google.inject.util.Modules;
 
@@ -252,7 +255,10 @@ public class PostgresJamesServerMain implements JamesServerMain {
 
     private static Module chooseDeletedMessageVaultModules(VaultConfiguration vaultConfiguration) {
         if (vaultConfiguration.isEnabled()) {
-            return Modules.combine(new PostgresDeletedMessageVaultModule(), new DeletedMessageVaultRoutesModule());
+            return Modules.combine(new PostgresDeletedMessageVaultModule(), new DeletedMessageVaultRoutesModule(),
+                binder -> Multibinder.newSetBinder(binder, StartUpCheck.class)
+                    .addBinding()
+                    .to(DeletedMessageVaultStorageStrategyStartUpCheck.class));
         }
 
         return Modules.EMPTY_MODULE;
@@ -192,6 +192,11 @@ public class AESBlobStoreDAO implements BlobStoreDAO {
         return underlying.delete(bucketName, blobIds);
     }
 
+    @Override
+    public Publisher<BlobId> listExistingBlobs(BucketName bucketName, Collection<BlobId> blobIds) {
+        return underlying.listExistingBlobs(bucketName, blobIds);
+    }
+
     @Override
     public Publisher<Void> deleteBucket(BucketName bucketName) {
         return underlying.deleteBucket(bucketName);
@@ -20,12 +20,14 @@ package org.apache.james.blob.api;
 
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
+import java.util.Collection;
 
 import org.reactivestreams.Publisher;
 
 import com.google.common.io.ByteSource;
 
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import reactor.util.function.Tuple2;
 
 /**
@@ -97,6 +99,30 @@ public interface BlobStore {
 
     Publisher<Boolean> delete(BucketName bucketName, BlobId blobId);
 
+    /**
+     * Deletes several blobs. Like {@link #delete(BucketName, BlobId)}, deduplicating implementations keep the blobs
+     * that might be shared, leaving them to the garbage collection.
+     *
+     * <p>The default implementation deletes blobs one by one.</p>
+     */
+    default Publisher<Void> delete(BucketName bucketName, Collection<BlobId> blobIds) {
+        return Flux.fromIterable(blobIds)
+            .flatMap(blobId -> delete(bucketName, blobId))
+            .then();
+    }
+
+    /**
+     * Lists, amongst the given blobs, the ones stored in the bucket.
+     *
+     * <p>The default implementation reads each blob.</p>
+     */
+    default Publisher<BlobId> listExistingBlobs(BucketName bucketName, Collection<BlobId> blobIds) {
+        return Flux.fromIterable(blobIds)
+            .flatMap(blobId -> Mono.from(readBytes(bucketName, blobId))
+                .map(any -> blobId)
+                .onErrorResume(ObjectNotFoundException.class, e -> Mono.empty()));
+    }
+
     Publisher<BlobId> listBlobs(BucketName bucketName);
 
     /**
@@ -39,6 +39,7 @@ import com.google.common.io.ByteSource;
 import com.google.common.io.FileBackedOutputStream;
 
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 /**
  * James virtual blob store abstraction.
@@ -276,8 +277,29 @@ public interface BlobStoreDAO {
      */
     Publisher<Void> delete(BucketName bucketName, BlobId blobId);
 
+    /**
+     * Remove several Blobs of a bucket. Connectors should rely on the bulk operations of their backend.
+     *
+     * @return a successful Mono if the Blobs are deleted or did not exist
+     *  otherwise an IOObjectStoreException in its error channel
+     */
     Publisher<Void> delete(BucketName bucketName, Collection<BlobId> blobIds);
 
+    /**
+     * Lists, amongst the given blobs, the ones stored in the bucket.
+     *
+     * <p>The default implementation reads each blob. Connectors able to check the existence of blobs cheaply
+     * (eg. S3 {@code HeadObject}) or in bulk should override this.</p>
+     *
+     * @return a Publisher of the existing blob ids, in no particular order. It is empty when the bucket does not exist.
+     */
+    default Publisher<BlobId> listExistingBlobs(BucketName bucketName, Collection<BlobId> blobIds) {
+        return Flux.fromIterable(blobIds)
+            .flatMap(blobId -> Mono.from(readBytes(bucketName, blobId))
+                .map(any -> blobId)
+                .onErrorResume(ObjectNotFoundException.class, e -> Mono.empty()));
+    }
+
     /**
      * Remove a bucket based on its BucketName
      *
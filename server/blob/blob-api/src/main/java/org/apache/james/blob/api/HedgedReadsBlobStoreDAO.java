@@ -0,0 +1,187 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.blob.api;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.apache.james.metrics.api.Metric;
+import org.apache.james.metrics.api.MetricFactory;
+import org.reactivestreams.Publisher;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.io.Closeables;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Issues a second read when the first one did not answer within the configured delay, and returns the first answer.
+ *
+ * This trades a bit of extra load on the underlying {@link BlobStoreDAO} for lower tail latencies: a single slow
+ * request no longer stalls the whole read. Blobs being immutable, reading them twice is safe.
+ *
+ * The extra load is capped by a budget: each read earns a fraction ({@link HedgedReadsConfiguration#budgetRatio()})
+ * of a hedge, and a hedge is only issued when a full one had been earned. Hence at most this fraction of reads
+ * gets hedged, even when the underlying store is slow as a whole.
+ *
+ * Only reads are hedged. Errors are not: a failing first read fails the read, while a failing hedge is ignored.
+ *
+ * Only the first answer is returned: the stream of the other one, if any, is closed.
+ */
+public class HedgedReadsBlobStoreDAO implements BlobStoreDAO {
+    static final String HEDGED_READS_ISSUED_METRIC_NAME = "blobStore:hedgedReads:issued";
+    static final String HEDGED_READS_WON_METRIC_NAME = "blobStore:hedgedReads:won";
+    private static final long MILLI_TOKENS_PER_HEDGE = 1000;
+    private static final long MAX_MILLI_TOKENS = 10 * MILLI_TOKENS_PER_HEDGE;
+
+    private final BlobStoreDAO underlying;
+    private final HedgedReadsConfiguration configuration;
+    private final Metric issuedMetric;
+    private final Metric wonMetric;
+    private final long milliTokensPerRead;
+    private final AtomicLong milliTokens;
+
+    public HedgedReadsBlobStoreDAO(BlobStoreDAO underlying, HedgedReadsConfiguration configuration, MetricFactory metricFactory) {
+        this.underlying = underlying;
+        this.configuration = configuration;
+        this.issuedMetric = metricFactory.generate(HEDGED_READS_ISSUED_METRIC_NAME);
+        this.wonMetric = metricFactory.generate(HEDGED_READS_WON_METRIC_NAME);
+        this.milliTokensPerRead = Math.max(1, Math.round(configuration.budgetRatio() * MILLI_TOKENS_PER_HEDGE));
+        this.milliTokens = new AtomicLong(0);
+    }
+
+    @Override
+    public InputStreamBlob read(BucketName bucketName, BlobId blobId) throws ObjectStoreIOException, ObjectNotFoundException {
+        return hedge(() -> Mono.from(underlying.readReactive(bucketName, blobId))).block();
+    }
+
+    @Override
+    public Publisher<InputStreamBlob> readReactive(BucketName bucketName, BlobId blobId) {
+        return hedge(() -> Mono.from(underlying.readReactive(bucketName, blobId)));
+    }
+
+    @Override
+    public Publisher<BytesBlob> readBytes(BucketName bucketName, BlobId blobId) {
+        return hedge(() -> Mono.from(underlying.readBytes(bucketName, blobId)));
+    }
+
+    private <T> Mono<T> hedge(Supplier<Mono<T>> read) {
+        return Mono.defer(() -> {
+            earnBudget();
+            AtomicBoolean answered = new AtomicBoolean(false);
+            Mono<T> hedgedRead = Mono.delay(configuration.delay())
+                .filter(any -> spendBudget())
+                .flatMap(any -> {
+                    issuedMetric.increment();
+                    return answerOnce(read.get(), answered)
+                        .doOnNext(blob -> wonMetric.increment())
+                        .onErrorResume(e -> Mono.never());
+                })
+                .switchIfEmpty(Mono.never());
+
+            return Mono.firstWithSignal(answerOnce(read.get(), answered), hedgedRead);
+        });
+    }
+
+    /**
+     * The race drops the value of the losing read without releasing it: the loser is thus closed here, as well as
+     * the values discarded by a cancelled read.
+     */
+    private <T> Mono<T> answerOnce(Mono<T> read, AtomicBoolean answered) {
+        return read
+            .flatMap(blob -> {
+                if (answered.compareAndSet(false, true)) {
+                    return Mono.just(blob);
+                }
+                release(blob);
+                return Mono.<T>never();
+            })
+            .doOnDiscard(InputStreamBlob.class, HedgedReadsBlobStoreDAO::release);
+    }
+
+    private static void release(Object blob) {
+        if (blob instanceof InputStreamBlob inputStreamBlob) {
+            Closeables.closeQuietly(inputStreamBlob.payload());
+        }
+    }
+
+    private void earnBudget() {
+        milliTokens.accumulateAndGet(milliTokensPerRead, (current, earned) -> Math.min(current + earned, MAX_MILLI_TOKENS));
+    }
+
+    private boolean spendBudget() {
+        while (true) {
+            long current = milliTokens.get();
+            if (current < MILLI_TOKENS_PER_HEDGE) {
+                return false;
+            }
+            if (milliTokens.compareAndSet(current, current - MILLI_TOKENS_PER_HEDGE)) {
+                return true;
+            }
+        }
+    }
+
+    @VisibleForTesting
+    long availableHedges() {
+        return milliTokens.get() / MILLI_TOKENS_PER_HEDGE;
+    }
+
+    @Override
+    public Publisher<Void> save(BucketName bucketName, BlobId blobId, Blob blob) {
+        return underlying.save(bucketName, blobId, blob);
+    }
+
+    @Override
+    public Publisher<Void> delete(BucketName bucketName, BlobId blobId) {
+        return underlying.delete(bucketName, blobId);
+    }
+
+    @Override
+    public Publisher<Void> delete(BucketName bucketName, Collection<BlobId> blobIds) {
+        return underlying.delete(bucketName, blobIds);
+    }
+
+    @Override
+    public Publisher<BlobId> listExistingBlobs(BucketName bucketName, Collection<BlobId> blobIds) {
+        return underlying.listExistingBlobs(bucketName, blobIds);
+    }
+
+    @Override
+    public Publisher<Void> deleteBucket(BucketName bucketName) {
+        return underlying.deleteBucket(bucketName);
+    }
+
+    @Override
+    public Publisher<BucketName> listBuckets() {
+        return underlying.listBuckets();
+    }
+
+    @Override
+    public Publisher<BlobId> listBlobs(BucketName bucketName) {
+        return underlying.listBlobs(bucketName);
+    }
+
+    @Override
+    public Publisher<BlobId> listBlobs(BucketName bucketName, String prefix) {
+        return underlying.listBlobs(bucketName, prefix);
+    }
+}
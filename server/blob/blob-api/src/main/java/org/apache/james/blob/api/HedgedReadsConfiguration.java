@@ -0,0 +1,71 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.blob.api;
+
+import java.time.Duration;
+
+public record HedgedReadsConfiguration(boolean enabled, Duration delay, double budgetRatio) {
+    public static final boolean DISABLED = false;
+    public static final Duration DEFAULT_DELAY = Duration.ofMillis(100);
+    public static final double DEFAULT_BUDGET_RATIO = 0.05;
+    public static final HedgedReadsConfiguration DEFAULT = builder().build();
+
+    public static class Builder {
+        private boolean enabled = DISABLED;
+        private Duration delay = DEFAULT_DELAY;
+        private double budgetRatio = DEFAULT_BUDGET_RATIO;
+
+        public Builder enabled(boolean enabled) {
+            this.enabled = enabled;
+            return this;
+        }
+
+        public Builder delay(Duration delay) {
+            this.delay = delay;
+            return this;
+        }
+
+        public Builder budgetRatio(double budgetRatio) {
+            this.budgetRatio = budgetRatio;
+            return this;
+        }
+
+        public HedgedReadsConfiguration build() {
+            return new HedgedReadsConfiguration(enabled, delay, budgetRatio);
+        }
+    }
+
+    public HedgedReadsConfiguration {
+        if (delay == null || delay.isNegative() || delay.isZero()) {
+            throw new IllegalArgumentException("'delay' needs to be strictly positive");
+        }
+        if (budgetRatio <= 0 || budgetRatio > 1) {
+            throw new IllegalArgumentException("'budgetRatio' needs to be strictly positive and lower than or equal to 1");
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static HedgedReadsConfiguration disabled() {
+        return DEFAULT;
+    }
+}
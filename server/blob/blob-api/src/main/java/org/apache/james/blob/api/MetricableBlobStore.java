@@ -19,6 +19,7 @@
 package org.apache.james.blob.api;
 
 import java.io.InputStream;
+import java.util.Collection;
 
 import jakarta.inject.Inject;
 import jakarta.inject.Named;
@@ -122,6 +123,16 @@ public class MetricableBlobStore implements BlobStore {
         return metricFactory.decoratePublisherWithTimerMetric(DELETE_TIMER_NAME, blobStoreImpl.delete(bucketName, blobId));
     }
 
+    @Override
+    public Publisher<Void> delete(BucketName bucketName, Collection<BlobId> blobIds) {
+        return metricFactory.decoratePublisherWithTimerMetric(DELETE_TIMER_NAME, blobStoreImpl.delete(bucketName, blobIds));
+    }
+
+    @Override
+    public Publisher<BlobId> listExistingBlobs(BucketName bucketName, Collection<BlobId> blobIds) {
+        return blobStoreImpl.listExistingBlobs(bucketName, blobIds);
+    }
+
     @Override
     public Publisher<BucketName> listBuckets() {
         return blobStoreImpl.listBuckets();
@@ -36,6 +36,7 @@ import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.util.Arrays;
 import java.util.concurrent.ExecutionException;
+import java.util.stream.IntStream;
 
 import org.apache.commons.io.IOUtils;
 import org.apache.james.util.concurrency.ConcurrentTestRunner;
@@ -127,6 +128,38 @@ public interface DeleteBlobStoreDAOContract {
         });
     }
 
+    @Test
+    default void deleteSeveralShouldNotDeleteOtherBlobs() {
+        BlobStoreDAO store = testee();
+
+        Mono.from(store.save(TEST_BUCKET_NAME, TEST_BLOB_ID, SHORT_BYTEARRAY)).block();
+        Mono.from(store.save(TEST_BUCKET_NAME, OTHER_TEST_BLOB_ID, ELEVEN_KILOBYTES)).block();
+
+        Mono.from(store.delete(TEST_BUCKET_NAME, ImmutableList.of(TEST_BLOB_ID))).block();
+
+        InputStream read = store.read(TEST_BUCKET_NAME, OTHER_TEST_BLOB_ID).payload();
+
+        assertThat(read).hasSameContentAs(ELEVEN_KILOBYTES.asInputStream().payload());
+    }
+
+    @Test
+    default void deleteSeveralShouldDeleteAllWhenManyBlobIds() {
+        BlobStoreDAO store = testee();
+
+        Mono.from(store.save(TEST_BUCKET_NAME, TEST_BLOB_ID, SHORT_BYTEARRAY)).block();
+
+        ImmutableList<BlobId> blobIds = ImmutableList.<BlobId>builder()
+            .addAll(IntStream.range(0, 1500)
+                .mapToObj(i -> new TestBlobId("missing-" + i))
+                .iterator())
+            .add(TEST_BLOB_ID)
+            .build();
+        Mono.from(store.delete(TEST_BUCKET_NAME, blobIds)).block();
+
+        assertThatThrownBy(() -> store.read(TEST_BUCKET_NAME, TEST_BLOB_ID).payload().read())
+            .isInstanceOf(ObjectStoreException.class);
+    }
+
     @Test
     default void deleteConcurrentlyShouldNotFail() throws Exception {
         BlobStoreDAO store = testee();
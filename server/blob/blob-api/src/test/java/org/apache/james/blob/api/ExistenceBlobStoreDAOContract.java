@@ -0,0 +1,118 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+package org.apache.james.blob.api;
+
+import static org.apache.james.blob.api.BlobStoreDAOFixture.CUSTOM_BUCKET_NAME;
+import static org.apache.james.blob.api.BlobStoreDAOFixture.ELEVEN_KILOBYTES;
+import static org.apache.james.blob.api.BlobStoreDAOFixture.OTHER_TEST_BLOB_ID;
+import static org.apache.james.blob.api.BlobStoreDAOFixture.SHORT_BYTEARRAY;
+import static org.apache.james.blob.api.BlobStoreDAOFixture.TEST_BLOB_ID;
+import static org.apache.james.blob.api.BlobStoreDAOFixture.TEST_BUCKET_NAME;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface ExistenceBlobStoreDAOContract {
+
+    BlobStoreDAO testee();
+
+    @Test
+    default void listExistingBlobsShouldReturnEmptyWhenNoBlobIds() {
+        BlobStoreDAO store = testee();
+
+        Mono.from(store.save(TEST_BUCKET_NAME, TEST_BLOB_ID, SHORT_BYTEARRAY)).block();
+
+        assertThat(Flux.from(store.listExistingBlobs(TEST_BUCKET_NAME, ImmutableList.of())).collectList().block())
+            .isEmpty();
+    }
+
+    @Test
+    default void listExistingBlobsShouldReturnEmptyWhenBucketDoesNotExist() {
+        BlobStoreDAO store = testee();
+
+        assertThat(Flux.from(store.listExistingBlobs(BucketName.of("not-existing-bucket-name"), ImmutableList.of(TEST_BLOB_ID))).collectList().block())
+            .isEmpty();
+    }
+
+    @Test
+    default void listExistingBlobsShouldReturnExistingBlobs() {
+        BlobStoreDAO store = testee();
+
+        Mono.from(store.save(TEST_BUCKET_NAME, TEST_BLOB_ID, SHORT_BYTEARRAY)).block();
+        Mono.from(store.save(TEST_BUCKET_NAME, OTHER_TEST_BLOB_ID, ELEVEN_KILOBYTES)).block();
+
+        assertThat(Flux.from(store.listExistingBlobs(TEST_BUCKET_NAME, ImmutableList.of(TEST_BLOB_ID, OTHER_TEST_BLOB_ID))).collectList().block())
+            .containsExactlyInAnyOrder(TEST_BLOB_ID, OTHER_TEST_BLOB_ID);
+    }
+
+    @Test
+    default void listExistingBlobsShouldNotReturnMissingBlobs() {
+        BlobStoreDAO store = testee();
+
+        Mono.from(store.save(TEST_BUCKET_NAME, TEST_BLOB_ID, SHORT_BYTEARRAY)).block();
+
+        assertThat(Flux.from(store.listExistingBlobs(TEST_BUCKET_NAME, ImmutableList.of(TEST_BLOB_ID, OTHER_TEST_BLOB_ID))).collectList().block())
+            .containsExactly(TEST_BLOB_ID);
+    }
+
+    @Test
+    default void listExistingBlobsShouldNotReturnDeletedBlobs() {
+        BlobStoreDAO store = testee();
+
+        Mono.from(store.save(TEST_BUCKET_NAME, TEST_BLOB_ID, SHORT_BYTEARRAY)).block();
+        Mono.from(store.delete(TEST_BUCKET_NAME, TEST_BLOB_ID)).block();
+
+        assertThat(Flux.from(store.listExistingBlobs(TEST_BUCKET_NAME, ImmutableList.of(TEST_BLOB_ID))).collectList().block())
+            .isEmpty();
+    }
+
+    @Test
+    default void listExistingBlobsShouldNotReturnBlobsFromOtherBuckets() {
+        BlobStoreDAO store = testee();
+
+        Mono.from(store.save(CUSTOM_BUCKET_NAME, TEST_BLOB_ID, SHORT_BYTEARRAY)).block();
+
+        assertThat(Flux.from(store.listExistingBlobs(TEST_BUCKET_NAME, ImmutableList.of(TEST_BLOB_ID))).collectList().block())
+            .isEmpty();
+    }
+
+    @Test
+    default void listExistingBlobsShouldHandleManyBlobIds() {
+        BlobStoreDAO store = testee();
+
+        Mono.from(store.save(TEST_BUCKET_NAME, TEST_BLOB_ID, SHORT_BYTEARRAY)).block();
+
+        ImmutableList<BlobId> blobIds = ImmutableList.<BlobId>builder()
+            .addAll(IntStream.range(0, 1500)
+                .mapToObj(i -> new TestBlobId("missing-" + i))
+                .iterator())
+            .add(TEST_BLOB_ID)
+            .build();
+
+        assertThat(Flux.from(store.listExistingBlobs(TEST_BUCKET_NAME, blobIds)).collectList().block())
+            .containsExactly(TEST_BLOB_ID);
+    }
+}
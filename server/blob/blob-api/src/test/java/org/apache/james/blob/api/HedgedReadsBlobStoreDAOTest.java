@@ -0,0 +1,207 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.blob.api;
+
+import static org.apache.james.blob.api.HedgedReadsBlobStoreDAO.HEDGED_READS_ISSUED_METRIC_NAME;
+import static org.apache.james.blob.api.HedgedReadsBlobStoreDAO.HEDGED_READS_WON_METRIC_NAME;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.james.blob.api.BlobStoreDAO.BytesBlob;
+import org.apache.james.blob.api.BlobStoreDAO.InputStreamBlob;
+import org.apache.james.metrics.tests.RecordingMetricFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscription;
+
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+class HedgedReadsBlobStoreDAOTest {
+    private static final BucketName BUCKET = BucketName.of("bucket");
+    private static final BlobId BLOB_ID = new TestBlobId("id");
+    private static final BytesBlob PRIMARY = BytesBlob.of("primary");
+    private static final BytesBlob HEDGE = BytesBlob.of("hedge");
+    private static final Duration SLOW = Duration.ofSeconds(2);
+
+    private BlobStoreDAO underlying;
+    private RecordingMetricFactory metricFactory;
+
+    @BeforeEach
+    void setUp() {
+        underlying = mock(BlobStoreDAO.class);
+        metricFactory = new RecordingMetricFactory();
+    }
+
+    private HedgedReadsBlobStoreDAO testee(double budgetRatio) {
+        return new HedgedReadsBlobStoreDAO(underlying, HedgedReadsConfiguration.builder()
+            .enabled(true)
+            .delay(Duration.ofMillis(50))
+            .budgetRatio(budgetRatio)
+            .build(), metricFactory);
+    }
+
+    private String readAsString(HedgedReadsBlobStoreDAO testee) {
+        return new String(Mono.from(testee.readBytes(BUCKET, BLOB_ID)).block().payload(), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void fastReadsShouldNotBeHedged() {
+        when(underlying.readBytes(BUCKET, BLOB_ID)).thenReturn(Mono.just(PRIMARY));
+
+        assertThat(readAsString(testee(1))).isEqualTo("primary");
+        assertThat(metricFactory.countFor(HEDGED_READS_ISSUED_METRIC_NAME)).isZero();
+    }
+
+    @Test
+    void slowReadsShouldBeHedged() {
+        when(underlying.readBytes(BUCKET, BLOB_ID)).thenReturn(Mono.just(PRIMARY).delayElement(SLOW), Mono.just(HEDGE));
+
+        long start = System.nanoTime();
+        assertThat(readAsString(testee(1))).isEqualTo("hedge");
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(SLOW);
+        assertThat(metricFactory.countFor(HEDGED_READS_ISSUED_METRIC_NAME)).isEqualTo(1);
+        assertThat(metricFactory.countFor(HEDGED_READS_WON_METRIC_NAME)).isEqualTo(1);
+    }
+
+    @Test
+    void primaryReadShouldWinWhenFasterThanTheHedge() {
+        when(underlying.readBytes(BUCKET, BLOB_ID)).thenReturn(Mono.just(PRIMARY).delayElement(Duration.ofMillis(200)), Mono.just(HEDGE).delayElement(SLOW));
+
+        assertThat(readAsString(testee(1))).isEqualTo("primary");
+        assertThat(metricFactory.countFor(HEDGED_READS_WON_METRIC_NAME)).isZero();
+    }
+
+    @Test
+    void readsShouldNotBeHedgedWhenTheBudgetIsExhausted() {
+        when(underlying.readBytes(BUCKET, BLOB_ID)).thenReturn(Mono.just(PRIMARY).delayElement(Duration.ofMillis(200)), Mono.just(HEDGE));
+
+        assertThat(readAsString(testee(0.5))).isEqualTo("primary");
+        assertThat(metricFactory.countFor(HEDGED_READS_ISSUED_METRIC_NAME)).isZero();
+    }
+
+    @Test
+    void budgetShouldBeEarnedByReads() {
+        HedgedReadsBlobStoreDAO testee = testee(0.5);
+        when(underlying.readBytes(BUCKET, BLOB_ID)).thenReturn(Mono.just(PRIMARY), Mono.just(PRIMARY).delayElement(SLOW), Mono.just(HEDGE));
+
+        readAsString(testee);
+
+        assertThat(readAsString(testee)).isEqualTo("hedge");
+        assertThat(testee.availableHedges()).isZero();
+    }
+
+    @Test
+    void primaryErrorsShouldBePropagated() {
+        when(underlying.readBytes(BUCKET, BLOB_ID)).thenReturn(Mono.error(new ObjectNotFoundException("not found")), Mono.just(HEDGE));
+
+        assertThatThrownBy(() -> readAsString(testee(1)))
+            .isInstanceOf(ObjectNotFoundException.class);
+        assertThat(metricFactory.countFor(HEDGED_READS_ISSUED_METRIC_NAME)).isZero();
+    }
+
+    @Test
+    void hedgeErrorsShouldBeIgnored() {
+        when(underlying.readBytes(BUCKET, BLOB_ID)).thenReturn(Mono.just(PRIMARY).delayElement(Duration.ofMillis(200)), Mono.error(new ObjectStoreIOException("boom")));
+
+        assertThat(readAsString(testee(1))).isEqualTo("primary");
+    }
+
+    @Test
+    void losingStreamShouldBeClosedWhenBothReadsAnswer() {
+        AtomicReference<MonoSink<InputStreamBlob>> primary = new AtomicReference<>();
+        TrackingInputStream primaryStream = new TrackingInputStream("primary");
+        TrackingInputStream hedgeStream = new TrackingInputStream("hedge");
+        // The hedge answers right after the primary read
+        Publisher<InputStreamBlob> hedge = subscriber -> subscriber.onSubscribe(new Subscription() {
+            @Override
+            public void request(long n) {
+                primary.get().success(InputStreamBlob.of(primaryStream));
+                subscriber.onNext(InputStreamBlob.of(hedgeStream));
+                subscriber.onComplete();
+            }
+
+            @Override
+            public void cancel() {
+
+            }
+        });
+        when(underlying.readReactive(BUCKET, BLOB_ID)).thenReturn(Mono.create(primary::set), hedge);
+
+        InputStreamBlob result = Mono.from(testee(1).readReactive(BUCKET, BLOB_ID)).block();
+
+        assertThat(result.payload()).isSameAs(primaryStream);
+        await().atMost(Duration.ofSeconds(10)).untilAsserted(() -> assertThat(hedgeStream.closed).isTrue());
+        assertThat(primaryStream.closed).isFalse();
+    }
+
+    @Test
+    void discardedStreamShouldBeClosed() {
+        AtomicReference<MonoSink<InputStreamBlob>> primary = new AtomicReference<>();
+        TrackingInputStream primaryStream = new TrackingInputStream("primary");
+        TrackingInputStream hedgeStream = new TrackingInputStream("hedge");
+        when(underlying.readReactive(BUCKET, BLOB_ID)).thenReturn(Mono.create(primary::set), Mono.fromCallable(() -> {
+            primary.get().success(InputStreamBlob.of(primaryStream));
+            return InputStreamBlob.of(hedgeStream);
+        }));
+
+        InputStreamBlob result = Mono.from(testee(1).readReactive(BUCKET, BLOB_ID)).block();
+
+        assertThat(result.payload()).isSameAs(primaryStream);
+        await().atMost(Duration.ofSeconds(10)).untilAsserted(() -> assertThat(hedgeStream.closed).isTrue());
+        assertThat(primaryStream.closed).isFalse();
+    }
+
+    @Test
+    void configurationShouldRejectNonPositiveDelay() {
+        assertThatThrownBy(() -> HedgedReadsConfiguration.builder().delay(Duration.ZERO).build())
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void configurationShouldRejectBudgetRatioAboveOne() {
+        assertThatThrownBy(() -> HedgedReadsConfiguration.builder().budgetRatio(1.5).build())
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static class TrackingInputStream extends ByteArrayInputStream {
+        private volatile boolean closed = false;
+
+        TrackingInputStream(String content) {
+            super(content.getBytes(StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public void close() throws IOException {
+            closed = true;
+            super.close();
+        }
+    }
+}
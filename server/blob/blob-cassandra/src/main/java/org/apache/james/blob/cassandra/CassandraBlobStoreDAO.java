@@ -66,6 +66,8 @@ public class CassandraBlobStoreDAO implements BlobStoreDAO {
     public static final String CASSANDRA_BLOBSTORE_CL_ONE_MISS_COUNT_METRIC_NAME = "cassandraBlobStoreClOneMisses";
     public static final String CASSANDRA_BLOBSTORE_CL_ONE_HIT_COUNT_METRIC_NAME = "cassandraBlobStoreClOneHits";
     private static final Logger LOGGER = LoggerFactory.getLogger(CassandraBlobStoreDAO.class);
+    // Keeps multi-partition IN queries small enough not to overload the coordinator
+    private static final int IN_CLAUSE_BATCH_SIZE = 100;
 
     private final CassandraDefaultBucketDAO defaultBucketDAO;
     private final CassandraBucketDAO bucketDAO;
@@ -202,10 +204,37 @@ public class CassandraBlobStoreDAO implements BlobStoreDAO {
     @Override
     public Publisher<Void> delete(BucketName bucketName, Collection<BlobId> blobIds) {
         return Flux.fromIterable(blobIds)
-            .flatMap(id -> delete(bucketName, id), DEFAULT_CONCURRENCY)
+            .buffer(IN_CLAUSE_BATCH_SIZE)
+            .flatMap(batch -> deleteBatch(bucketName, batch), DEFAULT_CONCURRENCY)
             .then();
     }
 
+    private Mono<Void> deleteBatch(BucketName bucketName, List<BlobId> blobIds) {
+        if (isDefaultBucket(bucketName)) {
+            return defaultBucketDAO.deletePositions(blobIds)
+                .then(defaultBucketDAO.deleteParts(blobIds));
+        } else {
+            return bucketDAO.deletePositions(bucketName, blobIds)
+                .then(bucketDAO.deleteParts(bucketName, blobIds));
+        }
+    }
+
+    @Override
+    public Publisher<BlobId> listExistingBlobs(BucketName bucketName, Collection<BlobId> blobIds) {
+        return Flux.fromIterable(blobIds)
+            .buffer(IN_CLAUSE_BATCH_SIZE)
+            .flatMap(batch -> selectExisting(bucketName, batch), DEFAULT_CONCURRENCY)
+            .distinct();
+    }
+
+    private Flux<BlobId> selectExisting(BucketName bucketName, List<BlobId> blobIds) {
+        if (isDefaultBucket(bucketName)) {
+            return defaultBucketDAO.selectExisting(blobIds);
+        } else {
+            return bucketDAO.selectExisting(bucketName, blobIds);
+        }
+    }
+
     @Override
     public Mono<Void> deleteBucket(BucketName bucketName) {
         Preconditions.checkNotNull(bucketName);
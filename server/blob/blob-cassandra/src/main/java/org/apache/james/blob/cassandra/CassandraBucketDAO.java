@@ -29,6 +29,7 @@ import static org.apache.james.blob.cassandra.BlobTables.BucketBlobTable.METADAT
 import static org.apache.james.blob.cassandra.BlobTables.BucketBlobTable.NUMBER_OF_CHUNK;
 
 import java.nio.ByteBuffer;
+import java.util.Collection;
 import java.util.Map;
 import java.util.Optional;
 
@@ -47,6 +48,7 @@ import com.datastax.oss.driver.api.core.config.DriverExecutionProfile;
 import com.datastax.oss.driver.api.core.cql.PreparedStatement;
 import com.datastax.oss.driver.api.core.cql.Row;
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
 
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -60,6 +62,9 @@ public class CassandraBucketDAO {
     private final PreparedStatement selectPart;
     private final PreparedStatement delete;
     private final PreparedStatement deleteParts;
+    private final PreparedStatement selectExisting;
+    private final PreparedStatement deleteAll;
+    private final PreparedStatement deleteAllParts;
     private final PreparedStatement listAll;
     private final PreparedStatement listBucketContent;
     private final DriverExecutionProfile optimisticConsistencyLevelProfile;
@@ -117,6 +122,22 @@ public class CassandraBucketDAO {
             .whereColumn(BUCKET).isEqualTo(bindMarker(BUCKET))
             .whereColumn(ID).isEqualTo(bindMarker(ID))
             .build());
+
+        this.selectExisting = session.prepare(selectFrom(BlobTables.BucketBlobTable.TABLE_NAME)
+            .column(ID)
+            .whereColumn(BUCKET).isEqualTo(bindMarker(BUCKET))
+            .whereColumn(ID).in(bindMarker(ID))
+            .build());
+
+        this.deleteAllParts = session.prepare(deleteFrom(BucketBlobParts.TABLE_NAME)
+            .whereColumn(BucketBlobParts.BUCKET).isEqualTo(bindMarker(BucketBlobParts.BUCKET))
+            .whereColumn(BucketBlobParts.ID).in(bindMarker(BucketBlobParts.ID))
+            .build());
+
+        this.deleteAll = session.prepare(deleteFrom(BlobTables.BucketBlobTable.TABLE_NAME)
+            .whereColumn(BUCKET).isEqualTo(bindMarker(BUCKET))
+            .whereColumn(ID).in(bindMarker(ID))
+            .build());
     }
 
     Mono<Void> writePart(ByteBuffer data, BucketName bucketName, BlobId blobId, int position) {
@@ -196,6 +217,28 @@ public class CassandraBucketDAO {
                 .setString(BucketBlobParts.ID, blobId.asString()));
     }
 
+    Flux<BlobId> selectExisting(BucketName bucketName, Collection<BlobId> blobIds) {
+        return cassandraAsyncExecutor.executeRows(
+                selectExisting.bind()
+                    .setString(BUCKET, bucketName.asString())
+                    .setList(ID, asStrings(blobIds), String.class))
+            .map(row -> blobIdFactory.parse(row.getString(ID)));
+    }
+
+    Mono<Void> deletePositions(BucketName bucketName, Collection<BlobId> blobIds) {
+        return cassandraAsyncExecutor.executeVoid(
+            deleteAll.bind()
+                .setString(BUCKET, bucketName.asString())
+                .setList(ID, asStrings(blobIds), String.class));
+    }
+
+    Mono<Void> deleteParts(BucketName bucketName, Collection<BlobId> blobIds) {
+        return cassandraAsyncExecutor.executeVoid(
+            deleteAllParts.bind()
+                .setString(BucketBlobParts.BUCKET, bucketName.asString())
+                .setList(BucketBlobParts.ID, asStrings(blobIds), String.class));
+    }
+
     public Flux<Pair<BucketName, BlobId>> listAll() {
         return cassandraAsyncExecutor.executeRows(listAll.bind())
             .map(row -> Pair.of(BucketName.of(row.getString(BUCKET)), blobIdFactory.parse(row.getString(ID))));
@@ -207,6 +250,12 @@ public class CassandraBucketDAO {
             .map(row -> blobIdFactory.parse(row.getString(ID)));
     }
 
+    private ImmutableList<String> asStrings(Collection<BlobId> blobIds) {
+        return blobIds.stream()
+            .map(BlobId::asString)
+            .collect(ImmutableList.toImmutableList());
+    }
+
     private ByteBuffer rowToData(Row row) {
         return row.getByteBuffer(BucketBlobParts.DATA);
     }
@@ -28,6 +28,7 @@ import static org.apache.james.blob.cassandra.BlobTables.DefaultBucketBlobTable.
 import static org.apache.james.blob.cassandra.BlobTables.DefaultBucketBlobTable.NUMBER_OF_CHUNK;
 
 import java.nio.ByteBuffer;
+import java.util.Collection;
 import java.util.Map;
 import java.util.Optional;
 
@@ -44,6 +45,7 @@ import com.datastax.oss.driver.api.core.config.DriverExecutionProfile;
 import com.datastax.oss.driver.api.core.cql.PreparedStatement;
 import com.datastax.oss.driver.api.core.cql.Row;
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
 
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -56,6 +58,9 @@ public class CassandraDefaultBucketDAO {
     private final PreparedStatement selectPart;
     private final PreparedStatement delete;
     private final PreparedStatement deleteParts;
+    private final PreparedStatement selectExisting;
+    private final PreparedStatement deleteAll;
+    private final PreparedStatement deleteAllParts;
     private final PreparedStatement listBlobs;
     private final BlobId.Factory blobIdFactory;
     private final DriverExecutionProfile optimisticConsistencyLevelProfile;
@@ -97,6 +102,19 @@ public class CassandraDefaultBucketDAO {
             .whereColumn(DefaultBucketBlobParts.ID).isEqualTo(bindMarker(DefaultBucketBlobParts.ID))
             .build());
 
+        this.selectExisting = session.prepare(selectFrom(BlobTables.DefaultBucketBlobTable.TABLE_NAME)
+            .column(ID)
+            .whereColumn(ID).in(bindMarker(ID))
+            .build());
+
+        this.deleteAll = session.prepare(deleteFrom(BlobTables.DefaultBucketBlobTable.TABLE_NAME)
+            .whereColumn(ID).in(bindMarker(ID))
+            .build());
+
+        this.deleteAllParts = session.prepare(deleteFrom(DefaultBucketBlobParts.TABLE_NAME)
+            .whereColumn(DefaultBucketBlobParts.ID).in(bindMarker(DefaultBucketBlobParts.ID))
+            .build());
+
         this.listBlobs = session.prepare(selectFrom(DefaultBucketBlobParts.TABLE_NAME)
             .column(DefaultBucketBlobParts.ID)
             .build());
@@ -173,11 +191,36 @@ public class CassandraDefaultBucketDAO {
                 .setString(DefaultBucketBlobParts.ID, blobId.asString()));
     }
 
+    Flux<BlobId> selectExisting(Collection<BlobId> blobIds) {
+        return cassandraAsyncExecutor.executeRows(
+                selectExisting.bind()
+                    .setList(ID, asStrings(blobIds), String.class))
+            .map(row -> blobIdFactory.parse(row.getString(ID)));
+    }
+
+    Mono<Void> deletePositions(Collection<BlobId> blobIds) {
+        return cassandraAsyncExecutor.executeVoid(
+            deleteAll.bind()
+                .setList(ID, asStrings(blobIds), String.class));
+    }
+
+    Mono<Void> deleteParts(Collection<BlobId> blobIds) {
+        return cassandraAsyncExecutor.executeVoid(
+            deleteAllParts.bind()
+                .setList(DefaultBucketBlobParts.ID, asStrings(blobIds), String.class));
+    }
+
     Flux<BlobId> listBlobs() {
         return cassandraAsyncExecutor.executeRows(listBlobs.bind())
             .map(row -> blobIdFactory.parse(row.getString(DefaultBucketBlobParts.ID)));
     }
 
+    private ImmutableList<String> asStrings(Collection<BlobId> blobIds) {
+        return blobIds.stream()
+            .map(BlobId::asString)
+            .collect(ImmutableList.toImmutableList());
+    }
+
     private ByteBuffer rowToData(Row row) {
         return row.getByteBuffer(DefaultBucketBlobParts.DATA);
     }
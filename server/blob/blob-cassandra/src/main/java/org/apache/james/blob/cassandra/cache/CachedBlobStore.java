@@ -25,6 +25,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.PushbackInputStream;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Optional;
 
 import jakarta.inject.Inject;
@@ -45,6 +46,7 @@ import com.github.fge.lambdas.Throwing;
 import com.google.common.base.Preconditions;
 import com.google.common.io.ByteSource;
 
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 public class CachedBlobStore implements BlobStore {
@@ -325,6 +327,24 @@ public class CachedBlobStore implements BlobStore {
             });
     }
 
+    @Override
+    public Mono<Void> delete(BucketName bucketName, Collection<BlobId> blobIds) {
+        return Mono.from(backend.delete(bucketName, blobIds))
+            .then(Mono.defer(() -> {
+                if (backend.getDefaultBucketName().equals(bucketName)) {
+                    return Flux.fromIterable(blobIds)
+                        .concatMap(cache::remove)
+                        .then();
+                }
+                return Mono.empty();
+            }));
+    }
+
+    @Override
+    public Publisher<BlobId> listExistingBlobs(BucketName bucketName, Collection<BlobId> blobIds) {
+        return backend.listExistingBlobs(bucketName, blobIds);
+    }
+
     @Override
     public Publisher<Void> deleteBucket(BucketName bucketName) {
         return Mono.from(backend.deleteBucket(bucketName));
@@ -39,6 +39,7 @@ import java.nio.file.attribute.UserDefinedFileAttributeView;
 import java.time.Duration;
 import java.util.Collection;
 import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
 
@@ -57,6 +58,7 @@ import org.slf4j.LoggerFactory;
 
 import com.github.fge.lambdas.Throwing;
 import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.io.ByteSource;
 
@@ -208,11 +210,28 @@ public class FileBlobStoreDAO implements BlobStoreDAO {
 
     @Override
     public Publisher<Void> delete(BucketName bucketName, Collection<BlobId> blobIds) {
-        return Flux.fromIterable(blobIds)
-            .flatMap(id -> delete(bucketName, id))
+        Preconditions.checkNotNull(bucketName);
+
+        return Mono.fromRunnable(Throwing.runnable(() -> {
+                File bucketRoot = getBucketRoot(bucketName);
+                blobIds.forEach(blobId -> FileUtils.deleteQuietly(new File(bucketRoot, blobId.asString())));
+            }))
+            .subscribeOn(Schedulers.boundedElastic())
             .then();
     }
 
+    @Override
+    public Publisher<BlobId> listExistingBlobs(BucketName bucketName, Collection<BlobId> blobIds) {
+        return Mono.fromCallable(() -> {
+                File bucketRoot = new File(root, bucketName.asString());
+                return blobIds.stream()
+                    .filter(blobId -> new File(bucketRoot, blobId.asString()).isFile())
+                    .collect(ImmutableList.toImmutableList());
+            })
+            .flatMapIterable(Function.identity())
+            .subscribeOn(Schedulers.boundedElastic());
+    }
+
     @Override
     public Mono<Void> deleteBucket(BucketName bucketName) {
         return Mono.fromRunnable(Throwing.runnable(() -> {
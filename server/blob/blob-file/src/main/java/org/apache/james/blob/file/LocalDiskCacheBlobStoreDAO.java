@@ -0,0 +1,539 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.blob.file;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URLEncoder;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedInputStream;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.james.blob.api.BlobId;
+import org.apache.james.blob.api.BlobStoreDAO;
+import org.apache.james.blob.api.BucketName;
+import org.apache.james.blob.api.ObjectNotFoundException;
+import org.apache.james.blob.api.ObjectStoreIOException;
+import org.apache.james.metrics.api.GaugeRegistry;
+import org.apache.james.metrics.api.Metric;
+import org.apache.james.metrics.api.MetricFactory;
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.fge.lambdas.Throwing;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.hash.Hashing;
+import com.google.common.io.ByteSource;
+import com.google.common.io.ByteStreams;
+import com.google.common.io.MoreFiles;
+
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Keeps a copy of recently written and recently read blobs on a local disk, in front of a remote {@link BlobStoreDAO}.
+ *
+ * Writes go through to the remote store, then are copied locally. Reads are served locally when the blob is cached,
+ * and fall back to the remote store otherwise. Byte reads served by the remote store are cached as well.
+ *
+ * Each cached blob is a file holding its metadata, its payload and a CRC32C checksum of the payload. The checksum is
+ * verified while the payload is read, in a single pass: a corrupted copy is dropped. Byte reads then fall back to the
+ * remote store, while streamed reads fail once the end of the corrupted payload is reached.
+ *
+ * The cache is bounded in size: the least recently used blobs are evicted first. Blobs bigger than the maximum entry
+ * size are not cached. Existing copies are reloaded upon start.
+ */
+public class LocalDiskCacheBlobStoreDAO implements BlobStoreDAO {
+    private static final Logger LOGGER = LoggerFactory.getLogger(LocalDiskCacheBlobStoreDAO.class);
+
+    static final String HITS_METRIC_NAME = "blobStore:localCache:hits";
+    static final String MISSES_METRIC_NAME = "blobStore:localCache:misses";
+    static final String EVICTIONS_METRIC_NAME = "blobStore:localCache:evictions";
+    static final String HIT_RATIO_GAUGE_NAME = "blobStore:localCache:hitRatio";
+    static final String SIZE_GAUGE_NAME = "blobStore:localCache:size";
+
+    private static final int MAGIC = 0x4a424331;
+    private static final String TEMPORARY_SUFFIX = ".tmp";
+    private static final boolean ACCESS_ORDER = true;
+
+    @FunctionalInterface
+    private interface CachedEntryReader<T> {
+        T read() throws IOException;
+    }
+
+    private final BlobStoreDAO underlying;
+    private final LocalDiskCacheConfiguration configuration;
+    private final Map<Path, Long> entries;
+    private final Metric hitsMetric;
+    private final Metric missesMetric;
+    private final Metric evictionsMetric;
+    private final AtomicLong hits;
+    private final AtomicLong misses;
+    private long currentSize;
+
+    public LocalDiskCacheBlobStoreDAO(BlobStoreDAO underlying, LocalDiskCacheConfiguration configuration,
+                                      MetricFactory metricFactory, GaugeRegistry gaugeRegistry) throws IOException {
+        this.underlying = underlying;
+        this.configuration = configuration;
+        this.entries = new LinkedHashMap<>(16, 0.75f, ACCESS_ORDER);
+        this.hitsMetric = metricFactory.generate(HITS_METRIC_NAME);
+        this.missesMetric = metricFactory.generate(MISSES_METRIC_NAME);
+        this.evictionsMetric = metricFactory.generate(EVICTIONS_METRIC_NAME);
+        this.hits = new AtomicLong();
+        this.misses = new AtomicLong();
+
+        Files.createDirectories(configuration.directory());
+        loadEntries();
+
+        gaugeRegistry.register(HIT_RATIO_GAUGE_NAME, this::hitRatio)
+            .register(SIZE_GAUGE_NAME, this::currentSize);
+    }
+
+    private void loadEntries() throws IOException {
+        ImmutableList<Path> files;
+        try (Stream<Path> paths = Files.walk(configuration.directory())) {
+            files = paths.filter(Files::isRegularFile)
+                .collect(ImmutableList.toImmutableList());
+        }
+        ImmutableList.Builder<Path> cachedFiles = ImmutableList.builder();
+        for (Path file : files) {
+            if (file.getFileName().toString().endsWith(TEMPORARY_SUFFIX)) {
+                deleteQuietly(file);
+            } else {
+                cachedFiles.add(file);
+            }
+        }
+        ImmutableList<Path> leastRecentlyModifiedFirst = cachedFiles.build()
+            .stream()
+            .sorted(Comparator.comparing(Throwing.<Path, FileTime>function(Files::getLastModifiedTime).sneakyThrow()))
+            .collect(ImmutableList.toImmutableList());
+        ImmutableList.Builder<Path> evicted = ImmutableList.builder();
+        synchronized (entries) {
+            for (Path file : leastRecentlyModifiedFirst) {
+                evicted.addAll(register(file, Files.size(file)));
+            }
+        }
+        evicted.build().forEach(this::deleteQuietly);
+    }
+
+    @Override
+    public InputStreamBlob read(BucketName bucketName, BlobId blobId) throws ObjectStoreIOException, ObjectNotFoundException {
+        return readCachedStream(entryPath(bucketName, blobId))
+            .orElseGet(() -> underlying.read(bucketName, blobId));
+    }
+
+    @Override
+    public Publisher<InputStreamBlob> readReactive(BucketName bucketName, BlobId blobId) {
+        return Mono.fromCallable(() -> readCachedStream(entryPath(bucketName, blobId)))
+            .subscribeOn(Schedulers.boundedElastic())
+            .flatMap(Mono::justOrEmpty)
+            .switchIfEmpty(Mono.defer(() -> Mono.from(underlying.readReactive(bucketName, blobId))));
+    }
+
+    @Override
+    public Publisher<BytesBlob> readBytes(BucketName bucketName, BlobId blobId) {
+        return Mono.fromCallable(() -> readCachedBytes(entryPath(bucketName, blobId)))
+            .subscribeOn(Schedulers.boundedElastic())
+            .flatMap(Mono::justOrEmpty)
+            .switchIfEmpty(Mono.defer(() -> Mono.from(underlying.readBytes(bucketName, blobId))
+                .flatMap(blob -> cacheQuietly(bucketName, blobId, blob.metadata(), ByteSource.wrap(blob.payload()))
+                    .thenReturn(blob))));
+    }
+
+    private Optional<InputStreamBlob> readCachedStream(Path path) {
+        return readCached(path, () -> {
+            DataInputStream input = open(path);
+            try {
+                BlobMetadata metadata = readMetadata(input);
+                long payloadLength = input.readLong();
+                return InputStreamBlob.of(new ChecksumVerifyingInputStream(input, payloadLength, path), metadata);
+            } catch (IOException | RuntimeException e) {
+                input.close();
+                throw e;
+            }
+        });
+    }
+
+    private Optional<BytesBlob> readCachedBytes(Path path) {
+        return readCached(path, () -> {
+            try (DataInputStream input = open(path)) {
+                BlobMetadata metadata = readMetadata(input);
+                long payloadLength = input.readLong();
+                byte[] payload = input.readNBytes(Math.toIntExact(payloadLength));
+                CRC32C checksum = new CRC32C();
+                checksum.update(payload);
+                if (payload.length != payloadLength || input.readLong() != checksum.getValue()) {
+                    throw new IOException("Checksum mismatch");
+                }
+                return BytesBlob.of(payload, metadata);
+            }
+        });
+    }
+
+    private <T> Optional<T> readCached(Path path, CachedEntryReader<T> reader) {
+        if (!touch(path)) {
+            recordMiss();
+            return Optional.empty();
+        }
+        try {
+            T result = reader.read();
+            hits.incrementAndGet();
+            hitsMetric.increment();
+            return Optional.of(result);
+        } catch (NoSuchFileException e) {
+            invalidate(path);
+        } catch (Exception e) {
+            LOGGER.warn("Dropping unreadable locally cached blob {}", path, e);
+            invalidate(path);
+        }
+        recordMiss();
+        return Optional.empty();
+    }
+
+    private DataInputStream open(Path path) throws IOException {
+        return new DataInputStream(new BufferedInputStream(Files.newInputStream(path)));
+    }
+
+    private BlobMetadata readMetadata(DataInputStream input) throws IOException {
+        if (input.readInt() != MAGIC) {
+            throw new IOException("Not a cached blob");
+        }
+        int metadataCount = input.readInt();
+        ImmutableMap.Builder<BlobMetadataName, BlobMetadataValue> metadata = ImmutableMap.builder();
+        for (int i = 0; i < metadataCount; i++) {
+            metadata.put(new BlobMetadataName(input.readUTF()), new BlobMetadataValue(input.readUTF()));
+        }
+        return new BlobMetadata(metadata.build());
+    }
+
+    /**
+     * Computes the checksum of the payload while it is being read, and compares it with the stored one once the
+     * payload is fully read. A mismatch drops the local copy and fails the read.
+     */
+    private class ChecksumVerifyingInputStream extends FilterInputStream {
+        private final DataInputStream file;
+        private final CRC32C checksum;
+        private final long payloadLength;
+        private final Path path;
+        private long read;
+        private boolean verified;
+
+        ChecksumVerifyingInputStream(DataInputStream file, long payloadLength, Path path) {
+            this(file, new CRC32C(), payloadLength, path);
+        }
+
+        private ChecksumVerifyingInputStream(DataInputStream file, CRC32C checksum, long payloadLength, Path path) {
+            super(new CheckedInputStream(ByteStreams.limit(file, payloadLength), checksum));
+            this.file = file;
+            this.checksum = checksum;
+            this.payloadLength = payloadLength;
+            this.path = path;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            onRead(b == -1 ? -1 : 1);
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int count = super.read(b, off, len);
+            onRead(count);
+            return count;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            read += skipped;
+            return skipped;
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+
+        private void onRead(int count) throws IOException {
+            if (count > 0) {
+                read += count;
+            } else if (count == -1 && !verified) {
+                verify();
+            }
+        }
+
+        private void verify() throws IOException {
+            if (read != payloadLength || file.readLong() != checksum.getValue()) {
+                invalidate(path);
+                throw new IOException("Checksum mismatch for locally cached blob " + path);
+            }
+            verified = true;
+        }
+    }
+
+    private void recordMiss() {
+        misses.incrementAndGet();
+        missesMetric.increment();
+    }
+
+    @Override
+    public Publisher<Void> save(BucketName bucketName, BlobId blobId, Blob blob) {
+        return switch (blob) {
+            case BytesBlob bytesBlob -> Mono.from(underlying.save(bucketName, blobId, bytesBlob))
+                .then(cacheQuietly(bucketName, blobId, bytesBlob.metadata(), ByteSource.wrap(bytesBlob.payload())));
+            case ByteSourceBlob byteSourceBlob -> Mono.from(underlying.save(bucketName, blobId, byteSourceBlob))
+                .then(cacheQuietly(bucketName, blobId, byteSourceBlob.metadata(), byteSourceBlob.payload()));
+            case InputStreamBlob inputStreamBlob -> save(bucketName, blobId, inputStreamBlob);
+        };
+    }
+
+    private Mono<Void> save(BucketName bucketName, BlobId blobId, InputStreamBlob blob) {
+        return Mono.using(() -> spool(blob.payload()),
+                spooled -> {
+                    ByteSource payload = MoreFiles.asByteSource(spooled);
+                    return Mono.from(underlying.save(bucketName, blobId, ByteSourceBlob.of(payload, blob.metadata())))
+                        .then(cacheQuietly(bucketName, blobId, blob.metadata(), payload));
+                },
+                this::deleteQuietly)
+            .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private Path spool(InputStream payload) throws IOException {
+        Path spooled = Files.createTempFile(configuration.directory(), "spool-", TEMPORARY_SUFFIX);
+        try {
+            Files.copy(payload, spooled, StandardCopyOption.REPLACE_EXISTING);
+            return spooled;
+        } catch (IOException e) {
+            deleteQuietly(spooled);
+            throw new ObjectStoreIOException("Error saving blob", e);
+        }
+    }
+
+    private Mono<Void> cacheQuietly(BucketName bucketName, BlobId blobId, BlobMetadata metadata, ByteSource payload) {
+        return Mono.fromRunnable(Throwing.runnable(() -> cache(entryPath(bucketName, blobId), metadata, payload)).sneakyThrow())
+            .subscribeOn(Schedulers.boundedElastic())
+            .onErrorResume(e -> {
+                LOGGER.warn("Failed to cache blob {} of bucket {} locally", blobId.asString(), bucketName.asString(), e);
+                return Mono.empty();
+            })
+            .then();
+    }
+
+    private void cache(Path path, BlobMetadata metadata, ByteSource payload) throws IOException {
+        long payloadLength = payload.size();
+        if (payloadLength > configuration.maxEntrySizeInBytes()) {
+            invalidate(path);
+            return;
+        }
+        Files.createDirectories(path.getParent());
+        Path temporary = path.resolveSibling(path.getFileName() + "-" + UUID.randomUUID() + TEMPORARY_SUFFIX);
+        try {
+            write(temporary, metadata, payload, payloadLength);
+            Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            deleteQuietly(temporary);
+        }
+        long size = Files.size(path);
+        ImmutableList<Path> evicted;
+        synchronized (entries) {
+            evicted = register(path, size);
+        }
+        evicted.forEach(this::deleteQuietly);
+    }
+
+    private void write(Path temporary, BlobMetadata metadata, ByteSource payload, long payloadLength) throws IOException {
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)));
+             InputStream input = payload.openStream()) {
+            output.writeInt(MAGIC);
+            output.writeInt(metadata.underlyingMap().size());
+            for (Map.Entry<BlobMetadataName, BlobMetadataValue> entry : metadata.underlyingMap().entrySet()) {
+                output.writeUTF(entry.getKey().name());
+                output.writeUTF(entry.getValue().value());
+            }
+            output.writeLong(payloadLength);
+            CRC32C checksum = new CRC32C();
+            long written = new CheckedInputStream(input, checksum).transferTo(output);
+            if (written != payloadLength) {
+                throw new IOException("Blob size changed while being cached");
+            }
+            output.writeLong(checksum.getValue());
+        }
+    }
+
+    // Needs to be called while holding the entries lock. Returns the evicted files, to be deleted once the lock is released
+    private ImmutableList<Path> register(Path path, long size) {
+        Long previousSize = entries.put(path, size);
+        currentSize += size - Optional.ofNullable(previousSize).orElse(0L);
+
+        ImmutableList.Builder<Path> evicted = ImmutableList.builder();
+        Iterator<Map.Entry<Path, Long>> eldestFirst = entries.entrySet().iterator();
+        while (currentSize > configuration.maxSizeInBytes() && eldestFirst.hasNext()) {
+            Map.Entry<Path, Long> eldest = eldestFirst.next();
+            if (eldest.getKey().equals(path)) {
+                continue;
+            }
+            eldestFirst.remove();
+            currentSize -= eldest.getValue();
+            evicted.add(eldest.getKey());
+            evictionsMetric.increment();
+        }
+        return evicted.build();
+    }
+
+    private boolean touch(Path path) {
+        synchronized (entries) {
+            return entries.get(path) != null;
+        }
+    }
+
+    private void invalidate(Path path) {
+        synchronized (entries) {
+            Optional.ofNullable(entries.remove(path))
+                .ifPresent(size -> currentSize -= size);
+        }
+        deleteQuietly(path);
+    }
+
+    private void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            LOGGER.warn("Failed to delete {}", path, e);
+        }
+    }
+
+    private Path bucketPath(BucketName bucketName) {
+        return configuration.directory().resolve(URLEncoder.encode(bucketName.asString(), UTF_8));
+    }
+
+    private Path entryPath(BucketName bucketName, BlobId blobId) {
+        String hash = Hashing.sha256().hashString(blobId.asString(), UTF_8).toString();
+        return bucketPath(bucketName)
+            .resolve(hash.substring(0, 2))
+            .resolve(hash);
+    }
+
+    @Override
+    public Publisher<Void> delete(BucketName bucketName, BlobId blobId) {
+        return Mono.from(underlying.delete(bucketName, blobId))
+            .then(Mono.fromRunnable(() -> invalidate(entryPath(bucketName, blobId)))
+                .subscribeOn(Schedulers.boundedElastic()))
+            .then();
+    }
+
+    @Override
+    public Publisher<Void> delete(BucketName bucketName, Collection<BlobId> blobIds) {
+        return Mono.from(underlying.delete(bucketName, blobIds))
+            .then(Mono.fromRunnable(() -> blobIds.forEach(blobId -> invalidate(entryPath(bucketName, blobId))))
+                .subscribeOn(Schedulers.boundedElastic()))
+            .then();
+    }
+
+    @Override
+    public Publisher<BlobId> listExistingBlobs(BucketName bucketName, Collection<BlobId> blobIds) {
+        // Local copies might outlive a deletion by another James server: the remote blob store is authoritative
+        return underlying.listExistingBlobs(bucketName, blobIds);
+    }
+
+    @Override
+    public Publisher<Void> deleteBucket(BucketName bucketName) {
+        return Mono.from(underlying.deleteBucket(bucketName))
+            .then(Mono.fromRunnable(() -> invalidateBucket(bucketName))
+                .subscribeOn(Schedulers.boundedElastic()))
+            .then();
+    }
+
+    private void invalidateBucket(BucketName bucketName) {
+        Path bucketPath = bucketPath(bucketName);
+        synchronized (entries) {
+            Iterator<Map.Entry<Path, Long>> iterator = entries.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<Path, Long> entry = iterator.next();
+                if (entry.getKey().startsWith(bucketPath)) {
+                    iterator.remove();
+                    currentSize -= entry.getValue();
+                }
+            }
+        }
+        try {
+            FileUtils.deleteDirectory(bucketPath.toFile());
+        } catch (IOException e) {
+            // Local copies of concurrently deleted buckets might already be gone
+            LOGGER.debug("Failed to delete local copies of bucket {}", bucketName.asString(), e);
+        }
+    }
+
+    @Override
+    public Publisher<BucketName> listBuckets() {
+        return underlying.listBuckets();
+    }
+
+    @Override
+    public Publisher<BlobId> listBlobs(BucketName bucketName) {
+        return underlying.listBlobs(bucketName);
+    }
+
+    @Override
+    public Publisher<BlobId> listBlobs(BucketName bucketName, String prefix) {
+        return underlying.listBlobs(bucketName, prefix);
+    }
+
+    @VisibleForTesting
+    long currentSize() {
+        synchronized (entries) {
+            return currentSize;
+        }
+    }
+
+    private double hitRatio() {
+        long hitCount = hits.get();
+        long total = hitCount + misses.get();
+        if (total == 0) {
+            return 0;
+        }
+        return (double) hitCount / total;
+    }
+}
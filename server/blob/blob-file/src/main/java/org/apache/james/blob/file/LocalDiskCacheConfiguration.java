@@ -0,0 +1,64 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.blob.file;
+
+import java.nio.file.Path;
+
+import com.google.common.base.Preconditions;
+
+public record LocalDiskCacheConfiguration(Path directory, long maxSizeInBytes, long maxEntrySizeInBytes) {
+    public static final long DEFAULT_MAX_SIZE = 10L * 1024 * 1024 * 1024;
+    public static final long DEFAULT_MAX_ENTRY_SIZE = 10L * 1024 * 1024;
+
+    public static class Builder {
+        private final Path directory;
+        private long maxSizeInBytes = DEFAULT_MAX_SIZE;
+        private long maxEntrySizeInBytes = DEFAULT_MAX_ENTRY_SIZE;
+
+        private Builder(Path directory) {
+            this.directory = directory;
+        }
+
+        public Builder maxSizeInBytes(long maxSizeInBytes) {
+            this.maxSizeInBytes = maxSizeInBytes;
+            return this;
+        }
+
+        public Builder maxEntrySizeInBytes(long maxEntrySizeInBytes) {
+            this.maxEntrySizeInBytes = maxEntrySizeInBytes;
+            return this;
+        }
+
+        public LocalDiskCacheConfiguration build() {
+            return new LocalDiskCacheConfiguration(directory, maxSizeInBytes, maxEntrySizeInBytes);
+        }
+    }
+
+    public static Builder builder(Path directory) {
+        return new Builder(directory);
+    }
+
+    public LocalDiskCacheConfiguration {
+        Preconditions.checkNotNull(directory, "'directory' is compulsory");
+        Preconditions.checkArgument(maxSizeInBytes > 0, "'maxSizeInBytes' needs to be strictly positive");
+        Preconditions.checkArgument(maxEntrySizeInBytes > 0, "'maxEntrySizeInBytes' needs to be strictly positive");
+        Preconditions.checkArgument(maxEntrySizeInBytes <= maxSizeInBytes, "'maxEntrySizeInBytes' needs to be lower than or equal to 'maxSizeInBytes'");
+    }
+}
@@ -0,0 +1,231 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.blob.file;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.apache.james.blob.file.LocalDiskCacheBlobStoreDAO.EVICTIONS_METRIC_NAME;
+import static org.apache.james.blob.file.LocalDiskCacheBlobStoreDAO.HITS_METRIC_NAME;
+import static org.apache.james.blob.file.LocalDiskCacheBlobStoreDAO.MISSES_METRIC_NAME;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.apache.james.blob.api.BlobId;
+import org.apache.james.blob.api.BlobStoreDAO;
+import org.apache.james.blob.api.BlobStoreDAOContract;
+import org.apache.james.blob.api.BucketName;
+import org.apache.james.blob.api.MetadataAwareBlobStoreDAOContract;
+import org.apache.james.blob.api.ObjectNotFoundException;
+import org.apache.james.blob.api.PlainBlobId;
+import org.apache.james.metrics.api.NoopGaugeRegistry;
+import org.apache.james.metrics.tests.RecordingMetricFactory;
+import org.apache.james.server.core.filesystem.FileSystemImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.google.common.collect.ImmutableList;
+
+import reactor.core.publisher.Mono;
+
+class LocalDiskCacheBlobStoreDAOTest implements BlobStoreDAOContract, MetadataAwareBlobStoreDAOContract {
+    private static final BucketName BUCKET = BucketName.of("bucket");
+    private static final BlobId BLOB_ID = new PlainBlobId.Factory().of("blob-id");
+    private static final byte[] PAYLOAD = "payload".getBytes(UTF_8);
+
+    @TempDir
+    Path cacheDirectory;
+
+    private FileBlobStoreDAO remote;
+    private RecordingMetricFactory metricFactory;
+    private LocalDiskCacheBlobStoreDAO testee;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        remote = new FileBlobStoreDAO(FileSystemImpl.forTesting(), new PlainBlobId.Factory());
+        metricFactory = new RecordingMetricFactory();
+        testee = newTestee(LocalDiskCacheConfiguration.builder(cacheDirectory).build());
+    }
+
+    private LocalDiskCacheBlobStoreDAO newTestee(LocalDiskCacheConfiguration configuration) throws Exception {
+        return new LocalDiskCacheBlobStoreDAO(remote, configuration, metricFactory, new NoopGaugeRegistry());
+    }
+
+    @Override
+    public BlobStoreDAO testee() {
+        return testee;
+    }
+
+    @Override
+    @Disabled("Not supported by the underlying FileBlobStoreDAO")
+    public void mixingSaveReadAndDeleteShouldReturnConsistentState() {
+
+    }
+
+    private byte[] readBytes(BlobStoreDAO blobStoreDAO, BlobId blobId) {
+        return Mono.from(blobStoreDAO.readBytes(BUCKET, blobId)).block().payload();
+    }
+
+    private ImmutableList<Path> cachedFiles() throws Exception {
+        try (Stream<Path> paths = Files.walk(cacheDirectory)) {
+            return paths.filter(Files::isRegularFile).collect(ImmutableList.toImmutableList());
+        }
+    }
+
+    @Test
+    void readShouldBeServedLocallyAfterSave() {
+        Mono.from(testee.save(BUCKET, BLOB_ID, BlobStoreDAO.BytesBlob.of(PAYLOAD))).block();
+        Mono.from(remote.delete(BUCKET, BLOB_ID)).block();
+
+        assertThat(readBytes(testee, BLOB_ID)).isEqualTo(PAYLOAD);
+        assertThat(metricFactory.countFor(HITS_METRIC_NAME)).isEqualTo(1);
+    }
+
+    @Test
+    void saveShouldWriteThroughTheRemoteStore() {
+        Mono.from(testee.save(BUCKET, BLOB_ID, BlobStoreDAO.BytesBlob.of(PAYLOAD))).block();
+
+        assertThat(readBytes(remote, BLOB_ID)).isEqualTo(PAYLOAD);
+    }
+
+    @Test
+    void readBytesShouldPopulateTheCache() {
+        Mono.from(remote.save(BUCKET, BLOB_ID, BlobStoreDAO.BytesBlob.of(PAYLOAD))).block();
+        readBytes(testee, BLOB_ID);
+        Mono.from(remote.delete(BUCKET, BLOB_ID)).block();
+
+        assertThat(readBytes(testee, BLOB_ID)).isEqualTo(PAYLOAD);
+        assertThat(metricFactory.countFor(MISSES_METRIC_NAME)).isEqualTo(1);
+        assertThat(metricFactory.countFor(HITS_METRIC_NAME)).isEqualTo(1);
+    }
+
+    @Test
+    void deleteShouldDropTheLocalCopy() throws Exception {
+        Mono.from(testee.save(BUCKET, BLOB_ID, BlobStoreDAO.BytesBlob.of(PAYLOAD))).block();
+        Mono.from(testee.delete(BUCKET, BLOB_ID)).block();
+
+        assertThat(cachedFiles()).isEmpty();
+        assertThatThrownBy(() -> readBytes(testee, BLOB_ID))
+            .isInstanceOf(ObjectNotFoundException.class);
+    }
+
+    @Test
+    void corruptedLocalCopiesShouldBeReadFromTheRemoteStore() throws Exception {
+        Mono.from(testee.save(BUCKET, BLOB_ID, BlobStoreDAO.BytesBlob.of(PAYLOAD))).block();
+        Path cachedFile = cachedFiles().getFirst();
+        byte[] corrupted = Files.readAllBytes(cachedFile);
+        corrupted[corrupted.length - 10] ^= 1;
+        Files.write(cachedFile, corrupted);
+
+        assertThat(readBytes(testee, BLOB_ID)).isEqualTo(PAYLOAD);
+        assertThat(metricFactory.countFor(HITS_METRIC_NAME)).isZero();
+        assertThat(metricFactory.countFor(MISSES_METRIC_NAME)).isEqualTo(1);
+    }
+
+    @Test
+    void corruptedLocalCopiesShouldFailStreamedReads() throws Exception {
+        Mono.from(testee.save(BUCKET, BLOB_ID, BlobStoreDAO.BytesBlob.of(PAYLOAD))).block();
+        Path cachedFile = cachedFiles().getFirst();
+        byte[] corrupted = Files.readAllBytes(cachedFile);
+        corrupted[corrupted.length - 10] ^= 1;
+        Files.write(cachedFile, corrupted);
+
+        try (InputStream payload = testee.read(BUCKET, BLOB_ID).payload()) {
+            assertThatThrownBy(payload::readAllBytes)
+                .isInstanceOf(IOException.class);
+        }
+        assertThat(cachedFiles()).isEmpty();
+        assertThat(readBytes(testee, BLOB_ID)).isEqualTo(PAYLOAD);
+    }
+
+    @Test
+    void cacheShouldEvictLeastRecentlyUsedBlobs() throws Exception {
+        testee = newTestee(LocalDiskCacheConfiguration.builder(cacheDirectory)
+            .maxSizeInBytes(1024)
+            .maxEntrySizeInBytes(256)
+            .build());
+        byte[] payload = new byte[200];
+
+        IntStream.range(0, 10)
+            .forEach(i -> Mono.from(testee.save(BUCKET, new PlainBlobId.Factory().of("blob-" + i), BlobStoreDAO.BytesBlob.of(payload))).block());
+
+        assertThat(testee.currentSize()).isLessThanOrEqualTo(1024);
+        assertThat(metricFactory.countFor(EVICTIONS_METRIC_NAME)).isPositive();
+        assertThat(cachedFiles().stream().mapToLong(path -> path.toFile().length()).sum()).isEqualTo(testee.currentSize());
+    }
+
+    @Test
+    void recentlyReadBlobsShouldNotBeEvicted() throws Exception {
+        testee = newTestee(LocalDiskCacheConfiguration.builder(cacheDirectory)
+            .maxSizeInBytes(1024)
+            .maxEntrySizeInBytes(256)
+            .build());
+        byte[] payload = new byte[200];
+        Mono.from(testee.save(BUCKET, BLOB_ID, BlobStoreDAO.BytesBlob.of(payload))).block();
+
+        IntStream.range(0, 10)
+            .forEach(i -> {
+                Mono.from(testee.save(BUCKET, new PlainBlobId.Factory().of("blob-" + i), BlobStoreDAO.BytesBlob.of(payload))).block();
+                readBytes(testee, BLOB_ID);
+            });
+        Mono.from(remote.delete(BUCKET, BLOB_ID)).block();
+
+        assertThat(readBytes(testee, BLOB_ID)).isEqualTo(payload);
+    }
+
+    @Test
+    void blobsBiggerThanTheMaximumEntrySizeShouldNotBeCached() throws Exception {
+        testee = newTestee(LocalDiskCacheConfiguration.builder(cacheDirectory)
+            .maxEntrySizeInBytes(4)
+            .build());
+
+        Mono.from(testee.save(BUCKET, BLOB_ID, BlobStoreDAO.BytesBlob.of(PAYLOAD))).block();
+
+        assertThat(cachedFiles()).isEmpty();
+        assertThat(readBytes(testee, BLOB_ID)).isEqualTo(PAYLOAD);
+    }
+
+    @Test
+    void localCopiesShouldBeReloadedUponRestart() throws Exception {
+        Mono.from(testee.save(BUCKET, BLOB_ID, BlobStoreDAO.BytesBlob.of(PAYLOAD))).block();
+        Mono.from(remote.delete(BUCKET, BLOB_ID)).block();
+
+        LocalDiskCacheBlobStoreDAO restarted = newTestee(LocalDiskCacheConfiguration.builder(cacheDirectory).build());
+
+        assertThat(readBytes(restarted, BLOB_ID)).isEqualTo(PAYLOAD);
+        assertThat(restarted.currentSize()).isEqualTo(testee.currentSize());
+    }
+
+    @Test
+    void configurationShouldRejectEntriesBiggerThanTheCache() {
+        assertThatThrownBy(() -> LocalDiskCacheConfiguration.builder(cacheDirectory)
+                .maxSizeInBytes(10)
+                .maxEntrySizeInBytes(20)
+                .build())
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -31,6 +31,7 @@ import org.reactivestreams.Publisher;
 
 import com.google.common.base.Preconditions;
 import com.google.common.collect.HashBasedTable;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Table;
 import com.google.common.io.ByteSource;
@@ -122,9 +123,23 @@ public class MemoryBlobStoreDAO implements BlobStoreDAO {
 
     @Override
     public Publisher<Void> delete(BucketName bucketName, Collection<BlobId> blobIds) {
-        return Flux.fromIterable(blobIds)
-            .flatMap(id -> delete(bucketName, id))
-            .then();
+        Preconditions.checkNotNull(bucketName);
+        return Mono.fromRunnable(() -> {
+            synchronized (blobs) {
+                blobIds.forEach(blobId -> blobs.remove(bucketName, blobId));
+            }
+        });
+    }
+
+    @Override
+    public Publisher<BlobId> listExistingBlobs(BucketName bucketName, Collection<BlobId> blobIds) {
+        return Flux.defer(() -> {
+            synchronized (blobs) {
+                return Flux.fromIterable(blobIds.stream()
+                    .filter(blobId -> blobs.contains(bucketName, blobId))
+                    .collect(ImmutableList.toImmutableList()));
+            }
+        });
     }
 
     @Override
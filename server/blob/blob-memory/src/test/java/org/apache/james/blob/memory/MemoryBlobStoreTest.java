@@ -19,13 +19,29 @@
 
 package org.apache.james.blob.memory;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.io.ByteArrayInputStream;
+
 import org.apache.james.blob.api.BlobId;
 import org.apache.james.blob.api.BlobStore;
+import org.apache.james.blob.api.BlobStoreDAO;
+import org.apache.james.blob.api.BucketName;
 import org.apache.james.blob.api.DeduplicationBlobStoreContract;
 import org.apache.james.blob.api.MetricableBlobStore;
 import org.apache.james.blob.api.MetricableBlobStoreContract;
 import org.apache.james.blob.api.PlainBlobId;
+import org.apache.james.server.blob.deduplication.DeDuplicationBlobStore;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.google.common.io.ByteSource;
+
+import reactor.core.publisher.Mono;
 
 public class MemoryBlobStoreTest implements MetricableBlobStoreContract, DeduplicationBlobStoreContract {
     private static final PlainBlobId.Factory BLOB_ID_FACTORY = new PlainBlobId.Factory();
@@ -53,4 +69,33 @@ public class MemoryBlobStoreTest implements MetricableBlobStoreContract, Dedupli
     public BlobId.Factory blobIdFactory() {
         return BLOB_ID_FACTORY;
     }
+
+    @Test
+    void saveShouldNotUploadAgainExistingLargeContent() {
+        BlobStoreDAO blobStoreDAO = spy(new MemoryBlobStoreDAO());
+        BlobStore testee = new DeDuplicationBlobStore(blobStoreDAO, BucketName.DEFAULT, BLOB_ID_FACTORY);
+        byte[] largeContent = new byte[2 * 1024 * 1024];
+
+        BlobId blobId = Mono.from(testee.save(BucketName.DEFAULT, largeContent, BlobStore.StoragePolicy.LOW_COST)).block();
+        BlobId bytesBlobId = Mono.from(testee.save(BucketName.DEFAULT, largeContent, BlobStore.StoragePolicy.LOW_COST)).block();
+        BlobId inputStreamBlobId = Mono.from(testee.save(BucketName.DEFAULT, new ByteArrayInputStream(largeContent), BlobStore.StoragePolicy.LOW_COST)).block();
+        BlobId byteSourceBlobId = Mono.from(testee.save(BucketName.DEFAULT, ByteSource.wrap(largeContent), BlobStore.StoragePolicy.LOW_COST)).block();
+
+        assertThat(bytesBlobId).isEqualTo(blobId);
+        assertThat(inputStreamBlobId).isEqualTo(blobId);
+        assertThat(byteSourceBlobId).isEqualTo(blobId);
+        verify(blobStoreDAO, times(1)).save(any(), any(), any());
+    }
+
+    @Test
+    void saveShouldUploadAgainExistingSmallContent() {
+        BlobStoreDAO blobStoreDAO = spy(new MemoryBlobStoreDAO());
+        BlobStore testee = new DeDuplicationBlobStore(blobStoreDAO, BucketName.DEFAULT, BLOB_ID_FACTORY);
+        byte[] smallContent = new byte[1024];
+
+        Mono.from(testee.save(BucketName.DEFAULT, smallContent, BlobStore.StoragePolicy.LOW_COST)).block();
+        Mono.from(testee.save(BucketName.DEFAULT, smallContent, BlobStore.StoragePolicy.LOW_COST)).block();
+
+        verify(blobStoreDAO, times(2)).save(any(), any(), any());
+    }
 }
@@ -0,0 +1,165 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.blob.memory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayInputStream;
+import java.util.List;
+import java.util.Random;
+
+import org.apache.james.blob.api.BlobId;
+import org.apache.james.blob.api.BlobStore;
+import org.apache.james.blob.api.BlobStoreContract;
+import org.apache.james.blob.api.BucketName;
+import org.apache.james.blob.api.DeduplicationBlobStoreContract;
+import org.apache.james.blob.api.ObjectNotFoundException;
+import org.apache.james.blob.api.PlainBlobId;
+import org.apache.james.server.blob.deduplication.ChunkManifest;
+import org.apache.james.server.blob.deduplication.ChunkReferenceSource;
+import org.apache.james.server.blob.deduplication.ChunkingBlobStore;
+import org.apache.james.server.blob.deduplication.ChunkingConfiguration;
+import org.apache.james.server.blob.deduplication.DeDuplicationBlobStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.google.common.primitives.Bytes;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+class MemoryChunkingBlobStoreTest implements BlobStoreContract, DeduplicationBlobStoreContract {
+    private static final PlainBlobId.Factory BLOB_ID_FACTORY = new PlainBlobId.Factory();
+    private static final ChunkingConfiguration CONFIGURATION = ChunkingConfiguration.builder()
+        .threshold(4096)
+        .averageChunkSize(1024)
+        .build();
+    private static final byte[] LARGE_CONTENT = randomBytes(64 * 1024, 42);
+
+    private static byte[] randomBytes(int size, long seed) {
+        byte[] bytes = new byte[size];
+        new Random(seed).nextBytes(bytes);
+        return bytes;
+    }
+
+    private MemoryBlobStoreDAO blobStoreDAO;
+    private BlobStore blobStore;
+
+    @BeforeEach
+    void setUp() {
+        blobStoreDAO = new MemoryBlobStoreDAO();
+        blobStore = createBlobStore();
+    }
+
+    @Override
+    public BlobStore createBlobStore() {
+        return new ChunkingBlobStore(new DeDuplicationBlobStore(blobStoreDAO, BucketName.DEFAULT, BLOB_ID_FACTORY),
+            BLOB_ID_FACTORY, CONFIGURATION);
+    }
+
+    @Override
+    public BlobStore testee() {
+        return blobStore;
+    }
+
+    @Override
+    public BlobId.Factory blobIdFactory() {
+        return BLOB_ID_FACTORY;
+    }
+
+    private long storedBlobCount() {
+        return Flux.from(blobStoreDAO.listBlobs(BucketName.DEFAULT)).count().block();
+    }
+
+    @Test
+    void smallBlobsShouldNotBeChunked() {
+        BlobId blobId = Mono.from(testee().save(BucketName.DEFAULT, randomBytes(4096, 42), BlobStore.StoragePolicy.LOW_COST)).block();
+
+        assertThat(ChunkManifest.isManifest(blobId)).isFalse();
+        assertThat(storedBlobCount()).isEqualTo(1);
+    }
+
+    @Test
+    void largeBlobsShouldBeSavedAsAManifest() {
+        BlobId blobId = Mono.from(testee().save(BucketName.DEFAULT, LARGE_CONTENT, BlobStore.StoragePolicy.LOW_COST)).block();
+
+        assertThat(ChunkManifest.isManifest(blobId)).isTrue();
+        assertThat(storedBlobCount()).isGreaterThan(2);
+    }
+
+    @Test
+    void savingTheSameContentShouldReturnTheSameManifest() {
+        BlobId first = Mono.from(testee().save(BucketName.DEFAULT, LARGE_CONTENT, BlobStore.StoragePolicy.LOW_COST)).block();
+        long storedBlobCount = storedBlobCount();
+
+        BlobId second = Mono.from(testee().save(BucketName.DEFAULT, new ByteArrayInputStream(LARGE_CONTENT), BlobStore.StoragePolicy.LOW_COST)).block();
+
+        assertThat(second).isEqualTo(first);
+        assertThat(storedBlobCount()).isEqualTo(storedBlobCount);
+    }
+
+    @Test
+    void similarBlobsShouldShareMostChunks() {
+        Mono.from(testee().save(BucketName.DEFAULT, LARGE_CONTENT, BlobStore.StoragePolicy.LOW_COST)).block();
+        long storedBlobCount = storedBlobCount();
+
+        byte[] shifted = Bytes.concat(randomBytes(100, 43), LARGE_CONTENT);
+        BlobId blobId = Mono.from(testee().save(BucketName.DEFAULT, shifted, BlobStore.StoragePolicy.LOW_COST)).block();
+
+        assertThat(Mono.from(testee().readBytes(BucketName.DEFAULT, blobId)).block()).isEqualTo(shifted);
+        // One new manifest, and the chunk(s) around the insertion
+        assertThat(storedBlobCount()).isLessThanOrEqualTo(storedBlobCount + 3);
+    }
+
+    @Test
+    void readShouldFailWhenAChunkIsMissing() {
+        BlobId blobId = Mono.from(testee().save(BucketName.DEFAULT, LARGE_CONTENT, BlobStore.StoragePolicy.LOW_COST)).block();
+        ChunkManifest manifest = ChunkManifest.parse(Mono.from(blobStoreDAO.readBytes(BucketName.DEFAULT, blobId)).block().payload(), BLOB_ID_FACTORY);
+        Mono.from(blobStoreDAO.delete(BucketName.DEFAULT, manifest.chunks().getLast())).block();
+
+        assertThatThrownBy(() -> Mono.from(testee().readBytes(BucketName.DEFAULT, blobId)).block())
+            .isInstanceOf(ObjectNotFoundException.class);
+    }
+
+    @Test
+    void chunkReferenceSourceShouldExpandManifests() {
+        BlobId smallBlobId = Mono.from(testee().save(BucketName.DEFAULT, SHORT_BYTEARRAY, BlobStore.StoragePolicy.LOW_COST)).block();
+        BlobId largeBlobId = Mono.from(testee().save(BucketName.DEFAULT, LARGE_CONTENT, BlobStore.StoragePolicy.LOW_COST)).block();
+
+        ChunkReferenceSource referenceSource = new ChunkReferenceSource(() -> Flux.just(smallBlobId, largeBlobId),
+            blobStoreDAO, BucketName.DEFAULT, BLOB_ID_FACTORY);
+
+        List<BlobId> references = Flux.from(referenceSource.listReferencedBlobs()).collectList().block();
+        List<BlobId> storedBlobs = Flux.from(blobStoreDAO.listBlobs(BucketName.DEFAULT)).collectList().block();
+        assertThat(references).containsExactlyInAnyOrderElementsOf(storedBlobs);
+    }
+
+    @Test
+    void chunkReferenceSourceShouldSkipMissingManifests() {
+        BlobId missingManifest = BLOB_ID_FACTORY.of("missing" + ChunkManifest.MANIFEST_SUFFIX);
+
+        ChunkReferenceSource referenceSource = new ChunkReferenceSource(() -> Flux.just(missingManifest),
+            blobStoreDAO, BucketName.DEFAULT, BLOB_ID_FACTORY);
+
+        assertThat(Flux.from(referenceSource.listReferencedBlobs()).collectList().block())
+            .containsExactly(missingManifest);
+    }
+}
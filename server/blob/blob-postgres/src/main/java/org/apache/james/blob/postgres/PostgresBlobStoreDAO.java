@@ -150,7 +150,26 @@ public class PostgresBlobStoreDAO implements BlobStoreDAO {
         }
         return postgresExecutor.executeVoid(dsl -> Mono.from(dsl.deleteFrom(TABLE_NAME)
             .where(BUCKET_NAME.eq(bucketName.asString()))
-            .and(BLOB_ID.in(blobIds.stream().map(BlobId::asString).collect(ImmutableList.toImmutableList())))));
+            .and(BLOB_ID.eq(DSL.any(asArray(blobIds))))));
+    }
+
+    @Override
+    public Flux<BlobId> listExistingBlobs(BucketName bucketName, Collection<BlobId> blobIds) {
+        if (blobIds.isEmpty()) {
+            return Flux.empty();
+        }
+        return postgresExecutor.executeRows(dsl -> Flux.from(dsl.select(BLOB_ID)
+                .from(TABLE_NAME)
+                .where(BUCKET_NAME.eq(bucketName.asString()))
+                .and(BLOB_ID.eq(DSL.any(asArray(blobIds))))))
+            .map(record -> blobIdFactory.parse(record.get(BLOB_ID)));
+    }
+
+    // A single array parameter keeps one prepared statement whatever the number of blobs
+    private String[] asArray(Collection<BlobId> blobIds) {
+        return blobIds.stream()
+            .map(BlobId::asString)
+            .toArray(String[]::new);
     }
 
     @Override
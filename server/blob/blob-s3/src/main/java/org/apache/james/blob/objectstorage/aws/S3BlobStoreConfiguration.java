@@ -26,6 +26,7 @@ import java.util.Optional;
 import org.apache.commons.configuration2.Configuration;
 import org.apache.james.blob.api.BucketName;
 import org.apache.james.blob.objectstorage.aws.sse.S3SSECConfiguration;
+import org.apache.james.util.concurrency.AdaptiveConcurrencyLimiter;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.MoreObjects;
@@ -33,7 +34,10 @@ import com.google.common.base.Preconditions;
 import com.google.common.base.Predicate;
 
 import reactor.util.retry.Retry;
+import software.amazon.awssdk.core.exception.ApiCallAttemptTimeoutException;
+import software.amazon.awssdk.core.exception.ApiCallTimeoutException;
 import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.services.s3.model.S3Exception;
 
 public class S3BlobStoreConfiguration {
 
@@ -78,6 +82,7 @@ public class S3BlobStoreConfiguration {
             private boolean ssecEnabled;
             private Optional<S3SSECConfiguration> ssecConfiguration = Optional.empty();
             private Optional<BucketName> fallbackBucketName;
+            private Optional<AdaptiveConcurrencyLimiter.Configuration> adaptiveConcurrency;
 
             public ReadyToBuild(AwsS3AuthConfiguration specificAuthConfiguration, Region region) {
                 this.specificAuthConfiguration = specificAuthConfiguration;
@@ -91,6 +96,7 @@ public class S3BlobStoreConfiguration {
                 this.inMemoryReadLimit = Optional.empty();
                 this.uploadRetrySpec = Optional.empty();
                 this.fallbackBucketName = Optional.empty();
+                this.adaptiveConcurrency = Optional.empty();
             }
 
             public ReadyToBuild defaultBucketName(Optional<BucketName> defaultBucketName) {
@@ -162,11 +168,16 @@ public class S3BlobStoreConfiguration {
                 return this;
             }
 
+            public ReadyToBuild adaptiveConcurrency(Optional<AdaptiveConcurrencyLimiter.Configuration> adaptiveConcurrency) {
+                this.adaptiveConcurrency = adaptiveConcurrency;
+                return this;
+            }
+
             public S3BlobStoreConfiguration build() {
                 return new S3BlobStoreConfiguration(bucketPrefix, defaultBucketName, region,
                     specificAuthConfiguration, httpConcurrency.orElse(DEFAULT_HTTP_CONCURRENCY),
                     inMemoryReadLimit, readTimeout, writeTimeout, connectionTimeout, uploadRetrySpec.orElse(DEFAULT_UPLOAD_RETRY_SPEC),
-                    ssecEnabled, ssecConfiguration, fallbackBucketName);
+                    ssecEnabled, ssecConfiguration, fallbackBucketName, adaptiveConcurrency);
             }
         }
 
@@ -177,6 +188,15 @@ public class S3BlobStoreConfiguration {
     public static final Double UPLOAD_RETRY_BACKOFF_JETTY_DEFAULT = 0.5;
     public static final Predicate<Throwable> UPLOAD_RETRY_EXCEPTION_PREDICATE = SdkException.class::isInstance;
     public static final Retry DEFAULT_UPLOAD_RETRY_SPEC = Retry.backoff(0, UPLOAD_RETRY_BACKOFF_DURATION_DEFAULT).filter(UPLOAD_RETRY_EXCEPTION_PREDICATE);
+    public static final Predicate<Throwable> ADAPTIVE_CONCURRENCY_OVERLOAD_ERROR = throwable ->
+        throwable instanceof ApiCallTimeoutException
+            || throwable instanceof ApiCallAttemptTimeoutException
+            || (throwable instanceof S3Exception s3Exception && isOverloadStatus(s3Exception.statusCode()));
+
+    private static boolean isOverloadStatus(int statusCode) {
+        return statusCode == 429 || statusCode == 500 || statusCode == 503;
+    }
+
     private final Region region;
     private final AwsS3AuthConfiguration specificAuthConfiguration;
     private final Optional<BucketName> namespace;
@@ -187,6 +207,7 @@ public class S3BlobStoreConfiguration {
     private final boolean ssecEnabled;
     private final Optional<S3SSECConfiguration> ssecConfiguration;
     private final Optional<BucketName> fallbackNamespace;
+    private final Optional<AdaptiveConcurrencyLimiter.Configuration> adaptiveConcurrency;
 
     private final Optional<Duration> readTimeout;
     private final Optional<Duration> writeTimeout;
@@ -205,7 +226,8 @@ public class S3BlobStoreConfiguration {
                              Retry uploadRetrySpec,
                              boolean ssecEnabled,
                              Optional<S3SSECConfiguration> ssecConfiguration,
-                             Optional<BucketName> fallbackNamespace) {
+                             Optional<BucketName> fallbackNamespace,
+                             Optional<AdaptiveConcurrencyLimiter.Configuration> adaptiveConcurrency) {
         this.bucketPrefix = bucketPrefix;
         this.namespace = namespace;
         this.region = region;
@@ -219,6 +241,7 @@ public class S3BlobStoreConfiguration {
         this.ssecEnabled = ssecEnabled;
         this.ssecConfiguration = ssecConfiguration;
         this.fallbackNamespace = fallbackNamespace;
+        this.adaptiveConcurrency = adaptiveConcurrency;
     }
 
     public Optional<Long> getInMemoryReadLimit() {
@@ -273,6 +296,10 @@ public class S3BlobStoreConfiguration {
         return fallbackNamespace;
     }
 
+    public Optional<AdaptiveConcurrencyLimiter.Configuration> getAdaptiveConcurrency() {
+        return adaptiveConcurrency;
+    }
+
     @Override
     public final boolean equals(Object o) {
         if (o instanceof S3BlobStoreConfiguration that) {
@@ -288,7 +315,8 @@ public class S3BlobStoreConfiguration {
                 && Objects.equals(this.specificAuthConfiguration, that.specificAuthConfiguration)
                 && Objects.equals(this.ssecEnabled, that.ssecEnabled)
                 && Objects.equals(this.ssecConfiguration, that.ssecConfiguration)
-                && Objects.equals(this.fallbackNamespace, that.fallbackNamespace);
+                && Objects.equals(this.fallbackNamespace, that.fallbackNamespace)
+                && Objects.equals(this.adaptiveConcurrency, that.adaptiveConcurrency);
         }
         return false;
     }
@@ -297,7 +325,7 @@ public class S3BlobStoreConfiguration {
     public final int hashCode() {
         return Objects.hash(namespace, bucketPrefix, httpConcurrency, specificAuthConfiguration,
             readTimeout, writeTimeout, connectionTimeout, uploadRetrySpec, ssecConfiguration, region,
-            inMemoryReadLimit, ssecEnabled, fallbackNamespace);
+            inMemoryReadLimit, ssecEnabled, fallbackNamespace, adaptiveConcurrency);
     }
 
     @Override
@@ -316,6 +344,7 @@ public class S3BlobStoreConfiguration {
             .add("ssecEnabled", ssecEnabled)
             .add("ssecConfiguration", ssecConfiguration)
             .add("fallbackNamespace", fallbackNamespace)
+            .add("adaptiveConcurrency", adaptiveConcurrency)
             .toString();
     }
 }
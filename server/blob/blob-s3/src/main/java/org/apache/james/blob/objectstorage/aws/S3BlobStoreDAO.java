@@ -42,6 +42,7 @@ import org.apache.james.blob.api.BucketName;
 import org.apache.james.blob.api.ObjectNotFoundException;
 import org.apache.james.blob.api.ObjectStoreIOException;
 import org.apache.james.util.ReactorUtils;
+import org.apache.james.util.concurrency.AdaptiveConcurrencyLimiter;
 import org.reactivestreams.Publisher;
 
 import com.github.fge.lambdas.Throwing;
@@ -76,6 +77,7 @@ import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
 import software.amazon.awssdk.services.s3.model.ObjectIdentifier;
 import software.amazon.awssdk.services.s3.model.PutObjectRequest;
 import software.amazon.awssdk.services.s3.model.PutObjectResponse;
+import software.amazon.awssdk.services.s3.model.S3Exception;
 import software.amazon.awssdk.services.s3.model.S3Object;
 
 @Singleton
@@ -120,6 +122,7 @@ public class S3BlobStoreDAO implements BlobStoreDAO {
     private final BlobId.Factory blobIdFactory;
     private final S3RequestOption s3RequestOption;
     private final java.util.Optional<BucketName> fallbackNamespace;
+    private final java.util.Optional<AdaptiveConcurrencyLimiter> concurrencyLimiter;
 
     @Inject
     public S3BlobStoreDAO(S3ClientFactory s3ClientFactory,
@@ -131,6 +134,7 @@ public class S3BlobStoreDAO implements BlobStoreDAO {
         this.blobIdFactory = blobIdFactory;
         this.s3RequestOption = s3RequestOption;
         this.fallbackNamespace = configuration.getFallbackNamespace();
+        this.concurrencyLimiter = s3ClientFactory.getConcurrencyLimiter();
 
         bucketNameResolver = BucketNameResolver.builder()
             .prefix(configuration.getBucketPrefix())
@@ -181,7 +185,7 @@ public class S3BlobStoreDAO implements BlobStoreDAO {
 
     private Mono<FluxResponse> getObjectFromStore(BucketName bucketName, BlobId blobId) {
         return buildGetObjectRequestBuilder(bucketName, blobId)
-            .flatMap(getObjectRequestBuilder -> Mono.fromFuture(() ->
+            .flatMap(getObjectRequestBuilder -> limitConcurrency(Mono.fromFuture(() ->
                     client.getObject(getObjectRequestBuilder.build(),
                         new AsyncResponseTransformer<GetObjectResponse, FluxResponse>() {
 
@@ -208,7 +212,7 @@ public class S3BlobStoreDAO implements BlobStoreDAO {
                                 response.flux = Flux.from(publisher);
                                 response.supportingCompletableFuture.complete(response);
                             }
-                        }))
+                        })))
                 .switchIfEmpty(Mono.error(() -> new ObjectStoreIOException("Request was unexpectedly canceled, no GetObjectResponse"))));
     }
 
@@ -236,8 +240,8 @@ public class S3BlobStoreDAO implements BlobStoreDAO {
 
     private Mono<ResponseBytes<GetObjectResponse>> getObjectBytesFromStore(BucketName bucketName, BlobId blobId) {
         return buildGetObjectRequestBuilder(bucketName, blobId)
-            .flatMap(putObjectRequest -> Mono.fromFuture(() ->
-                client.getObject(putObjectRequest.build(), new MinimalCopyBytesResponseTransformer(configuration, blobId))));
+            .flatMap(putObjectRequest -> limitTransferConcurrency(Mono.fromFuture(() ->
+                client.getObject(putObjectRequest.build(), new MinimalCopyBytesResponseTransformer(configuration, blobId)))));
     }
 
     private Mono<GetObjectRequest.Builder> buildGetObjectRequestBuilder(BucketName bucketName, BlobId blobId) {
@@ -270,8 +274,8 @@ public class S3BlobStoreDAO implements BlobStoreDAO {
         BucketName resolvedBucketName = bucketNameResolver.resolve(bucketName);
 
         return buildPutObjectRequestBuilder(resolvedBucketName, data.length, blobId, blobMetadata)
-            .flatMap(putObjectRequest -> Mono.fromFuture(() ->
-                    client.putObject(putObjectRequest.build(), AsyncRequestBody.fromBytes(data)))
+            .flatMap(putObjectRequest -> limitTransferConcurrency(Mono.fromFuture(() ->
+                    client.putObject(putObjectRequest.build(), AsyncRequestBody.fromBytes(data))))
                 .retryWhen(createBucketOnRetry(resolvedBucketName))
                 .publishOn(Schedulers.parallel()))
             .then();
@@ -315,9 +319,9 @@ public class S3BlobStoreDAO implements BlobStoreDAO {
         int chunkSize = Math.min((int) contentLength, CHUNK_SIZE);
 
         return buildPutObjectRequestBuilder(resolvedBucketName, contentLength, blobId, metadata)
-            .flatMap(putObjectRequest -> Mono.fromFuture(() -> client.putObject(putObjectRequest.build(),
+            .flatMap(putObjectRequest -> limitTransferConcurrency(Mono.fromFuture(() -> client.putObject(putObjectRequest.build(),
                 AsyncRequestBody.fromPublisher(chunkStream(chunkSize, stream)
-                    .subscribeOn(Schedulers.boundedElastic())))));
+                    .subscribeOn(Schedulers.boundedElastic()))))));
     }
 
     private Mono<PutObjectRequest.Builder> buildPutObjectRequestBuilder(BucketName bucketName, long contentLength, BlobId blobId, BlobMetadata blobMetadata) {
@@ -379,8 +383,8 @@ public class S3BlobStoreDAO implements BlobStoreDAO {
     public Mono<Void> delete(BucketName bucketName, BlobId blobId) {
         BucketName resolvedBucketName = bucketNameResolver.resolve(bucketName);
 
-        return Mono.fromFuture(() ->
-                client.deleteObject(delete -> delete.bucket(resolvedBucketName.asString()).key(blobId.asString())))
+        return limitConcurrency(Mono.fromFuture(() ->
+                client.deleteObject(delete -> delete.bucket(resolvedBucketName.asString()).key(blobId.asString()))))
             .then()
             .onErrorResume(NoSuchBucketException.class, e -> Mono.empty())
             .publishOn(Schedulers.parallel());
@@ -388,13 +392,35 @@ public class S3BlobStoreDAO implements BlobStoreDAO {
 
     @Override
     public Publisher<Void> delete(BucketName bucketName, Collection<BlobId> blobIds) {
-        return deleteObjects(bucketName,
-            blobIds.stream()
-                .map(BlobId::asString)
-                .map(id -> ObjectIdentifier.builder().key(id).build())
-                .collect(ImmutableList.toImmutableList()))
+        BucketName resolvedBucketName = bucketNameResolver.resolve(bucketName);
+
+        // DeleteObjects accepts at most 1000 keys per request
+        return Flux.fromIterable(blobIds)
+            .map(blobId -> ObjectIdentifier.builder().key(blobId.asString()).build())
+            .buffer(EMPTY_BUCKET_BATCH_SIZE)
+            .flatMap(identifiers -> deleteObjects(resolvedBucketName, identifiers), DEFAULT_CONCURRENCY)
             .then()
-            .onErrorResume(NoSuchBucketException.class, e -> Mono.empty());
+            .onErrorResume(NoSuchBucketException.class, e -> Mono.empty())
+            .publishOn(Schedulers.parallel());
+    }
+
+    @Override
+    public Publisher<BlobId> listExistingBlobs(BucketName bucketName, Collection<BlobId> blobIds) {
+        BucketName resolvedBucketName = bucketNameResolver.resolve(bucketName);
+
+        // HEAD requests are pipelined over the connection pool, without downloading any content
+        return Flux.fromIterable(blobIds)
+            .flatMap(blobId -> limitConcurrency(Mono.fromFuture(() ->
+                    client.headObject(head -> head.bucket(resolvedBucketName.asString()).key(blobId.asString()))))
+                .map(any -> blobId)
+                .onErrorResume(S3BlobStoreDAO::isNotFound, e -> Mono.empty()), DEFAULT_CONCURRENCY)
+            .publishOn(Schedulers.parallel());
+    }
+
+    private static boolean isNotFound(Throwable throwable) {
+        return throwable instanceof NoSuchKeyException
+            || throwable instanceof NoSuchBucketException
+            || (throwable instanceof S3Exception s3Exception && s3Exception.statusCode() == 404);
     }
 
     @Override
@@ -431,8 +457,24 @@ public class S3BlobStoreDAO implements BlobStoreDAO {
     }
 
     private Mono<DeleteObjectsResponse> deleteObjects(BucketName bucketName, List<ObjectIdentifier> identifiers) {
-        return Mono.fromFuture(() -> client.deleteObjects(builder ->
-            builder.bucket(bucketName.asString()).delete(delete -> delete.objects(identifiers))));
+        return limitConcurrency(Mono.fromFuture(() -> client.deleteObjects(builder ->
+            builder.bucket(bucketName.asString()).delete(delete -> delete.objects(identifiers)))));
+    }
+
+    private <T> Mono<T> limitConcurrency(Mono<T> call) {
+        return concurrencyLimiter
+            .map(limiter -> limiter.limit(call))
+            .orElse(call);
+    }
+
+    /**
+     * Uploads and full downloads last as long as their payload takes to transfer: only overload errors reduce the
+     * concurrency, not their latency. Streamed reads complete on response headers thus keep being timed.
+     */
+    private <T> Mono<T> limitTransferConcurrency(Mono<T> call) {
+        return concurrencyLimiter
+            .map(limiter -> limiter.limitIgnoringLatency(call))
+            .orElse(call);
     }
 
     @VisibleForTesting
@@ -27,6 +27,7 @@ import java.io.IOException;
 import java.security.GeneralSecurityException;
 import java.security.KeyStore;
 import java.security.cert.X509Certificate;
+import java.util.Optional;
 
 import javax.net.ssl.TrustManager;
 import javax.net.ssl.TrustManagerFactory;
@@ -40,6 +41,7 @@ import jakarta.inject.Singleton;
 import org.apache.james.lifecycle.api.Startable;
 import org.apache.james.metrics.api.GaugeRegistry;
 import org.apache.james.metrics.api.MetricFactory;
+import org.apache.james.util.concurrency.AdaptiveConcurrencyLimiter;
 
 import com.google.common.collect.ImmutableList;
 
@@ -79,10 +81,16 @@ public class S3ClientFactory implements Startable, Closeable {
     public static final boolean S3_CHECKSUM_BACKWARD_COMPATIBILITY_ENABLED = Boolean.parseBoolean(System.getProperty("james.s3.sdk.checksum.backward.compatibility", "true"));
 
     private final S3AsyncClient s3Client;
+    private final Optional<AdaptiveConcurrencyLimiter> concurrencyLimiter;
 
     @Inject
     public S3ClientFactory(S3BlobStoreConfiguration configuration, MetricFactory metricFactory, GaugeRegistry gaugeRegistry) {
         this(configuration, () -> new JamesS3MetricPublisher(metricFactory, gaugeRegistry, S3_METRICS_PREFIX));
+
+        concurrencyLimiter.ifPresent(limiter -> gaugeRegistry
+            .register(S3_METRICS_PREFIX + "_adaptiveConcurrency_limit", limiter::getLimit)
+            .register(S3_METRICS_PREFIX + "_adaptiveConcurrency_inFlight", limiter::getInFlight)
+            .register(S3_METRICS_PREFIX + "_adaptiveConcurrency_queueSize", limiter::getQueueSize));
     }
 
     public S3ClientFactory(S3BlobStoreConfiguration configuration, Provider<JamesS3MetricPublisher> jamesS3MetricPublisherProvider) {
@@ -92,6 +100,7 @@ public class S3ClientFactory implements Startable, Closeable {
             .build();
 
         s3Client = createS3AsyncClient(configuration, jamesS3MetricPublisherProvider, authConfiguration, pathStyleAccess);
+        concurrencyLimiter = configuration.getAdaptiveConcurrency().map(AdaptiveConcurrencyLimiter::new);
     }
 
     private S3AsyncClient createS3AsyncClient(S3BlobStoreConfiguration configuration, Provider<JamesS3MetricPublisher> jamesS3MetricPublisherProvider, AwsS3AuthConfiguration authConfiguration, S3Configuration pathStyleAccess) {
@@ -165,6 +174,10 @@ public class S3ClientFactory implements Startable, Closeable {
         return s3Client;
     }
 
+    public Optional<AdaptiveConcurrencyLimiter> getConcurrencyLimiter() {
+        return concurrencyLimiter;
+    }
+
     @Override
     @PreDestroy
     public void close() {
@@ -20,6 +20,7 @@
 package org.apache.james.server.blob.deduplication;
 
 import java.time.Clock;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.Optional;
 import java.util.Set;
@@ -168,6 +169,8 @@ public class BlobGCTask implements Task {
         private final int expectedBlobCount;
         private final double associatedProbability;
         private Optional<Integer> deletionWindowSize;
+        private Optional<String> prefix;
+        private Optional<Duration> referenceFilterMaxAge;
 
         public Builder(BlobStoreDAO blobStoreDAO, BlobId.Factory generationAwareBlobIdFactory,
                        GenerationAwareBlobId.Configuration generationAwareBlobIdConfiguration,
@@ -182,6 +185,8 @@ public class BlobGCTask implements Task {
             this.expectedBlobCount = expectedBlobCount;
             this.deletionWindowSize = Optional.empty();
             this.associatedProbability = associatedProbability;
+            this.prefix = Optional.empty();
+            this.referenceFilterMaxAge = Optional.empty();
         }
 
         public Builder deletionWindowSize(int deletionWindowSize) {
@@ -194,6 +199,16 @@ public class BlobGCTask implements Task {
             return this;
         }
 
+        public Builder prefix(Optional<String> prefix) {
+            this.prefix = prefix;
+            return this;
+        }
+
+        public Builder referenceFilterMaxAge(Optional<Duration> referenceFilterMaxAge) {
+            this.referenceFilterMaxAge = referenceFilterMaxAge;
+            return this;
+        }
+
         public BlobGCTask build() {
             return new BlobGCTask(
                 blobStoreDAO,
@@ -204,7 +219,9 @@ public class BlobGCTask implements Task {
                 clock,
                 expectedBlobCount,
                 deletionWindowSize.orElse(DEFAULT_DELETION_WINDOW_SIZE),
-                associatedProbability);
+                associatedProbability,
+                prefix,
+                referenceFilterMaxAge);
         }
     }
 
@@ -232,6 +249,8 @@ public class BlobGCTask implements Task {
     private final int expectedBlobCount;
     private final int deletionWindowSize;
     private final double associatedProbability;
+    private final Optional<String> prefix;
+    private final Optional<Duration> referenceFilterMaxAge;
     private final Context context;
 
 
@@ -243,6 +262,20 @@ public class BlobGCTask implements Task {
                       Clock clock,
                       int expectedBlobCount,
                       int deletionWindowSize, double associatedProbability) {
+        this(blobStoreDAO, generationAwareBlobIdFactory, generationAwareBlobIdConfiguration, blobReferenceSources, bucketName,
+            clock, expectedBlobCount, deletionWindowSize, associatedProbability, Optional.empty(), Optional.empty());
+    }
+
+    public BlobGCTask(BlobStoreDAO blobStoreDAO,
+                      BlobId.Factory generationAwareBlobIdFactory,
+                      GenerationAwareBlobId.Configuration generationAwareBlobIdConfiguration,
+                      Set<BlobReferenceSource> blobReferenceSources,
+                      BucketName bucketName,
+                      Clock clock,
+                      int expectedBlobCount,
+                      int deletionWindowSize, double associatedProbability,
+                      Optional<String> prefix,
+                      Optional<Duration> referenceFilterMaxAge) {
         this.blobStoreDAO = blobStoreDAO;
         this.generationAwareBlobIdFactory = generationAwareBlobIdFactory;
         this.generationAwareBlobIdConfiguration = generationAwareBlobIdConfiguration;
@@ -252,19 +285,21 @@ public class BlobGCTask implements Task {
         this.expectedBlobCount = expectedBlobCount;
         this.deletionWindowSize = deletionWindowSize;
         this.associatedProbability = associatedProbability;
+        this.prefix = prefix;
+        this.referenceFilterMaxAge = referenceFilterMaxAge;
         this.context = new Context(expectedBlobCount, associatedProbability);
     }
 
     @Override
     public Result run() {
         BloomFilterGCAlgorithm gcAlgorithm = new BloomFilterGCAlgorithm(
-            BlobReferenceAggregate.aggregate(blobReferenceSources),
+            new ChunkReferenceSource(BlobReferenceAggregate.aggregate(blobReferenceSources), blobStoreDAO, bucketName, generationAwareBlobIdFactory),
             blobStoreDAO,
             generationAwareBlobIdFactory,
             generationAwareBlobIdConfiguration,
             clock);
 
-        return gcAlgorithm.gc(expectedBlobCount, deletionWindowSize, associatedProbability, bucketName, context)
+        return gcAlgorithm.gc(expectedBlobCount, deletionWindowSize, associatedProbability, bucketName, prefix, referenceFilterMaxAge, context)
             .block();
     }
 
@@ -297,4 +332,12 @@ public class BlobGCTask implements Task {
     public int getDeletionWindowSize() {
         return deletionWindowSize;
     }
+
+    public Optional<String> getPrefix() {
+        return prefix;
+    }
+
+    public Optional<Duration> getReferenceFilterMaxAge() {
+        return referenceFilterMaxAge;
+    }
 }
@@ -20,6 +20,7 @@
 package org.apache.james.server.blob.deduplication;
 
 import java.time.Clock;
+import java.time.Duration;
 import java.util.Optional;
 import java.util.Set;
 
@@ -39,17 +40,23 @@ public class BlobGCTaskDTO implements TaskDTO {
     private final int expectedBlobCount;
     private final Optional<Integer> deletionWindowSize;
     private final double associatedProbability;
+    private final Optional<String> prefix;
+    private final Optional<Long> referenceFilterMaxAgeInSeconds;
     private final String type;
 
     public BlobGCTaskDTO(@JsonProperty("bucketName") String bucketName,
                          @JsonProperty("expectedBlobCount") int expectedBlobCount,
                          @JsonProperty("deletionWindowSize") Optional<Integer> deletionWindowSize,
                          @JsonProperty("associatedProbability") double associatedProbability,
+                         @JsonProperty("prefix") Optional<String> prefix,
+                         @JsonProperty("referenceFilterMaxAgeInSeconds") Optional<Long> referenceFilterMaxAgeInSeconds,
                          @JsonProperty("type") String type) {
         this.bucketName = bucketName;
         this.expectedBlobCount = expectedBlobCount;
         this.deletionWindowSize = deletionWindowSize;
         this.associatedProbability = associatedProbability;
+        this.prefix = prefix;
+        this.referenceFilterMaxAgeInSeconds = referenceFilterMaxAgeInSeconds;
         this.type = type;
     }
 
@@ -71,6 +78,8 @@ public class BlobGCTaskDTO implements TaskDTO {
                     .expectedBlobCount(dto.expectedBlobCount)
                     .associatedProbability(dto.associatedProbability)
                     .deletionWindowSize(dto.deletionWindowSize)
+                    .prefix(dto.prefix)
+                    .referenceFilterMaxAge(dto.referenceFilterMaxAgeInSeconds.map(Duration::ofSeconds))
                     .build())
             .toDTOConverter((domain, type) ->
                 new BlobGCTaskDTO(
@@ -78,6 +87,8 @@ public class BlobGCTaskDTO implements TaskDTO {
                     domain.getExpectedBlobCount(),
                     Optional.of(domain.getDeletionWindowSize()),
                     domain.getAssociatedProbability(),
+                    domain.getPrefix(),
+                    domain.getReferenceFilterMaxAge().map(Duration::toSeconds),
                     type))
             .typeName(BlobGCTask.TASK_TYPE.asString())
             .withFactory(TaskDTOModule::new);
@@ -103,4 +114,12 @@ public class BlobGCTaskDTO implements TaskDTO {
     public Optional<Integer> getDeletionWindowSize() {
         return deletionWindowSize;
     }
+
+    public Optional<String> getPrefix() {
+        return prefix;
+    }
+
+    public Optional<Long> getReferenceFilterMaxAgeInSeconds() {
+        return referenceFilterMaxAgeInSeconds;
+    }
 }
@@ -21,8 +21,13 @@ package org.apache.james.server.blob.deduplication;
 
 import static org.apache.james.util.ReactorUtils.DEFAULT_CONCURRENCY;
 
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.time.Clock;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.Collection;
 import java.util.List;
@@ -36,24 +41,41 @@ import org.apache.james.blob.api.BlobId;
 import org.apache.james.blob.api.BlobReferenceSource;
 import org.apache.james.blob.api.BlobStoreDAO;
 import org.apache.james.blob.api.BucketName;
+import org.apache.james.blob.api.ObjectNotFoundException;
 import org.apache.james.task.Task;
 import org.apache.james.task.Task.Result;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.github.fge.lambdas.Throwing;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.MoreObjects;
 import com.google.common.hash.BloomFilter;
 import com.google.common.hash.Funnel;
 import com.google.common.hash.Funnels;
+import com.google.common.io.FileBackedOutputStream;
 
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+/**
+ * Deletes the blobs of past generations that are no longer referenced.
+ *
+ * A run can be restricted to the blobs whose id starts with a given prefix, for instance a generation ({@code 1_650_}),
+ * so that a large bucket is collected through several smaller runs.
+ *
+ * Listing every reference is the most expensive part of a run. When given a maximum age, the Bloom filter of the
+ * references is persisted in the collected bucket and reused by subsequent runs until it gets older than that age. A
+ * reused filter only considers blobs whose generation was already inactive when the filter was populated: such blobs
+ * can no longer get referenced from scratch, hence the filter still contains every reference they might have.
+ */
 public class BloomFilterGCAlgorithm {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(BloomFilterGCAlgorithm.class);
     private static final Funnel<CharSequence> BLOOM_FILTER_FUNNEL = Funnels.stringFunnel(StandardCharsets.US_ASCII);
+    private static final String REFERENCE_FILTER_BLOB_NAME = "gc-reference-filter";
+    private static final int REFERENCE_FILTER_FORMAT_VERSION = 1;
+    private static final int REFERENCE_FILTER_FILE_THRESHOLD = 1024 * 1024;
     @VisibleForTesting
     static boolean RECOVERY_AWARE = Boolean.parseBoolean(System.getProperty("james.gc.recover.aware", "true"));
 
@@ -245,6 +267,19 @@ public class BloomFilterGCAlgorithm {
         }
     }
 
+    private record ReferenceFilter(BloomFilter<CharSequence> bloomFilter, String salt, Instant populationDate,
+                                   int expectedBlobCount, double associatedProbability) {
+        private boolean canBeReused(Instant now, Duration maxAge, int expectedBlobCount, double associatedProbability) {
+            return this.expectedBlobCount == expectedBlobCount
+                && this.associatedProbability == associatedProbability
+                && !populationDate.plus(maxAge).isBefore(now);
+        }
+
+        private boolean mightContain(BlobId blobId) {
+            return bloomFilter.mightContain(salt + blobId.asString());
+        }
+    }
+
     private final BlobReferenceSource referenceSource;
     private final BlobStoreDAO blobStoreDAO;
     private final BlobId.Factory blobIdFactory;
@@ -268,26 +303,33 @@ public class BloomFilterGCAlgorithm {
     }
 
     public Mono<Result> gc(int expectedBlobCount, int deletionWindowSize, double associatedProbability, BucketName bucketName, Context context) {
-        return populatedBloomFilter(expectedBlobCount, associatedProbability, context)
-            .flatMap(bloomFilter -> gc(bloomFilter, bucketName, context, deletionWindowSize))
+        return gc(expectedBlobCount, deletionWindowSize, associatedProbability, bucketName, Optional.empty(), Optional.empty(), context);
+    }
+
+    public Mono<Result> gc(int expectedBlobCount, int deletionWindowSize, double associatedProbability, BucketName bucketName,
+                           Optional<String> prefix, Optional<Duration> referenceFilterMaxAge, Context context) {
+        return referenceFilter(expectedBlobCount, associatedProbability, bucketName, referenceFilterMaxAge, context)
+            .flatMap(referenceFilter -> gc(referenceFilter, bucketName, prefix, context, deletionWindowSize))
             .onErrorResume(error -> {
                 LOGGER.error("Error when running blob deduplicate garbage collection", error);
                 return Mono.just(Result.PARTIAL);
             });
     }
 
-    private Mono<Result> gc(BloomFilter<CharSequence> bloomFilter, BucketName bucketName, Context context, int deletionWindowSize) {
-        return Flux.from(blobStoreDAO.listBlobs(bucketName))
+    private Mono<Result> gc(ReferenceFilter referenceFilter, BucketName bucketName, Optional<String> prefix, Context context, int deletionWindowSize) {
+        return Flux.from(prefix.map(value -> blobStoreDAO.listBlobs(bucketName, value))
+                .orElseGet(() -> blobStoreDAO.listBlobs(bucketName)))
             .filter(blobId -> !RECOVERY_AWARE || !blobId.asString().startsWith(BlobStoreDAO.RECOVERY_BLOB_PREFIX))
+            .filter(blobId -> !blobId.asString().equals(REFERENCE_FILTER_BLOB_NAME))
             .doOnNext(blobId -> context.incrementBlobCount())
             .flatMap(blobId -> Mono.fromCallable(() -> blobIdFactory.parse(blobId.asString())))
             .filter(blobId -> {
                 if (blobId instanceof GenerationAware generationAware) {
-                    return !generationAware.inActiveGeneration(generationAwareBlobIdConfiguration, now);
+                    return !generationAware.inActiveGeneration(generationAwareBlobIdConfiguration, referenceFilter.populationDate());
                 }
                 return false;
             })
-            .filter(blobId -> !bloomFilter.mightContain(salt + blobId.asString()))
+            .filter(blobId -> !referenceFilter.mightContain(blobId))
             .window(deletionWindowSize)
             .flatMap(blobIdFlux -> handlePagedDeletion(bucketName, context, blobIdFlux), DEFAULT_CONCURRENCY)
             .reduce(Task::combine)
@@ -320,6 +362,76 @@ public class BloomFilterGCAlgorithm {
             .collect(Collectors.toList());
     }
 
+    private Mono<ReferenceFilter> referenceFilter(int expectedBlobCount, double associatedProbability, BucketName bucketName,
+                                                  Optional<Duration> referenceFilterMaxAge, Context context) {
+        if (referenceFilterMaxAge.isEmpty()) {
+            return populatedReferenceFilter(expectedBlobCount, associatedProbability, context);
+        }
+        return readReferenceFilter(bucketName)
+            .filter(referenceFilter -> referenceFilter.canBeReused(now, referenceFilterMaxAge.get(), expectedBlobCount, associatedProbability))
+            .doOnNext(referenceFilter -> LOGGER.info("Reusing the reference filter populated on {}", referenceFilter.populationDate()))
+            .switchIfEmpty(populatedReferenceFilter(expectedBlobCount, associatedProbability, context)
+                .flatMap(referenceFilter -> saveReferenceFilter(bucketName, referenceFilter)
+                    .thenReturn(referenceFilter)));
+    }
+
+    private Mono<ReferenceFilter> populatedReferenceFilter(int expectedBlobCount, double associatedProbability, Context context) {
+        return populatedBloomFilter(expectedBlobCount, associatedProbability, context)
+            .map(bloomFilter -> new ReferenceFilter(bloomFilter, salt, now, expectedBlobCount, associatedProbability));
+    }
+
+    private Mono<ReferenceFilter> readReferenceFilter(BucketName bucketName) {
+        return Mono.from(blobStoreDAO.readReactive(bucketName, blobIdFactory.parse(REFERENCE_FILTER_BLOB_NAME)))
+            .flatMap(blob -> Mono.fromCallable(() -> deserialize(blob.payload())))
+            .onErrorResume(ObjectNotFoundException.class, e -> Mono.empty())
+            .onErrorResume(e -> {
+                LOGGER.warn("Failed reading the persisted reference filter, populating a new one", e);
+                return Mono.empty();
+            });
+    }
+
+    private Mono<Void> saveReferenceFilter(BucketName bucketName, ReferenceFilter referenceFilter) {
+        return Mono.using(() -> new FileBackedOutputStream(REFERENCE_FILTER_FILE_THRESHOLD),
+                output -> Mono.fromCallable(() -> {
+                        serialize(referenceFilter, output);
+                        return output.asByteSource();
+                    })
+                    .flatMap(payload -> Mono.from(blobStoreDAO.save(bucketName, blobIdFactory.parse(REFERENCE_FILTER_BLOB_NAME),
+                        BlobStoreDAO.ByteSourceBlob.of(payload)))),
+                Throwing.consumer(FileBackedOutputStream::reset))
+            .onErrorResume(e -> {
+                // The collection can proceed: next runs will populate the filter again
+                LOGGER.warn("Failed persisting the reference filter", e);
+                return Mono.empty();
+            });
+    }
+
+    private static void serialize(ReferenceFilter referenceFilter, FileBackedOutputStream output) throws IOException {
+        try (DataOutputStream dataOutput = new DataOutputStream(output)) {
+            dataOutput.writeInt(REFERENCE_FILTER_FORMAT_VERSION);
+            dataOutput.writeLong(referenceFilter.populationDate().toEpochMilli());
+            dataOutput.writeInt(referenceFilter.expectedBlobCount());
+            dataOutput.writeDouble(referenceFilter.associatedProbability());
+            dataOutput.writeUTF(referenceFilter.salt());
+            referenceFilter.bloomFilter().writeTo(dataOutput);
+        }
+    }
+
+    private static ReferenceFilter deserialize(InputStream payload) throws IOException {
+        try (DataInputStream dataInput = new DataInputStream(payload)) {
+            int version = dataInput.readInt();
+            if (version != REFERENCE_FILTER_FORMAT_VERSION) {
+                throw new IOException("Unsupported reference filter format version " + version);
+            }
+            Instant populationDate = Instant.ofEpochMilli(dataInput.readLong());
+            int expectedBlobCount = dataInput.readInt();
+            double associatedProbability = dataInput.readDouble();
+            String salt = dataInput.readUTF();
+            BloomFilter<CharSequence> bloomFilter = BloomFilter.readFrom(dataInput, BLOOM_FILTER_FUNNEL);
+            return new ReferenceFilter(bloomFilter, salt, populationDate, expectedBlobCount, associatedProbability);
+        }
+    }
+
     private Mono<BloomFilter<CharSequence>> populatedBloomFilter(int expectedBlobCount, double associatedProbability, Context context) {
         return Mono.fromCallable(() -> BloomFilter.create(
                 BLOOM_FILTER_FUNNEL,
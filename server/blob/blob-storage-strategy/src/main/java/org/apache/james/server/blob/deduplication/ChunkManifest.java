@@ -0,0 +1,64 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.server.blob.deduplication;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.util.List;
+
+import org.apache.james.blob.api.BlobId;
+
+import com.google.common.base.Joiner;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Ordered list of the chunks of a blob, stored as a small blob next to them.
+ */
+public record ChunkManifest(List<BlobId> chunks) {
+    public static final String MANIFEST_SUFFIX = ".chunks";
+    private static final String HEADER = "chunks-v1";
+    private static final char SEPARATOR = '\n';
+
+    public static boolean isManifest(BlobId blobId) {
+        return blobId.asString().endsWith(MANIFEST_SUFFIX);
+    }
+
+    public static ChunkManifest parse(byte[] bytes, BlobId.Factory blobIdFactory) {
+        List<String> lines = Splitter.on(SEPARATOR).omitEmptyStrings().splitToList(new String(bytes, UTF_8));
+        Preconditions.checkArgument(!lines.isEmpty() && lines.getFirst().equals(HEADER), "Not a chunk manifest");
+
+        return new ChunkManifest(lines.stream()
+            .skip(1)
+            .map(blobIdFactory::parse)
+            .collect(ImmutableList.toImmutableList()));
+    }
+
+    public ChunkManifest {
+        chunks = ImmutableList.copyOf(chunks);
+    }
+
+    public byte[] serialize() {
+        StringBuilder builder = new StringBuilder(HEADER).append(SEPARATOR);
+        Joiner.on(SEPARATOR).appendTo(builder, chunks.stream().map(BlobId::asString).iterator());
+        return builder.append(SEPARATOR).toString().getBytes(UTF_8);
+    }
+}
@@ -0,0 +1,75 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.server.blob.deduplication;
+
+import org.apache.james.blob.api.BlobId;
+import org.apache.james.blob.api.BlobReferenceSource;
+import org.apache.james.blob.api.BlobStoreDAO;
+import org.apache.james.blob.api.BucketName;
+import org.apache.james.blob.api.ObjectNotFoundException;
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Adds the chunks listed by the referenced manifests to the references, so that the garbage collection
+ * retains them.
+ *
+ * Failing to read a manifest fails the listing: collecting its chunks would otherwise corrupt the blob.
+ */
+public class ChunkReferenceSource implements BlobReferenceSource {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ChunkReferenceSource.class);
+    private static final int MANIFEST_READ_CONCURRENCY = 4;
+
+    private final BlobReferenceSource delegate;
+    private final BlobStoreDAO blobStoreDAO;
+    private final BucketName bucketName;
+    private final BlobId.Factory blobIdFactory;
+
+    public ChunkReferenceSource(BlobReferenceSource delegate, BlobStoreDAO blobStoreDAO, BucketName bucketName, BlobId.Factory blobIdFactory) {
+        this.delegate = delegate;
+        this.blobStoreDAO = blobStoreDAO;
+        this.bucketName = bucketName;
+        this.blobIdFactory = blobIdFactory;
+    }
+
+    @Override
+    public Publisher<BlobId> listReferencedBlobs() {
+        return Flux.from(delegate.listReferencedBlobs())
+            .flatMap(this::expand, MANIFEST_READ_CONCURRENCY);
+    }
+
+    private Publisher<BlobId> expand(BlobId blobId) {
+        if (!ChunkManifest.isManifest(blobId)) {
+            return Mono.just(blobId);
+        }
+        return Mono.from(blobStoreDAO.readBytes(bucketName, blobId))
+            .map(blob -> ChunkManifest.parse(blob.payload(), blobIdFactory))
+            .flatMapIterable(ChunkManifest::chunks)
+            .onErrorResume(ObjectNotFoundException.class, e -> {
+                LOGGER.warn("Referenced chunk manifest {} could not be found in {}", blobId.asString(), bucketName.asString());
+                return Flux.empty();
+            })
+            .startWith(blobId);
+    }
+}
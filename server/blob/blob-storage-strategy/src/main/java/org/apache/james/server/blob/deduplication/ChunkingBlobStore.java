@@ -0,0 +1,233 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.server.blob.deduplication;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.ByteBuffer;
+import java.util.Collection;
+
+import org.apache.james.blob.api.BlobId;
+import org.apache.james.blob.api.BlobStore;
+import org.apache.james.blob.api.BucketName;
+import org.apache.james.util.ReactorUtils;
+import org.reactivestreams.Publisher;
+
+import com.github.fge.lambdas.Throwing;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.common.hash.Hashing;
+import com.google.common.io.BaseEncoding;
+import com.google.common.io.ByteSource;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.function.Tuples;
+
+/**
+ * Splits blobs larger than the configured threshold into content defined chunks, stored through the underlying
+ * (deduplicating) blob store, so that similar large blobs share most of their storage.
+ *
+ * The returned blob id then references a manifest listing the chunks, recognizable thanks to its
+ * {@link ChunkManifest#MANIFEST_SUFFIX} suffix. Smaller blobs are saved as is.
+ *
+ * Chunks are only referenced by manifests: garbage collection needs to expand the references to manifests, see
+ * {@link ChunkReferenceSource}.
+ */
+public class ChunkingBlobStore implements BlobStore {
+    private static final int CHUNK_CONCURRENCY = 4;
+
+    private final BlobStore underlying;
+    private final BlobId.Factory blobIdFactory;
+    private final ChunkingConfiguration configuration;
+    private final ContentDefinedChunker chunker;
+
+    public ChunkingBlobStore(BlobStore underlying, BlobId.Factory blobIdFactory, ChunkingConfiguration configuration) {
+        this.underlying = underlying;
+        this.blobIdFactory = blobIdFactory;
+        this.configuration = configuration;
+        this.chunker = new ContentDefinedChunker(configuration);
+    }
+
+    @Override
+    public Publisher<BlobId> save(BucketName bucketName, byte[] data, StoragePolicy storagePolicy) {
+        Preconditions.checkNotNull(bucketName);
+        Preconditions.checkNotNull(data);
+
+        if (data.length <= configuration.threshold()) {
+            return underlying.save(bucketName, data, storagePolicy);
+        }
+        return saveChunks(bucketName, new ByteArrayInputStream(data), storagePolicy);
+    }
+
+    @Override
+    public Publisher<BlobId> save(BucketName bucketName, InputStream data, StoragePolicy storagePolicy) {
+        Preconditions.checkNotNull(bucketName);
+        Preconditions.checkNotNull(data);
+
+        return Mono.fromCallable(() -> data.readNBytes(configuration.threshold() + 1))
+            .subscribeOn(Schedulers.boundedElastic())
+            .flatMap(head -> {
+                if (head.length <= configuration.threshold()) {
+                    return Mono.from(underlying.save(bucketName, head, storagePolicy));
+                }
+                return saveChunks(bucketName, new SequenceInputStream(new ByteArrayInputStream(head), data), storagePolicy);
+            });
+    }
+
+    @Override
+    public Publisher<BlobId> save(BucketName bucketName, ByteSource data, StoragePolicy storagePolicy) {
+        Preconditions.checkNotNull(bucketName);
+        Preconditions.checkNotNull(data);
+
+        return Mono.fromCallable(data::size)
+            .subscribeOn(Schedulers.boundedElastic())
+            .flatMap(size -> {
+                if (size <= configuration.threshold()) {
+                    return Mono.from(underlying.save(bucketName, data, storagePolicy));
+                }
+                return Mono.using(data::openStream,
+                    stream -> saveChunks(bucketName, stream, storagePolicy),
+                    Throwing.consumer(InputStream::close).sneakyThrow());
+            });
+    }
+
+    @Override
+    public Publisher<BlobId> save(BucketName bucketName, byte[] data, BlobIdProvider<byte[]> blobIdProvider, StoragePolicy storagePolicy) {
+        return underlying.save(bucketName, data, blobIdProvider, storagePolicy);
+    }
+
+    @Override
+    public Publisher<BlobId> save(BucketName bucketName, InputStream data, BlobIdProvider<InputStream> blobIdProvider, StoragePolicy storagePolicy) {
+        return underlying.save(bucketName, data, blobIdProvider, storagePolicy);
+    }
+
+    @Override
+    public Publisher<BlobId> save(BucketName bucketName, ByteSource data, BlobIdProvider<ByteSource> blobIdProvider, StoragePolicy storagePolicy) {
+        return underlying.save(bucketName, data, blobIdProvider, storagePolicy);
+    }
+
+    private Mono<BlobId> saveChunks(BucketName bucketName, InputStream data, StoragePolicy storagePolicy) {
+        return chunker.chunk(data)
+            .subscribeOn(Schedulers.boundedElastic())
+            .flatMapSequential(chunk -> Mono.from(underlying.save(bucketName, chunk, storagePolicy)), CHUNK_CONCURRENCY, 1)
+            .collect(ImmutableList.toImmutableList())
+            .map(ChunkManifest::new)
+            .flatMap(manifest -> saveManifest(bucketName, manifest, storagePolicy));
+    }
+
+    private Mono<BlobId> saveManifest(BucketName bucketName, ChunkManifest manifest, StoragePolicy storagePolicy) {
+        return Mono.from(underlying.save(bucketName, manifest.serialize(),
+            bytes -> Mono.just(Tuples.of(manifestBlobId(bytes), bytes)),
+            storagePolicy));
+    }
+
+    private BlobId manifestBlobId(byte[] manifest) {
+        String hash = BaseEncoding.base64Url().omitPadding().encode(Hashing.sha256().hashBytes(manifest).asBytes());
+        return blobIdFactory.of(hash + ChunkManifest.MANIFEST_SUFFIX);
+    }
+
+    @Override
+    public Publisher<byte[]> readBytes(BucketName bucketName, BlobId blobId) {
+        if (!ChunkManifest.isManifest(blobId)) {
+            return underlying.readBytes(bucketName, blobId);
+        }
+        return readChunks(bucketName, blobId)
+            .collect(ByteArrayOutputStream::new, ByteArrayOutputStream::writeBytes)
+            .map(ByteArrayOutputStream::toByteArray);
+    }
+
+    @Override
+    public InputStream read(BucketName bucketName, BlobId blobId) {
+        if (!ChunkManifest.isManifest(blobId)) {
+            return underlying.read(bucketName, blobId);
+        }
+        return Mono.from(readReactive(bucketName, blobId)).block();
+    }
+
+    @Override
+    public Publisher<InputStream> readReactive(BucketName bucketName, BlobId blobId) {
+        if (!ChunkManifest.isManifest(blobId)) {
+            return underlying.readReactive(bucketName, blobId);
+        }
+        // Read the manifest eagerly so that a missing blob fails the publisher rather than the returned stream
+        return readManifest(bucketName, blobId)
+            .map(manifest -> ReactorUtils.toInputStream(readChunks(bucketName, manifest).map(ByteBuffer::wrap)));
+    }
+
+    private Flux<byte[]> readChunks(BucketName bucketName, BlobId manifestId) {
+        return readManifest(bucketName, manifestId)
+            .flatMapMany(manifest -> readChunks(bucketName, manifest));
+    }
+
+    private Flux<byte[]> readChunks(BucketName bucketName, ChunkManifest manifest) {
+        return Flux.fromIterable(manifest.chunks())
+            .flatMapSequential(chunkId -> Mono.from(underlying.readBytes(bucketName, chunkId)), CHUNK_CONCURRENCY, 1);
+    }
+
+    private Mono<ChunkManifest> readManifest(BucketName bucketName, BlobId manifestId) {
+        return Mono.from(underlying.readBytes(bucketName, manifestId))
+            .map(bytes -> ChunkManifest.parse(bytes, blobIdFactory));
+    }
+
+    @Override
+    public BucketName getDefaultBucketName() {
+        return underlying.getDefaultBucketName();
+    }
+
+    @Override
+    public Publisher<BucketName> listBuckets() {
+        return underlying.listBuckets();
+    }
+
+    @Override
+    public Publisher<Void> deleteBucket(BucketName bucketName) {
+        return underlying.deleteBucket(bucketName);
+    }
+
+    @Override
+    public Publisher<Boolean> delete(BucketName bucketName, BlobId blobId) {
+        // Chunks might be shared: they are reclaimed by the garbage collection
+        return underlying.delete(bucketName, blobId);
+    }
+
+    @Override
+    public Publisher<Void> delete(BucketName bucketName, Collection<BlobId> blobIds) {
+        return underlying.delete(bucketName, blobIds);
+    }
+
+    @Override
+    public Publisher<BlobId> listExistingBlobs(BucketName bucketName, Collection<BlobId> blobIds) {
+        return underlying.listExistingBlobs(bucketName, blobIds);
+    }
+
+    @Override
+    public Publisher<BlobId> listBlobs(BucketName bucketName) {
+        return underlying.listBlobs(bucketName);
+    }
+
+    @Override
+    public Publisher<BlobId> listBlobs(BucketName bucketName, String prefix) {
+        return underlying.listBlobs(bucketName, prefix);
+    }
+}
@@ -0,0 +1,73 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.server.blob.deduplication;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Settings of the content defined chunking of large blobs.
+ *
+ * Chunks are between a quarter and four times the average chunk size, which needs to be a power of two.
+ */
+public record ChunkingConfiguration(int threshold, int averageChunkSize) {
+    public static final int DEFAULT_THRESHOLD = 2 * 1024 * 1024;
+    public static final int DEFAULT_AVERAGE_CHUNK_SIZE = 1024 * 1024;
+    public static final int MIN_AVERAGE_CHUNK_SIZE = 1024;
+    public static final int MAX_AVERAGE_CHUNK_SIZE = 64 * 1024 * 1024;
+
+    public static class Builder {
+        private int threshold = DEFAULT_THRESHOLD;
+        private int averageChunkSize = DEFAULT_AVERAGE_CHUNK_SIZE;
+
+        public Builder threshold(int threshold) {
+            this.threshold = threshold;
+            return this;
+        }
+
+        public Builder averageChunkSize(int averageChunkSize) {
+            this.averageChunkSize = averageChunkSize;
+            return this;
+        }
+
+        public ChunkingConfiguration build() {
+            return new ChunkingConfiguration(threshold, averageChunkSize);
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public ChunkingConfiguration {
+        Preconditions.checkArgument(averageChunkSize >= MIN_AVERAGE_CHUNK_SIZE && averageChunkSize <= MAX_AVERAGE_CHUNK_SIZE,
+            "'averageChunkSize' needs to be between %s and %s", MIN_AVERAGE_CHUNK_SIZE, MAX_AVERAGE_CHUNK_SIZE);
+        Preconditions.checkArgument(Integer.bitCount(averageChunkSize) == 1, "'averageChunkSize' needs to be a power of two");
+        Preconditions.checkArgument(threshold >= averageChunkSize && threshold < Integer.MAX_VALUE,
+            "'threshold' needs to be greater than or equal to 'averageChunkSize'");
+    }
+
+    public int minChunkSize() {
+        return averageChunkSize / 4;
+    }
+
+    public int maxChunkSize() {
+        return averageChunkSize * 4;
+    }
+}
@@ -0,0 +1,134 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.server.blob.deduplication;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+
+import com.google.common.hash.Hashing;
+
+import reactor.core.publisher.Flux;
+
+/**
+ * Splits a stream into chunks whose boundaries depend on the content (gear based rolling hash).
+ *
+ * Inserting or removing bytes only changes the chunks around the edit: the following boundaries are found again,
+ * which lets chunks be shared between similar blobs.
+ */
+class ContentDefinedChunker {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final long[] GEAR = gearTable();
+
+    private static long[] gearTable() {
+        long[] table = new long[256];
+        for (int i = 0; i < table.length; i++) {
+            // Deterministic: boundaries must not change across restarts
+            table[i] = Hashing.sha256().hashInt(i).asLong();
+        }
+        return table;
+    }
+
+    private class Cursor {
+        private final InputStream inputStream;
+        private final byte[] buffer = new byte[BUFFER_SIZE];
+        private int position = 0;
+        private int limit = 0;
+        private boolean exhausted = false;
+
+        private Cursor(InputStream inputStream) {
+            this.inputStream = inputStream;
+        }
+
+        private boolean fill() throws IOException {
+            if (position < limit) {
+                return true;
+            }
+            if (exhausted) {
+                return false;
+            }
+            int read = inputStream.read(buffer);
+            if (read < 0) {
+                exhausted = true;
+                return false;
+            }
+            position = 0;
+            limit = read;
+            return true;
+        }
+
+        private byte[] nextChunk() throws IOException {
+            ByteArrayOutputStream chunk = new ByteArrayOutputStream(configuration.averageChunkSize());
+            long hash = 0;
+            int size = 0;
+            while (fill()) {
+                int start = position;
+                while (position < limit) {
+                    hash = (hash << 1) + GEAR[buffer[position] & 0xFF];
+                    position++;
+                    size++;
+                    if (size >= maxChunkSize || (size >= minChunkSize && (hash & mask) == 0)) {
+                        chunk.write(buffer, start, position - start);
+                        return chunk.toByteArray();
+                    }
+                }
+                chunk.write(buffer, start, position - start);
+            }
+            if (size == 0) {
+                return null;
+            }
+            return chunk.toByteArray();
+        }
+    }
+
+    private final ChunkingConfiguration configuration;
+    private final int minChunkSize;
+    private final int maxChunkSize;
+    private final long mask;
+
+    ContentDefinedChunker(ChunkingConfiguration configuration) {
+        this.configuration = configuration;
+        this.minChunkSize = configuration.minChunkSize();
+        this.maxChunkSize = configuration.maxChunkSize();
+        int bits = Integer.numberOfTrailingZeros(configuration.averageChunkSize());
+        // High bits depend on the last 64 bytes while low bits only depend on the last few ones
+        this.mask = ((1L << bits) - 1) << (Long.SIZE - bits);
+    }
+
+    /**
+     * Blocking: the input stream is read upon request.
+     */
+    Flux<byte[]> chunk(InputStream inputStream) {
+        return Flux.<byte[], Cursor>generate(() -> new Cursor(inputStream), (cursor, sink) -> {
+            try {
+                byte[] chunk = cursor.nextChunk();
+                if (chunk == null) {
+                    sink.complete();
+                } else {
+                    sink.next(chunk);
+                }
+            } catch (IOException e) {
+                sink.error(new UncheckedIOException(e));
+            }
+            return cursor;
+        });
+    }
+}
@@ -20,6 +20,7 @@
 package org.apache.james.server.blob.deduplication
 
 import com.google.common.base.Preconditions
+import com.google.common.collect.ImmutableList
 import com.google.common.hash.{HashCode, Hashing, HashingInputStream}
 import com.google.common.io.{BaseEncoding, ByteSource, FileBackedOutputStream}
 import jakarta.inject.{Inject, Named}
@@ -27,7 +28,7 @@ import org.apache.commons.io.IOUtils
 import org.apache.james.blob.api.BlobStore.BlobIdProvider
 import org.apache.james.blob.api.BlobStoreDAO.{ByteSourceBlob, BytesBlob, InputStreamBlob}
 import org.apache.james.blob.api.{BlobId, BlobStore, BlobStoreDAO, BucketName}
-import org.apache.james.server.blob.deduplication.DeDuplicationBlobStore.THREAD_SWITCH_THRESHOLD
+import org.apache.james.server.blob.deduplication.DeDuplicationBlobStore.{SpooledContent, THREAD_SWITCH_THRESHOLD}
 import org.reactivestreams.Publisher
 import reactor.core.publisher.{Flux, Mono}
 import reactor.core.scala.publisher.SMono
@@ -42,6 +43,15 @@ object DeDuplicationBlobStore {
   val LAZY_RESOURCE_CLEANUP = false
   val FILE_THRESHOLD = Integer.parseInt(System.getProperty("james.deduplicating.blobstore.file.threshold", "10240"))
   val THREAD_SWITCH_THRESHOLD = Integer.parseInt(System.getProperty("james.deduplicating.blobstore.thread.switch.threshold", "32768"));
+  // Content larger than this is only uploaded when missing: the existence check is cheaper than a redundant upload
+  val SKIP_EXISTING_THRESHOLD = java.lang.Long.parseLong(System.getProperty("james.deduplicating.blobstore.skip.existing.threshold", "1048576"))
+
+  /**
+   * Content spooled while computing its blob id.
+   *
+   * @param size the spooled size, when known
+   */
+  private case class SpooledContent(blobId: BlobId, stream: InputStream, size: Option[Long])
 
   private def baseEncodingFrom(encodingType: String): BaseEncoding = encodingType match {
     case "base16" =>
@@ -70,54 +80,95 @@ class DeDuplicationBlobStore @Inject()(blobStoreDAO: BlobStoreDAO,
   private val baseEncoding = Option(System.getProperty(HASH_BLOB_ID_ENCODING_TYPE_PROPERTY)).map(DeDuplicationBlobStore.baseEncodingFrom).getOrElse(HASH_BLOB_ID_ENCODING_DEFAULT)
 
   override def save(bucketName: BucketName, data: Array[Byte], storagePolicy: BlobStore.StoragePolicy): Publisher[BlobId] = {
-    save(bucketName, data, withBlobIdFromArray, storagePolicy)
+    saveBytes(bucketName, data, withBlobIdFromArray, contentAddressed = true)
   }
 
   override def save(bucketName: BucketName, data: InputStream, storagePolicy: BlobStore.StoragePolicy): Publisher[BlobId] = {
-    save(bucketName, data, withBlobId, storagePolicy)
+    saveInputStream(bucketName, data, spoolWithBlobId, contentAddressed = true)
   }
 
   override def save(bucketName: BucketName, data: ByteSource, storagePolicy: BlobStore.StoragePolicy): Publisher[BlobId] = {
-    save(bucketName, data, withBlobIdFromByteSource, storagePolicy)
+    saveByteSource(bucketName, data, withBlobIdFromByteSource, contentAddressed = true)
   }
 
   override def save(bucketName: BucketName, data: Array[Byte], blobIdProvider: BlobIdProvider[Array[Byte]], storagePolicy: BlobStore.StoragePolicy): Publisher[BlobId] = {
+    saveBytes(bucketName, data, blobIdProvider, contentAddressed = false)
+  }
+
+  override def save(bucketName: BucketName, data: ByteSource, blobIdProvider: BlobIdProvider[ByteSource], storagePolicy: BlobStore.StoragePolicy): Publisher[BlobId] = {
+    saveByteSource(bucketName, data, blobIdProvider, contentAddressed = false)
+  }
+
+  private def saveBytes(bucketName: BucketName, data: Array[Byte], blobIdProvider: BlobIdProvider[Array[Byte]], contentAddressed: Boolean): SMono[BlobId] = {
     Preconditions.checkNotNull(bucketName)
     Preconditions.checkNotNull(data)
     SMono(blobIdProvider.apply(data))
       .map(_.getT1)
-      .flatMap(blobId => SMono(blobStoreDAO.save(bucketName, blobId, BytesBlob.of(data)))
-      .`then`(SMono.just(blobId)))
+      .flatMap(blobId => saveUnlessExisting(bucketName, blobId, shouldCheckExistence(contentAddressed, data.length),
+        SMono(blobStoreDAO.save(bucketName, blobId, BytesBlob.of(data)))))
   }
 
-  override def save(bucketName: BucketName, data: ByteSource, blobIdProvider: BlobIdProvider[ByteSource], storagePolicy: BlobStore.StoragePolicy): Publisher[BlobId] = {
+  private def saveByteSource(bucketName: BucketName, data: ByteSource, blobIdProvider: BlobIdProvider[ByteSource], contentAddressed: Boolean): SMono[BlobId] = {
     Preconditions.checkNotNull(bucketName)
     Preconditions.checkNotNull(data)
 
     SMono(blobIdProvider.apply(data))
       .map(_.getT1)
-      .flatMap(blobId => SMono(blobStoreDAO.save(bucketName, blobId, ByteSourceBlob.of(data)))
-          .`then`(SMono.just(blobId)))
+      .flatMap(blobId => saveUnlessExisting(bucketName, blobId, shouldCheckExistence(contentAddressed, data.sizeIfKnown().or(0L)),
+        SMono(blobStoreDAO.save(bucketName, blobId, ByteSourceBlob.of(data)))))
       .subscribeOn(Schedulers.boundedElastic())
   }
 
-  private def withBlobId: BlobIdProvider[InputStream] = data => {
+  private def saveInputStream(bucketName: BucketName, data: InputStream, spool: InputStream => SMono[SpooledContent], contentAddressed: Boolean): SMono[BlobId] = {
+    Preconditions.checkNotNull(bucketName)
+    Preconditions.checkNotNull(data)
+
+    spool(data).subscribeOn(Schedulers.boundedElastic())
+      .flatMap(content => SMono.just(content.stream)
+        // The stream is not consumed when the upload is skipped, thus needs to be closed here
+        .using(stream => saveUnlessExisting(bucketName, content.blobId, shouldCheckExistence(contentAddressed, content.size.getOrElse(0L)),
+          SMono(blobStoreDAO.save(bucketName, content.blobId, InputStreamBlob.of(stream)))))(
+          stream => stream.close()))
+  }
+
+  /**
+   * Identical content yields identical blob ids: when the blob already exists, uploading it again is redundant.
+   *
+   * Only done for content addressed blob ids, as custom blob id providers might overwrite a blob with another content.
+   * Small blobs are written right away as uploading them costs about as much as checking their existence.
+   */
+  private def shouldCheckExistence(contentAddressed: Boolean, size: Long): Boolean =
+    contentAddressed && size >= DeDuplicationBlobStore.SKIP_EXISTING_THRESHOLD
+
+  private def saveUnlessExisting(bucketName: BucketName, blobId: BlobId, checkExistence: Boolean, save: => SMono[Void]): SMono[BlobId] = {
+    val exists: SMono[Boolean] = if (checkExistence) {
+      SMono(Flux.from(blobStoreDAO.listExistingBlobs(bucketName, ImmutableList.of(blobId))).hasElements)
+        .map(_.booleanValue())
+    } else {
+      SMono.just(false)
+    }
+    exists.flatMap {
+      case true => SMono.just(blobId)
+      case false => save.`then`(SMono.just(blobId))
+    }
+  }
+
+  private def spoolWithBlobId(data: InputStream): SMono[SpooledContent] = {
     val hashingInputStream = new HashingInputStream(Hashing.sha256, data)
     val ressourceSupplier: Callable[FileBackedOutputStream] = () => new FileBackedOutputStream(DeDuplicationBlobStore.FILE_THRESHOLD)
-    val sourceSupplier: FileBackedOutputStream => Mono[(BlobId, InputStream)] =
+    val sourceSupplier: FileBackedOutputStream => Mono[SpooledContent] =
       (fileBackedOutputStream: FileBackedOutputStream) =>
         SMono.fromCallable(() => {
-          IOUtils.copy(hashingInputStream, fileBackedOutputStream)
-          (blobIdFactory.of(base64(hashingInputStream.hash)), fileBackedOutputStream.asByteSource.openStream())
+          val size = IOUtils.copyLarge(hashingInputStream, fileBackedOutputStream)
+          SpooledContent(blobIdFactory.of(base64(hashingInputStream.hash)), fileBackedOutputStream.asByteSource.openStream(), Some(size))
         }).asJava()
 
-    Mono.using[(BlobId, InputStream),FileBackedOutputStream](
+    SMono(Mono.using[SpooledContent, FileBackedOutputStream](
       ressourceSupplier,
       sourceSupplier.asJava,
       ((fileBackedOutputStream: FileBackedOutputStream) => fileBackedOutputStream.reset()).asJava,
-      DeDuplicationBlobStore.LAZY_RESOURCE_CLEANUP)
+      DeDuplicationBlobStore.LAZY_RESOURCE_CLEANUP))
       .subscribeOn(Schedulers.boundedElastic())
-      .map{ case (blobId, data) => Tuples.of(blobId, data)}
   }
 
   private def withBlobIdFromByteSource: BlobIdProvider[ByteSource] =
@@ -150,14 +201,9 @@ class DeDuplicationBlobStore @Inject()(blobStoreDAO: BlobStoreDAO,
                     data: InputStream,
                     blobIdProvider: BlobIdProvider[InputStream],
                     storagePolicy: BlobStore.StoragePolicy): Publisher[BlobId] = {
-    Preconditions.checkNotNull(bucketName)
-    Preconditions.checkNotNull(data)
-
-    Mono.from(blobIdProvider(data)).subscribeOn(Schedulers.boundedElastic())
-      .flatMap { tuple =>
-        SMono(blobStoreDAO.save(bucketName, tuple.getT1, InputStreamBlob.of(tuple.getT2)))
-          .`then`(SMono.just(tuple.getT1)).asJava()
-      }
+    saveInputStream(bucketName, data,
+      content => SMono(blobIdProvider(content)).map(tuple => SpooledContent(tuple.getT1, tuple.getT2, None)),
+      contentAddressed = false)
   }
 
   override def readBytes(bucketName: BucketName, blobId: BlobId): Publisher[Array[Byte]] = {
@@ -191,6 +237,17 @@ class DeDuplicationBlobStore @Inject()(blobStoreDAO: BlobStoreDAO,
     SMono.just(Boolean.box(false))
   }
 
+  override def delete(bucketName: BucketName, blobIds: java.util.Collection[BlobId]): Publisher[Void] = {
+    Preconditions.checkNotNull(bucketName)
+    Preconditions.checkNotNull(blobIds)
+
+    // Deduplicated blobs might be shared: their deletion is left to the garbage collection
+    SMono.empty
+  }
+
+  override def listExistingBlobs(bucketName: BucketName, blobIds: java.util.Collection[BlobId]): Publisher[BlobId] =
+    blobStoreDAO.listExistingBlobs(bucketName, blobIds)
+
   override def listBuckets(): Publisher[BucketName] = Flux.concat(blobStoreDAO.listBuckets(), Flux.just(defaultBucketName)).distinct()
 
   override def listBlobs(bucketName: BucketName): Publisher[BlobId] = blobStoreDAO.listBlobs(bucketName)
@@ -126,6 +126,16 @@ class PassThroughBlobStore @Inject()(blobStoreDAO: BlobStoreDAO,
       .`then`(SMono.just(Boolean.box(true)))
   }
 
+  override def delete(bucketName: BucketName, blobIds: java.util.Collection[BlobId]): Publisher[Void] = {
+    Preconditions.checkNotNull(bucketName)
+    Preconditions.checkNotNull(blobIds)
+
+    blobStoreDAO.delete(bucketName, blobIds)
+  }
+
+  override def listExistingBlobs(bucketName: BucketName, blobIds: java.util.Collection[BlobId]): Publisher[BlobId] =
+    blobStoreDAO.listExistingBlobs(bucketName, blobIds)
+
   override def listBuckets(): Publisher[BucketName] = Flux.concat(blobStoreDAO.listBuckets(), Flux.just(defaultBucketName)).distinct()
 
   override def listBlobs(bucketName: BucketName): Publisher[BlobId] = blobStoreDAO.listBlobs(bucketName)
@@ -24,7 +24,9 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
 
 import java.time.Clock;
+import java.time.Duration;
 import java.time.Instant;
+import java.util.Optional;
 import java.util.Set;
 
 import org.apache.james.JsonSerializationVerifier;
@@ -73,7 +75,9 @@ class BlobGCTaskSerializationTest {
                 clock,
                 99,
                 100,
-                0.8
+                0.8,
+                Optional.of("1_650_"),
+                Optional.of(Duration.ofDays(7))
             ))
             .json(ClassLoaderUtils.getSystemResourceAsString("json/blobGC.task.json"))
             .verify();
@@ -27,9 +27,11 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import java.time.Duration;
 import java.time.ZonedDateTime;
 import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
@@ -314,6 +316,88 @@ public interface BloomFilterGCAlgorithmContract {
         assertThat(context.snapshot().getGcedBlobCount()).isEqualTo(1);
     }
 
+    @Test
+    default void gcShouldOnlyConsiderBlobsMatchingThePrefix() {
+        BlobStore blobStore = blobStore();
+        BlobId oldBlobId = Mono.from(blobStore.save(DEFAULT_BUCKET, UUID.randomUUID().toString(), BlobStore.StoragePolicy.HIGH_PERFORMANCE)).block();
+        CLOCK.setInstant(NOW.plusMonths(1).toInstant());
+        BlobId newerBlobId = Mono.from(blobStore.save(DEFAULT_BUCKET, UUID.randomUUID().toString(), BlobStore.StoragePolicy.HIGH_PERFORMANCE)).block();
+        when(BLOB_REFERENCE_SOURCE.listReferencedBlobs()).thenReturn(Flux.empty());
+        CLOCK.setInstant(NOW.plusMonths(4).toInstant());
+
+        String generationPrefix = oldBlobId.asString().substring(0, oldBlobId.asString().lastIndexOf('_') + 1);
+        Context context = new Context(EXPECTED_BLOB_COUNT, ASSOCIATED_PROBABILITY);
+        Task.Result result = Mono.from(bloomFilterGCAlgorithm().gc(EXPECTED_BLOB_COUNT, DELETION_WINDOW_SIZE, ASSOCIATED_PROBABILITY, DEFAULT_BUCKET,
+            Optional.of(generationPrefix), Optional.empty(), context)).block();
+
+        assertThat(result).isEqualTo(Task.Result.COMPLETED);
+        assertThat(context.snapshot().getBlobCount()).isEqualTo(1);
+        assertThatThrownBy(() -> blobStore.read(DEFAULT_BUCKET, oldBlobId))
+            .isInstanceOf(ObjectNotFoundException.class);
+        assertThat(blobStore.read(DEFAULT_BUCKET, newerBlobId))
+            .isNotNull();
+    }
+
+    @Test
+    default void gcShouldReuseThePersistedReferenceFilter() {
+        BlobStore blobStore = blobStore();
+        BlobId referencedBlobId = Mono.from(blobStore.save(DEFAULT_BUCKET, UUID.randomUUID().toString(), BlobStore.StoragePolicy.HIGH_PERFORMANCE)).block();
+        when(BLOB_REFERENCE_SOURCE.listReferencedBlobs()).thenReturn(Flux.just(referencedBlobId));
+        CLOCK.setInstant(NOW.plusMonths(2).toInstant());
+        Mono.from(bloomFilterGCAlgorithm().gc(EXPECTED_BLOB_COUNT, DELETION_WINDOW_SIZE, ASSOCIATED_PROBABILITY, DEFAULT_BUCKET,
+            Optional.empty(), Optional.of(Duration.ofDays(7)), new Context(EXPECTED_BLOB_COUNT, ASSOCIATED_PROBABILITY))).block();
+
+        when(BLOB_REFERENCE_SOURCE.listReferencedBlobs()).thenReturn(Flux.error(new RuntimeException("references should not be listed")));
+        CLOCK.setInstant(NOW.plusMonths(2).plusDays(1).toInstant());
+        Context context = new Context(EXPECTED_BLOB_COUNT, ASSOCIATED_PROBABILITY);
+        Task.Result result = Mono.from(bloomFilterGCAlgorithm().gc(EXPECTED_BLOB_COUNT, DELETION_WINDOW_SIZE, ASSOCIATED_PROBABILITY, DEFAULT_BUCKET,
+            Optional.empty(), Optional.of(Duration.ofDays(7)), context)).block();
+
+        assertThat(result).isEqualTo(Task.Result.COMPLETED);
+        assertThat(context.snapshot().getReferenceSourceCount()).isZero();
+        assertThat(context.snapshot().getBlobCount()).isEqualTo(1);
+        assertThat(blobStore.read(DEFAULT_BUCKET, referencedBlobId))
+            .isNotNull();
+    }
+
+    @Test
+    default void gcShouldPopulateAgainAnExpiredReferenceFilter() {
+        BlobStore blobStore = blobStore();
+        BlobId referencedBlobId = Mono.from(blobStore.save(DEFAULT_BUCKET, UUID.randomUUID().toString(), BlobStore.StoragePolicy.HIGH_PERFORMANCE)).block();
+        when(BLOB_REFERENCE_SOURCE.listReferencedBlobs()).thenReturn(Flux.just(referencedBlobId));
+        CLOCK.setInstant(NOW.plusMonths(2).toInstant());
+        Mono.from(bloomFilterGCAlgorithm().gc(EXPECTED_BLOB_COUNT, DELETION_WINDOW_SIZE, ASSOCIATED_PROBABILITY, DEFAULT_BUCKET,
+            Optional.empty(), Optional.of(Duration.ofDays(7)), new Context(EXPECTED_BLOB_COUNT, ASSOCIATED_PROBABILITY))).block();
+
+        CLOCK.setInstant(NOW.plusMonths(2).plusDays(8).toInstant());
+        Context context = new Context(EXPECTED_BLOB_COUNT, ASSOCIATED_PROBABILITY);
+        Task.Result result = Mono.from(bloomFilterGCAlgorithm().gc(EXPECTED_BLOB_COUNT, DELETION_WINDOW_SIZE, ASSOCIATED_PROBABILITY, DEFAULT_BUCKET,
+            Optional.empty(), Optional.of(Duration.ofDays(7)), context)).block();
+
+        assertThat(result).isEqualTo(Task.Result.COMPLETED);
+        assertThat(context.snapshot().getReferenceSourceCount()).isEqualTo(1);
+    }
+
+    @Test
+    default void gcShouldNotCollectBlobsStillActiveWhenTheReferenceFilterWasPopulated() {
+        BlobStore blobStore = blobStore();
+        when(BLOB_REFERENCE_SOURCE.listReferencedBlobs()).thenReturn(Flux.empty());
+        CLOCK.setInstant(NOW.plusMonths(2).toInstant());
+        Mono.from(bloomFilterGCAlgorithm().gc(EXPECTED_BLOB_COUNT, DELETION_WINDOW_SIZE, ASSOCIATED_PROBABILITY, DEFAULT_BUCKET,
+            Optional.empty(), Optional.of(Duration.ofDays(365)), new Context(EXPECTED_BLOB_COUNT, ASSOCIATED_PROBABILITY))).block();
+        BlobId blobId = Mono.from(blobStore.save(DEFAULT_BUCKET, UUID.randomUUID().toString(), BlobStore.StoragePolicy.HIGH_PERFORMANCE)).block();
+
+        CLOCK.setInstant(NOW.plusMonths(5).toInstant());
+        Context context = new Context(EXPECTED_BLOB_COUNT, ASSOCIATED_PROBABILITY);
+        Task.Result result = Mono.from(bloomFilterGCAlgorithm().gc(EXPECTED_BLOB_COUNT, DELETION_WINDOW_SIZE, ASSOCIATED_PROBABILITY, DEFAULT_BUCKET,
+            Optional.empty(), Optional.of(Duration.ofDays(365)), context)).block();
+
+        assertThat(result).isEqualTo(Task.Result.COMPLETED);
+        assertThat(context.snapshot().getGcedBlobCount()).isZero();
+        assertThat(blobStore.read(DEFAULT_BUCKET, blobId))
+            .isNotNull();
+    }
+
     @Test
     default void gcShouldHandlerErrorWhenException() {
         when(BLOB_REFERENCE_SOURCE.listReferencedBlobs()).thenReturn(Flux.empty());
@@ -0,0 +1,104 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.server.blob.deduplication;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.google.common.primitives.Bytes;
+
+class ContentDefinedChunkerTest {
+    private static final ChunkingConfiguration CONFIGURATION = ChunkingConfiguration.builder()
+        .threshold(4096)
+        .averageChunkSize(1024)
+        .build();
+
+    private final ContentDefinedChunker testee = new ContentDefinedChunker(CONFIGURATION);
+
+    private static byte[] randomBytes(int size, long seed) {
+        byte[] bytes = new byte[size];
+        new Random(seed).nextBytes(bytes);
+        return bytes;
+    }
+
+    private List<byte[]> chunk(byte[] data) {
+        return testee.chunk(new ByteArrayInputStream(data)).collectList().block();
+    }
+
+    @Test
+    void chunkShouldReturnNothingForEmptyContent() {
+        assertThat(chunk(new byte[0])).isEmpty();
+    }
+
+    @Test
+    void chunksShouldConcatenateToTheOriginalContent() {
+        byte[] data = randomBytes(100 * 1024, 42);
+
+        ByteArrayOutputStream concatenated = new ByteArrayOutputStream();
+        chunk(data).forEach(concatenated::writeBytes);
+
+        assertThat(concatenated.toByteArray()).isEqualTo(data);
+    }
+
+    @Test
+    void chunkShouldBeDeterministic() {
+        byte[] data = randomBytes(100 * 1024, 42);
+
+        assertThat(chunk(data)).containsExactlyElementsOf(chunk(data));
+    }
+
+    @Test
+    void chunksShouldRespectSizeBounds() {
+        List<byte[]> chunks = chunk(randomBytes(100 * 1024, 42));
+
+        assertThat(chunks.subList(0, chunks.size() - 1))
+            .allSatisfy(chunk -> assertThat(chunk.length)
+                .isBetween(CONFIGURATION.minChunkSize(), CONFIGURATION.maxChunkSize()));
+    }
+
+    @Test
+    void chunksShouldNotExceedMaxSizeForRepetitiveContent() {
+        List<byte[]> chunks = chunk(new byte[20 * 1024]);
+
+        assertThat(chunks).hasSize(5)
+            .allSatisfy(chunk -> assertThat(chunk).hasSize(CONFIGURATION.maxChunkSize()));
+    }
+
+    @Test
+    void insertingContentShouldPreserveMostChunks() {
+        byte[] data = randomBytes(100 * 1024, 42);
+        byte[] shifted = Bytes.concat(randomBytes(100, 43), data);
+
+        List<byte[]> chunks = chunk(data);
+        List<byte[]> shiftedChunks = chunk(shifted);
+
+        long sharedChunks = chunks.stream()
+            .filter(chunk -> shiftedChunks.stream().anyMatch(other -> Arrays.equals(chunk, other)))
+            .count();
+        assertThat(sharedChunks).isGreaterThanOrEqualTo(chunks.size() - 2);
+    }
+}
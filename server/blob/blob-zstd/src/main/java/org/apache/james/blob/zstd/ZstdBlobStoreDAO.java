@@ -175,6 +175,11 @@ public class ZstdBlobStoreDAO implements BlobStoreDAO {
         return underlying.delete(bucketName, blobIds);
     }
 
+    @Override
+    public Publisher<BlobId> listExistingBlobs(BucketName bucketName, Collection<BlobId> blobIds) {
+        return underlying.listExistingBlobs(bucketName, blobIds);
+    }
+
     @Override
     public Publisher<Void> deleteBucket(BucketName bucketName) {
         return underlying.deleteBucket(bucketName);
@@ -94,6 +94,12 @@ public class MimeMessageWrapper extends MimeMessage implements Disposable {
 
     private long initialHeaderSize;
 
+    /**
+     * Length in bytes of the header block of the source, so that the original body can be spliced
+     * without parsing the source headers again.
+     */
+    private long sourceHeaderSize = UNKNOWN;
+
     private MimeMessageWrapper(Session session) {
         super(session);
         this.headers = null;
@@ -128,10 +134,18 @@ public class MimeMessageWrapper extends MimeMessage implements Disposable {
         this(Session.getDefaultInstance(System.getProperties()), source);
     }
 
+    /**
+     * Copies the original message. When the body of a {@link MimeMessageWrapper} is not modified, its source is
+     * shared rather than copied, and only modified headers are copied.
+     */
     public MimeMessageWrapper(MimeMessage original) throws MessagingException {
         this(Session.getDefaultInstance(System.getProperties()));
         flags = original.getFlags();
 
+        if (original instanceof MimeMessageWrapper wrapper && wrapper.source != null && !wrapper.isBodyModified()) {
+            shareSource(wrapper);
+        }
+
         if (source == null) {
             InputStream in;
 
@@ -177,6 +191,33 @@ public class MimeMessageWrapper extends MimeMessage implements Disposable {
         }
     }
 
+    private void shareSource(MimeMessageWrapper original) throws MessagingException {
+        source = original.newSourceReference();
+        sourceHeaderSize = original.sourceHeaderSize;
+        if (original.isHeaderModified()) {
+            MailHeaders copiedHeaders = new MailHeaders();
+            Enumeration<String> headerLines = original.getAllHeaderLines();
+            while (headerLines.hasMoreElements()) {
+                copiedHeaders.addHeaderLine(headerLines.nextElement());
+            }
+            headers = copiedHeaders;
+            headersModified = true;
+        }
+    }
+
+    private synchronized SharedMimeMessageSource newSourceReference() {
+        SharedMimeMessageSource sharedSource = SharedMimeMessageSource.of(source);
+        source = sharedSource;
+        return sharedSource.newReference();
+    }
+
+    /**
+     * @return true when the source of this message is shared with copies of it
+     */
+    public boolean isSourceShared() {
+        return source instanceof SharedMimeMessageSource sharedSource && sharedSource.isShared();
+    }
+
     /**
      * Overrides default javamail behaviour by not altering the Message-ID by
      * default, see <a href="https://issues.apache.org/jira/browse/JAMES-875">JAMES-875</a> and
@@ -209,8 +250,10 @@ public class MimeMessageWrapper extends MimeMessage implements Disposable {
         if (headers != null) {
             // Another thread has already loaded these headers
         } else if (source != null) {
-            try (InputStream in = source.getInputStream()) {
-                headers = createInternetHeaders(in);
+            try (InputStream in = source.getInputStream();
+                 CountingInputStream countingInputStream = new CountingInputStream(in)) {
+                headers = createInternetHeaders(countingInputStream);
+                sourceHeaderSize = countingInputStream.getCount();
             } catch (IOException ioe) {
                 throw new MessagingException("Unable to parse headers from stream: " + ioe.getMessage(), ioe);
             }
@@ -220,16 +263,38 @@ public class MimeMessageWrapper extends MimeMessage implements Disposable {
     }
 
     protected long loadHeadersCounting() throws MessagingException {
-        if (source != null) {
-            try (InputStream in = source.getInputStream();
-                 CountingInputStream countingInputStream = new CountingInputStream(in)) {
-                headers = createInternetHeaders(countingInputStream);
-                return countingInputStream.getCount();
-            } catch (IOException ioe) {
-                throw new MessagingException("Unable to parse headers from stream: " + ioe.getMessage(), ioe);
+        if (headers == null) {
+            loadHeaders();
+        }
+        try {
+            return sourceHeaderSize();
+        } catch (IOException ioe) {
+            throw new MessagingException("Unable to parse headers from stream: " + ioe.getMessage(), ioe);
+        }
+    }
+
+    /**
+     * Size of the header block of the source. Only the header block is read, and only once.
+     */
+    private long sourceHeaderSize() throws IOException, MessagingException {
+        if (sourceHeaderSize == UNKNOWN) {
+            try (InputStream in = source.getInputStream()) {
+                skipSourceHeaders(in);
             }
+        }
+        return sourceHeaderSize;
+    }
+
+    /**
+     * Positions a stream of the source at the beginning of the body.
+     */
+    private void skipSourceHeaders(InputStream in) throws IOException, MessagingException {
+        if (sourceHeaderSize == UNKNOWN) {
+            CountingInputStream countingInputStream = new CountingInputStream(in);
+            new MailHeaders(countingInputStream);
+            sourceHeaderSize = countingInputStream.getCount();
         } else {
-            throw new MessagingException("loadHeaders called for a message with no source, contentStream or stream");
+            IOUtils.skipFully(in, sourceHeaderSize);
         }
     }
 
@@ -323,33 +388,26 @@ public class MimeMessageWrapper extends MimeMessage implements Disposable {
     public void writeTo(OutputStream headerOs, OutputStream bodyOs, String[] ignoreList, boolean preLoad) throws IOException, MessagingException {
         
         if (!preLoad && source != null && !isBodyModified()) {
-            // We do not want to instantiate the message... just read from
-            // source
-            // and write to this outputstream
-
-            // First handle the headers
+            // We do not want to instantiate the message... just write the
+            // headers and splice the original body from the source
+
+            // Headers modified via setHeader/addHeader already updated this.headers
+            // (checkModifyHeaders ensures it is loaded from source first).
+            // Calling saveChanges() here would trigger updateHeaders() on every MIME
+            // body part, which re-parses Content-Type parameters and fails on malformed
+            // MIME structures (e.g. unbalanced quoted strings). Since we are in the fast
+            // path (body is unmodified), the body-derived headers have not changed and
+            // saveChanges() is not needed to reflect them.
+            // See JAMES-1320
             try (InputStream in = source.getInputStream()) {
-                InternetHeaders myHeaders;
-                MailHeaders parsedHeaders = new MailHeaders(in);
-
-                // check if we should use the parsed headers or not
-                if (!isHeaderModified()) {
-                    myHeaders = parsedHeaders;
+                if (headers == null) {
+                    CountingInputStream countingInputStream = new CountingInputStream(in);
+                    headers = createInternetHeaders(countingInputStream);
+                    sourceHeaderSize = countingInputStream.getCount();
                 } else {
-                    // Headers were modified via setHeader/addHeader, which already updated
-                    // this.headers (checkModifyHeaders ensures it is loaded from source first).
-                    // Calling saveChanges() here would trigger updateHeaders() on every MIME
-                    // body part, which re-parses Content-Type parameters and fails on malformed
-                    // MIME structures (e.g. unbalanced quoted strings). Since we are in the fast
-                    // path (body is unmodified), the body-derived headers have not changed and
-                    // saveChanges() is not needed to reflect them.
-                    // See JAMES-1320 (checkModifyHeaders already guarantees headers != null)
-                    if (headers == null) {
-                        loadHeaders();
-                    }
-                    myHeaders = headers;
+                    skipSourceHeaders(in);
                 }
-                Enumeration<String> filteredHeaders = myHeaders.getNonMatchingHeaderLines(ignoreList);
+                Enumeration<String> filteredHeaders = headers.getNonMatchingHeaderLines(ignoreList);
                 new InternetHeadersInputStream(filteredHeaders).transferTo(headerOs);
                 in.transferTo(bodyOs);
             }
@@ -398,12 +456,14 @@ public class MimeMessageWrapper extends MimeMessage implements Disposable {
     /**
      * Corrects JavaMail 1.1 version which always returns -1. Only corrected for
      * content less than 5000 bytes, to avoid memory hogging.
+     *
+     * The body is read from the source when not modified, without parsing the message.
      */
     @Override
     public int getLineCount() throws MessagingException {
         InputStream in;
         try {
-            in = getContentStream();
+            in = getRawInputStream();
         } catch (Exception e) {
             return UNKNOWN;
         }
@@ -445,11 +505,8 @@ public class MimeMessageWrapper extends MimeMessage implements Disposable {
                 throw new MessagingException("Error retrieving message size", ioe);
             }
         } else if (source != null && !bodyModified) {
-            try (InputStream in = source.getInputStream()) {
-                CountingInputStream countingInputStream = new CountingInputStream(in);
-                new MailHeaders(countingInputStream);
-                long previousHeaderLength = countingInputStream.getCount();
-                return source.getMessageSize() - previousHeaderLength + IOUtils.consume(new InternetHeadersInputStream(getAllHeaderLines()));
+            try {
+                return source.getMessageSize() - sourceHeaderSize() + IOUtils.consume(new InternetHeadersInputStream(getAllHeaderLines()));
             } catch (IOException e) {
                 throw new MessagingException("Error retrieving message size", e);
             }
@@ -684,12 +741,11 @@ public class MimeMessageWrapper extends MimeMessage implements Disposable {
 
     @Override
     public InputStream getRawInputStream() throws MessagingException {
-        if (!messageParsed && !isModified() && source != null) {
+        if (!messageParsed && !bodyModified && source != null) {
             InputStream is;
             try {
                 is = source.getInputStream();
-                // skip the headers.
-                new MailHeaders(is);
+                skipSourceHeaders(is);
                 return is;
             } catch (IOException e) {
                 throw new MessagingException("Unable to read the stream", e);
@@ -725,10 +781,10 @@ public class MimeMessageWrapper extends MimeMessage implements Disposable {
                     // ok only the headers were modified so we don't need to
                     // copy the whole message content into memory
                     InputStream in = source.getInputStream();
-                    
+
                     // skip over headers from original stream we want to use the
                     // in memory ones
-                    new MailHeaders(in);
+                    skipSourceHeaders(in);
 
                     // now construct the new stream using the in memory headers
                     // and the body from the original source
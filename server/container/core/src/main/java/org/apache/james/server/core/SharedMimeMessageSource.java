@@ -0,0 +1,114 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.server.core;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.james.lifecycle.api.Disposable;
+import org.apache.james.lifecycle.api.LifecycleUtil;
+
+import com.google.common.annotations.VisibleForTesting;
+
+/**
+ * A reference to a {@link MimeMessageSource} shared by several {@link MimeMessageWrapper}, typically duplicates
+ * of the same mail.
+ *
+ * The underlying source is read only: a wrapper modifying the message keeps its changes in memory. It is
+ * disposed once all the references to it are disposed.
+ */
+public class SharedMimeMessageSource implements MimeMessageSource, Disposable {
+    private static class Shared {
+        private final MimeMessageSource source;
+        private final AtomicInteger references = new AtomicInteger(1);
+
+        private Shared(MimeMessageSource source) {
+            this.source = source;
+        }
+
+        private void release() {
+            if (references.decrementAndGet() == 0) {
+                LifecycleUtil.dispose(source);
+            }
+        }
+    }
+
+    /**
+     * Takes ownership of the given source, which should no longer be disposed directly.
+     */
+    public static SharedMimeMessageSource of(MimeMessageSource source) {
+        if (source instanceof SharedMimeMessageSource sharedMimeMessageSource) {
+            return sharedMimeMessageSource;
+        }
+        return new SharedMimeMessageSource(new Shared(source));
+    }
+
+    private final Shared shared;
+    private final AtomicBoolean disposed = new AtomicBoolean(false);
+
+    private SharedMimeMessageSource(Shared shared) {
+        this.shared = shared;
+    }
+
+    /**
+     * @return a new reference to the underlying source, to be disposed independently of this one
+     */
+    public SharedMimeMessageSource newReference() {
+        shared.references.incrementAndGet();
+        return new SharedMimeMessageSource(shared);
+    }
+
+    @VisibleForTesting
+    int referenceCount() {
+        return shared.references.get();
+    }
+
+    public boolean isShared() {
+        return shared.references.get() > 1;
+    }
+
+    @Override
+    public String getSourceId() {
+        return shared.source.getSourceId();
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        synchronized (shared) {
+            return shared.source.getInputStream();
+        }
+    }
+
+    @Override
+    public long getMessageSize() throws IOException {
+        synchronized (shared) {
+            return shared.source.getMessageSize();
+        }
+    }
+
+    @Override
+    public void dispose() {
+        if (disposed.compareAndSet(false, true)) {
+            shared.release();
+        }
+    }
+}
@@ -26,6 +26,7 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.util.Enumeration;
 import java.util.Properties;
 
@@ -61,6 +62,10 @@ public class MimeMessageWrapperTest extends MimeMessageFromStreamTest {
             return messageParsed;
         }
 
+        public void setMessageLoadable(boolean messageLoadable) {
+            this.messageLoadable = messageLoadable;
+        }
+
         public void setHeadersLoadable(boolean headersLoadable) {
             this.headersLoadable = headersLoadable;
         }
@@ -513,4 +518,109 @@ public class MimeMessageWrapperTest extends MimeMessageFromStreamTest {
         assertThat(result).contains("Received: from relay1.example.com");
         assertThat(result).contains("Received: from relay2.example.com");
     }
+
+    @Test
+    void headerEditsShouldNotParseTheBody() throws Exception {
+        mw.setMessageLoadable(false);
+
+        mw.addHeader("X-James-Test", "some-value");
+        mw.removeHeader("Subject");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        mw.writeTo(out);
+
+        assertThat(out.toString())
+            .contains("X-James-Test: some-value\r\n")
+            .doesNotContain("Subject")
+            .endsWith("\r\n\r\n" + body);
+    }
+
+    @Test
+    void sizesShouldNotParseTheBody() throws Exception {
+        mw.setMessageLoadable(false);
+
+        mw.addHeader("X-James-Test", "some-value");
+
+        assertThat(mw.getSize()).isEqualTo(body.length());
+        assertThat(mw.getLineCount()).isEqualTo(1);
+        assertThat(mw.getMessageSize()).isEqualTo(MimeMessageUtil.asString(mw).length());
+    }
+
+    @Test
+    void getRawInputStreamShouldNotParseTheBodyWhenHeadersAreModified() throws Exception {
+        mw.setMessageLoadable(false);
+
+        mw.addHeader("X-James-Test", "some-value");
+
+        assertThat(new String(mw.getRawInputStream().readAllBytes(), StandardCharsets.US_ASCII)).isEqualTo(body);
+    }
+
+    @Test
+    void copyShouldShareTheSourceWhenBodyIsNotModified() throws Exception {
+        mw.setMessageLoadable(false);
+
+        MimeMessageWrapper copy = new MimeMessageWrapper(mw);
+
+        assertThat(copy.isSourceShared()).isTrue();
+        assertThat(mw.isSourceShared()).isTrue();
+        assertThat(MimeMessageUtil.asString(copy)).isEqualTo(content + sep + body);
+        LifecycleUtil.dispose(copy);
+    }
+
+    @Test
+    void copyShouldRemainReadableWhenOriginalIsDisposed() throws Exception {
+        MimeMessageWrapper copy = new MimeMessageWrapper(mw);
+
+        LifecycleUtil.dispose(mw);
+
+        assertThat(copy.isSourceShared()).isFalse();
+        assertThat(MimeMessageUtil.asString(copy)).isEqualTo(content + sep + body);
+        LifecycleUtil.dispose(copy);
+    }
+
+    @Test
+    void copyShouldKeepHeadersModifiedBeforeTheCopy() throws Exception {
+        mw.addHeader("X-James-Test", "before-copy");
+
+        MimeMessageWrapper copy = new MimeMessageWrapper(mw);
+
+        assertThat(copy.isSourceShared()).isTrue();
+        assertThat(copy.getHeader("X-James-Test")).containsExactly("before-copy");
+        assertThat(MimeMessageUtil.asString(copy)).contains("X-James-Test: before-copy").endsWith(body);
+        LifecycleUtil.dispose(copy);
+    }
+
+    @Test
+    void headerModificationsOfACopyShouldNotAffectTheOriginal() throws Exception {
+        MimeMessageWrapper copy = new MimeMessageWrapper(mw);
+
+        copy.setHeader("Subject", "modified");
+
+        assertThat(mw.getSubject()).isEqualTo("foo");
+        assertThat(MimeMessageUtil.asString(mw)).doesNotContain("modified");
+        LifecycleUtil.dispose(copy);
+    }
+
+    @Test
+    void bodyModificationsOfACopyShouldNotAffectTheOriginal() throws Exception {
+        MimeMessageWrapper copy = new MimeMessageWrapper(mw);
+
+        copy.setText("modified");
+        copy.saveChanges();
+
+        assertThat(MimeMessageUtil.asString(copy)).endsWith("modified");
+        assertThat(MimeMessageUtil.asString(mw)).isEqualTo(content + sep + body);
+        LifecycleUtil.dispose(copy);
+    }
+
+    @Test
+    void copyShouldNotShareTheSourceWhenBodyIsModified() throws Exception {
+        mw.setText("modified");
+        mw.saveChanges();
+
+        MimeMessageWrapper copy = new MimeMessageWrapper(mw);
+
+        assertThat(copy.isSourceShared()).isFalse();
+        assertThat(MimeMessageUtil.asString(copy)).endsWith("modified");
+        LifecycleUtil.dispose(copy);
+    }
 }
@@ -0,0 +1,130 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.server.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import jakarta.mail.util.SharedByteArrayInputStream;
+
+import org.apache.james.lifecycle.api.Disposable;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class SharedMimeMessageSourceTest {
+    private static final byte[] CONTENT = "Subject: test\r\n\r\nbody\r\n".getBytes();
+
+    private AtomicInteger disposeCount;
+    private SharedMimeMessageSource testee;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        disposeCount = new AtomicInteger();
+        MimeMessageInputStreamSource source = MimeMessageInputStreamSource.create("key", new SharedByteArrayInputStream(CONTENT));
+        testee = SharedMimeMessageSource.of(new MimeMessageSourceTracker(source, disposeCount));
+    }
+
+    @Test
+    void disposeShouldDisposeTheSourceWhenNotShared() {
+        testee.dispose();
+
+        assertThat(disposeCount.get()).isEqualTo(1);
+    }
+
+    @Test
+    void disposeShouldNotDisposeTheSourceWhileOtherReferencesExist() throws Exception {
+        SharedMimeMessageSource reference = testee.newReference();
+
+        testee.dispose();
+
+        assertThat(disposeCount.get()).isZero();
+        assertThat(reference.getInputStream()).hasBinaryContent(CONTENT);
+    }
+
+    @Test
+    void disposeShouldDisposeTheSourceWhenAllReferencesAreDisposed() {
+        SharedMimeMessageSource reference = testee.newReference();
+
+        testee.dispose();
+        reference.dispose();
+
+        assertThat(disposeCount.get()).isEqualTo(1);
+    }
+
+    @Test
+    void disposeShouldBeIdempotent() {
+        SharedMimeMessageSource reference = testee.newReference();
+
+        testee.dispose();
+        testee.dispose();
+
+        assertThat(disposeCount.get()).isZero();
+        assertThat(reference.referenceCount()).isEqualTo(1);
+    }
+
+    @Test
+    void isSharedShouldReflectReferences() {
+        assertThat(testee.isShared()).isFalse();
+
+        SharedMimeMessageSource reference = testee.newReference();
+        assertThat(testee.isShared()).isTrue();
+
+        reference.dispose();
+        assertThat(testee.isShared()).isFalse();
+    }
+
+    @Test
+    void ofShouldNotWrapSharedSources() {
+        assertThat(SharedMimeMessageSource.of(testee)).isSameAs(testee);
+    }
+
+    @Test
+    void getMessageSizeShouldReturnTheSourceSize() throws Exception {
+        assertThat(testee.newReference().getMessageSize()).isEqualTo(CONTENT.length);
+    }
+
+    private record MimeMessageSourceTracker(MimeMessageInputStreamSource source, AtomicInteger disposeCount)
+        implements MimeMessageSource, Disposable {
+
+        @Override
+        public String getSourceId() {
+            return source.getSourceId();
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return source.getInputStream();
+        }
+
+        @Override
+        public long getMessageSize() throws IOException {
+            return source.getMessageSize();
+        }
+
+        @Override
+        public void dispose() {
+            disposeCount.incrementAndGet();
+            source.dispose();
+        }
+    }
+}
@@ -19,6 +19,8 @@
 
 package org.apache.james.modules.objectstorage;
 
+import static org.apache.james.blob.objectstorage.aws.S3BlobStoreConfiguration.ADAPTIVE_CONCURRENCY_OVERLOAD_ERROR;
+import static org.apache.james.blob.objectstorage.aws.S3BlobStoreConfiguration.DEFAULT_HTTP_CONCURRENCY;
 import static org.apache.james.blob.objectstorage.aws.S3BlobStoreConfiguration.UPLOAD_RETRY_BACKOFF_DURATION_DEFAULT;
 import static org.apache.james.blob.objectstorage.aws.S3BlobStoreConfiguration.UPLOAD_RETRY_BACKOFF_JETTY_DEFAULT;
 
@@ -34,6 +36,7 @@ import org.apache.james.blob.objectstorage.aws.S3BlobStoreConfiguration;
 import org.apache.james.modules.objectstorage.aws.s3.AwsS3ConfigurationReader;
 import org.apache.james.util.DurationParser;
 import org.apache.james.util.Size;
+import org.apache.james.util.concurrency.AdaptiveConcurrencyLimiter;
 
 import reactor.util.retry.Retry;
 import software.amazon.awssdk.core.exception.SdkException;
@@ -52,6 +55,13 @@ public class S3BlobStoreConfigurationReader {
     private static final String OBJECTSTORAGE_S3_UPLOAD_RETRY_BACKOFF_DURATION_MILLIS = "objectstorage.s3.upload.retry.backoffDurationMillis";
     private static final String OBJECTSTORAGE_S3_ENCRYPTION_SSEC_ENABLE_PROPERTY = "encryption.s3.sse.c.enable";
     private static final String OBJECTSTORAGE_NAMESPACE_READ_FALLBACK = "objectstorage.namespace.read.fallback";
+    private static final String OBJECTSTORAGE_S3_ADAPTIVE_CONCURRENCY_ENABLED = "objectstorage.s3.adaptiveConcurrency.enabled";
+    private static final String OBJECTSTORAGE_S3_ADAPTIVE_CONCURRENCY_MIN = "objectstorage.s3.adaptiveConcurrency.min";
+    private static final String OBJECTSTORAGE_S3_ADAPTIVE_CONCURRENCY_MAX = "objectstorage.s3.adaptiveConcurrency.max";
+    private static final String OBJECTSTORAGE_S3_ADAPTIVE_CONCURRENCY_INITIAL = "objectstorage.s3.adaptiveConcurrency.initial";
+    private static final String OBJECTSTORAGE_S3_ADAPTIVE_CONCURRENCY_BACKOFF_RATIO = "objectstorage.s3.adaptiveConcurrency.backoffRatio";
+    private static final String OBJECTSTORAGE_S3_ADAPTIVE_CONCURRENCY_LATENCY_THRESHOLD = "objectstorage.s3.adaptiveConcurrency.latencyThreshold";
+    private static final String OBJECTSTORAGE_S3_ADAPTIVE_CONCURRENCY_MAX_QUEUE_SIZE = "objectstorage.s3.adaptiveConcurrency.maxQueueSize";
 
     public static S3BlobStoreConfiguration from(Configuration configuration) throws ConfigurationException {
         Optional<Integer> httpConcurrency = Optional.ofNullable(configuration.getInteger(OBJECTSTORAGE_S3_HTTP_CONCURRENCY, null));
@@ -92,7 +102,8 @@ public class S3BlobStoreConfigurationReader {
             .writeTimeout(writeTimeout)
             .connectionTimeout(connectionTimeout)
             .uploadRetrySpec(uploadRetrySpec)
-            .fallbackBucketName(fallbackNamespace.map(BucketName::of));
+            .fallbackBucketName(fallbackNamespace.map(BucketName::of))
+            .adaptiveConcurrency(readAdaptiveConcurrency(configuration, httpConcurrency.orElse(DEFAULT_HTTP_CONCURRENCY)));
 
         if (ssecEnabled) {
             configBuilder.ssecEnabled().ssecConfiguration(configuration);
@@ -100,4 +111,28 @@ public class S3BlobStoreConfigurationReader {
         return configBuilder.build();
     }
 
+    private static Optional<AdaptiveConcurrencyLimiter.Configuration> readAdaptiveConcurrency(Configuration configuration, int httpConcurrency) throws ConfigurationException {
+        if (!configuration.getBoolean(OBJECTSTORAGE_S3_ADAPTIVE_CONCURRENCY_ENABLED, false)) {
+            return Optional.empty();
+        }
+        int max = configuration.getInt(OBJECTSTORAGE_S3_ADAPTIVE_CONCURRENCY_MAX, httpConcurrency);
+        int min = configuration.getInt(OBJECTSTORAGE_S3_ADAPTIVE_CONCURRENCY_MIN, Math.min(AdaptiveConcurrencyLimiter.Configuration.DEFAULT_MIN_LIMIT, max));
+        int initial = configuration.getInt(OBJECTSTORAGE_S3_ADAPTIVE_CONCURRENCY_INITIAL, Math.max(min, Math.min(AdaptiveConcurrencyLimiter.Configuration.DEFAULT_INITIAL_LIMIT, max)));
+        try {
+            return Optional.of(AdaptiveConcurrencyLimiter.Configuration.builder()
+                .minLimit(min)
+                .maxLimit(max)
+                .initialLimit(initial)
+                .backoffRatio(configuration.getDouble(OBJECTSTORAGE_S3_ADAPTIVE_CONCURRENCY_BACKOFF_RATIO, AdaptiveConcurrencyLimiter.Configuration.DEFAULT_BACKOFF_RATIO))
+                .latencyThreshold(Optional.ofNullable(configuration.getString(OBJECTSTORAGE_S3_ADAPTIVE_CONCURRENCY_LATENCY_THRESHOLD, null))
+                    .map(s -> DurationParser.parse(s, ChronoUnit.MILLIS))
+                    .orElse(AdaptiveConcurrencyLimiter.Configuration.DEFAULT_LATENCY_THRESHOLD))
+                .maxQueueSize(configuration.getInt(OBJECTSTORAGE_S3_ADAPTIVE_CONCURRENCY_MAX_QUEUE_SIZE, AdaptiveConcurrencyLimiter.Configuration.DEFAULT_MAX_QUEUE_SIZE))
+                .overloadError(ADAPTIVE_CONCURRENCY_OVERLOAD_ERROR)
+                .build());
+        } catch (IllegalArgumentException e) {
+            throw new ConfigurationException("Invalid S3 adaptive concurrency configuration: " + e.getMessage(), e);
+        }
+    }
+
 }
@@ -31,6 +31,7 @@ import org.apache.james.backends.cassandra.init.SessionWithInitializedTablesFact
 import org.apache.james.backends.cassandra.init.configuration.CassandraConfiguration;
 import org.apache.james.backends.cassandra.init.configuration.ClusterConfiguration;
 import org.apache.james.backends.cassandra.init.configuration.KeyspaceConfiguration;
+import org.apache.james.backends.cassandra.utils.AdaptiveConcurrencyLimitingRequestThrottler;
 import org.apache.james.backends.cassandra.utils.CassandraHealthCheck;
 import org.apache.james.backends.cassandra.versions.CassandraSchemaVersionDAO;
 import org.apache.james.backends.cassandra.versions.CassandraSchemaVersionDataDefinition;
@@ -38,6 +39,7 @@ import org.apache.james.backends.cassandra.versions.CassandraSchemaVersionManage
 import org.apache.james.core.healthcheck.HealthCheck;
 import org.apache.james.lifecycle.api.StartUpCheck;
 import org.apache.james.mailbox.store.BatchSizes;
+import org.apache.james.metrics.api.GaugeRegistry;
 import org.apache.james.server.CassandraProbe;
 import org.apache.james.util.Host;
 import org.apache.james.utils.GuiceProbe;
@@ -162,9 +164,15 @@ public class CassandraSessionModule extends AbstractModule {
         private final CqlSession cluster;
 
         @Inject
-        private InitializedCluster(ResilientClusterProvider sessionProvider, ClusterConfiguration clusterConfiguration, KeyspacesConfiguration keyspacesConfiguration) {
+        private InitializedCluster(ResilientClusterProvider sessionProvider, ClusterConfiguration clusterConfiguration,
+                                   KeyspacesConfiguration keyspacesConfiguration, GaugeRegistry gaugeRegistry) {
             this.cluster = sessionProvider.get();
 
+            AdaptiveConcurrencyLimitingRequestThrottler.of(cluster).ifPresent(throttler -> gaugeRegistry
+                .register("cassandra.throttler.limit", throttler::getLimit)
+                .register("cassandra.throttler.inFlight", throttler::getInFlight)
+                .register("cassandra.throttler.queueSize", throttler::getQueueSize));
+
             if (clusterConfiguration.shouldCreateKeyspace()) {
                 KeyspaceFactory.createKeyspace(keyspacesConfiguration.mainKeyspaceConfiguration(), cluster).block();
             }
@@ -20,6 +20,7 @@
 package org.apache.james.modules.blobstore;
 
 import java.io.FileNotFoundException;
+import java.time.temporal.ChronoUnit;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -29,10 +30,15 @@ import org.apache.commons.configuration2.Configuration;
 import org.apache.commons.configuration2.ex.ConfigurationException;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.james.blob.aes.CryptoConfig;
+import org.apache.james.blob.api.HedgedReadsConfiguration;
+import org.apache.james.blob.file.LocalDiskCacheConfiguration;
 import org.apache.james.blob.zstd.CompressionConfiguration;
+import org.apache.james.filesystem.api.FileSystem;
 import org.apache.james.modules.mailbox.ConfigurationComponent;
+import org.apache.james.server.blob.deduplication.ChunkingConfiguration;
 import org.apache.james.server.blob.deduplication.StorageStrategy;
 import org.apache.james.server.core.filesystem.FileSystemImpl;
+import org.apache.james.util.DurationParser;
 import org.apache.james.util.Size;
 import org.apache.james.utils.PropertiesProvider;
 import org.slf4j.Logger;
@@ -40,12 +46,32 @@ import org.slf4j.LoggerFactory;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
 
 import io.vavr.control.Try;
 
 public class BlobStoreConfiguration {
     private static final Logger LOGGER = LoggerFactory.getLogger(BlobStoreConfiguration.class);
 
+    /**
+     * Settings of the local disk cache. The directory is resolved against the James {@link FileSystem} upon
+     * injection, hence is kept as configured.
+     */
+    public record LocalCacheConfiguration(String directory, long maxSizeInBytes, long maxEntrySizeInBytes) {
+        public static final String DEFAULT_DIRECTORY = "file://var/blob-cache";
+
+        public LocalCacheConfiguration {
+            Preconditions.checkNotNull(directory, "'directory' is compulsory");
+        }
+
+        public LocalDiskCacheConfiguration resolve(FileSystem fileSystem) throws FileNotFoundException {
+            return LocalDiskCacheConfiguration.builder(fileSystem.getFile(directory).toPath())
+                .maxSizeInBytes(maxSizeInBytes)
+                .maxEntrySizeInBytes(maxEntrySizeInBytes)
+                .build();
+        }
+    }
+
     @FunctionalInterface
     public interface RequireImplementation {
         RequireCache implementation(BlobStoreImplName implementation);
@@ -169,6 +195,16 @@ public class BlobStoreConfiguration {
     static final String COMPRESSION_MIN_RATIO_PROPERTY = "compression.min-ratio";
     static final boolean CACHE_ENABLED = true;
     static final String DEDUPLICATION_ENABLE_PROPERTY = "deduplication.enable";
+    static final String CHUNKING_ENABLE_PROPERTY = "deduplication.chunking.enable";
+    static final String CHUNKING_THRESHOLD_PROPERTY = "deduplication.chunking.threshold";
+    static final String CHUNKING_AVERAGE_CHUNK_SIZE_PROPERTY = "deduplication.chunking.average-chunk-size";
+    static final String HEDGED_READS_ENABLE_PROPERTY = "hedged-reads.enable";
+    static final String HEDGED_READS_DELAY_PROPERTY = "hedged-reads.delay";
+    static final String HEDGED_READS_BUDGET_RATIO_PROPERTY = "hedged-reads.budget-ratio";
+    static final String LOCAL_CACHE_ENABLE_PROPERTY = "local-cache.enable";
+    static final String LOCAL_CACHE_DIRECTORY_PROPERTY = "local-cache.directory";
+    static final String LOCAL_CACHE_SIZE_PROPERTY = "local-cache.size";
+    static final String LOCAL_CACHE_MAX_ENTRY_SIZE_PROPERTY = "local-cache.max-entry-size";
 
     public static BlobStoreConfiguration parse(org.apache.james.server.core.configuration.Configuration configuration) throws ConfigurationException {
         PropertiesProvider propertiesProvider = new PropertiesProvider(new FileSystemImpl(configuration.directories()),
@@ -212,6 +248,9 @@ public class BlobStoreConfiguration {
                         "Upgrade note: If you are upgrading from James 3.5 or older, the deduplication was enabled."));
         Optional<CryptoConfig> cryptoConfig = parseCryptoConfig(configuration);
         CompressionConfiguration compressionConfiguration = parseCompressionConfiguration(configuration);
+        HedgedReadsConfiguration hedgedReadsConfiguration = parseHedgedReadsConfiguration(configuration);
+        Optional<LocalCacheConfiguration> localCacheConfiguration = parseLocalCacheConfiguration(configuration);
+        Optional<ChunkingConfiguration> chunkingConfiguration = parseChunkingConfiguration(configuration);
 
         if (deduplicationEnabled) {
             return builder()
@@ -219,14 +258,21 @@ public class BlobStoreConfiguration {
                 .enableCache(cacheEnabled)
                 .deduplication()
                 .cryptoConfig(cryptoConfig)
-                .compressionConfig(compressionConfiguration);
+                .compressionConfig(compressionConfiguration)
+                .hedgedReadsConfig(hedgedReadsConfiguration)
+                .localCacheConfig(localCacheConfiguration)
+                .chunkingConfig(chunkingConfiguration);
         } else {
+            Preconditions.checkState(chunkingConfiguration.isEmpty(),
+                "%s requires %s to be true: chunks are shared between blobs", CHUNKING_ENABLE_PROPERTY, DEDUPLICATION_ENABLE_PROPERTY);
             return builder()
                 .implementation(blobStoreImplName)
                 .enableCache(cacheEnabled)
                 .passthrough()
                 .cryptoConfig(cryptoConfig)
-                .compressionConfig(compressionConfiguration);
+                .compressionConfig(compressionConfiguration)
+                .hedgedReadsConfig(hedgedReadsConfiguration)
+                .localCacheConfig(localCacheConfiguration);
         }
     }
 
@@ -255,6 +301,47 @@ public class BlobStoreConfiguration {
             .build();
     }
 
+    private static HedgedReadsConfiguration parseHedgedReadsConfiguration(Configuration configuration) {
+        return HedgedReadsConfiguration.builder()
+            .enabled(configuration.getBoolean(HEDGED_READS_ENABLE_PROPERTY, HedgedReadsConfiguration.DISABLED))
+            .delay(Optional.ofNullable(configuration.getString(HEDGED_READS_DELAY_PROPERTY, null))
+                .map(StringUtils::trim)
+                .filter(StringUtils::isNotBlank)
+                .map(value -> DurationParser.parse(value, ChronoUnit.MILLIS))
+                .orElse(HedgedReadsConfiguration.DEFAULT_DELAY))
+            .budgetRatio(configuration.getDouble(HEDGED_READS_BUDGET_RATIO_PROPERTY, HedgedReadsConfiguration.DEFAULT_BUDGET_RATIO))
+            .build();
+    }
+
+    private static Optional<LocalCacheConfiguration> parseLocalCacheConfiguration(Configuration configuration) {
+        if (!configuration.getBoolean(LOCAL_CACHE_ENABLE_PROPERTY, false)) {
+            return Optional.empty();
+        }
+        return Optional.of(new LocalCacheConfiguration(
+            configuration.getString(LOCAL_CACHE_DIRECTORY_PROPERTY, LocalCacheConfiguration.DEFAULT_DIRECTORY),
+            parseSize(configuration, LOCAL_CACHE_SIZE_PROPERTY).orElse(LocalDiskCacheConfiguration.DEFAULT_MAX_SIZE),
+            parseSize(configuration, LOCAL_CACHE_MAX_ENTRY_SIZE_PROPERTY).orElse(LocalDiskCacheConfiguration.DEFAULT_MAX_ENTRY_SIZE)));
+    }
+
+    private static Optional<ChunkingConfiguration> parseChunkingConfiguration(Configuration configuration) {
+        if (!configuration.getBoolean(CHUNKING_ENABLE_PROPERTY, false)) {
+            return Optional.empty();
+        }
+        return Optional.of(ChunkingConfiguration.builder()
+            .threshold(Math.toIntExact(parseSize(configuration, CHUNKING_THRESHOLD_PROPERTY).orElse((long) ChunkingConfiguration.DEFAULT_THRESHOLD)))
+            .averageChunkSize(Math.toIntExact(parseSize(configuration, CHUNKING_AVERAGE_CHUNK_SIZE_PROPERTY).orElse((long) ChunkingConfiguration.DEFAULT_AVERAGE_CHUNK_SIZE)))
+            .build());
+    }
+
+    private static Optional<Long> parseSize(Configuration configuration, String property) {
+        return Optional.ofNullable(configuration.getString(property, null))
+            .map(StringUtils::trim)
+            .filter(StringUtils::isNotBlank)
+            .map(StringUtils::deleteWhitespace)
+            .map(Size::parse)
+            .map(Size::asBytes);
+    }
+
     @VisibleForTesting
     public static RequireStoringStrategy cassandra() {
         return builder()
@@ -271,6 +358,9 @@ public class BlobStoreConfiguration {
     private final StorageStrategy storageStrategy;
     private final Optional<CryptoConfig> cryptoConfig;
     private final CompressionConfiguration compressionConfiguration;
+    private final HedgedReadsConfiguration hedgedReadsConfiguration;
+    private final Optional<LocalCacheConfiguration> localCacheConfiguration;
+    private final Optional<ChunkingConfiguration> chunkingConfiguration;
 
     BlobStoreConfiguration(BlobStoreImplName implementation, boolean cacheEnabled, StorageStrategy storageStrategy, Optional<CryptoConfig> cryptoConfig) {
         this(implementation, cacheEnabled, storageStrategy, cryptoConfig, CompressionConfiguration.disabled());
@@ -278,11 +368,33 @@ public class BlobStoreConfiguration {
 
     BlobStoreConfiguration(BlobStoreImplName implementation, boolean cacheEnabled, StorageStrategy storageStrategy,
                            Optional<CryptoConfig> cryptoConfig, CompressionConfiguration compressionConfiguration) {
+        this(implementation, cacheEnabled, storageStrategy, cryptoConfig, compressionConfiguration, HedgedReadsConfiguration.disabled());
+    }
+
+    BlobStoreConfiguration(BlobStoreImplName implementation, boolean cacheEnabled, StorageStrategy storageStrategy,
+                           Optional<CryptoConfig> cryptoConfig, CompressionConfiguration compressionConfiguration,
+                           HedgedReadsConfiguration hedgedReadsConfiguration) {
+        this(implementation, cacheEnabled, storageStrategy, cryptoConfig, compressionConfiguration, hedgedReadsConfiguration, Optional.empty());
+    }
+
+    BlobStoreConfiguration(BlobStoreImplName implementation, boolean cacheEnabled, StorageStrategy storageStrategy,
+                           Optional<CryptoConfig> cryptoConfig, CompressionConfiguration compressionConfiguration,
+                           HedgedReadsConfiguration hedgedReadsConfiguration, Optional<LocalCacheConfiguration> localCacheConfiguration) {
+        this(implementation, cacheEnabled, storageStrategy, cryptoConfig, compressionConfiguration, hedgedReadsConfiguration, localCacheConfiguration, Optional.empty());
+    }
+
+    BlobStoreConfiguration(BlobStoreImplName implementation, boolean cacheEnabled, StorageStrategy storageStrategy,
+                           Optional<CryptoConfig> cryptoConfig, CompressionConfiguration compressionConfiguration,
+                           HedgedReadsConfiguration hedgedReadsConfiguration, Optional<LocalCacheConfiguration> localCacheConfiguration,
+                           Optional<ChunkingConfiguration> chunkingConfiguration) {
         this.implementation = implementation;
         this.cacheEnabled = cacheEnabled;
         this.storageStrategy = storageStrategy;
         this.cryptoConfig = cryptoConfig;
         this.compressionConfiguration = compressionConfiguration;
+        this.hedgedReadsConfiguration = hedgedReadsConfiguration;
+        this.localCacheConfiguration = localCacheConfiguration;
+        this.chunkingConfiguration = chunkingConfiguration;
     }
 
     public boolean cacheEnabled() {
@@ -305,8 +417,32 @@ public class BlobStoreConfiguration {
         return compressionConfiguration;
     }
 
+    public HedgedReadsConfiguration getHedgedReadsConfiguration() {
+        return hedgedReadsConfiguration;
+    }
+
+    public Optional<LocalCacheConfiguration> getLocalCacheConfiguration() {
+        return localCacheConfiguration;
+    }
+
+    public Optional<ChunkingConfiguration> getChunkingConfiguration() {
+        return chunkingConfiguration;
+    }
+
     public BlobStoreConfiguration compressionConfig(CompressionConfiguration compressionConfiguration) {
-        return new BlobStoreConfiguration(implementation, cacheEnabled, storageStrategy, cryptoConfig, compressionConfiguration);
+        return new BlobStoreConfiguration(implementation, cacheEnabled, storageStrategy, cryptoConfig, compressionConfiguration, hedgedReadsConfiguration, localCacheConfiguration, chunkingConfiguration);
+    }
+
+    public BlobStoreConfiguration hedgedReadsConfig(HedgedReadsConfiguration hedgedReadsConfiguration) {
+        return new BlobStoreConfiguration(implementation, cacheEnabled, storageStrategy, cryptoConfig, compressionConfiguration, hedgedReadsConfiguration, localCacheConfiguration, chunkingConfiguration);
+    }
+
+    public BlobStoreConfiguration localCacheConfig(Optional<LocalCacheConfiguration> localCacheConfiguration) {
+        return new BlobStoreConfiguration(implementation, cacheEnabled, storageStrategy, cryptoConfig, compressionConfiguration, hedgedReadsConfiguration, localCacheConfiguration, chunkingConfiguration);
+    }
+
+    public BlobStoreConfiguration chunkingConfig(Optional<ChunkingConfiguration> chunkingConfiguration) {
+        return new BlobStoreConfiguration(implementation, cacheEnabled, storageStrategy, cryptoConfig, compressionConfiguration, hedgedReadsConfiguration, localCacheConfiguration, chunkingConfiguration);
     }
 
     @Override
@@ -318,14 +454,17 @@ public class BlobStoreConfiguration {
                 && Objects.equals(this.cacheEnabled, that.cacheEnabled)
                 && Objects.equals(this.storageStrategy, that.storageStrategy)
                 && Objects.equals(this.cryptoConfig, that.cryptoConfig)
-                && Objects.equals(this.compressionConfiguration, that.compressionConfiguration);
+                && Objects.equals(this.compressionConfiguration, that.compressionConfiguration)
+                && Objects.equals(this.hedgedReadsConfiguration, that.hedgedReadsConfiguration)
+                && Objects.equals(this.localCacheConfiguration, that.localCacheConfiguration)
+                && Objects.equals(this.chunkingConfiguration, that.chunkingConfiguration);
         }
         return false;
     }
 
     @Override
     public final int hashCode() {
-        return Objects.hash(implementation, cacheEnabled, storageStrategy, cryptoConfig, compressionConfiguration);
+        return Objects.hash(implementation, cacheEnabled, storageStrategy, cryptoConfig, compressionConfiguration, hedgedReadsConfiguration, localCacheConfiguration, chunkingConfiguration);
     }
 
     @Override
@@ -336,6 +475,9 @@ public class BlobStoreConfiguration {
             .add("storageStrategy", storageStrategy.name())
             .add("cryptoConfig", cryptoConfig)
             .add("compressionConfiguration", compressionConfiguration)
+            .add("hedgedReadsConfiguration", hedgedReadsConfiguration)
+            .add("localCacheConfiguration", localCacheConfiguration)
+            .add("chunkingConfiguration", chunkingConfiguration)
             .toString();
     }
 }
@@ -19,6 +19,7 @@
 
 package org.apache.james.modules.blobstore;
 
+import java.io.IOException;
 import java.security.NoSuchAlgorithmException;
 import java.security.spec.InvalidKeySpecException;
 import java.util.List;
@@ -26,12 +27,16 @@ import java.util.Optional;
 
 import org.apache.james.blob.aes.AESBlobStoreDAO;
 import org.apache.james.blob.aes.CryptoConfig;
+import org.apache.james.blob.api.BlobId;
 import org.apache.james.blob.api.BlobStore;
 import org.apache.james.blob.api.BlobStoreDAO;
+import org.apache.james.blob.api.HedgedReadsBlobStoreDAO;
+import org.apache.james.blob.api.HedgedReadsConfiguration;
 import org.apache.james.blob.api.ObjectStorageHealthCheck;
 import org.apache.james.blob.cassandra.CassandraBlobStoreDAO;
 import org.apache.james.blob.cassandra.cache.CachedBlobStore;
 import org.apache.james.blob.file.FileBlobStoreDAO;
+import org.apache.james.blob.file.LocalDiskCacheBlobStoreDAO;
 import org.apache.james.blob.objectstorage.aws.S3BlobStoreConfiguration;
 import org.apache.james.blob.objectstorage.aws.S3BlobStoreDAO;
 import org.apache.james.blob.objectstorage.aws.S3RequestOption;
@@ -42,6 +47,8 @@ import org.apache.james.blob.postgres.PostgresBlobStoreDAO;
 import org.apache.james.blob.zstd.CompressionConfiguration;
 import org.apache.james.blob.zstd.ZstdBlobStoreDAO;
 import org.apache.james.core.healthcheck.HealthCheck;
+import org.apache.james.filesystem.api.FileSystem;
+import org.apache.james.metrics.api.GaugeRegistry;
 import org.apache.james.metrics.api.MetricFactory;
 import org.apache.james.modules.blobstore.validation.BlobStoreConfigurationValidationStartUpCheck.StorageStrategySupplier;
 import org.apache.james.modules.blobstore.validation.StoragePolicyConfigurationSanityEnforcementModule;
@@ -50,11 +57,14 @@ import org.apache.james.modules.mailbox.CassandraBlobStoreDependenciesModule;
 import org.apache.james.modules.mailbox.DefaultBucketModule;
 import org.apache.james.modules.objectstorage.S3BlobStoreModule;
 import org.apache.james.modules.objectstorage.S3BucketModule;
+import org.apache.james.server.blob.deduplication.ChunkingBlobStore;
+import org.apache.james.server.blob.deduplication.ChunkingConfiguration;
 import org.apache.james.server.blob.deduplication.DeDuplicationBlobStore;
 import org.apache.james.server.blob.deduplication.PassThroughBlobStore;
 import org.apache.james.server.blob.deduplication.StorageStrategy;
 import org.apache.james.server.core.MissingArgumentException;
 
+import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
 import com.google.inject.AbstractModule;
 import com.google.inject.Module;
@@ -69,6 +79,8 @@ import modules.BlobPostgresModule;
 
 public class BlobStoreModulesChooser {
     private static final String RAW = "raw";
+    private static final String HEDGED = "hedged";
+    private static final String LOCAL_CACHE = "local-cache";
     private static final String ENCRYPTION = "encryption";
 
     static class CassandraBlobStoreDAODeclarationModule extends AbstractModule {
@@ -153,15 +165,64 @@ public class BlobStoreModulesChooser {
         }
     }
 
-    static class NoEncryptionModule extends AbstractModule {
+    static class NoHedgedReadsModule extends AbstractModule {
         @Provides
         @Singleton
-        @Named(ENCRYPTION)
+        @Named(HEDGED)
         BlobStoreDAO blobStoreDAO(@Named(RAW) BlobStoreDAO raw) {
             return raw;
         }
     }
 
+    static class HedgedReadsModule extends AbstractModule {
+        private final HedgedReadsConfiguration hedgedReadsConfiguration;
+
+        HedgedReadsModule(HedgedReadsConfiguration hedgedReadsConfiguration) {
+            this.hedgedReadsConfiguration = hedgedReadsConfiguration;
+        }
+
+        @Provides
+        @Singleton
+        @Named(HEDGED)
+        BlobStoreDAO blobStoreDAO(@Named(RAW) BlobStoreDAO raw, MetricFactory metricFactory) {
+            return new HedgedReadsBlobStoreDAO(raw, hedgedReadsConfiguration, metricFactory);
+        }
+    }
+
+    static class NoLocalCacheModule extends AbstractModule {
+        @Provides
+        @Singleton
+        @Named(LOCAL_CACHE)
+        BlobStoreDAO blobStoreDAO(@Named(HEDGED) BlobStoreDAO hedged) {
+            return hedged;
+        }
+    }
+
+    static class LocalCacheModule extends AbstractModule {
+        private final BlobStoreConfiguration.LocalCacheConfiguration localCacheConfiguration;
+
+        LocalCacheModule(BlobStoreConfiguration.LocalCacheConfiguration localCacheConfiguration) {
+            this.localCacheConfiguration = localCacheConfiguration;
+        }
+
+        @Provides
+        @Singleton
+        @Named(LOCAL_CACHE)
+        BlobStoreDAO blobStoreDAO(@Named(HEDGED) BlobStoreDAO hedged, FileSystem fileSystem, MetricFactory metricFactory,
+                                  GaugeRegistry gaugeRegistry) throws IOException {
+            return new LocalDiskCacheBlobStoreDAO(hedged, localCacheConfiguration.resolve(fileSystem), metricFactory, gaugeRegistry);
+        }
+    }
+
+    static class NoEncryptionModule extends AbstractModule {
+        @Provides
+        @Singleton
+        @Named(ENCRYPTION)
+        BlobStoreDAO blobStoreDAO(@Named(LOCAL_CACHE) BlobStoreDAO localCache) {
+            return localCache;
+        }
+    }
+
     static class EncryptionModule extends AbstractModule {
         private final CryptoConfig cryptoConfig;
 
@@ -172,8 +233,8 @@ public class BlobStoreModulesChooser {
         @Provides
         @Singleton
         @Named(ENCRYPTION)
-        BlobStoreDAO blobStoreDAO(@Named(RAW) BlobStoreDAO raw) {
-            return new AESBlobStoreDAO(raw, cryptoConfig);
+        BlobStoreDAO blobStoreDAO(@Named(LOCAL_CACHE) BlobStoreDAO localCache) {
+            return new AESBlobStoreDAO(localCache, cryptoConfig);
         }
 
         @Provides
@@ -182,12 +243,29 @@ public class BlobStoreModulesChooser {
         }
     }
 
+    static class ChunkingModule extends AbstractModule {
+        private final ChunkingConfiguration chunkingConfiguration;
+
+        ChunkingModule(ChunkingConfiguration chunkingConfiguration) {
+            this.chunkingConfiguration = chunkingConfiguration;
+        }
+
+        @Provides
+        @Singleton
+        @Named(CachedBlobStore.BACKEND)
+        BlobStore blobStore(DeDuplicationBlobStore deDuplicationBlobStore, BlobId.Factory blobIdFactory) {
+            return new ChunkingBlobStore(deDuplicationBlobStore, blobIdFactory, chunkingConfiguration);
+        }
+    }
+
     public static List<Module> chooseModules(BlobStoreConfiguration choosingConfiguration) {
         return ImmutableList.<Module>builder()
             .add(chooseBlobStoreDAOModule(choosingConfiguration.getImplementation()))
+            .add(chooseHedgedReadsModule(choosingConfiguration.getHedgedReadsConfiguration()))
+            .add(chooseLocalCacheModule(choosingConfiguration.getLocalCacheConfiguration()))
             .add(chooseEncryptionModule(choosingConfiguration.getCryptoConfig()))
             .add(chooseCompressionModule(choosingConfiguration.getCompressionConfiguration()))
-            .addAll(chooseStoragePolicyModule(choosingConfiguration.storageStrategy()))
+            .addAll(chooseStoragePolicyModule(choosingConfiguration.storageStrategy(), choosingConfiguration.getChunkingConfiguration()))
             .add(new StoragePolicyConfigurationSanityEnforcementModule())
             .add(binder -> binder.bind(BlobStoreConfiguration.class).toInstance(choosingConfiguration))
             .add(binder -> binder.bind(StorageStrategySupplier.class).toInstance(choosingConfiguration::storageStrategy))
@@ -209,6 +287,18 @@ public class BlobStoreModulesChooser {
         }
     }
 
+    public static Module chooseHedgedReadsModule(HedgedReadsConfiguration hedgedReadsConfiguration) {
+        if (hedgedReadsConfiguration.enabled()) {
+            return new HedgedReadsModule(hedgedReadsConfiguration);
+        }
+        return new NoHedgedReadsModule();
+    }
+
+    public static Module chooseLocalCacheModule(Optional<BlobStoreConfiguration.LocalCacheConfiguration> localCacheConfiguration) {
+        Optional<Module> localCacheModule = localCacheConfiguration.map(LocalCacheModule::new);
+        return localCacheModule.orElse(new NoLocalCacheModule());
+    }
+
     public static Module chooseEncryptionModule(Optional<CryptoConfig> cryptoConfig) {
         Optional<Module> encryptionModule = cryptoConfig.map(EncryptionModule::new);
         return encryptionModule.orElse(new NoEncryptionModule());
@@ -222,6 +312,14 @@ public class BlobStoreModulesChooser {
     }
 
     public static List<Module> chooseStoragePolicyModule(StorageStrategy storageStrategy) {
+        return chooseStoragePolicyModule(storageStrategy, Optional.empty());
+    }
+
+    public static List<Module> chooseStoragePolicyModule(StorageStrategy storageStrategy, Optional<ChunkingConfiguration> chunkingConfiguration) {
+        if (chunkingConfiguration.isPresent()) {
+            Preconditions.checkArgument(storageStrategy == StorageStrategy.DEDUPLICATION, "Chunking requires deduplication");
+            return ImmutableList.of(new BlobDeduplicationGCModule(), new ChunkingModule(chunkingConfiguration.get()));
+        }
         switch (storageStrategy) {
             case DEDUPLICATION:
                 Module deduplicationBlobModule = binder -> binder.bind(BlobStore.class)
@@ -0,0 +1,64 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.modules.mailbox;
+
+import jakarta.inject.Inject;
+
+import org.apache.james.lifecycle.api.StartUpCheck;
+import org.apache.james.modules.blobstore.validation.BlobStoreConfigurationValidationStartUpCheck.StorageStrategySupplier;
+import org.apache.james.server.blob.deduplication.StorageStrategy;
+import org.apache.james.vault.VaultConfiguration;
+
+/**
+ * Referencing mailbox blobs from the deleted messages vault is only safe when the mailbox does not delete its blobs,
+ * which is the case with a deduplicating blob store.
+ */
+public class DeletedMessageVaultStorageStrategyStartUpCheck implements StartUpCheck {
+    private static final String CHECK_NAME = "deleted-message-vault-storage-strategy";
+
+    private final VaultConfiguration vaultConfiguration;
+    private final StorageStrategySupplier storageStrategySupplier;
+
+    @Inject
+    public DeletedMessageVaultStorageStrategyStartUpCheck(VaultConfiguration vaultConfiguration, StorageStrategySupplier storageStrategySupplier) {
+        this.vaultConfiguration = vaultConfiguration;
+        this.storageStrategySupplier = storageStrategySupplier;
+    }
+
+    @Override
+    public CheckResult check() {
+        if (vaultConfiguration.shouldStoreBlobReferences() && storageStrategySupplier.get() != StorageStrategy.DEDUPLICATION) {
+            return CheckResult.builder()
+                .checkName(CHECK_NAME)
+                .resultType(ResultType.BAD)
+                .description("'storeBlobReferences' in deletedMessageVault.properties requires the 'deduplication' blob store storage strategy")
+                .build();
+        }
+        return CheckResult.builder()
+            .checkName(CHECK_NAME)
+            .resultType(ResultType.GOOD)
+            .build();
+    }
+
+    @Override
+    public String checkName() {
+        return CHECK_NAME;
+    }
+}
@@ -21,6 +21,7 @@ package org.apache.james.modules.mailbox;
 
 import org.apache.james.backends.cassandra.components.CassandraDataDefinition;
 import org.apache.james.events.EventListener;
+import org.apache.james.lifecycle.api.StartUpCheck;
 import org.apache.james.mailbox.cassandra.DeleteMessageListener;
 import org.apache.james.modules.vault.DeletedMessageVaultModule;
 import org.apache.james.vault.DeletedMessageVault;
@@ -67,5 +68,9 @@ public class DistributedDeletedMessageVaultModule extends AbstractModule {
         Multibinder.newSetBinder(binder(), EventListener.ReactiveGroupEventListener.class, Names.named(DeleteMessageListener.CONTENT_DELETION))
             .addBinding()
             .to(DeletedMessageVaultDeletionListener.class);
+
+        Multibinder.newSetBinder(binder(), StartUpCheck.class)
+            .addBinding()
+            .to(DeletedMessageVaultStorageStrategyStartUpCheck.class);
     }
 }
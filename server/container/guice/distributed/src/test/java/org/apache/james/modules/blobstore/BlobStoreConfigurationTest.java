@@ -23,11 +23,15 @@ import static org.apache.james.modules.blobstore.BlobStoreConfiguration.parse;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
+import java.time.Duration;
+
 import org.apache.commons.configuration2.PropertiesConfiguration;
 import org.apache.james.FakePropertiesProvider;
 import org.apache.james.blob.aes.CryptoConfig;
+import org.apache.james.blob.api.HedgedReadsConfiguration;
 import org.apache.james.blob.zstd.CompressionConfiguration;
 import org.apache.james.modules.mailbox.ConfigurationComponent;
+import org.apache.james.server.blob.deduplication.ChunkingConfiguration;
 import org.apache.james.server.blob.deduplication.StorageStrategy;
 import org.junit.jupiter.api.Test;
 
@@ -191,6 +195,161 @@ class BlobStoreConfigurationTest {
                 .build());
     }
 
+    @Test
+    void hedgedReadsShouldBeDisabledByDefault() throws Exception {
+        PropertiesConfiguration configuration = new PropertiesConfiguration();
+        configuration.addProperty("implementation", "cassandra");
+        configuration.addProperty("deduplication.enable", false);
+        FakePropertiesProvider propertyProvider = FakePropertiesProvider.builder()
+            .register(ConfigurationComponent.NAME, configuration)
+            .build();
+
+        assertThat(parse(propertyProvider).getHedgedReadsConfiguration())
+            .isEqualTo(HedgedReadsConfiguration.disabled());
+    }
+
+    @Test
+    void hedgedReadsCanBeActivated() throws Exception {
+        PropertiesConfiguration configuration = new PropertiesConfiguration();
+        configuration.addProperty("implementation", "s3");
+        configuration.addProperty("deduplication.enable", false);
+        configuration.addProperty("hedged-reads.enable", true);
+        configuration.addProperty("hedged-reads.delay", "250ms");
+        configuration.addProperty("hedged-reads.budget-ratio", 0.1);
+        FakePropertiesProvider propertyProvider = FakePropertiesProvider.builder()
+            .register(ConfigurationComponent.NAME, configuration)
+            .build();
+
+        assertThat(parse(propertyProvider).getHedgedReadsConfiguration())
+            .isEqualTo(HedgedReadsConfiguration.builder()
+                .enabled(true)
+                .delay(Duration.ofMillis(250))
+                .budgetRatio(0.1)
+                .build());
+    }
+
+    @Test
+    void localCacheShouldBeDisabledByDefault() throws Exception {
+        PropertiesConfiguration configuration = new PropertiesConfiguration();
+        configuration.addProperty("implementation", "s3");
+        configuration.addProperty("deduplication.enable", false);
+        FakePropertiesProvider propertyProvider = FakePropertiesProvider.builder()
+            .register(ConfigurationComponent.NAME, configuration)
+            .build();
+
+        assertThat(parse(propertyProvider).getLocalCacheConfiguration())
+            .isEmpty();
+    }
+
+    @Test
+    void localCacheShouldUseDefaultValues() throws Exception {
+        PropertiesConfiguration configuration = new PropertiesConfiguration();
+        configuration.addProperty("implementation", "s3");
+        configuration.addProperty("deduplication.enable", false);
+        configuration.addProperty("local-cache.enable", true);
+        FakePropertiesProvider propertyProvider = FakePropertiesProvider.builder()
+            .register(ConfigurationComponent.NAME, configuration)
+            .build();
+
+        assertThat(parse(propertyProvider).getLocalCacheConfiguration())
+            .contains(new BlobStoreConfiguration.LocalCacheConfiguration("file://var/blob-cache",
+                10L * 1024 * 1024 * 1024, 10L * 1024 * 1024));
+    }
+
+    @Test
+    void localCacheCanBeConfigured() throws Exception {
+        PropertiesConfiguration configuration = new PropertiesConfiguration();
+        configuration.addProperty("implementation", "s3");
+        configuration.addProperty("deduplication.enable", false);
+        configuration.addProperty("local-cache.enable", true);
+        configuration.addProperty("local-cache.directory", "/var/cache/james");
+        configuration.addProperty("local-cache.size", "2G");
+        configuration.addProperty("local-cache.max-entry-size", "1M");
+        FakePropertiesProvider propertyProvider = FakePropertiesProvider.builder()
+            .register(ConfigurationComponent.NAME, configuration)
+            .build();
+
+        assertThat(parse(propertyProvider).getLocalCacheConfiguration())
+            .contains(new BlobStoreConfiguration.LocalCacheConfiguration("/var/cache/james",
+                2L * 1024 * 1024 * 1024, 1024 * 1024));
+    }
+
+    @Test
+    void chunkingShouldBeDisabledByDefault() throws Exception {
+        PropertiesConfiguration configuration = new PropertiesConfiguration();
+        configuration.addProperty("implementation", "s3");
+        configuration.addProperty("deduplication.enable", true);
+        FakePropertiesProvider propertyProvider = FakePropertiesProvider.builder()
+            .register(ConfigurationComponent.NAME, configuration)
+            .build();
+
+        assertThat(parse(propertyProvider).getChunkingConfiguration())
+            .isEmpty();
+    }
+
+    @Test
+    void chunkingCanBeConfigured() throws Exception {
+        PropertiesConfiguration configuration = new PropertiesConfiguration();
+        configuration.addProperty("implementation", "s3");
+        configuration.addProperty("deduplication.enable", true);
+        configuration.addProperty("deduplication.chunking.enable", true);
+        configuration.addProperty("deduplication.chunking.threshold", "8M");
+        configuration.addProperty("deduplication.chunking.average-chunk-size", "512K");
+        FakePropertiesProvider propertyProvider = FakePropertiesProvider.builder()
+            .register(ConfigurationComponent.NAME, configuration)
+            .build();
+
+        assertThat(parse(propertyProvider).getChunkingConfiguration())
+            .contains(ChunkingConfiguration.builder()
+                .threshold(8 * 1024 * 1024)
+                .averageChunkSize(512 * 1024)
+                .build());
+    }
+
+    @Test
+    void chunkingShouldRequireDeduplication() {
+        PropertiesConfiguration configuration = new PropertiesConfiguration();
+        configuration.addProperty("implementation", "s3");
+        configuration.addProperty("deduplication.enable", false);
+        configuration.addProperty("deduplication.chunking.enable", true);
+        FakePropertiesProvider propertyProvider = FakePropertiesProvider.builder()
+            .register(ConfigurationComponent.NAME, configuration)
+            .build();
+
+        assertThatThrownBy(() -> parse(propertyProvider))
+            .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void chunkingShouldRejectAverageChunkSizeNotPowerOfTwo() {
+        PropertiesConfiguration configuration = new PropertiesConfiguration();
+        configuration.addProperty("implementation", "s3");
+        configuration.addProperty("deduplication.enable", true);
+        configuration.addProperty("deduplication.chunking.enable", true);
+        configuration.addProperty("deduplication.chunking.average-chunk-size", "1000K");
+        FakePropertiesProvider propertyProvider = FakePropertiesProvider.builder()
+            .register(ConfigurationComponent.NAME, configuration)
+            .build();
+
+        assertThatThrownBy(() -> parse(propertyProvider))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void hedgedReadsShouldRejectInvalidBudgetRatio() {
+        PropertiesConfiguration configuration = new PropertiesConfiguration();
+        configuration.addProperty("implementation", "s3");
+        configuration.addProperty("deduplication.enable", false);
+        configuration.addProperty("hedged-reads.enable", true);
+        configuration.addProperty("hedged-reads.budget-ratio", 0);
+        FakePropertiesProvider propertyProvider = FakePropertiesProvider.builder()
+            .register(ConfigurationComponent.NAME, configuration)
+            .build();
+
+        assertThatThrownBy(() -> parse(propertyProvider))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
     @Test
     void compressionThresholdShouldAcceptWhitespaceAroundSizeUnit() throws Exception {
         PropertiesConfiguration configuration = new PropertiesConfiguration();
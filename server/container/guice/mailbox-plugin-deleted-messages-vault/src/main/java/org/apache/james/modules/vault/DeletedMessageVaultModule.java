@@ -19,12 +19,20 @@
 
 package org.apache.james.modules.vault;
 
+import jakarta.inject.Provider;
+
+import org.apache.james.blob.api.BlobReferenceSource;
 import org.apache.james.vault.DeletedMessageVault;
+import org.apache.james.vault.VaultConfiguration;
 import org.apache.james.vault.blob.BlobStoreDeletedMessageVault;
 import org.apache.james.vault.blob.BucketNameGenerator;
+import org.apache.james.vault.blob.DeletedMessageVaultBlobReferenceSource;
 
 import com.google.inject.AbstractModule;
 import com.google.inject.Scopes;
+import com.google.inject.multibindings.ProvidesIntoSet;
+
+import reactor.core.publisher.Flux;
 
 public class DeletedMessageVaultModule extends AbstractModule {
     @Override
@@ -37,4 +45,12 @@ public class DeletedMessageVaultModule extends AbstractModule {
         bind(DeletedMessageVault.class)
             .to(BlobStoreDeletedMessageVault.class);
     }
+
+    @ProvidesIntoSet
+    BlobReferenceSource vaultBlobReferenceSource(VaultConfiguration vaultConfiguration, Provider<DeletedMessageVaultBlobReferenceSource> referenceSource) {
+        if (vaultConfiguration.shouldStoreBlobReferences()) {
+            return referenceSource.get();
+        }
+        return Flux::empty;
+    }
 }
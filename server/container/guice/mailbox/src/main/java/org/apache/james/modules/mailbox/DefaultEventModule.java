@@ -93,6 +93,7 @@ public class DefaultEventModule extends AbstractModule {
         HierarchicalConfiguration<ImmutableNode> configuration = configurationProvider.getConfiguration("listeners");
 
         return new EventBus.Configuration(configuration.getInt("maxConcurrency", EventBus.DEFAULT_MAX_CONCURRENCY),
-            Optional.ofNullable(configuration.getString("executionTimeout", null)).map(DurationParser::parse));
+            Optional.ofNullable(configuration.getString("executionTimeout", null)).map(DurationParser::parse),
+            configuration.getInt("batchSize", EventBus.DEFAULT_BATCH_SIZE));
     }
 }
@@ -22,12 +22,15 @@ package org.apache.james.modules.server;
 import org.apache.james.jdkim.api.PublicKeyRecordRetriever;
 import org.apache.james.jdkim.impl.DNSPublicKeyRecordRetriever;
 import org.apache.james.jdkim.impl.MultiplexingPublicKeyRecordRetriever;
+import org.apache.james.jdkim.mailets.PublicKeyRecordCache;
 
 import com.google.inject.AbstractModule;
+import com.google.inject.Scopes;
 
 public class DKIMMailetModule extends AbstractModule {
     @Override
     public void configure() {
         bind(PublicKeyRecordRetriever.class).toInstance(new MultiplexingPublicKeyRecordRetriever("dns", new DNSPublicKeyRecordRetriever()));
+        bind(PublicKeyRecordCache.class).in(Scopes.SINGLETON);
     }
 }
@@ -42,6 +42,9 @@ public class TikaConfigurationReader {
     public static final String TIKA_CACHE_EVICTION_PERIOD = "tika.cache.eviction.period";
     public static final String TIKA_CACHE_WEIGHT_MAX = "tika.cache.weight.max";
     public static final String TIKA_CONTENT_TYPE_BLACKLIST = "tika.contentType.blacklist";
+    public static final String TIKA_SHARED_CACHE_ENABLED = "tika.sharedCache.enabled";
+    public static final String TIKA_SHARED_CACHE_VERSION = "tika.sharedCache.version";
+    public static final String TIKA_SHARED_CACHE_ENTRY_SIZE_MAX = "tika.sharedCache.entry.size.max";
 
     public static TikaConfiguration readTikaConfiguration(Configuration configuration) {
         Optional<Boolean> enabled = Optional.ofNullable(
@@ -69,6 +72,17 @@ public class TikaConfigurationReader {
             .map(Size::parse)
             .map(Size::asBytes);
 
+        Optional<Boolean> sharedCacheEnabled = Optional.ofNullable(
+            configuration.getBoolean(TIKA_SHARED_CACHE_ENABLED, null));
+
+        Optional<String> sharedCacheVersion = Optional.ofNullable(
+            configuration.getString(TIKA_SHARED_CACHE_VERSION, null));
+
+        Optional<Long> sharedCacheEntrySize = Optional.ofNullable(
+            configuration.getString(TIKA_SHARED_CACHE_ENTRY_SIZE_MAX, null))
+            .map(Size::parse)
+            .map(Size::asBytes);
+
         Set<MimeType> contentTypeBlacklist = StreamUtils
             .ofNullable(configuration.getStringArray(TIKA_CONTENT_TYPE_BLACKLIST))
             .map(String::trim)
@@ -83,6 +97,9 @@ public class TikaConfigurationReader {
             .cacheEnable(cacheEnabled)
             .cacheEvictionPeriod(cacheEvictionPeriod)
             .cacheWeightInBytes(cacheWeight)
+            .sharedCacheEnable(sharedCacheEnabled)
+            .sharedCacheVersion(sharedCacheVersion)
+            .sharedCacheMaxEntrySizeInBytes(sharedCacheEntrySize)
             .contentTypeBlacklist(contentTypeBlacklist)
             .build();
     }
@@ -22,12 +22,16 @@ package org.apache.james.modules.mailbox;
 import java.io.FileNotFoundException;
 import java.net.URISyntaxException;
 
+import jakarta.inject.Inject;
 import jakarta.inject.Singleton;
 
 import org.apache.commons.configuration2.Configuration;
 import org.apache.commons.configuration2.ex.ConfigurationException;
+import org.apache.james.blob.api.BlobStore;
+import org.apache.james.lifecycle.api.Startable;
 import org.apache.james.mailbox.extractor.TextExtractor;
 import org.apache.james.mailbox.store.extractor.JsoupTextExtractor;
+import org.apache.james.mailbox.tika.BlobStoreCachingTextExtractor;
 import org.apache.james.mailbox.tika.CachingTextExtractor;
 import org.apache.james.mailbox.tika.ContentTypeFilteringTextExtractor;
 import org.apache.james.mailbox.tika.TikaConfiguration;
@@ -36,6 +40,8 @@ import org.apache.james.mailbox.tika.TikaHttpClientImpl;
 import org.apache.james.mailbox.tika.TikaTextExtractor;
 import org.apache.james.metrics.api.GaugeRegistry;
 import org.apache.james.metrics.api.MetricFactory;
+import org.apache.james.utils.InitializationOperation;
+import org.apache.james.utils.InitilizationOperationBuilder;
 import org.apache.james.utils.PropertiesProvider;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -43,9 +49,34 @@ import org.slf4j.LoggerFactory;
 import com.google.inject.AbstractModule;
 import com.google.inject.Provides;
 import com.google.inject.Scopes;
+import com.google.inject.multibindings.ProvidesIntoSet;
+
+import reactor.core.scheduler.Schedulers;
 
 public class TikaMailboxModule extends AbstractModule {
 
+    static class SharedCachePurger implements Startable {
+        private final TikaConfiguration configuration;
+        private final BlobStore blobStore;
+
+        @Inject
+        SharedCachePurger(TikaConfiguration configuration, BlobStore blobStore) {
+            this.configuration = configuration;
+            this.blobStore = blobStore;
+        }
+
+        void purge() {
+            if (configuration.isEnabled() && configuration.isSharedCacheEnabled()) {
+                // Runs in the background as it lists the whole bucket
+                BlobStoreCachingTextExtractor.purgeOtherVersions(blobStore, configuration.getSharedCacheVersion())
+                    .subscribeOn(Schedulers.boundedElastic())
+                    .subscribe(
+                        count -> LOGGER.info("Purged {} Tika shared cache entries of previous versions.", count),
+                        e -> LOGGER.warn("Failed purging the Tika shared cache entries of previous versions.", e));
+            }
+        }
+    }
+
     private static final Logger LOGGER = LoggerFactory.getLogger(TikaMailboxModule.class);
 
     private static final String TIKA_CONFIGURATION_NAME = "tika";
@@ -78,8 +109,9 @@ public class TikaMailboxModule extends AbstractModule {
 
     @Provides
     @Singleton
-    private TextExtractor provideTextExtractor(TikaTextExtractor textExtractor, TikaConfiguration configuration,
-                                               MetricFactory metricFactory, GaugeRegistry gaugeRegistry) {
+    private TextExtractor provideTextExtractor(TikaTextExtractor tikaTextExtractor, TikaConfiguration configuration,
+                                               BlobStore blobStore, MetricFactory metricFactory, GaugeRegistry gaugeRegistry) {
+        TextExtractor textExtractor = sharedCache(tikaTextExtractor, configuration, blobStore, metricFactory);
         if (configuration.isEnabled() && configuration.isCacheEnabled()) {
             LOGGER.info("Tika cache has been enabled.");
             return new ContentTypeFilteringTextExtractor(
@@ -99,4 +131,23 @@ public class TikaMailboxModule extends AbstractModule {
         return new JsoupTextExtractor();
     }
 
+    private TextExtractor sharedCache(TikaTextExtractor textExtractor, TikaConfiguration configuration, BlobStore blobStore, MetricFactory metricFactory) {
+        if (configuration.isEnabled() && configuration.isSharedCacheEnabled()) {
+            LOGGER.info("Tika shared cache has been enabled, version {}.", configuration.getSharedCacheVersion());
+            return new BlobStoreCachingTextExtractor(
+                textExtractor,
+                blobStore,
+                configuration.getSharedCacheVersion(),
+                configuration.getSharedCacheMaxEntrySizeInBytes(),
+                metricFactory);
+        }
+        return textExtractor;
+    }
+
+    @ProvidesIntoSet
+    InitializationOperation purgeSharedCache(SharedCachePurger instance) {
+        return InitilizationOperationBuilder
+            .forClass(SharedCachePurger.class)
+            .init(instance::purge);
+    }
 }
@@ -55,6 +55,25 @@ class TikaConfigurationReaderTest {
                     .build());
     }
 
+    @Test
+    void readTikaConfigurationShouldReadSharedCacheValues() throws Exception {
+        PropertiesConfiguration configuration = newConfiguration();
+        configuration.read(new StringReader(
+            "tika.enabled=true\n" +
+            "tika.sharedCache.enabled=true\n" +
+            "tika.sharedCache.version=tika-2.9\n" +
+            "tika.sharedCache.entry.size.max=2M\n"));
+
+        assertThat(TikaConfigurationReader.readTikaConfiguration(configuration))
+            .isEqualTo(
+                TikaConfiguration.builder()
+                    .enabled()
+                    .sharedCacheEnabled()
+                    .sharedCacheVersion("tika-2.9")
+                    .sharedCacheMaxEntrySizeInBytes(2L * 1024L * 1024L)
+                    .build());
+    }
+
     @Test
     void readTikaConfigurationShouldReturnDefaultOnMissingHost() throws Exception {
         PropertiesConfiguration configuration = newConfiguration();
@@ -67,8 +67,10 @@ import org.apache.james.imap.processor.PermitEnableCapabilityProcessor;
 import org.apache.james.imap.processor.SelectProcessor;
 import org.apache.james.imap.processor.StatusProcessor;
 import org.apache.james.imap.processor.base.AbstractProcessor;
+import org.apache.james.imap.processor.base.MailboxFlagsIndex;
 import org.apache.james.imap.processor.base.UnknownRequestProcessor;
 import org.apache.james.imap.processor.fetch.FetchProcessor;
+import org.apache.james.imap.processor.fetch.FetchResponseCache;
 import org.apache.james.imapserver.netty.IMAPHealthCheck;
 import org.apache.james.imapserver.netty.IMAPServerFactory;
 import org.apache.james.lifecycle.api.ConfigurationSanitizer;
@@ -124,6 +126,8 @@ public class IMAPServerModule extends AbstractModule {
         bind(NamespaceSupplier.class).to(NamespaceSupplier.Default.class).in(Scopes.SINGLETON);
         bind(PathConverter.Factory.class).to(PathConverter.Factory.Default.class).in(Scopes.SINGLETON);
         bind(MailboxTyper.class).to(DefaultMailboxTyper.class).in(Scopes.SINGLETON);
+        bind(FetchResponseCache.class).in(Scopes.SINGLETON);
+        bind(MailboxFlagsIndex.class).in(Scopes.SINGLETON);
 
         Multibinder.newSetBinder(binder(), GuiceProbe.class).addBinding().to(ImapGuiceProbe.class);
 
@@ -292,6 +296,16 @@ public class IMAPServerModule extends AbstractModule {
             return FetchProcessor.LocalCacheConfiguration.from(configurationProvider.getConfiguration("imapserver"));
     }
 
+    @Provides
+    FetchResponseCache.Configuration provideFetchResponseCacheConfiguration(ConfigurationProvider configurationProvider) throws ConfigurationException {
+        return FetchResponseCache.Configuration.from(configurationProvider.getConfiguration("imapserver"));
+    }
+
+    @Provides
+    MailboxFlagsIndex.Configuration provideMailboxFlagsIndexConfiguration(ConfigurationProvider configurationProvider) throws ConfigurationException {
+        return MailboxFlagsIndex.Configuration.from(configurationProvider.getConfiguration("imapserver"));
+    }
+
     private void configureEnable(EnableProcessor enableProcessor, ImmutableMap<Class, ImapProcessor> processorMap) {
         processorMap.values().stream()
             .filter(CapabilityProcessor.class::isInstance)
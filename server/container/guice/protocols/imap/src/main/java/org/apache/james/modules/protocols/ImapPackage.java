@@ -50,16 +50,19 @@ import org.apache.james.imap.decode.parser.MoveCommandParser;
 import org.apache.james.imap.decode.parser.MyRightsCommandParser;
 import org.apache.james.imap.decode.parser.NamespaceCommandParser;
 import org.apache.james.imap.decode.parser.NoopCommandParser;
+import org.apache.james.imap.decode.parser.NotifyCommandParser;
 import org.apache.james.imap.decode.parser.RenameCommandParser;
 import org.apache.james.imap.decode.parser.SearchCommandParser;
 import org.apache.james.imap.decode.parser.SelectCommandParser;
 import org.apache.james.imap.decode.parser.SetACLCommandParser;
 import org.apache.james.imap.decode.parser.SetAnnotationCommandParser;
 import org.apache.james.imap.decode.parser.SetQuotaCommandParser;
+import org.apache.james.imap.decode.parser.SortCommandParser;
 import org.apache.james.imap.decode.parser.StartTLSCommandParser;
 import org.apache.james.imap.decode.parser.StatusCommandParser;
 import org.apache.james.imap.decode.parser.StoreCommandParser;
 import org.apache.james.imap.decode.parser.SubscribeCommandParser;
+import org.apache.james.imap.decode.parser.ThreadCommandParser;
 import org.apache.james.imap.decode.parser.UidCommandParser;
 import org.apache.james.imap.decode.parser.UnselectCommandParser;
 import org.apache.james.imap.decode.parser.UnsubscribeCommandParser;
@@ -86,7 +89,9 @@ import org.apache.james.imap.encode.QuotaResponseEncoder;
 import org.apache.james.imap.encode.QuotaRootResponseEncoder;
 import org.apache.james.imap.encode.RecentResponseEncoder;
 import org.apache.james.imap.encode.SearchResponseEncoder;
+import org.apache.james.imap.encode.SortResponseEncoder;
 import org.apache.james.imap.encode.StatusResponseEncoder;
+import org.apache.james.imap.encode.ThreadResponseEncoder;
 import org.apache.james.imap.encode.VanishedResponseEncoder;
 import org.apache.james.imap.encode.XListResponseEncoder;
 import org.apache.james.imap.processor.AppendProcessor;
@@ -117,16 +122,19 @@ import org.apache.james.imap.processor.MoveProcessor;
 import org.apache.james.imap.processor.MyRightsProcessor;
 import org.apache.james.imap.processor.NamespaceProcessor;
 import org.apache.james.imap.processor.NoopProcessor;
+import org.apache.james.imap.processor.NotifyProcessor;
 import org.apache.james.imap.processor.RenameProcessor;
 import org.apache.james.imap.processor.SearchProcessor;
 import org.apache.james.imap.processor.SelectProcessor;
 import org.apache.james.imap.processor.SetACLProcessor;
 import org.apache.james.imap.processor.SetMetadataProcessor;
 import org.apache.james.imap.processor.SetQuotaProcessor;
+import org.apache.james.imap.processor.SortProcessor;
 import org.apache.james.imap.processor.StartTLSProcessor;
 import org.apache.james.imap.processor.StatusProcessor;
 import org.apache.james.imap.processor.StoreProcessor;
 import org.apache.james.imap.processor.SubscribeProcessor;
+import org.apache.james.imap.processor.ThreadProcessor;
 import org.apache.james.imap.processor.UnselectProcessor;
 import org.apache.james.imap.processor.UnsubscribeProcessor;
 import org.apache.james.imap.processor.XListProcessor;
@@ -224,8 +232,11 @@ public interface ImapPackage {
                     XListProcessor.class,
                     ListProcessor.class,
                     SearchProcessor.class,
+                    SortProcessor.class,
+                    ThreadProcessor.class,
                     SelectProcessor.class,
                     NamespaceProcessor.class,
+                    NotifyProcessor.class,
                     FetchProcessor.class,
                     StartTLSProcessor.class,
                     UnselectProcessor.class,
@@ -264,6 +275,7 @@ public interface ImapPackage {
                     StatusCommandParser.class,
                     AppendCommandParser.class,
                     NamespaceCommandParser.class,
+                    NotifyCommandParser.class,
                     GetACLCommandParser.class,
                     SetACLCommandParser.class,
                     DeleteACLCommandParser.class,
@@ -275,6 +287,8 @@ public interface ImapPackage {
                     CopyCommandParser.class,
                     MoveCommandParser.class,
                     SearchCommandParser.class,
+                    SortCommandParser.class,
+                    ThreadCommandParser.class,
                     FetchCommandParser.class,
                     StoreCommandParser.class,
                     UidCommandParser.class,
@@ -306,6 +320,8 @@ public interface ImapPackage {
                     ExistsResponseEncoder.class,
                     MailboxStatusResponseEncoder.class,
                     SearchResponseEncoder.class,
+                    SortResponseEncoder.class,
+                    ThreadResponseEncoder.class,
                     LSubResponseEncoder.class,
                     XListResponseEncoder.class,
                     FlagsResponseEncoder.class,
@@ -62,6 +62,7 @@ import org.apache.james.jmap.method.EmailChangesMethod;
 import org.apache.james.jmap.method.EmailGetMethod;
 import org.apache.james.jmap.method.EmailImportMethod;
 import org.apache.james.jmap.method.EmailParseMethod;
+import org.apache.james.jmap.method.EmailQueryChangesMethod;
 import org.apache.james.jmap.method.EmailQueryMethod;
 import org.apache.james.jmap.method.EmailQueryOptimizer;
 import org.apache.james.jmap.method.EmailQueryViewOptimizer;
@@ -148,6 +149,7 @@ public class RFC8621MethodsModule extends AbstractModule {
         methods.addBinding().to(EmailChangesMethod.class);
         methods.addBinding().to(EmailImportMethod.class);
         methods.addBinding().to(EmailGetMethod.class);
+        methods.addBinding().to(EmailQueryChangesMethod.class);
         methods.addBinding().to(EmailQueryMethod.class);
         methods.addBinding().to(EmailParseMethod.class);
         methods.addBinding().to(EmailSetMethod.class);
@@ -0,0 +1,397 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+
+package org.apache.james.util.concurrency;
+
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.publisher.SignalType;
+
+/**
+ * Limits the number of concurrent calls toward a backend, adapting the limit to the observed latency and errors
+ * (Additive Increase Multiplicative Decrease).
+ *
+ * Each successful call completing under the latency threshold increases the limit by 1 / limit, which adds up to one
+ * more concurrent call once a full limit worth of calls succeeded. Each call exceeding the latency threshold, or
+ * failing with an overload error, multiplies the limit by the backoff ratio. The limit stays within the configured
+ * bounds.
+ *
+ * Calls exceeding the limit are queued, up to the maximum queue size, after which they are rejected with a
+ * {@link LimitExceededException}.
+ *
+ * Callers either wrap their reactive calls with {@link #limit(Mono)}, or rely on {@link #tryAcquire()} then report the
+ * outcome of each acquired call with {@link #onSuccess(long)}, {@link #onDropped()} or {@link #onIgnored()}.
+ */
+public class AdaptiveConcurrencyLimiter {
+    public static class LimitExceededException extends RuntimeException {
+        public LimitExceededException(String message) {
+            super(message);
+        }
+    }
+
+    public static class Configuration {
+        public static class Builder {
+            private int minLimit = DEFAULT_MIN_LIMIT;
+            private int maxLimit = DEFAULT_MAX_LIMIT;
+            private int initialLimit = DEFAULT_INITIAL_LIMIT;
+            private double backoffRatio = DEFAULT_BACKOFF_RATIO;
+            private Duration latencyThreshold = DEFAULT_LATENCY_THRESHOLD;
+            private int maxQueueSize = DEFAULT_MAX_QUEUE_SIZE;
+            private Predicate<Throwable> isOverloadError = DEFAULT_OVERLOAD_ERROR;
+
+            public Builder minLimit(int minLimit) {
+                this.minLimit = minLimit;
+                return this;
+            }
+
+            public Builder maxLimit(int maxLimit) {
+                this.maxLimit = maxLimit;
+                return this;
+            }
+
+            public Builder initialLimit(int initialLimit) {
+                this.initialLimit = initialLimit;
+                return this;
+            }
+
+            public Builder backoffRatio(double backoffRatio) {
+                this.backoffRatio = backoffRatio;
+                return this;
+            }
+
+            public Builder latencyThreshold(Duration latencyThreshold) {
+                this.latencyThreshold = latencyThreshold;
+                return this;
+            }
+
+            public Builder maxQueueSize(int maxQueueSize) {
+                this.maxQueueSize = maxQueueSize;
+                return this;
+            }
+
+            public Builder overloadError(Predicate<Throwable> isOverloadError) {
+                this.isOverloadError = isOverloadError;
+                return this;
+            }
+
+            public Configuration build() {
+                Preconditions.checkArgument(minLimit > 0, "'minLimit' needs to be strictly positive");
+                Preconditions.checkArgument(maxLimit >= minLimit, "'maxLimit' needs to be greater than or equal to 'minLimit'");
+                Preconditions.checkArgument(initialLimit >= minLimit && initialLimit <= maxLimit, "'initialLimit' needs to be between 'minLimit' and 'maxLimit'");
+                Preconditions.checkArgument(backoffRatio > 0 && backoffRatio < 1, "'backoffRatio' needs to be strictly between 0 and 1");
+                Preconditions.checkArgument(!latencyThreshold.isNegative() && !latencyThreshold.isZero(), "'latencyThreshold' needs to be strictly positive");
+                Preconditions.checkArgument(maxQueueSize >= 0, "'maxQueueSize' needs to be positive");
+                Preconditions.checkNotNull(isOverloadError);
+
+                return new Configuration(minLimit, maxLimit, initialLimit, backoffRatio, latencyThreshold, maxQueueSize, isOverloadError);
+            }
+        }
+
+        public static final int DEFAULT_MIN_LIMIT = 4;
+        public static final int DEFAULT_MAX_LIMIT = 256;
+        public static final int DEFAULT_INITIAL_LIMIT = 32;
+        public static final double DEFAULT_BACKOFF_RATIO = 0.9;
+        public static final Duration DEFAULT_LATENCY_THRESHOLD = Duration.ofSeconds(1);
+        public static final int DEFAULT_MAX_QUEUE_SIZE = 10_000;
+        public static final Predicate<Throwable> DEFAULT_OVERLOAD_ERROR = TimeoutException.class::isInstance;
+
+        public static Builder builder() {
+            return new Builder();
+        }
+
+        private final int minLimit;
+        private final int maxLimit;
+        private final int initialLimit;
+        private final double backoffRatio;
+        private final Duration latencyThreshold;
+        private final int maxQueueSize;
+        private final Predicate<Throwable> isOverloadError;
+
+        private Configuration(int minLimit, int maxLimit, int initialLimit, double backoffRatio, Duration latencyThreshold,
+                              int maxQueueSize, Predicate<Throwable> isOverloadError) {
+            this.minLimit = minLimit;
+            this.maxLimit = maxLimit;
+            this.initialLimit = initialLimit;
+            this.backoffRatio = backoffRatio;
+            this.latencyThreshold = latencyThreshold;
+            this.maxQueueSize = maxQueueSize;
+            this.isOverloadError = isOverloadError;
+        }
+
+        public int getMinLimit() {
+            return minLimit;
+        }
+
+        public int getMaxLimit() {
+            return maxLimit;
+        }
+
+        public int getInitialLimit() {
+            return initialLimit;
+        }
+
+        public double getBackoffRatio() {
+            return backoffRatio;
+        }
+
+        public Duration getLatencyThreshold() {
+            return latencyThreshold;
+        }
+
+        public int getMaxQueueSize() {
+            return maxQueueSize;
+        }
+
+        public boolean isOverloadError(Throwable throwable) {
+            return isOverloadError.test(throwable);
+        }
+
+        @Override
+        public String toString() {
+            return MoreObjects.toStringHelper(this)
+                .add("minLimit", minLimit)
+                .add("maxLimit", maxLimit)
+                .add("initialLimit", initialLimit)
+                .add("backoffRatio", backoffRatio)
+                .add("latencyThreshold", latencyThreshold)
+                .add("maxQueueSize", maxQueueSize)
+                .toString();
+        }
+    }
+
+    private class Waiter {
+        private final MonoSink<Void> sink;
+        private final AtomicBoolean done = new AtomicBoolean(false);
+
+        private Waiter(MonoSink<Void> sink) {
+            this.sink = sink;
+        }
+
+        private void grant() {
+            if (done.compareAndSet(false, true)) {
+                sink.success();
+            } else {
+                // Cancelled meanwhile
+                release();
+            }
+        }
+
+        private void cancel() {
+            if (done.compareAndSet(false, true) && waiters.remove(this)) {
+                waiterCount.decrementAndGet();
+            }
+        }
+    }
+
+    private final Configuration configuration;
+    private final long latencyThresholdNanos;
+    private final AtomicLong limit;
+    private final AtomicInteger inFlight = new AtomicInteger(0);
+    private final Queue<Waiter> waiters = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger waiterCount = new AtomicInteger(0);
+
+    public AdaptiveConcurrencyLimiter(Configuration configuration) {
+        this.configuration = configuration;
+        this.latencyThresholdNanos = configuration.getLatencyThreshold().toNanos();
+        this.limit = new AtomicLong(Double.doubleToLongBits(configuration.getInitialLimit()));
+    }
+
+    public Configuration getConfiguration() {
+        return configuration;
+    }
+
+    public int getLimit() {
+        return (int) Double.longBitsToDouble(limit.get());
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public int getQueueSize() {
+        return waiterCount.get();
+    }
+
+    /**
+     * @return true if the call can be executed right away. The outcome of the call then needs to be reported.
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= getLimit()) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Reports an acquired call that completed successfully.
+     *
+     * @param startNanos the {@link System#nanoTime()} at which the call started
+     */
+    public void onSuccess(long startNanos) {
+        long latencyNanos = System.nanoTime() - startNanos;
+        if (latencyNanos > latencyThresholdNanos) {
+            decreaseLimit();
+        } else {
+            increaseLimit();
+        }
+        release();
+    }
+
+    private void onSuccessIgnoringLatency() {
+        increaseLimit();
+        release();
+    }
+
+    /**
+     * Reports an acquired call that failed because of the backend being overloaded.
+     */
+    public void onDropped() {
+        decreaseLimit();
+        release();
+    }
+
+    /**
+     * Reports an acquired call whose outcome says nothing about the backend load, for instance a cancelled call.
+     */
+    public void onIgnored() {
+        release();
+    }
+
+    public <T> Mono<T> limit(Mono<T> operation) {
+        return limit(operation, true);
+    }
+
+    /**
+     * Limits an operation whose duration depends on the size of its payload, like an upload or a download. Its latency
+     * is not compared to the threshold: only overload errors lower the limit.
+     */
+    public <T> Mono<T> limitIgnoringLatency(Mono<T> operation) {
+        return limit(operation, false);
+    }
+
+    private <T> Mono<T> limit(Mono<T> operation, boolean latencySensitive) {
+        return acquire()
+            .then(Mono.defer(() -> {
+                long startNanos = System.nanoTime();
+                AtomicBoolean reported = new AtomicBoolean(false);
+                return operation
+                    .doOnSuccess(any -> {
+                        if (reported.compareAndSet(false, true)) {
+                            onCompleted(startNanos, latencySensitive);
+                        }
+                    })
+                    .doOnError(e -> {
+                        if (reported.compareAndSet(false, true)) {
+                            onError(e, startNanos, latencySensitive);
+                        }
+                    })
+                    .doFinally(signal -> {
+                        if (signal == SignalType.CANCEL && reported.compareAndSet(false, true)) {
+                            onIgnored();
+                        }
+                    });
+            }));
+    }
+
+    private void onError(Throwable throwable, long startNanos, boolean latencySensitive) {
+        if (configuration.isOverloadError(throwable)) {
+            onDropped();
+        } else {
+            // The backend answered: the latency is still meaningful
+            onCompleted(startNanos, latencySensitive);
+        }
+    }
+
+    private void onCompleted(long startNanos, boolean latencySensitive) {
+        if (latencySensitive) {
+            onSuccess(startNanos);
+        } else {
+            onSuccessIgnoringLatency();
+        }
+    }
+
+    private Mono<Void> acquire() {
+        return Mono.create(sink -> {
+            if (tryAcquire()) {
+                sink.success();
+                return;
+            }
+            if (waiterCount.incrementAndGet() > configuration.getMaxQueueSize()) {
+                waiterCount.decrementAndGet();
+                sink.error(new LimitExceededException("Too many calls are waiting for the concurrency limit (limit: "
+                    + getLimit() + ", queue size: " + configuration.getMaxQueueSize() + ")"));
+                return;
+            }
+            Waiter waiter = new Waiter(sink);
+            waiters.add(waiter);
+            sink.onCancel(waiter::cancel);
+            // A call might have completed before the waiter was queued
+            drain();
+        });
+    }
+
+    private void release() {
+        inFlight.decrementAndGet();
+        drain();
+    }
+
+    private void drain() {
+        while (!waiters.isEmpty() && tryAcquire()) {
+            Waiter waiter = waiters.poll();
+            if (waiter == null) {
+                inFlight.decrementAndGet();
+                continue;
+            }
+            waiterCount.decrementAndGet();
+            waiter.grant();
+        }
+    }
+
+    private void increaseLimit() {
+        limit.updateAndGet(bits -> {
+            double current = Double.longBitsToDouble(bits);
+            return Double.doubleToLongBits(Math.min(configuration.getMaxLimit(), current + 1.0 / current));
+        });
+    }
+
+    private void decreaseLimit() {
+        limit.updateAndGet(bits -> {
+            double current = Double.longBitsToDouble(bits);
+            return Double.doubleToLongBits(Math.max(configuration.getMinLimit(), current * configuration.getBackoffRatio()));
+        });
+    }
+}
@@ -0,0 +1,261 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+
+package org.apache.james.util.concurrency;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+class AdaptiveConcurrencyLimiterTest {
+    private static final AdaptiveConcurrencyLimiter.Configuration CONFIGURATION = AdaptiveConcurrencyLimiter.Configuration.builder()
+        .minLimit(2)
+        .initialLimit(4)
+        .maxLimit(8)
+        .backoffRatio(0.5)
+        .latencyThreshold(Duration.ofSeconds(10))
+        .maxQueueSize(2)
+        .build();
+
+    @Test
+    void builderShouldRejectInitialLimitOutOfBounds() {
+        assertThatThrownBy(() -> AdaptiveConcurrencyLimiter.Configuration.builder()
+                .minLimit(2)
+                .maxLimit(8)
+                .initialLimit(16)
+                .build())
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void builderShouldRejectInvalidBackoffRatio() {
+        assertThatThrownBy(() -> AdaptiveConcurrencyLimiter.Configuration.builder()
+                .backoffRatio(1.5)
+                .build())
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void tryAcquireShouldSucceedUpToTheLimit() {
+        AdaptiveConcurrencyLimiter testee = new AdaptiveConcurrencyLimiter(CONFIGURATION);
+
+        assertThat(testee.tryAcquire()).isTrue();
+        assertThat(testee.tryAcquire()).isTrue();
+        assertThat(testee.tryAcquire()).isTrue();
+        assertThat(testee.tryAcquire()).isTrue();
+        assertThat(testee.tryAcquire()).isFalse();
+    }
+
+    @Test
+    void successesShouldIncreaseTheLimit() {
+        AdaptiveConcurrencyLimiter testee = new AdaptiveConcurrencyLimiter(CONFIGURATION);
+
+        for (int i = 0; i < 8; i++) {
+            testee.tryAcquire();
+            testee.onSuccess(System.nanoTime());
+        }
+
+        assertThat(testee.getLimit()).isEqualTo(5);
+    }
+
+    @Test
+    void limitShouldNotExceedTheMaximum() {
+        AdaptiveConcurrencyLimiter testee = new AdaptiveConcurrencyLimiter(CONFIGURATION);
+
+        for (int i = 0; i < 1000; i++) {
+            testee.tryAcquire();
+            testee.onSuccess(System.nanoTime());
+        }
+
+        assertThat(testee.getLimit()).isEqualTo(8);
+    }
+
+    @Test
+    void dropsShouldDecreaseTheLimit() {
+        AdaptiveConcurrencyLimiter testee = new AdaptiveConcurrencyLimiter(CONFIGURATION);
+
+        testee.tryAcquire();
+        testee.onDropped();
+
+        assertThat(testee.getLimit()).isEqualTo(2);
+    }
+
+    @Test
+    void limitShouldNotGoBelowTheMinimum() {
+        AdaptiveConcurrencyLimiter testee = new AdaptiveConcurrencyLimiter(CONFIGURATION);
+
+        for (int i = 0; i < 10; i++) {
+            testee.tryAcquire();
+            testee.onDropped();
+        }
+
+        assertThat(testee.getLimit()).isEqualTo(2);
+    }
+
+    @Test
+    void slowCallsShouldDecreaseTheLimit() {
+        AdaptiveConcurrencyLimiter testee = new AdaptiveConcurrencyLimiter(CONFIGURATION);
+
+        testee.tryAcquire();
+        testee.onSuccess(System.nanoTime() - Duration.ofSeconds(11).toNanos());
+
+        assertThat(testee.getLimit()).isEqualTo(2);
+    }
+
+    @Test
+    void ignoredCallsShouldNotChangeTheLimit() {
+        AdaptiveConcurrencyLimiter testee = new AdaptiveConcurrencyLimiter(CONFIGURATION);
+
+        testee.tryAcquire();
+        testee.onIgnored();
+
+        assertThat(testee.getLimit()).isEqualTo(4);
+        assertThat(testee.getInFlight()).isZero();
+    }
+
+    @Test
+    void limitShouldBoundTheConcurrentCalls() {
+        AdaptiveConcurrencyLimiter testee = new AdaptiveConcurrencyLimiter(AdaptiveConcurrencyLimiter.Configuration.builder()
+            .minLimit(2)
+            .initialLimit(2)
+            .maxLimit(2)
+            .build());
+        AtomicInteger concurrentCalls = new AtomicInteger(0);
+        AtomicInteger maxConcurrentCalls = new AtomicInteger(0);
+
+        Flux.range(0, 20)
+            .flatMap(i -> testee.limit(Mono.fromRunnable(() -> maxConcurrentCalls.accumulateAndGet(concurrentCalls.incrementAndGet(), Math::max))
+                .then(Mono.delay(Duration.ofMillis(10)))
+                .doOnTerminate(concurrentCalls::decrementAndGet)))
+            .blockLast();
+
+        assertThat(maxConcurrentCalls.get()).isEqualTo(2);
+        assertThat(testee.getInFlight()).isZero();
+    }
+
+    @Test
+    void limitShouldRejectCallsWhenTheQueueIsFull() {
+        AdaptiveConcurrencyLimiter testee = new AdaptiveConcurrencyLimiter(CONFIGURATION);
+        Sinks.Empty<Void> pending = Sinks.empty();
+        for (int i = 0; i < 6; i++) {
+            testee.limit(pending.asMono()).subscribe();
+        }
+
+        assertThatThrownBy(() -> testee.limit(Mono.empty()).block())
+            .isInstanceOf(AdaptiveConcurrencyLimiter.LimitExceededException.class);
+    }
+
+    @Test
+    void limitShouldRunQueuedCallsOnceCallsComplete() {
+        AdaptiveConcurrencyLimiter testee = new AdaptiveConcurrencyLimiter(CONFIGURATION);
+        Sinks.Empty<Void> pending = Sinks.empty();
+        for (int i = 0; i < 4; i++) {
+            testee.limit(pending.asMono()).subscribe();
+        }
+        AtomicInteger executed = new AtomicInteger(0);
+        testee.limit(Mono.fromRunnable(executed::incrementAndGet)).subscribe();
+
+        assertThat(executed.get()).isZero();
+
+        pending.tryEmitEmpty();
+
+        assertThat(executed.get()).isEqualTo(1);
+        assertThat(testee.getInFlight()).isZero();
+        assertThat(testee.getQueueSize()).isZero();
+    }
+
+    @Test
+    void cancellingAQueuedCallShouldRemoveItFromTheQueue() {
+        AdaptiveConcurrencyLimiter testee = new AdaptiveConcurrencyLimiter(CONFIGURATION);
+        Sinks.Empty<Void> pending = Sinks.empty();
+        for (int i = 0; i < 4; i++) {
+            testee.limit(pending.asMono()).subscribe();
+        }
+        Disposable queued = testee.limit(Mono.empty()).subscribe();
+
+        queued.dispose();
+
+        assertThat(testee.getQueueSize()).isZero();
+    }
+
+    @Test
+    void cancellingARunningCallShouldReleaseItsPermit() {
+        AdaptiveConcurrencyLimiter testee = new AdaptiveConcurrencyLimiter(CONFIGURATION);
+        Disposable running = testee.limit(Mono.never()).subscribe();
+
+        running.dispose();
+
+        assertThat(testee.getInFlight()).isZero();
+        assertThat(testee.getLimit()).isEqualTo(4);
+    }
+
+    @Test
+    void overloadErrorsShouldDecreaseTheLimit() {
+        AdaptiveConcurrencyLimiter testee = new AdaptiveConcurrencyLimiter(CONFIGURATION);
+
+        testee.limit(Mono.error(new TimeoutException())).onErrorResume(e -> Mono.empty()).block();
+
+        assertThat(testee.getLimit()).isEqualTo(2);
+    }
+
+    @Test
+    void otherErrorsShouldNotDecreaseTheLimit() {
+        AdaptiveConcurrencyLimiter testee = new AdaptiveConcurrencyLimiter(CONFIGURATION);
+
+        testee.limit(Mono.error(new IllegalStateException())).onErrorResume(e -> Mono.empty()).block();
+
+        assertThat(testee.getLimit()).isEqualTo(4);
+        assertThat(testee.getInFlight()).isZero();
+    }
+
+    @Test
+    void limitIgnoringLatencyShouldNotDecreaseTheLimitOnSlowCalls() {
+        AdaptiveConcurrencyLimiter testee = new AdaptiveConcurrencyLimiter(AdaptiveConcurrencyLimiter.Configuration.builder()
+            .minLimit(2)
+            .initialLimit(4)
+            .maxLimit(8)
+            .backoffRatio(0.5)
+            .latencyThreshold(Duration.ofMillis(1))
+            .build());
+
+        testee.limitIgnoringLatency(Mono.delay(Duration.ofMillis(50))).block();
+
+        assertThat(testee.getLimit()).isEqualTo(4);
+    }
+
+    @Test
+    void limitIgnoringLatencyShouldDecreaseTheLimitOnOverloadErrors() {
+        AdaptiveConcurrencyLimiter testee = new AdaptiveConcurrencyLimiter(CONFIGURATION);
+
+        testee.limitIgnoringLatency(Mono.error(new TimeoutException())).onErrorResume(e -> Mono.empty()).block();
+
+        assertThat(testee.getLimit()).isEqualTo(2);
+    }
+}
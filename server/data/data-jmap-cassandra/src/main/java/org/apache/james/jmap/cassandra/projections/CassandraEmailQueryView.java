@@ -19,6 +19,7 @@
 
 package org.apache.james.jmap.cassandra.projections;
 
+import static com.datastax.oss.driver.api.core.metadata.schema.ClusteringOrder.ASC;
 import static com.datastax.oss.driver.api.core.metadata.schema.ClusteringOrder.DESC;
 import static com.datastax.oss.driver.api.querybuilder.QueryBuilder.bindMarker;
 import static com.datastax.oss.driver.api.querybuilder.QueryBuilder.deleteFrom;
@@ -31,6 +32,7 @@ import static org.apache.james.jmap.cassandra.projections.table.CassandraEmailQu
 import static org.apache.james.jmap.cassandra.projections.table.CassandraEmailQueryViewTable.THREAD_ID;
 
 import java.time.Instant;
+import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 import java.util.Optional;
 import java.util.function.Function;
@@ -51,9 +53,11 @@ import org.apache.james.util.streams.Limit;
 
 import com.datastax.oss.driver.api.core.CqlIdentifier;
 import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.cql.BoundStatement;
 import com.datastax.oss.driver.api.core.cql.PreparedStatement;
 import com.datastax.oss.driver.api.core.cql.Row;
 import com.datastax.oss.driver.api.core.type.codec.TypeCodecs;
+import com.google.common.base.Preconditions;
 
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -65,6 +69,12 @@ public class CassandraEmailQueryView implements EmailQueryView {
     private final PreparedStatement listMailboxContentByReceivedAt;
     private final PreparedStatement listMailboxContentSinceReceivedAt;
     private final PreparedStatement listMailboxContentBeforeReceivedAt;
+    private final PreparedStatement listFollowingReceivedAtSameTime;
+    private final PreparedStatement listFollowingReceivedAtEarlier;
+    private final PreparedStatement listPrecedingReceivedAtSameTime;
+    private final PreparedStatement listPrecedingReceivedAtLater;
+    private final PreparedStatement countPrecedingReceivedAtSameTime;
+    private final PreparedStatement countPrecedingReceivedAtLater;
     private final PreparedStatement insertReceivedAt;
     private final PreparedStatement deleteReceivedAt;
     private final PreparedStatement deleteAllReceivedAt;
@@ -96,6 +106,56 @@ public class CassandraEmailQueryView implements EmailQueryView {
             .limit(bindMarker(LIMIT_MARKER))
             .build());
 
+        // Entries are clustered by receivedAt (descending) then messageId (ascending): seeking a cursor
+        // means reading the entries received at the same time, then the other ones
+        listFollowingReceivedAtSameTime = session.prepare(selectFrom(TABLE_NAME_RECEIVED_AT)
+            .columns(MESSAGE_ID, RECEIVED_AT, THREAD_ID)
+            .whereColumn(MAILBOX_ID).isEqualTo(bindMarker(MAILBOX_ID))
+            .whereColumn(RECEIVED_AT).isEqualTo(bindMarker(RECEIVED_AT))
+            .whereColumn(MESSAGE_ID).isGreaterThan(bindMarker(MESSAGE_ID))
+            .limit(bindMarker(LIMIT_MARKER))
+            .build());
+
+        listFollowingReceivedAtEarlier = session.prepare(selectFrom(TABLE_NAME_RECEIVED_AT)
+            .columns(MESSAGE_ID, RECEIVED_AT, THREAD_ID)
+            .whereColumn(MAILBOX_ID).isEqualTo(bindMarker(MAILBOX_ID))
+            .whereColumn(RECEIVED_AT).isLessThan(bindMarker(RECEIVED_AT))
+            .orderBy(RECEIVED_AT, DESC)
+            .limit(bindMarker(LIMIT_MARKER))
+            .build());
+
+        listPrecedingReceivedAtSameTime = session.prepare(selectFrom(TABLE_NAME_RECEIVED_AT)
+            .columns(MESSAGE_ID, RECEIVED_AT, THREAD_ID)
+            .whereColumn(MAILBOX_ID).isEqualTo(bindMarker(MAILBOX_ID))
+            .whereColumn(RECEIVED_AT).isEqualTo(bindMarker(RECEIVED_AT))
+            .whereColumn(MESSAGE_ID).isLessThan(bindMarker(MESSAGE_ID))
+            .orderBy(RECEIVED_AT, ASC)
+            .orderBy(MESSAGE_ID, DESC)
+            .limit(bindMarker(LIMIT_MARKER))
+            .build());
+
+        listPrecedingReceivedAtLater = session.prepare(selectFrom(TABLE_NAME_RECEIVED_AT)
+            .columns(MESSAGE_ID, RECEIVED_AT, THREAD_ID)
+            .whereColumn(MAILBOX_ID).isEqualTo(bindMarker(MAILBOX_ID))
+            .whereColumn(RECEIVED_AT).isGreaterThan(bindMarker(RECEIVED_AT))
+            .orderBy(RECEIVED_AT, ASC)
+            .orderBy(MESSAGE_ID, DESC)
+            .limit(bindMarker(LIMIT_MARKER))
+            .build());
+
+        countPrecedingReceivedAtSameTime = session.prepare(selectFrom(TABLE_NAME_RECEIVED_AT)
+            .countAll()
+            .whereColumn(MAILBOX_ID).isEqualTo(bindMarker(MAILBOX_ID))
+            .whereColumn(RECEIVED_AT).isEqualTo(bindMarker(RECEIVED_AT))
+            .whereColumn(MESSAGE_ID).isLessThan(bindMarker(MESSAGE_ID))
+            .build());
+
+        countPrecedingReceivedAtLater = session.prepare(selectFrom(TABLE_NAME_RECEIVED_AT)
+            .countAll()
+            .whereColumn(MAILBOX_ID).isEqualTo(bindMarker(MAILBOX_ID))
+            .whereColumn(RECEIVED_AT).isGreaterThan(bindMarker(RECEIVED_AT))
+            .build());
+
         insertReceivedAt = session.prepare(insertInto(TABLE_NAME_RECEIVED_AT)
             .value(MAILBOX_ID, bindMarker(MAILBOX_ID))
             .value(MESSAGE_ID, bindMarker(MESSAGE_ID))
@@ -149,6 +209,64 @@ public class CassandraEmailQueryView implements EmailQueryView {
                     .map(asEmailEntry(RECEIVED_AT)));
     }
 
+    @Override
+    public Flux<Entry> listMailboxContentFollowing(MailboxId mailboxId, Cursor cursor, Limit limit) {
+        Preconditions.checkArgument(!limit.isUnlimited(), "Limit should be defined");
+        CassandraId cassandraId = (CassandraId) mailboxId;
+
+        return Flux.concat(
+                executor.executeRows(bindCursor(listFollowingReceivedAtSameTime, cassandraId, cursor, limit)),
+                Flux.defer(() -> executor.executeRows(bindCursorDate(listFollowingReceivedAtEarlier, cassandraId, cursor)
+                    .setInt(LIMIT_MARKER, limit.getLimit().get()))))
+            .take(limit.getLimit().get())
+            .map(asEntry(cassandraId));
+    }
+
+    @Override
+    public Flux<Entry> listMailboxContentPreceding(MailboxId mailboxId, Cursor cursor, Limit limit) {
+        Preconditions.checkArgument(!limit.isUnlimited(), "Limit should be defined");
+        CassandraId cassandraId = (CassandraId) mailboxId;
+
+        return Flux.concat(
+                executor.executeRows(bindCursor(listPrecedingReceivedAtSameTime, cassandraId, cursor, limit)),
+                Flux.defer(() -> executor.executeRows(bindCursorDate(listPrecedingReceivedAtLater, cassandraId, cursor)
+                    .setInt(LIMIT_MARKER, limit.getLimit().get()))))
+            .take(limit.getLimit().get())
+            .map(asEntry(cassandraId));
+    }
+
+    @Override
+    public Mono<Long> countMailboxContentPreceding(MailboxId mailboxId, Cursor cursor) {
+        CassandraId cassandraId = (CassandraId) mailboxId;
+
+        return Mono.zip(
+                executor.executeSingleRow(bindCursorDate(countPrecedingReceivedAtSameTime, cassandraId, cursor)
+                        .setUuid(MESSAGE_ID, ((CassandraMessageId) cursor.messageId()).get()))
+                    .map(row -> row.getLong(0)),
+                executor.executeSingleRow(bindCursorDate(countPrecedingReceivedAtLater, cassandraId, cursor))
+                    .map(row -> row.getLong(0)))
+            .map(counts -> counts.getT1() + counts.getT2());
+    }
+
+    private BoundStatement bindCursor(PreparedStatement statement, CassandraId mailboxId, Cursor cursor, Limit limit) {
+        return bindCursorDate(statement, mailboxId, cursor)
+            .setUuid(MESSAGE_ID, ((CassandraMessageId) cursor.messageId()).get())
+            .setInt(LIMIT_MARKER, limit.getLimit().get());
+    }
+
+    private BoundStatement bindCursorDate(PreparedStatement statement, CassandraId mailboxId, Cursor cursor) {
+        return statement.bind()
+            .set(MAILBOX_ID, mailboxId.asUuid(), TypeCodecs.UUID)
+            .setInstant(RECEIVED_AT, cursor.receivedAt().toInstant());
+    }
+
+    private Function<Row, Entry> asEntry(CassandraId mailboxId) {
+        return row -> {
+            EmailEntry emailEntry = asEmailEntry(RECEIVED_AT).apply(row);
+            return new Entry(mailboxId, emailEntry.messageId(), ZonedDateTime.ofInstant(emailEntry.messageDate(), ZoneOffset.UTC), emailEntry.threadId());
+        };
+    }
+
     private Function<Row, EmailEntry> asEmailEntry(CqlIdentifier dateField) {
         return (Row row) -> {
             CassandraMessageId messageId = CassandraMessageId.Factory.of(row.getUuid(MESSAGE_ID));
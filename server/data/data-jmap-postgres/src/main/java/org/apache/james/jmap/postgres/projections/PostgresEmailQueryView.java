@@ -57,6 +57,21 @@ public class PostgresEmailQueryView implements EmailQueryView {
         return emailQueryViewDAO.listMailboxContentBeforeSortedByReceivedAt(PostgresMailboxId.class.cast(mailboxId), since, limit, collapseThreads);
     }
 
+    @Override
+    public Flux<Entry> listMailboxContentFollowing(MailboxId mailboxId, Cursor cursor, Limit limit) {
+        return emailQueryViewDAO.listMailboxContentFollowing(PostgresMailboxId.class.cast(mailboxId), cursor, limit);
+    }
+
+    @Override
+    public Flux<Entry> listMailboxContentPreceding(MailboxId mailboxId, Cursor cursor, Limit limit) {
+        return emailQueryViewDAO.listMailboxContentPreceding(PostgresMailboxId.class.cast(mailboxId), cursor, limit);
+    }
+
+    @Override
+    public Mono<Long> countMailboxContentPreceding(MailboxId mailboxId, Cursor cursor) {
+        return emailQueryViewDAO.countMailboxContentPreceding(PostgresMailboxId.class.cast(mailboxId), cursor);
+    }
+
     @Override
     public Mono<Void> delete(MailboxId mailboxId, ZonedDateTime receivedAt, MessageId messageId) {
         return emailQueryViewDAO.delete(PostgresMailboxId.class.cast(mailboxId), PostgresMessageId.class.cast(messageId));
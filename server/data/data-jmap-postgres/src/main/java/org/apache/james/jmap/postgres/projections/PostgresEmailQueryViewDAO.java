@@ -28,6 +28,7 @@ import static org.apache.james.jmap.postgres.projections.PostgresEmailQueryViewD
 
 import java.time.Instant;
 import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 import java.util.Optional;
 import java.util.function.Function;
@@ -36,6 +37,8 @@ import jakarta.inject.Inject;
 import jakarta.inject.Named;
 
 import org.apache.james.backends.postgres.utils.PostgresExecutor;
+import org.apache.james.jmap.api.projections.EmailQueryView.Cursor;
+import org.apache.james.jmap.api.projections.EmailQueryView.Entry;
 import org.apache.james.jmap.api.projections.EmailQueryViewUtils;
 import org.apache.james.jmap.api.projections.EmailQueryViewUtils.EmailEntry;
 import org.apache.james.mailbox.model.MessageId;
@@ -43,9 +46,12 @@ import org.apache.james.mailbox.model.ThreadId;
 import org.apache.james.mailbox.postgres.PostgresMailboxId;
 import org.apache.james.mailbox.postgres.PostgresMessageId;
 import org.apache.james.util.streams.Limit;
+import org.jooq.Condition;
 import org.jooq.Field;
 import org.jooq.Record;
 
+import com.google.common.base.Preconditions;
+
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
@@ -62,7 +68,7 @@ public class PostgresEmailQueryViewDAO {
             .resolve(backendFetchLimit -> postgresExecutor.executeRows(dslContext -> Flux.from(dslContext.select(MESSAGE_ID, RECEIVED_AT, THREAD_ID)
                     .from(TABLE_NAME)
                     .where(MAILBOX_ID.eq(mailboxId.asUuid()))
-                    .orderBy(RECEIVED_AT.desc())
+                    .orderBy(RECEIVED_AT.desc(), MESSAGE_ID.asc())
                     .limit(backendFetchLimit.getLimit().get())))
                 .map(asEmailEntry(RECEIVED_AT)));
     }
@@ -73,7 +79,7 @@ public class PostgresEmailQueryViewDAO {
                     .from(TABLE_NAME)
                     .where(MAILBOX_ID.eq(mailboxId.asUuid()))
                     .and(RECEIVED_AT.greaterOrEqual(since.toOffsetDateTime()))
-                    .orderBy(RECEIVED_AT.desc())
+                    .orderBy(RECEIVED_AT.desc(), MESSAGE_ID.asc())
                     .limit(backendFetchLimit.getLimit().get())))
                 .map(asEmailEntry(RECEIVED_AT)));
     }
@@ -84,11 +90,62 @@ public class PostgresEmailQueryViewDAO {
                     .from(TABLE_NAME)
                     .where(MAILBOX_ID.eq(mailboxId.asUuid()))
                     .and(RECEIVED_AT.lessOrEqual(since.toOffsetDateTime()))
-                    .orderBy(RECEIVED_AT.desc())
+                    .orderBy(RECEIVED_AT.desc(), MESSAGE_ID.asc())
                     .limit(backendFetchLimit.getLimit().get())))
                 .map(asEmailEntry(RECEIVED_AT)));
     }
 
+    public Flux<Entry> listMailboxContentFollowing(PostgresMailboxId mailboxId, Cursor cursor, Limit limit) {
+        Preconditions.checkArgument(!limit.isUnlimited(), "Limit should be defined");
+
+        return postgresExecutor.executeRows(dslContext -> Flux.from(dslContext.select(MESSAGE_ID, RECEIVED_AT, THREAD_ID)
+                .from(TABLE_NAME)
+                .where(MAILBOX_ID.eq(mailboxId.asUuid()))
+                .and(followingCursor(cursor))
+                .orderBy(RECEIVED_AT.desc(), MESSAGE_ID.asc())
+                .limit(limit.getLimit().get())))
+            .map(asEntry(mailboxId));
+    }
+
+    public Flux<Entry> listMailboxContentPreceding(PostgresMailboxId mailboxId, Cursor cursor, Limit limit) {
+        Preconditions.checkArgument(!limit.isUnlimited(), "Limit should be defined");
+
+        return postgresExecutor.executeRows(dslContext -> Flux.from(dslContext.select(MESSAGE_ID, RECEIVED_AT, THREAD_ID)
+                .from(TABLE_NAME)
+                .where(MAILBOX_ID.eq(mailboxId.asUuid()))
+                .and(precedingCursor(cursor))
+                .orderBy(RECEIVED_AT.asc(), MESSAGE_ID.desc())
+                .limit(limit.getLimit().get())))
+            .map(asEntry(mailboxId));
+    }
+
+    public Mono<Long> countMailboxContentPreceding(PostgresMailboxId mailboxId, Cursor cursor) {
+        return postgresExecutor.executeCount(dslContext -> Mono.from(dslContext.selectCount()
+                .from(TABLE_NAME)
+                .where(MAILBOX_ID.eq(mailboxId.asUuid()))
+                .and(precedingCursor(cursor))))
+            .map(Integer::longValue);
+    }
+
+    private Condition followingCursor(Cursor cursor) {
+        return RECEIVED_AT.lessThan(cursor.receivedAt().toOffsetDateTime())
+            .or(RECEIVED_AT.eq(cursor.receivedAt().toOffsetDateTime())
+                .and(MESSAGE_ID.greaterThan(PostgresMessageId.class.cast(cursor.messageId()).asUuid())));
+    }
+
+    private Condition precedingCursor(Cursor cursor) {
+        return RECEIVED_AT.greaterThan(cursor.receivedAt().toOffsetDateTime())
+            .or(RECEIVED_AT.eq(cursor.receivedAt().toOffsetDateTime())
+                .and(MESSAGE_ID.lessThan(PostgresMessageId.class.cast(cursor.messageId()).asUuid())));
+    }
+
+    private Function<Record, Entry> asEntry(PostgresMailboxId mailboxId) {
+        return record -> {
+            EmailEntry emailEntry = asEmailEntry(RECEIVED_AT).apply(record);
+            return new Entry(mailboxId, emailEntry.messageId(), ZonedDateTime.ofInstant(emailEntry.messageDate(), ZoneOffset.UTC), emailEntry.threadId());
+        };
+    }
+
     private Function<Record, EmailEntry> asEmailEntry(Field<OffsetDateTime> dateField) {
         return (Record record) -> {
             PostgresMessageId messageId = PostgresMessageId.Factory.of(record.get(MESSAGE_ID));
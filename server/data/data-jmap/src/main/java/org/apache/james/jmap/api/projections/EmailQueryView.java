@@ -79,6 +79,17 @@ public interface EmailQueryView {
         }
     }
 
+    /**
+     * Position of an email within the content of a mailbox sorted by receivedAt, allowing to seek to it rather than
+     * skipping the emails before it. Emails received at the same time are ordered by their messageId, in a backend
+     * specific way.
+     */
+    record Cursor(ZonedDateTime receivedAt, MessageId messageId) {
+        public static Cursor of(Entry entry) {
+            return new Cursor(entry.getReceivedAt(), entry.getMessageId());
+        }
+    }
+
     /**
      *
      * Sample JMAP requests:
@@ -148,6 +159,28 @@ public interface EmailQueryView {
      */
     Flux<MessageId> listMailboxContentBeforeSortedByReceivedAt(MailboxId mailboxId, ZonedDateTime since, Limit limit, boolean collapseThreads);
 
+    /**
+     * Seek based paging, used by webmail clients scrolling through large mailboxes, as well as for the JMAP "anchor"
+     * argument.
+     *
+     * Threads are not collapsed.
+     *
+     * @return the entries of this mailbox following the cursor (excluded), sorted by receivedAt.
+     */
+    Flux<Entry> listMailboxContentFollowing(MailboxId mailboxId, Cursor cursor, Limit limit);
+
+    /**
+     * Threads are not collapsed.
+     *
+     * @return the entries of this mailbox preceding the cursor (excluded), the closest to the cursor first.
+     */
+    Flux<Entry> listMailboxContentPreceding(MailboxId mailboxId, Cursor cursor, Limit limit);
+
+    /**
+     * @return the position of the cursor within the content of this mailbox sorted by receivedAt.
+     */
+    Mono<Long> countMailboxContentPreceding(MailboxId mailboxId, Cursor cursor);
+
     Mono<Void> delete(MailboxId mailboxId, ZonedDateTime receivedAt, MessageId messageId);
 
     Mono<Void> delete(MailboxId mailboxId);
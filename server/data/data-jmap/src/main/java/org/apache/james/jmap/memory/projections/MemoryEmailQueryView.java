@@ -19,6 +19,7 @@
 
 package org.apache.james.jmap.memory.projections;
 
+import java.time.Instant;
 import java.time.ZonedDateTime;
 import java.util.Comparator;
 import java.util.function.Function;
@@ -40,6 +41,10 @@ import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 public class MemoryEmailQueryView implements EmailQueryView {
+    private static final Comparator<Entry> SORTED_BY_RECEIVED_AT = Comparator.<Entry, Instant>comparing(entry -> entry.getReceivedAt().toInstant())
+        .reversed()
+        .thenComparing(entry -> entry.getMessageId().serialize());
+
     private final Table<MailboxId, MessageId, Entry> entries;
 
     @Inject
@@ -54,7 +59,7 @@ public class MemoryEmailQueryView implements EmailQueryView {
         Flux<Entry> baseEntries = Flux.fromIterable(entries.row(mailboxId).values());
 
         return maybeCollapseThreads(Entry::getReceivedAt, collapseThreads).apply(baseEntries)
-            .sort(Comparator.comparing(Entry::getReceivedAt).reversed())
+            .sort(SORTED_BY_RECEIVED_AT)
             .map(Entry::getMessageId)
             .take(limit.getLimit().get());
     }
@@ -65,7 +70,7 @@ public class MemoryEmailQueryView implements EmailQueryView {
             .filter(e -> e.getReceivedAt().isAfter(since) || e.getReceivedAt().isEqual(since));
 
         return maybeCollapseThreads(Entry::getReceivedAt, collapseThreads).apply(baseEntries)
-            .sort(Comparator.comparing(Entry::getReceivedAt).reversed())
+            .sort(SORTED_BY_RECEIVED_AT)
             .map(Entry::getMessageId)
             .take(limit.getLimit().get());
     }
@@ -76,11 +81,42 @@ public class MemoryEmailQueryView implements EmailQueryView {
             .filter(e -> e.getReceivedAt().isBefore(before) || e.getReceivedAt().isEqual(before));
 
         return maybeCollapseThreads(Entry::getReceivedAt, collapseThreads).apply(baseEntries)
-            .sort(Comparator.comparing(Entry::getReceivedAt).reversed())
+            .sort(SORTED_BY_RECEIVED_AT)
             .map(Entry::getMessageId)
             .take(limit.getLimit().get());
     }
 
+    @Override
+    public Flux<Entry> listMailboxContentFollowing(MailboxId mailboxId, Cursor cursor, Limit limit) {
+        Preconditions.checkArgument(!limit.isUnlimited(), "Limit should be defined");
+
+        return Flux.fromIterable(entries.row(mailboxId).values())
+            .filter(entry -> compareToCursor(entry, cursor) > 0)
+            .sort(SORTED_BY_RECEIVED_AT)
+            .take(limit.getLimit().get());
+    }
+
+    @Override
+    public Flux<Entry> listMailboxContentPreceding(MailboxId mailboxId, Cursor cursor, Limit limit) {
+        Preconditions.checkArgument(!limit.isUnlimited(), "Limit should be defined");
+
+        return Flux.fromIterable(entries.row(mailboxId).values())
+            .filter(entry -> compareToCursor(entry, cursor) < 0)
+            .sort(SORTED_BY_RECEIVED_AT.reversed())
+            .take(limit.getLimit().get());
+    }
+
+    @Override
+    public Mono<Long> countMailboxContentPreceding(MailboxId mailboxId, Cursor cursor) {
+        return Flux.fromIterable(entries.row(mailboxId).values())
+            .filter(entry -> compareToCursor(entry, cursor) < 0)
+            .count();
+    }
+
+    private int compareToCursor(Entry entry, Cursor cursor) {
+        return SORTED_BY_RECEIVED_AT.compare(entry, new Entry(entry.getMailboxId(), cursor.messageId(), cursor.receivedAt(), entry.getThreadId()));
+    }
+
     private Function<Flux<Entry>, Flux<Entry>> maybeCollapseThreads(Function<Entry, ZonedDateTime> dateExtractor, boolean collapseThreads) {
         return entries -> {
             if (collapseThreads) {
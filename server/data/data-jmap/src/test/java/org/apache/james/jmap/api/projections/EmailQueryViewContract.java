@@ -23,13 +23,19 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatCode;
 
 import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Map;
 
 import org.apache.james.mailbox.model.MailboxId;
 import org.apache.james.mailbox.model.MessageId;
 import org.apache.james.mailbox.model.ThreadId;
 import org.apache.james.util.streams.Limit;
+import org.assertj.core.api.SoftAssertions;
 import org.junit.jupiter.api.Test;
 
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+
 public interface EmailQueryViewContract {
     boolean COLLAPSE_THREAD = true;
     ZonedDateTime DATE_2 = ZonedDateTime.parse("2010-10-30T16:12:00Z");
@@ -168,4 +174,72 @@ public interface EmailQueryViewContract {
         assertThat(testee().listMailboxContentBeforeSortedByReceivedAt(mailboxId1(), DATE_5, Limit.limit(2), COLLAPSE_THREAD).collectList().block())
             .containsExactly(messageId4(), messageId1());
     }
+
+    @Test
+    default void listMailboxContentFollowingShouldReturnEntriesAfterTheCursor() {
+        testee().save(mailboxId1(), DATE_4, messageId1(), threadId1()).block();
+        testee().save(mailboxId1(), DATE_3, messageId2(), threadId1()).block();
+        testee().save(mailboxId1(), DATE_6, messageId3(), threadId1()).block();
+
+        assertThat(testee().listMailboxContentFollowing(mailboxId1(), new EmailQueryView.Cursor(DATE_6, messageId3()), Limit.limit(12)).collectList().block())
+            .containsExactly(new EmailQueryView.Entry(mailboxId1(), messageId1(), DATE_4, threadId1()),
+                new EmailQueryView.Entry(mailboxId1(), messageId2(), DATE_3, threadId1()));
+    }
+
+    @Test
+    default void listMailboxContentFollowingShouldApplyLimit() {
+        testee().save(mailboxId1(), DATE_4, messageId1(), threadId1()).block();
+        testee().save(mailboxId1(), DATE_3, messageId2(), threadId1()).block();
+        testee().save(mailboxId1(), DATE_6, messageId3(), threadId1()).block();
+
+        assertThat(testee().listMailboxContentFollowing(mailboxId1(), new EmailQueryView.Cursor(DATE_6, messageId3()), Limit.limit(1)).collectList().block())
+            .extracting(EmailQueryView.Entry::getMessageId)
+            .containsExactly(messageId1());
+    }
+
+    @Test
+    default void listMailboxContentPrecedingShouldReturnEntriesBeforeTheCursorClosestFirst() {
+        testee().save(mailboxId1(), DATE_4, messageId1(), threadId1()).block();
+        testee().save(mailboxId1(), DATE_3, messageId2(), threadId1()).block();
+        testee().save(mailboxId1(), DATE_6, messageId3(), threadId1()).block();
+
+        assertThat(testee().listMailboxContentPreceding(mailboxId1(), new EmailQueryView.Cursor(DATE_3, messageId2()), Limit.limit(12)).collectList().block())
+            .extracting(EmailQueryView.Entry::getMessageId)
+            .containsExactly(messageId1(), messageId3());
+    }
+
+    @Test
+    default void countMailboxContentPrecedingShouldReturnThePositionOfTheCursor() {
+        testee().save(mailboxId1(), DATE_4, messageId1(), threadId1()).block();
+        testee().save(mailboxId1(), DATE_3, messageId2(), threadId1()).block();
+        testee().save(mailboxId1(), DATE_6, messageId3(), threadId1()).block();
+
+        assertThat(testee().countMailboxContentPreceding(mailboxId1(), new EmailQueryView.Cursor(DATE_3, messageId2())).block())
+            .isEqualTo(2L);
+    }
+
+    @Test
+    default void cursorsShouldBeConsistentWithTheListingWhenEmailsAreReceivedAtTheSameTime() {
+        Map<MessageId, ZonedDateTime> receivedAt = ImmutableMap.of(
+            messageId1(), DATE_4,
+            messageId2(), DATE_4,
+            messageId3(), DATE_4,
+            messageId4(), DATE_6);
+        receivedAt.forEach((messageId, date) -> testee().save(mailboxId1(), date, messageId, threadId1()).block());
+
+        List<MessageId> listing = testee().listMailboxContentSortedByReceivedAt(mailboxId1(), Limit.limit(12), !COLLAPSE_THREAD).collectList().block();
+
+        SoftAssertions.assertSoftly(softly -> {
+            for (int position = 0; position < listing.size(); position++) {
+                EmailQueryView.Cursor cursor = new EmailQueryView.Cursor(receivedAt.get(listing.get(position)), listing.get(position));
+
+                softly.assertThat(testee().listMailboxContentFollowing(mailboxId1(), cursor, Limit.limit(12)).map(EmailQueryView.Entry::getMessageId).collectList().block())
+                    .containsExactlyElementsOf(listing.subList(position + 1, listing.size()));
+                softly.assertThat(testee().listMailboxContentPreceding(mailboxId1(), cursor, Limit.limit(12)).map(EmailQueryView.Entry::getMessageId).collectList().block())
+                    .containsExactlyElementsOf(Lists.reverse(listing.subList(0, position)));
+                softly.assertThat(testee().countMailboxContentPreceding(mailboxId1(), cursor).block())
+                    .isEqualTo(position);
+            }
+        });
+    }
 }
@@ -20,6 +20,7 @@
 package org.apache.james.user.ldap;
 
 import java.net.URI;
+import java.time.Duration;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Objects;
@@ -30,6 +31,7 @@ import org.apache.commons.configuration2.ex.ConfigurationException;
 import org.apache.commons.configuration2.tree.ImmutableNode;
 import org.apache.james.core.Domain;
 import org.apache.james.core.Username;
+import org.apache.james.util.DurationParser;
 
 import com.github.fge.lambdas.Throwing;
 import com.google.common.base.Preconditions;
@@ -50,6 +52,8 @@ public class LdapRepositoryConfiguration {
     private static final int DEFAULT_POOL_SIZE = 4;
     // Await a connection for the given amount of time before opening a new one
     private static final int DEFAULT_MAX_WAIT_TIME_MILLIS = 1000;
+    private static final Optional<Duration> NO_CACHE = Optional.empty();
+    private static final int DEFAULT_CACHE_SIZE = 10_000;
 
     public static class Builder {
         private Optional<List<URI>> ldapHosts;
@@ -64,6 +68,9 @@ public class LdapRepositoryConfiguration {
         private Optional<Integer> poolSize;
         private Optional<Integer> maxWaitTime;
         private Optional<Boolean> trustAllCerts;
+        private Optional<Duration> cacheDuration;
+        private Optional<Integer> cacheSize;
+        private Optional<Duration> credentialsCacheDuration;
         private ImmutableMap.Builder<Domain, String> perDomainBaseDN;
 
         public Builder() {
@@ -78,6 +85,9 @@ public class LdapRepositoryConfiguration {
             usernameAttribute = Optional.empty();
             poolSize = Optional.empty();
             trustAllCerts = Optional.empty();
+            cacheDuration = Optional.empty();
+            cacheSize = Optional.empty();
+            credentialsCacheDuration = Optional.empty();
             perDomainBaseDN = ImmutableMap.builder();
             maxWaitTime = Optional.empty();
         }
@@ -137,6 +147,21 @@ public class LdapRepositoryConfiguration {
             return this;
         }
 
+        public Builder cacheDuration(Duration cacheDuration) {
+            this.cacheDuration = Optional.of(cacheDuration);
+            return this;
+        }
+
+        public Builder cacheSize(int cacheSize) {
+            this.cacheSize = Optional.of(cacheSize);
+            return this;
+        }
+
+        public Builder credentialsCacheDuration(Duration credentialsCacheDuration) {
+            this.credentialsCacheDuration = Optional.of(credentialsCacheDuration);
+            return this;
+        }
+
         public Builder addPerDomainDN(Domain domain, String dn) {
             this.perDomainBaseDN.put(domain, dn);
             return this;
@@ -168,7 +193,11 @@ public class LdapRepositoryConfiguration {
                 NO_RESTRICTION,
                 NO_FILTER,
                 NO_ADMINISTRATOR_ID,
-                trustAllCerts.orElse(false), perDomainBaseDN.build());
+                trustAllCerts.orElse(false),
+                cacheDuration,
+                cacheSize.orElse(DEFAULT_CACHE_SIZE),
+                credentialsCacheDuration,
+                perDomainBaseDN.build());
         }
     }
 
@@ -217,6 +246,11 @@ public class LdapRepositoryConfiguration {
                 .orElse(DEFAULT_POOL_SIZE);
         int maxWaitTime = Optional.ofNullable(configuration.getInteger("[@maxWaitTime]", null))
                 .orElse(DEFAULT_MAX_WAIT_TIME_MILLIS);
+        Optional<Duration> cacheDuration = Optional.ofNullable(configuration.getString("[@cacheDuration]", null))
+            .map(DurationParser::parse);
+        int cacheSize = configuration.getInt("[@cacheSize]", DEFAULT_CACHE_SIZE);
+        Optional<Duration> credentialsCacheDuration = Optional.ofNullable(configuration.getString("[@credentialsCacheDuration]", null))
+            .map(DurationParser::parse);
 
         ImmutableMap.Builder<Domain, String> builder = ImmutableMap.builder();
         if (configuration.getNodeModel()
@@ -248,7 +282,11 @@ public class LdapRepositoryConfiguration {
             restriction,
             filter,
             administratorId,
-            trustAllCerts, builder.build());
+            trustAllCerts,
+            cacheDuration,
+            cacheSize,
+            credentialsCacheDuration,
+            builder.build());
     }
 
     /**
@@ -357,12 +395,32 @@ public class LdapRepositoryConfiguration {
 
     private final boolean trustAllCerts;
 
+    /**
+     * How long user entries and group memberships read from the LDAP are kept in memory. The value of this field is
+     * taken from the configuration attribute &quot;cacheDuration&quot;. Empty, the default, disables caching.
+     */
+    private final Optional<Duration> cacheDuration;
+
+    /**
+     * The maximum number of user entries kept in memory. The value of this field is taken from the configuration
+     * attribute &quot;cacheSize&quot;, and defaults to 10.000.
+     */
+    private final int cacheSize;
+
+    /**
+     * How long a successful authentication is remembered, sparing the LDAP a bind for the following ones with the
+     * same password. Only a salted hash of the password is kept. The value of this field is taken from the
+     * configuration attribute &quot;credentialsCacheDuration&quot;. Empty, the default, disables it.
+     */
+    private final Optional<Duration> credentialsCacheDuration;
+
     private final ImmutableMap<Domain, String> perDomainBaseDN;
 
     private LdapRepositoryConfiguration(List<URI> ldapHosts, String principal, String credentials, String userBase, String userListBase, String userIdAttribute,
                                         Optional<String> resolveLocalPartAttribute, Optional<String> usernameAttribute, String userObjectClass, int connectionTimeout, int readTimeout,
                                         boolean supportsVirtualHosting, int poolSize, int maxWaitTime, ReadOnlyLDAPGroupRestriction restriction, String filter,
                                         Optional<String> administratorId, boolean trustAllCerts,
+                                        Optional<Duration> cacheDuration, int cacheSize, Optional<Duration> credentialsCacheDuration,
                                         ImmutableMap<Domain, String> perDomainBaseDN) throws ConfigurationException {
         this.ldapHosts = ldapHosts;
         this.principal = principal;
@@ -382,6 +440,9 @@ public class LdapRepositoryConfiguration {
         this.filter = filter;
         this.administratorId = administratorId.map(Username::of);
         this.trustAllCerts = trustAllCerts;
+        this.cacheDuration = cacheDuration;
+        this.cacheSize = cacheSize;
+        this.credentialsCacheDuration = credentialsCacheDuration;
         this.perDomainBaseDN = perDomainBaseDN;
 
         checkState();
@@ -397,6 +458,9 @@ public class LdapRepositoryConfiguration {
         if (userObjectClass == null) {
             throw new ConfigurationException("[@userObjectClass] is mandatory");
         }
+        if (cacheSize < 0) {
+            throw new ConfigurationException("[@cacheSize] can not be negative");
+        }
     }
 
     public List<URI> getLdapHosts() {
@@ -467,6 +531,18 @@ public class LdapRepositoryConfiguration {
         return trustAllCerts;
     }
 
+    public Optional<Duration> getCacheDuration() {
+        return cacheDuration;
+    }
+
+    public int getCacheSize() {
+        return cacheSize;
+    }
+
+    public Optional<Duration> getCredentialsCacheDuration() {
+        return credentialsCacheDuration;
+    }
+
     public ImmutableMap<Domain, String> getPerDomainBaseDN() {
         return perDomainBaseDN;
     }
@@ -505,6 +581,9 @@ public class LdapRepositoryConfiguration {
                 && Objects.equals(this.administratorId, that.administratorId)
                 && Objects.equals(this.trustAllCerts, that.trustAllCerts)
                 && Objects.equals(this.usernameAttribute, that.usernameAttribute)
+                && Objects.equals(this.cacheDuration, that.cacheDuration)
+                && Objects.equals(this.cacheSize, that.cacheSize)
+                && Objects.equals(this.credentialsCacheDuration, that.credentialsCacheDuration)
                 && Objects.equals(this.perDomainBaseDN, that.perDomainBaseDN);
         }
         return false;
@@ -514,6 +593,6 @@ public class LdapRepositoryConfiguration {
     public final int hashCode() {
         return Objects.hash(ldapHosts, principal, credentials, userBase, userListBase, userIdAttribute, resolveLocalPartAttribute, userObjectClass,
             connectionTimeout, readTimeout, supportsVirtualHosting, restriction, filter, administratorId, poolSize,
-            trustAllCerts, perDomainBaseDN, usernameAttribute);
+            trustAllCerts, perDomainBaseDN, usernameAttribute, cacheDuration, cacheSize, credentialsCacheDuration);
     }
 }
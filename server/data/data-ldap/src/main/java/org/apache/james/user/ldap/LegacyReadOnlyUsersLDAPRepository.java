@@ -32,6 +32,7 @@ import org.apache.james.core.Username;
 import org.apache.james.domainlist.api.DomainList;
 import org.apache.james.lifecycle.api.Configurable;
 import org.apache.james.metrics.api.GaugeRegistry;
+import org.apache.james.metrics.api.MetricFactory;
 import org.apache.james.user.api.UsersRepository;
 import org.apache.james.user.api.UsersRepositoryException;
 import org.apache.james.user.api.model.User;
@@ -43,19 +44,22 @@ import org.reactivestreams.Publisher;
 public class LegacyReadOnlyUsersLDAPRepository implements Configurable, UsersRepository {
     private final DomainList domainList;
     private final GaugeRegistry gaugeRegistry;
+    private final MetricFactory metricFactory;
     private ReadOnlyUsersLDAPRepository delegate;
 
     @Inject
     public LegacyReadOnlyUsersLDAPRepository(DomainList domainList,
-                                             GaugeRegistry gaugeRegistry) {
+                                             GaugeRegistry gaugeRegistry,
+                                             MetricFactory metricFactory) {
         this.domainList = domainList;
         this.gaugeRegistry = gaugeRegistry;
+        this.metricFactory = metricFactory;
     }
 
     @Override
     public void configure(HierarchicalConfiguration<ImmutableNode> config) throws ConfigurationException {
         try {
-            delegate = new ReadOnlyUsersLDAPRepository(domainList, gaugeRegistry, LdapRepositoryConfiguration.from(config));
+            delegate = new ReadOnlyUsersLDAPRepository(domainList, gaugeRegistry, metricFactory, LdapRepositoryConfiguration.from(config));
         } catch (Exception e) {
             throw new ConfigurationException(e);
         }
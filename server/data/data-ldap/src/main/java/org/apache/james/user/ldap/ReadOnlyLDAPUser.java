@@ -20,6 +20,8 @@
 package org.apache.james.user.ldap;
 
 import org.apache.james.core.Username;
+import org.apache.james.metrics.api.MetricFactory;
+import org.apache.james.metrics.api.TimeMetric;
 import org.apache.james.user.api.model.User;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -46,6 +48,7 @@ import com.unboundid.ldap.sdk.ResultCode;
  */
 public class ReadOnlyLDAPUser implements User {
     public static final Logger LOGGER = LoggerFactory.getLogger(ReadOnlyLDAPUser.class);
+    public static final String LDAP_BIND_METRIC_NAME = "ldap-bind";
 
     /**
      * The user's identifier or name. This is the value that is returned by the
@@ -68,6 +71,13 @@ public class ReadOnlyLDAPUser implements User {
      */
     private final LDAPConnectionPool connectionPool;
 
+    /**
+     * The recently verified credentials, sparing binds to the LDAP server.
+     */
+    private final VerifiedCredentialsCache credentialsCache;
+
+    private final MetricFactory metricFactory;
+
     /**
      * Constructs an instance for the given user-details, and which will
      * authenticate against the given host.
@@ -82,11 +92,18 @@ public class ReadOnlyLDAPUser implements User {
      *            This is also the host against which the user will be
      *            authenticated, when {@link #verifyPassword(String)} is
      *            invoked.
+     * @param credentialsCache
+     *            The recently verified credentials, checked before binding to the LDAP server.
+     * @param metricFactory
+     *            Used to time the binds to the LDAP server.
      */
-    public ReadOnlyLDAPUser(Username userName, DN userDN, LDAPConnectionPool connectionPool) {
+    public ReadOnlyLDAPUser(Username userName, DN userDN, LDAPConnectionPool connectionPool,
+                            VerifiedCredentialsCache credentialsCache, MetricFactory metricFactory) {
         this.userName = userName;
         this.userDN = userDN;
         this.connectionPool = connectionPool;
+        this.credentialsCache = credentialsCache;
+        this.metricFactory = metricFactory;
     }
 
     /**
@@ -117,7 +134,8 @@ public class ReadOnlyLDAPUser implements User {
     /**
      * Verifies that the password supplied is actually the user's password, by
      * attempting to rebind to a copy of the LDAP server context using the user's 
-     * username and the supplied password.
+     * username and the supplied password. Credentials recently verified are not checked again
+     * against the LDAP server.
      * 
      * @param password
      *            The password to validate.
@@ -132,6 +150,21 @@ public class ReadOnlyLDAPUser implements User {
             return false;
         }
 
+        if (credentialsCache.isVerified(userDN, password)) {
+            return true;
+        }
+
+        boolean verified = bind(password);
+        if (verified) {
+            credentialsCache.verified(userDN, password);
+        } else {
+            credentialsCache.invalidate(userDN);
+        }
+        return verified;
+    }
+
+    private boolean bind(String password) {
+        TimeMetric timeMetric = metricFactory.timer(LDAP_BIND_METRIC_NAME);
         try {
             BindResult bindResult = connectionPool.bindAndRevertAuthentication(userDN.toString(), password);
             return bindResult.getResultCode() == ResultCode.SUCCESS;
@@ -141,6 +174,8 @@ public class ReadOnlyLDAPUser implements User {
         } catch (Exception e) {
             LOGGER.error("Unexpected error upon authentication for {}", userName.asString(), e);
             return false;
+        } finally {
+            timeMetric.stopAndPublish();
         }
     }
 }
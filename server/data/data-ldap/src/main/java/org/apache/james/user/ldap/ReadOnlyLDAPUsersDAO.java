@@ -26,9 +26,9 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
 import java.util.stream.Stream;
 
-
 import jakarta.annotation.PreDestroy;
 import jakarta.inject.Inject;
 
@@ -39,6 +39,8 @@ import org.apache.james.core.Domain;
 import org.apache.james.core.Username;
 import org.apache.james.lifecycle.api.Configurable;
 import org.apache.james.metrics.api.GaugeRegistry;
+import org.apache.james.metrics.api.MetricFactory;
+import org.apache.james.metrics.api.TimeMetric;
 import org.apache.james.user.api.UsersRepositoryException;
 import org.apache.james.user.api.model.User;
 import org.apache.james.user.lib.UsersDAO;
@@ -47,7 +49,11 @@ import org.slf4j.LoggerFactory;
 
 import com.github.fge.lambdas.Throwing;
 import com.google.common.base.Preconditions;
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import com.unboundid.ldap.sdk.Attribute;
 import com.unboundid.ldap.sdk.DN;
 import com.unboundid.ldap.sdk.Entry;
@@ -65,9 +71,17 @@ import reactor.core.scheduler.Schedulers;
 
 public class ReadOnlyLDAPUsersDAO implements UsersDAO, Configurable {
     private static final Logger LOGGER = LoggerFactory.getLogger(ReadOnlyLDAPUsersDAO.class);
+    private static final String LDAP_USER_LOOKUP_METRIC_NAME = "ldap-user-lookup";
+    private static final String LDAP_GROUP_MEMBERSHIP_LOOKUP_METRIC_NAME = "ldap-group-membership-lookup";
+    private static final String GROUP_MEMBERSHIPS = "groupMemberships";
+    private static final int NO_CACHING = 0;
 
     private final GaugeRegistry gaugeRegistry;
+    private final MetricFactory metricFactory;
     private final LdapRepositoryConfiguration ldapConfiguration;
+    private final Cache<Username, Optional<ReadOnlyLDAPUser>> usersCache;
+    private final Cache<String, Map<String, Collection<DN>>> groupMembershipsCache;
+    private final VerifiedCredentialsCache credentialsCache;
     private LDAPConnectionPool ldapConnectionPool;
     private Optional<Filter> userExtraFilter;
     private Filter objectClassFilter;
@@ -75,11 +89,34 @@ public class ReadOnlyLDAPUsersDAO implements UsersDAO, Configurable {
 
     @Inject
     public ReadOnlyLDAPUsersDAO(GaugeRegistry gaugeRegistry,
+                                MetricFactory metricFactory,
                                 LDAPConnectionPool ldapConnectionPool,
                                 LdapRepositoryConfiguration configuration) {
         this.gaugeRegistry = gaugeRegistry;
+        this.metricFactory = metricFactory;
         this.ldapConnectionPool = ldapConnectionPool;
         this.ldapConfiguration = configuration;
+        this.usersCache = createCache(configuration, configuration.getCacheSize());
+        this.groupMembershipsCache = createCache(configuration, 1);
+        this.credentialsCache = configuration.getCredentialsCacheDuration()
+            .map(duration -> VerifiedCredentialsCache.of(duration, configuration.getCacheSize()))
+            .orElse(VerifiedCredentialsCache.DISABLED);
+    }
+
+    /**
+     * A disabled cache is a cache holding no entries, so that values are always loaded.
+     */
+    private static <K, V> Cache<K, V> createCache(LdapRepositoryConfiguration configuration, int maximumSize) {
+        return configuration.getCacheDuration()
+            .map(duration -> CacheBuilder.newBuilder()
+                .expireAfterWrite(duration)
+                .maximumSize(maximumSize)
+                .recordStats()
+                .<K, V>build())
+            .orElseGet(() -> CacheBuilder.newBuilder()
+                .maximumSize(NO_CACHING)
+                .recordStats()
+                .build());
     }
 
     @Override
@@ -116,6 +153,8 @@ public class ReadOnlyLDAPUsersDAO implements UsersDAO, Configurable {
 
         gaugeRegistry.register("ldap-connection-available-count", () -> ldapConnectionPool.getConnectionPoolStatistics().getNumAvailableConnections());
         gaugeRegistry.register("ldap-created-connection-count", () -> ldapConnectionPool.getConnectionPoolStatistics().getNumSuccessfulConnectionAttempts());
+        gaugeRegistry.register("ldap-user-cache-hit-rate", () -> usersCache.stats().hitRate());
+        gaugeRegistry.register("ldap-group-membership-cache-hit-rate", () -> groupMembershipsCache.stats().hitRate());
     }
 
     @PreDestroy
@@ -241,13 +280,29 @@ public class ReadOnlyLDAPUsersDAO implements UsersDAO, Configurable {
         return results;
     }
 
+    private Map<String, Collection<DN>> getGroupMembershipLists() throws LDAPException {
+        try {
+            return groupMembershipsCache.get(GROUP_MEMBERSHIPS, this::retrieveGroupMembershipLists);
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            Throwables.throwIfInstanceOf(e.getCause(), LDAPException.class);
+            Throwables.throwIfUnchecked(e.getCause());
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    private Map<String, Collection<DN>> retrieveGroupMembershipLists() throws LDAPException {
+        TimeMetric timeMetric = metricFactory.timer(LDAP_GROUP_MEMBERSHIP_LOOKUP_METRIC_NAME);
+        try {
+            return ldapConfiguration.getRestriction().getGroupMembershipLists(ldapConnectionPool);
+        } finally {
+            timeMetric.stopAndPublish();
+        }
+    }
+
     private Optional<ReadOnlyLDAPUser> searchAndBuildUser(Username retrievalName) throws LDAPException {
         Optional<String> resolveLocalPartAttribute = ldapConfiguration.getResolveLocalPartAttribute();
 
-        SearchResult searchResult = ldapConnectionPool.search(userBase(retrievalName),
-            SearchScope.SUB,
-            createFilter(retrievalName.asString(), evaluateLdapUserRetrievalAttribute(retrievalName, resolveLocalPartAttribute)),
-            ldapConfiguration.getReturnedAttributes());
+        SearchResult searchResult = searchUser(retrievalName, resolveLocalPartAttribute);
 
         SearchResultEntry result = searchResult.getSearchEntries()
             .stream()
@@ -259,15 +314,31 @@ public class ReadOnlyLDAPUsersDAO implements UsersDAO, Configurable {
         }
 
         if (!ldapConfiguration.getRestriction().isActivated()
-            || userInGroupsMembershipList(result.getParsedDN(), ldapConfiguration.getRestriction().getGroupMembershipLists(ldapConnectionPool))) {
+            || userInGroupsMembershipList(result.getParsedDN(), getGroupMembershipLists())) {
 
             String usernameAttribute = ldapConfiguration.getUsernameAttribute().orElse(ldapConfiguration.getUserIdAttribute());
             Username translatedUsername = Username.of(result.getAttributeValue(usernameAttribute));
-            return Optional.of(new ReadOnlyLDAPUser(translatedUsername, result.getParsedDN(), ldapConnectionPool));
+            return Optional.of(createUser(translatedUsername, result.getParsedDN()));
         }
         return Optional.empty();
     }
 
+    private SearchResult searchUser(Username retrievalName, Optional<String> resolveLocalPartAttribute) throws LDAPSearchException {
+        TimeMetric timeMetric = metricFactory.timer(LDAP_USER_LOOKUP_METRIC_NAME);
+        try {
+            return ldapConnectionPool.search(userBase(retrievalName),
+                SearchScope.SUB,
+                createFilter(retrievalName.asString(), evaluateLdapUserRetrievalAttribute(retrievalName, resolveLocalPartAttribute)),
+                ldapConfiguration.getReturnedAttributes());
+        } finally {
+            timeMetric.stopAndPublish();
+        }
+    }
+
+    private ReadOnlyLDAPUser createUser(Username username, DN userDN) {
+        return new ReadOnlyLDAPUser(username, userDN, ldapConnectionPool, credentialsCache, metricFactory);
+    }
+
     private String evaluateLdapUserRetrievalAttribute(Username retrievalName, Optional<String> resolveLocalPartAttribute) {
         if (retrievalName.asString().contains("@")) {
             return ldapConfiguration.getUserIdAttribute();
@@ -289,7 +360,7 @@ public class ReadOnlyLDAPUsersDAO implements UsersDAO, Configurable {
                     return Optional.empty();
                 }
             })
-            .map(username -> new ReadOnlyLDAPUser(username, userDN, ldapConnectionPool));
+            .map(username -> createUser(username, userDN));
     }
 
     @Override
@@ -324,7 +395,9 @@ public class ReadOnlyLDAPUsersDAO implements UsersDAO, Configurable {
     @Override
     public Optional<ReadOnlyLDAPUser> getUserByName(Username name) throws UsersRepositoryException {
         try {
-            return searchAndBuildUser(name);
+            return usersCache.get(name, () -> searchAndBuildUser(name));
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            throw new UsersRepositoryException("Unable check user existence from ldap", e.getCause());
         } catch (Exception e) {
             throw new UsersRepositoryException("Unable check user existence from ldap", e);
         }
@@ -395,8 +468,7 @@ public class ReadOnlyLDAPUsersDAO implements UsersDAO, Configurable {
         Set<DN> userDNs = getAllUsersDNFromLDAP();
         Collection<DN> validUserDNs;
         if (ldapConfiguration.getRestriction().isActivated()) {
-            Map<String, Collection<DN>> groupMembershipList = ldapConfiguration.getRestriction()
-                .getGroupMembershipLists(ldapConnectionPool);
+            Map<String, Collection<DN>> groupMembershipList = getGroupMembershipLists();
             validUserDNs = new ArrayList<>();
 
             Iterator<DN> userDNIterator = userDNs.iterator();
@@ -29,6 +29,7 @@ import org.apache.james.core.Username;
 import org.apache.james.domainlist.api.DomainList;
 import org.apache.james.lifecycle.api.Configurable;
 import org.apache.james.metrics.api.GaugeRegistry;
+import org.apache.james.metrics.api.MetricFactory;
 import org.apache.james.user.api.InvalidUsernameException;
 import org.apache.james.user.api.UsersRepositoryException;
 import org.apache.james.user.lib.UsersRepositoryImpl;
@@ -167,16 +168,18 @@ public class ReadOnlyUsersLDAPRepository extends UsersRepositoryImpl<ReadOnlyLDA
     @Inject
     public ReadOnlyUsersLDAPRepository(DomainList domainList,
                                        GaugeRegistry gaugeRegistry,
+                                       MetricFactory metricFactory,
                                        LDAPConnectionPool ldapConnectionPool,
                                        LdapRepositoryConfiguration configuration) {
-        super(domainList, new ReadOnlyLDAPUsersDAO(gaugeRegistry, ldapConnectionPool, configuration));
+        super(domainList, new ReadOnlyLDAPUsersDAO(gaugeRegistry, metricFactory, ldapConnectionPool, configuration));
         this.ldapConfiguration = configuration;
     }
 
     public ReadOnlyUsersLDAPRepository(DomainList domainList,
                                        GaugeRegistry gaugeRegistry,
+                                       MetricFactory metricFactory,
                                        LdapRepositoryConfiguration configuration) throws LDAPException {
-        super(domainList, new ReadOnlyLDAPUsersDAO(gaugeRegistry, new LDAPConnectionFactory(configuration).getLdapConnectionPool(), configuration));
+        super(domainList, new ReadOnlyLDAPUsersDAO(gaugeRegistry, metricFactory, new LDAPConnectionFactory(configuration).getLdapConnectionPool(), configuration));
         this.ldapConfiguration = configuration;
     }
 
@@ -0,0 +1,95 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.user.ldap;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Optional;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hashing;
+import com.unboundid.ldap.sdk.DN;
+
+/**
+ * Remembers the recently verified credentials, so that repeated authentications of a user do not each result in
+ * an LDAP bind.
+ *
+ * Only a salted hash of the password is kept in memory, and entries are invalidated upon bind failures.
+ */
+public class VerifiedCredentialsCache {
+    private static final int SALT_LENGTH = 16;
+
+    public static final VerifiedCredentialsCache DISABLED = new VerifiedCredentialsCache(Optional.empty());
+
+    public static VerifiedCredentialsCache of(Duration duration, int maximumSize) {
+        return new VerifiedCredentialsCache(Optional.of(CacheBuilder.newBuilder()
+            .expireAfterWrite(duration)
+            .maximumSize(maximumSize)
+            .build()));
+    }
+
+    private record SaltedHash(byte[] salt, byte[] hash) {
+        static SaltedHash of(String password, SecureRandom random) {
+            byte[] salt = new byte[SALT_LENGTH];
+            random.nextBytes(salt);
+            return new SaltedHash(salt, hash(salt, password));
+        }
+
+        static byte[] hash(byte[] salt, String password) {
+            return Hashing.sha256()
+                .newHasher()
+                .putBytes(salt)
+                .putString(password, UTF_8)
+                .hash()
+                .asBytes();
+        }
+
+        boolean matches(String password) {
+            return MessageDigest.isEqual(hash, hash(salt, password));
+        }
+    }
+
+    private final Optional<Cache<DN, SaltedHash>> cache;
+    private final SecureRandom random;
+
+    private VerifiedCredentialsCache(Optional<Cache<DN, SaltedHash>> cache) {
+        this.cache = cache;
+        this.random = new SecureRandom();
+    }
+
+    public boolean isVerified(DN userDN, String password) {
+        return cache.map(entries -> Optional.ofNullable(entries.getIfPresent(userDN))
+                .map(saltedHash -> saltedHash.matches(password))
+                .orElse(false))
+            .orElse(false);
+    }
+
+    public void verified(DN userDN, String password) {
+        cache.ifPresent(entries -> entries.put(userDN, SaltedHash.of(password, random)));
+    }
+
+    public void invalidate(DN userDN) {
+        cache.ifPresent(entries -> entries.invalidate(userDN));
+    }
+}
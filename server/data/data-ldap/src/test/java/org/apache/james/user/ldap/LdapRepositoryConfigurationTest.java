@@ -22,6 +22,7 @@ package org.apache.james.user.ldap;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import java.io.InputStream;
+import java.time.Duration;
 
 import org.apache.commons.configuration2.XMLConfiguration;
 import org.apache.commons.configuration2.builder.FileBasedConfigurationBuilder;
@@ -63,4 +64,21 @@ class LdapRepositoryConfigurationTest {
         LdapRepositoryConfiguration configuration = LdapRepositoryConfiguration.from(getConfig("usersrepository-supportsVirtualHosting.xml"));
         assertThat(configuration.supportsVirtualHosting()).isTrue();
     }
-}
\ No newline at end of file
+
+    @Test
+    void cachesShouldBeDisabledByDefault() throws Exception {
+        LdapRepositoryConfiguration configuration = LdapRepositoryConfiguration.from(getConfig("usersrepository-default.xml"));
+
+        assertThat(configuration.getCacheDuration()).isEmpty();
+        assertThat(configuration.getCredentialsCacheDuration()).isEmpty();
+    }
+
+    @Test
+    void shouldSupportCacheSettings() throws Exception {
+        LdapRepositoryConfiguration configuration = LdapRepositoryConfiguration.from(getConfig("usersrepository-cache.xml"));
+
+        assertThat(configuration.getCacheDuration()).contains(Duration.ofMinutes(5));
+        assertThat(configuration.getCacheSize()).isEqualTo(500);
+        assertThat(configuration.getCredentialsCacheDuration()).contains(Duration.ofSeconds(30));
+    }
+}
@@ -40,6 +40,7 @@ import org.apache.james.core.Username;
 import org.apache.james.domainlist.api.DomainList;
 import org.apache.james.domainlist.api.mock.SimpleDomainList;
 import org.apache.james.metrics.api.NoopGaugeRegistry;
+import org.apache.james.metrics.tests.RecordingMetricFactory;
 import org.apache.james.user.api.UsersRepository;
 import org.apache.james.user.lib.UsersRepositoryContract;
 import org.apache.james.user.lib.UsersRepositoryImpl;
@@ -84,7 +85,7 @@ class ReadOnlyUsersLDAPRepositoryTest {
         HierarchicalConfiguration<ImmutableNode> configuration = ldapRepositoryConfiguration(ldapContainer);
         configuration.addProperty("[@filter]", "INVALID!!!");
 
-        ReadOnlyUsersLDAPRepository usersLDAPRepository = new ReadOnlyUsersLDAPRepository(new SimpleDomainList(),  new NoopGaugeRegistry(),
+        ReadOnlyUsersLDAPRepository usersLDAPRepository = new ReadOnlyUsersLDAPRepository(new SimpleDomainList(),  new NoopGaugeRegistry(), new RecordingMetricFactory(),
             LdapRepositoryConfiguration.from(configuration));
         usersLDAPRepository.configure(configuration);
 
@@ -101,7 +102,7 @@ class ReadOnlyUsersLDAPRepositoryTest {
             HierarchicalConfiguration<ImmutableNode> configuration = ldapRepositoryConfigurationWithVirtualHosting(ldapContainer);
             configuration.addProperty("domains.extra.org", "ou=whatever,dc=james,dc=org");
 
-            usersLDAPRepository = new ReadOnlyUsersLDAPRepository(new SimpleDomainList(), new NoopGaugeRegistry(),
+            usersLDAPRepository = new ReadOnlyUsersLDAPRepository(new SimpleDomainList(), new NoopGaugeRegistry(), new RecordingMetricFactory(),
                 LdapRepositoryConfiguration.from(configuration));
             usersLDAPRepository.configure(configuration);
             usersLDAPRepository.init();
@@ -146,7 +147,7 @@ class ReadOnlyUsersLDAPRepositoryTest {
         @BeforeEach
         void setUp() throws Exception {
             PropertyListConfiguration configuration = configuration(ldapContainer);
-            usersLDAPRepository = new ReadOnlyUsersLDAPRepository(new SimpleDomainList(), new NoopGaugeRegistry(),
+            usersLDAPRepository = new ReadOnlyUsersLDAPRepository(new SimpleDomainList(), new NoopGaugeRegistry(), new RecordingMetricFactory(),
                 LdapRepositoryConfiguration.from(configuration));
             usersLDAPRepository.configure(configuration);
             usersLDAPRepository.init();
@@ -191,7 +192,7 @@ class ReadOnlyUsersLDAPRepositoryTest {
             HierarchicalConfiguration<ImmutableNode> configuration = ldapRepositoryConfiguration(ldapContainer);
             configuration.addProperty("[@filter]", "(sn=james-user)");
 
-            ReadOnlyUsersLDAPRepository usersLDAPRepository = new ReadOnlyUsersLDAPRepository(new SimpleDomainList(), new NoopGaugeRegistry(),
+            ReadOnlyUsersLDAPRepository usersLDAPRepository = new ReadOnlyUsersLDAPRepository(new SimpleDomainList(), new NoopGaugeRegistry(), new RecordingMetricFactory(),
                 LdapRepositoryConfiguration.from(configuration));
             usersLDAPRepository.configure(configuration);
             usersLDAPRepository.init();
@@ -204,7 +205,7 @@ class ReadOnlyUsersLDAPRepositoryTest {
             HierarchicalConfiguration<ImmutableNode> configuration = ldapRepositoryConfiguration(ldapContainer);
             configuration.addProperty("[@filter]", "(sn=nomatch)");
 
-            ReadOnlyUsersLDAPRepository usersLDAPRepository = new ReadOnlyUsersLDAPRepository(new SimpleDomainList(), new NoopGaugeRegistry(),
+            ReadOnlyUsersLDAPRepository usersLDAPRepository = new ReadOnlyUsersLDAPRepository(new SimpleDomainList(), new NoopGaugeRegistry(), new RecordingMetricFactory(),
                 LdapRepositoryConfiguration.from(configuration));
             usersLDAPRepository.configure(configuration);
             usersLDAPRepository.init();
@@ -217,7 +218,7 @@ class ReadOnlyUsersLDAPRepositoryTest {
             HierarchicalConfiguration<ImmutableNode> configuration = ldapRepositoryConfiguration(ldapContainer);
             configuration.addProperty("[@filter]", "(sn=nomatch)");
 
-            ReadOnlyUsersLDAPRepository usersLDAPRepository = new ReadOnlyUsersLDAPRepository(new SimpleDomainList(), new NoopGaugeRegistry(),
+            ReadOnlyUsersLDAPRepository usersLDAPRepository = new ReadOnlyUsersLDAPRepository(new SimpleDomainList(), new NoopGaugeRegistry(), new RecordingMetricFactory(),
                 LdapRepositoryConfiguration.from(configuration));
             usersLDAPRepository.configure(configuration);
             usersLDAPRepository.init();
@@ -230,7 +231,7 @@ class ReadOnlyUsersLDAPRepositoryTest {
             HierarchicalConfiguration<ImmutableNode> configuration = ldapRepositoryConfiguration(ldapContainer);
             configuration.addProperty("[@filter]", "(sn=nomatch)");
 
-            ReadOnlyUsersLDAPRepository usersLDAPRepository = new ReadOnlyUsersLDAPRepository(new SimpleDomainList(), new NoopGaugeRegistry(),
+            ReadOnlyUsersLDAPRepository usersLDAPRepository = new ReadOnlyUsersLDAPRepository(new SimpleDomainList(), new NoopGaugeRegistry(), new RecordingMetricFactory(),
                 LdapRepositoryConfiguration.from(configuration));
             usersLDAPRepository.configure(configuration);
             usersLDAPRepository.init();
@@ -496,7 +497,7 @@ class ReadOnlyUsersLDAPRepositoryTest {
         @Test
         void supportVirtualHostingShouldReturnFalseByDefault() throws Exception {
             HierarchicalConfiguration<ImmutableNode> configuration = ldapRepositoryConfiguration(ldapContainer);
-            ReadOnlyUsersLDAPRepository usersLDAPRepository = new ReadOnlyUsersLDAPRepository(new SimpleDomainList(), new NoopGaugeRegistry(),
+            ReadOnlyUsersLDAPRepository usersLDAPRepository = new ReadOnlyUsersLDAPRepository(new SimpleDomainList(), new NoopGaugeRegistry(), new RecordingMetricFactory(),
                 LdapRepositoryConfiguration.from(configuration));
             usersLDAPRepository.configure(configuration);
 
@@ -508,7 +509,7 @@ class ReadOnlyUsersLDAPRepositoryTest {
             HierarchicalConfiguration<ImmutableNode> configuration = ldapRepositoryConfiguration(ldapContainer);
             configuration.addProperty(SUPPORTS_VIRTUAL_HOSTING, "true");
 
-            ReadOnlyUsersLDAPRepository usersLDAPRepository = new ReadOnlyUsersLDAPRepository(new SimpleDomainList(), new NoopGaugeRegistry(),
+            ReadOnlyUsersLDAPRepository usersLDAPRepository = new ReadOnlyUsersLDAPRepository(new SimpleDomainList(), new NoopGaugeRegistry(), new RecordingMetricFactory(),
                 LdapRepositoryConfiguration.from(configuration));
             usersLDAPRepository.configure(configuration);
 
@@ -520,7 +521,7 @@ class ReadOnlyUsersLDAPRepositoryTest {
             HierarchicalConfiguration<ImmutableNode> configuration = ldapRepositoryConfiguration(ldapContainer);
             configuration.addProperty(SUPPORTS_VIRTUAL_HOSTING, "false");
 
-            ReadOnlyUsersLDAPRepository usersLDAPRepository = new ReadOnlyUsersLDAPRepository(new SimpleDomainList(), new NoopGaugeRegistry(),
+            ReadOnlyUsersLDAPRepository usersLDAPRepository = new ReadOnlyUsersLDAPRepository(new SimpleDomainList(), new NoopGaugeRegistry(), new RecordingMetricFactory(),
                 LdapRepositoryConfiguration.from(configuration));
             usersLDAPRepository.configure(configuration);
 
@@ -533,7 +534,7 @@ class ReadOnlyUsersLDAPRepositoryTest {
             configuration.addProperty(SUPPORTS_VIRTUAL_HOSTING, "bad");
 
             assertThatThrownBy(() -> {
-                ReadOnlyUsersLDAPRepository usersLDAPRepository = new ReadOnlyUsersLDAPRepository(new SimpleDomainList(), new NoopGaugeRegistry(),
+                ReadOnlyUsersLDAPRepository usersLDAPRepository = new ReadOnlyUsersLDAPRepository(new SimpleDomainList(), new NoopGaugeRegistry(), new RecordingMetricFactory(),
                     LdapRepositoryConfiguration.from(configuration));
                 usersLDAPRepository.configure(configuration);
             }).isInstanceOf(ConversionException.class);
@@ -545,7 +546,7 @@ class ReadOnlyUsersLDAPRepositoryTest {
         HierarchicalConfiguration<ImmutableNode> configuration = ldapRepositoryConfiguration(ldapContainer);
         configuration.addProperty("[@ldapHost]", ldapContainer.getLdapsBadHost());
 
-        assertThatThrownBy(() -> new ReadOnlyUsersLDAPRepository(new SimpleDomainList(), new NoopGaugeRegistry(),
+        assertThatThrownBy(() -> new ReadOnlyUsersLDAPRepository(new SimpleDomainList(), new NoopGaugeRegistry(), new RecordingMetricFactory(),
             LdapRepositoryConfiguration.from(configuration)))
             .isInstanceOf(LDAPException.class)
             .hasMessageContaining("SSLHandshakeException");
@@ -558,7 +559,7 @@ class ReadOnlyUsersLDAPRepositoryTest {
         configuration.addProperty("[@trustAllCerts]", "true");
 
         Awaitility.await().untilAsserted(() -> {
-            assertThatThrownBy(() -> new ReadOnlyUsersLDAPRepository(new SimpleDomainList(), new NoopGaugeRegistry(),
+            assertThatThrownBy(() -> new ReadOnlyUsersLDAPRepository(new SimpleDomainList(), new NoopGaugeRegistry(), new RecordingMetricFactory(),
                 LdapRepositoryConfiguration.from(configuration)))
                 .isInstanceOf(LDAPException.class)
                 .hasMessageContaining("SSLHandshakeException");
@@ -566,7 +567,7 @@ class ReadOnlyUsersLDAPRepositoryTest {
     }
 
     private static ReadOnlyUsersLDAPRepository startUsersRepository(HierarchicalConfiguration<ImmutableNode> configuration, DomainList domainList) throws Exception {
-        ReadOnlyUsersLDAPRepository ldapRepository = new ReadOnlyUsersLDAPRepository(domainList, new NoopGaugeRegistry(),
+        ReadOnlyUsersLDAPRepository ldapRepository = new ReadOnlyUsersLDAPRepository(domainList, new NoopGaugeRegistry(), new RecordingMetricFactory(),
             LdapRepositoryConfiguration.from(configuration));
         ldapRepository.configure(configuration);
         ldapRepository.init();
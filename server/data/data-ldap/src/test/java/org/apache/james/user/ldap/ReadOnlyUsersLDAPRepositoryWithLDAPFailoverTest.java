@@ -37,6 +37,7 @@ import org.apache.commons.configuration2.tree.ImmutableNode;
 import org.apache.james.core.Username;
 import org.apache.james.domainlist.api.mock.SimpleDomainList;
 import org.apache.james.metrics.api.NoopGaugeRegistry;
+import org.apache.james.metrics.tests.RecordingMetricFactory;
 import org.apache.james.user.api.UsersRepositoryException;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
@@ -67,7 +68,7 @@ class ReadOnlyUsersLDAPRepositoryWithLDAPFailoverTest {
 
         HierarchicalConfiguration<ImmutableNode> configuration = ldapRepositoryConfigurationWithVirtualHosting(List.of(masterLdap, slaveLdap));
 
-        usersLDAPRepository = new ReadOnlyUsersLDAPRepository(new SimpleDomainList(), new NoopGaugeRegistry(),
+        usersLDAPRepository = new ReadOnlyUsersLDAPRepository(new SimpleDomainList(), new NoopGaugeRegistry(), new RecordingMetricFactory(),
             LdapRepositoryConfiguration.from(configuration));
         usersLDAPRepository.configure(configuration);
         usersLDAPRepository.init();
@@ -140,7 +141,7 @@ class ReadOnlyUsersLDAPRepositoryWithLDAPFailoverTest {
         masterLdap.pause();
         slaveLdap.pause();
 
-        assertThatThrownBy(() -> usersLDAPRepository = new ReadOnlyUsersLDAPRepository(new SimpleDomainList(), new NoopGaugeRegistry(),
+        assertThatThrownBy(() -> usersLDAPRepository = new ReadOnlyUsersLDAPRepository(new SimpleDomainList(), new NoopGaugeRegistry(), new RecordingMetricFactory(),
             LdapRepositoryConfiguration.from(configuration)))
             .isInstanceOf(LDAPException.class)
             .hasMessageContaining("A client-side timeout was encountered");
@@ -151,7 +152,7 @@ class ReadOnlyUsersLDAPRepositoryWithLDAPFailoverTest {
         HierarchicalConfiguration<ImmutableNode> configuration = ldapRepositoryConfigurationWithVirtualHosting(List.of(masterLdap, slaveLdap));
         masterLdap.pause();
 
-        usersLDAPRepository = new ReadOnlyUsersLDAPRepository(new SimpleDomainList(), new NoopGaugeRegistry(),
+        usersLDAPRepository = new ReadOnlyUsersLDAPRepository(new SimpleDomainList(), new NoopGaugeRegistry(), new RecordingMetricFactory(),
             LdapRepositoryConfiguration.from(configuration));
         usersLDAPRepository.configure(configuration);
 
@@ -165,7 +166,7 @@ class ReadOnlyUsersLDAPRepositoryWithLDAPFailoverTest {
         HierarchicalConfiguration<ImmutableNode> configuration = ldapRepositoryConfigurationWithVirtualHosting(List.of(masterLdap, slaveLdap));
         slaveLdap.pause();
 
-        usersLDAPRepository = new ReadOnlyUsersLDAPRepository(new SimpleDomainList(), new NoopGaugeRegistry(),
+        usersLDAPRepository = new ReadOnlyUsersLDAPRepository(new SimpleDomainList(), new NoopGaugeRegistry(), new RecordingMetricFactory(),
             LdapRepositoryConfiguration.from(configuration));
         usersLDAPRepository.configure(configuration);
 
@@ -178,7 +179,7 @@ class ReadOnlyUsersLDAPRepositoryWithLDAPFailoverTest {
     void shouldSupportBackwardCompatibilityForTheLegacyLdapHostProperty() throws Exception {
         HierarchicalConfiguration<ImmutableNode> configuration = ldapRepositoryConfigurationWithVirtualHosting(List.of(masterLdap, slaveLdap), "ldapHost");
 
-        usersLDAPRepository = new ReadOnlyUsersLDAPRepository(new SimpleDomainList(), new NoopGaugeRegistry(),
+        usersLDAPRepository = new ReadOnlyUsersLDAPRepository(new SimpleDomainList(), new NoopGaugeRegistry(), new RecordingMetricFactory(),
             LdapRepositoryConfiguration.from(configuration));
         usersLDAPRepository.configure(configuration);
 
@@ -192,7 +193,7 @@ class ReadOnlyUsersLDAPRepositoryWithLDAPFailoverTest {
         HierarchicalConfiguration<ImmutableNode> configuration = ldapRepositoryConfigurationWithVirtualHosting(
             Set.of(masterLdap.getLdapHost(), slaveLdap.getLdapsHost()));
 
-        usersLDAPRepository = new ReadOnlyUsersLDAPRepository(new SimpleDomainList(), new NoopGaugeRegistry(),
+        usersLDAPRepository = new ReadOnlyUsersLDAPRepository(new SimpleDomainList(), new NoopGaugeRegistry(), new RecordingMetricFactory(),
             LdapRepositoryConfiguration.from(configuration));
         usersLDAPRepository.configure(configuration);
         usersLDAPRepository.init();
@@ -36,6 +36,7 @@ import org.apache.commons.configuration2.tree.ImmutableNode;
 import org.apache.james.core.Username;
 import org.apache.james.domainlist.api.DomainList;
 import org.apache.james.metrics.api.NoopGaugeRegistry;
+import org.apache.james.metrics.tests.RecordingMetricFactory;
 import org.apache.james.user.api.InvalidUsernameException;
 import org.apache.james.user.lib.UsersRepositoryContract;
 import org.assertj.core.api.SoftAssertions;
@@ -292,7 +293,7 @@ public class ReadOnlyUsersLDAPRepositoryWithLocalPartAsLoginNameTest {
 
     private static ReadOnlyUsersLDAPRepository startUsersRepository(HierarchicalConfiguration<ImmutableNode> configuration,
                                                                     DomainList domainList) throws Exception {
-        ReadOnlyUsersLDAPRepository ldapRepository = new ReadOnlyUsersLDAPRepository(domainList, new NoopGaugeRegistry(),
+        ReadOnlyUsersLDAPRepository ldapRepository = new ReadOnlyUsersLDAPRepository(domainList, new NoopGaugeRegistry(), new RecordingMetricFactory(),
             LdapRepositoryConfiguration.from(configuration));
         ldapRepository.configure(configuration);
         ldapRepository.init();
@@ -0,0 +1,84 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.user.ldap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.unboundid.ldap.sdk.DN;
+
+class VerifiedCredentialsCacheTest {
+    private static final String PASSWORD = "secret";
+
+    private DN userDN;
+    private VerifiedCredentialsCache testee;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        userDN = new DN("uid=james-user,ou=people,dc=james,dc=org");
+        testee = VerifiedCredentialsCache.of(Duration.ofMinutes(1), 10);
+    }
+
+    @Test
+    void isVerifiedShouldReturnFalseByDefault() {
+        assertThat(testee.isVerified(userDN, PASSWORD)).isFalse();
+    }
+
+    @Test
+    void isVerifiedShouldReturnTrueWhenVerified() {
+        testee.verified(userDN, PASSWORD);
+
+        assertThat(testee.isVerified(userDN, PASSWORD)).isTrue();
+    }
+
+    @Test
+    void isVerifiedShouldReturnFalseForOtherPasswords() {
+        testee.verified(userDN, PASSWORD);
+
+        assertThat(testee.isVerified(userDN, "other")).isFalse();
+    }
+
+    @Test
+    void isVerifiedShouldReturnFalseForOtherUsers() throws Exception {
+        testee.verified(userDN, PASSWORD);
+
+        assertThat(testee.isVerified(new DN("uid=other,ou=people,dc=james,dc=org"), PASSWORD)).isFalse();
+    }
+
+    @Test
+    void isVerifiedShouldReturnFalseWhenInvalidated() {
+        testee.verified(userDN, PASSWORD);
+
+        testee.invalidate(userDN);
+
+        assertThat(testee.isVerified(userDN, PASSWORD)).isFalse();
+    }
+
+    @Test
+    void disabledCacheShouldNotRememberCredentials() {
+        VerifiedCredentialsCache.DISABLED.verified(userDN, PASSWORD);
+
+        assertThat(VerifiedCredentialsCache.DISABLED.isVerified(userDN, PASSWORD)).isFalse();
+    }
+}
@@ -0,0 +1,92 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.jdkim.mailets;
+
+import org.apache.james.jdkim.api.PublicKeyRecord;
+import org.apache.james.jdkim.api.PublicKeyRecordRetriever;
+import org.apache.james.jdkim.api.SignatureRecord;
+import org.apache.james.jdkim.exceptions.FailException;
+import org.apache.james.jdkim.exceptions.PermFailException;
+import org.apache.james.jdkim.exceptions.TempFailException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * jDKIM verifier looking up public key records through a {@link PublicKeyRecordCache}.
+ */
+class CachingDKIMVerifier extends org.apache.james.jdkim.DKIMVerifier {
+    private static final Logger LOGGER = LoggerFactory.getLogger(CachingDKIMVerifier.class);
+
+    private final PublicKeyRecordCache cache;
+
+    CachingDKIMVerifier(PublicKeyRecordRetriever publicKeyRecordRetriever, PublicKeyRecordCache cache) {
+        super(publicKeyRecordRetriever);
+        this.cache = cache;
+    }
+
+    /**
+     * Tries the advertised lookup methods in order, like jDKIM does: the first record applying to the signature is
+     * returned. Otherwise, temporary failures take precedence over permanent ones.
+     */
+    @Override
+    public PublicKeyRecord publicRecordLookup(SignatureRecord sign) throws TempFailException, PermFailException {
+        TempFailException tempFailure = null;
+        PermFailException permFailure = null;
+        for (CharSequence method : sign.getRecordLookupMethods()) {
+            try {
+                PublicKeyRecord publicKeyRecord = cache.retrieve(method, sign, () -> lookup(method, sign));
+                apply(publicKeyRecord, sign);
+                return publicKeyRecord;
+            } catch (TempFailException e) {
+                tempFailure = e;
+            } catch (PermFailException e) {
+                permFailure = e;
+            }
+        }
+        if (tempFailure != null) {
+            tempFailure.setRelatedRecord(sign);
+            throw tempFailure;
+        }
+        if (permFailure != null) {
+            permFailure.setRelatedRecord(sign);
+            throw permFailure;
+        }
+        throw new PermFailException("no key for signature [unexpected condition]", sign);
+    }
+
+    /**
+     * Loads the public key record of this signature into the cache, ignoring failures: they will be reported upon
+     * verification.
+     */
+    void prefetch(SignatureRecord sign) {
+        for (CharSequence method : sign.getRecordLookupMethods()) {
+            try {
+                cache.retrieve(method, sign, () -> lookup(method, sign));
+            } catch (FailException | RuntimeException e) {
+                LOGGER.debug("Failed to prefetch DKIM public key for {}._domainkey.{} using {}", sign.getSelector(), sign.getDToken(), method, e);
+            }
+        }
+    }
+
+    private PublicKeyRecord lookup(CharSequence method, SignatureRecord sign) throws TempFailException, PermFailException {
+        return publicKeySelector(getPublicKeyRecordRetriever()
+            .getRecords(method, sign.getSelector().toString(), sign.getDToken().toString()));
+    }
+}
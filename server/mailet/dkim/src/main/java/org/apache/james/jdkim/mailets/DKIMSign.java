@@ -127,6 +127,7 @@ public class DKIMSign extends GenericMailet {
     private PrivateKey privateKey;
     private boolean forceCRLF;
     private Optional<String> defaultDomain;
+    private Optional<DKIMSigner> staticSigner;
 
     @Inject
     public DKIMSign(FileSystem fileSystem) {
@@ -159,6 +160,9 @@ public class DKIMSign extends GenericMailet {
                 .orElseGet(Throwing.supplier(() -> fileSystem.getResource(getInitParameter("privateKeyFilepath"))).sneakyThrow());
 
             privateKey = extractPrivateKey(pem, passphrase);
+            staticSigner = Optional.of(signatureTemplate)
+                .filter(template -> !template.contains(MAIL_FROM_INTERPOLATION_PATTERN))
+                .map(template -> new DKIMSigner(template, privateKey));
         } catch (NoSuchAlgorithmException e) {
             throw new MessagingException("Unknown private key algorythm: " + e.getMessage(), e);
         } catch (InvalidKeySpecException e) {
@@ -170,7 +174,7 @@ public class DKIMSign extends GenericMailet {
 
     public void service(Mail mail) throws MessagingException {
         String interpolatedTemplate = interpolateTemplate(mail);
-        DKIMSigner signer = new DKIMSigner(interpolatedTemplate, getPrivateKey());
+        DKIMSigner signer = staticSigner.orElseGet(() -> new DKIMSigner(interpolatedTemplate, getPrivateKey()));
         SignatureRecord signRecord = signer.newSignatureRecordTemplate(interpolatedTemplate);
         try {
             BodyHasher bhj = signer.newBodyHasher(signRecord);
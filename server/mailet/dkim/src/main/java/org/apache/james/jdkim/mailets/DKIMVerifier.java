@@ -22,6 +22,7 @@ package org.apache.james.jdkim.mailets;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
@@ -31,13 +32,29 @@ import org.apache.james.jdkim.api.Headers;
 import org.apache.james.jdkim.api.PublicKeyRecordRetriever;
 import org.apache.james.jdkim.api.SignatureRecord;
 import org.apache.james.jdkim.exceptions.FailException;
+import org.apache.james.jdkim.impl.BodyHasherImpl;
+import org.apache.james.jdkim.impl.CompoundBodyHasher;
 import org.apache.james.server.core.MimeMessageInputStream;
+import org.apache.james.util.ReactorUtils;
 
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Verifies the DKIM signatures of a message.
+ *
+ * The body hashes of all the signatures are computed while streaming the message once. The public keys of the
+ * signatures are looked up in parallel, while the body is being hashed, and cached in a {@link PublicKeyRecordCache}.
+ */
 public class DKIMVerifier {
-    private final org.apache.james.jdkim.DKIMVerifier originalVerifier;
+    private final CachingDKIMVerifier originalVerifier;
 
     public DKIMVerifier(PublicKeyRecordRetriever publicKeyRecordRetriever) {
-        this.originalVerifier = new org.apache.james.jdkim.DKIMVerifier(publicKeyRecordRetriever);
+        this(publicKeyRecordRetriever, new PublicKeyRecordCache());
+    }
+
+    public DKIMVerifier(PublicKeyRecordRetriever publicKeyRecordRetriever, PublicKeyRecordCache publicKeyRecordCache) {
+        this.originalVerifier = new CachingDKIMVerifier(publicKeyRecordRetriever, publicKeyRecordCache);
     }
 
     public List<SignatureRecord> verifyUsingCRLF(MimeMessage message) throws MessagingException, FailException {
@@ -47,6 +64,7 @@ public class DKIMVerifier {
     public List<SignatureRecord> verify(MimeMessage message, boolean forceCRLF) throws MessagingException, FailException {
         Headers headers = new MimeMessageHeaders(message);
         BodyHasher bh = originalVerifier.newBodyHasher(headers);
+        CompletableFuture<Void> publicKeysPrefetch = prefetchPublicKeys(bh);
         try {
             if (bh != null) {
                 OutputStream os = new HeaderSkippingOutputStream(bh
@@ -70,6 +88,19 @@ public class DKIMVerifier {
                         + e.getMessage(), e);
             }
         }
+        publicKeysPrefetch.join();
         return originalVerifier.verify(bh);
     }
+
+    private CompletableFuture<Void> prefetchPublicKeys(BodyHasher bh) {
+        if (!(bh instanceof CompoundBodyHasher compoundBodyHasher)) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return Flux.fromIterable(compoundBodyHasher.getBodyHashJobs().values())
+            .map(BodyHasherImpl::getSignatureRecord)
+            .flatMap(signatureRecord -> Mono.fromRunnable(() -> originalVerifier.prefetch(signatureRecord))
+                .subscribeOn(ReactorUtils.BLOCKING_CALL_WRAPPER), ReactorUtils.DEFAULT_CONCURRENCY)
+            .then()
+            .toFuture();
+    }
 }
@@ -64,8 +64,12 @@ public class DKIMVerify extends GenericMailet {
     private boolean forceCRLF;
 
     @Inject
+    public DKIMVerify(PublicKeyRecordRetriever publicKeyRecordRetriever, PublicKeyRecordCache publicKeyRecordCache) {
+        verifier = new DKIMVerifier(publicKeyRecordRetriever, publicKeyRecordCache);
+    }
+
     public DKIMVerify(PublicKeyRecordRetriever publicKeyRecordRetriever) {
-        verifier = new DKIMVerifier(publicKeyRecordRetriever);
+        this(publicKeyRecordRetriever, new PublicKeyRecordCache());
     }
 
     @Override
@@ -0,0 +1,198 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.jdkim.mailets;
+
+import java.security.PublicKey;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+import jakarta.inject.Inject;
+
+import org.apache.james.jdkim.api.PublicKeyRecord;
+import org.apache.james.jdkim.api.SignatureRecord;
+import org.apache.james.jdkim.exceptions.PermFailException;
+import org.apache.james.jdkim.exceptions.TempFailException;
+import org.apache.james.util.DurationParser;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Suppliers;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+/**
+ * Caches the DKIM public key records, keyed by <code>selector._domainkey.domain</code>, so that they are neither
+ * retrieved nor parsed again for every verified message.
+ *
+ * Records that can not be retrieved for good (permanent failures like a missing or malformed record) are cached
+ * for a shorter duration. Temporary failures are never cached.
+ *
+ * Settings can be adjusted through the following system properties:
+ * <ul>
+ *     <li><code>james.dkim.publickey.cache.ttl</code>: duration for which a record is kept. Defaults to 1 hour.</li>
+ *     <li><code>james.dkim.publickey.cache.negative.ttl</code>: duration for which a permanent failure is kept.
+ *     Defaults to 5 minutes.</li>
+ *     <li><code>james.dkim.publickey.cache.size</code>: maximum count of records, and of failures, kept.
+ *     Defaults to 10000.</li>
+ * </ul>
+ */
+public class PublicKeyRecordCache {
+    public static final Duration DEFAULT_TTL = Optional.ofNullable(System.getProperty("james.dkim.publickey.cache.ttl"))
+        .map(DurationParser::parse)
+        .orElse(Duration.ofHours(1));
+    public static final Duration DEFAULT_NEGATIVE_TTL = Optional.ofNullable(System.getProperty("james.dkim.publickey.cache.negative.ttl"))
+        .map(DurationParser::parse)
+        .orElse(Duration.ofMinutes(5));
+    public static final long DEFAULT_MAX_SIZE = Optional.ofNullable(System.getProperty("james.dkim.publickey.cache.size"))
+        .map(Long::parseLong)
+        .orElse(10_000L);
+
+    @FunctionalInterface
+    public interface Loader {
+        PublicKeyRecord load() throws TempFailException, PermFailException;
+    }
+
+    /**
+     * Parses the public key only once, as {@link PublicKeyRecord#getPublicKey()} decodes it on every call.
+     */
+    private static class ParsedPublicKeyRecord implements PublicKeyRecord {
+        private final PublicKeyRecord delegate;
+        private final Supplier<PublicKey> publicKey;
+
+        ParsedPublicKeyRecord(PublicKeyRecord delegate) {
+            this.delegate = delegate;
+            this.publicKey = Suppliers.memoize(delegate::getPublicKey);
+        }
+
+        @Override
+        public void validate() {
+            delegate.validate();
+        }
+
+        @Override
+        public boolean isHashMethodSupported(CharSequence hash) {
+            return delegate.isHashMethodSupported(hash);
+        }
+
+        @Override
+        public boolean isKeyTypeSupported(CharSequence keyType) {
+            return delegate.isKeyTypeSupported(keyType);
+        }
+
+        @Override
+        public List<CharSequence> getAcceptableHashMethods() {
+            return delegate.getAcceptableHashMethods();
+        }
+
+        @Override
+        public List<CharSequence> getAcceptableKeyTypes() {
+            return delegate.getAcceptableKeyTypes();
+        }
+
+        @Override
+        public Pattern getGranularityPattern() {
+            return delegate.getGranularityPattern();
+        }
+
+        @Override
+        public PublicKey getPublicKey() {
+            return publicKey.get();
+        }
+
+        @Override
+        public List<CharSequence> getFlags() {
+            return delegate.getFlags();
+        }
+
+        @Override
+        public boolean isTesting() {
+            return delegate.isTesting();
+        }
+
+        @Override
+        public boolean isDenySubdomains() {
+            return delegate.isDenySubdomains();
+        }
+    }
+
+    private final Cache<String, PublicKeyRecord> records;
+    private final Cache<String, String> permanentFailures;
+
+    @Inject
+    public PublicKeyRecordCache() {
+        this(DEFAULT_TTL, DEFAULT_NEGATIVE_TTL, DEFAULT_MAX_SIZE);
+    }
+
+    public PublicKeyRecordCache(Duration ttl, Duration negativeTtl, long maxSize) {
+        Preconditions.checkArgument(maxSize > 0, "'maxSize' needs to be strictly positive");
+
+        this.records = CacheBuilder.newBuilder()
+            .expireAfterWrite(ttl)
+            .maximumSize(maxSize)
+            .build();
+        this.permanentFailures = CacheBuilder.newBuilder()
+            .expireAfterWrite(negativeTtl)
+            .maximumSize(maxSize)
+            .build();
+    }
+
+    /**
+     * @return the cached record for the given lookup method and signature, relying on the loader upon cache miss.
+     * Concurrent misses for the same key trigger a single load.
+     */
+    public PublicKeyRecord retrieve(CharSequence method, SignatureRecord signature, Loader loader) throws TempFailException, PermFailException {
+        String key = key(method, signature);
+        String permanentFailure = permanentFailures.getIfPresent(key);
+        if (permanentFailure != null) {
+            throw new PermFailException(permanentFailure, signature);
+        }
+        try {
+            return records.get(key, () -> new ParsedPublicKeyRecord(loader.load()));
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            if (e.getCause() instanceof PermFailException permFailException) {
+                permanentFailures.put(key, permFailException.getMessage());
+                throw new PermFailException(permFailException.getMessage(), signature);
+            }
+            if (e.getCause() instanceof TempFailException tempFailException) {
+                TempFailException exception = new TempFailException(tempFailException.getMessage());
+                exception.setRelatedRecord(signature);
+                throw exception;
+            }
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    public void invalidateAll() {
+        records.invalidateAll();
+        permanentFailures.invalidateAll();
+    }
+
+    private String key(CharSequence method, SignatureRecord signature) {
+        return method + ":" + (signature.getSelector() + "._domainkey." + signature.getDToken()).toLowerCase(Locale.US);
+    }
+}
@@ -0,0 +1,136 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.jdkim.mailets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayInputStream;
+import java.time.Duration;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import jakarta.mail.Session;
+import jakarta.mail.internet.MimeMessage;
+
+import org.apache.james.jdkim.api.PublicKeyRecordRetriever;
+import org.apache.james.jdkim.api.SignatureRecord;
+import org.apache.james.jdkim.exceptions.PermFailException;
+import org.apache.james.jdkim.exceptions.TempFailException;
+import org.apache.james.jdkim.tagvalue.SignatureRecordImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.google.common.collect.ImmutableList;
+
+class PublicKeyRecordCacheTest {
+    private static final String PUBLIC_KEY_RECORD = "v=DKIM1; k=rsa; p=MIGfMA0GCSqGSIb3DQEBAQUAA4GNADCBiQKBgQDYDaYKXzwVYwqWbLhmuJ66aTAN8wmDR+rfHE8HfnkSOax0oIoTM5zquZrTLo30870YMfYzxwfB6j/Nz3QdwrUD/t0YMYJiUKyWJnCKfZXHJBJ+yfRHr7oW+UW3cVo9CG2bBfIxsInwYe175g9UjyntJpWueqdEIo1c2bhv9Mp66QIDAQAB;";
+    private static final String SIGNED_MESSAGE = "DKIM-Signature: v=1; d=example.com; t=1284762805; b=ZFfwSIzTQM7k9syRnl9VfQh0/dr99euvBe1gn/DiTrnEZjxyjzQBD2MMvowVdbHpPMtSjtCtehU9zZ3urXmj5iHKujpEkP92FEKinzElkQ2eT2zoxdg1zByPHsKPX+KjrBespAJcO2k052aOK5kIBFxpQumP4aiW7ZklBKSWMBk=; s=selector; a=rsa-sha256; bh=rHOD7fd9xnNxK7OSl5ellpQVF14NNFbOIizqtUMhnio=; h=from:to:received:received;\r\n"
+        + "Received: by 10.XX.XX.12 with SMTP id dfgskldjfhgkljsdfhgkljdhfg;\r\n\tTue, 06 Oct 2009 07:37:34 -0700 (PDT)\r\nReturn-Path: <bounce@example.com>\r\nReceived: from example.co.uk (example.co.uk [XX.XXX.125.19])\r\n\tby mx.example.com with ESMTP id dgdfgsdfgsd.97.2009.10.06.07.37.32;\r\n\tTue, 06 Oct 2009 07:37:32 -0700 (PDT)\r\nFrom: apache@bago.org\r\nTo: apache@bago.org\r\n\r\nbody\r\nprova\r\n";
+
+    private static class CountingPublicKeyRecordRetriever implements PublicKeyRecordRetriever {
+        private final PublicKeyRecordRetriever delegate;
+        private final AtomicInteger calls = new AtomicInteger(0);
+
+        CountingPublicKeyRecordRetriever(PublicKeyRecordRetriever delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public List<String> getRecords(CharSequence methodAndOptions, CharSequence selector, CharSequence token) throws TempFailException, PermFailException {
+            calls.incrementAndGet();
+            return delegate.getRecords(methodAndOptions, selector, token);
+        }
+    }
+
+    private PublicKeyRecordCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new PublicKeyRecordCache(Duration.ofHours(1), Duration.ofMinutes(5), 100);
+    }
+
+    private MimeMessage message() throws Exception {
+        return new MimeMessage(Session.getDefaultInstance(new Properties()), new ByteArrayInputStream(SIGNED_MESSAGE.getBytes()));
+    }
+
+    @Test
+    void verifyShouldLookupPublicKeyOnlyOnceForSeveralMessages() throws Exception {
+        CountingPublicKeyRecordRetriever retriever = new CountingPublicKeyRecordRetriever(
+            new MockPublicKeyRecordRetriever(PUBLIC_KEY_RECORD, "selector", "example.com"));
+        DKIMVerifier verifier = new DKIMVerifier(retriever, cache);
+
+        assertThat(verifier.verify(message(), true)).hasSize(1);
+        assertThat(verifier.verify(message(), true)).hasSize(1);
+
+        assertThat(retriever.calls.get()).isEqualTo(1);
+    }
+
+    @Test
+    void verifyShouldShareCacheBetweenVerifiers() throws Exception {
+        CountingPublicKeyRecordRetriever retriever = new CountingPublicKeyRecordRetriever(
+            new MockPublicKeyRecordRetriever(PUBLIC_KEY_RECORD, "selector", "example.com"));
+
+        new DKIMVerifier(retriever, cache).verify(message(), true);
+        new DKIMVerifier(retriever, cache).verify(message(), true);
+
+        assertThat(retriever.calls.get()).isEqualTo(1);
+    }
+
+    @Test
+    void verifyShouldCachePermanentFailures() throws Exception {
+        CountingPublicKeyRecordRetriever retriever = new CountingPublicKeyRecordRetriever(
+            (method, selector, token) -> ImmutableList.of("v=DKIM1; k=rsa; p=;"));
+        DKIMVerifier verifier = new DKIMVerifier(retriever, cache);
+
+        assertThatThrownBy(() -> verifier.verify(message(), true)).isInstanceOf(PermFailException.class);
+        assertThatThrownBy(() -> verifier.verify(message(), true)).isInstanceOf(PermFailException.class);
+
+        assertThat(retriever.calls.get()).isEqualTo(1);
+    }
+
+    @Test
+    void verifyShouldNotCacheTemporaryFailures() throws Exception {
+        CountingPublicKeyRecordRetriever retriever = new CountingPublicKeyRecordRetriever(
+            new MockPublicKeyRecordRetriever(PUBLIC_KEY_RECORD, "otherSelector", "example.com"));
+        DKIMVerifier verifier = new DKIMVerifier(retriever, cache);
+
+        assertThatThrownBy(() -> verifier.verify(message(), true)).isInstanceOf(TempFailException.class);
+        int callsAfterFirstVerification = retriever.calls.get();
+        assertThatThrownBy(() -> verifier.verify(message(), true)).isInstanceOf(TempFailException.class);
+
+        assertThat(retriever.calls.get()).isGreaterThan(callsAfterFirstVerification);
+    }
+
+    @Test
+    void publicRecordLookupShouldTryTheNextLookupMethodUponFailure() throws Exception {
+        SignatureRecord signature = new SignatureRecordImpl("v=1; a=rsa-sha256; d=example.com; s=selector; q=private/lookup:dns/txt; h=from; bh=; b=;");
+        MockPublicKeyRecordRetriever dns = new MockPublicKeyRecordRetriever(PUBLIC_KEY_RECORD, "selector", "example.com");
+        CachingDKIMVerifier verifier = new CachingDKIMVerifier((method, selector, token) -> {
+            if (method.toString().equals("dns/txt")) {
+                return dns.getRecords(method, selector, token);
+            }
+            throw new PermFailException("Unsupported lookup method " + method);
+        }, cache);
+
+        assertThat(verifier.publicRecordLookup(signature).getPublicKey()).isNotNull();
+    }
+}
@@ -0,0 +1,84 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.mailetcontainer.impl;
+
+import java.lang.management.ManagementFactory;
+import java.util.Optional;
+
+import org.apache.james.metrics.api.MetricFactory;
+
+import com.google.common.primitives.Ints;
+import com.sun.management.ThreadMXBean;
+
+/**
+ * Measures the CPU time and the heap allocations of the current thread while a mailet executes.
+ *
+ * They are published as the "spoolerMailetCpuMicros.[mailet]" and "spoolerMailetAllocatedKiloBytes.[mailet]"
+ * counters, in order to spot the mailets parsing or copying the messages they process.
+ * Nothing is measured when the JVM does not support it.
+ */
+class MailetResourceUsage {
+    private static final String CPU_METRIC_PREFIX = "spoolerMailetCpuMicros.";
+    private static final String ALLOCATION_METRIC_PREFIX = "spoolerMailetAllocatedKiloBytes.";
+    private static final long NANOS_PER_MICRO = 1000L;
+    private static final long BYTES_PER_KILOBYTE = 1024L;
+    private static final Optional<ThreadMXBean> THREAD_MX_BEAN = threadMXBean();
+
+    private static Optional<ThreadMXBean> threadMXBean() {
+        if (ManagementFactory.getThreadMXBean() instanceof ThreadMXBean threadMXBean
+            && threadMXBean.isCurrentThreadCpuTimeSupported()
+            && threadMXBean.isThreadAllocatedMemorySupported()) {
+            return Optional.of(threadMXBean);
+        }
+        return Optional.empty();
+    }
+
+    static MailetResourceUsage start(MetricFactory metricFactory, String mailetName) {
+        return new MailetResourceUsage(metricFactory, mailetName,
+            THREAD_MX_BEAN.map(ThreadMXBean::getCurrentThreadCpuTime).orElse(0L),
+            THREAD_MX_BEAN.map(ThreadMXBean::getCurrentThreadAllocatedBytes).orElse(0L));
+    }
+
+    private final MetricFactory metricFactory;
+    private final String mailetName;
+    private final long cpuTimeAtStart;
+    private final long allocatedBytesAtStart;
+
+    private MailetResourceUsage(MetricFactory metricFactory, String mailetName, long cpuTimeAtStart, long allocatedBytesAtStart) {
+        this.metricFactory = metricFactory;
+        this.mailetName = mailetName;
+        this.cpuTimeAtStart = cpuTimeAtStart;
+        this.allocatedBytesAtStart = allocatedBytesAtStart;
+    }
+
+    void stopAndPublish() {
+        THREAD_MX_BEAN.ifPresent(threadMXBean -> {
+            long cpuTime = threadMXBean.getCurrentThreadCpuTime() - cpuTimeAtStart;
+            long allocatedBytes = threadMXBean.getCurrentThreadAllocatedBytes() - allocatedBytesAtStart;
+
+            if (cpuTime > 0) {
+                metricFactory.generate(CPU_METRIC_PREFIX + mailetName).add(Ints.saturatedCast(cpuTime / NANOS_PER_MICRO));
+            }
+            if (allocatedBytes > 0) {
+                metricFactory.generate(ALLOCATION_METRIC_PREFIX + mailetName).add(Ints.saturatedCast(allocatedBytes / BYTES_PER_KILOBYTE));
+            }
+        });
+    }
+}
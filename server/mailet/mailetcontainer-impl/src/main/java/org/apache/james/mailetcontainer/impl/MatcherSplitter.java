@@ -34,6 +34,7 @@ import org.apache.james.mailetcontainer.lib.AbstractStateMailetProcessor.MailetP
 import org.apache.james.metrics.api.MetricFactory;
 import org.apache.james.metrics.api.TimeMetric;
 import org.apache.james.server.core.MailImpl;
+import org.apache.james.server.core.MimeMessageWrapper;
 import org.apache.mailet.Attribute;
 import org.apache.mailet.AttributeName;
 import org.apache.mailet.AttributeValue;
@@ -42,6 +43,8 @@ import org.apache.mailet.Matcher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.primitives.Ints;
+
 /**
  * A Splitter for use with Camel to split the MailMessage into many pieces if
  * needed. This is done by use a Matcher.
@@ -51,6 +54,9 @@ public class MatcherSplitter {
 
     /** Headername which is used to indicate that the matcher matched */
     public static final AttributeName MATCHER_MATCHED_ATTRIBUTE = AttributeName.of("matched");
+    public static final String SHARED_DUPLICATES_METRIC = "spoolerSharedDuplicates";
+    public static final String SHARED_DUPLICATES_SAVED_KILOBYTES_METRIC = "spoolerSharedDuplicatesSavedKiloBytes";
+    private static final long BYTES_PER_KILOBYTE = 1024L;
 
     private final MetricFactory metricFactory;
     private final MailetProcessorImpl container;
@@ -136,6 +142,7 @@ public class MatcherSplitter {
                     mail.setRecipients(rcpts);
 
                     Mail newMail = MailImpl.duplicate(mail);
+                    recordSharedContent(newMail);
                     newMail.setRecipients(matchedRcpts);
                     newMail.setState(mail.getState());
 
@@ -172,4 +179,12 @@ public class MatcherSplitter {
             }
         }
     }
+
+    private void recordSharedContent(Mail newMail) throws MessagingException {
+        if (newMail.getMessage() instanceof MimeMessageWrapper wrapper && wrapper.isSourceShared()) {
+            metricFactory.generate(SHARED_DUPLICATES_METRIC).increment();
+            metricFactory.generate(SHARED_DUPLICATES_SAVED_KILOBYTES_METRIC)
+                .add(Ints.saturatedCast(wrapper.getMessageSize() / BYTES_PER_KILOBYTE));
+        }
+    }
 }
@@ -66,6 +66,7 @@ public class ProcessorImpl {
     public void process(Mail mail) throws Exception {
         long start = System.currentTimeMillis();
         TimeMetric timeMetric = metricFactory.timer(mailet.getClass().getSimpleName());
+        MailetResourceUsage resourceUsage = MailetResourceUsage.start(metricFactory, mailet.getClass().getSimpleName());
         Throwable ex = null;
         try (Closeable closeable = mdcBase(mail)
                      .addToContext("mailet", mailet.getClass().getSimpleName())
@@ -90,6 +91,7 @@ public class ProcessorImpl {
 
         } finally {
             timeMetric.stopAndPublish();
+            resourceUsage.stopAndPublish();
             MailetPipelineLogging.logEndOfMailetProcess(mailet, mail);
             long complete = System.currentTimeMillis() - start;
             if (mail.getRecipients().isEmpty()) {
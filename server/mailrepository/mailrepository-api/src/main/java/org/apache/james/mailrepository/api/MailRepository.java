@@ -27,11 +27,14 @@ import java.util.function.Predicate;
 
 import jakarta.mail.MessagingException;
 
+import org.apache.james.util.ReactorUtils;
 import org.apache.james.util.streams.Iterators;
 import org.apache.mailet.Mail;
 import org.reactivestreams.Publisher;
 
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 /**
  * Interface for a Repository to store Mails.
@@ -179,6 +182,37 @@ public interface MailRepository {
             }).iterator();
     }
 
+    /**
+     * Streams the keys of messages in repository.
+     *
+     * Implementations backed by a paginated storage should override this in order to emit the keys as the
+     * pages are read, instead of loading them all in memory: this lets callers browse very large repositories
+     * with back-pressure.
+     */
+    default Publisher<MailKey> listReactive() {
+        return Flux.defer(() -> {
+                try {
+                    return Iterators.toFlux(list());
+                } catch (MessagingException e) {
+                    return Flux.error(e);
+                }
+            })
+            .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * Streams the keys of messages matching the condition, retrieving the mails to test concurrently.
+     */
+    default Publisher<MailKey> listReactive(Condition condition) {
+        if (Condition.ALL.equals(condition)) {
+            return listReactive();
+        }
+        return Flux.from(listReactive())
+            .flatMapSequential(key -> Mono.from(retrieveReactive(key))
+                .filter(condition)
+                .map(any -> key), ReactorUtils.DEFAULT_CONCURRENCY);
+    }
+
     /**
      * Retrieves a message given a key. At the moment, keys can be obtained from
      * list() in superinterface Store.Repository
@@ -197,6 +231,25 @@ public interface MailRepository {
      */
     void remove(MailKey key) throws MessagingException;
 
+    /**
+     * Reactive version of {@link #retrieve(MailKey)}, completing empty when no mail is stored under this key.
+     */
+    default Publisher<Mail> retrieveReactive(MailKey key) {
+        return Mono.fromCallable(() -> retrieve(key))
+            .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * Reactive version of {@link #remove(MailKey)}.
+     */
+    default Publisher<Void> removeReactive(MailKey key) {
+        return Mono.<Void>fromCallable(() -> {
+                remove(key);
+                return null;
+            })
+            .subscribeOn(Schedulers.boundedElastic());
+    }
+
     /**
      * Removes some messages identified by keys.
      */
@@ -62,6 +62,9 @@ import com.google.common.base.Strings;
 import com.google.common.collect.ImmutableList;
 import com.google.common.hash.Hashing;
 
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
 public interface MailRepositoryContract {
 
     Attribute TEST_ATTRIBUTE = Attribute.convertToAttribute("testAttribute", "testValue");
@@ -478,6 +481,65 @@ public interface MailRepositoryContract {
                 .containsOnly(key1, key2);
     }
 
+    @Test
+    default void listReactiveShouldReturnStoredMailsKeys() throws Exception {
+        MailRepository testee = retrieveRepository();
+        MailKey key1 = testee.store(createMail(MAIL_1));
+        MailKey key2 = testee.store(createMail(MAIL_2));
+
+        assertThat(Flux.from(testee.listReactive()).collectList().block())
+            .containsOnly(key1, key2);
+    }
+
+    @Test
+    default void listReactiveShouldReturnEmptyWhenEmpty() throws Exception {
+        MailRepository testee = retrieveRepository();
+
+        assertThat(Flux.from(testee.listReactive()).collectList().block())
+            .isEmpty();
+    }
+
+    @Test
+    default void listReactiveShouldFilterOnCondition() throws Exception {
+        MailRepository testee = retrieveRepository();
+        MailKey key1 = testee.store(createMail(MAIL_1));
+        testee.store(createMail(MAIL_2));
+
+        assertThat(Flux.from(testee.listReactive(mail -> mail.getName().equals(MAIL_1.asString()))).collectList().block())
+            .containsOnly(key1);
+    }
+
+    @Test
+    default void retrieveReactiveShouldGetStoredMail() throws Exception {
+        MailRepository testee = retrieveRepository();
+        Mail mail = createMail(MAIL_1);
+
+        MailKey key = testee.store(mail);
+
+        assertThat(Mono.from(testee.retrieveReactive(key)).block()).satisfies(actual -> checkMailEquality(actual, mail));
+    }
+
+    @Test
+    default void retrieveReactiveShouldBeEmptyWhenUnknownKey() throws Exception {
+        MailRepository testee = retrieveRepository();
+
+        assertThat(Mono.from(testee.retrieveReactive(UNKNOWN_KEY)).blockOptional()).isEmpty();
+    }
+
+    @Test
+    default void removeReactiveShouldRemoveTheMail() throws Exception {
+        MailRepository testee = retrieveRepository();
+        MailKey key1 = testee.store(createMail(MAIL_1));
+        MailKey key2 = testee.store(createMail(MAIL_2));
+
+        Mono.from(testee.removeReactive(key1)).block();
+
+        assertThat(testee.list())
+            .toIterable()
+            .containsOnly(key2);
+        assertThat(testee.retrieve(key1)).isNull();
+    }
+
     @Test
     default void storingMailWithSameNameTwiceShouldReturnTheSameMailKey() throws Exception {
         MailRepository testee = retrieveRepository();
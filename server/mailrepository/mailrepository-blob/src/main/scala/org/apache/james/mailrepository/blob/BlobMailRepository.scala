@@ -33,6 +33,7 @@ import org.apache.james.mailrepository.api.{MailKey, MailRepository, MailReposit
 import org.apache.james.server.core.MailImpl
 import org.apache.james.util.AuditTrail
 import org.apache.mailet._
+import org.reactivestreams.Publisher
 import play.api.libs.json.{Format, Json}
 import reactor.core.publisher.{Flux, Mono}
 import reactor.core.scala.publisher.SMono
@@ -178,34 +179,42 @@ class BlobMailRepository(val mailMetaDataBlobStore: BlobStore,
 
   @throws[MessagingException]
   override def list: util.Iterator[MailKey] =
+    Flux.from(listReactive())
+    .toIterable
+    .iterator
+
+  override def listReactive(): Publisher[MailKey] =
     Flux.from(mailMetaDataBlobStore.listBlobs(mailMetaDataBlobStore.getDefaultBucketName))
     .filter(this.belongsToMailRepository)
     .map[MailKey](blobId => new MailKey(blobId.asString))
-    .toIterable
-    .iterator
 
   private def belongsToMailRepository(blobId: BlobId): Boolean =
     blobId.asString().startsWith(url.getPath.asString())
 
   @throws[MessagingException]
-  override def retrieve(key: MailKey): Mail = {
-    mailMetadataStore.read(MailPartsId(mailMetadataBlobIdFactory.parse(key.asString())))
+  override def retrieve(key: MailKey): Mail =
+    Mono.from(retrieveReactive(key))
+      .block()
+
+  override def retrieveReactive(key: MailKey): Publisher[Mail] =
+    SMono(mailMetadataStore.read(MailPartsId(mailMetadataBlobIdFactory.parse(key.asString()))))
       .flatMap {
-        case (mail, mimeMessagePartsId) => mimeMessageStore.read(mimeMessagePartsId).map { mimeMessage =>
+        case (mail, mimeMessagePartsId) => SMono(mimeMessageStore.read(mimeMessagePartsId)).map { mimeMessage =>
           mail.setMessage(mimeMessage)
-          Some(mail): Option[Mail]
+          mail
         }
       }
-      .onErrorReturn(None)
-      .block()
-      .orNull
-  }
+      .onErrorResume(_ => SMono.empty)
+      .asJava()
 
   @throws[MessagingException]
-  override def remove(key: MailKey): Unit = {
-    val mailMetadataId: MailPartsId = MailPartsId(mailMetadataBlobIdFactory.parse(key.asString()))
-    remove(mailMetadataId).block()
-  }
+  override def remove(key: MailKey): Unit =
+    Mono.from(removeReactive(key)).block()
+
+  override def removeReactive(key: MailKey): Publisher[Void] =
+    remove(MailPartsId(mailMetadataBlobIdFactory.parse(key.asString())))
+      .asJava()
+      .`then`()
 
   private def remove(mailMetadataId: MailPartsId): SMono[Unit] =
     for {
@@ -41,7 +41,6 @@ import org.apache.james.mailrepository.cassandra.CassandraMailRepositoryMailDaoV
 import org.apache.james.server.core.MailImpl;
 import org.apache.james.server.core.MimeMessageWrapper;
 import org.apache.james.util.AuditTrail;
-import org.apache.james.util.streams.Iterators;
 import org.apache.mailet.Mail;
 import org.reactivestreams.Publisher;
 import org.slf4j.Logger;
@@ -50,6 +49,7 @@ import org.slf4j.LoggerFactory;
 import com.github.fge.lambdas.Throwing;
 import com.google.common.collect.ImmutableMap;
 
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 public class CassandraMailRepository implements MailRepository {
@@ -105,27 +105,51 @@ public class CassandraMailRepository implements MailRepository {
 
     @Override
     public Iterator<MailKey> list(Condition condition) {
-        return Iterators.toStream(list())
-            .filter(key -> Optional.ofNullable(retrieveMetadata(key))
-                .map(condition::test)
-                .orElse(false))
+        return Flux.from(listReactive(condition))
+            .toIterable()
             .iterator();
     }
 
-    private Mail retrieveMetadata(MailKey key) {
+    /**
+     * The keys are read page by page by the driver, as they are consumed.
+     */
+    @Override
+    public Publisher<MailKey> listReactive() {
+        return keysDAO.list(url);
+    }
+
+    /**
+     * Conditions are evaluated against the mail metadata only, without reading the blobs.
+     */
+    @Override
+    public Publisher<MailKey> listReactive(Condition condition) {
+        if (Condition.ALL.equals(condition)) {
+            return listReactive();
+        }
+        return keysDAO.list(url)
+            .flatMapSequential(key -> retrieveMetadata(key)
+                .filter(condition)
+                .map(any -> key), DEFAULT_CONCURRENCY);
+    }
+
+    private Mono<Mail> retrieveMetadata(MailKey key) {
         return readMail(key)
-            .map(mailDTO -> mailDTO.getMailBuilder().build())
-            .block();
+            .map(mailDTO -> mailDTO.getMailBuilder().build());
     }
 
     @Override
     public Mail retrieve(MailKey key) {
-        return readMail(key)
-            .flatMap(this::toMail)
+        return Mono.from(retrieveReactive(key))
             .blockOptional()
             .orElse(null);
     }
 
+    @Override
+    public Publisher<Mail> retrieveReactive(MailKey key) {
+        return readMail(key)
+            .flatMap(this::toMail);
+    }
+
     /**
      * Reads the content of a mail, auto-healing the keys that are no longer backed by any content.
      *
@@ -174,6 +198,11 @@ public class CassandraMailRepository implements MailRepository {
         removeAsync(key).block();
     }
 
+    @Override
+    public Publisher<Void> removeReactive(MailKey key) {
+        return removeAsync(key);
+    }
+
     private Mono<Void> removeAsync(MailKey key) {
         return mailDAO.read(url, key)
             .flatMap(maybeMailDTO ->
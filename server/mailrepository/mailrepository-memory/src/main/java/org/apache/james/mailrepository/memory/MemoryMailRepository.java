@@ -32,10 +32,14 @@ import org.apache.james.mailrepository.api.MailKey;
 import org.apache.james.mailrepository.api.MailRepository;
 import org.apache.james.util.AuditTrail;
 import org.apache.mailet.Mail;
+import org.reactivestreams.Publisher;
 
 import com.github.fge.lambdas.Throwing;
 import com.google.common.collect.ImmutableMap;
 
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
 public class MemoryMailRepository implements MailRepository {
 
     private final ConcurrentHashMap<MailKey, Mail> mails;
@@ -68,6 +72,11 @@ public class MemoryMailRepository implements MailRepository {
         return mails.keySet().iterator();
     }
 
+    @Override
+    public Publisher<MailKey> listReactive() {
+        return Flux.fromIterable(mails.keySet());
+    }
+
     @Override
     public Mail retrieve(MailKey key) {
         return Optional.ofNullable(mails.get(key))
@@ -75,11 +84,22 @@ public class MemoryMailRepository implements MailRepository {
             .orElse(null);
     }
 
+    @Override
+    public Publisher<Mail> retrieveReactive(MailKey key) {
+        return Mono.justOrEmpty(mails.get(key))
+            .map(this::cloneMail);
+    }
+
     @Override
     public void remove(MailKey key) {
         mails.remove(key);
     }
 
+    @Override
+    public Publisher<Void> removeReactive(MailKey key) {
+        return Mono.fromRunnable(() -> mails.remove(key));
+    }
+
     @Override
     public long size() {
         return mails.size();
@@ -88,4 +88,16 @@ public class DistributedEmailQueryMethodNoViewTest implements EmailQueryMethodCo
     @Disabled("JAMES-3340 Not supported for no email query view")
     public void inMailboxBeforeSortedByReceivedAtShouldCollapseThreads(GuiceJamesServer server) {
     }
-}
\ No newline at end of file
+
+    @Test
+    @Override
+    @Disabled("Anchors are only served by the email query view")
+    public void inMailboxSortedByReceivedAtShouldSupportAnchor(GuiceJamesServer server) {
+    }
+
+    @Test
+    @Override
+    @Disabled("Anchors are only served by the email query view")
+    public void inMailboxSortedByReceivedAtShouldReturnAnchorNotFoundWhenTheAnchorIsNotInTheMailbox(GuiceJamesServer server) {
+    }
+}
@@ -0,0 +1,353 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+package org.apache.james.jmap.rfc8621.contract
+
+import java.nio.charset.StandardCharsets
+import java.time.ZonedDateTime
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicReference
+import java.util.{Date, UUID}
+
+import com.google.common.hash.Hashing
+import io.netty.handler.codec.http.HttpHeaderNames.ACCEPT
+import io.restassured.RestAssured.{`given`, requestSpecification}
+import io.restassured.http.ContentType.JSON
+import io.restassured.path.json.JsonPath
+import net.javacrumbs.jsonunit.assertj.JsonAssertions.assertThatJson
+import net.javacrumbs.jsonunit.core.Option.IGNORING_ARRAY_ORDER
+import org.apache.http.HttpStatus.SC_OK
+import org.apache.james.GuiceJamesServer
+import org.apache.james.core.Username
+import org.apache.james.jmap.http.UserCredential
+import org.apache.james.jmap.rfc8621.contract.Fixture.{ACCEPT_RFC8621_VERSION_HEADER, BOB_PASSWORD, DOMAIN, authScheme, baseRequestSpecBuilder}
+import org.apache.james.mailbox.MessageManager.AppendCommand
+import org.apache.james.mailbox.model.{MailboxId, MailboxPath, MessageId}
+import org.apache.james.mime4j.dom.Message
+import org.apache.james.modules.MailboxProbeImpl
+import org.apache.james.utils.DataProbeImpl
+import org.assertj.core.api.Assertions.assertThat
+import org.awaitility.Awaitility
+import org.awaitility.Durations.ONE_HUNDRED_MILLISECONDS
+import org.junit.jupiter.api.{BeforeEach, Test}
+
+import scala.jdk.CollectionConverters._
+
+object EmailQueryChangesMethodContract {
+  case class TestContext(bobUsername: Username, bobAccountId: String)
+  val currentContext: AtomicReference[TestContext] = new AtomicReference[TestContext]()
+}
+
+trait EmailQueryChangesMethodContract {
+  def bobUsername: Username = EmailQueryChangesMethodContract.currentContext.get().bobUsername
+  def bobAccountId: String = EmailQueryChangesMethodContract.currentContext.get().bobAccountId
+
+  private lazy val calmlyAwait = Awaitility.`with`
+    .pollInterval(ONE_HUNDRED_MILLISECONDS)
+    .and.`with`.pollDelay(ONE_HUNDRED_MILLISECONDS)
+    .await
+  private lazy val awaitAtMostTenSeconds = calmlyAwait.atMost(10, TimeUnit.SECONDS)
+
+  @BeforeEach
+  def setUp(server: GuiceJamesServer): Unit = {
+    val bob = Username.fromLocalPartWithDomain(s"bob${UUID.randomUUID().toString.replace("-", "").take(8)}", DOMAIN)
+    EmailQueryChangesMethodContract.currentContext.set(EmailQueryChangesMethodContract.TestContext(
+      bobUsername = bob,
+      bobAccountId = Hashing.sha256().hashString(bob.asString(), StandardCharsets.UTF_8).toString))
+
+    server.getProbe(classOf[DataProbeImpl])
+      .fluent
+      .addDomain(DOMAIN.asString)
+      .addUser(bob.asString, BOB_PASSWORD)
+
+    requestSpecification = baseRequestSpecBuilder(server)
+      .setAuth(authScheme(UserCredential(bob, BOB_PASSWORD)))
+      .build
+  }
+
+  @Test
+  def emailQueryShouldAllowCalculatingChangesOfMailboxListings(server: GuiceJamesServer): Unit = {
+    val mailboxId: MailboxId = server.getProbe(classOf[MailboxProbeImpl]).createMailbox(MailboxPath.inbox(bobUsername))
+
+    val response: JsonPath = JsonPath.from(post(emailQuery(mailboxId)))
+
+    assertThat(response.getBoolean("methodResponses[0][1].canCalculateChanges")).isTrue
+    assertThat(UUID.fromString(response.getString("methodResponses[0][1].queryState"))).isNotNull
+  }
+
+  @Test
+  def emailQueryShouldNotAllowCalculatingChangesOfOtherQueries(server: GuiceJamesServer): Unit = {
+    val mailboxId: MailboxId = server.getProbe(classOf[MailboxProbeImpl]).createMailbox(MailboxPath.inbox(bobUsername))
+
+    val response: String = post(
+      s"""{
+         |  "using": ["urn:ietf:params:jmap:core", "urn:ietf:params:jmap:mail"],
+         |  "methodCalls": [[
+         |    "Email/query",
+         |    {
+         |      "accountId": "$bobAccountId",
+         |      "filter": {"inMailbox": "${mailboxId.serialize()}"}
+         |    },
+         |    "c1"]]
+         |}""".stripMargin)
+
+    assertThatJson(response)
+      .inPath("methodResponses[0][1].canCalculateChanges")
+      .isEqualTo(false)
+  }
+
+  @Test
+  def queryChangesShouldReportCreatedEmails(server: GuiceJamesServer): Unit = {
+    val mailboxId: MailboxId = server.getProbe(classOf[MailboxProbeImpl]).createMailbox(MailboxPath.inbox(bobUsername))
+    val messageId1: MessageId = appendMessage(server, ZonedDateTime.now().minusDays(2))
+    val queryState: String = awaitQueryState(mailboxId, messageId1)
+
+    val messageId2: MessageId = appendMessage(server, ZonedDateTime.now().minusDays(3))
+    val messageId3: MessageId = appendMessage(server, ZonedDateTime.now().minusDays(1))
+
+    awaitAtMostTenSeconds.untilAsserted { () =>
+      val response: String = post(emailQueryChanges(mailboxId, queryState))
+
+      assertThatJson(response)
+        .when(IGNORING_ARRAY_ORDER)
+        .inPath("methodResponses[0][1]")
+        .isEqualTo(
+          s"""{
+             |  "accountId": "$bobAccountId",
+             |  "oldQueryState": "$queryState",
+             |  "newQueryState": "$${json-unit.ignore}",
+             |  "removed": ["${messageId2.serialize}", "${messageId3.serialize}"],
+             |  "added": [
+             |    {"id": "${messageId3.serialize}", "index": 0},
+             |    {"id": "${messageId2.serialize}", "index": 2}
+             |  ]
+             |}""".stripMargin)
+    }
+  }
+
+  @Test
+  def queryChangesShouldReportDestroyedEmails(server: GuiceJamesServer): Unit = {
+    val mailboxId: MailboxId = server.getProbe(classOf[MailboxProbeImpl]).createMailbox(MailboxPath.inbox(bobUsername))
+    val messageId1: MessageId = appendMessage(server, ZonedDateTime.now().minusDays(2))
+    val messageId2: MessageId = appendMessage(server, ZonedDateTime.now().minusDays(1))
+    val queryState: String = awaitQueryState(mailboxId, messageId2, messageId1)
+
+    post(
+      s"""{
+         |  "using": ["urn:ietf:params:jmap:core", "urn:ietf:params:jmap:mail"],
+         |  "methodCalls": [[
+         |    "Email/set",
+         |    {
+         |      "accountId": "$bobAccountId",
+         |      "destroy": ["${messageId2.serialize}"]
+         |    },
+         |    "c1"]]
+         |}""".stripMargin)
+
+    awaitAtMostTenSeconds.untilAsserted { () =>
+      val response: String = post(emailQueryChanges(mailboxId, queryState))
+
+      assertThatJson(response)
+        .inPath("methodResponses[0][1]")
+        .isEqualTo(
+          s"""{
+             |  "accountId": "$bobAccountId",
+             |  "oldQueryState": "$queryState",
+             |  "newQueryState": "$${json-unit.ignore}",
+             |  "removed": ["${messageId2.serialize}"],
+             |  "added": []
+             |}""".stripMargin)
+    }
+  }
+
+  @Test
+  def queryChangesShouldReturnTooManyChangesWhenExceedingMaxChanges(server: GuiceJamesServer): Unit = {
+    val mailboxId: MailboxId = server.getProbe(classOf[MailboxProbeImpl]).createMailbox(MailboxPath.inbox(bobUsername))
+    val queryState: String = awaitQueryState(mailboxId)
+
+    appendMessage(server, ZonedDateTime.now().minusDays(2))
+    appendMessage(server, ZonedDateTime.now().minusDays(1))
+
+    val response: String = post(
+      s"""{
+         |  "using": ["urn:ietf:params:jmap:core", "urn:ietf:params:jmap:mail"],
+         |  "methodCalls": [[
+         |    "Email/queryChanges",
+         |    {
+         |      "accountId": "$bobAccountId",
+         |      "filter": {"inMailbox": "${mailboxId.serialize()}"},
+         |      "sort": [{"property": "receivedAt", "isAscending": false}],
+         |      "sinceQueryState": "$queryState",
+         |      "maxChanges": 1
+         |    },
+         |    "c1"]]
+         |}""".stripMargin)
+
+    assertThatJson(response)
+      .inPath("methodResponses[0]")
+      .isEqualTo(
+        s"""["error", {
+           |  "type": "tooManyChanges",
+           |  "description": "More than 1 changes happened since $queryState"
+           |}, "c1"]""".stripMargin)
+  }
+
+  @Test
+  def queryChangesShouldReturnCannotCalculateChangesWhenAChangedEmailIsPastTheListedResults(server: GuiceJamesServer): Unit = {
+    val mailboxId: MailboxId = server.getProbe(classOf[MailboxProbeImpl]).createMailbox(MailboxPath.inbox(bobUsername))
+    val oldestMessageId: MessageId = appendMessage(server, ZonedDateTime.now().minusDays(2))
+    (1 to 256).foreach(i => appendMessage(server, ZonedDateTime.now().minusDays(1).plusSeconds(i)))
+    val queryState: AtomicReference[String] = new AtomicReference[String]()
+    awaitAtMostTenSeconds.untilAsserted { () =>
+      val response: JsonPath = JsonPath.from(post(emailQuery(mailboxId)))
+
+      assertThat(response.getList[String]("methodResponses[0][1].ids")).hasSize(256)
+      queryState.set(response.getString("methodResponses[0][1].queryState"))
+    }
+
+    post(
+      s"""{
+         |  "using": ["urn:ietf:params:jmap:core", "urn:ietf:params:jmap:mail"],
+         |  "methodCalls": [[
+         |    "Email/set",
+         |    {
+         |      "accountId": "$bobAccountId",
+         |      "update": {"${oldestMessageId.serialize}": {"keywords/$$seen": true}}
+         |    },
+         |    "c1"]]
+         |}""".stripMargin)
+
+    awaitAtMostTenSeconds.untilAsserted { () =>
+      val response: String = post(emailQueryChanges(mailboxId, queryState.get()))
+
+      assertThatJson(response)
+        .inPath("methodResponses[0]")
+        .isEqualTo(
+          s"""["error", {
+             |  "type": "cannotCalculateChanges",
+             |  "description": "Changed emails are past the first 256 results of the query"
+             |}, "c1"]""".stripMargin)
+    }
+  }
+
+  @Test
+  def queryChangesShouldReturnCannotCalculateChangesForQueryStatesNotTrackingChanges(server: GuiceJamesServer): Unit = {
+    val mailboxId: MailboxId = server.getProbe(classOf[MailboxProbeImpl]).createMailbox(MailboxPath.inbox(bobUsername))
+
+    val response: String = post(emailQueryChanges(mailboxId, "2BB01D8F"))
+
+    assertThatJson(response)
+      .inPath("methodResponses[0]")
+      .isEqualTo(
+        s"""["error", {
+           |  "type": "cannotCalculateChanges",
+           |  "description": "$${json-unit.ignore}"
+           |}, "c1"]""".stripMargin)
+  }
+
+  @Test
+  def queryChangesShouldReturnCannotCalculateChangesForUnsupportedQueries(server: GuiceJamesServer): Unit = {
+    val mailboxId: MailboxId = server.getProbe(classOf[MailboxProbeImpl]).createMailbox(MailboxPath.inbox(bobUsername))
+    val queryState: String = awaitQueryState(mailboxId)
+
+    val response: String = post(
+      s"""{
+         |  "using": ["urn:ietf:params:jmap:core", "urn:ietf:params:jmap:mail"],
+         |  "methodCalls": [[
+         |    "Email/queryChanges",
+         |    {
+         |      "accountId": "$bobAccountId",
+         |      "filter": {"inMailbox": "${mailboxId.serialize()}"},
+         |      "sinceQueryState": "$queryState"
+         |    },
+         |    "c1"]]
+         |}""".stripMargin)
+
+    assertThatJson(response)
+      .inPath("methodResponses[0]")
+      .isEqualTo(
+        s"""["error", {
+           |  "type": "cannotCalculateChanges",
+           |  "description": "$${json-unit.ignore}"
+           |}, "c1"]""".stripMargin)
+  }
+
+  private def awaitQueryState(mailboxId: MailboxId, expectedIds: MessageId*): String = {
+    val queryState: AtomicReference[String] = new AtomicReference[String]()
+    awaitAtMostTenSeconds.untilAsserted { () =>
+      val response: JsonPath = JsonPath.from(post(emailQuery(mailboxId)))
+
+      assertThat(response.getList[String]("methodResponses[0][1].ids"))
+        .containsExactlyElementsOf(expectedIds.map(_.serialize).toList.asJava)
+      queryState.set(response.getString("methodResponses[0][1].queryState"))
+    }
+    queryState.get()
+  }
+
+  private def appendMessage(server: GuiceJamesServer, receivedAt: ZonedDateTime): MessageId = {
+    val message: Message = Message.Builder
+      .of
+      .setSubject(s"test ${UUID.randomUUID()}")
+      .setBody("testmail", StandardCharsets.UTF_8)
+      .build
+    server.getProbe(classOf[MailboxProbeImpl])
+      .appendMessage(bobUsername.asString, MailboxPath.inbox(bobUsername),
+        AppendCommand.builder().withInternalDate(Date.from(receivedAt.toInstant)).build(message))
+      .getMessageId
+  }
+
+  private def emailQuery(mailboxId: MailboxId): String =
+    s"""{
+       |  "using": ["urn:ietf:params:jmap:core", "urn:ietf:params:jmap:mail"],
+       |  "methodCalls": [[
+       |    "Email/query",
+       |    {
+       |      "accountId": "$bobAccountId",
+       |      "filter": {"inMailbox": "${mailboxId.serialize()}"},
+       |      "sort": [{"property": "receivedAt", "isAscending": false}]
+       |    },
+       |    "c1"]]
+       |}""".stripMargin
+
+  private def emailQueryChanges(mailboxId: MailboxId, sinceQueryState: String): String =
+    s"""{
+       |  "using": ["urn:ietf:params:jmap:core", "urn:ietf:params:jmap:mail"],
+       |  "methodCalls": [[
+       |    "Email/queryChanges",
+       |    {
+       |      "accountId": "$bobAccountId",
+       |      "filter": {"inMailbox": "${mailboxId.serialize()}"},
+       |      "sort": [{"property": "receivedAt", "isAscending": false}],
+       |      "sinceQueryState": "$sinceQueryState"
+       |    },
+       |    "c1"]]
+       |}""".stripMargin
+
+  private def post(request: String): String =
+    `given`
+      .header(ACCEPT.toString, ACCEPT_RFC8621_VERSION_HEADER)
+      .body(request)
+    .when
+      .post
+    .`then`
+      .statusCode(SC_OK)
+      .contentType(JSON)
+      .extract
+      .body
+      .asString
+}
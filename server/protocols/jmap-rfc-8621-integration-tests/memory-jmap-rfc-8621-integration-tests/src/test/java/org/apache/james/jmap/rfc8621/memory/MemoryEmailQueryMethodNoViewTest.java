@@ -103,4 +103,15 @@ public class MemoryEmailQueryMethodNoViewTest implements EmailQueryMethodContrac
     public void inMailboxBeforeSortedByReceivedAtShouldCollapseThreads(GuiceJamesServer server) {
     }
 
-}
\ No newline at end of file
+    @Test
+    @Override
+    @Disabled("Anchors are only served by the email query view")
+    public void inMailboxSortedByReceivedAtShouldSupportAnchor(GuiceJamesServer server) {
+    }
+
+    @Test
+    @Override
+    @Disabled("Anchors are only served by the email query view")
+    public void inMailboxSortedByReceivedAtShouldReturnAnchorNotFoundWhenTheAnchorIsNotInTheMailbox(GuiceJamesServer server) {
+    }
+}
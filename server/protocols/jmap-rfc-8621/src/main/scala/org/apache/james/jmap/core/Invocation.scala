@@ -62,6 +62,10 @@ object ErrorCode {
     override def code: String = "cannotCalculateChanges"
   }
 
+  case object TooManyChanges extends ErrorCode {
+    override def code: String = "tooManyChanges"
+  }
+
   case object UnknownMethod extends ErrorCode {
     override def code: String = "unknownMethod"
   }
@@ -90,6 +94,10 @@ object ErrorCode {
     override def code: String = "unsupportedFilter"
   }
 
+  case object AnchorNotFound extends ErrorCode {
+    override def code: String = "anchorNotFound"
+  }
+
   case object RequestTooLarge extends ErrorCode {
     override def code: String = "requestTooLarge"
   }
@@ -87,5 +87,6 @@ object QueryState {
 case class CanCalculateChanges(value: Boolean) extends AnyVal
 
 object CanCalculateChanges {
+  val CAN: CanCalculateChanges = CanCalculateChanges(true)
   val CANNOT: CanCalculateChanges = CanCalculateChanges(false)
 }
@@ -35,6 +35,7 @@ case class UnsupportedSortException(unsupportedSort: String) extends Unsupported
 case class UnsupportedFilterException(unsupportedFilter: String) extends UnsupportedOperationException
 case class UnsupportedNestingException(message: String) extends UnsupportedOperationException
 case class UnsupportedRequestParameterException(unsupportedParam: String) extends UnsupportedOperationException
+case class AnchorNotFoundException(anchor: String) extends RuntimeException(s"The anchor $anchor is not part of the query results")
 
 object FilterQuery {
    def validateFilter(filter: FilterQuery): Either[UnsupportedNestingException, FilterQuery] = filter match {
@@ -0,0 +1,50 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.jmap.mail
+
+import org.apache.james.jmap.api.change.Limit
+import org.apache.james.jmap.core.{AccountId, QueryState}
+import org.apache.james.jmap.method.WithAccountId
+import org.apache.james.mailbox.model.MessageId
+
+case class EmailQueryChangesRequest(accountId: AccountId,
+                                    filter: Option[FilterQuery],
+                                    sort: Option[Set[Comparator]],
+                                    collapseThreads: Option[CollapseThreads],
+                                    sinceQueryState: QueryState,
+                                    maxChanges: Option[Limit]) extends WithAccountId {
+  def asEmailQueryRequest: EmailQueryRequest =
+    EmailQueryRequest(accountId = accountId,
+      position = None,
+      limit = None,
+      filter = filter,
+      sort = sort,
+      collapseThreads = collapseThreads,
+      anchor = None,
+      anchorOffset = None)
+}
+
+case class AddedItem(id: MessageId, index: Int)
+
+case class EmailQueryChangesResponse(accountId: AccountId,
+                                     oldQueryState: QueryState,
+                                     newQueryState: QueryState,
+                                     removed: Seq[MessageId],
+                                     added: Seq[AddedItem])
@@ -0,0 +1,199 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+package org.apache.james.jmap.method
+
+import eu.timepit.refined.auto._
+import jakarta.inject.Inject
+import org.apache.james.jmap.JMAPConfiguration
+import org.apache.james.jmap.api.change.{CanNotCalculateChangesException, EmailChangeRepository, EmailChanges, State => JavaState}
+import org.apache.james.jmap.api.exception.ChangeNotFoundException
+import org.apache.james.jmap.api.model.{AccountId => JavaAccountId}
+import org.apache.james.jmap.api.projections.EmailQueryViewManager
+import org.apache.james.jmap.core.CapabilityIdentifier.{CapabilityIdentifier, JAMES_SHARES, JMAP_CORE, JMAP_MAIL}
+import org.apache.james.jmap.core.Invocation.{Arguments, MethodName}
+import org.apache.james.jmap.core.{ErrorCode, Invocation, Limit, QueryState, SessionTranslator, UuidState}
+import org.apache.james.jmap.json.EmailQuerySerializer
+import org.apache.james.jmap.mail.{AddedItem, Comparator, EmailQueryChangesRequest, EmailQueryChangesResponse, EmailQueryRequest, FilterCondition}
+import org.apache.james.jmap.routes.SessionSupplier
+import org.apache.james.mailbox.exception.{MailboxNotFoundException, ThreadNotFoundException}
+import org.apache.james.mailbox.model.{MailboxId, MessageId}
+import org.apache.james.mailbox.{MailboxManager, MailboxSession, MessageIdManager}
+import org.apache.james.metrics.api.MetricFactory
+import org.apache.james.util.ReactorUtils.DEFAULT_CONCURRENCY
+import org.apache.james.util.streams.{Limit => JavaLimit}
+import reactor.core.scala.publisher.{SFlux, SMono}
+
+import scala.jdk.CollectionConverters._
+import scala.jdk.OptionConverters._
+
+object EmailQueryChangesMethod {
+  /**
+   * Only mailbox listings sorted by receivedAt, served by the email query view, get a query state
+   * that changes can be calculated from.
+   */
+  def canCalculateChanges(configuration: JMAPConfiguration, request: EmailQueryRequest): Boolean =
+    configuration.isEmailQueryChangesEnabled &&
+      request.filter.exists(_.inMailboxFilterOnly) &&
+      request.sort.contains(Set(Comparator.RECEIVED_AT_DESC))
+
+  def latestQueryState(emailChangeRepository: EmailChangeRepository, capabilities: Set[CapabilityIdentifier], mailboxSession: MailboxSession): SMono[QueryState] = {
+    val accountId: JavaAccountId = JavaAccountId.fromUsername(mailboxSession.getUser)
+    val latestState: SMono[JavaState] = if (capabilities.contains(JAMES_SHARES)) {
+      SMono(emailChangeRepository.getLatestStateWithDelegation(accountId))
+    } else {
+      SMono(emailChangeRepository.getLatestState(accountId))
+    }
+    latestState.map(state => QueryState(state.getValue.toString))
+  }
+}
+
+/**
+ * Email/queryChanges for the queries whose Email/query result carries a change based query state,
+ * see EmailQueryChangesMethod.canCalculateChanges.
+ *
+ * Every email created, updated or destroyed since the query state is reported as removed, and re-added
+ * at its current index when it is still part of the first results of the query. Only the first results, up to
+ * the default Email/query limit, are listed: when a changed email still in the mailbox is not among them, the
+ * changes can not be calculated. upToId is ignored, as the inMailbox filter is not immutable.
+ */
+class EmailQueryChangesMethod @Inject()(serializer: EmailQuerySerializer,
+                                        configuration: JMAPConfiguration,
+                                        emailChangeRepository: EmailChangeRepository,
+                                        emailQueryViewManager: EmailQueryViewManager,
+                                        mailboxManager: MailboxManager,
+                                        messageIdManager: MessageIdManager,
+                                        val metricFactory: MetricFactory,
+                                        val sessionSupplier: SessionSupplier,
+                                        val sessionTranslator: SessionTranslator) extends MethodRequiringAccountId[EmailQueryChangesRequest] {
+  override val methodName: MethodName = MethodName("Email/queryChanges")
+  override val requiredCapabilities: Set[CapabilityIdentifier] = Set(JMAP_CORE, JMAP_MAIL)
+
+  override def doProcess(capabilities: Set[CapabilityIdentifier], invocation: InvocationWithContext, mailboxSession: MailboxSession, request: EmailQueryChangesRequest): SMono[InvocationWithContext] =
+    computeChanges(capabilities, mailboxSession, request)
+      .map(response => InvocationWithContext(
+        invocation = Invocation(
+          methodName = methodName,
+          arguments = Arguments(serializer.serializeChanges(response)),
+          methodCallId = invocation.invocation.methodCallId),
+        processingContext = invocation.processingContext))
+      .onErrorResume {
+        case e: TooManyQueryChangesException => SMono.just(InvocationWithContext(Invocation.error(ErrorCode.TooManyChanges, e.getMessage, invocation.invocation.methodCallId), invocation.processingContext))
+        case e: CanNotCalculateChangesException => SMono.just(InvocationWithContext(Invocation.error(ErrorCode.CannotCalculateChanges, e.getMessage, invocation.invocation.methodCallId), invocation.processingContext))
+        case e: ChangeNotFoundException => SMono.just(InvocationWithContext(Invocation.error(ErrorCode.CannotCalculateChanges, e.getMessage, invocation.invocation.methodCallId), invocation.processingContext))
+        case e => SMono.error(e)
+      }
+
+  override def getRequest(mailboxSession: MailboxSession, invocation: Invocation): Either[Exception, EmailQueryChangesRequest] =
+    serializer.deserializeEmailQueryChangesRequest(invocation.arguments.value).asEitherRequest
+
+  private def computeChanges(capabilities: Set[CapabilityIdentifier], mailboxSession: MailboxSession, request: EmailQueryChangesRequest): SMono[EmailQueryChangesResponse] =
+    if (!EmailQueryChangesMethod.canCalculateChanges(configuration, request.asEmailQueryRequest)) {
+      SMono.error(new CanNotCalculateChangesException("Email/queryChanges is only supported for inMailbox queries sorted by receivedAt"))
+    } else {
+      UuidState.parse(request.sinceQueryState.value)
+        .fold(_ => SMono.error(new CanNotCalculateChangesException(s"${request.sinceQueryState.value} was not issued by a change tracking Email/query")),
+          sinceState => retrieveChanges(capabilities, mailboxSession, request, sinceState))
+        .flatMap(changes => affectedIds(mailboxSession, request, changes)
+          .flatMap(affected => listQueryResults(mailboxSession, request)
+            .flatMap(results => checkAffectedAreListed(mailboxSession, request, affected, results))
+            .map(results => EmailQueryChangesResponse(
+              accountId = request.accountId,
+              oldQueryState = request.sinceQueryState,
+              newQueryState = QueryState(changes.getNewState.getValue.toString),
+              removed = affected.toSeq,
+              added = results.zipWithIndex
+                .filter { case (id, _) => affected.contains(id) }
+                .map { case (id, index) => AddedItem(id, index) }))))
+    }
+
+  private def retrieveChanges(capabilities: Set[CapabilityIdentifier], mailboxSession: MailboxSession, request: EmailQueryChangesRequest, sinceState: UuidState): SMono[EmailChanges] = {
+    val accountId: JavaAccountId = JavaAccountId.fromUsername(mailboxSession.getUser)
+    val changes: SMono[EmailChanges] = if (capabilities.contains(JAMES_SHARES)) {
+      SMono(emailChangeRepository.getSinceStateWithDelegation(accountId, JavaState.of(sinceState.value), request.maxChanges.toJava))
+    } else {
+      SMono(emailChangeRepository.getSinceState(accountId, JavaState.of(sinceState.value), request.maxChanges.toJava))
+    }
+    changes.flatMap(changes => if (changes.hasMoreChanges) {
+      request.maxChanges
+        .map(maxChanges => SMono.error[EmailChanges](TooManyQueryChangesException(s"More than ${maxChanges.getValue} changes happened since ${request.sinceQueryState.value}")))
+        .getOrElse(SMono.error[EmailChanges](new CanNotCalculateChangesException(s"Too many changes happened since ${request.sinceQueryState.value}")))
+    } else {
+      SMono.just(changes)
+    })
+  }
+
+  private def affectedIds(mailboxSession: MailboxSession, request: EmailQueryChangesRequest, changes: EmailChanges): SMono[Set[MessageId]] = {
+    val changed: Set[MessageId] = (changes.getCreated.asScala ++ changes.getUpdated.asScala ++ changes.getDestroyed.asScala).toSet
+    if (!collapseThreads(request)) {
+      SMono.just(changed)
+    } else if (!changes.getDestroyed.isEmpty) {
+      // The thread of a destroyed email can no longer be resolved, nor can the email standing for it in the results
+      SMono.error(new CanNotCalculateChangesException("Can not calculate changes of collapsed threads once emails are destroyed"))
+    } else {
+      // Any change in a thread can change the email standing for the thread in the results
+      SFlux(messageIdManager.messagesMetadata(changed.asJava, mailboxSession))
+        .map(_.getThreadId)
+        .distinct()
+        .flatMap(threadId => SFlux(mailboxManager.getThread(threadId, mailboxSession))
+          .onErrorResume {
+            case _: ThreadNotFoundException => SFlux.empty[MessageId]
+            case e => SFlux.error[MessageId](e)
+          }, DEFAULT_CONCURRENCY)
+        .collectSeq()
+        .map(threadMembers => changed ++ threadMembers)
+    }
+  }
+
+  private def listQueryResults(mailboxSession: MailboxSession, request: EmailQueryChangesRequest): SMono[Seq[MessageId]] = {
+    val mailboxId: MailboxId = request.filter.get.asInstanceOf[FilterCondition].inMailbox.get
+
+    SMono(mailboxManager.getMailboxReactive(mailboxId, mailboxSession))
+      .flatMapMany(_ => SFlux(emailQueryViewManager.getEmailQueryView(mailboxSession.getUser)
+        .listMailboxContentSortedByReceivedAt(mailboxId, JavaLimit.from(Limit.default.value), collapseThreads(request))))
+      .collectSeq()
+      .onErrorResume {
+        case _: MailboxNotFoundException => SMono.just(Seq())
+        case e => SMono.error(e)
+      }
+  }
+
+  private def checkAffectedAreListed(mailboxSession: MailboxSession, request: EmailQueryChangesRequest, affected: Set[MessageId], results: Seq[MessageId]): SMono[Seq[MessageId]] = {
+    val mailboxId: MailboxId = request.filter.get.asInstanceOf[FilterCondition].inMailbox.get
+    val unlisted: Set[MessageId] = affected -- results
+
+    if (results.size < Limit.default.value || unlisted.isEmpty) {
+      SMono.just(results)
+    } else {
+      // Unlisted emails that are still in the mailbox stand past the listed results: their index is unknown
+      SFlux(messageIdManager.messagesMetadata(unlisted.asJava, mailboxSession))
+        .filter(_.getComposedMessageId.getMailboxId.equals(mailboxId))
+        .hasElements
+        .flatMap(pastListedResults => if (pastListedResults) {
+          SMono.error(new CanNotCalculateChangesException(s"Changed emails are past the first ${Limit.default.value} results of the query"))
+        } else {
+          SMono.just(results)
+        })
+    }
+  }
+
+  private def collapseThreads(request: EmailQueryChangesRequest): Boolean =
+    request.collapseThreads.exists(_.value)
+}
+
+case class TooManyQueryChangesException(message: String) extends RuntimeException(message)
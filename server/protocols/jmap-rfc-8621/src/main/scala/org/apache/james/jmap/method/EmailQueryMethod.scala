@@ -22,6 +22,8 @@ import cats.implicits._
 import eu.timepit.refined.auto._
 import jakarta.inject.Inject
 import jakarta.mail.Flags.Flag.DELETED
+import org.apache.james.jmap.JMAPConfiguration
+import org.apache.james.jmap.api.change.EmailChangeRepository
 import org.apache.james.jmap.core.CapabilityIdentifier.{CapabilityIdentifier, JMAP_CORE, JMAP_MAIL}
 import org.apache.james.jmap.core.Invocation.{Arguments, MethodName}
 import org.apache.james.jmap.core.Limit.Limit
@@ -42,6 +44,8 @@ import scala.jdk.CollectionConverters._
 
 class EmailQueryMethod @Inject() (serializer: EmailQuerySerializer,
                                   mailboxManager: MailboxManager,
+                                  configuration: JMAPConfiguration,
+                                  emailChangeRepository: EmailChangeRepository,
                                   val metricFactory: MetricFactory,
                                   val sessionSupplier: SessionSupplier,
                                   val sessionTranslator: SessionTranslator,
@@ -65,7 +69,7 @@ class EmailQueryMethod @Inject() (serializer: EmailQuerySerializer,
         limit <- Limit.validateRequestLimit(request.limit)
         position <- Position.validateRequestPosition(request.position)
       } yield {
-        executeQuery(mailboxSession, request, searchQuery, position, limit)
+        executeQuery(mailboxSession, request, searchQuery, position, limit, capabilities)
           .map(response => Invocation(
             methodName = methodName,
             arguments = Arguments(serializer.serialize(response)),
@@ -81,19 +85,34 @@ class EmailQueryMethod @Inject() (serializer: EmailQuerySerializer,
 
   private def validateRequestParameters(request: EmailQueryRequest): Either[Exception, EmailQueryRequest] =
     (request.anchor, request.anchorOffset) match {
-      case (Some(anchor), _) => Left(UnsupportedRequestParameterException("anchor"))
-      case (_, Some(anchorOffset)) => Left(UnsupportedRequestParameterException("anchorOffset"))
+      case (None, Some(anchorOffset)) => Left(UnsupportedRequestParameterException("anchorOffset"))
       case _ => Right(request)
     }
 
-  private def executeQuery(session: MailboxSession, request: EmailQueryRequest, searchQuery: MultimailboxesSearchQuery, position: Position, limit: Limit): SMono[EmailQueryResponse] = {
-    val ids: SMono[Seq[MessageId]] = executeQueryOptimizers(session, request, searchQuery, position, limit)
-      .getOrElse(executeQueryAgainstSearchIndex(session, searchQuery, position, limit))
-      .collectSeq()
+  private def executeQuery(session: MailboxSession, request: EmailQueryRequest, searchQuery: MultimailboxesSearchQuery, position: Position, limit: Limit, capabilities: Set[CapabilityIdentifier]): SMono[EmailQueryResponse] = {
+    val result: SMono[AnchoredResult] = request.anchor match {
+      case Some(_) => executeAnchoredQueryOptimizers(session, request, searchQuery, limit)
+        .getOrElse(SMono.error(UnsupportedRequestParameterException("anchor")))
+      case None => executeQueryOptimizers(session, request, searchQuery, position, limit)
+        .getOrElse(executeQueryAgainstSearchIndex(session, searchQuery, position, limit))
+        .collectSeq()
+        .map(ids => AnchoredResult(position, ids))
+    }
 
-    ids.map(ids => toResponse(request, position, limit, ids))
+    if (EmailQueryChangesMethod.canCalculateChanges(configuration, request)) {
+      // The state is read before the query so that changes racing with it are reported by Email/queryChanges
+      EmailQueryChangesMethod.latestQueryState(emailChangeRepository, capabilities, session)
+        .flatMap(queryState => result.map(result => toResponse(request, result.position, limit, result.ids, Some(queryState))))
+    } else {
+      result.map(result => toResponse(request, result.position, limit, result.ids, None))
+    }
   }
 
+  private def executeAnchoredQueryOptimizers(session: MailboxSession, request: EmailQueryRequest, searchQuery: MultimailboxesSearchQuery, limit: Limit): Option[SMono[AnchoredResult]] =
+    emailQueryOptimizers.iterator
+      .map(_.applyWithAnchor(request, session, searchQuery, limit))
+      .collectFirst { case Some(result) => result }
+
   private def executeQueryOptimizers(session: MailboxSession, request: EmailQueryRequest, searchQuery: MultimailboxesSearchQuery, position: Position, limit: Limit): Option[SFlux[MessageId]] =
     emailQueryOptimizers.iterator
       .map(_.apply(request, session, searchQuery, position, limit))
@@ -105,10 +124,10 @@ class EmailQueryMethod @Inject() (serializer: EmailQuerySerializer,
       case None => false
     }
 
-  private def toResponse(request: EmailQueryRequest, position: Position, limitToUse: Limit, ids: Seq[MessageId]): EmailQueryResponse =
+  private def toResponse(request: EmailQueryRequest, position: Position, limitToUse: Limit, ids: Seq[MessageId], changesQueryState: Option[QueryState]): EmailQueryResponse =
     EmailQueryResponse(accountId = request.accountId,
-      queryState = QueryState.forIds(ids),
-      canCalculateChanges = CanCalculateChanges.CANNOT,
+      queryState = changesQueryState.getOrElse(QueryState.forIds(ids)),
+      canCalculateChanges = changesQueryState.map(_ => CanCalculateChanges.CAN).getOrElse(CanCalculateChanges.CANNOT),
       ids = ids,
       position = position,
       limit = Some(limitToUse).filterNot(used => request.limit.map(_.value).contains(used.value)))
@@ -19,26 +19,43 @@
 
 package org.apache.james.jmap.method
 
-import java.time.ZonedDateTime
+import java.time.{ZoneOffset, ZonedDateTime}
 
+import eu.timepit.refined.numeric.NonNegative
+import eu.timepit.refined.refineV
 import jakarta.inject.Inject
+import jakarta.mail.Flags.Flag.DELETED
 import org.apache.james.jmap.JMAPConfiguration
-import org.apache.james.jmap.api.projections.EmailQueryViewManager
+import org.apache.james.jmap.api.projections.EmailQueryView.Cursor
+import org.apache.james.jmap.api.projections.{EmailQueryView, EmailQueryViewManager}
 import org.apache.james.jmap.core.Limit.Limit
+import org.apache.james.jmap.core.Position
 import org.apache.james.jmap.core.Position.Position
-import org.apache.james.jmap.mail.{Comparator, EmailQueryRequest, FilterCondition}
+import org.apache.james.jmap.mail.{AnchorNotFoundException, Comparator, EmailQueryRequest, FilterCondition}
 import org.apache.james.mailbox.exception.MailboxNotFoundException
 import org.apache.james.mailbox.model.MultimailboxesSearchQuery.Namespace
-import org.apache.james.mailbox.model.{MailboxId, MessageId, MultimailboxesSearchQuery}
-import org.apache.james.mailbox.{MailboxManager, MailboxSession}
+import org.apache.james.mailbox.model.{FetchGroup, MailboxId, MessageId, MultimailboxesSearchQuery}
+import org.apache.james.mailbox.{MailboxManager, MailboxSession, MessageIdManager}
 import org.apache.james.util.streams.{Limit => JavaLimit}
 import reactor.core.scala.publisher.{SFlux, SMono}
 
+import scala.util.Try
+
+case class AnchoredResult(position: Position, ids: Seq[MessageId])
+
 trait EmailQueryOptimizer {
   def apply(request: EmailQueryRequest, session: MailboxSession, searchQuery: MultimailboxesSearchQuery, position: Position, limit: Limit): Option[SFlux[MessageId]]
+
+  /**
+   * Serves requests carrying an anchor: the ids are located relatively to the anchor, and the position of the
+   * first of them is reported along.
+   */
+  def applyWithAnchor(request: EmailQueryRequest, session: MailboxSession, searchQuery: MultimailboxesSearchQuery, limit: Limit): Option[SMono[AnchoredResult]] = None
 }
 
 class EmailQueryViewOptimizer @Inject() (mailboxManager: MailboxManager,
+                                         messageIdManager: MessageIdManager,
+                                         messageIdFactory: MessageId.Factory,
                                          val configuration: JMAPConfiguration,
                                          val emailQueryViewManager: EmailQueryViewManager) extends EmailQueryOptimizer {
   override def apply(request: EmailQueryRequest, session: MailboxSession, searchQuery: MultimailboxesSearchQuery, position: Position, limit: Limit): Option[SFlux[MessageId]] =
@@ -56,6 +73,69 @@ class EmailQueryViewOptimizer @Inject() (mailboxManager: MailboxManager,
       None
     }
 
+  /**
+   * Anchors are resolved through the view seek methods: the anchor position is counted, and only the entries around
+   * it are read, whatever its depth in the mailbox.
+   */
+  override def applyWithAnchor(request: EmailQueryRequest, session: MailboxSession, searchQuery: MultimailboxesSearchQuery, limit: Limit): Option[SMono[AnchoredResult]] =
+    if (configuration.isEmailQueryViewEnabled && matchesInMailboxSortedByReceivedAt(request) && !getCollapseThreads(request)) {
+      val mailboxId: MailboxId = request.filter.get.asInstanceOf[FilterCondition].inMailbox.get
+
+      Some(SMono(mailboxManager.getMailboxReactive(mailboxId, session))
+        .filter(messageManager => searchQuery.getNamespace.keepAccessible(messageManager.getMailboxEntity))
+        .flatMap(_ => anchorCursor(request, mailboxId, session))
+        .onErrorResume({
+          case _: MailboxNotFoundException => SMono.empty
+          case e => SMono.error[Cursor](e)
+        })
+        .switchIfEmpty(SMono.error(AnchorNotFoundException(request.anchor.get.value)))
+        .flatMap(cursor => listAroundAnchor(emailQueryViewManager.getEmailQueryView(session.getUser), mailboxId, cursor,
+          request.anchorOffset.map(_.value).getOrElse(0), limit)))
+    } else {
+      None
+    }
+
+  private def anchorCursor(request: EmailQueryRequest, mailboxId: MailboxId, session: MailboxSession): SMono[Cursor] =
+    Try(messageIdFactory.fromString(request.anchor.get.value))
+      .fold(_ => SMono.empty[Cursor], anchor => SFlux(messageIdManager.getMessagesReactive(java.util.List.of(anchor), FetchGroup.MINIMAL, session))
+        .filter(message => message.getMailboxId.equals(mailboxId))
+        // Deleted messages are not part of the view
+        .filter(message => !message.getFlags.contains(DELETED))
+        .next()
+        .map(message => new Cursor(ZonedDateTime.ofInstant(message.getInternalDate.toInstant, ZoneOffset.UTC), anchor)))
+
+  private def listAroundAnchor(view: EmailQueryView, mailboxId: MailboxId, cursor: Cursor, anchorOffset: Int, limit: Limit): SMono[AnchoredResult] =
+    SMono(view.countMailboxContentPreceding(mailboxId, cursor))
+      .flatMap(anchorIndex => if (anchorOffset >= 0) {
+        SFlux.just(cursor.messageId())
+          .concatWith(SFlux(view.listMailboxContentFollowing(mailboxId, cursor, JavaLimit.limit(anchorOffset + limit.value)))
+            .map(_.getMessageId))
+          .drop(anchorOffset)
+          .take(limit.value)
+          .collectSeq()
+          .map(ids => AnchoredResult(asPosition(anchorIndex + anchorOffset), ids))
+      } else {
+        SFlux(view.listMailboxContentPreceding(mailboxId, cursor, JavaLimit.limit(-anchorOffset)))
+          .map(_.getMessageId)
+          .collectSeq()
+          .flatMap(preceding => followingIds(view, mailboxId, cursor, limit.value - preceding.size - 1)
+            .map(following => AnchoredResult(asPosition(anchorIndex - preceding.size),
+              (preceding.reverse ++ (cursor.messageId() +: following)).take(limit.value))))
+      })
+
+  private def followingIds(view: EmailQueryView, mailboxId: MailboxId, cursor: Cursor, count: Int): SMono[Seq[MessageId]] =
+    if (count > 0) {
+      SFlux(view.listMailboxContentFollowing(mailboxId, cursor, JavaLimit.limit(count)))
+        .map(_.getMessageId)
+        .collectSeq()
+    } else {
+      SMono.just(Seq())
+    }
+
+  private def asPosition(index: Long): Position =
+    refineV[NonNegative](index.toInt)
+      .getOrElse(Position.zero)
+
   private def matchesInMailboxSortedByReceivedAt(request: EmailQueryRequest): Boolean =
     request.filter.exists(_.inMailboxFilterOnly) &&
       request.sort.contains(Set(Comparator.RECEIVED_AT_DESC))
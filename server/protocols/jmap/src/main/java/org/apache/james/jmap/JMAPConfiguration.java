@@ -34,6 +34,7 @@ public class JMAPConfiguration {
     public static class Builder {
         private Optional<Boolean> enabled = Optional.empty();
         private Optional<Boolean> emailQueryViewEnabled = Optional.empty();
+        private Optional<Boolean> emailQueryChangesEnabled = Optional.empty();
         private Optional<Boolean> userProvisioningEnabled = Optional.empty();
         private Optional<Port> port = Optional.empty();
         private Optional<Version> defaultVersion = Optional.empty();
@@ -65,6 +66,19 @@ public class JMAPConfiguration {
             return this;
         }
 
+        public Builder enableEmailQueryChanges(boolean enabled) {
+            return enableEmailQueryChanges(Optional.of(enabled));
+        }
+
+        public Builder enableEmailQueryChanges(Optional<Boolean> enabled) {
+            this.emailQueryChangesEnabled = enabled;
+            return this;
+        }
+
+        public Builder enableEmailQueryChanges() {
+            return enableEmailQueryChanges(true);
+        }
+
         public Builder userProvisioningEnabled(boolean enabled) {
             return userProvisioningEnabled(Optional.of(enabled));
         }
@@ -116,7 +130,10 @@ public class JMAPConfiguration {
 
         public JMAPConfiguration build() {
             Preconditions.checkState(enabled.isPresent(), "You should specify if JMAP server should be started");
-            return new JMAPConfiguration(enabled.get(), port, emailQueryViewEnabled.orElse(false),
+            boolean emailQueryView = emailQueryViewEnabled.orElse(false);
+            boolean emailQueryChanges = emailQueryChangesEnabled.orElse(false);
+            Preconditions.checkState(!emailQueryChanges || emailQueryView, "Email/queryChanges requires the email query view to be enabled");
+            return new JMAPConfiguration(enabled.get(), port, emailQueryView, emailQueryChanges,
                 userProvisioningEnabled.orElse(true),
                 defaultVersion.orElse(Version.RFC8621), maximumSendSize);
         }
@@ -127,15 +144,21 @@ public class JMAPConfiguration {
     private final boolean enabled;
     private final Optional<Port> port;
     private final boolean emailQueryViewEnabled;
+    private final boolean emailQueryChangesEnabled;
     private final boolean userProvisioningEnabled;
     private final Version defaultVersion;
     private final Optional<Long> maximumSendSize;
 
     @VisibleForTesting
     JMAPConfiguration(boolean enabled, Optional<Port> port, boolean emailQueryViewEnabled, boolean userProvisioningEnabled, Version defaultVersion, Optional<Long> maximumSendSize) {
+        this(enabled, port, emailQueryViewEnabled, false, userProvisioningEnabled, defaultVersion, maximumSendSize);
+    }
+
+    private JMAPConfiguration(boolean enabled, Optional<Port> port, boolean emailQueryViewEnabled, boolean emailQueryChangesEnabled, boolean userProvisioningEnabled, Version defaultVersion, Optional<Long> maximumSendSize) {
         this.enabled = enabled;
         this.port = port;
         this.emailQueryViewEnabled = emailQueryViewEnabled;
+        this.emailQueryChangesEnabled = emailQueryChangesEnabled;
         this.userProvisioningEnabled = userProvisioningEnabled;
         this.defaultVersion = defaultVersion;
         this.maximumSendSize = maximumSendSize;
@@ -153,6 +176,14 @@ public class JMAPConfiguration {
         return emailQueryViewEnabled;
     }
 
+    /**
+     * Email/query then returns query states allowing to compute Email/queryChanges for the queries resolved
+     * against the email query view.
+     */
+    public boolean isEmailQueryChangesEnabled() {
+        return emailQueryChangesEnabled;
+    }
+
     public boolean isUserProvisioningEnabled() {
         return userProvisioningEnabled;
     }
@@ -76,4 +76,25 @@ class JMAPConfigurationTest {
             .build();
         assertThat(jmapConfiguration).isEqualToComparingFieldByField(expectedJMAPConfiguration);
     }
+
+    @Test
+    void emailQueryChangesShouldBeDisabledByDefault() {
+        JMAPConfiguration jmapConfiguration = JMAPConfiguration.builder()
+            .enable()
+            .enableEmailQueryView()
+            .build();
+
+        assertThat(jmapConfiguration.isEmailQueryChangesEnabled()).isFalse();
+    }
+
+    @Test
+    void buildShouldThrowWhenEmailQueryChangesWithoutEmailQueryView() {
+        assertThatThrownBy(() -> JMAPConfiguration.builder()
+                .enable()
+                .disableEmailQueryView()
+                .enableEmailQueryChanges()
+                .build())
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessage("Email/queryChanges requires the email query view to be enabled");
+    }
 }
@@ -24,17 +24,23 @@ import static org.apache.james.imapserver.netty.ImapChannelUpstreamHandler.retri
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.james.imap.api.process.ImapSession;
 import org.apache.james.imap.encode.ImapResponseWriter;
 import org.apache.james.imap.message.Literal;
 import org.apache.james.imap.message.SequencedLiteral;
+import org.apache.james.protocols.netty.PublisherChunkedInput;
 import org.apache.james.util.MDCStructuredLogger;
+import org.reactivestreams.Publisher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.collect.ImmutableList;
+
 import io.netty.buffer.Unpooled;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelPipeline;
@@ -43,6 +49,7 @@ import io.netty.handler.codec.compression.ZlibEncoder;
 import io.netty.handler.ssl.SslHandler;
 import io.netty.handler.stream.ChunkedNioFile;
 import io.netty.handler.stream.ChunkedStream;
+import io.netty.handler.stream.ChunkedWriteHandler;
 
 /**
  * {@link ImapResponseWriter} implementation which writes the data to a
@@ -57,6 +64,7 @@ public class ChannelImapResponseWriter implements ImapResponseWriter {
     private static final Logger LOGGER = LoggerFactory.getLogger(ChannelImapResponseWriter.class);
     private final Channel channel;
     private final boolean zeroCopy;
+    private final AtomicInteger pendingWrites = new AtomicInteger(0);
     private FlushCallback flushCallback;
     private ImapSession imapSession = null;
 
@@ -91,7 +99,7 @@ public class ChannelImapResponseWriter implements ImapResponseWriter {
             }
         }
         if (channel.isActive()) {
-            channel.writeAndFlush(Unpooled.wrappedBuffer(buffer));
+            writeInOrder(() -> channel.writeAndFlush(Unpooled.wrappedBuffer(buffer)));
         }
     }
 
@@ -100,22 +108,31 @@ public class ChannelImapResponseWriter implements ImapResponseWriter {
         flushCallback.run();
         if (channel.isActive()) {
             // A SequencedLiteral's parts are written in one pass and flushed once, each keeping its best representation.
+            ImmutableList.Builder<Object> messages = ImmutableList.builder();
             if (literal instanceof SequencedLiteral sequencedLiteral) {
                 for (Literal part : sequencedLiteral.parts()) {
-                    writePart(part);
+                    messages.add(asMessage(part));
                 }
             } else {
-                writePart(literal);
+                messages.add(asMessage(literal));
             }
-            channel.flush();
+            writeInOrder(() -> {
+                messages.build().forEach(channel::write);
+                channel.flush();
+            });
         }
     }
 
-    private void writePart(Literal literal) throws IOException {
+    private Object asMessage(Literal literal) throws IOException {
         Optional<byte[][]> bytesSequence = literal.asBytesSequence();
         if (bytesSequence.isPresent()) {
-            channel.write(Unpooled.wrappedBuffer(bytesSequence.get()));
-            return;
+            return Unpooled.wrappedBuffer(bytesSequence.get());
+        }
+        Optional<Publisher<ByteBuffer>> reactiveBytes = literal.asReactiveBytes();
+        ChunkedWriteHandler chunkedWriteHandler = channel.pipeline().get(ChunkedWriteHandler.class);
+        if (reactiveBytes.isPresent() && chunkedWriteHandler != null) {
+            // Streams the content as it is read, with back-pressure from the channel writability
+            return new PublisherChunkedInput(reactiveBytes.get(), literal.size(), chunkedWriteHandler);
         }
         InputStream in = literal.getInputStream();
         if (in instanceof FileInputStream) {
@@ -125,18 +142,35 @@ public class ChannelImapResponseWriter implements ImapResponseWriter {
             // See JAMES-1305 and JAMES-1306
             ChannelPipeline cp = channel.pipeline();
             if (zeroCopy && cp.get(SslHandler.class) == null && cp.get(ZlibEncoder.class) == null) {
-                channel.write(new DefaultFileRegion(fc, fc.position(), literal.size()));
+                return new DefaultFileRegion(fc, fc.position(), literal.size());
             } else {
-                channel.write(new ChunkedNioFile(fc, 8192));
+                return new ChunkedNioFile(fc, 8192);
             }
         } else {
-            channel.write(new ChunkedStream(in));
+            return new ChunkedStream(in);
+        }
+    }
+
+    /**
+     * Responses are written from both the event loop and the threads processing the commands. A write issued from
+     * the event loop is performed right away, and could overtake writes previously submitted by other threads, still
+     * pending in the event loop queue: it is then queued behind them.
+     */
+    private void writeInOrder(Runnable write) {
+        if (channel.eventLoop().inEventLoop() && pendingWrites.get() == 0) {
+            write.run();
+            return;
         }
+        pendingWrites.incrementAndGet();
+        channel.eventLoop().execute(() -> {
+            pendingWrites.decrementAndGet();
+            write.run();
+        });
     }
-    
+
     public void flush() throws IOException {
         flushCallback.run();
-        channel.flush();
+        writeInOrder(channel::flush);
     }
 
 }
@@ -36,6 +36,7 @@ import org.apache.james.imap.api.message.response.ImapResponseMessage;
 import org.apache.james.imap.api.process.ImapLineHandler;
 import org.apache.james.imap.api.process.ImapProcessor;
 import org.apache.james.imap.api.process.ImapSession;
+import org.apache.james.imap.api.process.MailboxNotifications;
 import org.apache.james.imap.api.process.SelectedMailbox;
 import org.apache.james.imap.encode.ImapResponseWriter;
 import org.apache.james.imap.message.Literal;
@@ -64,6 +65,7 @@ public class NettyImapSession implements ImapSession, NettyConstants {
 
     private volatile ImapSessionState state = ImapSessionState.NON_AUTHENTICATED;
     private final AtomicReference<SelectedMailbox> selectedMailbox = new AtomicReference<>();
+    private final AtomicReference<MailboxNotifications> notifications = new AtomicReference<>();
     private volatile boolean needsCommandInjectionDetection;
     private volatile MailboxSession mailboxSession = null;
 
@@ -123,6 +125,7 @@ public class NettyImapSession implements ImapSession, NettyConstants {
     @Override
     public Mono<Void> logout() {
         return closeMailbox()
+            .then(Mono.defer(() -> notifications(null)))
             .then(Mono.fromRunnable(() -> state = ImapSessionState.LOGOUT));
     }
 
@@ -186,6 +189,18 @@ public class NettyImapSession implements ImapSession, NettyConstants {
         return this.selectedMailbox.get();
     }
 
+    @Override
+    public Mono<Void> notifications(MailboxNotifications notifications) {
+        return Optional.ofNullable(this.notifications.getAndSet(notifications))
+            .map(MailboxNotifications::unregister)
+            .orElse(Mono.empty());
+    }
+
+    @Override
+    public MailboxNotifications getNotifications() {
+        return notifications.get();
+    }
+
     @Override
     public ImapSessionState getState() {
         return this.state;
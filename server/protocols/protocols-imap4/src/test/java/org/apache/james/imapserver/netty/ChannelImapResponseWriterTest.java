@@ -0,0 +1,158 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.imapserver.netty;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.james.imap.message.Literal;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Publisher;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import io.netty.channel.DefaultEventLoop;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.stream.ChunkedWriteHandler;
+import reactor.core.publisher.Sinks;
+
+class ChannelImapResponseWriterTest {
+    private static class ReactiveLiteral implements Literal {
+        private final Publisher<ByteBuffer> content;
+        private final long size;
+
+        ReactiveLiteral(Publisher<ByteBuffer> content, long size) {
+            this.content = content;
+            this.size = size;
+        }
+
+        @Override
+        public long size() {
+            return size;
+        }
+
+        @Override
+        public InputStream getInputStream() {
+            throw new UnsupportedOperationException("Content is only available as reactive bytes");
+        }
+
+        @Override
+        public Optional<Publisher<ByteBuffer>> asReactiveBytes() {
+            return Optional.of(content);
+        }
+    }
+
+    private static ByteBuffer chunk(String value) {
+        return ByteBuffer.wrap(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String readOutbound(EmbeddedChannel channel) {
+        StringBuilder result = new StringBuilder();
+        Object message;
+        while ((message = channel.readOutbound()) != null) {
+            ByteBuf buffer = (ByteBuf) message;
+            result.append(buffer.toString(StandardCharsets.UTF_8));
+            buffer.release();
+        }
+        return result.toString();
+    }
+
+    @Test
+    void writesFromTheEventLoopShouldNotOvertakePendingWrites() throws Exception {
+        DefaultEventLoop eventLoop = new DefaultEventLoop();
+        try {
+            List<String> written = new CopyOnWriteArrayList<>();
+            Channel channel = mock(Channel.class);
+            when(channel.isActive()).thenReturn(true);
+            when(channel.eventLoop()).thenReturn(eventLoop);
+            when(channel.writeAndFlush(any())).thenAnswer(invocation -> {
+                written.add(((ByteBuf) invocation.getArgument(0)).toString(StandardCharsets.UTF_8));
+                return null;
+            });
+            ChannelImapResponseWriter testee = new ChannelImapResponseWriter(channel);
+
+            CountDownLatch pendingWriteSubmitted = new CountDownLatch(1);
+            CountDownLatch done = new CountDownLatch(1);
+            eventLoop.execute(() -> {
+                try {
+                    pendingWriteSubmitted.await();
+                    testee.write("second".getBytes(StandardCharsets.UTF_8));
+                    eventLoop.execute(done::countDown);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            // Submitted while the event loop is busy: still pending when the event loop writes
+            testee.write("first".getBytes(StandardCharsets.UTF_8));
+            pendingWriteSubmitted.countDown();
+
+            assertThat(done.await(10, TimeUnit.SECONDS)).isTrue();
+            assertThat(written).containsExactly("first", "second");
+        } finally {
+            eventLoop.shutdownGracefully(0, 0, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    void reactiveLiteralsShouldBeStreamed() throws Exception {
+        ChunkedWriteHandler chunkedWriteHandler = new ChunkedWriteHandler();
+        EmbeddedChannel channel = new EmbeddedChannel(chunkedWriteHandler);
+        Sinks.Many<ByteBuffer> sink = Sinks.many().unicast().onBackpressureBuffer();
+        ChannelImapResponseWriter testee = new ChannelImapResponseWriter(channel);
+
+        testee.write(new ReactiveLiteral(sink.asFlux(), 6));
+        assertThat(readOutbound(channel)).isEmpty();
+
+        sink.tryEmitNext(chunk("abc"));
+        assertThat(readOutbound(channel)).isEqualTo("abc");
+
+        sink.tryEmitNext(chunk("def"));
+        sink.tryEmitComplete();
+        assertThat(readOutbound(channel)).isEqualTo("def");
+    }
+
+    @Test
+    void writesFollowingAStreamedLiteralShouldBeWrittenAfterItsContent() throws Exception {
+        EmbeddedChannel channel = new EmbeddedChannel(new ChunkedWriteHandler());
+        Sinks.Many<ByteBuffer> sink = Sinks.many().unicast().onBackpressureBuffer();
+        ChannelImapResponseWriter testee = new ChannelImapResponseWriter(channel);
+
+        testee.write("* 1 FETCH (BODY[] {6}\r\n".getBytes(StandardCharsets.UTF_8));
+        testee.write(new ReactiveLiteral(sink.asFlux(), 6));
+        testee.write(")\r\n".getBytes(StandardCharsets.UTF_8));
+
+        sink.tryEmitNext(chunk("abc"));
+        sink.tryEmitNext(chunk("def"));
+        sink.tryEmitComplete();
+
+        assertThat(readOutbound(channel)).isEqualTo("* 1 FETCH (BODY[] {6}\r\nabcdef)\r\n");
+    }
+}
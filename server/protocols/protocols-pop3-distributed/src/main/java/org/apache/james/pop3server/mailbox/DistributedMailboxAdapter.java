@@ -21,6 +21,7 @@ package org.apache.james.pop3server.mailbox;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.util.Iterator;
 import java.util.List;
 import java.util.stream.Stream;
@@ -39,6 +40,7 @@ import org.apache.james.mailbox.model.MessageId;
 import org.apache.james.mailbox.model.MessageResult;
 import org.apache.james.protocols.pop3.mailbox.Mailbox;
 import org.apache.james.protocols.pop3.mailbox.MessageMetaData;
+import org.reactivestreams.Publisher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -98,16 +100,16 @@ public class DistributedMailboxAdapter implements Mailbox {
     @Override
     public InputStream getMessage(String uid) throws IOException {
         try {
-            MessageId messageId = messageIdFactory.fromString(uid);
-            Iterator<MessageResult> messages = messageIdManager.getMessage(messageId, FetchGroup.FULL_CONTENT, session).iterator();
-            if (messages.hasNext()) {
-                return messages.next().getFullContent().getInputStream();
-            } else {
-                LOGGER.warn("Removing {} from {} POP3 projection for user {} at it is not backed by a MailboxMessage",
-                    uid, mailbox.getId().serialize(), session.getUser().asString());
-                Mono.from(metadataStore.remove(mailbox.getId(), messageId)).block();
-                throw new IOException("Message does not exist for uid " + uid);
-            }
+            return retrieve(uid, FetchGroup.FULL_CONTENT).getFullContent().getInputStream();
+        } catch (MailboxException e) {
+            throw new IOException("Unable to retrieve message body for uid " + uid, e);
+        }
+    }
+
+    @Override
+    public Publisher<ByteBuffer> readMessage(String uid) throws IOException {
+        try {
+            return retrieve(uid, FetchGroup.FULL_CONTENT).getFullContent().reactiveBytes();
         } catch (MailboxException e) {
             throw new IOException("Unable to retrieve message body for uid " + uid, e);
         }
@@ -116,21 +118,34 @@ public class DistributedMailboxAdapter implements Mailbox {
     @Override
     public InputStream getMessageHeaders(String uid) throws IOException {
         try {
-            MessageId messageId = messageIdFactory.fromString(uid);
-            Iterator<MessageResult> messages = messageIdManager.getMessage(messageId, FetchGroup.HEADERS, session).iterator();
-            if (messages.hasNext()) {
-                return messages.next().getHeaders().getInputStream();
-            } else {
-                LOGGER.warn("Removing {} from {} POP3 projection for user {} as it is not backed by a MailboxMessage",
-                    uid, mailbox.getId().serialize(), session.getUser().asString());
-                Mono.from(metadataStore.remove(mailbox.getId(), messageId)).block();
-                throw new IOException("Message does not exist for uid " + uid);
-            }
+            return retrieve(uid, FetchGroup.HEADERS).getHeaders().getInputStream();
         } catch (MailboxException e) {
             throw new IOException("Unable to retrieve message headers for uid " + uid, e);
         }
     }
 
+    @Override
+    public Publisher<ByteBuffer> readMessageHeaders(String uid) throws IOException {
+        try {
+            return retrieve(uid, FetchGroup.HEADERS).getHeaders().reactiveBytes();
+        } catch (MailboxException e) {
+            throw new IOException("Unable to retrieve message headers for uid " + uid, e);
+        }
+    }
+
+    private MessageResult retrieve(String uid, FetchGroup fetchGroup) throws IOException, MailboxException {
+        MessageId messageId = messageIdFactory.fromString(uid);
+        Iterator<MessageResult> messages = messageIdManager.getMessage(messageId, fetchGroup, session).iterator();
+        if (messages.hasNext()) {
+            return messages.next();
+        } else {
+            LOGGER.warn("Removing {} from {} POP3 projection for user {} as it is not backed by a MailboxMessage",
+                uid, mailbox.getId().serialize(), session.getUser().asString());
+            Mono.from(metadataStore.remove(mailbox.getId(), messageId)).block();
+            throw new IOException("Message does not exist for uid " + uid);
+        }
+    }
+
     @Override
     public List<MessageMetaData> getMessages() {
         return Flux.from(metadataStore.stat(mailbox.getId()))
@@ -20,6 +20,7 @@ package org.apache.james.pop3server.mailbox;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Iterator;
@@ -36,6 +37,7 @@ import org.apache.james.mailbox.model.MessageRange;
 import org.apache.james.mailbox.model.MessageResult;
 import org.apache.james.protocols.pop3.mailbox.Mailbox;
 import org.apache.james.protocols.pop3.mailbox.MessageMetaData;
+import org.reactivestreams.Publisher;
 
 import com.google.common.collect.ImmutableList;
 
@@ -54,32 +56,48 @@ public class MailboxAdapter implements Mailbox {
     @Override
     public InputStream getMessage(String uid) throws IOException {
         try {
-            mailboxManager.startProcessingRequest(session);
-            Iterator<MessageResult> results = manager.getMessages(MessageUid.of(Long.parseLong(uid)).toRange(), FetchGroup.FULL_CONTENT, session);
-            if (results.hasNext()) {
-                return results.next().getFullContent().getInputStream();
-            } else {
-                throw new IOException("Message does not exist for uid " + uid);
-            }
+            return retrieve(uid, FetchGroup.FULL_CONTENT).getFullContent().getInputStream();
+        } catch (MailboxException e) {
+            throw new IOException("Unable to retrieve message for uid " + uid, e);
+        }
+    }
+
+    @Override
+    public Publisher<ByteBuffer> readMessage(String uid) throws IOException {
+        try {
+            return retrieve(uid, FetchGroup.FULL_CONTENT).getFullContent().reactiveBytes();
         } catch (MailboxException e) {
             throw new IOException("Unable to retrieve message for uid " + uid, e);
-        } finally {
-            mailboxManager.endProcessingRequest(session);
         }
     }
 
     @Override
     public InputStream getMessageHeaders(String uid) throws IOException {
+        try {
+            return retrieve(uid, FetchGroup.HEADERS).getHeaders().getInputStream();
+        } catch (MailboxException e) {
+            throw new IOException("Unable to retrieve message headers for uid " + uid, e);
+        }
+    }
+
+    @Override
+    public Publisher<ByteBuffer> readMessageHeaders(String uid) throws IOException {
+        try {
+            return retrieve(uid, FetchGroup.HEADERS).getHeaders().reactiveBytes();
+        } catch (MailboxException e) {
+            throw new IOException("Unable to retrieve message headers for uid " + uid, e);
+        }
+    }
+
+    private MessageResult retrieve(String uid, FetchGroup fetchGroup) throws IOException, MailboxException {
         try {
             mailboxManager.startProcessingRequest(session);
-            Iterator<MessageResult> results = manager.getMessages(MessageUid.of(Long.parseLong(uid)).toRange(), FetchGroup.HEADERS, session);
+            Iterator<MessageResult> results = manager.getMessages(MessageUid.of(Long.parseLong(uid)).toRange(), fetchGroup, session);
             if (results.hasNext()) {
-                return results.next().getHeaders().getInputStream();
+                return results.next();
             } else {
                 throw new IOException("Message does not exist for uid " + uid);
             }
-        } catch (MailboxException e) {
-            throw new IOException("Unable to retrieve message headers for uid " + uid, e);
         } finally {
             mailboxManager.endProcessingRequest(session);
         }
@@ -43,6 +43,7 @@ import org.apache.james.jdkim.api.PublicKeyRecordRetriever;
 import org.apache.james.jdkim.api.SignatureRecord;
 import org.apache.james.jdkim.exceptions.FailException;
 import org.apache.james.jdkim.mailets.DKIMVerifier;
+import org.apache.james.jdkim.mailets.PublicKeyRecordCache;
 import org.apache.james.protocols.smtp.SMTPSession;
 import org.apache.james.protocols.smtp.hook.HookResult;
 import org.apache.james.protocols.smtp.hook.HookReturnCode;
@@ -304,8 +305,12 @@ public class DKIMHook implements JamesMessageHook {
     private DKIMCheckNeeded dkimCheckNeeded;
 
     @Inject
+    public DKIMHook(PublicKeyRecordRetriever publicKeyRecordRetriever, PublicKeyRecordCache publicKeyRecordCache) {
+        verifier = new DKIMVerifier(publicKeyRecordRetriever, publicKeyRecordCache);
+    }
+
     public DKIMHook(PublicKeyRecordRetriever publicKeyRecordRetriever) {
-        verifier = new DKIMVerifier(publicKeyRecordRetriever);
+        this(publicKeyRecordRetriever, new PublicKeyRecordCache());
     }
 
     @Override
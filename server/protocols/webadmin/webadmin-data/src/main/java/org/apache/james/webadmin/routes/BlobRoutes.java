@@ -20,6 +20,8 @@
 package org.apache.james.webadmin.routes;
 
 import java.time.Clock;
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
 import java.util.Optional;
 import java.util.Set;
 
@@ -35,6 +37,7 @@ import org.apache.james.server.blob.deduplication.BlobGCTask;
 import org.apache.james.server.blob.deduplication.GenerationAwareBlobId;
 import org.apache.james.task.Task;
 import org.apache.james.task.TaskManager;
+import org.apache.james.util.DurationParser;
 import org.apache.james.webadmin.Routes;
 import org.apache.james.webadmin.tasks.TaskFromRequest;
 import org.apache.james.webadmin.utils.JsonTransformer;
@@ -109,9 +112,29 @@ public class BlobRoutes implements Routes {
             .expectedBlobCount(expectedBlobCount)
             .associatedProbability(associatedProbability)
             .deletionWindowSize(deletionWindowSize)
+            .prefix(getPrefix(request))
+            .referenceFilterMaxAge(getReferenceFilterMaxAge(request))
             .build();
     }
 
+    private static Optional<String> getPrefix(Request req) {
+        return Optional.ofNullable(req.queryParams("prefix"))
+            .filter(prefix -> !prefix.isBlank());
+    }
+
+    private static Optional<Duration> getReferenceFilterMaxAge(Request req) {
+        try {
+            return Optional.ofNullable(req.queryParams("referenceFilterMaxAge"))
+                .map(value -> DurationParser.parse(value, ChronoUnit.DAYS))
+                .map(maxAge -> {
+                    Preconditions.checkArgument(!maxAge.isZero());
+                    return maxAge;
+                });
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("'referenceFilterMaxAge' must be a strictly positive duration");
+        }
+    }
+
     private static Optional<Integer> getExpectedBlobCount(Request req) {
         try {
             return Optional.ofNullable(req.queryParams("expectedBlobCount"))
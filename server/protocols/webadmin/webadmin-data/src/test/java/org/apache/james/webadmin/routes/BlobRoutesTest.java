@@ -67,6 +67,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
 
 import com.google.common.collect.ImmutableSet;
 
@@ -228,6 +229,56 @@ class BlobRoutesTest {
             .body("additionalInformation.deletionWindowSize", is(99));
     }
 
+    @Test
+    void deleteUnReferencedShouldAcceptPrefixParam() {
+        String taskId = given()
+            .queryParam("scope", "unreferenced")
+            .queryParam("prefix", "1_650_")
+            .delete()
+            .jsonPath()
+            .get("taskId");
+
+        given()
+            .basePath(TasksRoutes.BASE)
+        .when()
+            .get(taskId + "/await")
+        .then()
+            .body("status", is("completed"));
+    }
+
+    @Test
+    void deleteUnReferencedShouldAcceptReferenceFilterMaxAgeParam() {
+        String taskId = given()
+            .queryParam("scope", "unreferenced")
+            .queryParam("referenceFilterMaxAge", "7d")
+            .delete()
+            .jsonPath()
+            .get("taskId");
+
+        given()
+            .basePath(TasksRoutes.BASE)
+        .when()
+            .get(taskId + "/await")
+        .then()
+            .body("status", is("completed"));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"invalid", "0d", "-1d"})
+    void deleteUnReferencedShouldReturnErrorWhenReferenceFilterMaxAgeInvalid(String referenceFilterMaxAge) {
+        given()
+            .queryParam("scope", "unreferenced")
+            .queryParam("referenceFilterMaxAge", referenceFilterMaxAge)
+            .delete()
+        .then()
+            .statusCode(BAD_REQUEST_400)
+            .contentType(JSON)
+            .body("statusCode", is(BAD_REQUEST_400))
+            .body("type", is("InvalidArgument"))
+            .body("message", is("Invalid arguments supplied in the user request"))
+            .body("details", containsString("referenceFilterMaxAge"));
+    }
+
     @ParameterizedTest
     @MethodSource("expectedBlobCountParameters")
     void deleteUnReferencedShouldReturnErrorWhenExpectedBlobCountInvalid(Object expectedBlobCount) {
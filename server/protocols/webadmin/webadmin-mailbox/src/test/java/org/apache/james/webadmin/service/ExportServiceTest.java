@@ -202,7 +202,7 @@ class ExportServiceTest {
 
         doReturn(Mono.error(new RuntimeException()))
             .when(testSystem.blobStore)
-            .delete(any(), any());
+            .delete(any(), any(BlobId.class));
 
         Task.Result result = testee.export(progress, BOB).block();
 
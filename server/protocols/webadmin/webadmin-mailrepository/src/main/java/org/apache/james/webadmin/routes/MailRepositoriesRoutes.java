@@ -359,7 +359,9 @@ public class MailRepositoriesRoutes implements Routes {
             parseMaxRetries(request),
             parseForRecipient(request),
             parseConsume(request).orElse(true),
-            parseLimit(request));
+            parseLimit(request),
+            ParametersExtractor.extractPositiveInteger(request, "concurrency"),
+            ParametersExtractor.extractPositiveInteger(request, "messagesPerSecond"));
     }
 
     public void definePatchOne() {
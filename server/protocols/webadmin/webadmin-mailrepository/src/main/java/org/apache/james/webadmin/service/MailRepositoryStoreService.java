@@ -51,7 +51,6 @@ import org.apache.mailet.Mail;
 import org.eclipse.jetty.http.HttpStatus;
 
 import com.github.fge.lambdas.Throwing;
-import com.google.common.collect.ImmutableList;
 
 import reactor.core.publisher.Flux;
 
@@ -78,13 +77,12 @@ public class MailRepositoryStoreService {
     }
 
     public Optional<List<MailKeyDTO>> listMails(MailRepositoryPath path, Offset offset, Limit limit, MailRepository.Condition condition) throws MailRepositoryStore.MailRepositoryStoreException, MessagingException {
-        Optional<Stream<MailKeyDTO>> maybeMails = Optional.of(getRepositories(path)
-            .flatMap(Throwing.function((MailRepository repository) -> Iterators.toStream(repository.list(condition))).sneakyThrow())
-            .map(MailKeyDTO::new)
-            .skip(offset.getOffset()));
-
-        return maybeMails.map(limit::applyOnStream)
-            .map(stream -> stream.collect(ImmutableList.toImmutableList()));
+        return limit.applyOnFlux(Flux.fromStream(getRepositories(path))
+                .concatMap(repository -> repository.listReactive(condition))
+                .map(MailKeyDTO::new)
+                .skip(offset.getOffset()))
+            .collectList()
+            .blockOptional();
     }
 
     public Optional<Long> size(MailRepositoryPath path) throws MailRepositoryStore.MailRepositoryStoreException {
@@ -54,7 +54,9 @@ public class ReprocessingAllMailsTaskDTO implements TaskDTO {
                 domainObject.getConfiguration().getTargetProcessor(),
                 domainObject.getConfiguration().getForRecipient().map(MailAddress::asString),
                 domainObject.getConfiguration().getLimit().getLimit(),
-                domainObject.getConfiguration().getMaxRetries());
+                domainObject.getConfiguration().getMaxRetries(),
+                domainObject.getConfiguration().getConcurrency(),
+                domainObject.getConfiguration().getMessagesPerSecond());
         } catch (Exception e) {
             throw new ReprocessingAllMailsTask.UrlEncodingFailureSerializationException(domainObject.getRepositoryPath());
         }
@@ -69,6 +71,8 @@ public class ReprocessingAllMailsTaskDTO implements TaskDTO {
     private final Optional<String> forRecipient;
     private final Optional<Integer> limit;
     private final Optional<Integer> maxRetries;
+    private final Optional<Integer> concurrency;
+    private final Optional<Integer> messagesPerSecond;
 
     public ReprocessingAllMailsTaskDTO(@JsonProperty("type") String type,
                                        @JsonProperty("repositorySize") long repositorySize,
@@ -78,7 +82,9 @@ public class ReprocessingAllMailsTaskDTO implements TaskDTO {
                                        @JsonProperty("targetProcessor") Optional<String> targetProcessor,
                                        @JsonProperty("forRecipient") Optional<String> forRecipient,
                                        @JsonProperty("limit") Optional<Integer> limit,
-                                       @JsonProperty("maxRetries") Optional<Integer> maxRetries) {
+                                       @JsonProperty("maxRetries") Optional<Integer> maxRetries,
+                                       @JsonProperty("concurrency") Optional<Integer> concurrency,
+                                       @JsonProperty("messagesPerSecond") Optional<Integer> messagesPerSecond) {
         this.type = type;
         this.repositorySize = repositorySize;
         this.repositoryPath = repositoryPath;
@@ -88,6 +94,8 @@ public class ReprocessingAllMailsTaskDTO implements TaskDTO {
         this.forRecipient = forRecipient;
         this.limit = limit;
         this.maxRetries = maxRetries;
+        this.concurrency = concurrency;
+        this.messagesPerSecond = messagesPerSecond;
     }
 
     private ReprocessingAllMailsTask fromDTO(ReprocessingService reprocessingService) {
@@ -102,7 +110,9 @@ public class ReprocessingAllMailsTaskDTO implements TaskDTO {
                     maxRetries,
                     forRecipient.map(Throwing.function(MailAddress::new)),
                     consume,
-                    Limit.from(limit)));
+                    Limit.from(limit),
+                    concurrency,
+                    messagesPerSecond));
         } catch (Exception e) {
             throw new ReprocessingAllMailsTask.InvalidMailRepositoryPathDeserializationException(repositoryPath);
         }
@@ -144,4 +154,12 @@ public class ReprocessingAllMailsTaskDTO implements TaskDTO {
     public Optional<Integer> getLimit() {
         return limit;
     }
+
+    public Optional<Integer> getConcurrency() {
+        return concurrency;
+    }
+
+    public Optional<Integer> getMessagesPerSecond() {
+        return messagesPerSecond;
+    }
 }
@@ -23,6 +23,7 @@ import static org.apache.mailet.LoopPrevention.RECORDED_RECIPIENTS_ATTRIBUTE_NAM
 
 import java.io.Closeable;
 import java.io.IOException;
+import java.time.Duration;
 import java.util.Optional;
 import java.util.function.Consumer;
 
@@ -41,7 +42,6 @@ import org.apache.james.queue.api.MailQueue;
 import org.apache.james.queue.api.MailQueueFactory;
 import org.apache.james.queue.api.MailQueueName;
 import org.apache.james.task.Task;
-import org.apache.james.util.streams.Iterators;
 import org.apache.james.util.streams.Limit;
 import org.apache.mailet.Attribute;
 import org.apache.mailet.AttributeName;
@@ -51,6 +51,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.github.fge.lambdas.Throwing;
+import com.google.common.base.Preconditions;
 
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -67,20 +68,34 @@ public class ReprocessingService {
     }
 
     public static class Configuration {
+        public static final int DEFAULT_CONCURRENCY = 1;
+
         private final MailQueueName mailQueueName;
         private final Optional<String> targetProcessor;
         private final Optional<Integer> maxRetries;
         private final Optional<MailAddress> forRecipient;
         private final boolean consume;
         private final Limit limit;
+        private final Optional<Integer> concurrency;
+        private final Optional<Integer> messagesPerSecond;
+
+        public Configuration(MailQueueName mailQueueName, Optional<String> targetProcessor, Optional<Integer> maxRetries, Optional<MailAddress> forRecipient,
+                             boolean consume, Limit limit, Optional<Integer> concurrency, Optional<Integer> messagesPerSecond) {
+            Preconditions.checkArgument(concurrency.map(value -> value > 0).orElse(true), "'concurrency' must be strictly positive");
+            Preconditions.checkArgument(messagesPerSecond.map(value -> value > 0).orElse(true), "'messagesPerSecond' must be strictly positive");
 
-        public Configuration(MailQueueName mailQueueName, Optional<String> targetProcessor, Optional<Integer> maxRetries, Optional<MailAddress> forRecipient, boolean consume, Limit limit) {
             this.mailQueueName = mailQueueName;
             this.targetProcessor = targetProcessor;
             this.maxRetries = maxRetries;
             this.forRecipient = forRecipient;
             this.consume = consume;
             this.limit = limit;
+            this.concurrency = concurrency;
+            this.messagesPerSecond = messagesPerSecond;
+        }
+
+        public Configuration(MailQueueName mailQueueName, Optional<String> targetProcessor, Optional<Integer> maxRetries, Optional<MailAddress> forRecipient, boolean consume, Limit limit) {
+            this(mailQueueName, targetProcessor, maxRetries, forRecipient, consume, limit, Optional.empty(), Optional.empty());
         }
 
         public Configuration(MailQueueName mailQueueName, Optional<String> targetProcessor, Optional<Integer> maxRetries, boolean consume, Limit limit) {
@@ -110,6 +125,14 @@ public class ReprocessingService {
         public Optional<Integer> getMaxRetries() {
             return maxRetries;
         }
+
+        public Optional<Integer> getConcurrency() {
+            return concurrency;
+        }
+
+        public Optional<Integer> getMessagesPerSecond() {
+            return messagesPerSecond;
+        }
     }
 
     static class Reprocessor implements Closeable {
@@ -121,20 +144,21 @@ public class ReprocessingService {
             this.configuration = configuration;
         }
 
-        private void reprocess(MailRepository repository, Mail mail, MailKey key) {
-            try {
-                incrementRetries(mail);
-                configuration.getTargetProcessor().ifPresent(mail::setState);
-                mail.removeAttribute(RECORDED_RECIPIENTS_ATTRIBUTE_NAME);
-                mailQueue.enQueue(mail);
-                if (configuration.isConsume()) {
-                    repository.remove(key);
-                }
-            } catch (Exception e) {
-                throw new RuntimeException("Error encountered while reprocessing mail " + mail.getName(), e);
-            } finally {
-                LifecycleUtil.dispose(mail);
-            }
+        private Mono<Void> reprocess(MailRepository repository, Mail mail, MailKey key) {
+            return Mono.fromRunnable(() -> {
+                    incrementRetries(mail);
+                    configuration.getTargetProcessor().ifPresent(mail::setState);
+                    mail.removeAttribute(RECORDED_RECIPIENTS_ATTRIBUTE_NAME);
+                })
+                .then(Mono.defer(() -> Mono.from(mailQueue.enqueueReactive(mail))))
+                .then(Mono.defer(() -> {
+                    if (configuration.isConsume()) {
+                        return Mono.from(repository.removeReactive(key));
+                    }
+                    return Mono.empty();
+                }))
+                .onErrorMap(e -> new RuntimeException("Error encountered while reprocessing mail " + mail.getName(), e))
+                .doFinally(any -> LifecycleUtil.dispose(mail));
         }
 
         private boolean retryExceeded(Mail mail) {
@@ -183,15 +207,25 @@ public class ReprocessingService {
             Reprocessor::close);
     }
 
+    /**
+     * Keys are streamed from the repositories and the mails are retrieved and re-enqueued concurrently, according to
+     * the configured concurrency. When a rate is configured, the mails are evenly spread so that at most 'messagesPerSecond'
+     * of them are re-enqueued each second: draining a large repository then does not overwhelm the mail processing.
+     */
     private Mono<Task.Result> reprocessAll(Reprocessor reprocessor, MailRepositoryPath path, Configuration configuration, Consumer<MailKey> keyListener) {
-        return configuration.limit.applyOnFlux(Flux.fromStream(Throwing.supplier(() -> mailRepositoryStoreService.getRepositories(path)))
-            .flatMap(Throwing.function((MailRepository repository) -> Iterators.toFlux(repository.list())
+        int concurrency = configuration.getConcurrency().orElse(Configuration.DEFAULT_CONCURRENCY);
+        Flux<Triple<Mail, MailRepository, MailKey>> mails = configuration.limit.applyOnFlux(Flux.fromStream(Throwing.supplier(() -> mailRepositoryStoreService.getRepositories(path)))
+            .concatMap(repository -> Flux.from(repository.listReactive())
                 .doOnNext(keyListener)
-                .flatMap(mailKey -> Mono.fromCallable(() -> repository.retrieve(mailKey))
-                    .map(mail -> Triple.of(mail, repository, mailKey)))
-                .filter(triple -> !reprocessor.retryExceeded(triple.getLeft()))))
-                .filter(triple -> filterRecipients(configuration, triple)))
-            .flatMap(triple -> reprocess(triple.getRight(), triple.getLeft(), triple.getMiddle(), reprocessor))
+                .flatMap(mailKey -> Mono.from(repository.retrieveReactive(mailKey))
+                    .map(mail -> Triple.of(mail, repository, mailKey)), concurrency)
+                .filter(triple -> !reprocessor.retryExceeded(triple.getLeft())))
+                .filter(triple -> filterRecipients(configuration, triple)));
+
+        return configuration.getMessagesPerSecond()
+            .map(messagesPerSecond -> mails.delayElements(Duration.ofSeconds(1).dividedBy(messagesPerSecond)))
+            .orElse(mails)
+            .flatMap(triple -> reprocess(triple.getRight(), triple.getLeft(), triple.getMiddle(), reprocessor), concurrency)
             .reduce(Task.Result.COMPLETED, Task::combine);
     }
 
@@ -200,7 +234,7 @@ public class ReprocessingService {
     }
 
     private Mono<Task.Result> reprocess(MailKey key, Mail mail, MailRepository repository, Reprocessor reprocessor) {
-        return Mono.fromRunnable(() -> reprocessor.reprocess(repository, mail, key))
+        return reprocessor.reprocess(repository, mail, key)
             .thenReturn(Task.Result.COMPLETED)
             .onErrorResume(error -> {
                 LOGGER.warn("Failed when reprocess mail {}", key.asString(), error);
@@ -218,7 +252,7 @@ public class ReprocessingService {
                 .findFirst()
                 .orElseThrow(() -> new MissingKeyException(key));
 
-            reprocessor.reprocess(mailPair.getKey(), mailPair.getValue(), key);
+            reprocessor.reprocess(mailPair.getKey(), mailPair.getValue(), key).block();
         }
     }
 
@@ -22,6 +22,7 @@ package org.apache.james.webadmin.service;
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.time.Duration;
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
@@ -54,6 +55,7 @@ import org.junit.jupiter.api.Test;
 
 import com.github.fge.lambdas.Throwing;
 import com.github.fge.lambdas.consumers.ConsumerChainer;
+import com.google.common.base.Stopwatch;
 import com.google.common.collect.ImmutableList;
 
 class ReprocessingServiceTest {
@@ -162,6 +164,54 @@ class ReprocessingServiceTest {
             .containsOnly(NAME_1, NAME_2, NAME_3);
     }
 
+    @Test
+    void concurrentReprocessingShouldEnqueueAllMails() throws Exception {
+        MailRepository repository = mailRepositoryStore.select(MailRepositoryUrl.fromPathAndProtocol(PATH, MEMORY_PROTOCOL));
+        repository.store(mail1);
+        repository.store(mail2);
+        repository.store(mail3);
+
+        reprocessingService.reprocessAll(PATH, new Configuration(SPOOL, NO_TARGET_PROCESSOR, NO_MAX_RETRIES, Optional.empty(), CONSUME, Limit.unlimited(),
+            Optional.of(4), Optional.empty()), NOOP_CONSUMER).block();
+
+        assertThat(queueFactory.getQueue(SPOOL).get().browse())
+            .toIterable()
+            .extracting(item -> item.getMail().getName())
+            .containsOnly(NAME_1, NAME_2, NAME_3);
+        assertThat(repository.list()).toIterable()
+            .isEmpty();
+    }
+
+    @Test
+    void rateLimitedReprocessingShouldEnqueueAllMails() throws Exception {
+        MailRepository repository = mailRepositoryStore.select(MailRepositoryUrl.fromPathAndProtocol(PATH, MEMORY_PROTOCOL));
+        repository.store(mail1);
+        repository.store(mail2);
+        repository.store(mail3);
+
+        reprocessingService.reprocessAll(PATH, new Configuration(SPOOL, NO_TARGET_PROCESSOR, NO_MAX_RETRIES, Optional.empty(), CONSUME, Limit.unlimited(),
+            Optional.of(2), Optional.of(2)), NOOP_CONSUMER).block();
+
+        assertThat(queueFactory.getQueue(SPOOL).get().browse())
+            .toIterable()
+            .extracting(item -> item.getMail().getName())
+            .containsOnly(NAME_1, NAME_2, NAME_3);
+    }
+
+    @Test
+    void rateLimitedReprocessingShouldThrottleEnqueues() throws Exception {
+        MailRepository repository = mailRepositoryStore.select(MailRepositoryUrl.fromPathAndProtocol(PATH, MEMORY_PROTOCOL));
+        repository.store(mail1);
+        repository.store(mail2);
+        repository.store(mail3);
+
+        Stopwatch stopwatch = Stopwatch.createStarted();
+        reprocessingService.reprocessAll(PATH, new Configuration(SPOOL, NO_TARGET_PROCESSOR, NO_MAX_RETRIES, Optional.empty(), CONSUME, Limit.unlimited(),
+            Optional.empty(), Optional.of(2)), NOOP_CONSUMER).block();
+
+        assertThat(stopwatch.elapsed()).isGreaterThanOrEqualTo(Duration.ofMillis(1500));
+    }
+
     @Test
     void reprocessingShouldSupportMaxRetries() throws Exception {
         MailRepository repository = mailRepositoryStore.select(MailRepositoryUrl.fromPathAndProtocol(PATH, MEMORY_PROTOCOL));
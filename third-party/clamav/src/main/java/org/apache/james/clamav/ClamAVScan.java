@@ -20,29 +20,28 @@
 
 package org.apache.james.clamav;
 
-import java.io.BufferedOutputStream;
 import java.io.BufferedReader;
 import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
 import java.net.ConnectException;
 import java.net.InetAddress;
 import java.net.Socket;
 import java.net.UnknownHostException;
-import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.temporal.ChronoUnit;
-import java.util.HashSet;
 import java.util.Optional;
 import java.util.Set;
 
+import jakarta.inject.Inject;
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
 
+import org.apache.james.metrics.api.MetricFactory;
 import org.apache.james.server.core.MimeMessageInputStream;
 import org.apache.james.util.AuditTrail;
 import org.apache.james.util.DurationParser;
@@ -56,8 +55,10 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.github.fge.lambdas.Throwing;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.io.ByteSource;
 
 
 /**
@@ -92,6 +93,15 @@ import com.google.common.collect.ImmutableSet;
  * The default is <I>30000</I> (30 seconds).</LI>
  * <LI><CODE>&lt;streamBufferSize&gt;</CODE>: the BufferedOutputStream buffer size to use
  * writing to the <I>stream connection</I>. The default is <I>8192</I>.</LI>
+ * <LI><CODE>&lt;socketTimeout&gt;</CODE>: the connect and read timeout used with CLAMD. The default is <I>5 seconds</I>.</LI>
+ * <LI><CODE>&lt;maxConcurrencyPerBackend&gt;</CODE>: the maximum number of concurrent scans sent to each
+ * CLAMD address. Additional scans wait for a slot. The default is <I>16</I>.</LI>
+ * <LI><CODE>&lt;sessionReuse&gt;</CODE>: whether connections are opened in <CODE>IDSESSION</CODE> mode
+ * and reused for subsequent mails. The default is <I>true</I>.</LI>
+ * <LI><CODE>&lt;sessionIdleTimeout&gt;</CODE>: idle sessions older than this are closed instead of being reused.
+ * Should be lower than CLAMD <CODE>IdleTimeout</CODE>. The default is <I>10 seconds</I>.</LI>
+ * <LI><CODE>&lt;unhealthyBackendDelay&gt;</CODE>: how long a CLAMD address that refused a connection is skipped
+ * by the round-robin. The default is <I>30 seconds</I>.</LI>
  * </UL>
  * <p/>
  * <P>The actions performed are as follows:</P>
@@ -110,14 +120,14 @@ import com.google.common.collect.ImmutableSet;
  * </OL>
  * <LI>For every mail</LI>
  * <OL>
- * <LI>connects to CLAMD at the "next" IP in the round-robin list, on
- * the specified <CODE>&lt;port&gt;</CODE>, and increments the "next" index;
- * if the connection request is not accepted tries with the next one
- * in the list unless all of them have failed;</LI>
+ * <LI>waits for a free slot on the "next" healthy IP in the round-robin list, and reuses
+ * an idle session to it or connects to CLAMD on the specified <CODE>&lt;port&gt;</CODE>;
+ * if the connection request is not accepted the IP is marked unhealthy and the next one
+ * in the list is tried unless all of them have failed;</LI>
  * <LI>sends a "<CODE>INSTREAM</CODE>" request;</LI>
- * <LI>sends the mime message to CLAMD;</LI>
+ * <LI>streams the mime message to CLAMD;</LI>
  * <LI>gets the "<CODE>OK</CODE>" or "<CODE>... FOUND</CODE>" answer from the connection;</LI>
- * <LI>closes the connection;</LI>
+ * <LI>keeps the session for the next mail, or closes the connection when session reuse is disabled;</LI>
  * <LI>sets the "<CODE>org.apache.james.infected</CODE>" <I>mail attribute</I> to either
  * "<CODE>true</CODE>" or "<CODE>false</CODE>";</LI>
  * <LI>adds the "<CODE>X-MessageIsInfected</CODE>" <I>header</I> to either
@@ -195,12 +205,6 @@ public class ClamAVScan extends GenericMailet {
 
     private static final int DEFAULT_PING_INTERVAL_MILLI = 10000;
 
-    private static final int DEFAULT_SOCKET_TIMEOUT_MILLI = 5000;
-
-    private static final int DEFAULT_STREAM_BUFFER_SIZE = 8192;
-
-    private static final String FOUND_STRING = "FOUND";
-
     protected static final AttributeName INFECTED_MAIL_ATTRIBUTE_NAME = AttributeName.of("org.apache.james.infected");
 
     protected static final String INFECTED_HEADER_NAME = "X-MessageIsInfected";
@@ -245,10 +249,25 @@ public class ClamAVScan extends GenericMailet {
      */
     private InetAddress[] addresses;
 
+    private int maxConcurrencyPerBackend;
+
+    private boolean sessionReuse;
+
+    private Duration sessionIdleTimeout;
+
+    private Duration unhealthyBackendDelay;
+
+    private final MetricFactory metricFactory;
+
     /**
-     * Holds the index of the next address to connect to
+     * Client shared by all the spooler threads, holding the CLAMD sessions.
      */
-    private int nextAddressIndex;
+    private ClamdClient clamdClient;
+
+    @Inject
+    public ClamAVScan(MetricFactory metricFactory) {
+        this.metricFactory = metricFactory;
+    }
 
     @Override
     public String getMailetInfo() {
@@ -266,7 +285,12 @@ public class ClamAVScan extends GenericMailet {
                 "port",
                 "maxPings",
                 "pingIntervalMilli",
-                "streamBufferSize"
+                "socketTimeout",
+                "streamBufferSize",
+                "maxConcurrencyPerBackend",
+                "sessionReuse",
+                "sessionIdleTimeout",
+                "unhealthyBackendDelay"
         );
     }
 
@@ -310,9 +334,8 @@ public class ClamAVScan extends GenericMailet {
 
     /**
      * Setter for property host.
-     * Resolves also the host name into the corresponding IP addresses, issues
-     * a {@link #setAddresses} and resets the <CODE>nextAddressIndex</CODE>
-     * variable to <I>0</I> for dealing with <I>round-robin</I>.
+     * Resolves also the host name into the corresponding IP addresses and issues
+     * a {@link #setAddresses}.
      *
      * @param host New value of property host.
      * @throws UnknownHostException if unable to resolve the host name, or if invalid
@@ -321,8 +344,6 @@ public class ClamAVScan extends GenericMailet {
         this.host = host;
 
         setAddresses(InetAddress.getAllByName(host));
-
-        nextAddressIndex = 0;
     }
 
     /**
@@ -403,7 +424,7 @@ public class ClamAVScan extends GenericMailet {
     protected void initSocketTimeout() {
         this.socketTimeoutMilli = Optional.ofNullable(getInitParameter("socketTimeout"))
             .map(string -> (int) DurationParser.parse(string, ChronoUnit.MILLIS).toMillis())
-            .orElse(DEFAULT_SOCKET_TIMEOUT_MILLI);
+            .orElse(ClamdClient.Configuration.DEFAULT_SOCKET_TIMEOUT_MILLI);
     }
 
     /**
@@ -431,7 +452,7 @@ public class ClamAVScan extends GenericMailet {
      */
     protected void initStreamBufferSize() {
         String streamBufferSizeParam = getInitParameter("streamBufferSize");
-        setStreamBufferSize((streamBufferSizeParam == null) ? DEFAULT_STREAM_BUFFER_SIZE : Integer.parseInt(streamBufferSizeParam));
+        setStreamBufferSize((streamBufferSizeParam == null) ? ClamdClient.Configuration.DEFAULT_STREAM_BUFFER_SIZE : Integer.parseInt(streamBufferSizeParam));
         if (isDebug()) {
             LOGGER.debug("streamBufferSize: {}", getStreamBufferSize());
         }
@@ -457,6 +478,26 @@ public class ClamAVScan extends GenericMailet {
         this.streamBufferSize = streamBufferSize;
     }
 
+    /**
+     * Initializer for the CLAMD connection pooling properties.
+     */
+    protected void initConnectionPooling() {
+        this.maxConcurrencyPerBackend = getInitParameterAsOptional("maxConcurrencyPerBackend")
+            .map(Integer::parseInt)
+            .orElse(ClamdClient.Configuration.DEFAULT_MAX_CONCURRENCY_PER_BACKEND);
+        this.sessionReuse = getBooleanParameter(getInitParameter("sessionReuse"), ClamdClient.Configuration.DEFAULT_SESSION_REUSE);
+        this.sessionIdleTimeout = getInitParameterAsOptional("sessionIdleTimeout")
+            .map(string -> DurationParser.parse(string, ChronoUnit.MILLIS))
+            .orElse(ClamdClient.Configuration.DEFAULT_SESSION_IDLE_TIMEOUT);
+        this.unhealthyBackendDelay = getInitParameterAsOptional("unhealthyBackendDelay")
+            .map(string -> DurationParser.parse(string, ChronoUnit.MILLIS))
+            .orElse(ClamdClient.Configuration.DEFAULT_UNHEALTHY_BACKEND_DELAY);
+        if (isDebug()) {
+            LOGGER.debug("maxConcurrencyPerBackend: {}, sessionReuse: {}, sessionIdleTimeout: {}, unhealthyBackendDelay: {}",
+                maxConcurrencyPerBackend, sessionReuse, sessionIdleTimeout, unhealthyBackendDelay);
+        }
+    }
+
     /**
      * Indexed getter for property addresses.
      *
@@ -488,26 +529,6 @@ public class ClamAVScan extends GenericMailet {
         this.addresses = addresses;
     }
 
-    /**
-     * Getter for property nextAddress.
-     * <p/>
-     * Gets the address of the next CLAMD server to connect to in this round, using round-robin.
-     * Increments the nextAddressIndex for the next round.
-     *
-     * @return Value of property address.
-     */
-    protected synchronized InetAddress getNextAddress() {
-
-        InetAddress address = getAddresses(nextAddressIndex);
-
-        nextAddressIndex++;
-        if (nextAddressIndex >= getAddressesCount()) {
-            nextAddressIndex = 0;
-        }
-
-        return address;
-    }
-
     /**
      * Getter for property addressesCount.
      *
@@ -517,43 +538,6 @@ public class ClamAVScan extends GenericMailet {
         return getAddresses().length;
     }
 
-    /**
-     * Gets a Socket connected to CLAMD.
-     * <p/>
-     * Will loop though the round-robin address list until the first one accepts
-     * the connection.
-     *
-     * @return a socket connected to CLAMD
-     * @throws ConnectException if no CLAMD in the round-robin address list has accepted the connection
-     */
-    protected Socket getClamdSocket() throws ConnectException {
-
-        InetAddress address;
-
-        Set<InetAddress> usedAddresses = new HashSet<>(getAddressesCount());
-        for (; ; ) {
-            // this do-while loop is needed because other threads could in the meantime
-            // calling getNextAddress(), and because of that the current thread may skip
-            // some working address
-            do {
-                if (usedAddresses.size() >= getAddressesCount()) {
-                    String logText = "Unable to connect to CLAMD. All addresses failed.";
-                    LOGGER.debug("{} Giving up.", logText);
-                    throw new ConnectException(logText);
-                }
-                address = getNextAddress();
-            } while (!usedAddresses.add(address));
-            try {
-                // get the socket
-                return new Socket(address, getPort());
-            } catch (IOException ioe) {
-                LOGGER.error("Exception caught acquiring main socket to CLAMD on {} on port {}: {}", address, getPort(), ioe.getMessage());
-                getNextAddress();
-                // retry
-            }
-        }
-    }
-
     @Override
     public void init() throws MessagingException {
 
@@ -572,6 +556,13 @@ public class ClamAVScan extends GenericMailet {
             initPingIntervalMilli();
             initSocketTimeout();
             initStreamBufferSize();
+            initConnectionPooling();
+
+            closeClamdClient();
+            clamdClient = new ClamdClient(ImmutableList.copyOf(getAddresses()), getPort(),
+                new ClamdClient.Configuration(socketTimeoutMilli, getStreamBufferSize(), maxConcurrencyPerBackend,
+                    sessionReuse, sessionIdleTimeout, unhealthyBackendDelay),
+                metricFactory);
 
             // If "maxPings is > ping the CLAMD server to check if it is up
             if (getMaxPings() > 0) {
@@ -608,7 +599,7 @@ public class ClamAVScan extends GenericMailet {
         }
 
         try {
-            if (hasVirus(new MimeMessageInputStream(mimeMessage))) {
+            if (hasVirus(asByteSource(mimeMessage))) {
                 AuditTrail.entry()
                     .protocol("mailetcontainer")
                     .action("ClamAVScan")
@@ -747,34 +738,45 @@ public class ClamAVScan extends GenericMailet {
         }
     }
 
+    @Override
+    public void destroy() {
+        closeClamdClient();
+    }
+
+    private void closeClamdClient() {
+        if (clamdClient != null) {
+            clamdClient.close();
+            clamdClient = null;
+        }
+    }
+
     public boolean hasVirus(InputStream mimeMessage) throws IOException {
-        try (Socket socket = getClamdSocket();
-        OutputStream clamAVOutputStream = new BufferedOutputStream(socket.getOutputStream(), getStreamBufferSize());
-        InputStream clamAvInputStream = socket.getInputStream()) {
-            socket.setSoTimeout(socketTimeoutMilli);
-            clamAVOutputStream.write("zINSTREAM\0".getBytes());
-            clamAVOutputStream.flush();
-
-            byte[] buffer = new byte[getStreamBufferSize()];
-            int read = mimeMessage.read(buffer);
-            while (read >= 0) {
-                byte[] chunkSize = ByteBuffer.allocate(4).putInt(read).array();
-                clamAVOutputStream.write(chunkSize);
-                clamAVOutputStream.write(buffer, 0, read);
-                if (clamAvInputStream.available() > 0) {
-                    byte[] reply = clamAvInputStream.readAllBytes();
-                    throw new IOException("Reply from server: " + new String(reply));
-                }
-                read = mimeMessage.read(buffer);
-            }
-            clamAVOutputStream.write(new byte[]{0, 0, 0, 0});
-            clamAVOutputStream.flush();
-            return replyContainsFound(new String(clamAvInputStream.readAllBytes()));
+        if (clamdClient == null) {
+            throw new ConnectException("CLAMD client is not initialized");
         }
+        return clamdClient.hasVirus(mimeMessage);
     }
 
-    private boolean replyContainsFound(String reply) {
-        return reply.contains(FOUND_STRING);
+    public boolean hasVirus(ByteSource mimeMessage) throws IOException {
+        if (clamdClient == null) {
+            throw new ConnectException("CLAMD client is not initialized");
+        }
+        return clamdClient.hasVirus(mimeMessage);
     }
-}
 
+    /**
+     * Can be read again, should the scan be retried on another CLAMD connection.
+     */
+    private static ByteSource asByteSource(MimeMessage mimeMessage) {
+        return new ByteSource() {
+            @Override
+            public InputStream openStream() throws IOException {
+                try {
+                    return new MimeMessageInputStream(mimeMessage);
+                } catch (MessagingException e) {
+                    throw new IOException("Unable to read message", e);
+                }
+            }
+        };
+    }
+}
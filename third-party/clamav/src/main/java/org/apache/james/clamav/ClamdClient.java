@@ -0,0 +1,484 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.clamav;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.ConnectException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Deque;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.james.metrics.api.Metric;
+import org.apache.james.metrics.api.MetricFactory;
+import org.apache.james.metrics.api.TimeMetric;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.common.io.ByteSource;
+
+/**
+ * Client to a set of CLAMD daemons, shared by all the threads of a {@link ClamAVScan} mailet.
+ *
+ * <ul>
+ *     <li>Backends are chosen in round-robin, skipping the ones that recently failed
+ *     for <code>unhealthyBackendDelay</code>.</li>
+ *     <li>The number of concurrent scans per backend is bounded by <code>maxConcurrencyPerBackend</code>:
+ *     exceeding scans wait for a slot instead of piling up connections on CLAMD.</li>
+ *     <li>When <code>sessionReuse</code> is enabled, connections are opened in <code>IDSESSION</code> mode and
+ *     kept for subsequent <code>INSTREAM</code> commands, as long as they were used less than
+ *     <code>sessionIdleTimeout</code> ago (this should stay below CLAMD <code>IdleTimeout</code>). A scan failing
+ *     on a reused session, that CLAMD might have closed meanwhile, is retried once on a new connection.</li>
+ * </ul>
+ *
+ * The scan fails closed: a missing or empty reply is an error, never a clean result.
+ *
+ * Scan latency is reported by the <code>clamav-scan</code> timer and the number of scans waiting for a slot
+ * by the <code>clamav-scan-pending</code> metric.
+ */
+public class ClamdClient implements Closeable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ClamdClient.class);
+
+    public static final String SCAN_TIMER = "clamav-scan";
+    public static final String PENDING_SCANS_METRIC = "clamav-scan-pending";
+
+    private static final byte[] INSTREAM_COMMAND = "zINSTREAM\0".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] IDSESSION_COMMAND = "zIDSESSION\0".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] END_COMMAND = "zEND\0".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] END_OF_STREAM = new byte[]{0, 0, 0, 0};
+    private static final String FOUND_STRING = "FOUND";
+    private static final String ERROR_STRING = "ERROR";
+    private static final boolean RETRYABLE = true;
+
+    public static class Configuration {
+        public static final int DEFAULT_SOCKET_TIMEOUT_MILLI = 5000;
+        public static final int DEFAULT_STREAM_BUFFER_SIZE = 8192;
+        public static final int DEFAULT_MAX_CONCURRENCY_PER_BACKEND = 16;
+        public static final boolean DEFAULT_SESSION_REUSE = true;
+        public static final Duration DEFAULT_SESSION_IDLE_TIMEOUT = Duration.ofSeconds(10);
+        public static final Duration DEFAULT_UNHEALTHY_BACKEND_DELAY = Duration.ofSeconds(30);
+
+        private final int socketTimeoutMilli;
+        private final int streamBufferSize;
+        private final int maxConcurrencyPerBackend;
+        private final boolean sessionReuse;
+        private final Duration sessionIdleTimeout;
+        private final Duration unhealthyBackendDelay;
+
+        public Configuration(int socketTimeoutMilli, int streamBufferSize, int maxConcurrencyPerBackend, boolean sessionReuse,
+                             Duration sessionIdleTimeout, Duration unhealthyBackendDelay) {
+            Preconditions.checkArgument(maxConcurrencyPerBackend > 0, "'maxConcurrencyPerBackend' needs to be strictly positive");
+            Preconditions.checkArgument(streamBufferSize > 0, "'streamBufferSize' needs to be strictly positive");
+
+            this.socketTimeoutMilli = socketTimeoutMilli;
+            this.streamBufferSize = streamBufferSize;
+            this.maxConcurrencyPerBackend = maxConcurrencyPerBackend;
+            this.sessionReuse = sessionReuse;
+            this.sessionIdleTimeout = sessionIdleTimeout;
+            this.unhealthyBackendDelay = unhealthyBackendDelay;
+        }
+
+        public int getSocketTimeoutMilli() {
+            return socketTimeoutMilli;
+        }
+
+        public int getStreamBufferSize() {
+            return streamBufferSize;
+        }
+
+        public int getMaxConcurrencyPerBackend() {
+            return maxConcurrencyPerBackend;
+        }
+
+        public boolean isSessionReuse() {
+            return sessionReuse;
+        }
+
+        public Duration getSessionIdleTimeout() {
+            return sessionIdleTimeout;
+        }
+
+        public Duration getUnhealthyBackendDelay() {
+            return unhealthyBackendDelay;
+        }
+    }
+
+    private class Session implements Closeable {
+        private final Backend backend;
+        private final Socket socket;
+        private final OutputStream outputStream;
+        private final InputStream inputStream;
+        private Instant lastUsed;
+        private boolean reused;
+
+        Session(Backend backend, Socket socket) throws IOException {
+            this.backend = backend;
+            this.socket = socket;
+            this.outputStream = new BufferedOutputStream(socket.getOutputStream(), configuration.getStreamBufferSize());
+            this.inputStream = socket.getInputStream();
+            this.lastUsed = clock.instant();
+        }
+
+        boolean isExpired() {
+            return socket.isClosed() || lastUsed.plus(configuration.getSessionIdleTimeout()).isBefore(clock.instant());
+        }
+
+        boolean hasVirus(InputStream mimeMessage) throws IOException {
+            outputStream.write(INSTREAM_COMMAND);
+            outputStream.flush();
+
+            byte[] buffer = new byte[configuration.getStreamBufferSize()];
+            int read = mimeMessage.read(buffer);
+            while (read >= 0) {
+                outputStream.write(ByteBuffer.allocate(4).putInt(read).array());
+                outputStream.write(buffer, 0, read);
+                if (inputStream.available() > 0) {
+                    throw new IOException("Reply from server: " + readReply());
+                }
+                read = mimeMessage.read(buffer);
+            }
+            outputStream.write(END_OF_STREAM);
+            outputStream.flush();
+
+            String reply = readReply();
+            lastUsed = clock.instant();
+            reused = true;
+            if (reply.endsWith(ERROR_STRING)) {
+                throw new IOException("Reply from server: " + reply);
+            }
+            return reply.contains(FOUND_STRING);
+        }
+
+        /**
+         * In <code>z</code> mode replies are terminated by a NULL character. When not in a session CLAMD closes
+         * the connection after replying.
+         */
+        private String readReply() throws IOException {
+            ByteArrayOutputStream reply = new ByteArrayOutputStream();
+            int read = inputStream.read();
+            while (read > 0) {
+                reply.write(read);
+                read = inputStream.read();
+            }
+            if (read < 0) {
+                socket.close();
+                throw new IOException("CLAMD closed the connection before completing its reply: '"
+                    + reply.toString(StandardCharsets.US_ASCII).trim() + "'");
+            }
+            String result = reply.toString(StandardCharsets.US_ASCII).trim();
+            if (result.isEmpty()) {
+                throw new IOException("Empty reply from CLAMD");
+            }
+            return result;
+        }
+
+        @Override
+        public void close() {
+            try {
+                if (configuration.isSessionReuse() && !socket.isClosed()) {
+                    outputStream.write(END_COMMAND);
+                    outputStream.flush();
+                }
+            } catch (IOException e) {
+                LOGGER.debug("Failed ending CLAMD session on {}", backend.address, e);
+            } finally {
+                try {
+                    socket.close();
+                } catch (IOException e) {
+                    LOGGER.debug("Failed closing CLAMD socket on {}", backend.address, e);
+                }
+            }
+        }
+    }
+
+    private class Backend {
+        private final InetAddress address;
+        private final Semaphore permits;
+        private final Deque<Session> idleSessions;
+        private volatile Instant unhealthyUntil;
+
+        Backend(InetAddress address) {
+            this.address = address;
+            this.permits = new Semaphore(configuration.getMaxConcurrencyPerBackend(), true);
+            this.idleSessions = new ConcurrentLinkedDeque<>();
+            this.unhealthyUntil = Instant.MIN;
+        }
+
+        boolean isHealthy() {
+            return unhealthyUntil.isBefore(clock.instant());
+        }
+
+        void markUnhealthy() {
+            unhealthyUntil = clock.instant().plus(configuration.getUnhealthyBackendDelay());
+            closeIdleSessions();
+        }
+
+        void markHealthy() {
+            unhealthyUntil = Instant.MIN;
+        }
+
+        Session borrowSession() throws IOException {
+            if (configuration.isSessionReuse()) {
+                Optional<Session> idleSession = pollNonExpiredSession();
+                if (idleSession.isPresent()) {
+                    return idleSession.get();
+                }
+            }
+            return openSession();
+        }
+
+        private Optional<Session> pollNonExpiredSession() {
+            Session session = idleSessions.pollFirst();
+            while (session != null) {
+                if (!session.isExpired()) {
+                    return Optional.of(session);
+                }
+                session.close();
+                session = idleSessions.pollFirst();
+            }
+            return Optional.empty();
+        }
+
+        Session openSession() throws IOException {
+            Socket socket = new Socket();
+            try {
+                socket.connect(new InetSocketAddress(address, port), configuration.getSocketTimeoutMilli());
+                socket.setSoTimeout(configuration.getSocketTimeoutMilli());
+                Session session = new Session(this, socket);
+                if (configuration.isSessionReuse()) {
+                    session.outputStream.write(IDSESSION_COMMAND);
+                    session.outputStream.flush();
+                }
+                return session;
+            } catch (IOException e) {
+                socket.close();
+                throw e;
+            }
+        }
+
+        void releaseSession(Session session) {
+            if (configuration.isSessionReuse() && !session.socket.isClosed()) {
+                idleSessions.offerFirst(session);
+            } else {
+                session.close();
+            }
+        }
+
+        void closeIdleSessions() {
+            Session session = idleSessions.pollFirst();
+            while (session != null) {
+                session.close();
+                session = idleSessions.pollFirst();
+            }
+        }
+    }
+
+    private final ImmutableList<Backend> backends;
+    private final int port;
+    private final Configuration configuration;
+    private final MetricFactory metricFactory;
+    private final Metric pendingScans;
+    private final Clock clock;
+    private final AtomicInteger nextBackendIndex;
+
+    public ClamdClient(List<InetAddress> addresses, int port, Configuration configuration, MetricFactory metricFactory) {
+        this(addresses, port, configuration, metricFactory, Clock.systemUTC());
+    }
+
+    @VisibleForTesting
+    ClamdClient(List<InetAddress> addresses, int port, Configuration configuration, MetricFactory metricFactory, Clock clock) {
+        Preconditions.checkArgument(!addresses.isEmpty(), "At least one CLAMD address is required");
+
+        this.port = port;
+        this.configuration = configuration;
+        this.metricFactory = metricFactory;
+        this.pendingScans = metricFactory.generate(PENDING_SCANS_METRIC);
+        this.clock = clock;
+        this.nextBackendIndex = new AtomicInteger(0);
+        this.backends = addresses.stream()
+            .map(Backend::new)
+            .collect(ImmutableList.toImmutableList());
+    }
+
+    /**
+     * Streams the given content to CLAMD using <code>INSTREAM</code>.
+     *
+     * The content can only be read once: a scan failing on a reused session is not retried, and its failure is
+     * thrown.
+     *
+     * @return true if CLAMD reported the content as infected
+     * @throws ConnectException if no CLAMD backend accepted the connection
+     * @throws IOException if the scan failed
+     */
+    public boolean hasVirus(InputStream content) throws IOException {
+        return hasVirus(singleUse(content), !RETRYABLE);
+    }
+
+    /**
+     * Streams the given content to CLAMD using <code>INSTREAM</code>.
+     *
+     * The content is read again when a scan failing on a reused session is retried on a new connection.
+     *
+     * @return true if CLAMD reported the content as infected
+     * @throws ConnectException if no CLAMD backend accepted the connection
+     * @throws IOException if the scan failed
+     */
+    public boolean hasVirus(ByteSource content) throws IOException {
+        return hasVirus(content, RETRYABLE);
+    }
+
+    private boolean hasVirus(ByteSource content, boolean retryable) throws IOException {
+        TimeMetric timeMetric = metricFactory.timer(SCAN_TIMER);
+        try {
+            return hasVirus(content, retryable, nextBackendIndex.getAndIncrement());
+        } finally {
+            timeMetric.stopAndPublish();
+        }
+    }
+
+    private static ByteSource singleUse(InputStream content) {
+        return new ByteSource() {
+            @Override
+            public InputStream openStream() {
+                return new FilterInputStream(content) {
+                    @Override
+                    public void close() {
+                        // Closing the stream is left to the caller
+                    }
+                };
+            }
+        };
+    }
+
+    private boolean hasVirus(ByteSource content, boolean retryable, int startIndex) throws IOException {
+        ImmutableList<Backend> candidates = backendsStartingFrom(startIndex);
+        for (Backend backend : candidates) {
+            Optional<Session> session = acquire(backend);
+            if (session.isPresent()) {
+                return scan(backend, session.get(), content, retryable);
+            }
+        }
+        String logText = "Unable to connect to CLAMD. All addresses failed.";
+        LOGGER.debug("{} Giving up.", logText);
+        throw new ConnectException(logText);
+    }
+
+    /**
+     * Healthy backends first, in round-robin order, then unhealthy ones as a last resort.
+     */
+    private ImmutableList<Backend> backendsStartingFrom(int startIndex) {
+        ImmutableList.Builder<Backend> healthy = ImmutableList.builder();
+        ImmutableList.Builder<Backend> unhealthy = ImmutableList.builder();
+        for (int i = 0; i < backends.size(); i++) {
+            Backend backend = backends.get(Math.floorMod(startIndex + i, backends.size()));
+            if (backend.isHealthy()) {
+                healthy.add(backend);
+            } else {
+                unhealthy.add(backend);
+            }
+        }
+        return healthy.addAll(unhealthy.build()).build();
+    }
+
+    private Optional<Session> acquire(Backend backend) throws IOException {
+        acquirePermit(backend);
+        try {
+            Session session = backend.borrowSession();
+            backend.markHealthy();
+            return Optional.of(session);
+        } catch (IOException e) {
+            LOGGER.error("Exception caught acquiring socket to CLAMD on {} on port {}: {}", backend.address, port, e.getMessage());
+            backend.permits.release();
+            backend.markUnhealthy();
+            return Optional.empty();
+        }
+    }
+
+    private void acquirePermit(Backend backend) throws IOException {
+        pendingScans.increment();
+        try {
+            backend.permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for a CLAMD connection", e);
+        } finally {
+            pendingScans.decrement();
+        }
+    }
+
+    private boolean scan(Backend backend, Session session, ByteSource content, boolean retryable) throws IOException {
+        try {
+            boolean reused = session.reused;
+            try {
+                return scanOnce(backend, session, content);
+            } catch (IOException e) {
+                if (!reused || !retryable) {
+                    throw e;
+                }
+                LOGGER.debug("Scan failed on a reused CLAMD session on {}, retrying on a new connection", backend.address, e);
+                return scanOnce(backend, backend.openSession(), content);
+            }
+        } finally {
+            backend.permits.release();
+        }
+    }
+
+    private boolean scanOnce(Backend backend, Session session, ByteSource content) throws IOException {
+        try (InputStream stream = content.openStream()) {
+            boolean hasVirus = session.hasVirus(stream);
+            backend.releaseSession(session);
+            return hasVirus;
+        } catch (IOException e) {
+            session.close();
+            throw e;
+        }
+    }
+
+    @VisibleForTesting
+    int idleSessionCount() {
+        return backends.stream()
+            .mapToInt(backend -> backend.idleSessions.size())
+            .sum();
+    }
+
+    @Override
+    public void close() {
+        backends.forEach(Backend::closeIdleSessions);
+    }
+}
@@ -28,6 +28,7 @@ import java.io.InputStream;
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
 
+import org.apache.james.metrics.tests.RecordingMetricFactory;
 import org.apache.james.server.core.MimeMessageInputStream;
 import org.apache.james.util.MimeMessageUtil;
 import org.apache.mailet.Mail;
@@ -45,7 +46,7 @@ class ClamAVScanTest {
 
     @BeforeEach
     public void setUp() throws MessagingException {
-        clamAVScan = new ClamAVScan();
+        clamAVScan = new ClamAVScan(new RecordingMetricFactory());
         FakeMailetConfig mailetConfig = FakeMailetConfig.builder()
             .mailetName("Test")
             .setProperty("host", "localhost")
@@ -0,0 +1,301 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.clamav;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.ConnectException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.james.metrics.tests.RecordingMetricFactory;
+import org.apache.james.util.concurrent.NamedThreadFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.io.ByteSource;
+
+class ClamdClientTest {
+    private static final String VIRUS = "X5O!P%@AP[4\\PZX54(P^)7CC)7}$EICAR";
+
+    /**
+     * Minimal CLAMD speaking the <code>z</code> variant of <code>IDSESSION</code>, <code>INSTREAM</code> and
+     * <code>END</code>.
+     */
+    static class FakeClamd implements Runnable {
+        enum Behavior {
+            REPLY,
+            CLOSE_SESSION_AFTER_REPLY,
+            CLOSE_WITHOUT_REPLY,
+            EMPTY_REPLY
+        }
+
+        private volatile Behavior behavior = Behavior.REPLY;
+        private final ServerSocket serverSocket;
+        private final ExecutorService connectionHandlers;
+        private final AtomicInteger acceptedConnections;
+
+        FakeClamd() throws IOException {
+            this.serverSocket = new ServerSocket(0);
+            this.connectionHandlers = Executors.newCachedThreadPool(NamedThreadFactory.withClassName(getClass()));
+            this.acceptedConnections = new AtomicInteger(0);
+        }
+
+        int getPort() {
+            return serverSocket.getLocalPort();
+        }
+
+        int getAcceptedConnections() {
+            return acceptedConnections.get();
+        }
+
+        void setBehavior(Behavior behavior) {
+            this.behavior = behavior;
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (!serverSocket.isClosed()) {
+                    Socket socket = serverSocket.accept();
+                    acceptedConnections.incrementAndGet();
+                    connectionHandlers.execute(() -> handle(socket));
+                }
+            } catch (IOException e) {
+                // server stopped
+            }
+        }
+
+        private void handle(Socket socket) {
+            try (socket;
+                 DataInputStream in = new DataInputStream(socket.getInputStream());
+                 OutputStream out = socket.getOutputStream()) {
+                boolean session = false;
+                int requestId = 0;
+                String command = readCommand(in);
+                while (command != null) {
+                    switch (command) {
+                        case "zIDSESSION" -> session = true;
+                        case "zEND" -> {
+                            return;
+                        }
+                        case "zINSTREAM" -> {
+                            requestId++;
+                            String reply = scan(in);
+                            switch (behavior) {
+                                case CLOSE_WITHOUT_REPLY -> {
+                                    return;
+                                }
+                                case EMPTY_REPLY -> out.write(0);
+                                default -> out.write(((session ? requestId + ": " : "") + reply + "\0").getBytes(StandardCharsets.US_ASCII));
+                            }
+                            out.flush();
+                            if (!session || behavior == Behavior.CLOSE_SESSION_AFTER_REPLY) {
+                                return;
+                            }
+                        }
+                        default -> {
+                            return;
+                        }
+                    }
+                    command = readCommand(in);
+                }
+            } catch (IOException e) {
+                // connection dropped
+            }
+        }
+
+        private String readCommand(DataInputStream in) throws IOException {
+            ByteArrayOutputStream command = new ByteArrayOutputStream();
+            int read = in.read();
+            while (read > 0) {
+                command.write(read);
+                read = in.read();
+            }
+            if (read < 0) {
+                return null;
+            }
+            return command.toString(StandardCharsets.US_ASCII);
+        }
+
+        private String scan(DataInputStream in) throws IOException {
+            ByteArrayOutputStream content = new ByteArrayOutputStream();
+            int chunkSize = in.readInt();
+            while (chunkSize > 0) {
+                content.write(in.readNBytes(chunkSize));
+                chunkSize = in.readInt();
+            }
+            if (content.toString(StandardCharsets.US_ASCII).contains(VIRUS)) {
+                return "stream: Eicar-Signature FOUND";
+            }
+            return "stream: OK";
+        }
+
+        void stop() throws IOException {
+            serverSocket.close();
+            connectionHandlers.shutdownNow();
+        }
+    }
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(NamedThreadFactory.withClassName(getClass()));
+    private FakeClamd fakeClamd;
+    private RecordingMetricFactory metricFactory;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        fakeClamd = new FakeClamd();
+        executor.execute(fakeClamd);
+        metricFactory = new RecordingMetricFactory();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        fakeClamd.stop();
+        executor.shutdownNow();
+    }
+
+    private ClamdClient client(boolean sessionReuse) throws IOException {
+        return new ClamdClient(ImmutableList.of(InetAddress.getLoopbackAddress()), fakeClamd.getPort(),
+            new ClamdClient.Configuration(5000, 16, 2, sessionReuse, Duration.ofMinutes(1), Duration.ofSeconds(30)),
+            metricFactory);
+    }
+
+    private ByteArrayInputStream content(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    void hasVirusShouldReturnFalseWhenCleanContent() throws Exception {
+        try (ClamdClient client = client(true)) {
+            assertThat(client.hasVirus(content("Subject: hello\r\n\r\nA clean body spanning several chunks\r\n"))).isFalse();
+        }
+    }
+
+    @Test
+    void hasVirusShouldReturnTrueWhenInfectedContent() throws Exception {
+        try (ClamdClient client = client(true)) {
+            assertThat(client.hasVirus(content("Subject: hello\r\n\r\n" + VIRUS + "\r\n"))).isTrue();
+        }
+    }
+
+    @Test
+    void hasVirusShouldReuseSessionsWhenEnabled() throws Exception {
+        try (ClamdClient client = client(true)) {
+            client.hasVirus(content("first"));
+            client.hasVirus(content(VIRUS));
+            assertThat(client.hasVirus(content("third"))).isFalse();
+
+            assertThat(fakeClamd.getAcceptedConnections()).isEqualTo(1);
+            assertThat(client.idleSessionCount()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void hasVirusShouldOpenOneConnectionPerScanWhenSessionReuseIsDisabled() throws Exception {
+        try (ClamdClient client = client(false)) {
+            client.hasVirus(content("first"));
+            assertThat(client.hasVirus(content(VIRUS))).isTrue();
+
+            assertThat(fakeClamd.getAcceptedConnections()).isEqualTo(2);
+            assertThat(client.idleSessionCount()).isZero();
+        }
+    }
+
+    @Test
+    void hasVirusShouldRetryOnANewConnectionWhenTheReusedSessionWasClosed() throws Exception {
+        fakeClamd.setBehavior(FakeClamd.Behavior.CLOSE_SESSION_AFTER_REPLY);
+
+        try (ClamdClient client = client(true)) {
+            client.hasVirus(ByteSource.wrap("first".getBytes(StandardCharsets.US_ASCII)));
+
+            assertThat(client.hasVirus(ByteSource.wrap(VIRUS.getBytes(StandardCharsets.US_ASCII)))).isTrue();
+            assertThat(fakeClamd.getAcceptedConnections()).isEqualTo(2);
+        }
+    }
+
+    @Test
+    void hasVirusShouldThrowWhenTheReusedSessionWasClosedAndContentCanNotBeReadAgain() throws Exception {
+        fakeClamd.setBehavior(FakeClamd.Behavior.CLOSE_SESSION_AFTER_REPLY);
+
+        try (ClamdClient client = client(true)) {
+            client.hasVirus(content("first"));
+
+            assertThatThrownBy(() -> client.hasVirus(content(VIRUS)))
+                .isInstanceOf(IOException.class);
+            assertThat(fakeClamd.getAcceptedConnections()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void hasVirusShouldThrowWhenConnectionIsClosedWithoutReply() throws Exception {
+        fakeClamd.setBehavior(FakeClamd.Behavior.CLOSE_WITHOUT_REPLY);
+
+        try (ClamdClient client = client(true)) {
+            assertThatThrownBy(() -> client.hasVirus(content("any")))
+                .isInstanceOf(IOException.class);
+        }
+    }
+
+    @Test
+    void hasVirusShouldThrowWhenEmptyReply() throws Exception {
+        fakeClamd.setBehavior(FakeClamd.Behavior.EMPTY_REPLY);
+
+        try (ClamdClient client = client(false)) {
+            assertThatThrownBy(() -> client.hasVirus(content("any")))
+                .isInstanceOf(IOException.class);
+        }
+    }
+
+    @Test
+    void hasVirusShouldThrowWhenNoBackendIsReachable() throws Exception {
+        int port = fakeClamd.getPort();
+        fakeClamd.stop();
+
+        try (ClamdClient client = new ClamdClient(ImmutableList.of(InetAddress.getLoopbackAddress()), port,
+                new ClamdClient.Configuration(5000, 16, 2, true, Duration.ofMinutes(1), Duration.ofSeconds(30)),
+                metricFactory)) {
+            assertThatThrownBy(() -> client.hasVirus(content("any")))
+                .isInstanceOf(ConnectException.class);
+        }
+    }
+
+    @Test
+    void hasVirusShouldRecordScanLatency() throws Exception {
+        try (ClamdClient client = client(true)) {
+            client.hasVirus(content("first"));
+
+            assertThat(metricFactory.executionTimesFor(ClamdClient.SCAN_TIMER)).hasSize(1);
+        }
+    }
+}
@@ -30,7 +30,6 @@ import org.apache.james.metrics.api.MetricFactory;
 import org.apache.james.user.api.UsersRepository;
 import org.apache.james.user.api.UsersRepositoryException;
 import org.apache.james.util.AuditTrail;
-import org.apache.james.util.Host;
 import org.apache.mailet.Attribute;
 import org.apache.mailet.Mail;
 import org.apache.mailet.PerRecipientHeaders;
@@ -63,16 +62,14 @@ import com.google.common.collect.ImmutableMap;
  * </pre>
  */
 public class SpamAssassin extends GenericMailet {
-    private final MetricFactory metricFactory;
     private final UsersRepository usersRepository;
 
-    private final Host spamAssassinHost;
+    private final SpamAssassinInvoker spamAssassinInvoker;
 
     @Inject
     public SpamAssassin(MetricFactory metricFactory, UsersRepository usersRepository, SpamAssassinConfiguration spamAssassinConfiguration) {
-        this.metricFactory = metricFactory;
         this.usersRepository = usersRepository;
-        this.spamAssassinHost = spamAssassinConfiguration.getHost();
+        this.spamAssassinInvoker = new SpamAssassinInvoker(metricFactory, spamAssassinConfiguration);
     }
 
     @Override
@@ -80,10 +77,9 @@ public class SpamAssassin extends GenericMailet {
         MimeMessage message = mail.getMessage();
 
         // Invoke SpamAssassin connection and scan the message
-        SpamAssassinInvoker sa = new SpamAssassinInvoker(metricFactory, spamAssassinHost.getHostName(), spamAssassinHost.getPort());
         mail.getRecipients()
             .forEach(
-                Throwing.consumer((MailAddress recipient) -> querySpamAssassin(mail, message, sa, recipient))
+                Throwing.consumer((MailAddress recipient) -> querySpamAssassin(mail, message, spamAssassinInvoker, recipient))
                     .sneakyThrow());
     }
 
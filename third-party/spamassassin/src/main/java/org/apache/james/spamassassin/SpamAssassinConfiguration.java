@@ -21,6 +21,7 @@ package org.apache.james.spamassassin;
 
 
 import java.util.Objects;
+import java.util.Optional;
 
 import org.apache.james.util.Host;
 
@@ -29,9 +30,15 @@ import com.google.common.base.MoreObjects;
 public class SpamAssassinConfiguration {
 
     private final Host host;
+    private final Optional<Integer> maxConcurrency;
 
     public SpamAssassinConfiguration(Host host) {
+        this(host, Optional.empty());
+    }
+
+    public SpamAssassinConfiguration(Host host, Optional<Integer> maxConcurrency) {
         this.host = host;
+        this.maxConcurrency = maxConcurrency;
     }
 
 
@@ -39,25 +46,34 @@ public class SpamAssassinConfiguration {
         return host;
     }
 
+    /**
+     * @return the maximum number of concurrent requests each component sends to spamd. Empty means unbounded.
+     */
+    public Optional<Integer> getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
     @Override
     public final boolean equals(Object o) {
         if (o instanceof SpamAssassinConfiguration) {
             SpamAssassinConfiguration that = (SpamAssassinConfiguration) o;
 
-            return Objects.equals(this.host, that.host);
+            return Objects.equals(this.host, that.host)
+                && Objects.equals(this.maxConcurrency, that.maxConcurrency);
         }
         return false;
     }
 
     @Override
     public final int hashCode() {
-        return Objects.hash(host);
+        return Objects.hash(host, maxConcurrency);
     }
 
     @Override
     public String toString() {
         return MoreObjects.toStringHelper(this)
             .add("host", host)
+            .add("maxConcurrency", maxConcurrency)
             .toString();
     }
 }
\ No newline at end of file
@@ -67,8 +67,7 @@ import org.slf4j.LoggerFactory;
 public class SpamAssassinHandler implements JamesMessageHook, ProtocolHandler {
     private static final Logger LOGGER = LoggerFactory.getLogger(SpamAssassinHandler.class);
 
-    private final MetricFactory metricFactory;
-    private final SpamAssassinConfiguration spamAssassinConfiguration;
+    private final SpamAssassinInvoker spamAssassinInvoker;
 
     /**
      * The hits on which the message get rejected
@@ -77,8 +76,7 @@ public class SpamAssassinHandler implements JamesMessageHook, ProtocolHandler {
 
     @Inject
     public SpamAssassinHandler(MetricFactory metricFactory, SpamAssassinConfiguration spamAssassinConfiguration) {
-        this.metricFactory = metricFactory;
-        this.spamAssassinConfiguration = spamAssassinConfiguration;
+        this.spamAssassinInvoker = new SpamAssassinInvoker(metricFactory, spamAssassinConfiguration);
     }
 
 
@@ -96,8 +94,7 @@ public class SpamAssassinHandler implements JamesMessageHook, ProtocolHandler {
     public HookResult onMessage(SMTPSession session, Mail mail) {
         try {
             MimeMessage message = mail.getMessage();
-            SpamAssassinInvoker sa = new SpamAssassinInvoker(metricFactory, spamAssassinConfiguration.getHost().getHostName(), spamAssassinConfiguration.getHost().getPort());
-            SpamAssassinResult result = sa.scanMail(message);
+            SpamAssassinResult result = spamAssassinInvoker.scanMail(message);
 
             // Add the headers
             result.getHeadersAsAttributes().forEach(mail::setAttribute);
@@ -30,12 +30,15 @@ import java.net.Socket;
 import java.net.UnknownHostException;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Semaphore;
 
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
 
 import org.apache.commons.io.IOUtils;
 import org.apache.james.core.Username;
+import org.apache.james.metrics.api.Metric;
 import org.apache.james.metrics.api.MetricFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -47,6 +50,10 @@ import com.google.common.collect.Lists;
 /**
  * Sends the message through daemonized SpamAssassin (spamd), visit <a
  * href="SpamAssassin.org">SpamAssassin.org</a> for info on configuration.
+ *
+ * spamd closes the connection after each request, hence connections can not be reused. An invoker can instead
+ * be shared between threads and bound the number of concurrent requests it sends to spamd: exceeding
+ * requests wait for a slot and are reported by the <code>spamAssassin-pending</code> metric.
  */
 public class SpamAssassinInvoker {
     private static final Logger LOGGER = LoggerFactory.getLogger(SpamAssassinInvoker.class);
@@ -66,10 +73,18 @@ public class SpamAssassinInvoker {
     private static final int HITS_INDEX = 3;
     private static final int REQUIRED_HITS_INDEX = 5;
     private static final String CRLF = "\r\n";
+    public static final String PENDING_REQUESTS_METRIC = "spamAssassin-pending";
+
+    @FunctionalInterface
+    private interface SpamdRequest<T> {
+        T execute() throws MessagingException;
+    }
 
     private final MetricFactory metricFactory;
     private final String spamdHost;
     private final int spamdPort;
+    private final Optional<Semaphore> concurrencyLimit;
+    private final Metric pendingRequests;
 
     /**
      * Init the spamassassin invoker
@@ -79,9 +94,49 @@ public class SpamAssassinInvoker {
      * @param spamdPort
      */
     public SpamAssassinInvoker(MetricFactory metricFactory, String spamdHost, int spamdPort) {
+        this(metricFactory, spamdHost, spamdPort, Optional.empty());
+    }
+
+    /**
+     * Init the spamassassin invoker
+     *
+     * @param spamdHost
+     *            The host on which spamd runs
+     * @param spamdPort
+     * @param maxConcurrency
+     *            The maximum number of concurrent requests sent to spamd by this invoker. Empty means unbounded.
+     */
+    public SpamAssassinInvoker(MetricFactory metricFactory, String spamdHost, int spamdPort, Optional<Integer> maxConcurrency) {
         this.metricFactory = metricFactory;
         this.spamdHost = spamdHost;
         this.spamdPort = spamdPort;
+        this.concurrencyLimit = maxConcurrency.map(permits -> new Semaphore(permits, true));
+        this.pendingRequests = metricFactory.generate(PENDING_REQUESTS_METRIC);
+    }
+
+    public SpamAssassinInvoker(MetricFactory metricFactory, SpamAssassinConfiguration configuration) {
+        this(metricFactory, configuration.getHost().getHostName(), configuration.getHost().getPort(), configuration.getMaxConcurrency());
+    }
+
+    private <T> T withConcurrencyLimit(SpamdRequest<T> request) throws MessagingException {
+        if (concurrencyLimit.isEmpty()) {
+            return request.execute();
+        }
+        Semaphore semaphore = concurrencyLimit.get();
+        pendingRequests.increment();
+        try {
+            semaphore.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MessagingException("Interrupted while waiting for spamd on " + spamdHost + ":" + spamdPort, e);
+        } finally {
+            pendingRequests.decrement();
+        }
+        try {
+            return request.execute();
+        } finally {
+            semaphore.release();
+        }
     }
 
     /**
@@ -97,8 +152,8 @@ public class SpamAssassinInvoker {
         return metricFactory.decorateSupplierWithTimerMetric(
             "spamAssassin-check",
             Throwing.supplier(
-                () -> scanMailWithAdditionalHeaders(message,
-                    "User: " + username.asString()))
+                () -> withConcurrencyLimit(() -> scanMailWithAdditionalHeaders(message,
+                    "User: " + username.asString())))
                 .sneakyThrow());
     }
 
@@ -106,7 +161,7 @@ public class SpamAssassinInvoker {
         return metricFactory.decorateSupplierWithTimerMetric(
             "spamAssassin-check",
             Throwing.supplier(
-                () -> scanMailWithoutAdditionalHeaders(message))
+                () -> withConcurrencyLimit(() -> scanMailWithoutAdditionalHeaders(message)))
             .sneakyThrow());
     }
 
@@ -197,7 +252,7 @@ public class SpamAssassinInvoker {
         return metricFactory.decorateSupplierWithTimerMetric(
             "spamAssassin-spam-report",
             Throwing.supplier(
-                () -> reportMessageAs(message, username, MessageClass.SPAM))
+                () -> withConcurrencyLimit(() -> reportMessageAs(message, username, MessageClass.SPAM)))
                 .sneakyThrow());
     }
 
@@ -213,7 +268,7 @@ public class SpamAssassinInvoker {
         return metricFactory.decorateSupplierWithTimerMetric(
             "spamAssassin-ham-report",
             Throwing.supplier(
-                () -> reportMessageAs(message, username, MessageClass.HAM))
+                () -> withConcurrencyLimit(() -> reportMessageAs(message, username, MessageClass.HAM)))
                 .sneakyThrow());
     }
 
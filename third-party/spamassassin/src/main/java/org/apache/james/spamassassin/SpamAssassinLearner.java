@@ -27,29 +27,24 @@ import jakarta.inject.Inject;
 
 import org.apache.james.core.Username;
 import org.apache.james.metrics.api.MetricFactory;
-import org.apache.james.util.Host;
 
 import com.github.fge.lambdas.Throwing;
 
 public class SpamAssassinLearner {
 
-    private final MetricFactory metricFactory;
-    private final Host spamAssassinHost;
+    private final SpamAssassinInvoker invoker;
 
     @Inject
     public SpamAssassinLearner(MetricFactory metricFactory, SpamAssassinConfiguration spamAssassinConfiguration) {
-        this.metricFactory = metricFactory;
-        this.spamAssassinHost = spamAssassinConfiguration.getHost();
+        this.invoker = new SpamAssassinInvoker(metricFactory, spamAssassinConfiguration);
     }
 
     public void learnSpam(List<InputStream> messages, Username username) {
-        SpamAssassinInvoker invoker = new SpamAssassinInvoker(metricFactory, spamAssassinHost.getHostName(), spamAssassinHost.getPort());
         messages
             .forEach(Throwing.consumer(message -> invoker.learnAsSpam(message, username)));
     }
 
     public void learnHam(List<InputStream> messages, Username username) {
-        SpamAssassinInvoker invoker = new SpamAssassinInvoker(metricFactory, spamAssassinHost.getHostName(), spamAssassinHost.getPort());
         messages
             .forEach(Throwing.consumer(message -> invoker.learnAsHam(message, username)));
     }
@@ -20,6 +20,7 @@
 package org.apache.james.spamassassin;
 
 import java.io.FileNotFoundException;
+import java.util.Optional;
 
 import jakarta.inject.Singleton;
 
@@ -34,6 +35,7 @@ import com.google.inject.Provides;
 public class SpamAssassinModule extends AbstractModule {
     private static final String SPAMASSASSIN_HOST = "spamassassin.host";
     private static final String SPAMASSASSIN_PORT = "spamassassin.port";
+    private static final String SPAMASSASSIN_MAX_CONCURRENCY = "spamassassin.max.concurrency";
     public static final String DEFAULT_HOST = "127.0.0.1";
     public static final int DEFAULT_PORT = 783;
 
@@ -45,6 +47,8 @@ public class SpamAssassinModule extends AbstractModule {
         Host host = Host.from(configuration.getString(SPAMASSASSIN_HOST, DEFAULT_HOST),
             configuration.getInteger(SPAMASSASSIN_PORT, DEFAULT_PORT));
 
-        return new SpamAssassinConfiguration(host);
+        Optional<Integer> maxConcurrency = Optional.ofNullable(configuration.getInteger(SPAMASSASSIN_MAX_CONCURRENCY, null));
+
+        return new SpamAssassinConfiguration(host, maxConcurrency);
     }
 }